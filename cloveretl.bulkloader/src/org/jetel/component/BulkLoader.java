@@ -163,7 +163,9 @@ public abstract class BulkLoader extends Node {
 		preInit();
 		initDataFile();
 		commandLine = createCommandLineForLoadUtility();
-		printCommandLineToLog(commandLine);
+		if (commandLine != null) {
+			printCommandLineToLog(commandLine);
+		}
 		if (isDataReadFromPort) {
 			initDataFormatter();
 		}
@@ -196,7 +198,8 @@ public abstract class BulkLoader extends Node {
 	/**
      * Create command line for process, where load utility is running.
      * 
-     * @return array first field is name of load utility and the others fields are parameters
+     * @return array first field is name of load utility and the others fields are parameters,
+     * null if no load utility is used
 	 * @throws ComponentNotReadyException when command file isn't created
      */
 	protected abstract String[] createCommandLineForLoadUtility() throws ComponentNotReadyException;
@@ -20,20 +20,33 @@ package org.jetel.component;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.sql.SQLException;
 import java.util.Properties;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.jetel.component.postgresql.PostgreSqlBinaryFormatter;
+import org.jetel.component.postgresql.PostgreSqlCopyIn;
+import org.jetel.component.postgresql.PostgreSqlCopyOutputStream;
 import org.jetel.component.util.CommandBuilder;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.database.IConnection;
+import org.jetel.database.sql.DBConnection;
+import org.jetel.database.sql.JdbcSpecific.OperationType;
+import org.jetel.database.sql.SqlConnection;
 import org.jetel.exception.AttributeNotFoundException;
 import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.exception.ConfigurationStatus;
 import org.jetel.exception.JetelException;
 import org.jetel.exception.JetelRuntimeException;
 import org.jetel.exception.XMLConfigurationException;
+import org.jetel.graph.InputPort;
 import org.jetel.graph.Node;
 import org.jetel.graph.Result;
 import org.jetel.graph.TransformationGraph;
@@ -44,6 +57,7 @@ import org.jetel.util.exec.ProcBox;
 import org.jetel.util.exec.StringDataConsumer;
 import org.jetel.util.property.ComponentXMLAttributes;
 import org.jetel.util.property.RefResFlag;
+import org.jetel.util.stream.StreamUtils;
 import org.jetel.util.string.StringUtils;
 import org.w3c.dom.Element;
 
@@ -56,7 +70,11 @@ import org.w3c.dom.Element;
  * from the input port and loaded to database.<br>
  * Any generated commands/files can be optionally logged to help diagnose problems.<br>
  * Before you use this component, make sure that postgreSQL client is installed and configured on the machine where CloverDX runs and
- * psql command line tool available.
+ * psql command line tool available.<br>
+ * If <i>dbConnection</i> attribute is set, psql utility is not used at all. Data are streamed by COPY FROM STDIN statement
+ * over the JDBC connection, formatting of records runs in parallel with sending of data to the database.
+ * Data are sent in text format or in binary format if <i>binary</i> parameter is set. Buffering is bounded by
+ * <i>copyBufferCount</i> buffers of <i>copyBufferSize</i> bytes.
  * 
  * @author      Miroslav Haupt (Mirek.Haupt@javlinconsulting.cz)
  * (c) Javlin Consulting (www.javlinconsulting.cz)
@@ -77,6 +95,11 @@ public class PostgreSqlDataWriter extends BulkLoader {
 	private static final String XML_HOST_ATTRIBUTE = "host";
 	private static final String XML_FAIL_ON_ERROR_ATTRIBUTE = "failOnError";
 
+	// attributes for loading over JDBC connection
+	private static final String XML_DBCONNECTION_ATTRIBUTE = "dbConnection";
+	private static final String XML_COPY_BUFFER_SIZE_ATTRIBUTE = "copyBufferSize";
+	private static final String XML_COPY_BUFFER_COUNT_ATTRIBUTE = "copyBufferCount";
+
 	// params for psql client
 	private static final String PSQL_ECHO_ALL_PARAM = "echoAll";
 	private static final String PSQL_ECHO_QUERIES_PARAM = "echoQueries";
@@ -120,6 +143,7 @@ public class PostgreSqlDataWriter extends BulkLoader {
 
 	// keywords for copy statement
 	private final static String COPY_STDIN_KEYWORD = "pstdin";
+	private final static String COPY_SERVER_STDIN_KEYWORD = "stdin";
 
 	public final static String COMPONENT_TYPE = "POSTGRESQL_DATA_WRITER";
 
@@ -145,6 +169,13 @@ public class PostgreSqlDataWriter extends BulkLoader {
 	private boolean failOnError = true;
 	private boolean csvMode; // true if CSV mode is used for loading data
 	
+	// variables for loading over JDBC connection
+	private String connectionName;
+	private DBConnection dbConnection;
+	private SqlConnection sqlConnection;
+	private int copyBufferSize = PostgreSqlCopyOutputStream.DEFAULT_CHUNK_SIZE;
+	private int copyBufferCount = PostgreSqlCopyOutputStream.DEFAULT_CHUNK_COUNT;
+	
 	/**
 	 * Constructor for the PostgreSqlDataWriter object
 	 * 
@@ -157,6 +188,69 @@ public class PostgreSqlDataWriter extends BulkLoader {
 	public void setFailOnError(boolean failOnError) {
 		this.failOnError = failOnError;
 	}
+
+	public void setDBConnection(String connectionName) {
+		this.connectionName = connectionName;
+	}
+
+	public void setCopyBufferSize(int copyBufferSize) {
+		this.copyBufferSize = copyBufferSize;
+	}
+
+	public void setCopyBufferCount(int copyBufferCount) {
+		this.copyBufferCount = copyBufferCount;
+	}
+
+	/**
+	 * @return true if data are loaded by COPY statement over JDBC connection instead of psql utility
+	 */
+	private boolean isStreamingMode() {
+		return !StringUtils.isEmpty(connectionName);
+	}
+
+	private boolean isBinaryMode() {
+		return properties != null && properties.containsKey(COPY_BINARY_PARAM);
+	}
+
+	@Override
+	public void init() throws ComponentNotReadyException {
+		if (isInitialized()) return;
+		super.init();
+
+		if (isStreamingMode()) {
+			IConnection conn = getGraph().getConnection(connectionName);
+			if (conn == null) {
+				throw new ComponentNotReadyException(this, XML_DBCONNECTION_ATTRIBUTE, "Can't find DBConnection ID: " + connectionName);
+			}
+			if (!(conn instanceof DBConnection)) {
+				throw new ComponentNotReadyException(this, XML_DBCONNECTION_ATTRIBUTE, "Connection with ID: " + connectionName
+						+ " isn't instance of the DBConnection class.");
+			}
+			dbConnection = (DBConnection) conn;
+			dbConnection.init();
+		}
+	}
+
+	@Override
+	public void preExecute() throws ComponentNotReadyException {
+		super.preExecute();
+		if (isStreamingMode()) {
+			try {
+				sqlConnection = dbConnection.getConnection(getId(), OperationType.WRITE);
+			} catch (JetelException e) {
+				throw new ComponentNotReadyException(this, "Can't connect to database.", e);
+			}
+		}
+	}
+
+	@Override
+	public void postExecute() throws ComponentNotReadyException {
+		super.postExecute();
+		if (dbConnection != null) {
+			dbConnection.closeConnection(getId(), OperationType.WRITE);
+			sqlConnection = null;
+		}
+	}
 	
 	@Override
 	protected void createConsumers() throws ComponentNotReadyException {
@@ -172,6 +266,9 @@ public class PostgreSqlDataWriter extends BulkLoader {
 	@Override
 	public Result execute() throws Exception {
 		super.execute();
+		if (isStreamingMode()) {
+			return executeCopy();
+		}
 		ProcBox box;
 		int processExitValue = 0;
 
@@ -212,6 +309,70 @@ public class PostgreSqlDataWriter extends BulkLoader {
 		return runIt ? Result.FINISHED_OK : Result.ABORTED;
 	}
 
+	/**
+	 * Loads data by COPY FROM STDIN statement over the JDBC connection.
+	 * Records are formatted in this thread and sent to the database by the thread of {@link PostgreSqlCopyOutputStream}.
+	 */
+	private Result executeCopy() throws Exception {
+		String copyStatement = getCopyStatement();
+		logger.debug("Copy statement: " + copyStatement);
+
+		ClassLoader driverClassLoader = dbConnection.getJdbcDriver() != null ? dbConnection.getJdbcDriver().getClassLoader() : null;
+		PostgreSqlCopyOutputStream copyOut = null;
+		try {
+			PostgreSqlCopyIn copyIn = PostgreSqlCopyIn.start(sqlConnection, driverClassLoader, copyStatement);
+			copyOut = new PostgreSqlCopyOutputStream(this, copyIn, copyBufferSize, copyBufferCount);
+			if (isDataReadFromPort) {
+				formatter.setDataTarget(copyOut);
+				InputPort inPort = getInputPort(READ_FROM_PORT);
+				DataRecord record = DataRecordFactory.newRecord(dbMetadata);
+				while (runIt && ((record = inPort.readRecord(record)) != null)) {
+					formatter.write(record);
+				}
+			} else {
+				try (InputStream dataIn = new FileInputStream(dataFile)) {
+					StreamUtils.copy(dataIn, copyOut, false, false);
+				}
+			}
+			if (!runIt) {
+				copyOut.cancel();
+				rollbackCopy();
+				return Result.ABORTED;
+			}
+			if (isDataReadFromPort) {
+				formatter.finish();
+				formatter.close(); // closes copyOut
+			} else {
+				copyOut.close();
+			}
+			if (!sqlConnection.getAutoCommit()) {
+				sqlConnection.commit();
+			}
+			logger.info("Number of loaded rows: " + copyOut.getLoadedRows());
+		} catch (Exception e) {
+			if (copyOut != null) {
+				copyOut.cancel();
+			}
+			rollbackCopy();
+			if (failOnError) {
+				throw new JetelException("Loading of data by COPY statement failed.", e);
+			}
+			logger.error("Loading of data by COPY statement failed.", e);
+		}
+
+		return runIt ? Result.FINISHED_OK : Result.ABORTED;
+	}
+
+	private void rollbackCopy() {
+		try {
+			if (!sqlConnection.getAutoCommit()) {
+				sqlConnection.rollback();
+			}
+		} catch (SQLException e) {
+			logger.warn("Rollback failed.", e);
+		}
+	}
+
 	/**
 	 * Return error message according to error code.
 	 * @param exitValue error code of psql utility
@@ -253,6 +414,10 @@ public class PostgreSqlDataWriter extends BulkLoader {
 	
 	@Override
 	protected String[] createCommandLineForLoadUtility() throws ComponentNotReadyException {
+		if (isStreamingMode()) {
+			// psql utility is not used
+			return null;
+		}
 		if (PlatformUtils.isWindowsPlatform()) {
 			loadUtilityPath = StringUtils.backslashToSlash(loadUtilityPath);
 		}
@@ -363,6 +528,37 @@ public class PostgreSqlDataWriter extends BulkLoader {
 			cmdBuilder.add(COPY_STDIN_KEYWORD);
 		}
 		
+		addCopyOptions(cmdBuilder);
+		
+		return cmdBuilder.getCommandAsString();
+	}
+	
+	/**
+	 * Create and return <i>copy</i> statement which is executed over JDBC connection.
+	 * Data are always read from standard input of the database session.
+	 * @return <i>copy</i> statement
+	 */
+	private String getCopyStatement() {
+		CommandBuilder cmdBuilder = new CommandBuilder(properties, SPACE_CHAR);
+
+		// copy table [ ( column_list ) ] from stdin
+		cmdBuilder.add("copy");
+		cmdBuilder.add(table);
+		if (properties.containsKey(COPY_COLUMNS_PARAM)) {
+			cmdBuilder.add("(" + properties.getProperty(COPY_COLUMNS_PARAM) + ")");
+		}
+		cmdBuilder.add("from");
+		cmdBuilder.add(COPY_SERVER_STDIN_KEYWORD);
+		addCopyOptions(cmdBuilder);
+
+		return cmdBuilder.getCommandAsString();
+	}
+
+	/**
+	 * Add options of <i>copy</i> statement which describe format of loaded data.
+	 * @param cmdBuilder builder of the statement
+	 */
+	private void addCopyOptions(CommandBuilder cmdBuilder) {
 		// [ with ] [ binary ] [ oids ] [ delimiter [ as ] 'character' ] [ null [ as ] 'string' ]
 		if (isWithKeywordUsed()) {
 			cmdBuilder.add("with");
@@ -395,8 +591,6 @@ public class PostgreSqlDataWriter extends BulkLoader {
 			cmdBuilder.addParam(COPY_CSV_ESCAPE_PARAM, "escape", true);
 			cmdBuilder.addParam(COPY_CSV_FORCE_NOT_NULL_PARAM, "force not null");
 		}
-		
-		return cmdBuilder.getCommandAsString();
 	}
 	
 	/**
@@ -428,7 +622,8 @@ public class PostgreSqlDataWriter extends BulkLoader {
 	 */
 	private String getNullValue() {
 		if (isDataReadFromPort) {
-			return DEFAULT_NULL_VALUE;
+			// binary format has own representation of null values
+			return isBinaryMode() ? null : DEFAULT_NULL_VALUE;
 		} else {
 			if (properties.containsKey(COPY_NULL_PARAM)) {
 				String nullValue =  properties.getProperty(COPY_NULL_PARAM);
@@ -452,7 +647,12 @@ public class PostgreSqlDataWriter extends BulkLoader {
 	@Override
 	protected void initDataFile() throws ComponentNotReadyException {
 		if (isDataReadFromPort) {
-			if (dataURL != null) {
+			if (isStreamingMode()) {
+				// data are streamed directly to the database
+				if (dataURL != null) {
+					logger.warn(StringUtils.quote(XML_FILE_URL_ATTRIBUTE) + " attribute is ignored, data are sent directly to database.");
+				}
+			} else if (dataURL != null) {
 				dataFile = getFile(dataURL);
 				dataFile.delete();
 			}
@@ -461,6 +661,17 @@ public class PostgreSqlDataWriter extends BulkLoader {
 		}
 	}
 	
+	@Override
+	protected void initDataFormatter() throws ComponentNotReadyException {
+		if (isStreamingMode() && isBinaryMode()) {
+			dbMetadata = getInputPort(READ_FROM_PORT).getMetadata();
+			formatter = new PostgreSqlBinaryFormatter();
+			formatter.init(dbMetadata);
+		} else {
+			super.initDataFormatter();
+		}
+	}
+
 	@Override
 	protected String getColumnDelimiter() {
 		return columnDelimiter;
@@ -500,6 +711,63 @@ public class PostgreSqlDataWriter extends BulkLoader {
 
 	@Override
 	protected void checkParams() throws ComponentNotReadyException {
+		if (isStreamingMode()) {
+			checkStreamingParams();
+		} else {
+			checkPsqlParams();
+		}
+
+		/*Assumes that if delimiter is null, it will be set right away, since checkParams()
+		 *  is run right before preInit() in init() of BulkLoader*/
+		if (columnDelimiter != null && columnDelimiter.length() != 1) {
+			throw new ComponentNotReadyException(this, XML_COLUMN_DELIMITER_ATTRIBUTE, 
+					"Max. length of column delimiter is one.");
+		}
+		
+		if (isBinaryMode() && ((columnDelimiter != null && isColumnDelimiterUsed()) || getNullValue() != null || isCsvModeUsed(properties))) {
+			throw new ComponentNotReadyException(this, "You cannot specify the " +
+					StringUtils.quote(XML_COLUMN_DELIMITER_ATTRIBUTE) + " attribute, " +
+					StringUtils.quote(COPY_NULL_PARAM) + " param or " + 
+					StringUtils.quote("csv") + " param in binary mode (" + 
+					StringUtils.quote(COPY_BINARY_PARAM) + ").");
+		}
+	}
+
+	/**
+	 * Checks attributes of loading over JDBC connection.
+	 */
+	private void checkStreamingParams() throws ComponentNotReadyException {
+		if (!StringUtils.isEmpty(commandURL)) {
+			throw new ComponentNotReadyException(this, XML_COMMAND_URL_ATTRIBUTE, StringUtils.quote(XML_COMMAND_URL_ATTRIBUTE)
+					+ " attribute cannot be used together with " + StringUtils.quote(XML_DBCONNECTION_ATTRIBUTE) + " attribute.");
+		}
+
+		if (StringUtils.isEmpty(table)) {
+			throw new ComponentNotReadyException(this, XML_TABLE_ATTRIBUTE, 
+					StringUtils.quote(XML_TABLE_ATTRIBUTE) + " attribute has to be specified.");
+		}
+
+		if (!isDataReadFromPort && !fileExists(dataURL)) {
+			throw new ComponentNotReadyException(this, "Input port or " + 
+					StringUtils.quote(XML_FILE_URL_ATTRIBUTE) + 
+					" attribute have to be specified and specified file must exist.");
+		}
+
+		if (copyBufferSize <= 0) {
+			throw new ComponentNotReadyException(this, XML_COPY_BUFFER_SIZE_ATTRIBUTE,
+					StringUtils.quote(XML_COPY_BUFFER_SIZE_ATTRIBUTE) + " has to be positive.");
+		}
+
+		if (copyBufferCount < 2) {
+			throw new ComponentNotReadyException(this, XML_COPY_BUFFER_COUNT_ATTRIBUTE,
+					StringUtils.quote(XML_COPY_BUFFER_COUNT_ATTRIBUTE) + " has to be at least 2.");
+		}
+	}
+
+	/**
+	 * Checks attributes of loading by psql utility.
+	 */
+	private void checkPsqlParams() throws ComponentNotReadyException {
 		if (StringUtils.isEmpty(loadUtilityPath)) {
 			throw new ComponentNotReadyException(this, StringUtils.quote(XML_PSQL_PATH_ATTRIBUTE)
 					+ " attribute have to be set.");
@@ -510,6 +778,11 @@ public class PostgreSqlDataWriter extends BulkLoader {
 					StringUtils.quote(XML_DATABASE_ATTRIBUTE) + " attribute have to be set.");
 		}
 
+		if (isBinaryMode() && isDataReadFromPort) {
+			throw new ComponentNotReadyException(this, StringUtils.quote(COPY_BINARY_PARAM)
+					+ " param can be used with input port only together with " + StringUtils.quote(XML_DBCONNECTION_ATTRIBUTE) + " attribute.");
+		}
+
 		if (StringUtils.isEmpty(table) && !fileExists(commandURL)) {
 			throw new ComponentNotReadyException(this, 
 					StringUtils.quote(XML_TABLE_ATTRIBUTE) + " attribute has to be specified or " +
@@ -523,22 +796,6 @@ public class PostgreSqlDataWriter extends BulkLoader {
 					" attribute or " + StringUtils.quote(XML_COMMAND_URL_ATTRIBUTE) +
 					" attribute have to be specified and specified file must exist.");
 		}
-
-		/*Assumes that if delimiter is null, it will be set right away, since checkParams()
-		 *  is run right before preInit() in init() of BulkLoader*/
-		if (columnDelimiter != null && columnDelimiter.length() != 1) {
-			throw new ComponentNotReadyException(this, XML_COLUMN_DELIMITER_ATTRIBUTE, 
-					"Max. length of column delimiter is one.");
-		}
-		
-		if (properties.containsKey(COPY_BINARY_PARAM) && 
-				(isColumnDelimiterUsed() || getNullValue() != null || csvMode)) {
-			throw new ComponentNotReadyException(this, "You cannot specify the " +
-					StringUtils.quote(XML_COLUMN_DELIMITER_ATTRIBUTE) + " attribute, " +
-					StringUtils.quote(COPY_NULL_PARAM) + " param or " + 
-					StringUtils.quote("csv") + " param in binary mode (" + 
-					StringUtils.quote(COPY_BINARY_PARAM) + ").");
-		}
 	}
 	
 	@Override
@@ -573,6 +830,15 @@ public class PostgreSqlDataWriter extends BulkLoader {
 		if (xattribs.exists(XML_FAIL_ON_ERROR_ATTRIBUTE)) {
 			postgreSQLDataWriter.setFailOnError(xattribs.getBoolean(XML_FAIL_ON_ERROR_ATTRIBUTE));
 		}
+		if (xattribs.exists(XML_DBCONNECTION_ATTRIBUTE)) {
+			postgreSQLDataWriter.setDBConnection(xattribs.getString(XML_DBCONNECTION_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_COPY_BUFFER_SIZE_ATTRIBUTE)) {
+			postgreSQLDataWriter.setCopyBufferSize(xattribs.getInteger(XML_COPY_BUFFER_SIZE_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_COPY_BUFFER_COUNT_ATTRIBUTE)) {
+			postgreSQLDataWriter.setCopyBufferCount(xattribs.getInteger(XML_COPY_BUFFER_COUNT_ATTRIBUTE));
+		}
 		if (xattribs.exists(XML_COMMAND_URL_ATTRIBUTE)) {
 			postgreSQLDataWriter.setCommandURL((xattribs.getStringEx(XML_COMMAND_URL_ATTRIBUTE, RefResFlag.URL)));
 		}
@@ -614,12 +880,35 @@ public class PostgreSqlDataWriter extends BulkLoader {
         properties = parseParameters(parameters);
         
         //----Check Parameters        
-        if (StringUtils.isEmpty(loadUtilityPath)) {
-        	status.addError(this, XML_PSQL_PATH_ATTRIBUTE, StringUtils.quote(XML_PSQL_PATH_ATTRIBUTE) + " attribute have to be set.");
-		}		
-		if (StringUtils.isEmpty(database)) {
-			status.addError(this, XML_DATABASE_ATTRIBUTE, StringUtils.quote(XML_DATABASE_ATTRIBUTE) + " attribute have to be set.");
-		}
+        if (isStreamingMode()) {
+        	IConnection conn = getGraph().getConnection(connectionName);
+        	if (conn == null) {
+        		status.addError(this, XML_DBCONNECTION_ATTRIBUTE, "Can't find DBConnection ID: " + connectionName);
+        	} else if (!(conn instanceof DBConnection)) {
+        		status.addError(this, XML_DBCONNECTION_ATTRIBUTE, "Connection with ID: " + connectionName + " isn't instance of the DBConnection class.");
+        	}
+        	if (!StringUtils.isEmpty(commandURL)) {
+        		status.addError(this, XML_COMMAND_URL_ATTRIBUTE, StringUtils.quote(XML_COMMAND_URL_ATTRIBUTE)
+        				+ " attribute cannot be used together with " + StringUtils.quote(XML_DBCONNECTION_ATTRIBUTE) + " attribute.");
+        	}
+        	if (copyBufferSize <= 0) {
+        		status.addError(this, XML_COPY_BUFFER_SIZE_ATTRIBUTE, StringUtils.quote(XML_COPY_BUFFER_SIZE_ATTRIBUTE) + " has to be positive.");
+        	}
+        	if (copyBufferCount < 2) {
+        		status.addError(this, XML_COPY_BUFFER_COUNT_ATTRIBUTE, StringUtils.quote(XML_COPY_BUFFER_COUNT_ATTRIBUTE) + " has to be at least 2.");
+        	}
+        } else {
+        	if (StringUtils.isEmpty(loadUtilityPath)) {
+        		status.addError(this, XML_PSQL_PATH_ATTRIBUTE, StringUtils.quote(XML_PSQL_PATH_ATTRIBUTE) + " attribute have to be set.");
+        	}		
+        	if (StringUtils.isEmpty(database)) {
+        		status.addError(this, XML_DATABASE_ATTRIBUTE, StringUtils.quote(XML_DATABASE_ATTRIBUTE) + " attribute have to be set.");
+        	}
+        	if (isBinaryMode() && isDataReadFromPort) {
+        		status.addError(this, XML_PARAMETERS_ATTRIBUTE, StringUtils.quote(COPY_BINARY_PARAM)
+        				+ " param can be used with input port only together with " + StringUtils.quote(XML_DBCONNECTION_ATTRIBUTE) + " attribute.");
+        	}
+        }
 		try {
 			if (!fileExists(commandURL)) {
 				if (StringUtils.isEmpty(table)) {
@@ -647,7 +936,9 @@ public class PostgreSqlDataWriter extends BulkLoader {
 		//check creation of data and control file
 		try {			
 			initDataFile();
-			createCommandFile();
+			if (!isStreamingMode()) {
+				createCommandFile();
+			}
 		} catch (ComponentNotReadyException e) {
 			status.addError(this, null, e);
 		}
@@ -0,0 +1,279 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component.postgresql;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.jetel.data.DataField;
+import org.jetel.data.DataRecord;
+import org.jetel.data.formatter.AbstractFormatter;
+import org.jetel.data.primitive.Decimal;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.metadata.DataFieldContainerType;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataRecordMetadata;
+
+/**
+ * Formatter of the binary format of PostgreSQL COPY statement.
+ *
+ * Clover types are written as following PostgreSQL types, the target columns have to be of the same types:
+ * <table border="1">
+ * <tr><td>string</td><td>text, varchar</td></tr>
+ * <tr><td>integer</td><td>integer (int4)</td></tr>
+ * <tr><td>long</td><td>bigint (int8)</td></tr>
+ * <tr><td>number</td><td>double precision (float8)</td></tr>
+ * <tr><td>decimal</td><td>numeric</td></tr>
+ * <tr><td>boolean</td><td>boolean</td></tr>
+ * <tr><td>date</td><td>timestamp (without time zone)</td></tr>
+ * <tr><td>byte, cbyte</td><td>bytea</td></tr>
+ * </table>
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class PostgreSqlBinaryFormatter extends AbstractFormatter {
+
+	/** PGCOPY\n\377\r\n\0 */
+	private static final byte[] SIGNATURE = { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 };
+
+	/** 2000-01-01 00:00:00 UTC, the PostgreSQL epoch */
+	private static final long POSTGRES_EPOCH_MILLIS = 946684800000L;
+
+	private static final short NUMERIC_POS = 0x0000;
+	private static final short NUMERIC_NEG = 0x4000;
+	private static final short NUMERIC_NAN = (short) 0xC000;
+	private static final BigInteger NBASE = BigInteger.valueOf(10000);
+
+	private DataRecordMetadata metadata;
+	private DataOutputStream out;
+	private TimeZone timeZone = TimeZone.getDefault();
+	private final List<Short> numericDigits = new ArrayList<Short>();
+
+	@Override
+	public void init(DataRecordMetadata metadata) throws ComponentNotReadyException {
+		for (DataFieldMetadata field : metadata.getFields()) {
+			switch (field.getDataType()) {
+			case STRING:
+			case INTEGER:
+			case LONG:
+			case NUMBER:
+			case DECIMAL:
+			case BOOLEAN:
+			case DATE:
+			case BYTE:
+			case CBYTE:
+				break;
+			default:
+				throw new ComponentNotReadyException("Field " + field.getName() + " of type "
+						+ field.getDataType().getName() + " cannot be loaded in binary mode.");
+			}
+			if (field.getContainerType() != null && field.getContainerType() != DataFieldContainerType.SINGLE) {
+				throw new ComponentNotReadyException("Field " + field.getName() + " is a container, it cannot be loaded in binary mode.");
+			}
+		}
+		this.metadata = metadata;
+	}
+
+	public void setTimeZone(TimeZone timeZone) {
+		this.timeZone = timeZone;
+	}
+
+	@Override
+	public void reset() {
+		out = null;
+	}
+
+	/**
+	 * The binary header is written immediately, each data target receives a complete COPY data stream.
+	 */
+	@Override
+	public void setDataTarget(Object outputDataTarget) throws IOException {
+		out = new DataOutputStream((OutputStream) outputDataTarget);
+		writeHeader();
+	}
+
+	@Override
+	public int writeHeader() throws IOException {
+		out.write(SIGNATURE);
+		out.writeInt(0); // flags
+		out.writeInt(0); // header extension length
+		return SIGNATURE.length + 8;
+	}
+
+	@Override
+	public int write(DataRecord record) throws IOException {
+		int start = out.size();
+		int numFields = metadata.getNumFields();
+		out.writeShort(numFields);
+		for (int i = 0; i < numFields; i++) {
+			writeField(record.getField(i));
+		}
+		return out.size() - start;
+	}
+
+	private void writeField(DataField field) throws IOException {
+		if (field.isNull()) {
+			out.writeInt(-1);
+			return;
+		}
+		switch (field.getMetadata().getDataType()) {
+		case STRING:
+			writeBytes(field.getValue().toString().getBytes(StandardCharsets.UTF_8));
+			break;
+		case INTEGER:
+			out.writeInt(4);
+			out.writeInt((Integer) field.getValue());
+			break;
+		case LONG:
+			out.writeInt(8);
+			out.writeLong((Long) field.getValue());
+			break;
+		case NUMBER:
+			out.writeInt(8);
+			out.writeDouble((Double) field.getValue());
+			break;
+		case BOOLEAN:
+			out.writeInt(1);
+			out.writeByte((Boolean) field.getValue() ? 1 : 0);
+			break;
+		case DATE:
+			out.writeInt(8);
+			out.writeLong(toTimestamp((Date) field.getValue()));
+			break;
+		case DECIMAL:
+			writeNumeric((Decimal) field.getValue());
+			break;
+		case BYTE:
+		case CBYTE:
+			writeBytes((byte[]) field.getValue());
+			break;
+		default:
+			throw new IOException("Unsupported field type " + field.getMetadata().getDataType().getName());
+		}
+	}
+
+	private void writeBytes(byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Timestamp without time zone is number of microseconds from the PostgreSQL epoch in local time.
+	 */
+	private long toTimestamp(Date date) {
+		long millis = date.getTime();
+		millis += timeZone.getOffset(millis);
+		return (millis - POSTGRES_EPOCH_MILLIS) * 1000;
+	}
+
+	/**
+	 * Numeric is stored as a sequence of base 10000 digits:
+	 * ndigits, weight (of the first digit), sign, display scale, digits.
+	 */
+	private void writeNumeric(Decimal decimal) throws IOException {
+		if (decimal.isNaN()) {
+			out.writeInt(8);
+			out.writeShort(0);
+			out.writeShort(0);
+			out.writeShort(NUMERIC_NAN);
+			out.writeShort(0);
+			return;
+		}
+		BigDecimal value = decimal.getBigDecimalOutput();
+		if (value.scale() < 0) {
+			value = value.setScale(0);
+		}
+		int scale = value.scale();
+		short sign = value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS;
+
+		// align the unscaled value so that the decimal point lies on a base 10000 digit boundary
+		int fractionDigits = (scale + 3) / 4;
+		BigInteger unscaled = value.unscaledValue().abs().multiply(BigInteger.TEN.pow(fractionDigits * 4 - scale));
+
+		numericDigits.clear();
+		while (unscaled.signum() != 0) {
+			BigInteger[] qr = unscaled.divideAndRemainder(NBASE);
+			numericDigits.add(qr[1].shortValue());
+			unscaled = qr[0];
+		}
+		int weight = numericDigits.size() - fractionDigits - 1;
+		// trailing zero digits are not stored, the weight refers to the first digit
+		int lowest = 0;
+		while (lowest < numericDigits.size() && numericDigits.get(lowest) == 0) {
+			lowest++;
+		}
+		int ndigits = numericDigits.size() - lowest;
+		if (ndigits == 0) {
+			weight = 0;
+		}
+
+		out.writeInt(8 + 2 * ndigits);
+		out.writeShort(ndigits);
+		out.writeShort(weight);
+		out.writeShort(sign);
+		out.writeShort(scale);
+		for (int i = numericDigits.size() - 1; i >= lowest; i--) {
+			out.writeShort(numericDigits.get(i));
+		}
+	}
+
+	@Override
+	public int writeFooter() throws IOException {
+		out.writeShort(-1);
+		return 2;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (out != null) {
+			out.flush();
+		}
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (out != null) {
+			writeFooter();
+			flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (out != null) {
+			try {
+				out.close();
+			} finally {
+				out = null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component.postgresql;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Thin wrapper around COPY FROM STDIN operation of PostgreSQL JDBC driver (org.postgresql.copy.CopyIn).
+ *
+ * The JDBC driver is loaded by its own class loader, so the driver API is accessed by reflection
+ * and the bulkloader plugin does not depend on the driver at compile time.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class PostgreSqlCopyIn {
+
+	private static final String BASE_CONNECTION_CLASS = "org.postgresql.core.BaseConnection";
+	private static final String COPY_MANAGER_CLASS = "org.postgresql.copy.CopyManager";
+	private static final String COPY_IN_CLASS = "org.postgresql.copy.CopyIn";
+
+	private final Object copyIn;
+	private final Method writeToCopy;
+	private final Method flushCopy;
+	private final Method endCopy;
+	private final Method cancelCopy;
+	private final Method isActive;
+
+	private PostgreSqlCopyIn(Object copyIn, Class<?> copyInClass) throws NoSuchMethodException {
+		this.copyIn = copyIn;
+		this.writeToCopy = copyInClass.getMethod("writeToCopy", byte[].class, int.class, int.class);
+		this.flushCopy = copyInClass.getMethod("flushCopy");
+		this.endCopy = copyInClass.getMethod("endCopy");
+		this.cancelCopy = copyInClass.getMethod("cancelCopy");
+		this.isActive = copyInClass.getMethod("isActive");
+	}
+
+	/**
+	 * Starts COPY FROM STDIN operation on the given connection.
+	 *
+	 * @param connection connection to PostgreSQL database
+	 * @param classLoader class loader of the JDBC driver, can be null
+	 * @param copyStatement COPY ... FROM STDIN statement
+	 * @return running COPY operation
+	 * @throws SQLException if the operation cannot be started, for example if the connection is not a PostgreSQL connection
+	 */
+	public static PostgreSqlCopyIn start(Connection connection, ClassLoader classLoader, String copyStatement) throws SQLException {
+		try {
+			if (classLoader == null) {
+				classLoader = PostgreSqlCopyIn.class.getClassLoader();
+			}
+			Class<?> baseConnectionClass = Class.forName(BASE_CONNECTION_CLASS, true, classLoader);
+			Class<?> copyManagerClass = Class.forName(COPY_MANAGER_CLASS, true, classLoader);
+			Class<?> copyInClass = Class.forName(COPY_IN_CLASS, true, classLoader);
+			if (!connection.isWrapperFor(baseConnectionClass)) {
+				throw new SQLException("Connection is not a PostgreSQL JDBC connection: " + connection.getClass().getName());
+			}
+			Object baseConnection = connection.unwrap(baseConnectionClass);
+			Object copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(baseConnection);
+			Object copyIn = copyManagerClass.getMethod("copyIn", String.class).invoke(copyManager, copyStatement);
+			return new PostgreSqlCopyIn(copyIn, copyInClass);
+		} catch (InvocationTargetException e) {
+			throw toSQLException(e);
+		} catch (ClassNotFoundException e) {
+			throw new SQLException("PostgreSQL JDBC driver with COPY support not available.", e);
+		} catch (ReflectiveOperationException e) {
+			throw new SQLException("Incompatible PostgreSQL JDBC driver.", e);
+		}
+	}
+
+	/**
+	 * Sends the given bytes to the database.
+	 */
+	public void write(byte[] buffer, int offset, int length) throws SQLException {
+		invoke(writeToCopy, buffer, offset, length);
+	}
+
+	/**
+	 * Forces sending of buffered data to the database.
+	 */
+	public void flush() throws SQLException {
+		invoke(flushCopy);
+	}
+
+	/**
+	 * Finishes the COPY operation.
+	 * @return number of loaded rows
+	 */
+	public long end() throws SQLException {
+		return ((Number) invoke(endCopy)).longValue();
+	}
+
+	/**
+	 * Aborts the COPY operation, nothing is loaded.
+	 */
+	public void cancel() throws SQLException {
+		if (isActive()) {
+			invoke(cancelCopy);
+		}
+	}
+
+	public boolean isActive() throws SQLException {
+		return (Boolean) invoke(isActive);
+	}
+
+	private Object invoke(Method method, Object... args) throws SQLException {
+		try {
+			return method.invoke(copyIn, args);
+		} catch (InvocationTargetException e) {
+			throw toSQLException(e);
+		} catch (IllegalAccessException e) {
+			throw new SQLException("Incompatible PostgreSQL JDBC driver.", e);
+		}
+	}
+
+	/**
+	 * The driver reports server errors (with line and column of the failed row) as SQLException,
+	 * the original exception is returned to keep the detailed message.
+	 */
+	private static SQLException toSQLException(InvocationTargetException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof SQLException) {
+			return (SQLException) cause;
+		}
+		return new SQLException(cause != null ? cause.getMessage() : e.getMessage(), cause);
+	}
+
+}
@@ -0,0 +1,279 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component.postgresql;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.jetel.graph.Node;
+import org.jetel.graph.runtime.CloverWorker;
+import org.jetel.graph.runtime.FutureOfRunnable;
+
+/**
+ * Output stream which sends written data to running COPY FROM STDIN operation.
+ *
+ * Data are collected into fixed number of fixed size chunks. Filled chunks are sent
+ * to the database by a separate worker thread, so formatting of records in the component thread
+ * overlaps with the network transfer. Memory usage is bounded by chunkSize * chunkCount.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class PostgreSqlCopyOutputStream extends OutputStream {
+
+	public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+	public static final int DEFAULT_CHUNK_COUNT = 4;
+
+	/** Marks end of data for the sender. */
+	private static final Chunk EOF = new Chunk(0);
+
+	private final PostgreSqlCopyIn copyIn;
+	private final BlockingQueue<Chunk> freeChunks;
+	private final BlockingQueue<Chunk> fullChunks;
+	private final Sender sender;
+	private final FutureOfRunnable<Sender> senderFuture;
+
+	private Chunk current;
+	private long loadedRows = -1;
+	private boolean closed;
+
+	/**
+	 * Creates the stream and starts the sending thread.
+	 *
+	 * @param node component which owns the sending thread
+	 * @param copyIn running COPY operation
+	 * @param chunkSize size of one buffer in bytes
+	 * @param chunkCount number of buffers
+	 */
+	public PostgreSqlCopyOutputStream(Node node, PostgreSqlCopyIn copyIn, int chunkSize, int chunkCount) {
+		if (chunkSize <= 0 || chunkCount < 2) {
+			throw new IllegalArgumentException("Invalid buffering: " + chunkCount + " x " + chunkSize + " bytes");
+		}
+		this.copyIn = copyIn;
+		this.freeChunks = new ArrayBlockingQueue<Chunk>(chunkCount);
+		this.fullChunks = new ArrayBlockingQueue<Chunk>(chunkCount + 1);
+		for (int i = 0; i < chunkCount - 1; i++) {
+			freeChunks.add(new Chunk(chunkSize));
+		}
+		this.current = new Chunk(chunkSize);
+		this.sender = new Sender(node);
+		this.senderFuture = CloverWorker.startWorker(sender);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (current.length == current.data.length) {
+			pass();
+		}
+		current.data[current.length++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (current.length == current.data.length) {
+				pass();
+			}
+			int count = Math.min(len, current.data.length - current.length);
+			System.arraycopy(b, off, current.data, current.length, count);
+			current.length += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	/**
+	 * Hands the current chunk over to the sender and takes a free one.
+	 */
+	private void pass() throws IOException {
+		checkSender();
+		try {
+			fullChunks.put(current);
+			Chunk next;
+			while ((next = freeChunks.poll(100, TimeUnit.MILLISECONDS)) == null) {
+				checkSender();
+			}
+			current = next;
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException("Interrupted while waiting for database.");
+		}
+	}
+
+	private void checkSender() throws IOException {
+		if (sender.failure != null) {
+			throw new IOException("Sending of data to database failed.", sender.failure);
+		}
+	}
+
+	/**
+	 * Sends all buffered data. Data in the current chunk is sent, but the database is not forced
+	 * to process them - the COPY operation finishes only in {@link #close()}.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (current.length > 0) {
+			pass();
+		}
+	}
+
+	/**
+	 * Sends the rest of data and finishes the COPY operation.
+	 * Database errors (for example constraint violations) are reported by this method.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			flush();
+			fullChunks.put(EOF);
+			senderFuture.get();
+		} catch (InterruptedException e) {
+			cancel();
+			throw new InterruptedIOException("Interrupted while waiting for database.");
+		} catch (Exception e) {
+			cancel();
+			if (e instanceof IOException) {
+				throw (IOException) e;
+			}
+			throw new IOException(e);
+		}
+		checkSender();
+		loadedRows = sender.loadedRows;
+	}
+
+	/**
+	 * Aborts the COPY operation, already sent data are discarded by the database.
+	 * The JDBC connection is not thread-safe, so the operation is cancelled by the sending thread
+	 * and this method waits until the sending thread finishes. The connection can be used
+	 * by the calling thread (for example for rollback) once this method returns.
+	 */
+	public void cancel() {
+		if (sender.cancelled) {
+			return;
+		}
+		closed = true;
+		sender.cancelled = true;
+		// chunks waiting for the sender are discarded, so EOF always fits into the queue
+		Chunk chunk;
+		while ((chunk = fullChunks.poll()) != null) {
+			if (chunk != EOF) {
+				chunk.length = 0;
+				freeChunks.offer(chunk);
+			}
+		}
+		boolean interrupted = false;
+		while (true) {
+			try {
+				fullChunks.put(EOF);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		while (true) {
+			try {
+				senderFuture.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (Exception e) {
+				// failure of the sender is reported by the sender itself
+				break;
+			}
+		}
+		if (!sender.finished) {
+			// the sender ended before it reached EOF (it failed), the connection is not used by it anymore
+			try {
+				copyIn.cancel();
+			} catch (Exception e) {
+				// the operation can be already finished or failed
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return number of rows loaded by the finished COPY operation or -1 if the stream is not closed yet
+	 */
+	public long getLoadedRows() {
+		return loadedRows;
+	}
+
+	private static class Chunk {
+		final byte[] data;
+		int length;
+
+		Chunk(int size) {
+			data = new byte[size];
+		}
+	}
+
+	/**
+	 * Takes filled chunks and sends them to the database.
+	 */
+	private class Sender extends CloverWorker {
+
+		private volatile Exception failure;
+		private volatile boolean cancelled;
+		/** true if the COPY operation was ended or cancelled by this thread */
+		private volatile boolean finished;
+		private volatile long loadedRows;
+
+		public Sender(Node node) {
+			super(node, "PostgreSqlCopy");
+		}
+
+		@Override
+		public void work() throws Exception, InterruptedException {
+			try {
+				Chunk chunk;
+				while ((chunk = fullChunks.take()) != EOF) {
+					if (!cancelled) {
+						copyIn.write(chunk.data, 0, chunk.length);
+					}
+					chunk.length = 0;
+					freeChunks.put(chunk);
+				}
+				if (cancelled) {
+					finished = true;
+					copyIn.cancel();
+				} else {
+					loadedRows = copyIn.end();
+					finished = true;
+				}
+			} catch (Exception e) {
+				failure = e;
+				// release the writing thread
+				freeChunks.offer(new Chunk(0));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,290 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.database.sql.DBConnection;
+import org.jetel.database.sql.JdbcSpecific.OperationType;
+import org.jetel.database.sql.SqlConnection;
+import org.jetel.graph.Edge;
+import org.jetel.graph.Node;
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.graph.runtime.EngineInitializer;
+import org.jetel.graph.runtime.GraphRuntimeContext;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+import org.mockito.Mockito;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.core.BaseConnection;
+
+/**
+ * Runs {@link PostgreSqlDataWriter} loading over a JDBC connection in a graph. The connection is a mock,
+ * the data sent to the COPY FROM STDIN operation are collected by {@link RecordingCopyIn}.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class PostgreSqlDataWriterTest extends CloverTestCase {
+
+	private static final String CONNECTION_ID = "JDBC0";
+
+	private static final String SERVER_ERROR = "ERROR: duplicate key value violates unique constraint \"target_pkey\"";
+
+	private static final int RECORDS = 100;
+
+	private DataRecordMetadata metadata;
+
+	private SqlConnection sqlConnection;
+
+	private BaseConnection baseConnection;
+
+	private DBConnection dbConnection;
+
+	private RecordingCopyIn copyIn;
+
+	private ErrorAppender errorAppender;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		metadata = new DataRecordMetadata("record", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, "|"));
+		metadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "|"));
+		metadata.addField(new DataFieldMetadata("amount", DataFieldType.LONG, "\n"));
+
+		copyIn = new RecordingCopyIn();
+		baseConnection = Mockito.mock(BaseConnection.class);
+		Mockito.when(baseConnection.startCopyIn(Mockito.anyString())).thenReturn(copyIn);
+		sqlConnection = Mockito.mock(SqlConnection.class);
+		Mockito.when(sqlConnection.isWrapperFor(BaseConnection.class)).thenReturn(true);
+		Mockito.when(sqlConnection.unwrap(BaseConnection.class)).thenReturn(baseConnection);
+		dbConnection = Mockito.mock(DBConnection.class);
+		Mockito.when(dbConnection.getId()).thenReturn(CONNECTION_ID);
+		Mockito.when(dbConnection.getConnection(Mockito.anyString(), Mockito.any(OperationType.class))).thenReturn(sqlConnection);
+
+		errorAppender = new ErrorAppender();
+		Logger.getLogger(PostgreSqlDataWriter.class).addAppender(errorAppender);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		Logger.getLogger(PostgreSqlDataWriter.class).removeAppender(errorAppender);
+		super.tearDown();
+	}
+
+	private PostgreSqlDataWriter createWriter() {
+		PostgreSqlDataWriter writer = new PostgreSqlDataWriter("WRITER", null, null);
+		writer.setDBConnection(CONNECTION_ID);
+		writer.setTable("target");
+		return writer;
+	}
+
+	private Result run(PostgreSqlDataWriter writer) throws Exception {
+		TransformationGraph graph = new TransformationGraph("PostgreSqlDataWriterTest");
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+		graph.addConnection(dbConnection);
+		RecordSource source = new RecordSource("SOURCE");
+		phase.addNode(source, writer);
+		Edge edge = new Edge("EDGE", metadata);
+		source.addOutputPort(0, edge);
+		writer.addInputPort(0, edge);
+		graph.addEdge(edge);
+
+		GraphRuntimeContext runtimeContext = new GraphRuntimeContext();
+		runtimeContext.setUseJMX(false);
+		EngineInitializer.initGraph(graph, runtimeContext);
+		try {
+			return runGraph(graph);
+		} finally {
+			graph.free();
+		}
+	}
+
+	private static String getExpectedText() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < RECORDS; i++) {
+			// null is written as empty string, the COPY statement declares it
+			sb.append(i).append('\t').append(i % 10 == 3 ? "" : "name " + i).append('\t').append(i * 1000003L).append('\n');
+		}
+		return sb.toString();
+	}
+
+	public void testTextFormat() throws Exception {
+		PostgreSqlDataWriter writer = createWriter();
+		// records are split between chunks
+		writer.setCopyBufferSize(64);
+		writer.setCopyBufferCount(2);
+
+		assertEquals(Result.FINISHED_OK, run(writer));
+		Mockito.verify(baseConnection).startCopyIn("copy target from stdin with null ''");
+		assertEquals(getExpectedText(), copyIn.getText());
+		assertTrue(copyIn.ended);
+		Mockito.verify(sqlConnection).commit();
+		Mockito.verify(sqlConnection, Mockito.never()).rollback();
+		assertTrue(errorAppender.events.isEmpty());
+	}
+
+	public void testFailOnErrorFalse() throws Exception {
+		copyIn.endError = new SQLException(SERVER_ERROR);
+		PostgreSqlDataWriter writer = createWriter();
+		writer.setFailOnError(false);
+
+		assertEquals(Result.FINISHED_OK, run(writer));
+		Mockito.verify(sqlConnection).rollback();
+		Mockito.verify(sqlConnection, Mockito.never()).commit();
+		assertEquals(1, errorAppender.events.size());
+		LoggingEvent event = errorAppender.events.get(0);
+		assertEquals("Loading of data by COPY statement failed.", event.getMessage());
+		assertTrue(getMessages(event.getThrowableInformation().getThrowable()).contains(SERVER_ERROR));
+	}
+
+	public void testFailOnError() throws Exception {
+		copyIn.endError = new SQLException(SERVER_ERROR);
+
+		try {
+			run(createWriter());
+			fail("The graph should fail");
+		} catch (RuntimeException e) {
+			assertTrue(getMessages(e).contains(SERVER_ERROR));
+		}
+		Mockito.verify(sqlConnection).rollback();
+		Mockito.verify(sqlConnection, Mockito.never()).commit();
+	}
+
+	private static String getMessages(Throwable t) {
+		StringBuilder sb = new StringBuilder();
+		for (; t != null; t = t.getCause()) {
+			sb.append(t.getMessage()).append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Sends {@link #RECORDS} records, every tenth name is null.
+	 */
+	private class RecordSource extends Node {
+
+		RecordSource(String id) {
+			super(id);
+		}
+
+		@Override
+		public String getType() {
+			return "RECORD_SOURCE";
+		}
+
+		@Override
+		protected Result execute() throws Exception {
+			DataRecord record = DataRecordFactory.newRecord(metadata);
+			for (int i = 0; i < RECORDS && runIt; i++) {
+				record.getField("id").setValue(i);
+				record.getField("name").setValue(i % 10 == 3 ? null : "name " + i);
+				record.getField("amount").setValue(i * 1000003L);
+				writeRecord(0, record);
+			}
+			return runIt ? Result.FINISHED_OK : Result.ABORTED;
+		}
+	}
+
+	/**
+	 * COPY operation which collects the sent data, fails at the end if {@link #endError} is set.
+	 */
+	private static class RecordingCopyIn implements CopyIn {
+
+		private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+		private boolean active = true;
+		private boolean ended;
+		private SQLException endError;
+
+		@Override
+		public synchronized void writeToCopy(byte[] buf, int off, int siz) throws SQLException {
+			assertTrue("Write to inactive COPY", active);
+			data.write(buf, off, siz);
+		}
+
+		@Override
+		public void flushCopy() {
+		}
+
+		@Override
+		public synchronized long endCopy() throws SQLException {
+			active = false;
+			if (endError != null) {
+				throw endError;
+			}
+			ended = true;
+			return RECORDS;
+		}
+
+		@Override
+		public synchronized void cancelCopy() {
+			active = false;
+		}
+
+		@Override
+		public synchronized boolean isActive() {
+			return active;
+		}
+
+		synchronized String getText() {
+			return new String(data.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static class ErrorAppender extends AppenderSkeleton {
+
+		private final List<LoggingEvent> events = new ArrayList<LoggingEvent>();
+
+		@Override
+		protected synchronized void append(LoggingEvent event) {
+			if (event.getLevel().isGreaterOrEqual(Level.ERROR)) {
+				events.add(event);
+			}
+		}
+
+		@Override
+		public boolean requiresLayout() {
+			return false;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+}
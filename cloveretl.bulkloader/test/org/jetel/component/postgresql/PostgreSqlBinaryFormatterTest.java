@@ -0,0 +1,231 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component.postgresql;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.metadata.DataFieldContainerType;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Checks the binary COPY format produced by {@link PostgreSqlBinaryFormatter} byte by byte.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class PostgreSqlBinaryFormatterTest extends CloverTestCase {
+
+	/** signature, flags and header extension length */
+	private static final String HEADER = "50 47 43 4F 50 59 0A FF 0D 0A 00  00 00 00 00  00 00 00 00";
+
+	private static final String NULL = "FF FF FF FF";
+
+	private TimeZone timeZone = TimeZone.getTimeZone("UTC");
+
+	private static byte[] bytes(String hex) {
+		String[] parts = hex.trim().split("\\s+");
+		byte[] result = new byte[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			result[i] = (byte) Integer.parseInt(parts[i], 16);
+		}
+		return result;
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder();
+		for (byte b : bytes) {
+			if (sb.length() > 0) {
+				sb.append(' ');
+			}
+			sb.append(String.format("%02X", b & 0xFF));
+		}
+		return sb.toString();
+	}
+
+	private static DataFieldMetadata field(String name, DataFieldType type) {
+		return new DataFieldMetadata(name, type, "|");
+	}
+
+	private static DataFieldMetadata decimalField(int length, int scale) {
+		DataFieldMetadata field = field("field", DataFieldType.DECIMAL);
+		field.setProperty(DataFieldMetadata.LENGTH_ATTR, String.valueOf(length));
+		field.setProperty(DataFieldMetadata.SCALE_ATTR, String.valueOf(scale));
+		return field;
+	}
+
+	private static DataRecordMetadata metadata(DataFieldMetadata... fields) {
+		DataRecordMetadata metadata = new DataRecordMetadata("metadata", DataRecordParsingType.DELIMITED);
+		for (DataFieldMetadata field : fields) {
+			metadata.addField(field);
+		}
+		return metadata;
+	}
+
+	/**
+	 * Formats a record with the given values.
+	 * @return the complete COPY data stream including header and footer
+	 */
+	private byte[] format(DataRecordMetadata metadata, Object... values) throws Exception {
+		PostgreSqlBinaryFormatter formatter = new PostgreSqlBinaryFormatter();
+		formatter.setTimeZone(timeZone);
+		formatter.init(metadata);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		formatter.setDataTarget(out);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == null) {
+				record.getField(i).setNull(true);
+			} else {
+				record.getField(i).setValue(values[i]);
+			}
+		}
+		formatter.write(record);
+		formatter.finish();
+		formatter.close();
+		return out.toByteArray();
+	}
+
+	/**
+	 * Formats a single field and checks the whole stream, only the field part is given.
+	 */
+	private void assertField(String expectedField, DataFieldMetadata field, Object value) throws Exception {
+		String expected = hex(bytes(HEADER + " 00 01 " + expectedField + " FF FF"));
+		assertEquals(expected, hex(format(metadata(field), value)));
+	}
+
+	public void testEmptyStream() throws Exception {
+		PostgreSqlBinaryFormatter formatter = new PostgreSqlBinaryFormatter();
+		formatter.init(metadata(field("field", DataFieldType.INTEGER)));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		formatter.setDataTarget(out);
+		formatter.finish();
+		assertTrue(Arrays.equals(bytes(HEADER + " FF FF"), out.toByteArray()));
+	}
+
+	public void testNulls() throws Exception {
+		DataFieldType[] types = { DataFieldType.STRING, DataFieldType.INTEGER, DataFieldType.LONG, DataFieldType.NUMBER,
+				DataFieldType.BOOLEAN, DataFieldType.DATE, DataFieldType.BYTE, DataFieldType.CBYTE };
+		for (DataFieldType type : types) {
+			assertField(NULL, field("field", type), null);
+		}
+		assertField(NULL, decimalField(10, 2), null);
+	}
+
+	public void testString() throws Exception {
+		assertField("00 00 00 00", field("field", DataFieldType.STRING), "");
+		// UTF-8 regardless of the field charset
+		assertField("00 00 00 06 C5 BE 6C 75 C5 A5", field("field", DataFieldType.STRING), "žluť");
+	}
+
+	public void testInteger() throws Exception {
+		assertField("00 00 00 04 00 00 00 00", field("field", DataFieldType.INTEGER), 0);
+		assertField("00 00 00 04 FF FF FF FE", field("field", DataFieldType.INTEGER), -2);
+		assertField("00 00 00 04 7F FF FF FF", field("field", DataFieldType.INTEGER), Integer.MAX_VALUE);
+	}
+
+	public void testLong() throws Exception {
+		assertField("00 00 00 08 01 02 03 04 05 06 07 08", field("field", DataFieldType.LONG), 0x0102030405060708L);
+		assertField("00 00 00 08 FF FF FF FF FF FF FF FF", field("field", DataFieldType.LONG), -1L);
+	}
+
+	public void testNumber() throws Exception {
+		assertField("00 00 00 08 3F F8 00 00 00 00 00 00", field("field", DataFieldType.NUMBER), 1.5);
+		assertField("00 00 00 08 C0 00 00 00 00 00 00 00", field("field", DataFieldType.NUMBER), -2.0);
+	}
+
+	public void testBoolean() throws Exception {
+		assertField("00 00 00 01 01", field("field", DataFieldType.BOOLEAN), true);
+		assertField("00 00 00 01 00", field("field", DataFieldType.BOOLEAN), false);
+	}
+
+	public void testBytes() throws Exception {
+		assertField("00 00 00 03 01 02 FF", field("field", DataFieldType.BYTE), new byte[] { 1, 2, -1 });
+		assertField("00 00 00 03 01 02 FF", field("field", DataFieldType.CBYTE), new byte[] { 1, 2, -1 });
+		assertField("00 00 00 00", field("field", DataFieldType.BYTE), new byte[0]);
+	}
+
+	public void testDate() throws Exception {
+		// microseconds since 2000-01-01 00:00:00
+		assertField("00 00 00 08 00 00 00 00 00 00 00 00", field("field", DataFieldType.DATE), 946684800000L);
+		assertField("00 00 00 08 00 00 00 00 00 0F 42 40", field("field", DataFieldType.DATE), 946684801000L);
+		assertField("00 00 00 08 FF FF FF FF FF F0 BD C0", field("field", DataFieldType.DATE), 946684799000L);
+	}
+
+	public void testDateTimeZone() throws Exception {
+		// timestamp without time zone is written in the local time of the formatter, UTC+1 in winter
+		timeZone = TimeZone.getTimeZone("Europe/Prague");
+		assertField("00 00 00 08 00 00 00 00 D6 A2 E6 40", field("field", DataFieldType.DATE), 946684801000L);
+		// 2000-07-01 00:00:00 UTC is 02:00:00 local time (UTC+2 in summer), 182 days and 2 hours from the epoch
+		long summer = 946684800000L + 182L * 24 * 3600 * 1000;
+		long expected = (182L * 24 * 3600 + 2 * 3600) * 1000000;
+		assertField("00 00 00 08 " + hex(new byte[] {
+				(byte) (expected >>> 56), (byte) (expected >>> 48), (byte) (expected >>> 40), (byte) (expected >>> 32),
+				(byte) (expected >>> 24), (byte) (expected >>> 16), (byte) (expected >>> 8), (byte) expected }),
+				field("field", DataFieldType.DATE), summer);
+	}
+
+	public void testNumeric() throws Exception {
+		// ndigits, weight, sign, dscale, base 10000 digits
+		assertField("00 00 00 0E  00 03  00 01  00 00  00 03  00 01 09 29 1A 7C",
+				decimalField(10, 3), new BigDecimal("12345.678"));
+		assertField("00 00 00 0A  00 01  FF FF  40 00  00 02  13 88",
+				decimalField(10, 2), new BigDecimal("-0.5"));
+		// trailing zero digits are not stored
+		assertField("00 00 00 0A  00 01  00 01  00 00  00 02  00 64",
+				decimalField(10, 2), new BigDecimal("1000000"));
+		assertField("00 00 00 0A  00 01  00 01  40 00  00 00  00 01",
+				decimalField(10, 0), new BigDecimal("-10000"));
+		assertField("00 00 00 08  00 00  00 00  00 00  00 02",
+				decimalField(10, 2), BigDecimal.ZERO);
+	}
+
+	public void testRecord() throws Exception {
+		DataRecordMetadata metadata = metadata(field("id", DataFieldType.INTEGER), field("name", DataFieldType.STRING),
+				field("valid", DataFieldType.BOOLEAN));
+		String expected = hex(bytes(HEADER
+				+ " 00 03  00 00 00 04 00 00 00 07  00 00 00 02 61 62  FF FF FF FF"
+				+ " FF FF"));
+		assertEquals(expected, hex(format(metadata, 7, "ab", null)));
+	}
+
+	public void testUnsupportedField() throws Exception {
+		PostgreSqlBinaryFormatter formatter = new PostgreSqlBinaryFormatter();
+		DataFieldMetadata list = field("field", DataFieldType.STRING);
+		list.setContainerType(DataFieldContainerType.LIST);
+		try {
+			formatter.init(metadata(list));
+			fail("List field accepted");
+		} catch (ComponentNotReadyException e) {
+			// expected
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.postgresql.copy;
+
+import java.sql.SQLException;
+
+/**
+ * Test stand-in of the PostgreSQL JDBC driver interface, only the API used by PostgreSqlCopyIn.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public interface CopyIn {
+
+	void writeToCopy(byte[] buf, int off, int siz) throws SQLException;
+
+	void flushCopy() throws SQLException;
+
+	long endCopy() throws SQLException;
+
+	void cancelCopy() throws SQLException;
+
+	boolean isActive();
+
+}
@@ -18,6 +18,7 @@
  */
 package org.jetel.component;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -38,6 +39,7 @@ import org.jetel.data.formatter.CloverDataFormatter;
 import org.jetel.data.parser.CloverDataParser;
 import org.jetel.data.parser.CloverDataParser.FileConfig;
 import org.jetel.data.parser.CloverDataParser35;
+import org.jetel.data.parser.CloverDataRangeFilter;
 import org.jetel.data.parser.ICloverDataParser;
 import org.jetel.exception.AttributeNotFoundException;
 import org.jetel.exception.ComponentNotReadyException;
@@ -58,11 +60,13 @@ import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.util.AutoFilling;
 import org.jetel.util.MultiFileListener;
 import org.jetel.util.MultiFileReader;
+import org.jetel.util.ParallelMultiFileReader;
 import org.jetel.util.SynchronizeUtils;
 import org.jetel.util.bytes.CloverBuffer;
 import org.jetel.util.file.FileUtils;
 import org.jetel.util.property.ComponentXMLAttributes;
 import org.jetel.util.property.RefResFlag;
+import org.jetel.util.string.StringUtils;
 import org.w3c.dom.Element;
 
 /**
@@ -94,6 +98,12 @@ import org.w3c.dom.Element;
  *  <tr><td><b>fileURL</b></td><td>path to the data file. </td>
  *  <tr><td><b>startRecord</b><br><i>optional</i></td><td>index of first parsed record</td>
  *  <tr><td><b>finalRecord</b><br><i>optional</i></td><td>index of final parsed record</td>
+ *  <tr><td><b>parallelism</b><br><i>optional</i></td><td>number of input files parsed concurrently, default is 1</td>
+ *  <tr><td><b>preserveFileOrder</b><br><i>optional</i></td><td>if parallelism is used, records of each file are sent together
+ *  in the order of the files; default is true</td>
+ *  <tr><td><b>rangeFilter</b><br><i>optional</i></td><td>conditions delimited by semicolon which must be met by the read records,
+ *  e.g. <code>$date>=2024-01-01;$date<2024-02-01</code>; data blocks which cannot contain matching records according
+ *  to the zone map stored by CloverDataWriter are skipped</td>
  *  </tr>
  *  </table>
  *
@@ -127,6 +137,9 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
 	private static final String XML_NUMRECORDS_ATTRIBUTE = "numRecords";
 	private static final String XML_SKIP_SOURCE_ROWS_ATTRIBUTE = "skipSourceRows";
 	private static final String XML_NUM_SOURCE_RECORDS_ATTRIBUTE = "numSourceRecords";
+	private static final String XML_PARALLELISM_ATTRIBUTE = "parallelism";
+	private static final String XML_PRESERVE_FILE_ORDER_ATTRIBUTE = "preserveFileOrder";
+	private static final String XML_RANGE_FILTER_ATTRIBUTE = "rangeFilter";
 
 	private final static int OUTPUT_PORT = 0;
 	private final static int INPUT_PORT = 0;
@@ -134,12 +147,16 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
 	private String fileURL;
 	private ICloverDataParser parser;
 	private MultiFileReader reader;
+	private ParallelMultiFileReader parallelReader;
 	
 	
 	private int skipRows;
 	private int numRecords = -1;
 	private int skipSourceRows = -1;
 	private int numSourceRecords = -1;
+	private int parallelism = 1;
+	private boolean preserveFileOrder = true;
+	private String rangeFilter;
     
 	/**
 	 * Used if there are no autofilled fields in the output metadata.
@@ -162,7 +179,11 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
     public void preExecute() throws ComponentNotReadyException {
     	super.preExecute();
     	 try {
-             reader.preExecute();
+    		 if (parallelReader != null) {
+    			 parallelReader.preExecute();
+    		 } else {
+    			 reader.preExecute();
+    		 }
          } catch(ComponentNotReadyException e) {
              e.setAttributeName(XML_FILE_ATTRIBUTE);
              throw e;
@@ -195,7 +216,7 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
     				readDirect=false;
     			}
     		}
-    		record = reader.getNext(record); 
+    		record = parallelReader != null ? parallelReader.getNext(record) : reader.getNext(record); 
     		if (record!=null){
     			 writeRecordBroadcast(record);
     		}else{
@@ -211,30 +232,95 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
     @Override
     public void postExecute() throws ComponentNotReadyException {
     	super.postExecute();
-		reader.postExecute();
+    	if (parallelReader != null) {
+    		parallelReader.postExecute();
+    	} else {
+    		reader.postExecute();
+    	}
     }    
 	
 	
 	private void prepareParser() throws ComponentNotReadyException {
-		this.parser=new InternalParser(getOutputPort(OUTPUT_PORT).getMetadata(), getGraph().getRuntimeContext().getContextURL());
+		InternalParser parser = new InternalParser(getOutputPort(OUTPUT_PORT).getMetadata(), getGraph().getRuntimeContext().getContextURL());
+		parser.setRangeFilter(createRangeFilter(getOutputPort(OUTPUT_PORT).getMetadata()));
+		this.parser = parser;
 		this.parser.init();
 		
 	}
 	
+	/**
+	 * @return a new filter for a parser or null if not set
+	 */
+	private CloverDataRangeFilter createRangeFilter(DataRecordMetadata metadata) throws ComponentNotReadyException {
+		if (StringUtils.isEmpty(rangeFilter)) {
+			return null;
+		}
+		try {
+			return new CloverDataRangeFilter(rangeFilter, metadata);
+		} catch (ComponentNotReadyException e) {
+			e.setAttributeName(XML_RANGE_FILTER_ATTRIBUTE);
+			throw e;
+		}
+	}
+	
 	private void prepareMultiFileReader() throws ComponentNotReadyException {
 		// initialize multifile reader based on prepared parser
+        reader = createMultiFileReader(parser);
+        reader.setSkip(skipRows);
+        reader.setNumRecords(numRecords);
+
+        reader.init(getOutputPort(OUTPUT_PORT).getMetadata());
+	}
+	
+	private MultiFileReader createMultiFileReader(ICloverDataParser parser) {
 		TransformationGraph graph = getGraph();
-        reader = new MultiFileReader(parser, getContextURL(), fileURL);
+		MultiFileReader reader = new MultiFileReader(parser, getContextURL(), fileURL);
         reader.setLogger(logger);
-        reader.setSkip(skipRows);
         reader.setNumSourceRecords(numSourceRecords);
-        reader.setNumRecords(numRecords);
         reader.setInputPort(getInputPort(INPUT_PORT)); //for port protocol: ReadableChannelIterator reads data
         reader.setPropertyRefResolver(getPropertyRefResolver());
         reader.setDictionary(graph.getDictionary());
         reader.setSkipSourceRows(skipSourceRows);
+        return reader;
+	}
+	
+	/**
+	 * Input files are parsed concurrently by separate parsers if parallelism is set
+	 * and no option requires sequential reading.
+	 */
+	private void prepareParallelReader() {
+		parallelReader = null;
+		if (parallelism <= 1) {
+			return;
+		}
+		if (!ParallelMultiFileReader.isSupported(fileURL) || skipRows > 0 || numRecords >= 0) {
+			logger.info("Component " + getId() + " reads input files sequentially, parallel reading is not supported for port or dictionary sources, "
+					+ XML_SKIPROWS_ATTRIBUTE + " and " + XML_NUMRECORDS_ATTRIBUTE + ".");
+			return;
+		}
+		final DataRecordMetadata metadata = getOutputPort(OUTPUT_PORT).getMetadata();
+		final URL contextURL = getGraph().getRuntimeContext().getContextURL();
+		parallelReader = new ParallelMultiFileReader(new ParallelMultiFileReader.ReaderFactory() {
+			@Override
+			public MultiFileReader createReader() throws ComponentNotReadyException {
+				InternalParser parser = new InternalParser(metadata, contextURL);
+				parser.setRangeFilter(createRangeFilter(metadata));
+				parser.init();
+				MultiFileReader reader = createMultiFileReader(parser);
+				reader.init(metadata);
+				return reader;
+			}
 
-        reader.init(getOutputPort(OUTPUT_PORT).getMetadata());
+			@Override
+			public DataRecord createRecord() {
+				DataRecord record = DataRecordFactory.newRecord(metadata);
+				record.setDeserializeAutofilledFields(false); // CLO-4591
+				return record;
+			}
+		}, getContextURL(), fileURL, parallelism, preserveFileOrder);
+		// records are copied from the parallel reader, direct reading is not used
+		attemptDirectReading = false;
+		readDirect = false;
 	}
 	
 	
@@ -262,6 +348,15 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
 		if (xattribs.exists(XML_NUM_SOURCE_RECORDS_ATTRIBUTE)){
 			aDataReader.setNumSourceRecords(xattribs.getInteger(XML_NUM_SOURCE_RECORDS_ATTRIBUTE));
 		}
+		if (xattribs.exists(XML_PARALLELISM_ATTRIBUTE)){
+			aDataReader.setParallelism(xattribs.getInteger(XML_PARALLELISM_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_PRESERVE_FILE_ORDER_ATTRIBUTE)){
+			aDataReader.setPreserveFileOrder(xattribs.getBoolean(XML_PRESERVE_FILE_ORDER_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_RANGE_FILTER_ATTRIBUTE)){
+			aDataReader.setRangeFilter(xattribs.getString(XML_RANGE_FILTER_ATTRIBUTE));
+		}
 		
 		return aDataReader;
 	}
@@ -316,6 +411,11 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
         	}
         }
 
+		prepareParallelReader();
+		if (parallelReader != null) {
+			// the workers use their own parsers and readers
+			return;
+		}
 		prepareParser();
 		prepareMultiFileReader();
 		reader.addFileChangeListener(this); // register as listener for source change
@@ -324,7 +424,8 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
     	if (metadata != null) {
     		// the Autofilling instance is only used to determine if the metadata contain autofilled fields
     	    AutoFilling autoFilling = new AutoFilling();
-    		this.attemptDirectReading = autoFilling.isAutofillingDisabled(metadata);
+    		// records must be deserialized to be filtered
+    		this.attemptDirectReading = autoFilling.isAutofillingDisabled(metadata) && StringUtils.isEmpty(rangeFilter);
     		this.readDirect = attemptDirectReading && parser.isDirectReadingSupported();
     	}
 	}
@@ -385,6 +486,27 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
 		this.numSourceRecords = Math.max(numSourceRecords, 0);
 	}
 	
+	/**
+	 * @param parallelism number of input files parsed concurrently
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * @param preserveFileOrder true if records of each file are sent together in the order of the files
+	 */
+	public void setPreserveFileOrder(boolean preserveFileOrder) {
+		this.preserveFileOrder = preserveFileOrder;
+	}
+	
+	/**
+	 * @param rangeFilter conditions which must be met by the read records, see {@link CloverDataRangeFilter}
+	 */
+	public void setRangeFilter(String rangeFilter) {
+		this.rangeFilter = rangeFilter;
+	}
+	
 	@Override
 	public void fileChanged(Object newFile) {
 		// check whether call getNext() or getNextDirect()
@@ -396,6 +518,8 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
 		private CloverDataParser parserNew;
 		private CloverDataParser35 parser35;
 		private ICloverDataParser currentParser;
+		/** applied by parserNew itself, by this class for older files */
+		private CloverDataRangeFilter rangeFilter;
 		
 		InternalParser(DataRecordMetadata metadata,URL contextURL){
 			parserNew = new CloverDataParser(metadata);
@@ -405,9 +529,27 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
 			currentParser=parserNew;
 		}
 
+		void setRangeFilter(CloverDataRangeFilter rangeFilter) {
+			this.rangeFilter = rangeFilter;
+			parserNew.setRangeFilter(rangeFilter);
+		}
+
+		/**
+		 * @return true if the records returned by the current parser must be filtered
+		 */
+		private boolean isFiltering() {
+			return rangeFilter != null && currentParser != parserNew;
+		}
+
 		@Override
 		public DataRecord getNext() throws JetelException {
-				return currentParser.getNext();
+			DataRecord record = currentParser.getNext();
+			if (isFiltering()) {
+				while (record != null && !rangeFilter.matches(record)) {
+					record = currentParser.getNext();
+				}
+			}
+			return record;
 		}
 
 		@Override
@@ -417,11 +559,22 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
 
 		@Override
 		public int getNextDirect(CloverBuffer buffer) throws JetelException {
+				if (isFiltering()) {
+					return -1;
+				}
 				return currentParser.getNextDirect(buffer);
 		}
 
 		@Override
 		public int skip(int nRec) throws JetelException {
+				if (isFiltering()) {
+					for (int skipped = 0; skipped < nRec; skipped++) {
+						if (getNext() == null) {
+							return skipped;
+						}
+					}
+					return nRec;
+				}
 				return currentParser.skip(nRec);
 		}
 
@@ -436,7 +589,8 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
 			parserNew.setDataSource(inputDataSource);
 			if(parserNew.getVersion().formatVersion!=CloverDataFormatter.DataFormatVersion.VERSION_40){
 				parser35.setVersion(parserNew.getVersion());
-				parser35.setDataSource(inputDataSource);
+				// a file is opened by parserNew, the header has been read already
+				parser35.setDataSource(inputDataSource instanceof File ? parserNew.getInStream() : inputDataSource);
 				currentParser=parser35;
 			}else{
 				currentParser=parserNew;
@@ -455,7 +609,13 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
 
 		@Override
 		public DataRecord getNext(DataRecord record) throws JetelException {
-			return currentParser.getNext(record);
+			DataRecord result = currentParser.getNext(record);
+			if (isFiltering()) {
+				while (result != null && !rangeFilter.matches(result)) {
+					result = currentParser.getNext(record);
+				}
+			}
+			return result;
 		}
 
 		@Override
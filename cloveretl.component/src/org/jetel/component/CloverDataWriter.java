@@ -128,6 +128,7 @@ public class CloverDataWriter extends Node {
 	private static final String XML_PARTITION_UNASSIGNED_FILE_NAME_ATTRIBUTE = "partitionUnassignedFileName";
 	private static final String XML_SORTED_INPUT_ATTRIBUTE = "sortedInput";
 	private static final String XML_CREATE_EMPTY_FILES_ATTRIBUTE = "createEmptyFiles";
+	private static final String XML_ZONE_MAP_FIELDS_ATTRIBUTE = "zoneMapFields";
 
 	public final static String COMPONENT_TYPE = "CLOVER_WRITER";
 	private final static int READ_FROM_PORT = 0;
@@ -157,6 +158,9 @@ public class CloverDataWriter extends Node {
 
     private String excludeFields;
 
+    /** fields with min/max statistics per data block, used by readers to skip blocks */
+    private String zoneMapFields;
+
 	static Log logger = LogFactory.getLog(CloverDataWriter.class);
 
  	public CloverDataWriter(String id, String fileURL) {
@@ -316,6 +320,9 @@ public class CloverDataWriter extends Node {
         	String[] excludedFieldNames = excludeFields.split(Defaults.Component.KEY_FIELDS_DELIMITER_REGEX);
             formatterProvider.setExcludedFieldNames(excludedFieldNames);
         }
+        if (!StringUtils.isEmpty(zoneMapFields)) {
+        	formatterProvider.setZoneMapFields(zoneMapFields.split(Defaults.Component.KEY_FIELDS_DELIMITER_REGEX));
+        }
 		
 		initLookupTable();
 
@@ -407,6 +414,9 @@ public class CloverDataWriter extends Node {
         if (xattribs.exists(XML_CREATE_EMPTY_FILES_ATTRIBUTE)) {
         	aDataWriter.setCreateEmptyFiles(xattribs.getBoolean(XML_CREATE_EMPTY_FILES_ATTRIBUTE));
         }
+        if (xattribs.exists(XML_ZONE_MAP_FIELDS_ATTRIBUTE)) {
+        	aDataWriter.setZoneMapFields(xattribs.getString(XML_ZONE_MAP_FIELDS_ATTRIBUTE));
+        }
 		
 		return aDataWriter;
 	}
@@ -483,4 +493,8 @@ public class CloverDataWriter extends Node {
 		this.createEmptyFiles = createEmptyFiles;
 	}
 
+	private void setZoneMapFields(String zoneMapFields) {
+		this.zoneMapFields = zoneMapFields;
+	}
+
 }
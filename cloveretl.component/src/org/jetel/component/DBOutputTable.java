@@ -25,15 +25,24 @@ import java.sql.Savepoint;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.jetel.connection.jdbc.AdaptiveBatchSize;
 import org.jetel.connection.jdbc.ConnectionAction;
 import org.jetel.connection.jdbc.SQLCloverStatement;
 import org.jetel.connection.jdbc.SQLUtil;
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
 import org.jetel.data.Defaults;
+import org.jetel.data.HashKey;
+import org.jetel.data.RecordKey;
 import org.jetel.data.parser.TextParser;
 import org.jetel.data.parser.TextParserFactory;
 import org.jetel.database.IConnection;
@@ -54,6 +63,8 @@ import org.jetel.graph.Result;
 import org.jetel.graph.TransformationGraph;
 import org.jetel.graph.modelview.MVMetadata;
 import org.jetel.graph.modelview.impl.MetadataPropagationResolver;
+import org.jetel.graph.runtime.CloverWorker;
+import org.jetel.graph.runtime.FutureOfRunnable;
 import org.jetel.metadata.DataFieldMetadata;
 import org.jetel.metadata.DataFieldType;
 import org.jetel.metadata.DataRecordMetadata;
@@ -155,6 +166,13 @@ import org.w3c.dom.Element;
  *   <tr><td><b>maxErrors</b><br><i>optional</i></td><td>maximum number of allowed SQL errors. Default: 0 (zero). If exceeded, component stops with error. If set to <b>-1</b>(minus one) all errors are ignored.</td></tr>
  *   <tr><td><b>errorAction</b><br><i>optional</i></td><td>ROLLBACK or COMMIT (case sensitive!!!). Default: COMMIT. 
  *   Action performed when exceeded maximum number of records or execution of the component is aborted.</td></tr>
+ *   <tr><td><b>parallelWriters</b><br><i>optional</i></td><td>number of parallel writers. Each writer has its own DB connection, prepared statements,
+ *   batch buffer and commit interval, so <i>commit</i> is counted per writer. Rejected records are still reported one by one, but their order
+ *   is not guaranteed. Requires thread-safe DB connection. Default: 1.</td></tr>
+ *   <tr><td><b>parallelKey</b><br><i>optional</i></td><td>input fields which determine the writer for each record. Records with equal key
+ *   are always written by the same writer in the input order. If not specified, records are distributed to writers in round-robin fashion.</td></tr>
+ *   <tr><td><b>adaptiveBatchSize</b><br><i>optional</i></td><td>[Yes/No] in batch mode, size of each batch is computed from measured round-trip
+ *   time of previous batches; <i>batchSize</i> is used only for the first one. Default: No.</td></tr>
  *  </table>
  *
  *  <h4>Example:</h4>
@@ -242,6 +260,9 @@ public class DBOutputTable extends Node implements MetadataProvider {
 	public static final String XML_AUTOGENERATEDCOLUMNS_ATTRIBUTE = "autoGeneratedColumns";
 	public static final String XML_ACTION_ON_ERROR = "errorAction";
 	public static final String XML_ATOMIC_RECORD_STATEMENT_ATTRIBUTE="atomicSQL";
+	public static final String XML_PARALLEL_WRITERS_ATTRIBUTE = "parallelWriters";
+	public static final String XML_PARALLEL_KEY_ATTRIBUTE = "parallelKey";
+	public static final String XML_ADAPTIVE_BATCH_SIZE_ATTRIBUTE = "adaptiveBatchSize";
 
 	private DBConnection dbConnection;
 	private SqlConnection connection;
@@ -262,6 +283,9 @@ public class DBOutputTable extends Node implements MetadataProvider {
 	private boolean[] returnResult;
 	private ConnectionAction errorAction = ConnectionAction.COMMIT;
 	private boolean atomicSQL;
+	private int parallelWriters = 1;
+	private String[] parallelKey;
+	private boolean adaptiveBatchSize;
 	ReadableChannelIterator channelReadingIterator; // for reading the query from dictionary
 	
 	private InputPort inPort;
@@ -274,6 +298,12 @@ public class DBOutputTable extends Node implements MetadataProvider {
 	private Savepoint savepoint;
 	private static final String SAVEPOINT_NAME = "svpnt";
 	
+	// state of the parallel writing mode
+	private String[][] statementCloverFields;
+	private String[][] statementGeneratedColumns;
+	private final AtomicInteger parallelErrorCount = new AtomicInteger();
+	private volatile Exception parallelFailure;
+	
 	public final static String COMPONENT_TYPE = "DB_OUTPUT_TABLE";
 	private final static int READ_FROM_PORT = 0;
 	private final static int WRITE_REJECTED_TO_PORT = 0;
@@ -282,6 +312,8 @@ public class DBOutputTable extends Node implements MetadataProvider {
 	private final static int RECORDS_IN_BATCH = 25;
 	private final static int MAX_ALLOWED_ERRORS = 0;
 	private final static int MAX_WARNINGS = 3;
+	private final static int WRITER_QUEUE_SIZE = 64;
+	private final static String WRITER_ID_SEPARATOR = "#writer";
 	
 	static Log logger = LogFactory.getLog(DBOutputTable.class);
 
@@ -372,6 +404,33 @@ public class DBOutputTable extends Node implements MetadataProvider {
     this.atomicSQL = atomicSQL;
   }
 
+	/**
+	 * Sets number of parallel writers. Each writer has its own db connection, prepared statements,
+	 * batch buffer and commit interval. Value 1 means that all statements are sent through one connection.
+	 * @param parallelWriters
+	 */
+	public void setParallelWriters(int parallelWriters) {
+		this.parallelWriters = parallelWriters;
+	}
+
+	/**
+	 * Sets key which is used for distribution of records between parallel writers. Records with equal key
+	 * are always written by the same writer. If not set, records are distributed in round-robin fashion.
+	 * @param parallelKey
+	 */
+	public void setParallelKey(String[] parallelKey) {
+		this.parallelKey = parallelKey;
+	}
+
+	/**
+	 * If true, size of batches is computed from measured round-trip time of already executed batches.
+	 * Configured batch size is used only for the first batch.
+	 * @param adaptiveBatchSize
+	 */
+	public void setAdaptiveBatchSize(boolean adaptiveBatchSize) {
+		this.adaptiveBatchSize = adaptiveBatchSize;
+	}
+
 	/**
 	 *  Sets the cloverFields attribute of the DBOutputTable object
 	 *
@@ -550,6 +609,8 @@ public class DBOutputTable extends Node implements MetadataProvider {
 
 			int end, start = 0;
 			String[] tmpCloverFields = null;
+			statementCloverFields = new String[statement.length][];
+			statementGeneratedColumns = new String[statement.length][];
 			for (int i = 0; i < statement.length; i++) {
 				if (cloverFields != null) {
 					end = StringUtils.count(sqlQuery[i], '?');
@@ -563,19 +624,31 @@ public class DBOutputTable extends Node implements MetadataProvider {
 					start = end;
 				}
 				statement[i] = new SQLCloverStatement(connection, sqlQuery[i], inRecord, tmpCloverFields, autoGeneratedColumns);
+				statementCloverFields[i] = tmpCloverFields;
+				statementGeneratedColumns[i] = autoGeneratedColumns;
 				if (statement[i].getQueryType() == QueryType.INSERT && statement[i].returnResult()) {
 					if (useBatch) {
 						logger.warn("Getting generated keys in batch mode is not supported -> switching it off !");
 						sqlQuery[i] = sqlQuery[i].substring(0, SQLCloverStatement.indexOfReturning(sqlQuery[i], connection));
 						statement[i] = new SQLCloverStatement(connection, sqlQuery[i], inRecord, cloverFields);
+						statementCloverFields[i] = cloverFields;
+						statementGeneratedColumns[i] = null;
 					} else if (!supportsConnectionKeyGenaration) {
 						logger.warn("DB indicates no support for getting generated keys -> switching it off !");
 						sqlQuery[i] = sqlQuery[i].substring(0, SQLCloverStatement.indexOfReturning(sqlQuery[i], connection));
 						statement[i] = new SQLCloverStatement(connection, sqlQuery[i], inRecord, cloverFields);
+						statementCloverFields[i] = cloverFields;
+						statementGeneratedColumns[i] = null;
 					}
 				}
 			}
 
+			// each parallel writer needs its own connection, which is not possible with shared connection
+			if (parallelWriters > 1 && !dbConnection.isThreadSafeConnections()) {
+				logger.warn("DB connection " + dbConnectionName + " is not thread-safe -> switching parallel writers off !");
+				parallelWriters = 1;
+			}
+
 			// check that what we require is supported
 			try {
 				if (useBatch && !connection.getMetaData().supportsBatchUpdates()) {
@@ -649,6 +722,9 @@ public class DBOutputTable extends Node implements MetadataProvider {
 			if (recordsInCommit != Integer.MAX_VALUE) {
 				// CLO-6100: do not close the connection, as we expect the graph to perform commit
 				dbConnection.closeConnection(getId(), OperationType.WRITE);
+				for (int i = 1; i < parallelWriters; i++) {
+					dbConnection.closeConnection(getWriterId(i), OperationType.WRITE);
+				}
 			}
 		} finally {
 			ReadableChannelIterator.postExecute(channelReadingIterator);
@@ -679,7 +755,9 @@ public class DBOutputTable extends Node implements MetadataProvider {
 		 * Run main processing loop
 		 */
 		try{
-			if (useBatch){
+			if (isParallelMode()) {
+				runInParallelMode();
+			} else if (useBatch){
 				runInBatchMode();
 			}else{
 				runInNormalMode();
@@ -1123,6 +1201,455 @@ public class DBOutputTable extends Node implements MetadataProvider {
         //clear errors
         Arrays.fill(ex, null);
     }
+
+	/**
+	 * Parallel writers are used if more then one writer is requested or if the batch size
+	 * should be adapted to measured round-trip time, which is implemented only by the writers.
+	 */
+	private boolean isParallelMode() {
+		return parallelWriters > 1 || (useBatch && adaptiveBatchSize);
+	}
+
+	private String getWriterId(int writerIndex) {
+		return getId() + WRITER_ID_SEPARATOR + writerIndex;
+	}
+
+	/**
+	 * Distributes input records between parallel writers. Each writer works with its own connection
+	 * and commits independently, so the order of statements is kept only for records with equal parallel key.
+	 */
+	private void runInParallelMode() throws Exception {
+		parallelErrorCount.set(0);
+		parallelFailure = null;
+
+		WriterWorker[] writers = new WriterWorker[parallelWriters];
+		for (int i = 0; i < writers.length; i++) {
+			// the first writer uses connection of the component, the other ones get their own connections
+			SqlConnection writerConnection = i == 0 ? connection : dbConnection.getConnection(getWriterId(i), OperationType.WRITE);
+			writers[i] = new WriterWorker(i, writerConnection);
+		}
+		List<FutureOfRunnable<WriterWorker>> futures = new ArrayList<FutureOfRunnable<WriterWorker>>(writers.length);
+		for (WriterWorker writer : writers) {
+			futures.add(CloverWorker.startWorker(writer));
+		}
+
+		HashKey hashKey = null;
+		if (parallelKey != null) {
+			RecordKey recordKey = new RecordKey(parallelKey, inPort.getMetadata());
+			recordKey.init();
+			hashKey = new HashKey(recordKey, inRecord);
+		}
+
+		boolean aborted = true;
+		int nextWriter = 0;
+		try {
+			while (parallelFailure == null && (inRecord = inPort.readRecord(inRecord)) != null && runIt) {
+				WriterWorker writer;
+				if (hashKey != null) {
+					hashKey.setDataRecord(inRecord);
+					writer = writers[(hashKey.hashCode() & Integer.MAX_VALUE) % writers.length];
+				} else {
+					writer = writers[nextWriter];
+					nextWriter = (nextWriter + 1) % writers.length;
+				}
+				writer.put(inRecord);
+				SynchronizeUtils.cloverYield();
+			}
+			aborted = !runIt || parallelFailure != null;
+		} finally {
+			for (WriterWorker writer : writers) {
+				writer.finish(aborted);
+			}
+			for (FutureOfRunnable<WriterWorker> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					setParallelFailure(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+				}
+			}
+		}
+
+		long writtenRecords = 0;
+		for (WriterWorker writer : writers) {
+			writtenRecords += writer.writtenRecords;
+		}
+		recCount = (int) Math.min(writtenRecords, Integer.MAX_VALUE);
+		if (parallelFailure != null) {
+			logger.info("Number of processed records: " + writtenRecords);
+			if (parallelFailure instanceof JetelException) {
+				throw (JetelException) parallelFailure;
+			}
+			throw new JetelException("Parallel writer failed.", parallelFailure);
+		}
+		if (!runIt) {
+			logger.info("Number of processed records: " + writtenRecords);
+		} else if (logger.isDebugEnabled()) {
+			for (WriterWorker writer : writers) {
+				logger.debug(writer.getName() + " has written " + writer.writtenRecords + " records"
+						+ (writer.adaptiveSize != null ? ", last batch size " + writer.adaptiveSize.getSize() : ""));
+			}
+		}
+	}
+
+	/**
+	 * Remembers the first failure of a parallel writer, the component thread stops reading of records then.
+	 */
+	private synchronized void setParallelFailure(Exception e) {
+		if (parallelFailure == null) {
+			parallelFailure = e;
+		}
+	}
+
+	/**
+	 * Registers an error reported by a parallel writer.
+	 * @return total number of errors of all writers
+	 */
+	private int registerParallelError(String message) {
+		int errors = parallelErrorCount.incrementAndGet();
+		if (errors <= MAX_WARNINGS) {
+			logger.warn(message);
+		} else if (errors == MAX_WARNINGS + 1) {
+			logger.warn("more errors...");
+		}
+		return errors;
+	}
+
+	private static String getErrorMessage(SQLCloverStatement statement, SQLException ex) {
+		StringBuilder errmes = new StringBuilder("Exception thrown by: ").append(statement.getQuery())
+				.append(". Message: ").append(ExceptionUtils.getMessage(ex));
+		SQLException chain = ex.getNextException();
+		while (chain != null) {
+			errmes.append("\n  Caused by: ").append(ExceptionUtils.getMessage(chain));
+			chain = chain.getNextException();
+		}
+		return errmes.toString();
+	}
+
+	/**
+	 * Writer of records in the parallel mode. The records are passed from the component thread through a bounded
+	 * queue, the writer executes all statements for them using its own connection and handles the rejected records.
+	 * Output ports are shared by all writers, so writing to them is synchronized.
+	 */
+	private class WriterWorker extends CloverWorker {
+
+		private final SqlConnection writerConnection;
+		/** records waiting for processing */
+		private final BlockingQueue<DataRecord> fullRecords = new LinkedBlockingQueue<DataRecord>();
+		/** already processed records, which can be reused by the component thread */
+		private final BlockingQueue<DataRecord> freeRecords = new LinkedBlockingQueue<DataRecord>();
+		/** marks end of the input data */
+		private final DataRecord eofRecord;
+		/** maximal number of records owned by this writer, guarded by the component thread */
+		private final int capacity;
+		private int allocated;
+		private volatile boolean aborted;
+
+		private SQLCloverStatement[] writerStatement;
+		private DataRecord writerRecord, writerRejectedRecord, writerKeysRecord;
+		private Savepoint writerSavepoint;
+		private AdaptiveBatchSize adaptiveSize;
+		private final List<DataRecord> batch = new ArrayList<DataRecord>();
+		/** failed[i][j] is true if j-th record of the batch hasn't been added to batch of i-th statement */
+		private boolean[][] failed;
+		private long writtenRecords;
+
+		public WriterWorker(int index, SqlConnection writerConnection) {
+			super(DBOutputTable.this, "Writer#" + index);
+			this.writerConnection = writerConnection;
+			this.eofRecord = DataRecordFactory.newRecord(inPort.getMetadata());
+			int maxBatchSize = !useBatch ? 1 : (adaptiveBatchSize ? Math.max(batchSize, AdaptiveBatchSize.DEFAULT_MAX_SIZE) : batchSize);
+			this.capacity = maxBatchSize + WRITER_QUEUE_SIZE;
+		}
+
+		/**
+		 * Passes copy of the given record to this writer. Called by the component thread.
+		 */
+		public void put(DataRecord record) throws InterruptedException {
+			DataRecord freeRecord = freeRecords.poll();
+			if (freeRecord == null) {
+				if (allocated < capacity) {
+					allocated++;
+					freeRecord = DataRecordFactory.newRecord(record.getMetadata());
+				} else {
+					while ((freeRecord = freeRecords.poll(100, TimeUnit.MILLISECONDS)) == null) {
+						if (parallelFailure != null) {
+							// the writer failed, it will never release the records
+							return;
+						}
+					}
+				}
+			}
+			freeRecord.copyFrom(record);
+			fullRecords.put(freeRecord);
+		}
+
+		/**
+		 * Informs the writer, that there are no more records.
+		 * @param aborted true if the writer shouldn't process the queued records and should perform the error action
+		 */
+		public void finish(boolean aborted) throws InterruptedException {
+			this.aborted = aborted;
+			fullRecords.put(eofRecord);
+		}
+
+		@Override
+		public void work() throws Exception, InterruptedException {
+			try {
+				init();
+				DataRecord record;
+				while ((record = fullRecords.take()) != eofRecord && !aborted) {
+					if (useBatch) {
+						addBatch(record);
+					} else {
+						executeUpdate(record);
+						freeRecords.add(record);
+					}
+				}
+				if (aborted) {
+					performErrorAction();
+					return;
+				}
+				if (!batch.isEmpty()) {
+					executeBatch();
+				}
+				if (recordsInCommit != Integer.MAX_VALUE) {
+					writerConnection.commit();
+				}
+			} catch (InterruptedException e) {
+				performErrorAction();
+				throw e;
+			} catch (Exception e) {
+				// reported by the component thread
+				setParallelFailure(e);
+				performErrorAction();
+			} finally {
+				if (writerStatement != null) {
+					for (SQLCloverStatement eachStatement : writerStatement) {
+						try {
+							if (eachStatement != null) {
+								eachStatement.close();
+							}
+						} catch (SQLException e) {
+							logger.warn("SQLException when closing statement", e);
+						}
+					}
+				}
+			}
+		}
+
+		private void init() throws ComponentNotReadyException, SQLException {
+			writerRecord = DataRecordFactory.newRecord(inPort.getMetadata());
+			writerRejectedRecord = rejectedRecord != null ? rejectedRecord.duplicate() : null;
+			writerKeysRecord = keysRecord != null ? keysRecord.duplicate() : null;
+			writerStatement = new SQLCloverStatement[statement.length];
+			for (int i = 0; i < writerStatement.length; i++) {
+				writerStatement[i] = new SQLCloverStatement(writerConnection, sqlQuery[i], writerRecord,
+						statementCloverFields[i], statementGeneratedColumns[i]);
+				writerStatement[i].setLogger(logger);
+				writerStatement[i].init();
+				writerStatement[i].setBatchUpdate(useBatch);
+			}
+			if (useBatch) {
+				adaptiveSize = adaptiveBatchSize ? new AdaptiveBatchSize(batchSize) : null;
+				failed = new boolean[writerStatement.length][capacity];
+			}
+		}
+
+		private void performErrorAction() {
+			if (recordsInCommit == Integer.MAX_VALUE && errorAction == ConnectionAction.COMMIT) {
+				return;
+			}
+			try {
+				errorAction.perform(writerConnection);
+				if (errorAction == ConnectionAction.ROLLBACK) {
+					logger.info(getName() + ": rollback performed.");
+				}
+			} catch (SQLException e) {
+				logger.warn(getName() + ": " + errorAction + " failed", e);
+			}
+		}
+
+		private void checkMaxErrors(int errors, String errmes, Exception exception) throws JetelException {
+			if (errors > maxErrors && maxErrors != -1) {
+				throw new JetelException("Maximum # of errors exceeded when inserting record. " + errmes, exception);
+			}
+		}
+
+		private void reject(DataRecord record, String errmes, int errorCode) throws IOException, InterruptedException {
+			if (writerRejectedRecord == null) {
+				return;
+			}
+			writerRejectedRecord.copyFieldsByName(record);
+			if (errMessFieldNum != -1) {
+				writerRejectedRecord.getField(errMessFieldNum).setValue(errmes);
+			}
+			if (errorCodeFieldNum != -1) {
+				writerRejectedRecord.getField(errorCodeFieldNum).setValue(errorCode);
+			}
+			synchronized (rejectedPort) {
+				rejectedPort.writeRecord(writerRejectedRecord);
+			}
+		}
+
+		private void writeKeys(DataRecord record) throws IOException, InterruptedException {
+			synchronized (keysPort) {
+				keysPort.writeRecord(record);
+			}
+		}
+
+		private void setSavepoint(boolean useSavepoints) {
+			if (useSavepoints && !atomicSQL) {
+				try {
+					writerSavepoint = writerConnection.setSavepoint(SAVEPOINT_NAME);
+				} catch (SQLException e) {
+					logger.warn("Failed to set SAVEPOINT; rest of transaction may be lost", e);
+				}
+			}
+		}
+
+		/**
+		 * Executes all statements for one record, the same as {@link DBOutputTable#runInNormalMode()}.
+		 */
+		private void executeUpdate(DataRecord record) throws SQLException, IOException, InterruptedException, JetelException {
+			boolean useSavepoints = writerConnection.getJdbcSpecific().useSavepoints();
+			writerRecord.copyFrom(record);
+			if (writerKeysRecord != null) {
+				writerKeysRecord.reset();
+			}
+			for (int i = 0; i < writerStatement.length; i++) {
+				try {
+					setSavepoint(useSavepoints);
+					writerStatement[i].executeUpdate(returnResult[i] ? writerKeysRecord : null);
+				} catch (SQLException ex) {
+					String errmes = getErrorMessage(writerStatement[i], ex);
+					int errors = registerParallelError(errmes);
+					reject(record, errmes, ex.getErrorCode());
+					checkMaxErrors(errors, errmes, ex);
+					if (atomicSQL) {
+						writerConnection.rollback();
+						break;
+					} else if (useSavepoints && writerSavepoint != null) {
+						writerConnection.rollback(writerSavepoint);
+					}
+				}
+			}
+			if (writerKeysRecord != null) {
+				writeKeys(writerKeysRecord);
+			}
+			if ((recordsInCommit != Integer.MAX_VALUE && ++writtenRecords % recordsInCommit == 0) || atomicSQL) {
+				writerConnection.commit();
+			}
+		}
+
+		/**
+		 * Adds the record to batches of all statements and executes them if the batch is full.
+		 */
+		private void addBatch(DataRecord record) throws SQLException, IOException, InterruptedException, JetelException {
+			int position = batch.size();
+			batch.add(record);
+			writerRecord.copyFrom(record);
+			for (int i = 0; i < writerStatement.length; i++) {
+				try {
+					writerStatement[i].addBatch(returnResult[i] ? writerKeysRecord : null);
+					failed[i][position] = false;
+				} catch (SQLException ex) {
+					// statement won't be executed for this record
+					failed[i][position] = true;
+					String errmes = getErrorMessage(writerStatement[i], ex);
+					int errors = registerParallelError(errmes);
+					reject(record, errmes, ex.getErrorCode());
+					checkMaxErrors(errors, errmes, ex);
+				}
+			}
+			writtenRecords++;
+			int currentBatchSize = adaptiveSize != null ? adaptiveSize.getSize() : batchSize;
+			boolean commit = (recordsInCommit != Integer.MAX_VALUE && writtenRecords % recordsInCommit == 0) || atomicSQL;
+			if (batch.size() >= currentBatchSize || commit) {
+				executeBatch();
+			}
+			if (commit) {
+				writerConnection.commit();
+			}
+		}
+
+		/**
+		 * Executes batches of all statements, sends records which haven't been accepted by the database
+		 * to the rejected port and releases the batched records.
+		 */
+		private void executeBatch() throws SQLException, IOException, InterruptedException, JetelException {
+			boolean useSavepoints = writerConnection.getJdbcSpecific().useSavepoints();
+			long start = System.nanoTime();
+			for (int i = 0; i < writerStatement.length; i++) {
+				setSavepoint(useSavepoints);
+				DataRecord[] updatedRecords;
+				try {
+					writerStatement[i].executeBatch();
+					updatedRecords = writerStatement[i].getBatchResult();
+					writerStatement[i].clearBatch();
+				} catch (BatchUpdateException ex) {
+					updatedRecords = writerStatement[i].getBatchResult();
+					writerStatement[i].clearBatch();
+					boolean rolledBack = false;
+					if (atomicSQL) {
+						writerConnection.rollback();
+						rolledBack = true;
+					} else if (useSavepoints && writerSavepoint != null) {
+						writerConnection.rollback(writerSavepoint);
+						rolledBack = true;
+					}
+					rejectBatch(i, ex, rolledBack);
+				}
+				if (keysPort != null) {
+					for (DataRecord updatedRecord : updatedRecords) {
+						writeKeys(updatedRecord);
+					}
+				}
+			}
+			if (adaptiveSize != null) {
+				adaptiveSize.update(batch.size(), System.nanoTime() - start);
+			}
+			freeRecords.addAll(batch);
+			batch.clear();
+		}
+
+		/**
+		 * Sends records of failed batch of the given statement to the rejected port. Records with
+		 * successful update count are rejected only if the batch has been rolled back.
+		 */
+		private void rejectBatch(int statementIndex, BatchUpdateException ex, boolean rolledBack) throws IOException, InterruptedException, JetelException {
+			int[] updateCounts = ex.getUpdateCounts();
+			if (updateCounts == null) {
+				updateCounts = new int[0];
+			}
+			SQLException exception = ex;
+			String lastMessage = getErrorMessage(writerStatement[statementIndex], ex);
+			int counter = 0; // index to update counts, which contain only records added to the batch
+			for (int j = 0; j < batch.size(); j++) {
+				if (failed[statementIndex][j]) {
+					continue; // already rejected by addBatch()
+				}
+				String errmes;
+				if (counter < updateCounts.length && updateCounts[counter] == Statement.EXECUTE_FAILED) {
+					errmes = lastMessage;
+					if (exception != null) {
+						errmes = "Exception thrown by: " + writerStatement[statementIndex].getQuery() + ". Message: " + ExceptionUtils.getMessage(exception);
+						exception = exception.getNextException();
+					}
+				} else if (counter >= updateCounts.length || rolledBack) {
+					errmes = "Record not inserted to database. " + lastMessage;
+				} else {
+					errmes = null; // record accepted by the database
+				}
+				counter++;
+				if (errmes != null) {
+					int errors = registerParallelError(errmes);
+					reject(batch.get(j), errmes, ex.getErrorCode());
+					checkMaxErrors(errors, errmes, ex);
+				}
+			}
+		}
+
+	}
 	
 	/**
 	 *  Description of the Method
@@ -1209,6 +1736,15 @@ public class DBOutputTable extends Node implements MetadataProvider {
 		if (xattribs.exists(XML_CHARSET_ATTRIBUTE)){
 			outputTable.setCharset(xattribs.getString(XML_CHARSET_ATTRIBUTE));
 		}
+		if (xattribs.exists(XML_PARALLEL_WRITERS_ATTRIBUTE)){
+			outputTable.setParallelWriters(xattribs.getInteger(XML_PARALLEL_WRITERS_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_PARALLEL_KEY_ATTRIBUTE)){
+			outputTable.setParallelKey(xattribs.getString(XML_PARALLEL_KEY_ATTRIBUTE).split(Defaults.Component.KEY_FIELDS_DELIMITER_REGEX));
+		}
+		if (xattribs.exists(XML_ADAPTIVE_BATCH_SIZE_ATTRIBUTE)){
+			outputTable.setAdaptiveBatchSize(xattribs.getBoolean(XML_ADAPTIVE_BATCH_SIZE_ATTRIBUTE));
+		}
 		
 		return outputTable;
 	}
@@ -1229,6 +1765,16 @@ public class DBOutputTable extends Node implements MetadataProvider {
          if (dbConnectionName == null) {
          	status.addError(this, XML_DBCONNECTION_ATTRIBUTE, "DB connection not defined.");
          }
+         if (parallelWriters < 1) {
+         	status.addError(this, XML_PARALLEL_WRITERS_ATTRIBUTE, "Number of parallel writers has to be positive.");
+         }
+         if (parallelKey != null && getInputPort(READ_FROM_PORT).getMetadata() != null) {
+         	for (String keyField : parallelKey) {
+         		if (getInputPort(READ_FROM_PORT).getMetadata().getField(keyField) == null) {
+         			status.addError(this, XML_PARALLEL_KEY_ATTRIBUTE, "Field " + StringUtils.quote(keyField) + " does not exist in input metadata.");
+         		}
+         	}
+         }
          if ((sqlQuery == null && queryURL == null && dbTableName == null ) || dbConnectionName == null) {
         	 return status;
          }
@@ -52,6 +52,7 @@ import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.util.DataRecordUtils;
 import org.jetel.util.ExceptionUtils;
 import org.jetel.util.MultiFileReader;
+import org.jetel.util.ParallelMultiFileReader;
 import org.jetel.util.SynchronizeUtils;
 import org.jetel.util.property.ComponentXMLAttributes;
 import org.jetel.util.property.RefResFlag;
@@ -100,6 +101,12 @@ import org.w3c.dom.Element;
  *  <tr><td><b>quotedStrings</b></td><td>string field can be quoted by '' or ""</td>
  *  <tr><td><b>treatMultipleDelimitersAsOne</b></td><td>if this option is true, then multiple delimiters are recognize as one delimiter</td>
  *  <tr><td><b>verbose</b></td><td>verbose mode provides more comprehensive error notification; default is true</td>
+ *  <tr><td><b>parallelism</b><br><i>optional</i></td><td>number of input files parsed concurrently, default is 1.
+ *  Not applied to port and dictionary sources and together with skipRows, numRecords or incremental reading.</td>
+ *  <tr><td><b>preserveFileOrder</b><br><i>optional</i></td><td>if parallelism is used, records of each file are sent together
+ *  in the order of the files; default is true.</td>
+ *  <tr><td><b>prefetchDepth</b><br><i>optional</i></td><td>number of input files opened in the background while the current file is parsed.
+ *  Default is given by DataParser.PREFETCH_DEPTH engine property, 0 disables prefetching.</td>
  *  </tr>
  *  </table>
  *
@@ -138,6 +145,9 @@ public class DataReader extends Node {
 	private static final String XML_INCREMENTAL_KEY_ATTRIBUTE = "incrementalKey";
 	private static final String XML_PARSER_ATTRIBUTE = "parser";
 	private static final String XML_VERBOSE_ATTRIBUTE = "verbose";
+	private static final String XML_PREFETCH_DEPTH_ATTRIBUTE = "prefetchDepth";
+	private static final String XML_PARALLELISM_ATTRIBUTE = "parallelism";
+	private static final String XML_PRESERVE_FILE_ORDER_ATTRIBUTE = "preserveFileOrder";
 
 	private final static int OUTPUT_PORT = 0;
 	private final static int INPUT_PORT = 0;
@@ -151,11 +161,15 @@ public class DataReader extends Node {
 	private int maxErrorCount = -1;
     private String incrementalFile;
     private String incrementalKey;
+    private int prefetchDepth = -1;
+    private int parallelism = 1;
+    private boolean preserveFileOrder = true;
     private String parserClassName;
 	private ClassLoader parserClassLoader;
 
 	protected TextParser parser;
     private MultiFileReader reader;
+    private ParallelMultiFileReader parallelReader;
     private String policyTypeStr;
     private PolicyType policyType = PolicyType.STRICT;
 
@@ -228,8 +242,11 @@ public class DataReader extends Node {
 		}
 		
         updateSkipSourceRowsByMetadata();
-		prepareParser();
-        prepareMultiFileReader();
+        prepareParallelReader();
+        if (parallelReader == null) {
+        	prepareParser();
+        	prepareMultiFileReader();
+        }
 	}
 
 	/* (non-Javadoc)
@@ -240,7 +257,11 @@ public class DataReader extends Node {
 		super.preExecute();
 
         try {
-            reader.preExecute();
+        	if (parallelReader != null) {
+        		parallelReader.preExecute();
+        	} else {
+        		reader.preExecute();
+        	}
         } catch(ComponentNotReadyException e) {
             e.setAttributeName(XML_FILE_ATTRIBUTE);
             throw e;
@@ -266,7 +287,7 @@ public class DataReader extends Node {
 		try {
 			while (runIt) {
 				try {
-					if ((reader.getNext(record)) == null) {
+					if ((parallelReader != null ? parallelReader.getNext(record) : reader.getNext(record)) == null) {
 						break;
 					}
 					outPort.writeRecord(record);
@@ -285,11 +306,11 @@ public class DataReader extends Node {
 							setCharSequenceToField(bdfe.getRawRecord(), logRecord.getField(2));
 							setCharSequenceToField(ExceptionUtils.getMessage(bdfe), logRecord.getField(3));
 							if (hasFileNameField) {
-								setCharSequenceToField(reader.getSourceName(), logRecord.getField(4));
+								setCharSequenceToField(getSourceName(), logRecord.getField(4));
 							}
 							writeRecord(LOG_PORT, logRecord);
 						} else {
-							logger.warn(ExceptionUtils.getMessage("Error in input source: " + reader.getSourceName(), bdfe));
+							logger.warn(ExceptionUtils.getMessage("Error in input source: " + getSourceName(), bdfe));
 						}
 						if (maxErrorCount != -1 && ++errorCount > maxErrorCount) {
 							throw new JetelRuntimeException("Max error count exceeded.", bdfe);
@@ -337,7 +358,15 @@ public class DataReader extends Node {
 	public void postExecute() throws ComponentNotReadyException {
 		super.postExecute();
 		
-		reader.postExecute();
+		if (parallelReader != null) {
+			parallelReader.postExecute();
+		} else {
+			reader.postExecute();
+		}
+	}
+	
+	private String getSourceName() {
+		return parallelReader != null ? parallelReader.getSourceName() : reader.getSourceName();
 	}
 	
 	@Override
@@ -370,6 +399,13 @@ public class DataReader extends Node {
 	}
 	
 	private void prepareParser() {
+		parser = createParser();
+		if( logger.isDebugEnabled()){
+			logger.debug("Component " + getId() + " uses parser " + parser.getClass().getName() );
+		}
+	}
+	
+	private TextParser createParser() {
 		//create data parser
 		final TextParserConfiguration parserCfg = new TextParserConfiguration();
 		parserCfg.setMetadata(getOutputPort(OUTPUT_PORT).getMetadata());
@@ -389,30 +425,66 @@ public class DataReader extends Node {
         if( incrementalFile != null || incrementalKey != null || skipFirstLine || skipRows > 0 || skipSourceRows > 0 ) {
         	parserCfg.setSkipRows(true);
         }
-        parser = TextParserFactory.getParser(parserCfg, parserClassName, parserClassLoader);
-		if( logger.isDebugEnabled()){
-			logger.debug("Component " + getId() + " uses parser " + parser.getClass().getName() );
-		}
+        TextParser parser = TextParserFactory.getParser(parserCfg, parserClassName, parserClassLoader);
         parser.setExceptionHandler(ParserExceptionHandlerFactory.getHandler(policyType));
+        return parser;
 	}
 	
 	private void prepareMultiFileReader() throws ComponentNotReadyException {
 		// initialize multifile reader based on prepared parser
-		TransformationGraph graph = getGraph();
-        reader = new MultiFileReader(parser, getContextURL(), fileURL);
-        reader.setLogger(logger);
+		reader = createMultiFileReader(parser);
         reader.setSkip(skipRows);
-        reader.setNumSourceRecords(numSourceRecords);
         reader.setNumRecords(numRecords);
         reader.setIncrementalFile(incrementalFile);
         reader.setIncrementalKey(incrementalKey);
+        if (prefetchDepth >= 0) {
+        	reader.setPrefetchDepth(prefetchDepth);
+        }
+
+        reader.init(getOutputPort(OUTPUT_PORT).getMetadata());
+	}
+	
+	private MultiFileReader createMultiFileReader(TextParser parser) {
+		TransformationGraph graph = getGraph();
+        MultiFileReader reader = new MultiFileReader(parser, getContextURL(), fileURL);
+        reader.setLogger(logger);
+        reader.setNumSourceRecords(numSourceRecords);
         reader.setInputPort(getInputPort(INPUT_PORT)); //for port protocol: ReadableChannelIterator reads data
         reader.setCharset(charset);
         reader.setPropertyRefResolver(getPropertyRefResolver());
         reader.setDictionary(graph.getDictionary());
         reader.setSkipSourceRows(skipSourceRows > 0 ? skipSourceRows : (skipFirstLine ? 1 : 0));
+        return reader;
+	}
+	
+	/**
+	 * Input files are parsed concurrently by separate parsers if parallelism is set
+	 * and no option requires sequential reading.
+	 */
+	private void prepareParallelReader() {
+		parallelReader = null;
+		if (parallelism <= 1) {
+			return;
+		}
+		if (!ParallelMultiFileReader.isSupported(fileURL) || skipRows > 0 || numRecords >= 0 || incrementalFile != null || incrementalKey != null) {
+			logger.info("Component " + getId() + " reads input files sequentially, parallel reading is not supported for port or dictionary sources, "
+					+ XML_SKIPROWS_ATTRIBUTE + ", " + XML_NUMRECORDS_ATTRIBUTE + " and incremental reading.");
+			return;
+		}
+		final DataRecordMetadata metadata = getOutputPort(OUTPUT_PORT).getMetadata();
+		parallelReader = new ParallelMultiFileReader(new ParallelMultiFileReader.ReaderFactory() {
+			@Override
+			public MultiFileReader createReader() throws ComponentNotReadyException {
+				MultiFileReader reader = createMultiFileReader(createParser());
+				reader.init(metadata);
+				return reader;
+			}
 
-        reader.init(getOutputPort(OUTPUT_PORT).getMetadata());
+			@Override
+			public DataRecord createRecord() {
+				return DataRecordFactory.newRecord(metadata);
+			}
+		}, getContextURL(), fileURL, parallelism, preserveFileOrder);
 	}
 
 
@@ -502,6 +574,15 @@ public class DataReader extends Node {
 		if (xattribs.exists(XML_PARSER_ATTRIBUTE)){
 			aDataReader.setParserClassName(xattribs.getString(XML_PARSER_ATTRIBUTE));
 		}
+		if (xattribs.exists(XML_PREFETCH_DEPTH_ATTRIBUTE)){
+			aDataReader.setPrefetchDepth(xattribs.getInteger(XML_PREFETCH_DEPTH_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_PARALLELISM_ATTRIBUTE)){
+			aDataReader.setParallelism(xattribs.getInteger(XML_PARALLELISM_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_PRESERVE_FILE_ORDER_ATTRIBUTE)){
+			aDataReader.setPreserveFileOrder(xattribs.getBoolean(XML_PRESERVE_FILE_ORDER_ATTRIBUTE));
+		}
 
 		return aDataReader;
 	}
@@ -657,6 +738,10 @@ public class DataReader extends Node {
      * Stores all values as incremental reading.
      */
 	private void storeValues() {
+		if (parallelReader != null) {
+			// incremental reading is not used with parallel reading
+			return;
+		}
 		try {
 			Object dictValue = getGraph().getDictionary().getValue(Defaults.INCREMENTAL_STORE_KEY);
 			if (Boolean.FALSE.equals(dictValue)) {
@@ -676,6 +761,18 @@ public class DataReader extends Node {
     	this.incrementalKey = incrementalKey;
     }
 
+    public void setPrefetchDepth(int prefetchDepth) {
+    	this.prefetchDepth = prefetchDepth;
+    }
+
+    public void setParallelism(int parallelism) {
+    	this.parallelism = parallelism;
+    }
+
+    public void setPreserveFileOrder(boolean preserveFileOrder) {
+    	this.preserveFileOrder = preserveFileOrder;
+    }
+
     public void setSkipLeadingBlanks(Boolean skipLeadingBlanks) {
 		this.skipLeadingBlanks = skipLeadingBlanks;
 	}
@@ -87,6 +87,11 @@ import org.w3c.dom.Element;
  *  <tr><td><b>recordSkip</b></td><td>number of skipped records</td>
  *  <tr><td><b>recordCount</b></td><td>number of written records</td>
  *  <tr><td><b>excludeFields</b></td><td>	 sequence of field names from incoming data flow (separated by semicolon) to exclude from writing </td>
+ *  <tr><td><b>maxOpenFiles</b><br><i>optional</i></td><td>max number of partition files open at once for unsorted input,
+ *  the least recently used local, sandbox and SFTP files are closed and reopened in append mode, other targets stay open;
+ *  records are buffered per partition meanwhile (default: no limit)</td>
+ *  <tr><td><b>partitionBufferSize</b><br><i>optional</i></td><td>size of memory (in bytes) for records buffered per partition
+ *  (default: DataFormatter.PARTITION_BUFFER_SIZE if maxOpenFiles is set)</td>
  *  </tr>
  *  </table>  
  *
@@ -115,6 +120,8 @@ public class DataWriter extends Node {
 	private static final String XML_QUOTEDSTRINGS_ATTRIBUTE = "quotedStrings";
 	private static final String XML_QUOTECHAR_ATTRIBUTE = "quoteCharacter";
 	private static final String XML_SORTED_INPUT_ATTRIBUTE = "sortedInput";
+	private static final String XML_MAX_OPEN_FILES_ATTRIBUTE = "maxOpenFiles";
+	private static final String XML_PARTITION_BUFFER_SIZE_ATTRIBUTE = "partitionBufferSize";
 	private static final String XML_CREATE_EMPTY_FILES_ATTRIBUTE = "createEmptyFiles";
 	private static final String XML_SKIP_LAST_RECORD_DELIMITER_ATTRIBUTE = "skipLastRecordDelimiter";
 	
@@ -141,6 +148,8 @@ public class DataWriter extends Node {
 	private boolean mkDir;
 	private boolean quotedStringsHasDefaultValue = true;
 	private boolean sortedInput = false;
+	private int maxOpenFiles = 0;
+	private int partitionBufferSize = -1;
 	private boolean createEmptyFiles = true;
 	private boolean skipLastRecordDelimiter = false;
 	
@@ -250,6 +259,8 @@ public class DataWriter extends Node {
             writer.setPartitionFileTag(partitionFileTagType);
         	writer.setPartitionUnassignedFileName(partitionUnassignedFileName);
             writer.setSortedInput(sortedInput);
+            writer.setMaxOpenFiles(maxOpenFiles);
+            writer.setPartitionBufferSize(partitionBufferSize);
 	
         	if (attrPartitionOutFields != null) {
         		writer.setPartitionOutFields(attrPartitionOutFields.split(Defaults.Component.KEY_FIELDS_DELIMITER_REGEX));
@@ -391,6 +402,12 @@ public class DataWriter extends Node {
         if (xattribs.exists(XML_SORTED_INPUT_ATTRIBUTE)) {
         	aDataWriter.setSortedInput(xattribs.getBoolean(XML_SORTED_INPUT_ATTRIBUTE));
         }
+        if (xattribs.exists(XML_MAX_OPEN_FILES_ATTRIBUTE)) {
+        	aDataWriter.setMaxOpenFiles(xattribs.getInteger(XML_MAX_OPEN_FILES_ATTRIBUTE));
+        }
+        if (xattribs.exists(XML_PARTITION_BUFFER_SIZE_ATTRIBUTE)) {
+        	aDataWriter.setPartitionBufferSize(xattribs.getInteger(XML_PARTITION_BUFFER_SIZE_ATTRIBUTE));
+        }
         if (xattribs.exists(XML_CREATE_EMPTY_FILES_ATTRIBUTE)) {
         	aDataWriter.setCreateEmptyFiles(xattribs.getBoolean(XML_CREATE_EMPTY_FILES_ATTRIBUTE));
         }
@@ -620,6 +637,14 @@ public class DataWriter extends Node {
     public boolean isSortedInput() {
     	return sortedInput;
     }
+    
+    public void setMaxOpenFiles(int maxOpenFiles) {
+    	this.maxOpenFiles = maxOpenFiles;
+    }
+    
+    public void setPartitionBufferSize(int partitionBufferSize) {
+    	this.partitionBufferSize = partitionBufferSize;
+    }
     
 	private void setCreateEmptyFiles(boolean createEmptyFiles) {
 		this.createEmptyFiles = createEmptyFiles;
@@ -78,8 +78,8 @@ import org.w3c.dom.Element;
  *  <tr><td><b>id</b></td><td>component identification</td>
  *  <tr><td><b>sortKey</b></td><td>field names separated by :;|  {colon, semicolon, pipe}</td>
  *  <tr><td><b>sortOrder</b><br><i>optional</i></td><td>one of "Ascending|Descending" {the fist letter is sufficient, if not defined, then Ascending}</td>
- *  <tr><td><b>numberOfTapes</b><br><i>optional</i></td><td>even number greater than 2 - denotes how many tapes (temporary files) will be used when external sorting data.
- *  <i>Default is 6 tapes.</i></td>
+ *  <tr><td><b>numberOfTapes</b><br><i>optional</i></td><td>number greater than 1 - denotes how many tapes (temporary files) can be used at most when external sorting data.
+ *  <i>By default, the limit is given by ExternalSortDataRecord.MAX_NUMBER_OF_TAPES engine property and by heap size.</i></td>
  *  <!--tr><td><b>sorterInitialCapacity</b><br><i>optional</i></td><td>the initial capacity of internal sorter used for in-memory sorting records. If the
  *   system has plenty of memory, specify high number here (5000 or more). If the system is short on memory, use low number (100).<br>
  *   The final capacity is based on following formula:<br><code>sorter_initial_capacity * (1 - grow_factor^max_num_collections)/(1 - grow_factor)</code><br>
@@ -144,7 +144,6 @@ public class ExtSort extends Node {
 	private CloverBuffer recordBuffer;
 	private String localeStr;
 
-	private final static int DEFAULT_NUMBER_OF_TAPES = 6;
 	private static final String KEY_FIELDS_ORDERING_1ST_DELIMETER = "(";
 	private static final String KEY_FIELDS_ORDERING_2ND_DELIMETER = ")";	
 	
@@ -182,7 +181,7 @@ public class ExtSort extends Node {
 			}
 		}
         
-        this.numberOfTapes = DEFAULT_NUMBER_OF_TAPES;
+        this.numberOfTapes = ExternalSortDataRecord.AUTO_NUMBER_OF_TAPES;
         internalBufferCapacity=-1;
     }
 
@@ -262,7 +261,7 @@ public class ExtSort extends Node {
 		try {
 			// create sorter
 			sorter = new ExternalSortDataRecord(getInputPort(READ_FROM_PORT).getMetadata(),
-					sortKeysNames, sortOrderings, internalBufferCapacity, DEFAULT_NUMBER_OF_TAPES, localeStr, caseSensitive);
+					sortKeysNames, sortOrderings, internalBufferCapacity, numberOfTapes, localeStr, caseSensitive);
 		} catch (Exception e) {
             throw new ComponentNotReadyException(e);
 		}
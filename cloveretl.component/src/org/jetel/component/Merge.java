@@ -23,6 +23,7 @@ import java.io.IOException;
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
 import org.jetel.data.Defaults;
+import org.jetel.data.LoserTree;
 import org.jetel.data.RecordKey;
 import org.jetel.exception.AttributeNotFoundException;
 import org.jetel.exception.ComponentNotReadyException;
@@ -103,75 +104,21 @@ public class Merge extends Node {
 
 
 	/**
-	 *  Gets the first open/active port starting at specified index.
-	 *  This is auxiliary function to simplify process of seeking
-	 *  next port from which data can be read.
-	 *
-	 * @param  isEOF  Description of the Parameter
-	 * @param  from   Description of the Parameter
-	 * @return        The firstOpen value
-	 */
-	private int getNextOpen(boolean[] isEOF, int from) {
-		for (int i = from; i < isEOF.length; i++) {
-			if (!isEOF[i]) {
-				return i;
-			}
-		}
-		return -1;
-	}
-
-
-	/**
-	 *  From all input ports defined, selects the record whose
-	 *  value (based on defined key) is lowest. It then returns
-	 *  the index of that port
-	 *
-	 * @param  inputRecords  Description of the Parameter
-	 * @param  isEOF         Description of the Parameter
-	 * @return               The lowestRecIndex value
-	 */
-	private int getLowestRecIndex(DataRecord[] inputRecords, boolean[] isEOF) {
-		int lowest;
-		int compareTo;
-
-		if ((lowest = getNextOpen(isEOF, 0)) == -1) {
-			return -1;
-		}
-		compareTo = getNextOpen(isEOF, lowest + 1);
-
-		while (compareTo < isEOF.length && compareTo != -1) {
-			if (comparisonKey.compare(inputRecords[lowest], inputRecords[compareTo]) == 1) {
-				lowest = compareTo;// we have new lowest
-			}
-			compareTo = getNextOpen(isEOF, compareTo + 1);
-		}
-
-		return lowest;
-	}
-
-
-
-	/**
-	 *  First time reads data from all input ports
+	 *  First time reads data from all input ports and builds the merge tree.
+	 *  Exhausted ports do not take part in the merge.
 	 *
 	 * @param  inputRecords              Description of the Parameter
 	 * @param  inPorts                   Description of the Parameter
-	 * @param  isEOF                     Description of the Parameter
-	 * @return                           Description of the Return Value
+	 * @param  mergeTree                 Description of the Parameter
 	 * @exception  IOException           Description of the Exception
 	 * @exception  InterruptedException  Description of the Exception
 	 */
-	private int populateRecords(DataRecord[] inputRecords, InputPort[] inPorts, boolean[] isEOF)
+	private void populateRecords(DataRecord[] inputRecords, InputPort[] inPorts, LoserTree mergeTree)
 			 throws IOException, InterruptedException {
-		int numActive = 0;
 		for (int i = 0; i < inPorts.length; i++) {
-			if (inPorts[i].readRecord(inputRecords[i]) == null) {
-				isEOF[i] = true;
-			} else {
-				numActive++;
-			}
+			mergeTree.set(i, inPorts[i].readRecord(inputRecords[i]));
 		}
-		return numActive;
+		mergeTree.build();
 	}
 
 	@Override
@@ -183,37 +130,26 @@ public class Merge extends Node {
 		InputPort inPorts[];
 		OutputPort outPort = getOutputPort(WRITE_TO_PORT);
 
-		int numActive;// counter of still active ports - those without EOF status
 		int index;
 
 		//get array of all input ports defined/connected - use collection Collection - getInPorts();
 		inPorts = (InputPort[]) getInPorts().toArray(new InputPort[0]);
 		//create array holding incoming records
 		inputRecords = new DataRecord[inPorts.length];
-		boolean[] isEOF = new boolean[inPorts.length];
-		for (int i = 0; i < isEOF.length; i++) {
-			isEOF[i] = false;
-		}
 		// initialize array of data records (for each input port one)
 		for (int i = 0; i < inPorts.length; i++) {
 			inputRecords[i] = DataRecordFactory.newRecord(inPorts[i].getMetadata());
 		}
+		// the lowest record is selected by a tournament tree - log2(n) comparisons per record
+		LoserTree mergeTree = new LoserTree(inPorts.length, comparisonKey);
 
 		// initially load in records from all connected inputs
-		numActive = populateRecords(inputRecords, inPorts, isEOF);
+		populateRecords(inputRecords, inPorts, mergeTree);
 		// main merging loop - till there is some open port, try to
 		// read and merge data from it
-		while (runIt && numActive > 0) {
-			index = getLowestRecIndex(inputRecords, isEOF);
-			if (index != -1) {
-				outPort.writeRecord(inputRecords[index]);
-				inputRecords[index] = inPorts[index]
-						.readRecord(inputRecords[index]);
-				if (inputRecords[index] == null) {
-					numActive--;
-					isEOF[index] = true;
-				}
-			}
+		while (runIt && (index = mergeTree.getWinner()) != -1) {
+			outPort.writeRecord(inputRecords[index]);
+			mergeTree.replaceWinner(inPorts[index].readRecord(inputRecords[index]));
 		}
 		setEOF(WRITE_TO_PORT);
         return runIt ? Result.FINISHED_OK : Result.ABORTED;
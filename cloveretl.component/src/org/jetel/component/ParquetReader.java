@@ -0,0 +1,330 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.parquet.ParquetDataParser;
+import org.jetel.data.parser.CloverDataRangeFilter;
+import org.jetel.exception.AttributeNotFoundException;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.exception.ConfigurationStatus;
+import org.jetel.exception.ParserExceptionHandlerFactory;
+import org.jetel.exception.PolicyType;
+import org.jetel.exception.XMLConfigurationException;
+import org.jetel.graph.Node;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.ExceptionUtils;
+import org.jetel.util.MultiFileReader;
+import org.jetel.util.SynchronizeUtils;
+import org.jetel.util.property.ComponentXMLAttributes;
+import org.jetel.util.property.RefResFlag;
+import org.jetel.util.string.StringUtils;
+import org.w3c.dom.Element;
+
+/**
+ *  <h3>Parquet Reader Component</h3>
+ *
+ * <!-- Reads records from Parquet files and broadcasts the records to all connected out ports -->
+ *
+ * <table border="1">
+ *  <th>Component:</th>
+ * <tr><td><h4><i>Name:</i></h4></td>
+ * <td>ParquetReader</td></tr>
+ * <tr><td><h4><i>Category:</i></h4></td>
+ * <td></td></tr>
+ * <tr><td><h4><i>Description:</i></h4></td>
+ * <td>Reads records from local Parquet files and broadcasts the records to all connected out ports.</td></tr>
+ * <tr><td><h4><i>Inputs:</i></h4></td>
+ * <td></td></tr>
+ * <tr><td><h4><i>Outputs:</i></h4></td>
+ * <td>At least one output port defined/connected.</td></tr>
+ * <tr><td><h4><i>Comment:</i></h4></td>
+ * <td>Only the columns matching the fields of the output metadata by name (or label) are read,
+ * the columns must be top-level primitive columns. Row groups which cannot contain records matching
+ * the range filter according to the min/max statistics of the columns are skipped.</td></tr>
+ * </table>
+ *  <br>
+ *  <table border="1">
+ *  <th>XML attributes:</th>
+ *  <tr><td><b>type</b></td><td>"PARQUET_READER"</td></tr>
+ *  <tr><td><b>id</b></td><td>component identification</td>
+ *  <tr><td><b>fileURL</b></td><td>path to the input files</td>
+ *  <tr><td><b>dataPolicy</b><br><i>optional</i></td><td>specifies how to handle misformatted or incorrect data.  'Strict' (default value) aborts processing, 'Controlled' logs the entire record while processing continues, and 'Lenient' attempts to set incorrect data to default values while processing continues.</td>
+ *  <tr><td><b>skipRows</b><br><i>optional</i></td><td>specifies how many records should be skipped. Dafault is 0.</td>
+ *  <tr><td><b>numRecords</b><br><i>optional</i></td><td>max number of parsed records</td>
+ *  <tr><td><b>skipSourceRows</b><br><i>optional</i></td><td>number of records skipped in each file</td>
+ *  <tr><td><b>numSourceRecords</b><br><i>optional</i></td><td>max number of records parsed from each file</td>
+ *  <tr><td><b>rangeFilter</b><br><i>optional</i></td><td>conditions delimited by semicolon which must be met by the read records,
+ *  e.g. <code>$date>=2024-01-01;$date<2024-02-01</code>; row groups which cannot contain matching records according
+ *  to the column statistics are skipped</td>
+ *  </tr>
+ *  </table>
+ *
+ *  <h4>Example:</h4>
+ *  <pre>&lt;Node type="PARQUET_READER" id="InputFile" fileURL="/tmp/orders.parquet" rangeFilter="$amount&gt;1000" /&gt;</pre>
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ * @see org.jetel.data.parquet.ParquetDataParser
+ */
+public class ParquetReader extends Node {
+
+	private static final String XML_DATAPOLICY_ATTRIBUTE = "dataPolicy";
+	public static final String XML_FILEURL_ATTRIBUTE = "fileURL";
+	private static final String XML_RECORD_SKIP_ATTRIBUTE = "skipRows";
+	private static final String XML_NUMRECORDS_ATTRIBUTE = "numRecords";
+	private static final String XML_SKIP_SOURCE_ROWS_ATTRIBUTE = "skipSourceRows";
+	private static final String XML_NUM_SOURCE_RECORDS_ATTRIBUTE = "numSourceRecords";
+	private static final String XML_RANGE_FILTER_ATTRIBUTE = "rangeFilter";
+
+	public final static String COMPONENT_TYPE = "PARQUET_READER";
+
+	private static Log logger = LogFactory.getLog(ParquetReader.class);
+
+	private final static int INPUT_PORT = 0;
+	private final static int OUTPUT_PORT = 0;
+	private MultiFileReader reader;
+	private String policyTypeStr;
+	private PolicyType policyType = PolicyType.STRICT;
+	private String fileURL;
+	private int skipRows = -1; // do not skip rows by default
+	private int numRecords = -1;
+	private int skipSourceRows = -1;
+	private int numSourceRecords = -1;
+	private String rangeFilter;
+
+	private ParquetDataParser parser;
+
+	/**
+	 * @param id
+	 * @param fileURL
+	 */
+	public ParquetReader(String id, String fileURL) {
+		super(id);
+		this.fileURL = fileURL;
+	}
+
+	@Override
+	public void preExecute() throws ComponentNotReadyException {
+		super.preExecute();
+		reader.preExecute();
+	}
+
+	@Override
+	public Result execute() throws Exception {
+		DataRecord record = DataRecordFactory.newRecord(getOutputPort(OUTPUT_PORT).getMetadata());
+
+		try {
+			while (record != null && runIt) {
+				try {
+					if ((record = reader.getNext(record)) != null) {
+						writeRecordBroadcast(record);
+					}
+				} catch (RuntimeException bdfe) {
+					if (policyType == PolicyType.STRICT) {
+						throw bdfe;
+					} else {
+						logger.info(ExceptionUtils.getMessage(bdfe));
+					}
+				}
+				SynchronizeUtils.cloverYield();
+			}
+		} finally {
+			broadcastEOF();
+		}
+		return runIt ? Result.FINISHED_OK : Result.ABORTED;
+	}
+
+	@Override
+	public void postExecute() throws ComponentNotReadyException {
+		super.postExecute();
+		reader.postExecute();
+	}
+
+	@Override
+	public synchronized void free() {
+		super.free();
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				logger.error(e);
+			}
+		}
+	}
+
+	@Override
+	public void init() throws ComponentNotReadyException {
+		if (isInitialized()) return;
+		super.init();
+
+		policyType = PolicyType.valueOfIgnoreCase(policyTypeStr);
+
+		prepareMultiFileReader();
+	}
+
+	/**
+	 * @return a new filter for the parser or null if not set
+	 */
+	private CloverDataRangeFilter createRangeFilter(DataRecordMetadata metadata) throws ComponentNotReadyException {
+		if (StringUtils.isEmpty(rangeFilter)) {
+			return null;
+		}
+		try {
+			return new CloverDataRangeFilter(rangeFilter, metadata);
+		} catch (ComponentNotReadyException e) {
+			e.setAttributeName(XML_RANGE_FILTER_ATTRIBUTE);
+			throw e;
+		}
+	}
+
+	private void prepareMultiFileReader() throws ComponentNotReadyException {
+		DataRecordMetadata metadata = getOutputPort(OUTPUT_PORT).getMetadata();
+		parser = new ParquetDataParser(metadata);
+		parser.setExceptionHandler(ParserExceptionHandlerFactory.getHandler(policyType));
+		parser.setRangeFilter(createRangeFilter(metadata));
+
+		TransformationGraph graph = getGraph();
+
+		// initialize multifile reader based on prepared parser
+		reader = new MultiFileReader(parser, getContextURL(), fileURL);
+		reader.setLogger(logger);
+		reader.setSkip(skipRows);
+		reader.setNumSourceRecords(numSourceRecords);
+		reader.setSkipSourceRows(skipSourceRows);
+		reader.setNumRecords(numRecords);
+		reader.setInputPort(getInputPort(INPUT_PORT)); //for port protocol: ReadableChannelIterator reads data
+		reader.setPropertyRefResolver(getPropertyRefResolver());
+		reader.setDictionary(graph.getDictionary());
+		reader.init(metadata);
+	}
+
+	@Override
+	public String[] getUsedUrls() {
+		return new String[] { fileURL };
+	}
+
+	public static Node fromXML(TransformationGraph graph, Element xmlElement) throws XMLConfigurationException, AttributeNotFoundException {
+		ComponentXMLAttributes xattribs = new ComponentXMLAttributes(xmlElement, graph);
+		ParquetReader parquetReader = new ParquetReader(xattribs.getString(XML_ID_ATTRIBUTE),
+				xattribs.getStringEx(XML_FILEURL_ATTRIBUTE, null, RefResFlag.URL));
+		if (xattribs.exists(XML_DATAPOLICY_ATTRIBUTE)) {
+			parquetReader.setPolicyType(xattribs.getString(XML_DATAPOLICY_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_RECORD_SKIP_ATTRIBUTE)) {
+			parquetReader.setSkipRows(xattribs.getInteger(XML_RECORD_SKIP_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_NUMRECORDS_ATTRIBUTE)) {
+			parquetReader.setNumRecords(xattribs.getInteger(XML_NUMRECORDS_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_SKIP_SOURCE_ROWS_ATTRIBUTE)) {
+			parquetReader.setSkipSourceRows(xattribs.getInteger(XML_SKIP_SOURCE_ROWS_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_NUM_SOURCE_RECORDS_ATTRIBUTE)) {
+			parquetReader.setNumSourceRecords(xattribs.getInteger(XML_NUM_SOURCE_RECORDS_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_RANGE_FILTER_ATTRIBUTE)) {
+			parquetReader.setRangeFilter(xattribs.getString(XML_RANGE_FILTER_ATTRIBUTE));
+		}
+		return parquetReader;
+	}
+
+	@Override
+	public ConfigurationStatus checkConfig(ConfigurationStatus status) {
+		super.checkConfig(status);
+
+		if (!checkInputPorts(status, 0, 1)
+				|| !checkOutputPorts(status, 1, Integer.MAX_VALUE)) {
+			return status;
+		}
+
+		if (!PolicyType.isPolicyType(policyTypeStr)) {
+			status.addError(this, XML_DATAPOLICY_ATTRIBUTE, MessageFormat.format("Invalid data policy: {0}", policyTypeStr));
+		} else {
+			policyType = PolicyType.valueOfIgnoreCase(policyTypeStr);
+		}
+
+		checkMetadata(status, null, getOutPorts());
+
+		if (fileURL == null) {
+			status.addError(this, XML_FILEURL_ATTRIBUTE, "File URL not defined.");
+			return status;
+		}
+
+		try {
+			prepareMultiFileReader();
+			DataRecordMetadata metadata = getOutputPort(OUTPUT_PORT).getMetadata();
+			if (!metadata.hasFieldWithoutAutofilling()) {
+				status.addError(this, null,
+						MessageFormat.format("No field elements without autofilling for ''{0}'' have been found!", metadata.getName()));
+			}
+			reader.checkConfig(metadata);
+		} catch (ComponentNotReadyException e) {
+			status.addWarning(this, null, e);
+		} finally {
+			free();
+		}
+
+		return status;
+	}
+
+	public void setSkipRows(int skipRows) {
+		this.skipRows = skipRows;
+	}
+
+	public void setNumRecords(int numRecords) {
+		this.numRecords = Math.max(numRecords, 0);
+	}
+
+	/**
+	 * @param how many rows to skip for every source
+	 */
+	public void setSkipSourceRows(int skipSourceRows) {
+		this.skipSourceRows = Math.max(skipSourceRows, 0);
+	}
+
+	/**
+	 * @param how many rows to process for every source
+	 */
+	public void setNumSourceRecords(int numSourceRecords) {
+		this.numSourceRecords = Math.max(numSourceRecords, 0);
+	}
+
+	public void setPolicyType(String policyTypeStr) {
+		this.policyTypeStr = policyTypeStr;
+	}
+
+	/**
+	 * @param rangeFilter conditions which must be met by the read records, see {@link CloverDataRangeFilter}
+	 */
+	public void setRangeFilter(String rangeFilter) {
+		this.rangeFilter = rangeFilter;
+	}
+
+}
@@ -0,0 +1,328 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.formatter.provider.ParquetDataFormatterProvider;
+import org.jetel.data.parquet.ParquetDataFormatter;
+import org.jetel.exception.AttributeNotFoundException;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.exception.ConfigurationStatus;
+import org.jetel.exception.XMLConfigurationException;
+import org.jetel.graph.InputPort;
+import org.jetel.graph.Node;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.util.MultiFileWriter;
+import org.jetel.util.SynchronizeUtils;
+import org.jetel.util.file.FileUtils;
+import org.jetel.util.property.ComponentXMLAttributes;
+import org.jetel.util.property.RefResFlag;
+import org.w3c.dom.Element;
+
+/**
+ *  <h3>Parquet Writer Component</h3>
+ *
+ * <!-- Writes records to Parquet files -->
+ *
+ * <table border="1">
+ *  <th>Component:</th>
+ * <tr><td><h4><i>Name:</i></h4></td>
+ * <td>ParquetWriter</td></tr>
+ * <tr><td><h4><i>Category:</i></h4></td>
+ * <td></td></tr>
+ * <tr><td><h4><i>Description:</i></h4></td>
+ * <td>Writes records from the input port to Parquet files. Each field is written into a top-level column,
+ * the records are buffered in memory up to the row group size.</td></tr>
+ * <tr><td><h4><i>Inputs:</i></h4></td>
+ * <td>[0] - input records</td></tr>
+ * <tr><td><h4><i>Outputs:</i></h4></td>
+ * <td></td></tr>
+ * <tr><td><h4><i>Comment:</i></h4></td>
+ * <td>Lists and maps are not supported.</td></tr>
+ * </table>
+ *  <br>
+ *  <table border="1">
+ *  <th>XML attributes:</th>
+ *  <tr><td><b>type</b></td><td>"PARQUET_WRITER"</td></tr>
+ *  <tr><td><b>id</b></td><td>component identification</td>
+ *  <tr><td><b>fileURL</b></td><td>path to the output files</td>
+ *  <tr><td><b>compression</b><br><i>optional</i></td><td>compression of the pages - <code>none</code> (default) or <code>gzip</code></td>
+ *  <tr><td><b>rowGroupSize</b><br><i>optional</i></td><td>size of buffered data of a row group in bytes, default is 128 MB</td>
+ *  <tr><td><b>makeDirs</b><br><i>optional</i></td><td>if true, the output directories are created</td>
+ *  <tr><td><b>recordsPerFile</b><br><i>optional</i></td><td>max number of records in one file</td>
+ *  <tr><td><b>recordSkip</b><br><i>optional</i></td><td>number of skipped records</td>
+ *  <tr><td><b>recordCount</b><br><i>optional</i></td><td>max number of written records</td>
+ *  </tr>
+ *  </table>
+ *
+ *  <h4>Example:</h4>
+ *  <pre>&lt;Node type="PARQUET_WRITER" id="OutputFile" fileURL="/tmp/orders.parquet" compression="gzip" /&gt;</pre>
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ * @see org.jetel.data.parquet.ParquetDataFormatter
+ */
+public class ParquetWriter extends Node {
+
+	public final static String COMPONENT_TYPE = "PARQUET_WRITER";
+
+	private final static int READ_FROM_PORT = 0;
+	private final static int OUTPUT_PORT = 0;
+
+	private static final String XML_FILEURL_ATTRIBUTE = "fileURL";
+	private static final String XML_COMPRESSION_ATTRIBUTE = "compression";
+	private static final String XML_ROW_GROUP_SIZE_ATTRIBUTE = "rowGroupSize";
+	private static final String XML_MK_DIRS_ATTRIBUTE = "makeDirs";
+	private static final String XML_RECORDS_PER_FILE = "recordsPerFile";
+	private static final String XML_RECORD_SKIP_ATTRIBUTE = "recordSkip";
+	private static final String XML_RECORD_COUNT_ATTRIBUTE = "recordCount";
+	private static final String XML_CREATE_EMPTY_FILES_ATTRIBUTE = "createEmptyFiles";
+
+	private static Log logger = LogFactory.getLog(ParquetWriter.class);
+
+	private String fileURL;
+	private String compression;
+	private long rowGroupSize = ParquetDataFormatter.DEFAULT_ROW_GROUP_SIZE;
+	private boolean mkDir;
+	private int recordsPerFile;
+	private int skip;
+	private int numRecords;
+	private boolean createEmptyFiles = true;
+
+	private ParquetDataFormatterProvider formatterProvider;
+	private MultiFileWriter writer;
+
+	/**
+	 * @param id
+	 * @param fileURL
+	 */
+	public ParquetWriter(String id, String fileURL) {
+		super(id);
+		this.fileURL = fileURL;
+		formatterProvider = new ParquetDataFormatterProvider();
+	}
+
+	@Override
+	public void preExecute() throws ComponentNotReadyException {
+		super.preExecute();
+
+		if (firstRun()) {
+			writer.init(getInputPort(READ_FROM_PORT).getMetadata());
+		} else {
+			writer.reset();
+		}
+	}
+
+	@Override
+	public Result execute() throws Exception {
+		InputPort inPort = getInputPort(READ_FROM_PORT);
+		DataRecord record = DataRecordFactory.newRecord(inPort.getMetadata());
+		while (record != null && runIt) {
+			record = inPort.readRecord(record);
+			if (record != null) {
+				writer.write(record);
+			}
+			SynchronizeUtils.cloverYield();
+		}
+		writer.finish();
+		return runIt ? Result.FINISHED_OK : Result.ABORTED;
+	}
+
+	@Override
+	public void postExecute() throws ComponentNotReadyException {
+		super.postExecute();
+		try {
+			writer.close();
+		} catch (IOException e) {
+			throw new ComponentNotReadyException(e);
+		}
+	}
+
+	@Override
+	public synchronized void free() {
+		super.free();
+		if (writer != null) {
+			try {
+				writer.close();
+			} catch (Throwable t) {
+				logger.warn("Resource releasing failed.", t);
+			}
+		}
+	}
+
+	@Override
+	public ConfigurationStatus checkConfig(ConfigurationStatus status) {
+		super.checkConfig(status);
+
+		if (!checkInputPorts(status, 1, 1)
+				|| !checkOutputPorts(status, 0, 1)) {
+			return status;
+		}
+
+		if (fileURL == null) {
+			status.addError(this, XML_FILEURL_ATTRIBUTE, "File URL not defined.");
+			return status;
+		}
+
+		try {
+			FileUtils.canWrite(getContextURL(), fileURL, mkDir);
+		} catch (ComponentNotReadyException e) {
+			status.addError(this, XML_FILEURL_ATTRIBUTE, e);
+		}
+
+		if (compression != null) {
+			try {
+				getCompression();
+			} catch (IllegalArgumentException e) {
+				status.addError(this, XML_COMPRESSION_ATTRIBUTE, MessageFormat.format("Unsupported compression: {0}", compression));
+			}
+		}
+
+		if (rowGroupSize <= 0) {
+			status.addError(this, XML_ROW_GROUP_SIZE_ATTRIBUTE, "Row group size must be positive.");
+		}
+
+		try {
+			// checks that all the fields can be written
+			new ParquetDataFormatter().init(getInputPort(READ_FROM_PORT).getMetadata());
+		} catch (ComponentNotReadyException e) {
+			status.addError(this, null, e);
+		}
+
+		return status;
+	}
+
+	private ParquetDataFormatter.Compression getCompression() {
+		return (compression != null) ? ParquetDataFormatter.Compression.valueOf(compression.toUpperCase()) : ParquetDataFormatter.Compression.NONE;
+	}
+
+	@Override
+	public void init() throws ComponentNotReadyException {
+		if (isInitialized()) return;
+		super.init();
+		TransformationGraph graph = getGraph();
+
+		try {
+			formatterProvider.setCompression(getCompression());
+		} catch (IllegalArgumentException e) {
+			throw new ComponentNotReadyException(this, XML_COMPRESSION_ATTRIBUTE, "Unsupported compression: " + compression);
+		}
+		formatterProvider.setRowGroupSize(rowGroupSize);
+
+		writer = new MultiFileWriter(formatterProvider, getContextURL(), fileURL);
+		writer.setLogger(logger);
+		writer.setRecordsPerFile(recordsPerFile);
+		writer.setAppendData(false);
+		writer.setSkip(skip);
+		writer.setNumRecords(numRecords);
+		writer.setDictionary(graph != null ? graph.getDictionary() : null);
+		writer.setOutputPort(getOutputPort(OUTPUT_PORT)); //for port protocol: target file writes data
+		writer.setMkDir(mkDir);
+		writer.setCreateEmptyFiles(createEmptyFiles);
+	}
+
+	@Override
+	public String[] getUsedUrls() {
+		return new String[] { fileURL };
+	}
+
+	public static Node fromXML(TransformationGraph graph, Element nodeXML) throws XMLConfigurationException, AttributeNotFoundException {
+		ComponentXMLAttributes xattribs = new ComponentXMLAttributes(nodeXML, graph);
+		ParquetWriter aDataWriter = new ParquetWriter(xattribs.getString(Node.XML_ID_ATTRIBUTE),
+				xattribs.getStringEx(XML_FILEURL_ATTRIBUTE, null, RefResFlag.URL));
+		if (xattribs.exists(XML_COMPRESSION_ATTRIBUTE)) {
+			aDataWriter.setCompression(xattribs.getString(XML_COMPRESSION_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_ROW_GROUP_SIZE_ATTRIBUTE)) {
+			aDataWriter.setRowGroupSize(xattribs.getLong(XML_ROW_GROUP_SIZE_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_RECORD_SKIP_ATTRIBUTE)) {
+			aDataWriter.setSkip(xattribs.getInteger(XML_RECORD_SKIP_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_RECORD_COUNT_ATTRIBUTE)) {
+			aDataWriter.setNumRecords(xattribs.getInteger(XML_RECORD_COUNT_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_RECORDS_PER_FILE)) {
+			aDataWriter.setRecordsPerFile(xattribs.getInteger(XML_RECORDS_PER_FILE));
+		}
+		if (xattribs.exists(XML_MK_DIRS_ATTRIBUTE)) {
+			aDataWriter.setMkDirs(xattribs.getBoolean(XML_MK_DIRS_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_CREATE_EMPTY_FILES_ATTRIBUTE)) {
+			aDataWriter.setCreateEmptyFiles(xattribs.getBoolean(XML_CREATE_EMPTY_FILES_ATTRIBUTE));
+		}
+		return aDataWriter;
+	}
+
+	/**
+	 * @param compression name of the compression codec - none or gzip
+	 */
+	public void setCompression(String compression) {
+		this.compression = compression;
+	}
+
+	/**
+	 * @param rowGroupSize size of buffered data of a row group in bytes
+	 */
+	public void setRowGroupSize(long rowGroupSize) {
+		this.rowGroupSize = rowGroupSize;
+	}
+
+	/**
+	 * Sets number of skipped records in next call of getNext() method.
+	 * @param skip
+	 */
+	public void setSkip(int skip) {
+		this.skip = skip;
+	}
+
+	/**
+	 * Sets number of written records.
+	 * @param numRecords
+	 */
+	public void setNumRecords(int numRecords) {
+		this.numRecords = numRecords;
+	}
+
+	public void setRecordsPerFile(int recordsPerFile) {
+		this.recordsPerFile = recordsPerFile;
+	}
+
+	/**
+	 * Sets make directory.
+	 * @param mkDir - true - creates output directories for output file
+	 */
+	public void setMkDirs(boolean mkDir) {
+		this.mkDir = mkDir;
+	}
+
+	public void setCreateEmptyFiles(boolean createEmptyFiles) {
+		this.createEmptyFiles = createEmptyFiles;
+	}
+
+}
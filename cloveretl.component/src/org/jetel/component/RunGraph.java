@@ -30,8 +30,14 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,15 +50,21 @@ import org.jetel.data.Defaults;
 import org.jetel.exception.AttributeNotFoundException;
 import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.exception.ConfigurationStatus;
+import org.jetel.exception.GraphConfigurationException;
 import org.jetel.exception.JetelException;
 import org.jetel.exception.JetelRuntimeException;
 import org.jetel.exception.XMLConfigurationException;
+import org.jetel.graph.IGraphElement;
 import org.jetel.graph.InputPort;
 import org.jetel.graph.Node;
 import org.jetel.graph.OutputPort;
 import org.jetel.graph.Result;
 import org.jetel.graph.TransformationGraph;
+import org.jetel.graph.TransformationGraphXMLReaderWriter;
+import org.jetel.graph.dictionary.DictionaryValuesContainer;
+import org.jetel.graph.runtime.EngineInitializer;
 import org.jetel.graph.runtime.GraphRuntimeContext;
+import org.jetel.graph.runtime.PrimitiveAuthorityProxy;
 import org.jetel.graph.runtime.IAuthorityProxy.RunStatus;
 import org.jetel.graph.runtime.tracker.ComponentTokenTracker;
 import org.jetel.graph.runtime.tracker.ReformatComponentTokenTracker;
@@ -62,6 +74,7 @@ import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.plugin.PluginLocation;
 import org.jetel.plugin.Plugins;
 import org.jetel.util.CompareUtils;
+import org.jetel.util.ExceptionUtils;
 import org.jetel.util.exec.DataConsumer;
 import org.jetel.util.exec.PlatformUtils;
 import org.jetel.util.exec.ProcBox;
@@ -96,6 +109,10 @@ import org.w3c.dom.Element;
 * <li>sameInstance - if it's true, graph will be executed in the same instance of JVM; otherwise it will be executed as external process
 * <li>ignoreGraphFail - if more graphs is executed and any of them fails, then execution next graphs depends on this attribute. 
 * Default value = false (when any graph fails no other is executed). Note: used only if in/out mode is used.  
+* <li>graphInstanceCache - maximum number of prepared graph instances kept for repeated execution in the same instance of JVM;
+* default value = 0 (each execution loads, checks and initializes the graph again). Cached graphs are executed directly
+* by this engine, log output goes to the log of the parent graph. The cache is available only with the standalone
+* engine ({@link PrimitiveAuthorityProxy}), other authorities always execute the graph by themselves.
 * </ul>
 * Attributes for execution in separated instance of JVM (sameInstance==false) 
 * <ul>
@@ -157,6 +174,8 @@ public class RunGraph extends Node{
 
 	private static final String XML_MK_DIRS_ATTRIBUTE = "makeDirs";
 
+	private static final String XML_GRAPH_INSTANCE_CACHE_ATTRIBUTE = "graphInstanceCache";
+
 	private final static String DEFAULT_JAVA_CMD_LINE = "java -cp";
 	private final static String DEFAULT_CLOVER_CMD_LINE = "";
 	private final static String DEFAULT_GRAPH_EXEC_CLASS = "org.jetel.main.runGraph";
@@ -208,6 +227,17 @@ public class RunGraph extends Node{
 	 */
 	private boolean recursionDetection = false;
 	
+	/**
+	 * Maximum number of prepared graph instances kept for repeated execution in the same instance, 0 disables the cache.
+	 */
+	private int graphInstanceCacheSize = 0;
+	
+	/**
+	 * Initialized graphs ready for next execution, keyed by {@link #getGraphInstanceKey(String, GraphRuntimeContext)}
+	 * in the order of their last use. Null if the cache is disabled.
+	 */
+	Map<String, TransformationGraph> graphInstanceCache;
+	
 	private void setCloverCmdLineArgs(String cloverCmdLineArgs) {
 		this.cloverCmdLineArgs = cloverCmdLineArgs;
 	}
@@ -519,7 +549,12 @@ public class RunGraph extends Node{
 		runtimeContext.setCompileClassPath(this.getGraph().getRuntimeContext().getCompileClassPath());
 		runtimeContext.setJobUrl(graphFileName);
 		runtimeContext.setForceParentJvm(true);
-		RunStatus rs = this.getGraph().getAuthorityProxy().executeGraphSync( graphFileName, runtimeContext, null);
+		RunStatus rs;
+		if (graphInstanceCache != null) {
+			rs = executeGraphInstance(graphFileName, runtimeContext);
+		} else {
+			rs = this.getGraph().getAuthorityProxy().executeGraphSync( graphFileName, runtimeContext, null);
+		}
 		
 		outputRecordData.setDescription(rs.errException);
 		outputRecordData.setDuration(rs.duration);
@@ -541,6 +576,108 @@ public class RunGraph extends Node{
 		return rs.status;
 	}
 
+	/**
+	 * Executes a prepared instance of the given graph. The graph is loaded from XML, checked
+	 * and initialized only for the first execution with the given parameters, the following
+	 * executions just go through pre-execute and post-execute phase of the initialized graph.
+	 * Graph parameters are resolved when the graph is loaded, so they are part of the cache key.
+	 * An instance which does not finish successfully is released.
+	 */
+	RunStatus executeGraphInstance(String graphFileName, GraphRuntimeContext givenRuntimeContext) throws InterruptedException {
+		RunStatus rs = new RunStatus();
+		rs.startTime = new Date();
+		rs.jobUrl = graphFileName;
+
+		GraphRuntimeContext runtimeContext = givenRuntimeContext.createCopy();
+		runtimeContext.setRunId(rs.runId = PrimitiveAuthorityProxy.getUniqueRunId());
+		runtimeContext.setParentRunId(getGraph().getRuntimeContext().getRunId());
+		// parallel edge debugging is not available for non-server graph processing
+		runtimeContext.setEdgeDebugging(false);
+
+		String key = getGraphInstanceKey(graphFileName, runtimeContext);
+		// the instance is removed from the cache while it is running
+		TransformationGraph graph = graphInstanceCache.remove(key);
+		Future<Result> futureResult = null;
+		try {
+			if (graph == null) {
+				try (InputStream in = FileUtils.getInputStream(runtimeContext.getContextURL(), graphFileName)) {
+					graph = TransformationGraphXMLReaderWriter.loadGraph(in, runtimeContext);
+				}
+				EngineInitializer.initGraph(graph, runtimeContext);
+			} else if (logger.isDebugEnabled()) {
+				logger.debug("Reusing prepared instance of graph " + graphFileName);
+			}
+			futureResult = runGraph.executeGraph(graph, runtimeContext);
+			rs.status = futureResult.get();
+			IGraphElement causeGraphElement = graph.getWatchDog().getCauseGraphElement();
+			rs.dictionaryOut = DictionaryValuesContainer.getInstance(graph.getDictionary());
+			rs.tracking = graph.getWatchDog().getGraphTracking();
+			rs.errMessage = graph.getWatchDog().getErrorMessage();
+			rs.errException = ExceptionUtils.stackTraceToString(graph.getWatchDog().getCauseException());
+			rs.errComponent = causeGraphElement != null ? causeGraphElement.getId() : null;
+			rs.errComponentType = (causeGraphElement instanceof Node) ? ((Node) causeGraphElement).getType() : null;
+		} catch (IOException | XMLConfigurationException | GraphConfigurationException | ComponentNotReadyException | RuntimeException e) {
+			rs.errMessage = ExceptionUtils.getMessage("Error during graph initialization.", e);
+			rs.errException = ExceptionUtils.stackTraceToString(e);
+			rs.status = Result.ERROR;
+		} catch (ExecutionException e) {
+			rs.errMessage = ExceptionUtils.getMessage("Error during graph processing !", e);
+			rs.errException = ExceptionUtils.stackTraceToString(e);
+			rs.status = Result.ERROR;
+		} catch (InterruptedException e) {
+			// the graph can be released only after all its threads are finished
+			graph.getWatchDog().abort();
+			awaitGraphFinished(futureResult);
+			rs.status = Result.ABORTED;
+			throw e;
+		} finally {
+			rs.endTime = new Date();
+			rs.duration = rs.endTime.getTime() - rs.startTime.getTime();
+			if (graph != null) {
+				if (rs.status == Result.FINISHED_OK) {
+					graphInstanceCache.put(key, graph);
+				} else {
+					graph.free();
+				}
+			}
+		}
+		return rs;
+	}
+
+	/**
+	 * Waits for the aborted graph regardless of interruption of the current thread,
+	 * the interrupted status is restored.
+	 */
+	private static void awaitGraphFinished(Future<Result> futureResult) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				futureResult.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (ExecutionException e) {
+				break;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String getGraphInstanceKey(String graphFileName, GraphRuntimeContext runtimeContext) {
+		return graphFileName + "|" + new TreeMap<Object, Object>(runtimeContext.getAdditionalProperties());
+	}
+
+	private void freeGraphInstances() {
+		if (graphInstanceCache != null) {
+			for (TransformationGraph graph : graphInstanceCache.values()) {
+				graph.free();
+			}
+			graphInstanceCache.clear();
+		}
+	}
+
 	private void logError(String message, Throwable e) {
 		if (!ignoreGraphFail) {
 			throw new JetelRuntimeException(message, e);
@@ -572,6 +709,8 @@ public class RunGraph extends Node{
         if (!isInitialized()) return;
 		super.free();
 		
+		freeGraphInstances();
+		
 		if (outputFile != null) {
 			try {
 				outputFile.close();
@@ -629,6 +768,25 @@ public class RunGraph extends Node{
 		
 		pipelineMode = isPipelineMode();
 		
+		if (sameInstance && graphInstanceCacheSize > 0) {
+			if (getAuthorityProxy().getClass() != PrimitiveAuthorityProxy.class) {
+				logger.info("Graph instance cache is not supported by " + getAuthorityProxy().getClass().getName() + ", the graph is executed by the authority proxy");
+			} else {
+				graphInstanceCache = new LinkedHashMap<String, TransformationGraph>(16, 0.75f, true) {
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String, TransformationGraph> eldest) {
+						if (size() > graphInstanceCacheSize) {
+							eldest.getValue().free();
+							return true;
+						}
+						return false;
+					}
+				};
+			}
+		}
+		
 		inPort = getInputPort(INPUT_PORT);
 		outPort = getOutputPort(OUTPUT_PORT);
 		outPortErr = getOutputPort(ERR_OUTPUT_PORT);
@@ -804,6 +962,7 @@ public class RunGraph extends Node{
 		}
 
 		runG.setMkDir(xattribs.getBoolean(XML_MK_DIRS_ATTRIBUTE, false));
+		runG.setGraphInstanceCacheSize(xattribs.getInteger(XML_GRAPH_INSTANCE_CACHE_ATTRIBUTE, 0));
 
 		return runG;
 	}
@@ -829,6 +988,13 @@ public class RunGraph extends Node{
 		this.mkDir = mkDir;
 	}
 
+	/**
+	 * @param graphInstanceCacheSize maximum number of prepared graph instances kept for repeated execution, 0 disables the cache
+	 */
+	public void setGraphInstanceCacheSize(int graphInstanceCacheSize) {
+		this.graphInstanceCacheSize = graphInstanceCacheSize;
+	}
+
 	/**
 	 * Prepares file for log output of executed graph.
 	 * @throws ComponentNotReadyException
@@ -118,8 +118,9 @@ import org.w3c.dom.Element;
  *     <i>optional</i>
  *   </td>
  *   <td>
- *     Denotes how many tapes (temporary files) will be used for external data sorting. This
- *     value must be an even number greater than 2. <i>The default value is 8.</i>
+ *     Denotes how many tapes (temporary files) can be used at most for external data sorting.
+ *     <i>By default, the limit is given by ExternalSortDataRecord.MAX_NUMBER_OF_TAPES engine property
+ *     and by heap size.</i>
  *   </td>
  * </tr>
  * <tr>
@@ -171,7 +172,7 @@ public class SortWithinGroups extends Node {
     /** the default buffer capacity */
     private static final int DEFAULT_BUFFER_CAPACITY = -1;
     /** the default number of tapes */
-    private static final int DEFAULT_NUMBER_OF_TAPES = 8;
+    private static final int DEFAULT_NUMBER_OF_TAPES = ExternalSortDataRecord.AUTO_NUMBER_OF_TAPES;
     
     /**
      * Creates an instance of the <code>SortWithinGroups</code> component from an XML element.
@@ -328,7 +329,7 @@ public class SortWithinGroups extends Node {
             }
         }
 
-        if (numberOfTapes <= 0) {
+        if (numberOfTapes <= 0 && numberOfTapes != DEFAULT_NUMBER_OF_TAPES) {
             status.addError(this, XML_ATTRIBUTE_NUMBER_OF_TAPES, "The number of tapes is less than 1!");
         }
 
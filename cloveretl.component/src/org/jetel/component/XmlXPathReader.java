@@ -77,6 +77,9 @@ import org.w3c.dom.Element;
  *  <tr><td><b>dataPolicy</b></td><td>specifies how to handle misformatted or incorrect data.  'Strict' (default value) aborts processing, 'Controlled' logs the entire record while processing continues, and 'Lenient' attempts to set incorrect data to default values while processing continues.</td>
  *  <tr><td><b>skipRows</b><br><i>optional</i></td><td>specifies how many records/rows should be skipped from the source file. Good for handling files where first rows is a header not a real data. Dafault is 0.</td>
  *  <tr><td><b>numRecords</b></td><td>max number of parsed records</td>
+ *  <tr><td><b>streaming</b><br><i>optional</i></td><td>if true, only the subtree of the current root context node is kept in memory. 
+ *  Applies when the root context xpath is a simple absolute path and no nested xpath leaves the subtree of its context node,
+ *  otherwise the whole document is parsed. Default is false.</td>
  *  When not set, strings are trimmed depending on "trim" attribute of metadata.</td>
  *  </tr>
  *  </table>
@@ -164,6 +167,7 @@ public class XmlXPathReader extends Node {
     private static final String XML_NUMRECORDS_ATTRIBUTE = "numRecords";
     public static final String XML_CHARSET_ATTRIBUTE = "charset";
     private static final String XML_XML_FEATURES_ATTRIBUTE = "xmlFeatures";
+    private static final String XML_STREAMING_ATTRIBUTE = "streaming";
 	
 	private final static int OUTPUT_PORT = 0;
 	private final static int INPUT_PORT = 0;
@@ -180,6 +184,7 @@ public class XmlXPathReader extends Node {
 
 	private String charset;
 	private String xmlFeatures;
+	private boolean streaming;
 
 	/**
 	 * Constructor
@@ -293,6 +298,7 @@ public class XmlXPathReader extends Node {
         parser.setGraph(getGraph());
         parser.setXmlFeatures(xmlFeatures);
         parser.setCharset(charset); // CLO-6708
+        parser.setStreaming(streaming);
         reader.setInputPort(getInputPort(INPUT_PORT)); //for port protocol: ReadableChannelIterator reads data
         reader.setCharset(charset);
         reader.setPropertyRefResolver(getPropertyRefResolver());
@@ -358,6 +364,7 @@ public class XmlXPathReader extends Node {
         if (xattribs.exists(XML_XML_FEATURES_ATTRIBUTE)){
             aXmlXPathReader.setXmlFeatures(xattribs.getString(XML_XML_FEATURES_ATTRIBUTE));
         }
+        aXmlXPathReader.setStreaming(xattribs.getBoolean(XML_STREAMING_ATTRIBUTE, false));
 
 		return aXmlXPathReader;
 	}
@@ -438,5 +445,9 @@ public class XmlXPathReader extends Node {
     	this.xmlFeatures = xmlFeatures;
 	}
 
+    public void setStreaming(boolean streaming) {
+    	this.streaming = streaming;
+	}
+
 }
 
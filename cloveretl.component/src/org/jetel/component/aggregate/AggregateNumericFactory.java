@@ -19,7 +19,11 @@
 package org.jetel.component.aggregate;
 import org.jetel.data.DataField;
 import org.jetel.data.DataFieldFactory;
+import org.jetel.data.primitive.Decimal;
+import org.jetel.data.primitive.Decimal.OutOfPrecisionException;
+import org.jetel.data.primitive.DecimalFactory;
 import org.jetel.data.primitive.HugeDecimal;
+import org.jetel.data.primitive.Int128Decimal;
 import org.jetel.data.primitive.Numeric;
 import org.jetel.metadata.DataFieldMetadata;
 
@@ -27,6 +31,10 @@ import org.jetel.metadata.DataFieldMetadata;
  * Factory for creation of Numeric instances  based on specified data field type, which are suitable for computations of aggregate functions.
  * This class with Aggregate*Numeric classes where introduced to detect arithmetic overflows during computation of aggregation functions.
  * More precisely, only Avg and Sum functions where considered, and therefore only operation of addition was considered.
+ * 
+ * Decimal sums are {@link Int128Decimal}s with the greatest precision and the greater of the input and output scale,
+ * so the inputs are added exactly. A sum which runs out of the 38 digits continues as {@link HugeDecimal},
+ * see {@link #add(Numeric, Numeric)}.
  *
  * @author tkramolis (info@cloveretl.com)
  *         (c) Javlin, a.s. (www.cloveretl.com)
@@ -56,6 +64,71 @@ public class AggregateNumericFactory {
 	public final static Numeric createDataField(DataFieldMetadata fieldMetadata){
 		return createDataField(fieldMetadata.getType(),fieldMetadata);
 	}
+
+	/**
+	 * Creates the sum of the given input field for the given output field.
+	 * 
+	 * @param fieldMetadata metadata of the output field
+	 * @param inputFieldMetadata metadata of the summed field, can be null
+	 * @return sum without any value
+	 */
+	public final static Numeric createDataField(DataFieldMetadata fieldMetadata, DataFieldMetadata inputFieldMetadata) {
+		if (fieldMetadata.getType() != DataFieldMetadata.DECIMAL_FIELD || inputFieldMetadata == null) {
+			return createDataField(fieldMetadata);
+		}
+		int scale = fieldMetadata.getFieldProperties().getIntProperty(DataFieldMetadata.SCALE_ATTR);
+		switch (inputFieldMetadata.getType()) {
+			case DataFieldMetadata.INTEGER_FIELD:
+			case DataFieldMetadata.LONG_FIELD:
+				break;
+			case DataFieldMetadata.DECIMAL_FIELD:
+				scale = Math.max(scale, inputFieldMetadata.getFieldProperties().getIntProperty(DataFieldMetadata.SCALE_ATTR));
+				break;
+			default:
+				// sum of doubles is exact in BigDecimal only
+				return createDataField(fieldMetadata);
+		}
+		return DecimalFactory.getDecimal(Int128Decimal.MAX_PRECISION, scale);
+	}
+
+	/**
+	 * Sets the first value of the sum created by {@link #createDataField(DataFieldMetadata, DataFieldMetadata)}.
+	 * 
+	 * @return the sum, a new {@link HugeDecimal} if the value does not fit into the decimal sum
+	 */
+	public final static Numeric setValue(Numeric sum, Numeric value) {
+		try {
+			sum.setValue(value);
+			return sum;
+		} catch (OutOfPrecisionException e) {
+			if (!(sum instanceof Int128Decimal)) {
+				throw e;
+			}
+			return new HugeDecimal(value.getBigDecimal(), ((Decimal) sum).getPrecision(), ((Decimal) sum).getScale(), false);
+		}
+	}
+
+	/**
+	 * Adds the value to the sum created by {@link #createDataField(DataFieldMetadata, DataFieldMetadata)}.
+	 * Precision of the intermediate sum is not limited, the same as for the former HugeDecimal sum,
+	 * it is checked by the output field only.
+	 * 
+	 * @return the sum, a new {@link HugeDecimal} if the result does not fit into the decimal sum
+	 */
+	public final static Numeric add(Numeric sum, Numeric value) {
+		try {
+			sum.add(value);
+			return sum;
+		} catch (OutOfPrecisionException e) {
+			if (!(sum instanceof Int128Decimal)) {
+				throw e;
+			}
+			// the value of the decimal is not changed by the failed operation
+			HugeDecimal result = new HugeDecimal(sum.getBigDecimal(), ((Decimal) sum).getPrecision(), ((Decimal) sum).getScale(), false);
+			result.add(value);
+			return result;
+		}
+	}
 	
 }
 
@@ -106,10 +106,10 @@ public class Sum extends AggregateFunction {
 		if (sum == null) {
 			// Fix of CL-1509: Devise field type from output field metadata -> overflow could possibly be avoided
 			// Fix of CL-1508: Factory creates overflow checking Numerics
-			sum = (Numeric) AggregateNumericFactory.createDataField(outputFieldMetadata);
-			sum.setValue(input);
+			sum = AggregateNumericFactory.createDataField(outputFieldMetadata, inputFieldMetadata);
+			sum = AggregateNumericFactory.setValue(sum, input);
 		} else {
-			sum.add(input);
+			sum = AggregateNumericFactory.add(sum, input);
 		}
 	}
 
@@ -64,6 +64,9 @@ public class XPathContext {
 	// source xml document
 	private Source node;
 
+	// streamed context nodes of the root context, used instead of the source document
+	private Iterator<? extends NodeInfo> streamedNodes;
+
 	// next evaluation context 
 	private XPathContext nextXPathContext;
 	
@@ -163,6 +166,21 @@ public class XPathContext {
 		init = true;
 		lastNode = false;
 		this.node = node;
+		this.streamedNodes = null;
+	}
+
+	/**
+	 * Initialize method for streaming mode. The context nodes are not selected by xpath
+	 * of this context, they are taken from the given iterator.
+	 * 
+	 * @param streamedNodes context nodes of this (root) context
+	 * @throws TransformerException
+	 */
+	public void init(Iterator<? extends NodeInfo> streamedNodes) throws TransformerException {
+		init = true;
+		lastNode = false;
+		this.node = null;
+		this.streamedNodes = streamedNodes;
 	}
 	
 	/**
@@ -183,7 +201,11 @@ public class XPathContext {
 	private DataRecord getNext0() throws TransformerException {
 		if (lastNode) return null;
 		if (init) {
-			reset(node);
+			if (streamedNodes != null) {
+				reset(streamedNodes);
+			} else {
+				reset(node);
+			}
 			initTree(this);
 			nextXPathContext = null;
 			createOrderedPortList(orderedPortList);
@@ -430,9 +452,13 @@ public class XPathContext {
 	 * Resets context subtree for some node.
 	 */
 	private void reset(Source contextNode) throws TransformerException {
-		lastPortNode = false; //TODO: test is necessary
-		contextIterator = exp.evaluate(contextNode).iterator();
 		// TODO a test how many times the evaluate function is called
+		reset(exp.evaluate(contextNode).iterator());
+	}
+
+	private void reset(Iterator<?> iterator) throws TransformerException {
+		lastPortNode = false; //TODO: test is necessary
+		contextIterator = iterator;
 		
         //shall i skip some records?
         if(skipRows > 0) {
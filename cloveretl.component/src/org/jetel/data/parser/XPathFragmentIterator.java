@@ -0,0 +1,401 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parser;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.stream.StreamSource;
+
+import net.sf.saxon.om.NodeInfo;
+import net.sf.saxon.sxpath.XPathExpression;
+import net.sf.saxon.trans.XPathException;
+
+import org.jetel.exception.JetelRuntimeException;
+
+/**
+ * Streaming source of context nodes for the root {@link XPathContext}.<br>
+ * The input document is read by a StAX reader and only elements matching a simple absolute
+ * path (e.g. <code>/catalog/books/book</code>) are materialized - each such element is copied
+ * together with its subtree into a small standalone document, which is built into a Saxon tree
+ * and returned as the context node. The previous fragment is not referenced by the iterator,
+ * so memory consumption is given by the size of the largest fragment, not by the size of the document.
+ *
+ * In-scope namespaces of the matched element are redeclared on the fragment root, so relative
+ * xpaths of nested contexts and mappings evaluate the same way as against the whole document
+ * as long as they do not leave the subtree of the context node - see {@link #isForwardOnly(String)}.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class XPathFragmentIterator implements Iterator<NodeInfo> {
+
+	/** any of the steps is an element name test, a prefixed name test or a wildcard */
+	private static final Pattern SIMPLE_PATH = Pattern.compile("(/(\\*|([\\w.\\-]+:)?[\\w.\\-]+|[\\w.\\-]+:\\*))+");
+
+	private static final Pattern PATH_STEP = Pattern.compile("/(?:([\\w.\\-]+):)?([\\w.\\-]+|\\*)");
+
+	/** axes and functions which can leave the subtree of the context node */
+	private static final Pattern NOT_FORWARD = Pattern.compile(
+			"\\.\\.|parent\\s*::|ancestor|preceding|following|root\\s*\\(|id\\s*\\(|idref\\s*\\(");
+
+	/** keyword operators, a slash following them starts an absolute path */
+	private static final Pattern OPERATOR = Pattern.compile(
+			"and|or|div|idiv|mod|eq|ne|lt|le|gt|ge|is|to|union|intersect|except|return|in|satisfies|then|else");
+
+	private final XMLStreamReader reader;
+
+	private final Step[] steps;
+
+	/** expression selecting root element of a fragment */
+	private final XPathExpression fragmentRoot;
+
+	private final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+
+	/** namespace declarations of the elements on the current path, indexed by depth */
+	private final List<Map<String, String>> namespaces = new ArrayList<Map<String, String>>();
+
+	/** depth of the current element, 0 for the document node */
+	private int depth;
+
+	/** number of path steps matched by the current element and its ancestors */
+	private int matched;
+
+	private NodeInfo next;
+
+	private boolean finished;
+
+	/**
+	 * @param reader reader of the input document
+	 * @param steps path of the context elements, see {@link #parsePath(String, Map, String)}
+	 * @param fragmentRoot expression <code>/*</code> compiled by the evaluator used for the mapping
+	 */
+	public XPathFragmentIterator(XMLStreamReader reader, Step[] steps, XPathExpression fragmentRoot) {
+		this.reader = reader;
+		this.steps = steps;
+		this.fragmentRoot = fragmentRoot;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			try {
+				next = readNext();
+			} catch (XMLStreamException e) {
+				throw new JetelRuntimeException("XML parsing failed.", e);
+			} catch (XPathException e) {
+				throw new JetelRuntimeException("XML fragment parsing failed.", e);
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public NodeInfo next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		NodeInfo result = next;
+		next = null;
+		return result;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	private NodeInfo readNext() throws XMLStreamException, XPathException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				if (matched == depth - 1 && steps[matched].matches(reader.getNamespaceURI(), reader.getLocalName())) {
+					matched++;
+					if (matched == steps.length) {
+						String fragment = copyFragment();
+						depth--;
+						matched--;
+						return (NodeInfo) fragmentRoot.evaluate(new StreamSource(new StringReader(fragment))).get(0);
+					}
+				}
+				pushNamespaces();
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				if (matched == depth) {
+					matched--;
+				}
+				namespaces.remove(namespaces.size() - 1);
+				depth--;
+				break;
+			default:
+				break;
+			}
+		}
+		finished = true;
+		reader.close();
+		return null;
+	}
+
+	private void pushNamespaces() {
+		Map<String, String> declarations = null;
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			if (declarations == null) {
+				declarations = new LinkedHashMap<String, String>();
+			}
+			declarations.put(nullToEmpty(reader.getNamespacePrefix(i)), nullToEmpty(reader.getNamespaceURI(i)));
+		}
+		namespaces.add(declarations);
+	}
+
+	/**
+	 * Copies the current element with its subtree, the reader is left at the end of the element.
+	 */
+	private String copyFragment() throws XMLStreamException {
+		StringWriter buffer = new StringWriter();
+		XMLStreamWriter writer = outputFactory.createXMLStreamWriter(buffer);
+
+		// namespaces in scope of the fragment root
+		Map<String, String> inScope = new LinkedHashMap<String, String>();
+		for (Map<String, String> declarations : namespaces) {
+			if (declarations != null) {
+				inScope.putAll(declarations);
+			}
+		}
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			inScope.put(nullToEmpty(reader.getNamespacePrefix(i)), nullToEmpty(reader.getNamespaceURI(i)));
+		}
+		writeStartElement(writer);
+		for (Entry<String, String> entry : inScope.entrySet()) {
+			writeNamespace(writer, entry.getKey(), entry.getValue());
+		}
+		writeAttributes(writer);
+
+		int level = 1;
+		while (level > 0) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				level++;
+				writeStartElement(writer);
+				for (int i = 0; i < reader.getNamespaceCount(); i++) {
+					writeNamespace(writer, nullToEmpty(reader.getNamespacePrefix(i)), nullToEmpty(reader.getNamespaceURI(i)));
+				}
+				writeAttributes(writer);
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				level--;
+				writer.writeEndElement();
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.SPACE:
+				writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				break;
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				writer.writeCharacters(reader.getText());
+				break;
+			case XMLStreamConstants.CDATA:
+				writer.writeCData(reader.getText());
+				break;
+			case XMLStreamConstants.COMMENT:
+				writer.writeComment(reader.getText());
+				break;
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				writer.writeProcessingInstruction(reader.getPITarget(), nullToEmpty(reader.getPIData()));
+				break;
+			default:
+				break;
+			}
+		}
+		writer.close();
+		return buffer.toString();
+	}
+
+	private void writeStartElement(XMLStreamWriter writer) throws XMLStreamException {
+		writer.writeStartElement(nullToEmpty(reader.getPrefix()), reader.getLocalName(), nullToEmpty(reader.getNamespaceURI()));
+	}
+
+	private void writeAttributes(XMLStreamWriter writer) throws XMLStreamException {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String namespace = nullToEmpty(reader.getAttributeNamespace(i));
+			if (namespace.isEmpty()) {
+				writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+			} else {
+				writer.writeAttribute(nullToEmpty(reader.getAttributePrefix(i)), namespace,
+						reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+			}
+		}
+	}
+
+	private static void writeNamespace(XMLStreamWriter writer, String prefix, String uri) throws XMLStreamException {
+		if (prefix.isEmpty()) {
+			writer.writeDefaultNamespace(uri);
+		} else if (!uri.isEmpty()) {
+			writer.writeNamespace(prefix, uri);
+		}
+	}
+
+	private static String nullToEmpty(String s) {
+		return s != null ? s : "";
+	}
+
+	/**
+	 * Parses xpath of the root context.
+	 *
+	 * @param xpath xpath of the root context
+	 * @param namespaces namespace prefixes declared for the root context
+	 * @param defaultNamespace default element namespace of the root context or null
+	 * @return steps of the path or null if the xpath is not a simple absolute path of element names,
+	 * which is required for streaming
+	 */
+	public static Step[] parsePath(String xpath, Map<String, String> namespaces, String defaultNamespace) {
+		xpath = xpath.trim();
+		if (!SIMPLE_PATH.matcher(xpath).matches()) {
+			return null;
+		}
+		List<Step> result = new ArrayList<Step>();
+		Matcher matcher = PATH_STEP.matcher(xpath);
+		while (matcher.find()) {
+			String prefix = matcher.group(1);
+			String localName = matcher.group(2);
+			String namespace;
+			if (prefix != null) {
+				namespace = namespaces.get(prefix);
+				if (namespace == null) {
+					return null;
+				}
+			} else if (localName.equals("*")) {
+				namespace = null;
+			} else {
+				namespace = nullToEmpty(defaultNamespace);
+			}
+			result.add(new Step(namespace, localName.equals("*") ? null : localName));
+		}
+		return result.toArray(new Step[result.size()]);
+	}
+
+	/**
+	 * @param xpath xpath of a nested context or a mapping
+	 * @return true if the xpath cannot select anything outside the subtree of its context node
+	 */
+	public static boolean isForwardOnly(String xpath) {
+		return !NOT_FORWARD.matcher(xpath).find() && !containsAbsolutePath(xpath);
+	}
+
+	/**
+	 * @param xpath xpath of a nested context or a mapping
+	 * @return true if the xpath contains a slash which does not follow a step, i.e. a name test,
+	 * <code>.</code>, <code>)</code> or <code>]</code>, so it starts an absolute path,
+	 * e.g. <code>b[@id = /root/x]</code> or <code>x and /r/z</code>; slashes in string literals are ignored
+	 */
+	static boolean containsAbsolutePath(String xpath) {
+		int length = xpath.length();
+		for (int i = 0; i < length; i++) {
+			char c = xpath.charAt(i);
+			if (c == '\'' || c == '"') {
+				int end = xpath.indexOf(c, i + 1);
+				if (end < 0) {
+					// unterminated literal, the xpath is not streamed
+					return true;
+				}
+				i = end;
+			} else if (c == '/') {
+				if (!followsStep(xpath, i)) {
+					return true;
+				}
+				if (i + 1 < length && xpath.charAt(i + 1) == '/') {
+					i++;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean followsStep(String xpath, int slash) {
+		if (slash == 0) {
+			return false;
+		}
+		char c = xpath.charAt(slash - 1);
+		if (c == '.' || c == ')' || c == ']') {
+			return true;
+		}
+		if (c == '*') {
+			// wildcard name test, not multiplication of an operand
+			int i = slash - 2;
+			while (i >= 0 && Character.isWhitespace(xpath.charAt(i))) {
+				i--;
+			}
+			return i < 0 || xpath.charAt(i) == ':' || !isOperandEnd(xpath.charAt(i));
+		}
+		if (isNameChar(c)) {
+			int start = slash - 1;
+			while (start > 0 && isNameChar(xpath.charAt(start - 1))) {
+				start--;
+			}
+			return !OPERATOR.matcher(xpath.substring(start, slash)).matches();
+		}
+		return false;
+	}
+
+	private static boolean isNameChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == ':';
+	}
+
+	private static boolean isOperandEnd(char c) {
+		return isNameChar(c) || c == '.' || c == ')' || c == ']' || c == '\'' || c == '"';
+	}
+
+	/**
+	 * Name test of a single path step.
+	 */
+	public static class Step {
+
+		/** null matches any namespace */
+		private final String namespace;
+
+		/** null matches any local name */
+		private final String localName;
+
+		private Step(String namespace, String localName) {
+			this.namespace = namespace;
+			this.localName = localName;
+		}
+
+		private boolean matches(String elementNamespace, String elementLocalName) {
+			return (namespace == null || namespace.equals(nullToEmpty(elementNamespace)))
+					&& (localName == null || localName.equals(elementLocalName));
+		}
+	}
+
+}
@@ -20,6 +20,7 @@ package org.jetel.data.parser;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.channels.Channels;
@@ -35,6 +36,9 @@ import java.util.regex.Pattern;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.sax.SAXSource;
@@ -42,6 +46,7 @@ import javax.xml.transform.sax.SAXSource;
 import net.sf.saxon.om.NamespaceResolver;
 import net.sf.saxon.sxpath.IndependentContext;
 import net.sf.saxon.sxpath.XPathEvaluator;
+import net.sf.saxon.sxpath.XPathExpression;
 import net.sf.saxon.trans.XPathException;
 
 import org.apache.commons.logging.Log;
@@ -132,6 +137,16 @@ public class XPathParser extends AbstractParser {
 	
 	private URL contextUrl = null;
 	
+	// streaming mode requested
+	private boolean streaming;
+	
+	// path of the root context elements if the mapping can be evaluated in streaming mode, null otherwise
+	private XPathFragmentIterator.Step[] streamingPath;
+	
+	private XPathExpression fragmentRoot;
+	
+	private XMLInputFactory inputFactory;
+	
 	public XPathParser() {
 	}
 	
@@ -170,7 +185,40 @@ public class XPathParser extends AbstractParser {
 	    if (!found) 
 	    	throw new TransformerException("Every xpath must contain just one " + ELEMENT_CONTEXT + " element!");
 	    
-		return parseXpathContext(node, new HashMap<String, String>(), null);
+		XPathContext rootContext = parseXpathContext(node, new HashMap<String, String>(), null);
+		streamingPath = streaming ? getStreamingPath((Element) node) : null;
+		return rootContext;
+	}
+	
+	/**
+	 * Checks whether the mapping can be evaluated in streaming mode - the root context must select
+	 * elements by a simple absolute path and no nested xpath may leave the subtree of its context node.
+	 * 
+	 * @param context the root context element
+	 * @return path of the root context elements or null if the whole document has to be parsed
+	 */
+	private XPathFragmentIterator.Step[] getStreamingPath(Element context) throws ComponentNotReadyException, XPathException {
+		if (xmlFeatures != null) {
+			logger.info("Streaming mode is not supported together with xml features, the whole document will be parsed.");
+			return null;
+		}
+		Node aNamespacePaths = context.getAttributes().getNamedItem(ATTRIBUTE_NAMESPACE_PATHS);
+		String sXpath = context.getAttribute(ATTRIBUTE_XPATH);
+		XPathFragmentIterator.Step[] steps = XPathFragmentIterator.parsePath(sXpath, getNamespaces(aNamespacePaths), getDefaultNamespace(aNamespacePaths));
+		if (steps == null) {
+			logger.info("The xpath '" + sXpath + "' of the root context is not a simple absolute path, streaming mode is not used.");
+			return null;
+		}
+		NodeList nested = context.getElementsByTagName("*");
+		for (int i = 0; i < nested.getLength(); i++) {
+			Element element = (Element) nested.item(i);
+			if (element.hasAttribute(ATTRIBUTE_XPATH) && !XPathFragmentIterator.isForwardOnly(element.getAttribute(ATTRIBUTE_XPATH))) {
+				logger.info("The xpath '" + element.getAttribute(ATTRIBUTE_XPATH) + "' may leave subtree of its context node, streaming mode is not used.");
+				return null;
+			}
+		}
+		fragmentRoot = xPathEvaluator.createExpression("/*");
+		return steps;
 	}
 	
 	private XPathContext parseXpathContext(Node context, Map<String, String> mNamespaces, String sDefaultNamespace) throws DOMException, TransformerException, ComponentNotReadyException {
@@ -548,12 +596,28 @@ public class XPathParser extends AbstractParser {
 				source.setEncoding(charset);
 			}
 			XmlUtils.setSystemId(source, contextUrl, uri);
-			xpathContext.init(new SAXSource(reader, source));
+			if (streamingPath != null) {
+				xpathContext.init(new XPathFragmentIterator(createStreamReader(source.getSystemId()), streamingPath, fragmentRoot));
+			} else {
+				xpathContext.init(new SAXSource(reader, source));
+			}
 		} catch (Exception e) {
 			throw new ComponentNotReadyException(e);
 		}
 	}
 
+	private XMLStreamReader createStreamReader(String systemId) throws IOException, XMLStreamException {
+		if (inputFactory == null) {
+			inputFactory = XMLInputFactory.newInstance();
+		}
+		if (charset != null) {
+			InputStreamReader inputReader = new InputStreamReader(input, charset);
+			return systemId != null ? inputFactory.createXMLStreamReader(systemId, inputReader) : inputFactory.createXMLStreamReader(inputReader);
+		} else {
+			return systemId != null ? inputFactory.createXMLStreamReader(systemId, input) : inputFactory.createXMLStreamReader(input);
+		}
+	}
+
 	/**
 	 *  Release resources
 	 *
@@ -675,6 +739,23 @@ public class XPathParser extends AbstractParser {
 		this.charset = charset;
 	}
 
+	/**
+	 * Sets streaming mode - only the subtree of the current root context node is kept in memory.
+	 * The whole document is parsed if the mapping is not suitable for streaming.
+	 * 
+	 * @param streaming
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * @return true if streaming mode has been requested
+	 */
+	public boolean isStreaming() {
+		return streaming;
+	}
+
 	/**
 	 * @return the dataModel
 	 */
@@ -0,0 +1,181 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.io.File;
+import java.util.Properties;
+
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.graph.dictionary.DictionaryValuesContainer;
+import org.jetel.graph.runtime.GraphRuntimeContext;
+import org.jetel.graph.runtime.IAuthorityProxy.RunStatus;
+import org.jetel.graph.runtime.PrimitiveAuthorityProxy;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Tests the cache of prepared graph instances of {@link RunGraph}.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class RunGraphTest extends CloverTestCase {
+
+	private static final String TEST_RESOURCES_DIR = "test-data/"; // path relative to cloveretl.component project dir
+
+	private static final String GRAPH = "RunGraphTest.grf";
+
+	private TransformationGraph parentGraph;
+
+	private RunGraph runGraph;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		parentGraph = new TransformationGraph("parent");
+		parentGraph.getRuntimeContext().setContextURL(new File(TEST_RESOURCES_DIR).toURI().toURL());
+		parentGraph.addPhase(new Phase(0));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (runGraph != null) {
+			runGraph.free();
+		}
+		super.tearDown();
+	}
+
+	private void initRunGraph(int cacheSize) throws Exception {
+		runGraph = new RunGraph("RUN_GRAPH0", false, true);
+		runGraph.setGraphName(GRAPH);
+		runGraph.setGraphInstanceCacheSize(cacheSize);
+		parentGraph.getPhase(0).addNode(runGraph);
+		runGraph.init();
+	}
+
+	private RunStatus execute(String suffix, String prefix) throws Exception {
+		GraphRuntimeContext runtimeContext = new GraphRuntimeContext();
+		runtimeContext.setContextURL(parentGraph.getRuntimeContext().getContextURL());
+		runtimeContext.setUseJMX(false);
+		Properties parameters = new Properties();
+		parameters.setProperty("SUFFIX", suffix);
+		runtimeContext.setAdditionalProperties(parameters);
+		DictionaryValuesContainer dictionary = new DictionaryValuesContainer();
+		dictionary.setValue("prefix", prefix);
+		runtimeContext.setDictionaryContent(dictionary);
+		return runGraph.executeGraphInstance(GRAPH, runtimeContext);
+	}
+
+	/**
+	 * @return cached instance of the graph executed with the given SUFFIX parameter, null if not cached
+	 */
+	private TransformationGraph getInstance(String suffix) {
+		for (TransformationGraph graph : runGraph.graphInstanceCache.values()) {
+			if (suffix.equals(graph.getGraphParameters().getGraphParameter("SUFFIX").getValue())) {
+				return graph;
+			}
+		}
+		return null;
+	}
+
+	private static void assertResult(String expected, RunStatus rs) {
+		assertEquals(rs.errMessage, Result.FINISHED_OK, rs.status);
+		assertEquals(expected, rs.dictionaryOut.getValue("result"));
+	}
+
+	public void testReuse() throws Exception {
+		initRunGraph(2);
+		assertResult("first-a", execute("a", "first"));
+		TransformationGraph instance = getInstance("a");
+		assertNotNull(instance);
+
+		// input dictionary is bound again after the reset of the reused graph
+		assertResult("second-a", execute("a", "second"));
+		assertSame(instance, getInstance("a"));
+		assertResult("third-a", execute("a", "third"));
+		assertSame(instance, getInstance("a"));
+		assertEquals(1, runGraph.graphInstanceCache.size());
+	}
+
+	public void testDifferentParameters() throws Exception {
+		initRunGraph(2);
+		assertResult("x-a", execute("a", "x"));
+		assertResult("x-b", execute("b", "x"));
+		TransformationGraph instanceA = getInstance("a");
+		TransformationGraph instanceB = getInstance("b");
+		assertNotNull(instanceA);
+		assertNotNull(instanceB);
+		assertNotSame(instanceA, instanceB);
+
+		assertResult("y-b", execute("b", "y"));
+		assertResult("y-a", execute("a", "y"));
+		assertSame(instanceA, getInstance("a"));
+		assertSame(instanceB, getInstance("b"));
+	}
+
+	public void testEviction() throws Exception {
+		initRunGraph(2);
+		assertResult("x-a", execute("a", "x"));
+		assertResult("x-b", execute("b", "x"));
+		TransformationGraph instanceA = getInstance("a");
+		TransformationGraph instanceB = getInstance("b");
+
+		// "b" is used again, so "a" is the least recently used instance
+		assertResult("y-b", execute("b", "y"));
+		assertResult("x-c", execute("c", "x"));
+		assertEquals(2, runGraph.graphInstanceCache.size());
+		assertNull(getInstance("a"));
+		assertFalse(instanceA.isInitialized());
+		assertSame(instanceB, getInstance("b"));
+		assertNotNull(getInstance("c"));
+
+		// evicted instance is prepared again
+		assertResult("z-a", execute("a", "z"));
+		assertNotSame(instanceA, getInstance("a"));
+	}
+
+	public void testFailedInstanceReleased() throws Exception {
+		initRunGraph(2);
+		RunStatus rs = execute("fail", "x");
+		assertEquals(Result.ERROR, rs.status);
+		assertEquals("DATA_GENERATOR0", rs.errComponent);
+		assertEquals("DATA_GENERATOR", rs.errComponentType);
+		assertTrue(runGraph.graphInstanceCache.isEmpty());
+	}
+
+	public void testFree() throws Exception {
+		initRunGraph(2);
+		assertResult("x-a", execute("a", "x"));
+		TransformationGraph instance = getInstance("a");
+		runGraph.free();
+		runGraph = null;
+		assertFalse(instance.isInitialized());
+	}
+
+	public void testOtherAuthorityProxy() throws Exception {
+		parentGraph.getRuntimeContext().setAuthorityProxy(new PrimitiveAuthorityProxy() {
+		});
+		initRunGraph(2);
+		assertNull(runGraph.graphInstanceCache);
+	}
+
+}
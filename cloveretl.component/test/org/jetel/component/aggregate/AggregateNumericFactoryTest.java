@@ -0,0 +1,174 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component.aggregate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.jetel.data.DataField;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.primitive.CloverInteger;
+import org.jetel.data.primitive.HugeDecimal;
+import org.jetel.data.primitive.Int128Decimal;
+import org.jetel.data.primitive.Numeric;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Compares decimal sum and avg with the results of the former HugeDecimal sums.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class AggregateNumericFactoryTest extends CloverTestCase {
+
+	private static final int VALUES = 1000;
+
+	private Random random;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		random = new Random(0);
+	}
+
+	public void testDecimalSumType() {
+		DataFieldMetadata input = decimal("in", 30, 6);
+		assertTrue(AggregateNumericFactory.createDataField(decimal("out", 25, 2), input) instanceof Int128Decimal);
+		assertTrue(AggregateNumericFactory.createDataField(decimal("out", 25, 2), new DataFieldMetadata("in", DataFieldType.NUMBER, ";")) instanceof HugeDecimal);
+	}
+
+	public void testInputWithGreaterScale() {
+		// inputs are truncated by the output field after summation
+		List<Object> values = new ArrayList<Object>();
+		for (int i = 0; i < VALUES; i++) {
+			values.add(new BigDecimal(new BigInteger(60, random), 6).multiply(BigDecimal.valueOf(random.nextBoolean() ? 1 : -1)));
+		}
+		check(decimal("in", 30, 6), 25, 2, values);
+		check(decimal("in", 30, 6), 18, 0, values);
+	}
+
+	public void testInputWithLowerScale() {
+		List<Object> values = new ArrayList<Object>();
+		for (int i = 0; i < VALUES; i++) {
+			values.add(new BigDecimal(new BigInteger(80, random), 2).negate());
+		}
+		check(decimal("in", 30, 2), 38, 10, values);
+	}
+
+	public void testIntegerInput() {
+		List<Object> values = new ArrayList<Object>();
+		List<Object> longValues = new ArrayList<Object>();
+		for (int i = 0; i < VALUES; i++) {
+			values.add(random.nextInt());
+			longValues.add(random.nextLong());
+		}
+		check(new DataFieldMetadata("in", DataFieldType.INTEGER, ";"), 20, 3, values);
+		check(new DataFieldMetadata("in", DataFieldType.LONG, ";"), 38, 10, longValues);
+	}
+
+	public void testIntermediateOverflow() {
+		// the intermediate sum exceeds 128 bits, the result fits into the output field
+		BigDecimal big = new BigDecimal("9" + repeat('0', 37));
+		List<Object> values = new ArrayList<Object>();
+		values.add(big);
+		values.add(big);
+		values.add(big.negate());
+		values.add(BigDecimal.ONE);
+		check(decimal("in", 38, 0), 38, 0, values);
+
+		// the first value does not fit into the sum with the input scale
+		values.clear();
+		values.add(new BigDecimal("1" + repeat('0', 10)));
+		values.add(new BigDecimal("0.5"));
+		check(decimal("in", 50, 30), 38, 0, values);
+	}
+
+	private void check(DataFieldMetadata inputField, int length, int scale, List<Object> values) {
+		DataRecordMetadata inMetadata = new DataRecordMetadata("in");
+		inMetadata.addField(inputField);
+		DataRecordMetadata outMetadata = new DataRecordMetadata("out");
+		outMetadata.addField(decimal("sum", length, scale));
+		outMetadata.addField(decimal("avg", length, scale));
+		outMetadata.addField(decimal("hugeSum", length, scale));
+		outMetadata.addField(decimal("hugeAvg", length, scale));
+
+		Sum sum = new Sum();
+		Avg avg = new Avg();
+		for (AggregateFunction function : new AggregateFunction[] { sum, avg }) {
+			function.setInputFieldIndex(0);
+			function.setInputFieldMetadata(inputField);
+			function.setOutputFieldMetadata(outMetadata.getField(0));
+			function.init();
+		}
+
+		// the former sum of both functions
+		Numeric hugeSum = new HugeDecimal(null, length, scale, true);
+		DataRecord in = DataRecordFactory.newRecord(inMetadata);
+		for (int i = 0; i < values.size(); i++) {
+			in.getField(0).setValue(values.get(i));
+			sum.update(in);
+			avg.update(in);
+			if (i == 0) {
+				hugeSum.setValue((Numeric) in.getField(0));
+			} else {
+				hugeSum.add((Numeric) in.getField(0));
+			}
+		}
+
+		DataRecord out = DataRecordFactory.newRecord(outMetadata);
+		sum.storeResult(out.getField("sum"));
+		avg.storeResult(out.getField("avg"));
+		out.getField("hugeSum").setValue(hugeSum);
+		out.getField("hugeAvg").setValue(hugeSum);
+		((Numeric) out.getField("hugeAvg")).div(new CloverInteger(values.size()));
+
+		assertEquals(value(out.getField("hugeSum")), value(out.getField("sum")));
+		assertEquals(value(out.getField("hugeAvg")), value(out.getField("avg")));
+	}
+
+	private static BigDecimal value(DataField field) {
+		return ((Numeric) field).getBigDecimal();
+	}
+
+	private static DataFieldMetadata decimal(String name, int length, int scale) {
+		DataFieldMetadata field = new DataFieldMetadata(name, DataFieldType.DECIMAL, ";");
+		field.getFieldProperties().setProperty(DataFieldMetadata.LENGTH_ATTR, String.valueOf(length));
+		field.getFieldProperties().setProperty(DataFieldMetadata.SCALE_ATTR, String.valueOf(scale));
+		return field;
+	}
+
+	private static String repeat(char c, int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+}
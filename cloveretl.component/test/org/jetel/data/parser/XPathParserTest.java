@@ -18,8 +18,16 @@
  */
 package org.jetel.data.parser;
 
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.util.XmlUtils;
 import org.w3c.dom.Document;
 
@@ -39,4 +47,78 @@ public class XPathParserTest extends AbstractParserTestCase {
 		return new XPathParser(document);
 	}
 
+	private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+			+ "<root xmlns:n=\"urn:names\"><items>"
+			+ "<item id=\"1\"><n:name>first</n:name><part>a</part><part>b</part></item>"
+			+ "<other id=\"x\"><n:name>other</n:name></other>"
+			+ "<item id=\"2\"><n:name>second</n:name><!-- comment --><part><![CDATA[c&d]]></part></item>"
+			+ "<item id=\"3\"/>"
+			+ "</items></root>";
+
+	private static final String MAPPING = "<Context xpath=\"%s\" outPort=\"0\" namespacePaths=\"n='urn:names'\">"
+			+ "<Mapping xpath=\"@id\" cloverField=\"id\"/>"
+			+ "<Mapping xpath=\"%s\" cloverField=\"name\"/>"
+			+ "<Context xpath=\"part\" outPort=\"1\"><Mapping xpath=\".\" cloverField=\"name\"/></Context>"
+			+ "</Context>";
+
+	public void testStreaming() throws Exception {
+		String mapping = String.format(MAPPING, "/root/items/item", "n:name");
+		List<String> expected = parse(mapping, false);
+		assertEquals(6, expected.size());
+		assertTrue(expected.contains("0:1|first"));
+		assertTrue(expected.contains("1:null|c&d"));
+		assertEquals(expected, parse(mapping, true));
+	}
+
+	public void testStreamingFallback() throws Exception {
+		// descendant axis in the root context and parent axis in a mapping are not streamable
+		String mapping = String.format(MAPPING, "//item", "n:name");
+		assertEquals(parse(mapping, false), parse(mapping, true));
+		mapping = String.format(MAPPING, "/root/items/item", "../other/@id");
+		List<String> expected = parse(mapping, false);
+		assertTrue(expected.contains("0:1|x"));
+		assertEquals(expected, parse(mapping, true));
+		// absolute path in a mapping
+		mapping = String.format(MAPPING, "/root/items/item", "concat(n:name, count(/root/items/other))");
+		expected = parse(mapping, false);
+		assertTrue(expected.contains("0:1|first1"));
+		assertEquals(expected, parse(mapping, true));
+	}
+
+	public void testForwardOnly() {
+		for (String xpath : new String[] { "a/b", "n:a//b", ".", "./a/@id", "a/*/b", "n:*/b", "@*", "a[b/c = 'x/y']",
+				"concat(a, \"/\")", "(a | b)/c", "a[1]/b", "text()", "count(a/b) * 2", "order/b", "$var/a" }) {
+			assertTrue(xpath, XPathFragmentIterator.isForwardOnly(xpath));
+		}
+		for (String xpath : new String[] { "/a", "//a", "b[@id = /root/x]", ". = //y", "x and /r/z", "x and//r",
+				"a | /b", "count(/a)", "f(a, /b)", "a[/b]", "2 * /a", "a */b", "../a", "parent::a", "ancestor::a",
+				"following-sibling::a", "root(.)", "id('x')", "'unterminated/" }) {
+			assertFalse(xpath, XPathFragmentIterator.isForwardOnly(xpath));
+		}
+	}
+
+	private List<String> parse(String mapping, boolean streaming) throws Exception {
+		DataRecordMetadata metadata = new DataRecordMetadata("test");
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.STRING, ";"));
+		metadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, ";"));
+		DataRecord[] records = new DataRecord[] { DataRecordFactory.newRecord(metadata), DataRecordFactory.newRecord(metadata) };
+
+		XPathParser parser = new XPathParser(XmlUtils.createDocumentFromString(mapping));
+		parser.setStreaming(streaming);
+		parser.init();
+		parser.preExecute();
+		for (int i = 0; i < records.length; i++) {
+			parser.assignRecord(records[i], i);
+		}
+		parser.setDataSource(new ByteArrayInputStream(XML.getBytes("UTF-8")));
+		List<String> result = new ArrayList<String>();
+		while (parser.getNext() != null) {
+			DataRecord record = records[parser.getActualPort()];
+			result.add(parser.getActualPort() + ":" + record.getField(0).getValue() + "|" + record.getField(1).getValue());
+		}
+		parser.postExecute();
+		parser.free();
+		return result;
+	}
+
 }
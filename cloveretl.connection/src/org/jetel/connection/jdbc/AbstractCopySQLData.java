@@ -1186,9 +1186,9 @@ public abstract class AbstractCopySQLData implements CopySQLData {
 		public void setSQL(PreparedStatement pStatement) throws SQLException {
 			if (!field.isNull()) {
 			    if (inBatchUpdate){
-                    pStatement.setDate(fieldSQL, new java.sql.Date(((DateDataField) field).getDate().getTime()));
+                    pStatement.setDate(fieldSQL, new java.sql.Date(((DateDataField) field).getTime()));
 			    }else{
-			        dateValue.setTime(((DateDataField) field).getDate().getTime());
+			        dateValue.setTime(((DateDataField) field).getTime());
 			        pStatement.setDate(fieldSQL, dateValue);
 			    }
 			} else {
@@ -1328,9 +1328,9 @@ public abstract class AbstractCopySQLData implements CopySQLData {
 		public void setSQL(PreparedStatement pStatement) throws SQLException {
 			if (!field.isNull()) {
 			    if (inBatchUpdate){
-                    pStatement.setTime(fieldSQL, new java.sql.Time(((DateDataField) field).getDate().getTime()));
+                    pStatement.setTime(fieldSQL, new java.sql.Time(((DateDataField) field).getTime()));
 			    }else{
-			        timeValue.setTime(((DateDataField) field).getDate().getTime());
+			        timeValue.setTime(((DateDataField) field).getTime());
 			        pStatement.setTime(fieldSQL, timeValue);
 			    }
 			} else {
@@ -1424,10 +1424,10 @@ public abstract class AbstractCopySQLData implements CopySQLData {
 		public void setSQL(PreparedStatement pStatement) throws SQLException {
 			if (!field.isNull()) {
 			    if (inBatchUpdate){
-                    pStatement.setTimestamp(fieldSQL, new Timestamp(((DateDataField) field).getDate().getTime()));
+                    pStatement.setTimestamp(fieldSQL, new Timestamp(((DateDataField) field).getTime()));
 			    }else{
 			        if (((DateDataField) field).getDate() != null) {
-			        	timeValue.setTime(((DateDataField) field).getDate().getTime());
+			        	timeValue.setTime(((DateDataField) field).getTime());
 				        pStatement.setTimestamp(fieldSQL, timeValue);
 			        } else {
 			        	pStatement.setNull(fieldSQL, java.sql.Types.TIMESTAMP);
@@ -0,0 +1,134 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection.jdbc;
+
+/**
+ * Computes size of JDBC batch updates based on measured round-trip time of already executed batches.
+ *
+ * The batch size is tuned so that one batch takes approximately the target time. Small batches
+ * are dominated by network latency, huge batches only increase memory footprint and the amount
+ * of work lost by a failed batch. The cost of one record is smoothed by exponential moving average
+ * and the batch size never grows or shrinks more than twice in one step.
+ *
+ * Instances are not thread-safe, each writing thread should have its own instance.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class AdaptiveBatchSize {
+
+	/** Default target duration of one batch round-trip in milliseconds. */
+	public static final long DEFAULT_TARGET_TIME = 100;
+
+	/** Default upper bound of the batch size. */
+	public static final int DEFAULT_MAX_SIZE = 5000;
+
+	/** Weight of the last measurement in the moving average of one record cost. */
+	private static final double SMOOTHING = 0.3;
+
+	private final int minSize;
+
+	private final int maxSize;
+
+	private final long targetNanos;
+
+	private int size;
+
+	/** Moving average of nanoseconds per record, negative if nothing has been measured yet. */
+	private double nanosPerRecord = -1;
+
+	/**
+	 * @param initialSize batch size used before the first measurement
+	 * @param minSize lower bound of the batch size
+	 * @param maxSize upper bound of the batch size
+	 * @param targetTime desired duration of one batch round-trip in milliseconds
+	 */
+	public AdaptiveBatchSize(int initialSize, int minSize, int maxSize, long targetTime) {
+		if (minSize < 1 || maxSize < minSize) {
+			throw new IllegalArgumentException("Invalid batch size bounds: " + minSize + ", " + maxSize);
+		}
+		if (targetTime <= 0) {
+			throw new IllegalArgumentException("Target time has to be positive: " + targetTime);
+		}
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.targetNanos = targetTime * 1000000L;
+		this.size = clamp(initialSize);
+	}
+
+	/**
+	 * @param initialSize batch size used before the first measurement
+	 */
+	public AdaptiveBatchSize(int initialSize) {
+		this(initialSize, 1, Math.max(initialSize, DEFAULT_MAX_SIZE), DEFAULT_TARGET_TIME);
+	}
+
+	/**
+	 * @return size of the next batch
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Updates the batch size based on the duration of recently executed batch.
+	 *
+	 * @param records number of records in the executed batch
+	 * @param nanos duration of the batch execution in nanoseconds
+	 * @return size of the next batch
+	 */
+	public int update(int records, long nanos) {
+		if (records <= 0 || nanos < 0) {
+			return size;
+		}
+		double current = (double) nanos / records;
+		if (nanosPerRecord < 0) {
+			nanosPerRecord = current;
+		} else {
+			nanosPerRecord = SMOOTHING * current + (1 - SMOOTHING) * nanosPerRecord;
+		}
+
+		long desired = nanosPerRecord > 0 ? (long) (targetNanos / nanosPerRecord) : Integer.MAX_VALUE;
+		// do not jump too far in one step, the measurement may be distorted
+		desired = Math.min(desired, 2L * size);
+		desired = Math.max(desired, size / 2);
+		size = clamp(desired);
+		return size;
+	}
+
+	private int clamp(long value) {
+		return (int) Math.max(minSize, Math.min(maxSize, value));
+	}
+
+	public int getMinSize() {
+		return minSize;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public String toString() {
+		return "AdaptiveBatchSize[size=" + size + ", min=" + minSize + ", max=" + maxSize + "]";
+	}
+
+}
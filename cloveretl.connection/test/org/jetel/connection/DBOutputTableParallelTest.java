@@ -0,0 +1,153 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.graph.TransformationGraphXMLReaderWriter;
+import org.jetel.graph.runtime.EngineInitializer;
+import org.jetel.graph.runtime.GraphRuntimeContext;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Runs DBOutputTable with parallel writers against in-memory HSQLDB and compares the written
+ * tables with the table written sequentially by a single writer.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class DBOutputTableParallelTest extends CloverTestCase {
+
+	private static final String DB_URL = "jdbc:hsqldb:mem:DBOutputTableParallelTest";
+
+	private static final String DRIVER = "org.hsqldb.jdbc.JDBCDriver";
+
+	private static final String SEQUENTIAL_TABLE = "SEQUENTIAL";
+
+	/** tables written by parallel writers - round-robin in batch mode, by key, with adaptive batch size */
+	private static final String[] PARALLEL_TABLES = { "PARALLEL", "KEYED", "ADAPTIVE" };
+
+	private static final int RECORDS = 5000;
+
+	private URLClassLoader driverLoader;
+
+	private Connection connection;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		URL driverUrl = getClass().getResource("/org/jetel/connection/hsqldb.jar");
+		driverLoader = new URLClassLoader(new URL[] { driverUrl });
+		Driver driver = (Driver) Class.forName(DRIVER, true, driverLoader).newInstance();
+		Properties properties = new Properties();
+		properties.setProperty("user", "SA");
+		properties.setProperty("password", "");
+		connection = driver.connect(DB_URL, properties);
+
+		Statement statement = connection.createStatement();
+		try {
+			createTable(statement, SEQUENTIAL_TABLE);
+			for (String table : PARALLEL_TABLES) {
+				createTable(statement, table);
+			}
+		} finally {
+			statement.close();
+		}
+	}
+
+	private static void createTable(Statement statement, String table) throws SQLException {
+		statement.execute("DROP TABLE " + table + " IF EXISTS");
+		statement.execute("CREATE TABLE " + table + " (id INTEGER PRIMARY KEY, name VARCHAR(32), amount BIGINT)");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (connection != null) {
+			Statement statement = connection.createStatement();
+			try {
+				statement.execute("SHUTDOWN");
+			} finally {
+				statement.close();
+			}
+			connection.close();
+		}
+		super.tearDown();
+	}
+
+	public void testParallelWriters() throws Exception {
+		GraphRuntimeContext runtimeContext = new GraphRuntimeContext();
+		runtimeContext.setUseJMX(false);
+		runtimeContext.setClassLoader(driverLoader);
+
+		InputStream in = getClass().getResource("/org/jetel/connection/DBOutputTableParallelTest.grf").openStream();
+		TransformationGraph graph;
+		try {
+			graph = TransformationGraphXMLReaderWriter.loadGraph(in, runtimeContext);
+		} finally {
+			in.close();
+		}
+		try {
+			EngineInitializer.initGraph(graph, runtimeContext);
+			assertEquals(Result.FINISHED_OK, runGraph(graph));
+		} finally {
+			graph.free();
+		}
+
+		List<String> expected = readTable(SEQUENTIAL_TABLE);
+		assertEquals(RECORDS, expected.size());
+		for (int i = 0; i < RECORDS; i++) {
+			assertEquals(i + "|" + (i % 7 == 0 ? null : "name " + (i % 13)) + "|" + (i * 1000003L), expected.get(i));
+		}
+		for (String table : PARALLEL_TABLES) {
+			assertEquals(table, expected, readTable(table));
+		}
+	}
+
+	/**
+	 * @return rows of the table ordered by id
+	 */
+	private List<String> readTable(String table) throws SQLException {
+		List<String> rows = new ArrayList<String>();
+		Statement statement = connection.createStatement();
+		try {
+			ResultSet resultSet = statement.executeQuery("SELECT id, name, amount FROM " + table + " ORDER BY id");
+			while (resultSet.next()) {
+				rows.add(resultSet.getInt(1) + "|" + resultSet.getString(2) + "|" + resultSet.getLong(3));
+			}
+		} finally {
+			statement.close();
+		}
+		return rows;
+	}
+
+}
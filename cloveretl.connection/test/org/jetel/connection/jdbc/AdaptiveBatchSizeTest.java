@@ -0,0 +1,68 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection.jdbc;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class AdaptiveBatchSizeTest extends TestCase {
+
+	private static final long MILLIS = 1000000L;
+
+	public void testGrowsOnFastRoundTrips() {
+		AdaptiveBatchSize batchSize = new AdaptiveBatchSize(25, 1, 1000, 100);
+		assertEquals(25, batchSize.getSize());
+		// 25 records in 5 ms -> far below the target, but growth is limited to factor two
+		assertEquals(50, batchSize.update(25, 5 * MILLIS));
+		assertEquals(100, batchSize.update(50, 10 * MILLIS));
+		for (int i = 0; i < 10; i++) {
+			batchSize.update(batchSize.getSize(), batchSize.getSize() * MILLIS / 5);
+		}
+		assertEquals(500, batchSize.getSize());
+	}
+
+	public void testShrinksOnSlowRoundTrips() {
+		AdaptiveBatchSize batchSize = new AdaptiveBatchSize(400, 10, 1000, 100);
+		// 400 records in 4 seconds -> 10 ms per record
+		assertEquals(200, batchSize.update(400, 4000 * MILLIS));
+		for (int i = 0; i < 10; i++) {
+			batchSize.update(batchSize.getSize(), batchSize.getSize() * 10 * MILLIS);
+		}
+		assertEquals(10, batchSize.getSize());
+	}
+
+	public void testBounds() {
+		AdaptiveBatchSize batchSize = new AdaptiveBatchSize(5000, 1, 100, 100);
+		assertEquals(100, batchSize.getSize());
+		assertEquals(100, batchSize.update(100, 0));
+		assertEquals(100, batchSize.update(0, 100 * MILLIS));
+		try {
+			new AdaptiveBatchSize(10, 0, 100, 100);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
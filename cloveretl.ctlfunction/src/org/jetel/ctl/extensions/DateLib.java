@@ -26,10 +26,7 @@ import org.jetel.ctl.TransformLangExecutorRuntimeException;
 import org.jetel.ctl.data.DateFieldEnum;
 import org.joda.time.DateTime;
 import org.joda.time.Days;
-import org.joda.time.Hours;
-import org.joda.time.Minutes;
 import org.joda.time.Months;
-import org.joda.time.Seconds;
 import org.joda.time.Weeks;
 import org.joda.time.Years;
 
@@ -154,15 +151,15 @@ public class DateLib extends TLFunctionLibrary {
         long diff = 0;
         switch (unit) {
         case SECOND:
-            // we have the difference in seconds
-        	diff = (long) Seconds.secondsBetween(new DateTime(rhs.getTime()), new DateTime(lhs.getTime())).getSeconds();
+            // time units do not depend on time zone, the difference is truncated the same as by Joda-Time
+        	diff = (lhs.getTime() - rhs.getTime()) / 1000L;
             break;
         case MINUTE:
             // how many minutes'
-        	diff = (long) Minutes.minutesBetween(new DateTime(rhs.getTime()), new DateTime(lhs.getTime())).getMinutes();
+        	diff = (lhs.getTime() - rhs.getTime()) / (60 * 1000L);
             break;
         case HOUR:
-        	diff = (long) Hours.hoursBetween(new DateTime(rhs.getTime()), new DateTime(lhs.getTime())).getHours();
+        	diff = (lhs.getTime() - rhs.getTime()) / (60 * 60 * 1000L);
             break;
         case DAY:
             // how many days is the difference
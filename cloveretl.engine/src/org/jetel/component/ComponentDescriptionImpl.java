@@ -38,28 +38,23 @@ import org.w3c.dom.NodeList;
  */
 public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implements ComponentDescription {
 
-    private Component componentDesc;
+	private static final String COMPONENT_ELEMENT = "ETLComponent";
+	
+	/** Deep description is unmarshalled on first request, type and class name are available without it. */
+    private volatile Component componentDesc;
+    
+    private final boolean hasDescription;
     
     public ComponentDescriptionImpl(Extension componentExtension) {
         super(EXTENSION_POINT_ID, componentExtension);
         
-	    NodeList xmlContent = getExtension().getXMLDefinition().getElementsByTagName("ETLComponent");
-        if (xmlContent.getLength() == 1) {
-        	try {
-			    JAXBContext context = JAXBContextProvider.getInstance().getContext(Component.class);
-			    Unmarshaller m = context.createUnmarshaller();
-			    
-			    componentDesc = (Component) m.unmarshal(xmlContent.item(0));
-        	} catch (JAXBException e) {
-        		throw new JetelRuntimeException("Invalid component descrition in plugin " + getPluginDescriptor(), e);
-        	}
-        }
+        hasDescription = COMPONENT_ELEMENT.equals(getExtension().getContentElementName());
     }
 
     @Override
     public String getType() {
     	if (hasDescription()) {
-    		return componentDesc.getType();
+    		return getExtension().getContentAttribute("type");
     	} else {
     		return super.getType();
     	}
@@ -68,7 +63,7 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
     @Override
     public String getClassName() {
     	if (hasDescription()) {
-    		return componentDesc.getClassName();
+    		return getExtension().getContentAttribute("className");
     	} else {
     		return super.getClassName();
     	}
@@ -80,7 +75,7 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
     @Override
 	public String getMetadataProvider() {
     	if (hasDescription()) {
-    		return componentDesc.getMetadataProvider();
+    		return getExtension().getContentAttribute("metadataProvider");
     	} else {
     		return null;
     	}
@@ -91,15 +86,34 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
      */
     @Override
 	public Component getDescription() {
+    	if (hasDescription() && componentDesc == null) {
+    		synchronized (this) {
+    			if (componentDesc == null) {
+    				componentDesc = unmarshallDescription();
+    			}
+    		}
+    	}
     	return componentDesc;
     }
     
+    private Component unmarshallDescription() {
+	    NodeList xmlContent = getExtension().getXMLDefinition().getElementsByTagName(COMPONENT_ELEMENT);
+    	try {
+		    JAXBContext context = JAXBContextProvider.getInstance().getContext(Component.class);
+		    Unmarshaller m = context.createUnmarshaller();
+		    
+		    return (Component) m.unmarshal(xmlContent.item(0));
+    	} catch (JAXBException e) {
+    		throw new JetelRuntimeException("Invalid component descrition in plugin " + getPluginDescriptor(), e);
+    	}
+    }
+    
     /**
      * @return deep description is optional (introduced in 3.6)
      */
     @Override
 	public boolean hasDescription() {
-    	return componentDesc != null;
+    	return hasDescription;
     }
     
     /**
@@ -124,7 +138,7 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
     @Override
 	public String getDefaultInputMetadataId(int portIndex) {
     	if (hasDescription()) {
-	    	Ports inputPorts = componentDesc.getInputPorts();
+	    	Ports inputPorts = getDescription().getInputPorts();
 	    	Port port = inputPorts.getPort(portIndex);
 	    	if (port != null && port.getMetadata() != null) {
 	    		return port.getMetadata().getId();
@@ -145,7 +159,7 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
     @Override
 	public String getDefaultOutputMetadataId(int portIndex) {
     	if (hasDescription()) {
-	    	Ports outputPorts = componentDesc.getOutputPorts();
+	    	Ports outputPorts = getDescription().getOutputPorts();
 	    	Port port = outputPorts.getPort(portIndex);
 	    	if (port != null && port.getMetadata() != null) {
 	    		return port.getMetadata().getId();
@@ -46,8 +46,10 @@ import org.jetel.component.fileoperation.pool.Authority;
 import org.jetel.component.fileoperation.pool.ConnectionPool;
 import org.jetel.component.fileoperation.pool.PooledS3Connection;
 import org.jetel.component.fileoperation.pool.S3Authority;
+import org.jetel.data.Defaults;
 import org.jetel.graph.ContextProvider;
 import org.jetel.graph.runtime.IAuthorityProxy;
+import org.jetel.util.protocols.amazon.S3OutputStream;
 import org.jetel.util.protocols.amazon.S3Utils;
 import org.jetel.util.stream.DelegatingOutputStream;
 import org.jetel.util.string.StringUtils;
@@ -651,6 +653,10 @@ public class PrimitiveS3OperationHandler implements RecursiveDeleteHandler {
 	 * 
 	 * If the file size exceeds 5 GB, performs multipart upload.
 	 * 
+	 * If {@link Defaults.S3#STREAMING_UPLOAD} is enabled,
+	 * the data is uploaded in parts while it is being written,
+	 * see {@link S3OutputStream}.
+	 * 
 	 * @param bucketName
 	 * @param key
 	 * @return
@@ -680,6 +686,22 @@ public class PrimitiveS3OperationHandler implements RecursiveDeleteHandler {
 				throw new IOException(MessageFormat.format(FileOperationMessages.getString("IOperationHandler.exists_not_file"), uri)); //$NON-NLS-1$
 			}
 			
+			if (Defaults.S3.STREAMING_UPLOAD) {
+				S3OutputStream s3os = new S3OutputStream(connection.getService(), bucketName, key, Defaults.S3.UPLOAD_PART_SIZE, Defaults.S3.UPLOAD_MAX_PARTS_IN_FLIGHT);
+				return new DelegatingOutputStream(s3os) {
+
+					@Override
+					protected void doClose() throws IOException {
+						try {
+							super.doClose(); // completes the upload
+						} finally {
+							connection.returnToPool();
+						}
+					}
+					
+				};
+			}
+			
 			final File tempFile = IAuthorityProxy.getAuthorityProxy(ContextProvider.getGraph()).newTempFile("cloveretl-amazons3-buffer", -1);
 			
 			OutputStream os = new DelegatingOutputStream(new FileOutputStream(tempFile)) {
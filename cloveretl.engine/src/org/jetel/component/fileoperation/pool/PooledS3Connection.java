@@ -282,6 +282,8 @@ public class PooledS3Connection extends AbstractPoolableConnection implements Va
 	 * and deletes the temp file.
 	 * 
 	 * If the file size exceeds 5 GB, performs multipart upload.
+	 * If streaming upload is enabled, the data is uploaded
+	 * in parts while it is being written instead.
 	 * <p>
 	 * <b>Calling this method passes ownership of the connection to the stream.</b>
 	 * </p>
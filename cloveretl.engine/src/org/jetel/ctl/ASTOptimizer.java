@@ -0,0 +1,395 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.ctl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetel.ctl.ASTnode.CLVFAddNode;
+import org.jetel.ctl.ASTnode.CLVFAnd;
+import org.jetel.ctl.ASTnode.CLVFBlock;
+import org.jetel.ctl.ASTnode.CLVFComparison;
+import org.jetel.ctl.ASTnode.CLVFConditionalExpression;
+import org.jetel.ctl.ASTnode.CLVFDivNode;
+import org.jetel.ctl.ASTnode.CLVFFunctionCall;
+import org.jetel.ctl.ASTnode.CLVFIIfNode;
+import org.jetel.ctl.ASTnode.CLVFIfStatement;
+import org.jetel.ctl.ASTnode.CLVFLiteral;
+import org.jetel.ctl.ASTnode.CLVFModNode;
+import org.jetel.ctl.ASTnode.CLVFMulNode;
+import org.jetel.ctl.ASTnode.CLVFOr;
+import org.jetel.ctl.ASTnode.CLVFStart;
+import org.jetel.ctl.ASTnode.CLVFSubNode;
+import org.jetel.ctl.ASTnode.CLVFUnaryNonStatement;
+import org.jetel.ctl.ASTnode.CastNode;
+import org.jetel.ctl.ASTnode.Node;
+import org.jetel.ctl.ASTnode.SimpleNode;
+import org.jetel.ctl.data.TLType;
+import org.jetel.ctl.extensions.TLFunctionCallContext;
+import org.jetel.ctl.extensions.TLFunctionDescriptor;
+import org.jetel.ctl.extensions.TLFunctionPrototype;
+import org.jetel.ctl.extensions.TLTransformationContext;
+import org.jetel.graph.TransformationGraph;
+
+/**
+ * Optimization pass over type-checked AST, performed before the AST is handed over
+ * to the {@link TransformLangExecutor}. The tree is modified in place:
+ *
+ * <ul>
+ * <li>operators and casts applied to literals are evaluated and replaced by literals
+ * (graph parameters are resolved before parsing, so they are literals as well)</li>
+ * <li>calls of side-effect free functions with literal arguments are evaluated once
+ * and replaced by the resulting literal</li>
+ * <li>if statements, ternary operators and <code>iif()</code> with a literal condition are reduced
+ * to the branch which is actually executed, <code>&amp;&amp;</code> and <code>||</code> with a literal
+ * left operand are reduced to the literal or to the right operand</li>
+ * </ul>
+ *
+ * Only expressions of immutable types (string, integer, long, number, decimal, boolean) are folded.
+ * Expressions which fail to evaluate (e.g. division by zero) are left intact, so that
+ * they fail at runtime with the usual error.
+ *
+ * Each change is reported to the debug log.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ASTOptimizer extends NavigatingVisitor {
+
+	private static final Log defaultLogger = LogFactory.getLog(ASTOptimizer.class);
+
+	/** Side-effect free functions which may be evaluated during compilation, by library class name */
+	private static final Map<String, Set<String>> PURE_FUNCTIONS = new HashMap<String, Set<String>>();
+
+	static {
+		registerPureFunctions("org.jetel.ctl.extensions.MathLib",
+				"sqrt", "log", "log10", "exp", "floor", "round", "roundHalfToEven", "ceil", "pow", "pi", "e", "abs",
+				"bitOr", "bitAnd", "bitXor", "bitLShift", "bitRShift", "bitNegate", "bitSet", "bitIsSet",
+				"cos", "sin", "tan", "acos", "asin", "atan", "signum", "toDegrees", "toRadians");
+		registerPureFunctions("org.jetel.ctl.extensions.StringLib",
+				"concat", "upperCase", "lowerCase", "substring", "left", "right", "trim", "length", "replace", "charAt",
+				"isBlank", "isAscii", "isNumber", "isInteger", "isLong", "isDecimal", "removeDiacritic", "removeBlankSpace",
+				"removeNonPrintable", "removeNonAscii", "getAlphanumericChars", "translate", "indexOf", "countChar",
+				"chop", "cut", "reverse", "isEmpty");
+		registerPureFunctions("org.jetel.ctl.extensions.ConvertLib",
+				"str2integer", "str2long", "str2bool", "long2integer", "double2integer", "decimal2integer",
+				"double2long", "decimal2long", "decimal2double", "num2bool", "bool2num");
+	}
+
+	private static void registerPureFunctions(String libraryClassName, String... functionNames) {
+		PURE_FUNCTIONS.put(libraryClassName, new HashSet<String>(Arrays.asList(functionNames)));
+	}
+
+	private final TransformLangParser parser;
+	private final TransformationGraph graph;
+	private final Log logger;
+
+	/** Context of function calls evaluated during the optimization */
+	private final TLTransformationContext transformationContext = new TLTransformationContext();
+
+	private int changeCount;
+
+	/**
+	 * @param parser parser which created the AST
+	 * @param graph graph for evaluation of function calls, may be null
+	 * @param logger logger for optimization messages, may be null
+	 */
+	public ASTOptimizer(TransformLangParser parser, TransformationGraph graph, Log logger) {
+		this.parser = parser;
+		this.graph = graph;
+		this.logger = (logger != null) ? logger : defaultLogger;
+	}
+
+	/**
+	 * Optimizes the given AST in place.
+	 *
+	 * @param ast root of the AST, CLVFStart or CLVFStartExpression
+	 * @return number of changes
+	 */
+	public int optimize(SimpleNode ast) {
+		changeCount = 0;
+		ast.jjtAccept(this, null);
+		if (changeCount > 0 && logger.isDebugEnabled()) {
+			logger.debug("CTL optimizer: " + changeCount + " expression(s) simplified");
+		}
+		return changeCount;
+	}
+
+	/**
+	 * Optimizes children bottom-up and replaces or removes the optimized ones.
+	 */
+	@Override
+	protected Object visitNode(SimpleNode node, Object data) {
+		int i = 0;
+		while (i < node.jjtGetNumChildren()) {
+			final SimpleNode child = (SimpleNode) node.jjtGetChild(i);
+			child.jjtAccept(this, data);
+			final SimpleNode replacement = optimizeNode(child);
+			if (replacement == null) {
+				node.removeChild(i);
+				continue;
+			}
+			if (replacement != child) {
+				replacement.jjtSetParent(node);
+				node.jjtAddChild(replacement, i);
+			}
+			i++;
+		}
+
+		return node;
+	}
+
+	/**
+	 * @return replacement of the node, the node itself if unchanged, or null if the node should be removed
+	 */
+	private SimpleNode optimizeNode(SimpleNode node) {
+		if (node instanceof CLVFIfStatement) {
+			return optimizeIf((CLVFIfStatement) node);
+		} else if (node instanceof CLVFConditionalExpression) {
+			return optimizeConditional(node, node);
+		} else if (node instanceof CLVFIIfNode) {
+			return optimizeConditional(node, node.jjtGetChild(0));
+		} else if (node instanceof CLVFAnd) {
+			return optimizeLogical(node, false);
+		} else if (node instanceof CLVFOr) {
+			return optimizeLogical(node, true);
+		} else if (node instanceof CLVFFunctionCall) {
+			return foldFunctionCall((CLVFFunctionCall) node);
+		} else if (isFoldableOperator(node) && hasLiteralChildren(node)) {
+			return foldOperator(node);
+		}
+		return node;
+	}
+
+	private static boolean isFoldableOperator(SimpleNode node) {
+		if (node instanceof CLVFComparison) {
+			// regular expression matching needs runtime initialization
+			final int operator = ((CLVFComparison) node).getOperator();
+			return operator != TransformLangParserConstants.REGEX_EQUAL && operator != TransformLangParserConstants.REGEX_CONTAINS;
+		}
+		return node instanceof CLVFAddNode || node instanceof CLVFSubNode || node instanceof CLVFMulNode
+				|| node instanceof CLVFDivNode || node instanceof CLVFModNode || node instanceof CLVFUnaryNonStatement
+				|| node instanceof CastNode;
+	}
+
+	private static boolean hasLiteralChildren(Node node) {
+		for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+			if (!(node.jjtGetChild(i) instanceof CLVFLiteral)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true for types whose values may be safely shared by all evaluations of a literal
+	 */
+	private static boolean isImmutable(TLType type) {
+		return type != null && (type.isString() || type.isInteger() || type.isLong() || type.isDouble()
+				|| type.isDecimal() || type.isBoolean());
+	}
+
+	/**
+	 * @return value of a boolean literal or null if the node is not a non-null boolean literal
+	 */
+	private static Boolean getBooleanLiteral(Node node) {
+		if (node instanceof CLVFLiteral && ((CLVFLiteral) node).getValue() instanceof Boolean) {
+			return (Boolean) ((CLVFLiteral) node).getValue();
+		}
+		return null;
+	}
+
+	private SimpleNode foldOperator(SimpleNode node) {
+		if (!isImmutable(node.getType())) {
+			return node;
+		}
+		final Object value;
+		try {
+			final TransformLangExecutor evaluator = new TransformLangExecutor(parser, graph);
+			node.jjtAccept(evaluator, null);
+			value = evaluator.getResult();
+		} catch (RuntimeException e) {
+			// the expression will fail at runtime
+			return node;
+		}
+		return createLiteral(node, value, "constant expression");
+	}
+
+	private SimpleNode foldFunctionCall(CLVFFunctionCall node) {
+		if (!node.isExternal() || !isImmutable(node.getType()) || !isPure(node.getExternalFunction())) {
+			return node;
+		}
+		final Node arguments = node.jjtGetChild(0);
+		if (!hasLiteralChildren(arguments)) {
+			return node;
+		}
+		final Object value;
+		try {
+			final Stack stack = new Stack();
+			for (int i = 0; i < arguments.jjtGetNumChildren(); i++) {
+				stack.push(((CLVFLiteral) arguments.jjtGetChild(i)).getValue());
+			}
+			final TLFunctionCallContext context = node.getFunctionCallContext();
+			context.setGraph(graph);
+			context.setTransformationContext(transformationContext);
+			final TLFunctionPrototype executable = node.getExternalFunction().getExecutable();
+			executable.init(context);
+			executable.execute(stack, context);
+			value = stack.pop();
+		} catch (RuntimeException e) {
+			// the function call will fail at runtime
+			return node;
+		}
+		return createLiteral(node, value, "call of " + node.getName() + "()");
+	}
+
+	private static boolean isPure(TLFunctionDescriptor function) {
+		if (function == null || function.getLibrary() == null) {
+			return false;
+		}
+		final Set<String> functions = PURE_FUNCTIONS.get(function.getLibrary().getLibraryClassName());
+		return functions != null && functions.contains(function.getName());
+	}
+
+	private SimpleNode optimizeIf(CLVFIfStatement node) {
+		final Boolean condition = getBooleanLiteral(node.jjtGetChild(0));
+		if (condition == null) {
+			return node;
+		}
+		if (condition) {
+			if (node.jjtGetNumChildren() > 2) {
+				node.removeChild(2);
+				node.setElseScope(null);
+				report(node, "removed else branch of if statement with constant condition");
+			}
+			return node;
+		}
+		if (node.jjtGetNumChildren() > 2) {
+			// "if (false) A else B" is changed to "if (true) B", B keeps its scope
+			final SimpleNode elseBranch = (SimpleNode) node.removeChild(2);
+			node.jjtAddChild(elseBranch, 1);
+			node.setThenScope(node.getElseScope());
+			node.setElseScope(null);
+			final CLVFLiteral trueLiteral = createLiteral((SimpleNode) node.jjtGetChild(0), Boolean.TRUE);
+			trueLiteral.jjtSetParent(node);
+			node.jjtAddChild(trueLiteral, 0);
+			report(node, "removed then branch of if statement with constant condition");
+			return node;
+		}
+		final Node parent = node.jjtGetParent();
+		if (parent instanceof CLVFBlock || parent instanceof CLVFStart) {
+			report(node, "removed if statement with constant condition");
+			return null;
+		}
+		return node;
+	}
+
+	/**
+	 * Reduces ternary operator or iif() with a literal condition to one of its branches.
+	 *
+	 * @param node the conditional node
+	 * @param operands node containing condition and both branches
+	 */
+	private SimpleNode optimizeConditional(SimpleNode node, Node operands) {
+		if (operands.jjtGetNumChildren() != 3) {
+			return node;
+		}
+		final Boolean condition = getBooleanLiteral(operands.jjtGetChild(0));
+		if (condition == null) {
+			return node;
+		}
+		final SimpleNode branch = (SimpleNode) operands.jjtGetChild(condition ? 1 : 2);
+		// the branches are already cast to the type of the expression by TypeChecker
+		if (node.getType() == null || !node.getType().equals(branch.getType())) {
+			return node;
+		}
+		report(node, "conditional expression with constant condition reduced to its " + (condition ? "first" : "second") + " branch");
+		return branch;
+	}
+
+	/**
+	 * @param node && or || operator
+	 * @param shortCircuitValue value of the left operand which makes the evaluation of the right operand unnecessary
+	 */
+	private SimpleNode optimizeLogical(SimpleNode node, boolean shortCircuitValue) {
+		final SimpleNode lhs = (SimpleNode) node.jjtGetChild(0);
+		final SimpleNode rhs = (SimpleNode) node.jjtGetChild(1);
+		final Boolean lhsValue = getBooleanLiteral(lhs);
+		if (lhsValue != null) {
+			if (lhsValue == shortCircuitValue) {
+				return createLiteral(node, lhsValue, "logical expression");
+			}
+			report(node, "logical expression with constant operand reduced to its right operand");
+			return rhs;
+		}
+		// a constant right operand is kept, the operator fails on a null left operand
+		// while the left operand alone would pass the null on
+		return node;
+	}
+
+	private CLVFLiteral createLiteral(SimpleNode original, Object value, String description) {
+		final CLVFLiteral literal = createLiteral(original, value);
+		report(original, description + " replaced by literal '" + literal.getValue() + "'");
+		return literal;
+	}
+
+	private static CLVFLiteral createLiteral(SimpleNode original, Object value) {
+		if (value instanceof CharSequence) {
+			value = value.toString();
+		}
+		final TLType type = original.getType();
+		final CLVFLiteral literal = new CLVFLiteral(original.getParser(), TransformLangParserTreeConstants.JJTLITERAL);
+		literal.setValue(getTokenKind(type, value), String.valueOf(value));
+		literal.setValueDirect(value);
+		literal.setType(type);
+		literal.begin(original.getBegin().getLine(), original.getBegin().getColumn());
+		literal.end(original.getEnd().getLine(), original.getEnd().getColumn());
+		return literal;
+	}
+
+	private static int getTokenKind(TLType type, Object value) {
+		if (value == null) {
+			return TransformLangParserConstants.NULL_LITERAL;
+		} else if (type.isInteger()) {
+			return TransformLangParserConstants.INTEGER_LITERAL;
+		} else if (type.isLong()) {
+			return TransformLangParserConstants.LONG_LITERAL;
+		} else if (type.isDouble() || type.isDecimal()) {
+			return TransformLangParserConstants.FLOATING_POINT_LITERAL;
+		} else if (type.isBoolean()) {
+			return TransformLangParserConstants.BOOLEAN_LITERAL;
+		}
+		return TransformLangParserConstants.STRING_LITERAL;
+	}
+
+	private void report(SimpleNode node, String message) {
+		changeCount++;
+		if (logger.isDebugEnabled()) {
+			logger.debug("CTL optimizer: " + message + " (line " + node.getLine() + ", column " + node.getColumn() + ")");
+		}
+	}
+
+}
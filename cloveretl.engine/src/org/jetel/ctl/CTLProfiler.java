@@ -0,0 +1,155 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.ctl;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetel.ctl.ASTnode.SimpleNode;
+import org.jetel.graph.runtime.jmx.CTLProfileEntry;
+import org.jetel.graph.runtime.jmx.CTLProfileEntry.Kind;
+
+/**
+ * Instrumenting profiler of interpreted CTL code. {@link TransformLangExecutor} with a profiler
+ * measures each call of a function and each statement of a block and reports the elapsed time here.
+ *
+ * Times are inclusive - time of a function contains time of all functions called from it,
+ * time of a line contains time of nested blocks. Recursive calls are counted repeatedly.
+ *
+ * The measurements are reported by the thread executing the transformation, while
+ * {@link #getProfile()} is called by the watchdog, so all methods are synchronized.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class CTLProfiler {
+
+	private static class Counter {
+		final Kind kind;
+		final String name;
+		long count;
+		long time;
+
+		Counter(Kind kind, String name) {
+			this.kind = kind;
+			this.name = name;
+		}
+	}
+
+	/** function name -> counter */
+	private final Map<String, Counter> functions = new LinkedHashMap<String, Counter>();
+
+	/** line label -> counter */
+	private final Map<String, Counter> lines = new LinkedHashMap<String, Counter>();
+
+	/** statement -> counter of its line, avoids creation of the line label for each execution */
+	private final Map<SimpleNode, Counter> statements = new IdentityHashMap<SimpleNode, Counter>();
+
+	/**
+	 * Records a finished call of a function.
+	 *
+	 * @param name name of the function
+	 * @param startTime value of {@link System#nanoTime()} before the call
+	 */
+	public synchronized void functionFinished(String name, long startTime) {
+		long time = System.nanoTime() - startTime;
+		Counter counter = functions.get(name);
+		if (counter == null) {
+			counter = new Counter(Kind.FUNCTION, name);
+			functions.put(name, counter);
+		}
+		counter.count++;
+		counter.time += time;
+	}
+
+	/**
+	 * Records a finished execution of a statement.
+	 *
+	 * @param statement the executed statement
+	 * @param startTime value of {@link System#nanoTime()} before the execution
+	 */
+	public synchronized void statementFinished(SimpleNode statement, long startTime) {
+		long time = System.nanoTime() - startTime;
+		Counter counter = statements.get(statement);
+		if (counter == null) {
+			String label = (statement.getSourceFilename() != null ? statement.getSourceFilename() + ":" : "line ") + statement.getLine();
+			counter = lines.get(label);
+			if (counter == null) {
+				counter = new Counter(Kind.LINE, label);
+				lines.put(label, counter);
+			}
+			statements.put(statement, counter);
+		}
+		counter.count++;
+		counter.time += time;
+	}
+
+	/**
+	 * Discards all collected data, called at the start of each execution of the component.
+	 */
+	public synchronized void reset() {
+		functions.clear();
+		lines.clear();
+		statements.clear();
+	}
+
+	/**
+	 * @return snapshot of all functions followed by all lines, in the order of their first execution
+	 */
+	public synchronized CTLProfileEntry[] getProfile() {
+		List<CTLProfileEntry> result = new ArrayList<CTLProfileEntry>(functions.size() + lines.size());
+		for (Counter counter : functions.values()) {
+			result.add(new CTLProfileEntry(counter.kind, counter.name, counter.count, counter.time));
+		}
+		for (Counter counter : lines.values()) {
+			result.add(new CTLProfileEntry(counter.kind, counter.name, counter.count, counter.time));
+		}
+		return result.toArray(new CTLProfileEntry[result.size()]);
+	}
+
+	/**
+	 * Merges profiles of several CTL transformations of one component, entries
+	 * with the same kind and name are summed up.
+	 */
+	public static CTLProfileEntry[] merge(List<CTLProfiler> profilers) {
+		if (profilers.size() == 1) {
+			return profilers.get(0).getProfile();
+		}
+		Map<String, CTLProfileEntry> merged = new LinkedHashMap<String, CTLProfileEntry>();
+		for (CTLProfiler profiler : profilers) {
+			for (CTLProfileEntry entry : profiler.getProfile()) {
+				String key = entry.getKind() + entry.getName();
+				CTLProfileEntry previous = merged.get(key);
+				if (previous != null) {
+					entry = new CTLProfileEntry(entry.getKind(), entry.getName(),
+							previous.getInvocationCount() + entry.getInvocationCount(),
+							previous.getTotalTime() + entry.getTotalTime());
+				}
+				merged.put(key, entry);
+			}
+		}
+		return merged.values().toArray(new CTLProfileEntry[merged.size()]);
+	}
+
+}
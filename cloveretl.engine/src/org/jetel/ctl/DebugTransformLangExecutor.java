@@ -156,6 +156,8 @@ public class DebugTransformLangExecutor extends TransformLangExecutor implements
 		super(parser, graph, globalParameters);
 		this.curpoint = new Breakpoint(null, -1);
 		setStack(new DebugStack());
+		// every node must be visited to stop on breakpoints
+		this.unboxedEvaluation = false;
 	}
 	
 	public DebugTransformLangExecutor(TransformLangParser parser, TransformationGraph graph) {
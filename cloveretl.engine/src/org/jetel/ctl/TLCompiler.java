@@ -67,6 +67,7 @@ public class TLCompiler implements ITLCompiler {
 	private String sourceId;
 	private List<TLFunctionCallContext> functionContexts;
 	protected boolean lenient = false;
+	protected boolean optimize;
 
 	
 	/**
@@ -109,7 +110,8 @@ public class TLCompiler implements ITLCompiler {
 		this.encoding = encoding;
 		this.problemReporter = new ProblemReporter();
 		this.logger = LogFactory.getLog(TLCompiler.class);
-	}
+		this.optimize = Defaults.CTL.OPTIMIZE;
+	}
 	
 	/**
 	 * @param inMetadata the inMetadata to set
@@ -412,6 +414,13 @@ public class TLCompiler implements ITLCompiler {
 			executor = new DebugTransformLangExecutor(parser, graph);
 		} else {
 			executor = new TransformLangExecutor(parser, graph);
+			// the debugger needs the AST exactly as written
+			if (optimize) {
+				new ASTOptimizer(parser, graph, logger).optimize(ast);
+			}
+			if (Defaults.CTL.PROFILE || (graph != null && graph.getRuntimeContext().isCtlProfiling())) {
+				executor.setProfiler(new CTLProfiler());
+			}
 		}
 		if (this.ast instanceof CLVFStart ) {
 			executor.setAst((CLVFStart)ast);
@@ -447,6 +456,14 @@ public class TLCompiler implements ITLCompiler {
 		this.lenient = lenient;
 	}
 
+	/**
+	 * Enables or disables optimization of the AST by {@link ASTOptimizer}
+	 * in {@link #getCompiledCode()}. Default is given by {@link Defaults.CTL#OPTIMIZE}.
+	 */
+	public void setOptimize(boolean optimize) {
+		this.optimize = optimize;
+	}
+
 	/**
 	 * @return	Expression AST root created during {@link #validateExpression(InputStream)}
 	 */
@@ -110,8 +110,12 @@ import org.jetel.data.DataField;
 import org.jetel.data.DataFieldInvalidStateException;
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
+import org.jetel.data.DateDataField;
 import org.jetel.data.Defaults;
+import org.jetel.data.IntegerDataField;
+import org.jetel.data.LongDataField;
 import org.jetel.data.NullRecord;
+import org.jetel.data.NumericDataField;
 import org.jetel.data.RecordKey;
 import org.jetel.data.lookup.Lookup;
 import org.jetel.data.primitive.Decimal;
@@ -191,6 +195,16 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 	
 	protected TransformLangParser parser;
 	
+	/**
+	 * When true, integer, long and number arithmetic and comparisons are evaluated
+	 * on primitive values, intermediate results are not pushed onto the stack.
+	 * @see #evaluateInt(SimpleNode)
+	 */
+	protected boolean unboxedEvaluation = true;
+	
+	/** Profiler measuring function calls and statements, <code>null</code> if profiling is disabled */
+	protected CTLProfiler profiler;
+	
 	/** These variables are used for lazy initialization of lookup tables.
 	 *  @see #initializeLookupNode(CLVFLookupNode) */
 	private int lookupCounter;
@@ -345,6 +359,23 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 
 	public void setNode(org.jetel.graph.Node node) {
 		context.setNode(node);
+		if (profiler != null && node != null) {
+			node.registerCTLProfiler(profiler);
+		}
+	}
+
+	public CTLProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Enables profiling of function calls and statements. Must be called before {@link #setNode(org.jetel.graph.Node)}
+	 * to publish the profile in tracking of the component.
+	 * 
+	 * @param profiler profiler to be used, <code>null</code> disables profiling
+	 */
+	public void setProfiler(CTLProfiler profiler) {
+		this.profiler = profiler;
 	}
 
 	public Log getRuntimeLogger() {
@@ -655,6 +686,9 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 	
 	@Override
 	public Object visit(CLVFAddNode node, Object data) {
+		if (unboxedEvaluation && pushUnboxed(node)) {
+			return data;
+		}
 		node.jjtGetChild(0).jjtAccept(this, data);
 		node.jjtGetChild(1).jjtAccept(this, data);
 		
@@ -701,6 +735,9 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 			stack.push(IntegralLib.containsMatch(node.getComparisonContext(), input, pattern));
 			break;
 		default:
+			if (unboxedEvaluation && compareUnboxed(node)) {
+				break;
+			}
 			node.jjtGetChild(0).jjtAccept(this, data);
 			final Object lhs = stack.pop();
 			node.jjtGetChild(1).jjtAccept(this, data);
@@ -982,8 +1019,287 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 	}
 	
 
+	/*
+	 * Unboxed evaluation of numeric expressions.
+	 * 
+	 * Arithmetic nodes of type integer, long and number evaluate the whole subtree
+	 * of arithmetic operations, casts, literals and numeric field accesses on primitive values,
+	 * using the types computed by TypeChecker. Only the result of the outermost operation is boxed.
+	 * Other nodes are evaluated by the visitor as usual.
+	 * 
+	 * Runtime errors are reported for the same nodes as in the stack-based evaluation.
+	 */
+	
+	/**
+	 * @return true for arithmetic operation nodes which can be evaluated by {@link #evaluateInt(SimpleNode)}
+	 * 	and the related methods
+	 */
+	private static boolean isArithmetic(SimpleNode node) {
+		switch (node.getId()) {
+		case TransformLangParserTreeConstants.JJTADDNODE:
+		case TransformLangParserTreeConstants.JJTSUBNODE:
+		case TransformLangParserTreeConstants.JJTMULNODE:
+		case TransformLangParserTreeConstants.JJTDIVNODE:
+		case TransformLangParserTreeConstants.JJTMODNODE:
+			return true;
+		case TransformLangParserTreeConstants.JJTUNARYNONSTATEMENT:
+			return node instanceof CLVFUnaryNonStatement && ((CLVFUnaryNonStatement) node).getOperator() == MINUS;
+		default:
+			return false;
+		}
+	}
+	
+	/**
+	 * Evaluates arithmetic node of primitive type and pushes the result onto the stack.
+	 * 
+	 * @return false if the type of the node is not integer, long or number
+	 */
+	private boolean pushUnboxed(SimpleNode node) {
+		final TLType type = node.getType();
+		if (type.isInteger()) {
+			stack.push(evaluateInt(node));
+		} else if (type.isLong()) {
+			stack.push(evaluateLong(node));
+		} else if (type.isDouble()) {
+			stack.push(evaluateDouble(node));
+		} else {
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Reports exception thrown during the evaluation of the given node the same way
+	 * as {@link SimpleNode#jjtAccept(TransformLangParserVisitor, Object)}.
+	 */
+	private static TransformLangExecutorRuntimeException nodeException(SimpleNode node, RuntimeException e) {
+		if (e instanceof TransformLangExecutorRuntimeException) {
+			final TransformLangExecutorRuntimeException tle = (TransformLangExecutorRuntimeException) e;
+			if (tle.getNode() == null) {
+				tle.setNode(node);
+			}
+			return tle;
+		}
+		return new TransformLangExecutorRuntimeException(node, null, e);
+	}
+	
+	/**
+	 * @return field accessed by the node or null for record wildcards
+	 */
+	private DataField getAccessedField(CLVFFieldAccessExpression node) {
+		if (node.isWildcard()) {
+			return null;
+		}
+		final DataRecord record = node.isOutput() ? outputRecords[node.getRecordId()] : inputRecords[node.getRecordId()];
+		return record.getField(node.getFieldId());
+	}
+	
+	/**
+	 * Evaluates expression of type integer without boxing of intermediate results.
+	 */
+	protected int evaluateInt(SimpleNode node) {
+		if (isArithmetic(node) && node.getType().isInteger()) {
+			try {
+				switch (node.getId()) {
+				case TransformLangParserTreeConstants.JJTADDNODE:
+					return evaluateInt((SimpleNode) node.jjtGetChild(0)) + evaluateInt((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTSUBNODE:
+					return evaluateInt((SimpleNode) node.jjtGetChild(0)) - evaluateInt((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTMULNODE:
+					return evaluateInt((SimpleNode) node.jjtGetChild(0)) * evaluateInt((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTDIVNODE:
+					return evaluateInt((SimpleNode) node.jjtGetChild(0)) / evaluateInt((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTMODNODE:
+					return evaluateInt((SimpleNode) node.jjtGetChild(0)) % evaluateInt((SimpleNode) node.jjtGetChild(1));
+				default:
+					return - evaluateInt((SimpleNode) node.jjtGetChild(0));
+				}
+			} catch (RuntimeException e) {
+				throw nodeException(node, e);
+			}
+		}
+		if (node instanceof CLVFLiteral) {
+			return (Integer) ((CLVFLiteral) node).getValue();
+		}
+		if (node instanceof CLVFFieldAccessExpression) {
+			final DataField field = getAccessedField((CLVFFieldAccessExpression) node);
+			if (field instanceof IntegerDataField && !field.isNull()) {
+				return ((IntegerDataField) field).getInt();
+			}
+		}
+		node.jjtAccept(this, null);
+		return stack.popInt();
+	}
+	
+	/**
+	 * Evaluates expression of type long without boxing of intermediate results.
+	 */
+	protected long evaluateLong(SimpleNode node) {
+		if (isArithmetic(node) && node.getType().isLong()) {
+			try {
+				switch (node.getId()) {
+				case TransformLangParserTreeConstants.JJTADDNODE:
+					return evaluateLong((SimpleNode) node.jjtGetChild(0)) + evaluateLong((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTSUBNODE:
+					return evaluateLong((SimpleNode) node.jjtGetChild(0)) - evaluateLong((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTMULNODE:
+					return evaluateLong((SimpleNode) node.jjtGetChild(0)) * evaluateLong((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTDIVNODE:
+					return evaluateLong((SimpleNode) node.jjtGetChild(0)) / evaluateLong((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTMODNODE:
+					return evaluateLong((SimpleNode) node.jjtGetChild(0)) % evaluateLong((SimpleNode) node.jjtGetChild(1));
+				default:
+					return - evaluateLong((SimpleNode) node.jjtGetChild(0));
+				}
+			} catch (RuntimeException e) {
+				throw nodeException(node, e);
+			}
+		}
+		if (node instanceof CLVFLiteral) {
+			return (Long) ((CLVFLiteral) node).getValue();
+		}
+		if (node instanceof CastNode && ((CastNode) node).getFromType().isInteger()) {
+			return evaluateInt((SimpleNode) node.jjtGetChild(0));
+		}
+		if (node instanceof CLVFFieldAccessExpression) {
+			final DataField field = getAccessedField((CLVFFieldAccessExpression) node);
+			if (field instanceof LongDataField && !field.isNull()) {
+				return ((LongDataField) field).getLong();
+			}
+		}
+		node.jjtAccept(this, null);
+		return stack.popLong();
+	}
+	
+	/**
+	 * Evaluates expression of type number without boxing of intermediate results.
+	 */
+	protected double evaluateDouble(SimpleNode node) {
+		if (isArithmetic(node) && node.getType().isDouble()) {
+			try {
+				switch (node.getId()) {
+				case TransformLangParserTreeConstants.JJTADDNODE:
+					return evaluateDouble((SimpleNode) node.jjtGetChild(0)) + evaluateDouble((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTSUBNODE:
+					return evaluateDouble((SimpleNode) node.jjtGetChild(0)) - evaluateDouble((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTMULNODE:
+					return evaluateDouble((SimpleNode) node.jjtGetChild(0)) * evaluateDouble((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTDIVNODE:
+					return evaluateDouble((SimpleNode) node.jjtGetChild(0)) / evaluateDouble((SimpleNode) node.jjtGetChild(1));
+				case TransformLangParserTreeConstants.JJTMODNODE:
+					return evaluateDouble((SimpleNode) node.jjtGetChild(0)) % evaluateDouble((SimpleNode) node.jjtGetChild(1));
+				default:
+					return - evaluateDouble((SimpleNode) node.jjtGetChild(0));
+				}
+			} catch (RuntimeException e) {
+				throw nodeException(node, e);
+			}
+		}
+		if (node instanceof CLVFLiteral) {
+			return (Double) ((CLVFLiteral) node).getValue();
+		}
+		if (node instanceof CastNode) {
+			final TLType fromType = ((CastNode) node).getFromType();
+			if (fromType.isInteger()) {
+				return evaluateInt((SimpleNode) node.jjtGetChild(0));
+			} else if (fromType.isLong()) {
+				return evaluateLong((SimpleNode) node.jjtGetChild(0));
+			}
+		}
+		if (node instanceof CLVFFieldAccessExpression) {
+			final DataField field = getAccessedField((CLVFFieldAccessExpression) node);
+			if (field instanceof NumericDataField && !field.isNull()) {
+				return ((NumericDataField) field).getDouble();
+			}
+		}
+		node.jjtAccept(this, null);
+		return stack.popDouble();
+	}
+	
+	/**
+	 * @return true if the expression evaluates either to a non-null value or throws an exception
+	 */
+	private static boolean isNonNull(SimpleNode node) {
+		if (isArithmetic(node)) {
+			return true;
+		}
+		if (node instanceof CLVFLiteral) {
+			return ((CLVFLiteral) node).getValue() != null;
+		}
+		if (node instanceof CastNode) {
+			return isNonNull((SimpleNode) node.jjtGetChild(0));
+		}
+		return false;
+	}
+	
+	/**
+	 * Compares integer, long or number operands which cannot be null on primitive values
+	 * and pushes the result onto the stack.
+	 * 
+	 * @return false if the comparison must be evaluated by {@link #compare(Object, Object, TLType, int)}
+	 */
+	private boolean compareUnboxed(CLVFComparison node) {
+		final TLType operationType = node.getOperationType();
+		final SimpleNode lhs = (SimpleNode) node.jjtGetChild(0);
+		final SimpleNode rhs = (SimpleNode) node.jjtGetChild(1);
+		if (!isNonNull(lhs) || !isNonNull(rhs)) {
+			return false;
+		}
+		if (operationType.isInteger()) {
+			stack.push(compareLong(evaluateInt(lhs), evaluateInt(rhs), node.getOperator()));
+		} else if (operationType.isLong()) {
+			stack.push(compareLong(evaluateLong(lhs), evaluateLong(rhs), node.getOperator()));
+		} else if (operationType.isDouble()) {
+			stack.push(compareDouble(evaluateDouble(lhs), evaluateDouble(rhs), node.getOperator()));
+		} else {
+			return false;
+		}
+		return true;
+	}
+	
+	private static boolean compareLong(long lhs, long rhs, int operator) {
+		switch (operator) {
+		case EQUAL:
+			return lhs == rhs;
+		case LESS_THAN:
+			return lhs < rhs;
+		case GREATER_THAN:
+			return lhs > rhs;
+		case LESS_THAN_EQUAL:
+			return lhs <= rhs;
+		case GREATER_THAN_EQUAL:
+			return lhs >= rhs;
+		case NON_EQUAL:
+			return lhs != rhs;
+		default:
+			throw new RuntimeException("Internal error - Unsupported comparison operator !");
+		}
+	}
+	
+	private static boolean compareDouble(double lhs, double rhs, int operator) {
+		switch (operator) {
+		case EQUAL:
+			return lhs == rhs;
+		case LESS_THAN:
+			return lhs < rhs;
+		case GREATER_THAN:
+			return lhs > rhs;
+		case LESS_THAN_EQUAL:
+			return lhs <= rhs;
+		case GREATER_THAN_EQUAL:
+			return lhs >= rhs;
+		case NON_EQUAL:
+			return lhs != rhs;
+		default:
+			throw new RuntimeException("Internal error - Unsupported comparison operator !");
+		}
+	}
+
 	@Override
 	public Object visit(CLVFSubNode node, Object data) {
+		if (unboxedEvaluation && pushUnboxed(node)) {
+			return data;
+		}
 		node.jjtGetChild(0).jjtAccept(this, data);
 		node.jjtGetChild(1).jjtAccept(this, data);
 		
@@ -1016,6 +1332,9 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 
 	@Override
 	public Object visit(CLVFMulNode node, Object data) {
+		if (unboxedEvaluation && pushUnboxed(node)) {
+			return data;
+		}
 		node.jjtGetChild(0).jjtAccept(this, data);
 		node.jjtGetChild(1).jjtAccept(this, data);
 		
@@ -1048,6 +1367,9 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 
 	@Override
 	public Object visit(CLVFDivNode node, Object data) {
+		if (unboxedEvaluation && pushUnboxed(node)) {
+			return data;
+		}
 		node.jjtGetChild(0).jjtAccept(this, data);
 		node.jjtGetChild(1).jjtAccept(this, data);
 		
@@ -1080,6 +1402,9 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 
 	@Override
 	public Object visit(CLVFModNode node, Object data) {
+		if (unboxedEvaluation && pushUnboxed(node)) {
+			return data;
+		}
 		node.jjtGetChild(0).jjtAccept(this, data);
 		node.jjtGetChild(1).jjtAccept(this, data);
 		
@@ -1570,7 +1895,16 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 		final int childCount = node.jjtGetNumChildren();
 		for (int i = 0; i < childCount; i++) {
 			// block is responsible for cleaning up results of statement expression
-			executeAndCleanup(node.jjtGetChild(i), data);
+			if (profiler != null) {
+				final long startTime = System.nanoTime();
+				try {
+					executeAndCleanup(node.jjtGetChild(i), data);
+				} finally {
+					profiler.statementFinished((SimpleNode) node.jjtGetChild(i), startTime);
+				}
+			} else {
+				executeAndCleanup(node.jjtGetChild(i), data);
+			}
 			if (breakFlag) {
 				return data;
 			}
@@ -2363,6 +2697,9 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 
 	@Override
 	public Object visit(CLVFUnaryNonStatement node, Object data) {
+		if (unboxedEvaluation && node.getOperator() == MINUS && pushUnboxed(node)) {
+			return data;
+		}
 		final SimpleNode child = (SimpleNode)node.jjtGetChild(0);
 		child.jjtAccept(this, data);
 
@@ -2511,6 +2848,8 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 			return field.getValue();
 
 		case DATE:
+			// the field holds primitive value, CTL needs its own mutable instance
+			return new Date(((DateDataField) field).getTime());
 		case BYTE:
 		case CBYTE:
 			return field.getValueDuplicate(); // FIXME maybe not necessary
@@ -2654,13 +2993,27 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 	public Object visit(CLVFFunctionCall node, Object data) {
 		checkInterrupt();
 		node.jjtGetChild(0).jjtAccept(this, data);
+		if (profiler != null) {
+			// arguments are measured by their own calls
+			final long startTime = System.nanoTime();
+			try {
+				executeFunctionCall(node);
+			} finally {
+				profiler.functionFinished(node.getName(), startTime);
+			}
+		} else {
+			executeFunctionCall(node);
+		}
+		return data;
+	}
+	
+	private void executeFunctionCall(CLVFFunctionCall node) {
 		if (node.isExternal()) {
 			assert node.getFunctionCallContext().getGraph() != null : "Graph is null";
 			node.getExecutable().execute(stack, node.getFunctionCallContext());
 		} else {
 			executeFunction(node);
 		}
-		return data;
 	}
 
 	
@@ -2741,6 +3094,19 @@ public class TransformLangExecutor implements TransformLangParserVisitor, Transf
 	}
 	
 	public void executeFunction(CLVFFunctionDeclaration node, Object[] data) {
+		if (profiler != null) {
+			final long startTime = System.nanoTime();
+			try {
+				executeFunctionInternal(node, data);
+			} finally {
+				profiler.functionFinished(node.getName(), startTime);
+			}
+		} else {
+			executeFunctionInternal(node, data);
+		}
+	}
+
+	private void executeFunctionInternal(CLVFFunctionDeclaration node, Object[] data) {
 		final CLVFParameters formal = (CLVFParameters)node.jjtGetChild(1);
 		stack.enteredBlock(node.getScope());
 		
@@ -18,7 +18,21 @@
  */
 package org.jetel.ctl.extensions;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jetel.data.Defaults;
+
 /**
+ * Base class of objects cached by a CTL function call.
+ * 
+ * Values created for non-literal arguments (compiled patterns, formatters etc.)
+ * can be kept in a bounded LRU cache using {@link #getEntry(Object)} and {@link #putEntry(Object, Object)},
+ * so that a function called with a few alternating arguments does not create them repeatedly.
+ * The size of the cache is given by {@link Defaults.CTL#DYNAMIC_ARGUMENT_CACHE_SIZE}.
+ * Hit and miss counts of non-literal arguments are available for inspection.
+ * 
  * @author jakub (jakub.lehotsky@javlin.eu)
  *         (c) Javlin, a.s. (www.cloveretl.com)
  *
@@ -26,4 +40,107 @@ package org.jetel.ctl.extensions;
  */
 abstract public class TLCache {
 
+	/** values created for non-literal arguments in access order, created lazily */
+	private LRUMap entries;
+	
+	private long hitCount = 0;
+	
+	private long missCount = 0;
+	
+	/**
+	 * Returns the value cached for the given key and updates the hit and miss counts.
+	 * 
+	 * @param key - non-literal arguments, see {@link #key(Object...)}
+	 * @return cached value or <code>null</code>
+	 */
+	protected Object getEntry(Object key) {
+		Object value = (entries != null) ? entries.get(key) : null;
+		if (value != null) {
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return value;
+	}
+	
+	/**
+	 * Stores the value created for the given key,
+	 * evicts the least recently used entry if the cache is full.
+	 * 
+	 * @param key - non-literal arguments, see {@link #key(Object...)}
+	 * @param value - the value
+	 */
+	protected void putEntry(Object key, Object value) {
+		if (entries == null) {
+			entries = new LRUMap(Math.max(Defaults.CTL.DYNAMIC_ARGUMENT_CACHE_SIZE, 1));
+		}
+		entries.put(key, value);
+	}
+	
+	/**
+	 * Records a hit of the value created for the most recent arguments,
+	 * which is typically checked before the LRU cache.
+	 */
+	protected void recordHit() {
+		hitCount++;
+	}
+	
+	/**
+	 * Removes all cached entries, the counters are preserved.
+	 */
+	protected void clearEntries() {
+		if (entries != null) {
+			entries.clear();
+		}
+	}
+	
+	/**
+	 * Creates a cache key from several arguments, <code>null</code> arguments are allowed.
+	 * 
+	 * @param arguments
+	 * @return key for {@link #getEntry(Object)} and {@link #putEntry(Object, Object)}
+	 */
+	protected static Object key(Object... arguments) {
+		return Arrays.asList(arguments);
+	}
+	
+	/**
+	 * @return number of calls with non-literal arguments answered from the cache
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+	
+	/**
+	 * @return number of calls with non-literal arguments that had to create a new value
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+	
+	/**
+	 * @return current number of entries in the LRU cache
+	 */
+	public int getEntryCount() {
+		return (entries != null) ? entries.size() : 0;
+	}
+	
+	private static class LRUMap extends LinkedHashMap<Object, Object> {
+
+		private static final long serialVersionUID = 1L;
+		
+		private final int maxSize;
+
+		public LRUMap(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+			return size() > maxSize;
+		}
+		
+	}
+
 }
@@ -19,6 +19,7 @@
 package org.jetel.ctl.extensions;
 
 import java.util.Calendar;
+import java.util.Objects;
 
 import org.jetel.util.MiscUtils;
 
@@ -32,6 +33,10 @@ import org.jetel.util.MiscUtils;
 public class TLCalendarCache extends TLFormatterCache {
 	
 	private Calendar cachedCalendar;
+	
+	/** non-literal arguments of {@link #cachedCalendar} */
+	private String cachedLocaleString;
+	private String cachedTimeZoneString;
 
 	public TLCalendarCache(TLFunctionCallContext context) {
 		super(context);
@@ -80,6 +85,8 @@ public class TLCalendarCache extends TLFormatterCache {
 		}
 		
 		cachedCalendar = MiscUtils.createCalendar(getLocale(localeStr), getTimeZone(timeZoneStr));
+		cachedLocaleString = localeStr;
+		cachedTimeZoneString = timeZoneStr;
 	}
 	
 	public Calendar getCalendar() {
@@ -95,11 +102,11 @@ public class TLCalendarCache extends TLFormatterCache {
 	 * @return
 	 */
 	public Calendar getCachedCalendar(TLFunctionCallContext context, String locale, int localePosition) {
-		if (context.isLiteral(localePosition) || (cachedCalendar != null && locale.equals(previousLocaleString))) {
+		if (context.isLiteral(localePosition)) {
 			return cachedCalendar;
 		} else {
-			cachedCalendar = MiscUtils.createCalendar(getLocale(locale), context.getDefaultTimeZone());
-			return cachedCalendar;
+			// default time zone is used
+			return getDynamicCalendar(locale, null);
 		}
 	}
 
@@ -112,11 +119,33 @@ public class TLCalendarCache extends TLFormatterCache {
 	 * @return
 	 */
 	public Calendar getCachedCalendarWithTimeZone(TLFunctionCallContext context, String timeZone, int timeZonePosition) {
-		if ((context.getLiteralsSize() > timeZonePosition) && context.isLiteral(timeZonePosition) || (cachedCalendar != null && ((timeZone == previousTimeZoneString) || timeZone.equals(previousTimeZoneString)))) {
+		if ((context.getLiteralsSize() > timeZonePosition) && context.isLiteral(timeZonePosition)) {
 			return cachedCalendar;
 		} else {
-			cachedCalendar = MiscUtils.createCalendar(context.getDefaultLocale(), getTimeZone(timeZone));
+			// default locale is used
+			return getDynamicCalendar(null, timeZone);
+		}
+	}
+	
+	/**
+	 * Returns the calendar for non-literal arguments. The calendar for the previous inputs
+	 * is reused if the current ones match, recently used calendars are taken from the LRU cache.
+	 * <code>null</code> locale or time zone means the default one from the context.
+	 */
+	private Calendar getDynamicCalendar(String locale, String timeZone) {
+		if (cachedCalendar != null && Objects.equals(locale, cachedLocaleString) && Objects.equals(timeZone, cachedTimeZoneString)) {
+			recordHit();
 			return cachedCalendar;
 		}
+		Object key = key(locale, timeZone);
+		Calendar calendar = (Calendar) getEntry(key);
+		if (calendar == null) {
+			calendar = MiscUtils.createCalendar(getLocale(locale), getTimeZone(timeZone));
+			putEntry(key, calendar);
+		}
+		cachedCalendar = calendar;
+		cachedLocaleString = locale;
+		cachedTimeZoneString = timeZone;
+		return calendar;
 	}
 }
@@ -34,6 +34,11 @@ public class TLDateFormatLocaleCache extends TLFormatterCache {
 
 	private DateFormatter cachedFormatter;
 	
+	/** non-literal arguments of {@link #cachedFormatter} */
+	private String cachedFormatString;
+	private String cachedLocaleString;
+	private String cachedTimeZoneString;
+	
 	private TLDateFormatLocaleCache(TLFunctionCallContext context) {
 		super(context);
 	}
@@ -96,24 +101,12 @@ public class TLDateFormatLocaleCache extends TLFormatterCache {
 			String format, String localeString, String timeZoneString,
 			int patternPos, int localePos, int timeZonePos) {
 		// if we use the variant with format, locale and time zone specified
-		if ((context.isLiteral(patternPos) && context.isLiteral(localePos) && context.isLiteral(timeZonePos))
-				// either format, locale and timeZone were literals (thus cached at init)
-					
-				|| (cachedFormatter != null 
-						&& format.equals(cachedFormatter.getPattern()) 
-						// careful when locale or timeZone is null! See test_convertlib_date2str.ctl
-						&& Objects.equals(localeString, previousLocaleString)
-						&& Objects.equals(timeZoneString, previousTimeZoneString)
-					)
-				// or format is already cached and previous inputs match the current ones
-				)
-		{
+		if (context.isLiteral(patternPos) && context.isLiteral(localePos) && context.isLiteral(timeZonePos)) {
+			// either format, locale and timeZone were literals (thus cached at init)
 			return cachedFormatter;
 		} else {
-			// otherwise we have to recompute cache and remember just in the case future input will be the same
-			cachedFormatter = DateFormatterFactory.getFormatter(format, getLocale(localeString), getTimeZone(timeZoneString));
-
-			return cachedFormatter;
+			// careful when locale or timeZone is null! See test_convertlib_date2str.ctl
+			return getDynamicFormatter(format, localeString, timeZoneString);
 		}
 	}
 	
@@ -121,41 +114,52 @@ public class TLDateFormatLocaleCache extends TLFormatterCache {
 			String format, String locale,
 			int patternPos, int localePos) {
 		// we use the variant with format and locale specified
-		if ((context.isLiteral(patternPos) && context.isLiteral(localePos))
-				// either format, locale and timeZone were literals (thus cached at init)
-					
-				|| (cachedFormatter != null 
-						&& format.equals(cachedFormatter.getPattern()) 
-						// careful when locale or timeZone is null! See test_convertlib_date2str.ctl
-						&& Objects.equals(locale, previousLocaleString)
-					)
-				// or format is already cached and previous inputs match the current ones
-				)
-			{
-				return cachedFormatter;
-			} else {
-				// otherwise we have to recompute cache and remember just in the case future input will be the same
-				cachedFormatter = DateFormatterFactory.getFormatter(format, getLocale(locale), context.getDefaultTimeZone());
-
-				return cachedFormatter;
-			}
+		if (context.isLiteral(patternPos) && context.isLiteral(localePos)) {
+			// either format and locale were literals (thus cached at init)
+			return cachedFormatter;
+		} else {
+			// default time zone is used
+			return getDynamicFormatter(format, locale, null);
+		}
 	}
 
 	private DateFormatter getCachedFormatter1(TLFunctionCallContext context, 
 			String format, 
 			int patternPos) {
 		// just format is specified, but not locale
-		if (context.isLiteral(patternPos) 
-				|| (cachedFormatter != null && format.equals(cachedFormatter.getPattern()))
-			) 
-		{
+		if (context.isLiteral(patternPos)) {
 			return cachedFormatter;
 		} else {
 			// same as above but just for format (default locale and time zone is used) 
-			cachedFormatter = DateFormatterFactory.getFormatter(format, context.getDefaultLocale(), context.getDefaultTimeZone());
-
-			return cachedFormatter;				
+			return getDynamicFormatter(format, null, null);
+		}
+	}
+	
+	/**
+	 * Returns the formatter for non-literal arguments. The formatter for the previous inputs
+	 * is reused if the current ones match, recently used formatters are taken from the LRU cache.
+	 * <code>null</code> locale or time zone means the default one from the context.
+	 */
+	private DateFormatter getDynamicFormatter(String format, String localeString, String timeZoneString) {
+		if (cachedFormatter != null
+				&& Objects.equals(format, cachedFormatString)
+				&& Objects.equals(localeString, cachedLocaleString)
+				&& Objects.equals(timeZoneString, cachedTimeZoneString)) {
+			recordHit();
+			return cachedFormatter;
+		}
+		Object key = key(format, localeString, timeZoneString);
+		DateFormatter formatter = (DateFormatter) getEntry(key);
+		if (formatter == null) {
+			// otherwise we have to recompute cache and remember just in the case future input will be the same
+			formatter = DateFormatterFactory.getFormatter(format, getLocale(localeString), getTimeZone(timeZoneString));
+			putEntry(key, formatter);
 		}
+		cachedFormatter = formatter;
+		cachedFormatString = format;
+		cachedLocaleString = localeString;
+		cachedTimeZoneString = timeZoneString;
+		return formatter;
 	}
 
 	/**
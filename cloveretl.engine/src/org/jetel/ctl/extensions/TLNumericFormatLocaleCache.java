@@ -19,6 +19,7 @@
 package org.jetel.ctl.extensions;
 
 import java.util.Locale;
+import java.util.Objects;
 
 import org.jetel.ctl.TransformLangExecutorRuntimeException;
 import org.jetel.util.formatter.NumericFormatter;
@@ -34,6 +35,7 @@ public class TLNumericFormatLocaleCache extends TLFormatterCache {
 	
 	private NumericFormatter cachedFormatter;
 	private String previousFormatString;
+	private String previousFormatLocaleString;
 	private boolean isDecimal;
 	
 	/**
@@ -78,34 +80,47 @@ public class TLNumericFormatLocaleCache extends TLFormatterCache {
 
 		if (context.getLiteralsSize() > Math.max(patternPos, localePos)) {
 			// if we use the variant with both format and locale specified
-			if (cachedFormatter != null && 
-					((context.isLiteral(patternPos) && context.isLiteral(localePos))
-					// either both format and locale were literals (thus cached at init)
-					|| (cachedFormatter != null && format.equals(previousFormatString) && locale.equals(previousLocaleString))
-					// or format is already cached and previous inputs match the current ones
-			)) {
+			if (cachedFormatter != null && context.isLiteral(patternPos) && context.isLiteral(localePos)) {
+				// both format and locale were literals (thus cached at init)
 				return cachedFormatter;
 			} else {
-				// otherwise we have to recompute cache and remember just in the case future input will be the same
-				prepareCachedFormatter(context, format, getLocale(locale));
-				previousFormatString = format;
-				return cachedFormatter;
+				return getDynamicFormatter(context, format, locale);
 			}
 		}
 		if (context.getLiteralsSize() > patternPos && context.getLiteralsSize() <= localePos) {
 			// just format is specified, but not locale
-			if (cachedFormatter != null &&
-					(context.isLiteral(patternPos) || (cachedFormatter != null && format.equals(previousFormatString)))) {
+			if (cachedFormatter != null && context.isLiteral(patternPos)) {
 				return cachedFormatter;
 			} else {
 				// same as above but just for format (default locale is used)
-				prepareCachedFormatter(context, format, null);
-				previousFormatString = format;
-				return cachedFormatter;
+				return getDynamicFormatter(context, format, null);
 			}
 		}
 		throw new TransformLangExecutorRuntimeException("Format not correctly specified for the number.");
-	}
+	}
+	
+	/**
+	 * Returns the formatter for non-literal arguments. The formatter for the previous inputs
+	 * is reused if the current ones match, recently used formatters are taken from the LRU cache.
+	 */
+	private NumericFormatter getDynamicFormatter(TLFunctionCallContext context, String format, String locale) {
+		if (cachedFormatter != null && Objects.equals(format, previousFormatString) && Objects.equals(locale, previousFormatLocaleString)) {
+			recordHit();
+			return cachedFormatter;
+		}
+		Object key = key(format, locale);
+		NumericFormatter formatter = (NumericFormatter) getEntry(key);
+		if (formatter == null) {
+			// otherwise we have to recompute cache and remember just in the case future input will be the same
+			prepareCachedFormatter(context, format, getLocale(locale));
+			putEntry(key, cachedFormatter);
+		} else {
+			cachedFormatter = formatter;
+		}
+		previousFormatString = format;
+		previousFormatLocaleString = locale;
+		return cachedFormatter;
+	}
 	
 	private void prepareCachedFormatter(TLFunctionCallContext context, String format, Locale locale) {
 		if (!isDecimal) {
@@ -119,6 +134,7 @@ public class TLNumericFormatLocaleCache extends TLFormatterCache {
 		if (this.isDecimal != isDecimal) {
 			this.isDecimal = isDecimal;
 			cachedFormatter = null;
+			clearEntries();
 		}
 	}
 
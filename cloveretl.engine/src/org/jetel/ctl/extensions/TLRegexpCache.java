@@ -56,26 +56,38 @@ public class TLRegexpCache extends TLCache {
 
 	
 	public Pattern getCachedPattern(TLFunctionCallContext context, String pattern) {
-
-		if (context.isLiteral(1) || (cachedPattern != null && pattern.equals(previousPatternString))) {
-			return cachedPattern; 
-		} else {
-			cachedPattern = compilePattern(pattern);
-			cachedMatcher = cachedPattern.matcher("");
-			previousPatternString = pattern;
-			return cachedPattern;
+		if (!context.isLiteral(1)) {
+			updateCachedPattern(pattern);
 		}
+		return cachedPattern;
 	}
 	
 	public Matcher getCachedMatcher(TLFunctionCallContext context, String pattern) {
-		if (context.isLiteral(1) || (cachedPattern != null && pattern.equals(previousPatternString))) {
-			return cachedMatcher; 
-		} else {
-			cachedPattern = compilePattern(pattern);
-			cachedMatcher = cachedPattern.matcher("");
-			previousPatternString = pattern;
-			return cachedMatcher;
+		if (!context.isLiteral(1)) {
+			updateCachedPattern(pattern);
+		}
+		return cachedMatcher;
+	}
+	
+	/**
+	 * Sets the pattern and matcher for a non-literal regular expression,
+	 * recently used patterns are taken from the LRU cache.
+	 * 
+	 * @param pattern
+	 */
+	private void updateCachedPattern(String pattern) {
+		if (cachedPattern != null && pattern != null && pattern.equals(previousPatternString)) {
+			recordHit();
+			return;
+		}
+		Matcher matcher = (Matcher) getEntry(pattern);
+		if (matcher == null) {
+			matcher = compilePattern(pattern).matcher("");
+			putEntry(pattern, matcher);
 		}
+		cachedPattern = matcher.pattern();
+		cachedMatcher = matcher;
+		previousPatternString = pattern;
 	}
 	
 	/**
@@ -19,7 +19,6 @@
 package org.jetel.data;
 
 import java.nio.BufferOverflowException;
-import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Date;
 
@@ -51,8 +50,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 @CloverPublicAPI
 public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 	
-	/** the actual date value */
-	private Date value;
+	/** the actual date value - number of milliseconds since January 1, 1970, 00:00:00 GMT */
+	private long value;
 	/** the date formatter used to format this field */
 	private DateFormatter dateFormatter;
 
@@ -102,23 +101,20 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 	 * 
 	 * @param metadata
 	 * @param value
+	 * @param isNull
 	 * @param dateTimeFormatter
-	 * @param dateFormat
 	 */
-	private DateDataField(DataFieldMetadata metadata, Date value, DateFormatter dateFormatter) {
+	private DateDataField(DataFieldMetadata metadata, long value, boolean isNull, DateFormatter dateFormatter) {
 	    super(metadata);
 
-	    setValue(value);
-
+	    this.value = value;
+	    this.isNull = isNull;
 	    this.dateFormatter = dateFormatter;
 	}
 
 	@Override
 	public DataField duplicate(){
-	    DateDataField newField = new DateDataField(metadata, value, dateFormatter);
-	    newField.setNull(isNull());
-
-	    return newField;
+	    return new DateDataField(metadata, value, isNull(), dateFormatter);
 	}
 	
 	/**
@@ -131,11 +127,7 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 	public void copyFrom(DataField fromField){
 	    if (fromField instanceof DateDataField){
 	        if (!fromField.isNull()) {
-	        	if (this.value == null) {
-	        		this.value = new Date(((DateDataField)fromField).value.getTime());
-	        	} else {
-	            	this.value.setTime(((DateDataField)fromField).value.getTime());
-	        	}
+	        	this.value = ((DateDataField) fromField).value;
 	        }
 	        setNull(fromField.isNull());
 	    } else {
@@ -155,26 +147,10 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
         if(_value == null) {
             setNull(true);
         } else if(_value instanceof Date) {
-			if (value == null) {
-				value = new Date(((Date) _value).getTime());
-			} else {
-				value.setTime(((Date) _value).getTime());
-			}
-			setNull(false);
-		} else if (_value instanceof Timestamp) {
-		    if (value == null){
-				value = new Date(((Timestamp) _value).getTime());
-		    } else {
-		    	value.setTime(((Timestamp) _value).getTime());
-		    }
-		    setNull(false);
+        	// covers also java.sql.Timestamp and java.sql.Date
+			setValue(((Date) _value).getTime());
 		} else if (_value instanceof Calendar) {
-		    if (value == null) {
-				value = new Date(((Calendar) _value).getTimeInMillis());
-		    } else {
-		    	value.setTime(((Calendar) _value).getTimeInMillis());
-		    }
-		    setNull(false);
+			setValue(((Calendar) _value).getTimeInMillis());
 		}else if (_value instanceof Number){
 			setValue(((Number)_value).longValue());
 		}else {
@@ -188,11 +164,7 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
     public void setValue(DataField fromField) {
         if (fromField instanceof DateDataField){
             if (!fromField.isNull()) {
-                if (this.value == null) {
-                    this.value = new Date(((DateDataField)fromField).value.getTime());
-                } else {
-                    this.value.setTime(((DateDataField)fromField).value.getTime());
-                }
+                this.value = ((DateDataField) fromField).value;
             }
             setNull(fromField.isNull());
         } else {
@@ -206,25 +178,22 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 	 * @param time the number of milliseconds since January 1, 1970, 00:00:00 GM
 	 */
 	public void setValue(long time){
-	    if (value==null){
-			value = new Date(time);
-		}else{
-			value.setTime(time);
-		}
+		value = time;
 		setNull(false);
-	    
 	}
 
 
 	/**
-	 *  Gets the date represented by DateDataField object
+	 *  Gets the date represented by DateDataField object.
+	 *  A new {@link Date} instance is returned on each call,
+	 *  use {@link #getTime()} to avoid the allocation.
 	 *
 	 * @return    The Value value
 	 * @since     April 23, 2002
 	 */
 	@Override
 	public Date getValue() {
-		return isNull ? null : value;
+		return isNull ? null : new Date(value);
 	}
 
     /**
@@ -232,7 +201,7 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
      */
     @Override
 	public Date getValueDuplicate() {
-        return isNull ? null : new Date(value.getTime());
+        return isNull ? null : new Date(value);
     }
 
 	/**
@@ -241,22 +210,17 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 	 * @return    The date value
 	 */
 	public Date getDate() {
-		return isNull ? null : value;
+		return isNull ? null : new Date(value);
 	}
 
-
 	/**
-	 *  Sets the Null value indicator
-	 *
-	 * @param  isNull  The new Null value
-	 * @since          October 29, 2002
+	 * Returns the date value without creating any {@link Date} object.
+	 * The returned value is meaningless if the field is null.
+	 * 
+	 * @return the number of milliseconds since January 1, 1970, 00:00:00 GMT
 	 */
-	@Override
-	public void setNull(boolean isNull) {
-		super.setNull(isNull);
-		if (this.isNull) {
-			value = null;
-		}
+	public long getTime() {
+		return value;
 	}
     
     @Override
@@ -266,11 +230,7 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
             }else if (metadata.isDefaultValueSet()){
                 setToDefaultValue();
             }else{
-            	if (value == null) {
-            		value = new Date(0);
-            	}else{
-            		value.setTime(0);
-            	}
+            	value = 0;
             }
         }
 
@@ -298,7 +258,7 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 	 */
 	@Override
 	public String toString() {
-		if (value == null) {
+		if (isNull) {
 			return metadata.getNullValue();
 		}
 
@@ -313,12 +273,7 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 		}
 
 		try {
-			if (value == null) {
-				value = dateFormatter.parseDate(seq.toString());
-			} else {
-				value.setTime(dateFormatter.parseMillis(seq.toString()));
-			}
-
+			value = dateFormatter.parseMillis(seq.toString());
 			setNull(false);
 		} catch (IllegalArgumentException exception) {
 			throw new BadDataFormatException(String.format("%s (%s) cannot be set to \"%s\" - doesn't match defined format \"%s\"",
@@ -337,11 +292,7 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 	@Override
 	public void serialize(CloverBuffer buffer) {
 		try {
-			if (value != null) {
-				buffer.putLong(value.getTime());
-			} else {
-				buffer.putLong(DATE_NULL_VAL_SERIALIZED);
-			}
+			buffer.putLong(isNull ? DATE_NULL_VAL_SERIALIZED : value);
 		} catch (BufferOverflowException e) {
 			throw new RuntimeException("The size of data buffer is only " + buffer.maximumCapacity() + ". Set appropriate parameter in defaultProperties file.", e);
 		}
@@ -366,11 +317,7 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 			setNull(true);
 			return;
 		}
-		if (value == null) {
-			value = new Date(tmpl);
-		} else {
-			value.setTime(tmpl);
-		}
+		value = tmpl;
 		setNull(false);
 	}
 
@@ -392,11 +339,9 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 	    if (isNull || obj==null) return false;
 	    
 	    if (obj instanceof DateDataField){
-	        return (this.value.equals((((DateDataField) obj).value)));
+	        return !((DateDataField) obj).isNull() && this.value == ((DateDataField) obj).value;
 	    }else if (obj instanceof java.util.Date){
-	        return this.value.equals((java.util.Date) obj);
-	    }else if (obj instanceof java.sql.Date){
-	        return this.value.getTime()==((java.sql.Date)obj).getTime();
+	        return this.value == ((java.util.Date) obj).getTime();
 	    }else{
 	        return false;
 	    }
@@ -415,23 +360,21 @@ public class DateDataField extends DataFieldImpl implements Comparable<Object> {
 		if (obj == null) return 1;
 	    
 		if (obj instanceof java.util.Date){
-			return value.compareTo((java.util.Date) obj);
+			return Long.compare(value, ((java.util.Date) obj).getTime());
 		}else if (obj instanceof DateDataField){
 			if (!((DateDataField) obj).isNull()) {
-				return value.compareTo(((DateDataField) obj).value);
+				return Long.compare(value, ((DateDataField) obj).value);
 			}else{
 				return 1;
 			}
-		}else if (obj instanceof java.sql.Date){
-		    long result=value.getTime()-((java.sql.Date)obj).getTime();
-		    if (result>0) return 1; else if (result<0) return -1; else return 0;
 		}else throw new ClassCastException("Can't compare DateDataField and "+obj.getClass().getName());
 	}
 
 	
 	@Override
 	public int hashCode() {
-		return HashCodeUtil.hash(value);
+		// same as hash of the java.util.Date value
+		return isNull ? HashCodeUtil.hash((Object) null) : HashCodeUtil.hash(value);
 	}
 	
 	/**
@@ -242,6 +242,7 @@ public final class Defaults {
         DEFAULT_PATH_SEPARATOR_REGEX = getStringProperties("DEFAULT_FILENAME_SEPARATOR_REGEX", ";");
         DEFAULT_IOSTREAM_CHANNEL_BUFFER_SIZE = getIntProperties("DEFAULT_IOSTREAM_CHANNEL_BUFFER_SIZE", 2048);
         DEFAULT_PLUGINS_DIRECTORY = getStringProperties("DEFAULT_PLUGINS_DIRECTORY", "./plugins");
+        PLUGIN_REGISTRY_INDEX = getStringProperties("PLUGIN_REGISTRY_INDEX", "none");
 		DEFAULT_LICENSE_LOCATION = getStringProperties("DEFAULT_LICENSE_DIRECTORY", "./licenses");
         CLOVER_FIELD_INDICATOR = getStringProperties("CLOVER_FIELD_INDICATOR", "$");
         CLOVER_FIELD_REGEX = getStringProperties("CLOVER_FIELD_REGEX", "\\$[\\w]+");
@@ -249,8 +250,14 @@ public final class Defaults {
         INCREMENTAL_STORE_KEY = getStringProperties("INCREMENTAL_STORE_KEY", "incremental_store");
         PACKAGES_EXCLUDED_FROM_GREEDY_CLASS_LOADING = getStringProperties("PACKAGES_EXCLUDED_FROM_GREEDY_CLASS_LOADING", "java.;javax.;sun.misc.");
         USE_DIRECT_MEMORY = getBooleanProperties("USE_DIRECT_MEMORY", false);
+        DIRECT_MEMORY_POOL_SIZE = getLongProperties("DIRECT_MEMORY_POOL_SIZE", 0);
         USE_DYNAMIC_COMPILER = getBooleanProperties("USE_DYNAMIC_COMPILER", true);
         MAX_MAPPED_FILE_TRANSFER_SIZE = getIntProperties("MAX_MAPPED_FILE_TRANSFER_SIZE", 8388608);
+        GZIP_OUTPUT_THREADS = getIntProperties("GZIP_OUTPUT_THREADS", 1);
+        GZIP_OUTPUT_BLOCK_SIZE = getIntProperties("GZIP_OUTPUT_BLOCK_SIZE", 131072);
+        CLOVER_DATA_COMPRESSION_THREADS = getIntProperties("CLOVER_DATA_COMPRESSION_THREADS", 1);
+        CLOVER_DATA_DECOMPRESSION_THREADS = getIntProperties("CLOVER_DATA_DECOMPRESSION_THREADS", 1);
+        CLOVER_DATA_MEMORY_MAPPED = getBooleanProperties("CLOVER_DATA_MEMORY_MAPPED", false);
         
         
         Record.init();
@@ -264,11 +271,13 @@ public final class Defaults {
         GraphProperties.init();
         RequestParameters.init();
         InternalSortDataRecord.init();
+        ExternalSortDataRecord.init();
         Graph.init();
         OracleConnection.init();
         CTL.init();
         PortReadingWriting.init();
         ConnectionPool.init();
+        S3.init();
     }
 
 	/**
@@ -286,6 +295,34 @@ public final class Defaults {
 	 */
 	public static int MAX_MAPPED_FILE_TRANSFER_SIZE; // = 8 MB;
 
+	/**
+	 * Number of threads compressing gzip output, blocks of the output are compressed in parallel
+	 * if greater than 1. 0 means number of available processors.
+	 */
+	public static int GZIP_OUTPUT_THREADS; // = 1;
+
+	/**
+	 * Size of uncompressed blocks of gzip output compressed in parallel.
+	 */
+	public static int GZIP_OUTPUT_BLOCK_SIZE; // = 131072;
+
+	/**
+	 * Number of threads compressing data blocks of clover data files, the blocks are compressed
+	 * in parallel if greater than 1. 0 means number of available processors.
+	 */
+	public static int CLOVER_DATA_COMPRESSION_THREADS; // = 1;
+
+	/**
+	 * Number of threads decompressing data blocks of clover data files, the following blocks are read ahead
+	 * and decompressed in parallel if greater than 1. 0 means number of available processors.
+	 */
+	public static int CLOVER_DATA_DECOMPRESSION_THREADS; // = 1;
+
+	/**
+	 * If true, local uncompressed and LZ4 compressed clover data files are read via memory mapping.
+	 */
+	public static boolean CLOVER_DATA_MEMORY_MAPPED; // = false;
+
 	/**
 	 * Default path to external binary files.
 	 */
@@ -326,6 +363,14 @@ public final class Defaults {
 	 */
 	public static String DEFAULT_PLUGINS_DIRECTORY;// = "./plugins"
 
+	/**
+	 * Location of the precompiled plugin registry index, which speeds up engine startup.
+	 * The index is disabled by default (value 'none'). Value 'user' means the index is kept in directory
+	 * .cloveretl/plugin-registry in the user home, any other value is the path of the index file.
+	 * @see org.jetel.plugin.PluginRegistryIndex
+	 */
+	public static String PLUGIN_REGISTRY_INDEX;// = "none"
+
 	/**
 	 * List of directories, where licenses are located. Paths separator is defined in DEFAULT_PATH_SEPARATOR_REGEX
 	 * property.
@@ -366,6 +411,13 @@ public final class Defaults {
 	 * usage of direct memory in case OutOfMemory exception occurs. 
 	 */
 	public static boolean USE_DIRECT_MEMORY;// = true;
+
+	/**
+	 * Maximum number of bytes of idle direct buffers kept for reuse by
+	 * {@link org.jetel.util.bytes.PooledCloverBufferAllocator}. Direct {@link CloverBuffer}s
+	 * are recycled across components and graph runs if positive, 0 turns the pool off.
+	 */
+	public static long DIRECT_MEMORY_POOL_SIZE;// = 0;
 	
 	/**
 	 * Clover engine can use dynamic compiler functionality for runtime compilation
@@ -486,6 +538,8 @@ public final class Defaults {
 		public static void init() {
 			FIELD_BUFFER_LENGTH = getIntProperties(FIELD_BUFFER_LENGTH_KEY, 512);
 			DEFAULT_CHARSET_DECODER = getStringProperties(DEFAULT_CHARSET_DECODER_KEY, "UTF-8");
+			PREFETCH_DEPTH = getIntProperties("DataParser.PREFETCH_DEPTH", 0);
+			PREFETCH_BUFFER_SIZE = getIntProperties("DataParser.PREFETCH_BUFFER_SIZE", 65536);
 		}
 
 		/**
@@ -500,6 +554,18 @@ public final class Defaults {
 		 * default character-decoder to be used if not specified
 		 */
 		public static String DEFAULT_CHARSET_DECODER;// = "UTF-8";
+
+		/**
+		 * number of input files opened in the background while the current file is parsed,
+		 * 0 means the files are opened one by one
+		 * @see org.jetel.util.MultiFileReader#setPrefetchDepth(int)
+		 */
+		public static int PREFETCH_DEPTH;// = 0;
+
+		/**
+		 * number of bytes read ahead from each prefetched remote file
+		 */
+		public static int PREFETCH_BUFFER_SIZE;// = 65536;
 	}
 
 	/**
@@ -519,6 +585,7 @@ public final class Defaults {
 			FIELD_BUFFER_LENGTH = getIntProperties(FIELD_BUFFER_LENGTH_KEY, 512);
 			DELIMITER_DELIMITERS_REGEX = getStringProperties(DELIMITER_DELIMITERS_REGEX_KEY, "\\\\\\|");
 			DELIMITER_DELIMITERS = getStringProperties(DELIMITER_DELIMITERS_KEY, "\\\\|");
+			PARTITION_BUFFER_SIZE = getIntProperties("DataFormatter.PARTITION_BUFFER_SIZE", 16 * 1048576);
 		}
 
 		/**
@@ -543,6 +610,12 @@ public final class Defaults {
 		 * just a string representation of delimiter of delimiters  
 		 */
 		public static String DELIMITER_DELIMITERS;// = "\\\\|";
+
+		/**
+		 * Size of memory (in bytes) used for buffering of records of individual partitions
+		 * when partitioned output has limited number of open files.
+		 */
+		public static int PARTITION_BUFFER_SIZE;// = 16 * 1048576;
 	}
 
 	/**
@@ -724,6 +797,20 @@ public final class Defaults {
 		public static int DEFAULT_INTERNAL_SORT_BUFFER_CAPACITY;
 	}
 
+	public final static class ExternalSortDataRecord {
+		public static void init() {
+			MAX_NUMBER_OF_TAPES = getIntProperties("ExternalSortDataRecord.MAX_NUMBER_OF_TAPES", 64);
+		}
+
+		/**
+		 * Upper limit of tapes (temporary files opened at once) used by external sorting.
+		 * Tapes are added on demand up to this limit, or up to the number of tape buffers
+		 * which fit into 1/16 of the maximum heap size, whichever is lower. Number of tapes
+		 * set explicitly for a sorting component is used as the limit instead.
+		 */
+		public static int MAX_NUMBER_OF_TAPES;// = 64
+	}
+
 	public final static class Graph {
 		public static void init() {
 			DIRECT_EDGE_INTERNAL_BUFFER_SIZE = getIntProperties("Graph.DIRECT_EDGE_INTERNAL_BUFFER_SIZE",
@@ -736,6 +823,7 @@ public final class Defaults {
 					"Graph.DEFAULT_EDGE_DEBUGGING_MAX_RECORDS", 1000);
 		    DEFAULT_EDGE_DEBUGGING_MAX_BYTES = getIntProperties(
 					"Graph.DEFAULT_EDGE_DEBUGGING_MAX_BYTES", 1024 * 1024); // 1MB
+		    SPILL_COMPRESSION = getBooleanProperties("Graph.SPILL_COMPRESSION", false);
 
 		}
 
@@ -770,6 +858,13 @@ public final class Defaults {
 	     */
 	    public static int DEFAULT_EDGE_DEBUGGING_MAX_BYTES; // = 1024 * 1024; // 1MB
 
+	    /**
+	     * Default for compression of temporary files written by external sorting, phase edges
+	     * and buffered edges, can be changed for a graph run in GraphRuntimeContext.
+	     * LZ4 compression saves disk space and bandwidth at the cost of some CPU time.
+	     */
+	    public static boolean SPILL_COMPRESSION; // = false
+
 	}
 
 	public final static class OracleConnection {
@@ -807,6 +902,9 @@ public final class Defaults {
 		public static void init() {
 			VOID_METADATA_NAME = getStringProperties("TLCompiler.VOID_METADATA_NAME", "VoidMetadata");
 			DECIMAL_PRECISION = getIntProperties("CTL.DECIMAL_PRECISION", 32);
+			DYNAMIC_ARGUMENT_CACHE_SIZE = getIntProperties("CTL.DYNAMIC_ARGUMENT_CACHE_SIZE", 16);
+			OPTIMIZE = getBooleanProperties("CTL.OPTIMIZE", false);
+			PROFILE = getBooleanProperties("CTL.PROFILE", false);
 		}
 
 		/** The name of void metadata used by Rollup transforms when no group accumulator is used. */
@@ -817,6 +915,29 @@ public final class Defaults {
 		 * @see org.jetel.ctl.TransformLangExecutor.DECIMAL_MAX_PRECISION
 		 */
 		public static int DECIMAL_PRECISION; // = 32
+		
+		/**
+		 * Maximum number of regular expressions, date/number formatters and calendars
+		 * created for non-literal function arguments, which are cached by one function call.
+		 * The least recently used entries are evicted.
+		 * @see org.jetel.ctl.extensions.TLCache
+		 */
+		public static int DYNAMIC_ARGUMENT_CACHE_SIZE; // = 16
+
+		/**
+		 * Enables optimization of interpreted CTL code - constant folding and removal of dead branches.
+		 * Disabled by default.
+		 * @see org.jetel.ctl.ASTOptimizer
+		 */
+		public static boolean OPTIMIZE; // = false
+
+		/**
+		 * Enables profiling of interpreted CTL code in all graphs, the profile is published in tracking
+		 * of the components and logged at the end of the run.
+		 * @see org.jetel.ctl.CTLProfiler
+		 * @see org.jetel.graph.runtime.GraphRuntimeContext#setCtlProfiling(boolean)
+		 */
+		public static boolean PROFILE; // = false
 
 	}
 
@@ -871,4 +992,58 @@ public final class Defaults {
 		public static long CLEANUP_INTERVAL; // 1 * 60 * 1000L (1 minute)
 	}
 
+	public static final class S3 {
+		public static void init() {
+			STREAMING_UPLOAD = getBooleanProperties("S3.STREAMING_UPLOAD", false);
+			UPLOAD_PART_SIZE = getIntProperties("S3.UPLOAD_PART_SIZE", 8 * 1024 * 1024);
+			UPLOAD_MAX_PARTS_IN_FLIGHT = getIntProperties("S3.UPLOAD_MAX_PARTS_IN_FLIGHT", 4);
+			READ_AHEAD = getBooleanProperties("S3.READ_AHEAD", false);
+			READ_CHUNK_SIZE = getIntProperties("S3.READ_CHUNK_SIZE", 4 * 1024 * 1024);
+			READ_AHEAD_CHUNKS = getIntProperties("S3.READ_AHEAD_CHUNKS", 4);
+		}
+		
+		/**
+		 * If true, data written to S3 is uploaded in parts while it is being written.
+		 * Otherwise, the data is written to a temp file which is uploaded when the output stream is closed.
+		 * Disabled by default, the streaming mode keeps the parts on heap, see {@link #UPLOAD_MAX_PARTS_IN_FLIGHT}.
+		 * @see org.jetel.util.protocols.amazon.S3OutputStream
+		 */
+		public static boolean STREAMING_UPLOAD; // false
+		
+		/**
+		 * Initial size of parts of streaming upload in bytes, at least 5 MB.
+		 * The size is doubled after every 1000 parts, because the number of parts is limited to 10000.
+		 */
+		public static int UPLOAD_PART_SIZE; // 8 * 1024 * 1024 (8 MB)
+		
+		/**
+		 * Maximum number of parts of one streaming upload that are uploaded in parallel.
+		 * Each part in flight holds a buffer of the part size.
+		 * Every open output stream therefore needs up to (1 + UPLOAD_MAX_PARTS_IN_FLIGHT) * UPLOAD_PART_SIZE
+		 * bytes of heap, i.e. 40 MB with the default values, the part being filled included.
+		 * Writers with many open S3 targets (e.g. partitioned output) multiply this amount.
+		 */
+		public static int UPLOAD_MAX_PARTS_IN_FLIGHT; // 4
+		
+		/**
+		 * If true, S3 objects are read using concurrent ranged GET requests
+		 * of the chunks following the current position.
+		 * Otherwise, a single GET request is used for sequential reading.
+		 * Disabled by default, each reader costs an additional HEAD request of the object
+		 * and holds up to {@link #READ_AHEAD_CHUNKS} * {@link #READ_CHUNK_SIZE} bytes of heap (16 MB by default).
+		 */
+		public static boolean READ_AHEAD; // false
+		
+		/**
+		 * Size of one ranged GET request in bytes.
+		 */
+		public static int READ_CHUNK_SIZE; // 4 * 1024 * 1024 (4 MB)
+		
+		/**
+		 * Maximum number of chunks of one object requested in parallel.
+		 * Each chunk holds a buffer of the chunk size.
+		 */
+		public static int READ_AHEAD_CHUNKS; // 4
+	}
+
 }
@@ -24,6 +24,7 @@ import static org.jetel.util.bytes.ByteBufferUtils.encodeLength;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.LinkedList;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -31,10 +32,12 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.log4j.Logger;
 import org.jetel.exception.JetelRuntimeException;
 import org.jetel.graph.ContextProvider;
+import org.jetel.graph.Node;
 import org.jetel.graph.TransformationGraph;
 import org.jetel.graph.runtime.IAuthorityProxy;
 import org.jetel.util.bytes.ByteBufferUtils;
 import org.jetel.util.bytes.CloverBuffer;
+import org.jetel.util.stream.LZ4BlockCompressor;
 
 /**
  *  Class implementing DynamicRecordBuffer backed by temporary file - i.e. unlimited
@@ -630,6 +633,8 @@ public class DynamicRecordBuffer {
         private LinkedList<DiskSlot> fullFileBuffers;
         private int lastSlot;
         private TransformationGraph contextGraph; // context graph for creating the temp file (it's used for choosing temp dir on server)
+        private LZ4BlockCompressor compressor; // null if spill compression is disabled
+        private ByteBuffer compressedBuffer;
 
 		public TempFile(int slotSize, TransformationGraph contextGraph) {
 	        emptyFileBuffers = new LinkedList<DiskSlot>();
@@ -641,6 +646,10 @@ public class DynamicRecordBuffer {
 	        	contextGraph = ContextProvider.getGraph();
 	        }
 	        this.contextGraph = contextGraph;
+	        if (contextGraph != null ? contextGraph.getRuntimeContext().isSpillCompression() : Defaults.Graph.SPILL_COMPRESSION) {
+	        	compressor = new LZ4BlockCompressor();
+	        	compressedBuffer = ByteBuffer.allocate(slotSize);
+	        }
 		}
 		
 		private void open() {
@@ -677,9 +686,33 @@ public class DynamicRecordBuffer {
 			return slotSize;
 		}
 		
-		public void write(CloverBuffer cloverBuffer, long position) {
+		/**
+		 * @return number of bytes written to the file, lower than size of the data if they were compressed
+		 */
+		public int write(CloverBuffer cloverBuffer, long position) {
 			try {
-				tempFileChannel.write(cloverBuffer.buf(), position);
+				final int length = cloverBuffer.remaining();
+				int storedLength = -1;
+				if (compressor != null) {
+					compressedBuffer.clear();
+					// compressed data have to fit into the slot
+					compressedBuffer.limit(Math.min(length, slotSize));
+					storedLength = compressor.compress(cloverBuffer.buf(), compressedBuffer);
+				}
+				if (storedLength >= 0) {
+					compressedBuffer.flip();
+					tempFileChannel.write(compressedBuffer, position);
+				} else {
+					storedLength = length;
+					tempFileChannel.write(cloverBuffer.buf(), position);
+				}
+				if (compressor != null) {
+					Node node = ContextProvider.getNode();
+					if (node != null) {
+						node.addSpilledBytes(length, storedLength);
+					}
+				}
+				return storedLength;
 			} catch (IOException e) {
 				throw new JetelRuntimeException(e);
 			}
@@ -693,6 +726,22 @@ public class DynamicRecordBuffer {
 			}
 		}
 
+		/**
+		 * Reads data stored compressed by {@link #write(CloverBuffer, long)}, the buffer
+		 * has to have limit set to the size of the data.
+		 */
+		public void readCompressed(CloverBuffer cloverBuffer, long position, int storedLength) {
+			try {
+				compressedBuffer.clear();
+				compressedBuffer.limit(storedLength);
+				tempFileChannel.read(compressedBuffer, position);
+				compressedBuffer.flip();
+				compressor.decompress(compressedBuffer, storedLength, cloverBuffer.buf(), cloverBuffer.remaining());
+			} catch (IOException e) {
+				throw new JetelRuntimeException(e);
+			}
+		}
+
 		public DiskSlot getDiskSlotForWrite() {
 			DiskSlot diskSlot;
 			
@@ -728,6 +777,7 @@ public class DynamicRecordBuffer {
     	final TempFile tempFile;
     	final long offset;
         int usedBytes;
+        int storedBytes;
         
         DiskSlot(final TempFile tempFile, long offset) {
         	this.tempFile = tempFile;
@@ -736,13 +786,17 @@ public class DynamicRecordBuffer {
 
         void write(CloverBuffer cloverBuffer) {
 			usedBytes = cloverBuffer.limit();
-        	tempFile.write(cloverBuffer, offset);
+			storedBytes = tempFile.write(cloverBuffer, offset);
         }
 
         void read(CloverBuffer cloverBuffer) {
         	cloverBuffer.clear();
         	cloverBuffer.limit(usedBytes);
-        	tempFile.read(cloverBuffer, offset);
+        	if (storedBytes < usedBytes) {
+        		tempFile.readCompressed(cloverBuffer, offset, storedBytes);
+        	} else {
+        		tempFile.read(cloverBuffer, offset);
+        	}
         	cloverBuffer.flip();
         }
     }
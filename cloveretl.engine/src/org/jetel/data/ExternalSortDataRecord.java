@@ -40,7 +40,10 @@ import org.jetel.util.bytes.CloverBuffer;
  *  for merging phase.
  *  
  *  Now reading can start - during this phase, data are read
- *  from the disk from tapes and merged together.
+ *  from the disk from tapes and merged together. Tapes are added
+ *  on demand up to the given number of tapes. If the number of tapes is
+ *  {@link #AUTO_NUMBER_OF_TAPES}, the limit is {@link Defaults.ExternalSortDataRecord#MAX_NUMBER_OF_TAPES}
+ *  or available memory, so most sorts need only the final merge. 
  *  
  *  If size of incoming data is not bigger than defined limit,
  *  in-memory sorting occurs.
@@ -57,6 +60,9 @@ import org.jetel.util.bytes.CloverBuffer;
 
 public class ExternalSortDataRecord implements ISortDataRecord {
 
+	/** number of tapes which lets the limit of tapes be derived from the engine configuration and the heap size */
+	public static final int AUTO_NUMBER_OF_TAPES = 0;
+
 	private boolean doMerge = false;
 	private InternalSortDataRecord sorter;
 	private TapeCarousel tapeCarousel;
@@ -66,9 +72,10 @@ public class ExternalSortDataRecord implements ISortDataRecord {
 	private boolean[] sortOrderings;
 	private RecordOrderedKey sortKey;
 	DataRecordMetadata inMetadata;
+	private int maxNumberOfTapes;
 	private CloverBuffer recordBuffer;
-	private boolean[] sourceRecordsFlags;
 	private DataRecord[] sourceRecords;
+	private LoserTree mergeTree;
 	int prevIndex;
 	
 	public ExternalSortDataRecord() {
@@ -83,7 +90,7 @@ public class ExternalSortDataRecord implements ISortDataRecord {
 	 * @param keyItems	Names of fields which compose the key used for sorting data
 	 * @param sortAscending	True if required sort order is Ascending, otherwise False
 	 * @param internalBufferCapacity Internal maximum capacity of a buffer
-	 * @param numberOfTapes	Number of tapes to be used
+	 * @param numberOfTapes	Maximum number of tapes to be used, see {@link #AUTO_NUMBER_OF_TAPES}
 	 * @param tmpDirs	List of names of temporary directories to be used for external sorting buffer on disk
 	 * @param localeStr	String name of locale to use for collation. If null, no collator is used
 	 */
@@ -105,6 +112,7 @@ public class ExternalSortDataRecord implements ISortDataRecord {
 		this.sortKeysNames = keyItems;		
 		this.sortOrderings = sortOrderings;
 		this.numberOfTapes = numberOfTapes;
+		this.maxNumberOfTapes = getMaxNumberOfTapes(numberOfTapes);
 		this.prevIndex = -1;
 		inMetadata = metadata;
 		if (internalBufferCapacity>0){	
@@ -120,15 +128,32 @@ public class ExternalSortDataRecord implements ISortDataRecord {
 		}
 		
 		recordBuffer = CloverBuffer.allocateDirect(Defaults.Record.RECORD_INITIAL_SIZE, Defaults.Record.RECORD_LIMIT_SIZE);
-		
-		//initialize sourceRecords
-        sourceRecords = new DataRecord[numberOfTapes];
-        for (int i = 0; i < sourceRecords.length; i++) {
-            sourceRecords[i] = DataRecordFactory.newRecord(inMetadata);
-        }
+	}
 
-        //initialize sourceRecordsFlags
-        sourceRecordsFlags = new boolean[numberOfTapes];
+	/**
+	 * Each tape holds a direct buffer of {@link Defaults.Record#RECORDS_BUFFER_SIZE} and an open
+	 * temporary file, both source and target tapes exist during merging. The number of tapes requested
+	 * by user is the limit. Otherwise, the number of tapes is limited by configured maximum and by 1/16
+	 * of maximum heap size.
+	 * 
+	 * @param numberOfTapes number of tapes requested by user or {@link #AUTO_NUMBER_OF_TAPES}
+	 * @return maximum number of tapes which can be used
+	 */
+	private static int getMaxNumberOfTapes(int numberOfTapes) {
+		if (numberOfTapes > AUTO_NUMBER_OF_TAPES) {
+			// merging needs at least two tapes
+			return Math.max(numberOfTapes, 2);
+		}
+		long memoryLimit = Runtime.getRuntime().maxMemory() / 16 / (2L * Defaults.Record.RECORDS_BUFFER_SIZE);
+		int limit = (int) Math.min(Defaults.ExternalSortDataRecord.MAX_NUMBER_OF_TAPES, memoryLimit);
+		return Math.max(limit, 2);
+	}
+
+	/**
+	 * @return maximum number of tapes used by this sorter
+	 */
+	int getMaxNumberOfTapes() {
+		return maxNumberOfTapes;
 	}
 
 	@Override
@@ -169,17 +194,14 @@ public class ExternalSortDataRecord implements ISortDataRecord {
 		if (doMerge) {
 
 			if (prevIndex > -1) {
-				if (!tapeCarousel.getTape(prevIndex).get(sourceRecords[prevIndex])) {
-	                sourceRecordsFlags[prevIndex] = false;
-	            }
+				// replace the record returned last time by the next record from the same tape
+				DataRecord record = sourceRecords[prevIndex];
+				mergeTree.replaceWinner(tapeCarousel.getTape(prevIndex).get(record) ? record : null);
 			}
 			
-	        if (hasAnyData(sourceRecordsFlags)) {
-	        	
-	            index = getLowestIndex(sourceRecords, sourceRecordsFlags);
-
-	            prevIndex = index;
-	            
+			index = mergeTree.getWinner();
+			prevIndex = index;
+	        if (index > -1) {
 	            SynchronizeUtils.cloverYield();
 	            return sourceRecords[index];
 	        } else {
@@ -222,6 +244,7 @@ public class ExternalSortDataRecord implements ISortDataRecord {
 		}
 		carouselInitialized = false;
 		recordBuffer.clear();
+		mergeTree = null;
 		this.prevIndex = -1;
 
 	}
@@ -243,21 +266,28 @@ public class ExternalSortDataRecord implements ISortDataRecord {
 	@Override
 	public void free() {
 		sorter.free();
+		recordBuffer.free();
 	}
 	
 	private void flushToTapeSynchronously() throws IOException, InterruptedException {
         DataRecordTape tape;
         if (!carouselInitialized) {
         	if (tapeCarousel == null) { //can be not null after #reset()
-	            tapeCarousel = new TapeCarousel(numberOfTapes);
+	            tapeCarousel = new TapeCarousel(1);
 	            tapeCarousel.open();
         	}
             tape = tapeCarousel.getFirstTape();
             carouselInitialized = true;
         } else {
             tape = tapeCarousel.getNextTape();
-            if (tape == null)
-                tape = tapeCarousel.getFirstTape();
+            if (tape == null) {
+            	// each new chunk gets its own tape while possible, so that the chunks can be merged at once
+            	if (tapeCarousel.numTapes() < maxNumberOfTapes) {
+            		tape = tapeCarousel.addTape();
+            	} else {
+            		tape = tapeCarousel.getFirstTape();
+            	}
+            }
         }
 
         tape.addDataChunk();
@@ -282,21 +312,14 @@ public class ExternalSortDataRecord implements ISortDataRecord {
     private void phaseMerge() throws IOException, InterruptedException {
         int index;
         DataRecordTape targetTape;
-        TapeCarousel targetCarousel = new TapeCarousel(tapeCarousel.numTapes());
+        // each merged level of chunks produces one chunk, more target tapes than chunks on the first tape are not needed
+        TapeCarousel targetCarousel = new TapeCarousel(Math.max(1,
+        		Math.min(tapeCarousel.numTapes(), tapeCarousel.getFirstTape().getNumChunks())));
 
         // initialize sort key which will be used when merging data
         sortKey = new RecordOrderedKey(sortKeysNames, sortOrderings, inMetadata, sorter.getComparator().getCollators());
         sortKey.setEqualNULLs(true);
-
-        // initial creation & initialization of source records
-        for (int i = 0; i < sourceRecords.length; i++) {
-            sourceRecords[i].reset();
-        }
-
-        // initialazation sourceRecordsFlags
-        for (int i = 0; i< sourceRecordsFlags.length; i++) {
-        	sourceRecordsFlags[i] = false;
-        }
+        mergeTree = null;
         
         // rewind carousel with source data - so we can start reading it
         tapeCarousel.rewind();
@@ -316,15 +339,13 @@ public class ExternalSortDataRecord implements ISortDataRecord {
              * semi-merging of one level of data chunks
              */
             do {
-                loadUpRecords(tapeCarousel, sourceRecords, sourceRecordsFlags);
-                if (hasAnyData(sourceRecordsFlags)) {
+                loadUpRecords(tapeCarousel);
+                if (!mergeTree.isEmpty()) {
                     targetTape.addDataChunk();
                 } else {
                     break;
                 }
-                while (hasAnyData(sourceRecordsFlags)) {
-                    index = getLowestIndex(sourceRecords,
-                                sourceRecordsFlags);
+                while ((index = mergeTree.getWinner()) > -1) {
                     // write record to target tape
                     recordBuffer.clear();
                     sourceRecords[index].serialize(recordBuffer);
@@ -332,9 +353,8 @@ public class ExternalSortDataRecord implements ISortDataRecord {
                     targetTape.put(recordBuffer);
                     // read in next record from tape from which we read last
                     // record
-                    if (!tapeCarousel.getTape(index).get(sourceRecords[index])) {
-                        sourceRecordsFlags[index] = false;
-                    }
+                    DataRecord record = sourceRecords[index];
+                    mergeTree.replaceWinner(tapeCarousel.getTape(index).get(record) ? record : null);
                     SynchronizeUtils.cloverYield();
                 }
                 targetTape.flush(false);
@@ -372,56 +392,43 @@ public class ExternalSortDataRecord implements ISortDataRecord {
          * send data to output - final merge
          */
         tapeCarousel.rewind();
-        loadUpRecords(tapeCarousel, sourceRecords, sourceRecordsFlags);
+        loadUpRecords(tapeCarousel);
+        prevIndex = -1;
         
     }
     
-    /**
-     * Returns index of the lowest record from the specified record array
-     * 
-     * @param sourceRecords array of source records
-     * @param flags array indicating which source records contain valid data
-     * @return index of the lowest record within source records array of -1 if no such record
-     * exists - i.e. there is no valid record
-     */
-    private final int getLowestIndex(DataRecord[] sourceRecords, boolean[] flags) {
-        int lowest = -1;
-        for (int i = 0; i < flags.length; i++) {
-            if (flags[i]) {
-                lowest = i;
-                break;
-            }
-        }
-        for (int i = lowest + 1; i < sourceRecords.length; i++) {
-            if (flags[i]
-                    && sortKey.compare(sourceRecords[lowest], sourceRecords[i]) == 1) {
-                lowest = i;
-            }
-        }
-        return lowest;
-    }
-    
     /**
      * Populates source records array with records from individual tapes (included in
-     * tape carousel). Sets flags in flags array for those records which contain valid data.
+     * tape carousel) and builds the merge tree from them. Exhausted tapes
+     * do not take part in the merge.
      * 
      * @param tapeCarousel
-     * @param sourceRecords
-     * @param sourceRecordsFlags
      * @throws IOException
      * @throws InterruptedException 
      */
-    private final void loadUpRecords(TapeCarousel tapeCarousel,
-            DataRecord[] sourceRecords, boolean[] sourceRecordsFlags)
+    private final void loadUpRecords(TapeCarousel tapeCarousel)
             throws IOException, InterruptedException {
-        for (int i = 0; i < tapeCarousel.numTapes(); i++) {
-            DataRecordTape tape = tapeCarousel.getTape(i);
-            if (tape.get(sourceRecords[i])) {
-                sourceRecordsFlags[i] = true;
-            } else {
-                sourceRecordsFlags[i] = false;
+        final int numTapes = tapeCarousel.numTapes();
+        if (sourceRecords == null || sourceRecords.length < numTapes) {
+            DataRecord[] records = new DataRecord[numTapes];
+            int i = 0;
+            if (sourceRecords != null) {
+                System.arraycopy(sourceRecords, 0, records, 0, sourceRecords.length);
+                i = sourceRecords.length;
             }
+            for (; i < numTapes; i++) {
+                records[i] = DataRecordFactory.newRecord(inMetadata);
+            }
+            sourceRecords = records;
+        }
+        if (mergeTree == null || mergeTree.size() != numTapes) {
+            mergeTree = new LoserTree(numTapes, sortKey);
         }
+        for (int i = 0; i < numTapes; i++) {
+            DataRecordTape tape = tapeCarousel.getTape(i);
+            mergeTree.set(i, tape.get(sourceRecords[i]) ? sourceRecords[i] : null);
+        }
+        mergeTree.build();
     }
 
     /**
@@ -441,18 +448,5 @@ public class ExternalSortDataRecord implements ISortDataRecord {
         }
         return hasMore;
     }
-    
-    /**
-     * Checks that at least one valid record exists
-     * @param flags
-     * @return true if flahs indicate that at least one valid record exists
-     */
-    private final static boolean hasAnyData(boolean[] flags) {
-        for (int i = 0; i < flags.length; i++) {
-            if (flags[i] == true)
-                return true;
-        }
-        return false;
-    }
 
 }
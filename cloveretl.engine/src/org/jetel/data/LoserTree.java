@@ -0,0 +1,180 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data;
+
+import java.util.Comparator;
+
+/**
+ * Tournament tree of losers for k-way merge of sorted record sources.<br>
+ * Each inner node remembers the loser of the comparison played in it, so when the winning
+ * source advances to its next record, only the comparisons on the path from its leaf
+ * to the root are repeated - log2(k) comparisons per record instead of k-1 comparisons
+ * of a linear scan.
+ *
+ * Equal records are ordered by index of their source, so the merge is stable - the same
+ * order as produced by a linear scan preferring the lowest source index.
+ *
+ * Standard usage:
+ * <ol>
+ * <li>{@link #set(int, DataRecord)} for each source
+ * <li>{@link #build()}
+ * <li>{@link #getWinner()} and {@link #replaceWinner(DataRecord)} until the winner is -1
+ * </ol>
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class LoserTree {
+
+	private final Comparator<DataRecord> comparator;
+
+	/** current record of each source, null if the source is exhausted */
+	private final DataRecord[] records;
+
+	/** tree[0] is the overall winner, tree[1..k-1] are losers of inner nodes; leaf of source i is node k+i */
+	private final int[] tree;
+
+	/**
+	 * @param size number of merged sources
+	 * @param comparator comparator of records
+	 */
+	public LoserTree(int size, Comparator<DataRecord> comparator) {
+		if (size < 1) {
+			throw new IllegalArgumentException("At least one source is required.");
+		}
+		this.comparator = comparator;
+		this.records = new DataRecord[size];
+		this.tree = new int[size];
+	}
+
+	/**
+	 * @param size number of merged sources
+	 * @param key key used for comparison of records
+	 */
+	public LoserTree(int size, final RecordKey key) {
+		this(size, new Comparator<DataRecord>() {
+			@Override
+			public int compare(DataRecord o1, DataRecord o2) {
+				return key.compare(o1, o2);
+			}
+		});
+	}
+
+	/**
+	 * @return number of merged sources
+	 */
+	public int size() {
+		return records.length;
+	}
+
+	/**
+	 * Sets current record of the given source. {@link #build()} has to be called
+	 * after the records of all sources are set.
+	 *
+	 * @param source index of the source
+	 * @param record current record of the source, null if the source is exhausted
+	 */
+	public void set(int source, DataRecord record) {
+		records[source] = record;
+	}
+
+	/**
+	 * Plays all the matches of the tournament, k-1 comparisons.
+	 */
+	public void build() {
+		final int size = records.length;
+		// winners of the subtrees, leaves are the sources themselves
+		int[] winners = new int[2 * size];
+		for (int i = 0; i < size; i++) {
+			winners[size + i] = i;
+		}
+		for (int node = size - 1; node > 0; node--) {
+			int left = winners[2 * node];
+			int right = winners[2 * node + 1];
+			if (beats(left, right)) {
+				winners[node] = left;
+				tree[node] = right;
+			} else {
+				winners[node] = right;
+				tree[node] = left;
+			}
+		}
+		tree[0] = winners[1];
+	}
+
+	/**
+	 * @return index of the source with the lowest current record or -1 if all sources are exhausted
+	 */
+	public int getWinner() {
+		final int winner = tree[0];
+		return records[winner] != null ? winner : -1;
+	}
+
+	/**
+	 * @return the lowest current record or null if all sources are exhausted
+	 */
+	public DataRecord getWinnerRecord() {
+		return records[tree[0]];
+	}
+
+	/**
+	 * @return true if all sources are exhausted
+	 */
+	public boolean isEmpty() {
+		return records[tree[0]] == null;
+	}
+
+	/**
+	 * Replaces current record of the winning source by its next record and
+	 * replays the matches on the path from the source to the root.
+	 *
+	 * @param record next record of the source returned by {@link #getWinner()}, null if the source is exhausted
+	 */
+	public void replaceWinner(DataRecord record) {
+		int winner = tree[0];
+		records[winner] = record;
+		for (int node = (records.length + winner) >> 1; node > 0; node >>= 1) {
+			final int loser = tree[node];
+			if (beats(loser, winner)) {
+				tree[node] = winner;
+				winner = loser;
+			}
+		}
+		tree[0] = winner;
+	}
+
+	/**
+	 * @return true if current record of the first source precedes current record of the second source
+	 */
+	private boolean beats(int first, int second) {
+		final DataRecord firstRecord = records[first];
+		final DataRecord secondRecord = records[second];
+		if (firstRecord == null) {
+			return false;
+		}
+		if (secondRecord == null) {
+			return true;
+		}
+		final int result = comparator.compare(firstRecord, secondRecord);
+		return result < 0 || (result == 0 && first < second);
+	}
+
+}
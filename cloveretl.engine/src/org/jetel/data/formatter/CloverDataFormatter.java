@@ -29,9 +29,12 @@ import java.nio.channels.Channels;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.WritableByteChannel;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.jetel.data.CloverDataRecordSerializer;
 import org.jetel.data.CompressingDataRecordSerializer;
 import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
 import org.jetel.data.DataRecordSerializer;
 import org.jetel.data.Defaults;
 import org.jetel.data.Token;
@@ -63,6 +66,8 @@ import org.jetel.util.stream.SeekableOutputStream;
  *
  */
 public class CloverDataFormatter extends AbstractFormatter {
+
+	private final static Log logger = LogFactory.getLog(CloverDataFormatter.class);
 	
 
 	/**
@@ -138,6 +143,13 @@ public class CloverDataFormatter extends AbstractFormatter {
 	
 	protected boolean syncFlush = false;
 
+	/** fields with statistics stored in the zone map */
+	private String[] zoneMapFields;
+	/** statistics of the current output, null if not collected */
+	private CloverDataZoneMap zoneMap;
+	/** record used to collect statistics of raw data */
+	private DataRecord zoneMapRecord;
+
 	/**
 	 * Constructor
 	 */
@@ -155,6 +167,7 @@ public class CloverDataFormatter extends AbstractFormatter {
 		this.metadata = parent.metadata;
 		this.excludedFieldNames = parent.excludedFieldNames;
 		this.includedFieldIndices = parent.includedFieldIndices;
+		this.zoneMapFields = parent.zoneMapFields;
 	}
 	
 	/* (non-Javadoc)
@@ -174,6 +187,10 @@ public class CloverDataFormatter extends AbstractFormatter {
 	        buffer = CloverBuffer.allocateDirect(Defaults.Record.RECORDS_BUFFER_SIZE+LEN_SIZE_SPECIFIER);
 	        buffer.order(BUFFER_BYTE_ORDER);
 		}
+		if (zoneMapFields != null) {
+			// the fields must not be excluded
+			CloverDataZoneMap.checkFields(this.metadata, zoneMapFields);
+		}
 
         //is the current transformation jobflow?
         isJobflow = ContextProvider.getRuntimeContext() != null
@@ -276,6 +293,10 @@ public class CloverDataFormatter extends AbstractFormatter {
 			default:
 				throw new RuntimeException("Unsupported compression algorithm: " + compress);
 			}
+			if (compress != DataCompressAlgorithm.NONE) {
+				this.output.setCompressionThreads(Defaults.CLOVER_DATA_COMPRESSION_THREADS > 0
+						? Defaults.CLOVER_DATA_COMPRESSION_THREADS : Runtime.getRuntime().availableProcessors());
+			}
 			if (syncFlush) {
 				this.output.setSyncFlush(syncFlush);
 			}
@@ -295,6 +316,20 @@ public class CloverDataFormatter extends AbstractFormatter {
 		}
 		// ensure that the right write() method is called
 		this.recordWriter = raw ? new DirectRecordWriter() : new SerializingRecordWriter();
+		
+		zoneMap = null;
+		if (zoneMapFields != null) {
+			if (doAppend) {
+				// the statistics of the existing data are not available
+				logger.warn("Zone map is not stored when appending to a non-empty file");
+			} else {
+				try {
+					zoneMap = new CloverDataZoneMap(metadata, zoneMapFields);
+				} catch (ComponentNotReadyException e) {
+					throw new JetelRuntimeException(e);
+				}
+			}
+		}
 	}
     
     @Override
@@ -340,6 +375,7 @@ public class CloverDataFormatter extends AbstractFormatter {
 	@Override
 	public void finish() throws IOException{
     	if (!isOpen) return;
+    	storeZoneMap();
 		output.finish();
     	flush();
     }
@@ -351,7 +387,11 @@ public class CloverDataFormatter extends AbstractFormatter {
 	@Override
 	public void close() throws IOException {
 		if (!isOpen) return;
-		FileUtils.close(output); // CLO-5217
+		try {
+			storeZoneMap();
+		} finally {
+			FileUtils.close(output); // CLO-5217
+		}
 		if (channel.isOpen()) {
 			channel.close();
 		}
@@ -359,6 +399,17 @@ public class CloverDataFormatter extends AbstractFormatter {
 	}
 	
 	
+	/**
+	 * Passes the collected zone map to the output, it is written in the INDEX block.
+	 */
+	private void storeZoneMap() throws IOException {
+		if (zoneMap != null && output != null && !output.isFinished()) {
+			output.flushBlock();
+			output.setIndexExtension(zoneMap.serialize(output.getBlockCount()));
+			zoneMap = null;
+		}
+	}
+
 	/**
 	 * @see AbstractRecordWriter#write(DataRecord)
 	 * 
@@ -453,6 +504,18 @@ public class CloverDataFormatter extends AbstractFormatter {
 		this.excludedFieldNames = excludedFieldNames;
 	}
 
+	/**
+	 * Sets fields with minimum and maximum values stored per data block in the written file,
+	 * see {@link CloverDataZoneMap}. Each record then starts at the beginning of a data block or
+	 * in the same block as the previous record, so the blocks can be skipped by a reader.
+	 * The zone map is not written when appending to a non-empty file.
+	 * 
+	 * @param zoneMapFields
+	 */
+	public void setZoneMapFields(String[] zoneMapFields) {
+		this.zoneMapFields = zoneMapFields;
+	}
+
 public enum DataCompressAlgorithm {
 		
 		NONE(0),
@@ -554,15 +617,41 @@ public enum DataCompressAlgorithm {
 	
 	private abstract class AbstractRecordWriter implements RecordWriter {
 		
-		private int doWriteDirect(CloverBuffer recordBuffer) throws IOException {
+		/**
+		 * @param recordBuffer serialized record
+		 * @param record the record, may be null if not available
+		 */
+		private int doWriteDirect(CloverBuffer recordBuffer, DataRecord record) throws IOException {
 			if (isJobflow) {
 				// CLO-2657: file generated by a jobflow would not be readable by a graph
 				Token.deserializeTokenId(recordBuffer); // do not serialize token ID
 			}
 			int recordSize = recordBuffer.remaining();
+			int blockCount = 0;
+			if (zoneMap != null) {
+				if (record == null) {
+					if (zoneMapRecord == null) {
+						zoneMapRecord = DataRecordFactory.newRecord(metadata);
+					}
+					int position = recordBuffer.position();
+					zoneMapRecord.deserialize(recordBuffer);
+					recordBuffer.position(position);
+					record = zoneMapRecord;
+				}
+				// align the blocks with records - start a new block if the record does not fit
+				if (output.getBufferedBytes() > 0 && recordSize + ByteBufferUtils.lengthEncoded(recordSize) > output.getBufferRemaining()) {
+					output.flushBlock();
+				}
+				blockCount = output.getBlockCount();
+				zoneMap.addRecord(blockCount, record);
+			}
 			output.markRecordStart();
 			final int lenbytes=ByteBufferUtils.encodeLength(output, recordSize);
 			output.write(recordBuffer);
+			if (zoneMap != null && output.getBlockCount() != blockCount) {
+				// the record did not fit into a block, the next record starts a new block
+				output.flushBlock();
+			}
 	        return recordSize + lenbytes;
 		}
 
@@ -571,12 +660,12 @@ public enum DataCompressAlgorithm {
 			buffer.clear();
 			record.serialize(buffer, serializer, includedFieldIndices);
 			buffer.flip();
-			return doWriteDirect(buffer);
+			return doWriteDirect(buffer, record);
 		}
 
 		@Override
 		public int writeDirect(CloverBuffer recordBuffer) throws IOException {
-			return doWriteDirect(recordBuffer);
+			return doWriteDirect(recordBuffer, null);
 		}
 		
 	}
@@ -0,0 +1,291 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.formatter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetel.data.DataField;
+import org.jetel.data.DataFieldFactory;
+import org.jetel.data.DataRecord;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.metadata.DataFieldContainerType;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.bytes.ByteBufferUtils;
+import org.jetel.util.bytes.CloverBuffer;
+
+/**
+ * Statistics of selected key fields per data block of a clover data file - number of records starting
+ * in the block, number of null values and minimum and maximum value of each field.
+ * The statistics are stored in the extension of the INDEX block by {@link CloverDataFormatter}
+ * and used by {@link org.jetel.data.parser.CloverDataParser} to skip blocks which cannot
+ * contain records matching a {@link org.jetel.data.parser.CloverDataRangeFilter}.
+ *
+ * Blocks without record start (continuation of a record bigger than block) have empty statistics.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class CloverDataZoneMap {
+
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Statistics of one data block.
+	 */
+	public static class BlockStatistics {
+		private int recordCount;
+		private final int[] nullCounts;
+		/** null if the field has no non-null value in the block */
+		private final DataField[] minValues;
+		private final DataField[] maxValues;
+
+		private BlockStatistics(int fieldCount) {
+			nullCounts = new int[fieldCount];
+			minValues = new DataField[fieldCount];
+			maxValues = new DataField[fieldCount];
+		}
+
+		/**
+		 * @return number of records starting in the block
+		 */
+		public int getRecordCount() {
+			return recordCount;
+		}
+
+		public int getNullCount(int field) {
+			return nullCounts[field];
+		}
+
+		/**
+		 * @return minimum value of the field or null if all values are null
+		 */
+		public DataField getMinValue(int field) {
+			return minValues[field];
+		}
+
+		/**
+		 * @return maximum value of the field or null if all values are null
+		 */
+		public DataField getMaxValue(int field) {
+			return maxValues[field];
+		}
+	}
+
+	private final String[] fieldNames;
+
+	private final List<BlockStatistics> blocks = new ArrayList<BlockStatistics>();
+
+	/** metadata of the last added record and positions of the fields in it */
+	private DataRecordMetadata recordMetadata;
+	private int[] fieldIndices;
+
+	/**
+	 * @param metadata metadata of the written records
+	 * @param fieldNames names of the fields with statistics
+	 * @throws ComponentNotReadyException if a field does not exist or is a list or map
+	 */
+	public CloverDataZoneMap(DataRecordMetadata metadata, String[] fieldNames) throws ComponentNotReadyException {
+		this.fieldNames = fieldNames.clone();
+		checkFields(metadata, fieldNames);
+	}
+
+	private CloverDataZoneMap(String[] fieldNames) {
+		this.fieldNames = fieldNames;
+	}
+
+	/**
+	 * Checks that the fields can have statistics.
+	 *
+	 * @param metadata
+	 * @param fieldNames
+	 * @throws ComponentNotReadyException
+	 */
+	public static void checkFields(DataRecordMetadata metadata, String[] fieldNames) throws ComponentNotReadyException {
+		for (String fieldName : fieldNames) {
+			DataFieldMetadata field = metadata.getField(fieldName);
+			if (field == null) {
+				throw new ComponentNotReadyException("Zone map field '" + fieldName + "' does not exist in metadata " + metadata.getName());
+			}
+			if (field.getContainerType() != DataFieldContainerType.SINGLE) {
+				throw new ComponentNotReadyException("Zone map field '" + fieldName + "' cannot be a list or a map");
+			}
+		}
+	}
+
+	/**
+	 * @return names of the fields with statistics
+	 */
+	public String[] getFieldNames() {
+		return fieldNames.clone();
+	}
+
+	/**
+	 * @param fieldName
+	 * @return index of the field in the statistics or -1
+	 */
+	public int getFieldIndex(String fieldName) {
+		for (int i = 0; i < fieldNames.length; i++) {
+			if (fieldNames[i].equals(fieldName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return number of blocks with statistics
+	 */
+	public int getBlockCount() {
+		return blocks.size();
+	}
+
+	/**
+	 * @param block ordinal number of the data block
+	 * @return statistics of the block or null if the block is not known
+	 */
+	public BlockStatistics getBlock(int block) {
+		return block < blocks.size() ? blocks.get(block) : null;
+	}
+
+	private BlockStatistics ensureBlock(int block) {
+		while (blocks.size() <= block) {
+			blocks.add(new BlockStatistics(fieldNames.length));
+		}
+		return blocks.get(block);
+	}
+
+	/**
+	 * Adds the record to the statistics of the block.
+	 *
+	 * @param block ordinal number of the data block where the record starts
+	 * @param record written record
+	 */
+	public void addRecord(int block, DataRecord record) {
+		if (record.getMetadata() != recordMetadata) {
+			recordMetadata = record.getMetadata();
+			fieldIndices = new int[fieldNames.length];
+			for (int i = 0; i < fieldNames.length; i++) {
+				fieldIndices[i] = recordMetadata.getFieldPosition(fieldNames[i]);
+			}
+		}
+		BlockStatistics statistics = ensureBlock(block);
+		statistics.recordCount++;
+		for (int i = 0; i < fieldIndices.length; i++) {
+			DataField field = record.getField(fieldIndices[i]);
+			if (field.isNull()) {
+				statistics.nullCounts[i]++;
+			} else if (statistics.minValues[i] == null) {
+				statistics.minValues[i] = field.duplicate();
+				statistics.maxValues[i] = field.duplicate();
+			} else if (field.compareTo(statistics.minValues[i]) < 0) {
+				statistics.minValues[i].copyFrom(field);
+			} else if (field.compareTo(statistics.maxValues[i]) > 0) {
+				statistics.maxValues[i].copyFrom(field);
+			}
+		}
+	}
+
+	/**
+	 * @param blockCount total number of data blocks
+	 * @return serialized statistics
+	 */
+	public byte[] serialize(int blockCount) {
+		ensureBlock(blockCount - 1);
+		CloverBuffer buffer = CloverBuffer.allocate(1024);
+		buffer.order(CloverDataFormatter.BUFFER_BYTE_ORDER);
+		ByteBufferUtils.encodeLength(buffer, FORMAT_VERSION);
+		ByteBufferUtils.encodeLength(buffer, fieldNames.length);
+		for (String fieldName : fieldNames) {
+			byte[] name = fieldName.getBytes(StandardCharsets.UTF_8);
+			ByteBufferUtils.encodeLength(buffer, name.length);
+			buffer.put(name);
+		}
+		ByteBufferUtils.encodeLength(buffer, blocks.size());
+		for (BlockStatistics statistics : blocks) {
+			ByteBufferUtils.encodeLength(buffer, statistics.recordCount);
+			for (int i = 0; i < fieldNames.length; i++) {
+				ByteBufferUtils.encodeLength(buffer, statistics.nullCounts[i]);
+				if (statistics.minValues[i] != null) {
+					buffer.put((byte) 1);
+					statistics.minValues[i].serialize(buffer);
+					statistics.maxValues[i].serialize(buffer);
+				} else {
+					buffer.put((byte) 0);
+				}
+			}
+		}
+		buffer.flip();
+		byte[] result = new byte[buffer.remaining()];
+		buffer.get(result);
+		return result;
+	}
+
+	/**
+	 * @param data serialized statistics
+	 * @param metadata metadata of the data file
+	 * @return deserialized statistics
+	 * @throws IOException if the data are corrupted or a field is not available in the metadata
+	 */
+	public static CloverDataZoneMap deserialize(byte[] data, DataRecordMetadata metadata) throws IOException {
+		try {
+			CloverBuffer buffer = CloverBuffer.wrap(data);
+			buffer.order(CloverDataFormatter.BUFFER_BYTE_ORDER);
+			int version = ByteBufferUtils.decodeLength(buffer);
+			if (version != FORMAT_VERSION) {
+				throw new IOException("Unsupported zone map version " + version);
+			}
+			String[] fieldNames = new String[ByteBufferUtils.decodeLength(buffer)];
+			DataFieldMetadata[] fields = new DataFieldMetadata[fieldNames.length];
+			for (int i = 0; i < fieldNames.length; i++) {
+				byte[] name = new byte[ByteBufferUtils.decodeLength(buffer)];
+				buffer.get(name);
+				fieldNames[i] = new String(name, StandardCharsets.UTF_8);
+				fields[i] = metadata.getField(fieldNames[i]);
+				if (fields[i] == null) {
+					throw new IOException("Zone map field '" + fieldNames[i] + "' does not exist in metadata " + metadata.getName());
+				}
+			}
+			CloverDataZoneMap zoneMap = new CloverDataZoneMap(fieldNames);
+			int blockCount = ByteBufferUtils.decodeLength(buffer);
+			for (int block = 0; block < blockCount; block++) {
+				BlockStatistics statistics = zoneMap.ensureBlock(block);
+				statistics.recordCount = ByteBufferUtils.decodeLength(buffer);
+				for (int i = 0; i < fields.length; i++) {
+					statistics.nullCounts[i] = ByteBufferUtils.decodeLength(buffer);
+					if (buffer.get() != 0) {
+						statistics.minValues[i] = DataFieldFactory.createDataField(fields[i], true);
+						statistics.minValues[i].deserialize(buffer);
+						statistics.maxValues[i] = DataFieldFactory.createDataField(fields[i], true);
+						statistics.maxValues[i].deserialize(buffer);
+					}
+				}
+			}
+			return zoneMap;
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupted zone map", e);
+		}
+	}
+
+}
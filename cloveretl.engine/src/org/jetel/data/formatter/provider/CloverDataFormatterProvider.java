@@ -36,6 +36,8 @@ public class CloverDataFormatterProvider implements SharedFormatterProvider {
 
 	private String[] excludedFieldNames;
 
+	private String[] zoneMapFields;
+
 	@Override
 	public CloverDataFormatter getNewFormatter() {
 		CloverDataFormatter formatter = new CloverDataFormatter();
@@ -69,6 +71,7 @@ public class CloverDataFormatterProvider implements SharedFormatterProvider {
 		formatter.setAppend(append);
 		formatter.setCompressLevel(compressLevel);
 		formatter.setExcludedFieldNames(excludedFieldNames);
+		formatter.setZoneMapFields(zoneMapFields);
 	}
 
 	public void setAppend(boolean append) {
@@ -83,4 +86,8 @@ public class CloverDataFormatterProvider implements SharedFormatterProvider {
 		this.excludedFieldNames = excludedFieldNames;
 	}
 
+	public void setZoneMapFields(String[] zoneMapFields) {
+		this.zoneMapFields = zoneMapFields;
+	}
+
 }
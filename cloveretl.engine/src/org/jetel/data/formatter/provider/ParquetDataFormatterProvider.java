@@ -0,0 +1,65 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.formatter.provider;
+
+import org.jetel.data.formatter.Formatter;
+import org.jetel.data.parquet.ParquetDataFormatter;
+
+/**
+ * Provides support for getting Parquet formatter.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ParquetDataFormatterProvider implements FormatterProvider {
+
+	private ParquetDataFormatter.Compression compression = ParquetDataFormatter.Compression.NONE;
+	private long rowGroupSize = ParquetDataFormatter.DEFAULT_ROW_GROUP_SIZE;
+
+	/**
+	 * Creates new data formatter.
+	 * @return data formatter
+	 */
+	@Override
+	public Formatter getNewFormatter() {
+		ParquetDataFormatter formatter = new ParquetDataFormatter();
+		formatter.setCompression(compression);
+		formatter.setRowGroupSize(rowGroupSize);
+		return formatter;
+	}
+
+	public ParquetDataFormatter.Compression getCompression() {
+		return compression;
+	}
+
+	public void setCompression(ParquetDataFormatter.Compression compression) {
+		this.compression = compression;
+	}
+
+	public long getRowGroupSize() {
+		return rowGroupSize;
+	}
+
+	public void setRowGroupSize(long rowGroupSize) {
+		this.rowGroupSize = rowGroupSize;
+	}
+
+}
@@ -0,0 +1,491 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.GZIPOutputStream;
+
+import org.jetel.data.DataField;
+import org.jetel.data.DataRecord;
+import org.jetel.data.formatter.AbstractFormatter;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.exception.JetelRuntimeException;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.JetelVersion;
+import org.jetel.util.bytes.CloverBuffer;
+
+/**
+ * Formatter of Parquet files. Each field of the record is written into a top-level column,
+ * see {@link ParquetTypes} for the mapping of the types. The records are buffered in memory
+ * until the row group size is reached, the whole row group is written at once. Each column chunk
+ * is written with min/max statistics, which are used by {@link ParquetDataParser} to skip row groups.
+ *
+ * The file footer is written by {@link #finish()}, appending is not supported.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ParquetDataFormatter extends AbstractFormatter {
+
+	/**
+	 * Compression codecs of the pages.
+	 */
+	public enum Compression {
+		NONE(ParquetFileMetadata.UNCOMPRESSED), GZIP(ParquetFileMetadata.GZIP);
+
+		private final int codec;
+
+		private Compression(int codec) {
+			this.codec = codec;
+		}
+	}
+
+	/** default size of buffered data of a row group */
+	public static final long DEFAULT_ROW_GROUP_SIZE = 128L * 1024 * 1024;
+
+	/** size of uncompressed values of a page */
+	private static final int PAGE_SIZE = 1024 * 1024;
+
+	/** maximum number of values of a page */
+	private static final int PAGE_VALUE_COUNT = 20000;
+
+	/** longer values are not stored in the statistics */
+	private static final int MAX_STATISTICS_VALUE_SIZE = 4096;
+
+	private DataRecordMetadata metadata;
+	private Compression compression = Compression.NONE;
+	private long rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+
+	private ParquetFileMetadata.SchemaElement[] columns;
+	private ColumnWriter[] columnWriters;
+
+	private OutputStream out;
+	private boolean isOpen;
+	private boolean finished;
+	/** number of bytes written to the current target */
+	private long position;
+	private ParquetFileMetadata fileMetadata;
+	/** number of records in the current row group */
+	private long rowCount;
+
+	private final ThriftCompactOutput headerOutput = new ThriftCompactOutput();
+
+	/**
+	 * @param compression compression codec of the pages
+	 */
+	public void setCompression(Compression compression) {
+		this.compression = compression;
+	}
+
+	/**
+	 * @param rowGroupSize size of buffered data, when it is exceeded the row group is written
+	 */
+	public void setRowGroupSize(long rowGroupSize) {
+		this.rowGroupSize = rowGroupSize;
+	}
+
+	@Override
+	public void init(DataRecordMetadata metadata) throws ComponentNotReadyException {
+		this.metadata = metadata;
+		DataFieldMetadata[] fields = metadata.getFields();
+		columns = new ParquetFileMetadata.SchemaElement[fields.length];
+		columnWriters = new ColumnWriter[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			columns[i] = ParquetTypes.toSchemaElement(fields[i]);
+			columnWriters[i] = new ColumnWriter(columns[i], fields[i].getDataType());
+		}
+	}
+
+	@Override
+	public void setDataTarget(Object outputDataTarget) throws IOException {
+		close();
+		if (append) {
+			throw new IOException("Appending is not supported by Parquet formatter");
+		}
+
+		// TargetFile.setOutput() passes {contextURL, fileName, outputStream}
+		if (outputDataTarget instanceof Object[]) {
+			Object[] array = (Object[]) outputDataTarget;
+			if ((array.length >= 3) && (array[2] instanceof OutputStream)) {
+				outputDataTarget = array[2];
+			}
+		}
+
+		if (outputDataTarget instanceof OutputStream) {
+			out = (OutputStream) outputDataTarget;
+		} else if (outputDataTarget instanceof File) {
+			out = new FileOutputStream((File) outputDataTarget);
+		} else if (outputDataTarget instanceof WritableByteChannel) {
+			out = Channels.newOutputStream((WritableByteChannel) outputDataTarget);
+		} else {
+			throw new IOException("Unsupported Data Target type: " + outputDataTarget.getClass().getName());
+		}
+		isOpen = true;
+		finished = false;
+		position = 0;
+		rowCount = 0;
+		for (ColumnWriter columnWriter : columnWriters) {
+			columnWriter.reset();
+		}
+
+		fileMetadata = new ParquetFileMetadata();
+		fileMetadata.createdBy = "CloverETL " + JetelVersion.getMajorVersion() + "." + JetelVersion.getMinorVersion() + "." + JetelVersion.getRevisionVersion();
+		ParquetFileMetadata.SchemaElement root = new ParquetFileMetadata.SchemaElement();
+		root.name = metadata.getName();
+		root.numChildren = columns.length;
+		fileMetadata.schema.add(root);
+		for (ParquetFileMetadata.SchemaElement column : columns) {
+			fileMetadata.schema.add(column);
+		}
+
+		writeBytes(ParquetFileMetadata.MAGIC);
+	}
+
+	@Override
+	public int write(DataRecord record) throws IOException {
+		int size = 0;
+		long bufferedSize = 0;
+		for (int i = 0; i < columnWriters.length; i++) {
+			size += columnWriters[i].write(record.getField(i));
+			bufferedSize += columnWriters[i].getBufferedSize();
+		}
+		rowCount++;
+		if (bufferedSize >= rowGroupSize) {
+			writeRowGroup();
+		}
+		return size;
+	}
+
+	/**
+	 * Writes the buffered column chunks.
+	 */
+	private void writeRowGroup() throws IOException {
+		ParquetFileMetadata.RowGroup rowGroup = new ParquetFileMetadata.RowGroup();
+		rowGroup.numRows = rowCount;
+		for (ColumnWriter columnWriter : columnWriters) {
+			ParquetFileMetadata.ColumnChunk chunk = columnWriter.writeChunk();
+			rowGroup.columns.add(chunk);
+			rowGroup.totalByteSize += chunk.totalUncompressedSize;
+		}
+		fileMetadata.rowGroups.add(rowGroup);
+		fileMetadata.numRows += rowCount;
+		rowCount = 0;
+	}
+
+	private void writeBytes(byte[] data) throws IOException {
+		out.write(data);
+		position += data.length;
+	}
+
+	@Override
+	public int writeHeader() throws IOException {
+		return 0;
+	}
+
+	@Override
+	public int writeFooter() throws IOException {
+		return 0;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (isOpen) {
+			out.flush();
+		}
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (!isOpen || finished) {
+			return;
+		}
+		if (rowCount > 0) {
+			writeRowGroup();
+		}
+		byte[] footer = fileMetadata.serialize();
+		writeBytes(footer);
+		writeBytes(new byte[] { (byte) footer.length, (byte) (footer.length >>> 8), (byte) (footer.length >>> 16), (byte) (footer.length >>> 24) });
+		writeBytes(ParquetFileMetadata.MAGIC);
+		out.flush();
+		finished = true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!isOpen) {
+			return;
+		}
+		try {
+			finish();
+		} finally {
+			isOpen = false;
+			out.close();
+		}
+	}
+
+	@Override
+	public void reset() {
+		try {
+			close();
+		} catch (IOException e) {
+			throw new JetelRuntimeException(e);
+		}
+	}
+
+	/**
+	 * Buffers pages of one column of the current row group.
+	 */
+	private class ColumnWriter {
+		private final ParquetFileMetadata.SchemaElement column;
+		private final boolean optional;
+		private final boolean binary;
+
+		/** PLAIN encoded values of the current page, boolean values in bytes */
+		private final CloverBuffer values = CloverBuffer.allocate(PAGE_SIZE + 1024, false);
+		/** definition levels of the current page */
+		private byte[] levels = new byte[PAGE_VALUE_COUNT];
+		private int pageValueCount;
+		private int pageNonNullCount;
+
+		/** pages of the current column chunk */
+		private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+		private final ByteArrayOutputStream page = new ByteArrayOutputStream();
+		private long chunkValueCount;
+		private long chunkNullCount;
+		private long chunkUncompressedSize;
+
+		/** statistics of the chunk, the binary values are compared as unsigned bytes */
+		private boolean statisticsValid;
+		private DataField minValue;
+		private DataField maxValue;
+		private byte[] minBytes;
+		private byte[] maxBytes;
+
+		private ColumnWriter(ParquetFileMetadata.SchemaElement column, DataFieldType type) {
+			this.column = column;
+			this.optional = column.repetition == ParquetFileMetadata.OPTIONAL;
+			this.binary = ParquetTypes.isBinary(column) && type != DataFieldType.DECIMAL;
+			values.order(ByteOrder.LITTLE_ENDIAN);
+			reset();
+		}
+
+		private void reset() {
+			values.clear();
+			pageValueCount = 0;
+			pageNonNullCount = 0;
+			chunk.reset();
+			chunkValueCount = 0;
+			chunkNullCount = 0;
+			chunkUncompressedSize = 0;
+			statisticsValid = true;
+			minValue = null;
+			maxValue = null;
+			minBytes = null;
+			maxBytes = null;
+		}
+
+		/**
+		 * @return number of buffered bytes
+		 */
+		private long getBufferedSize() {
+			return chunk.size() + values.position();
+		}
+
+		private int write(DataField field) throws IOException {
+			int start = values.position();
+			if (field.isNull()) {
+				if (!optional) {
+					throw new IOException("Null value in non-nullable field '" + column.name + "'");
+				}
+				levels[pageValueCount] = 0;
+				chunkNullCount++;
+			} else {
+				if (optional) {
+					levels[pageValueCount] = 1;
+				}
+				ParquetTypes.writeValue(field, column, values);
+				pageNonNullCount++;
+				updateStatistics(field, start);
+			}
+			pageValueCount++;
+			if (values.position() >= PAGE_SIZE || pageValueCount == PAGE_VALUE_COUNT) {
+				writePage();
+			}
+			return values.position() - start;
+		}
+
+		private void updateStatistics(DataField field, int start) {
+			if (!statisticsValid) {
+				return;
+			}
+			if (binary) {
+				int length = values.position() - start - 4;
+				if (length > MAX_STATISTICS_VALUE_SIZE) {
+					statisticsValid = false;
+					return;
+				}
+				byte[] array = values.array();
+				int offset = values.arrayOffset() + start + 4;
+				if (minBytes == null || compareUnsigned(array, offset, length, minBytes) < 0) {
+					minBytes = copyOf(array, offset, length);
+				}
+				if (maxBytes == null || compareUnsigned(array, offset, length, maxBytes) > 0) {
+					maxBytes = copyOf(array, offset, length);
+				}
+			} else if (minValue == null) {
+				minValue = field.duplicate();
+				maxValue = field.duplicate();
+			} else if (field.compareTo(minValue) < 0) {
+				minValue.setValue(field);
+			} else if (field.compareTo(maxValue) > 0) {
+				maxValue.setValue(field);
+			}
+		}
+
+		private void writePage() throws IOException {
+			if (pageValueCount == 0) {
+				return;
+			}
+			page.reset();
+			if (optional) {
+				ByteArrayOutputStream encodedLevels = new ByteArrayOutputStream();
+				ParquetRle.encode(levels, pageValueCount, encodedLevels);
+				int length = encodedLevels.size();
+				page.write(length);
+				page.write(length >>> 8);
+				page.write(length >>> 16);
+				page.write(length >>> 24);
+				encodedLevels.writeTo(page);
+			}
+			if (column.type == ParquetFileMetadata.BOOLEAN) {
+				byte[] bits = new byte[(pageNonNullCount + 7) / 8];
+				for (int i = 0; i < pageNonNullCount; i++) {
+					if (values.get(i) != 0) {
+						bits[i / 8] |= 1 << (i % 8);
+					}
+				}
+				page.write(bits);
+			} else {
+				page.write(values.array(), values.arrayOffset(), values.position());
+			}
+			byte[] uncompressed = page.toByteArray();
+			byte[] compressed = uncompressed;
+			if (compression == Compression.GZIP) {
+				ByteArrayOutputStream compressedData = new ByteArrayOutputStream(uncompressed.length / 2 + 64);
+				GZIPOutputStream gzip = new GZIPOutputStream(compressedData);
+				gzip.write(uncompressed);
+				gzip.close();
+				compressed = compressedData.toByteArray();
+			}
+
+			ParquetFileMetadata.PageHeader header = new ParquetFileMetadata.PageHeader();
+			header.type = ParquetFileMetadata.DATA_PAGE;
+			header.uncompressedSize = uncompressed.length;
+			header.compressedSize = compressed.length;
+			header.numValues = pageValueCount;
+			header.encoding = ParquetFileMetadata.PLAIN;
+			headerOutput.reset();
+			header.write(headerOutput);
+			byte[] headerBytes = headerOutput.toByteArray();
+			chunk.write(headerBytes);
+			chunk.write(compressed);
+			chunkUncompressedSize += headerBytes.length + uncompressed.length;
+
+			chunkValueCount += pageValueCount;
+			pageValueCount = 0;
+			pageNonNullCount = 0;
+			values.clear();
+		}
+
+		/**
+		 * Writes the buffered pages to the output.
+		 *
+		 * @return metadata of the column chunk
+		 */
+		private ParquetFileMetadata.ColumnChunk writeChunk() throws IOException {
+			writePage();
+			ParquetFileMetadata.ColumnChunk result = new ParquetFileMetadata.ColumnChunk();
+			result.path = column.name;
+			result.type = column.type;
+			result.codec = compression.codec;
+			result.encodings.add(ParquetFileMetadata.PLAIN);
+			result.encodings.add(ParquetFileMetadata.RLE);
+			result.numValues = chunkValueCount;
+			result.totalUncompressedSize = chunkUncompressedSize;
+			result.totalCompressedSize = chunk.size();
+			result.dataPageOffset = position;
+			result.nullCount = chunkNullCount;
+			if (statisticsValid) {
+				if (binary) {
+					result.minValue = minBytes;
+					result.maxValue = maxBytes;
+				} else if (minValue != null) {
+					result.minValue = encode(minValue);
+					result.maxValue = encode(maxValue);
+				}
+			}
+			chunk.writeTo(out);
+			position += chunk.size();
+			reset();
+			return result;
+		}
+
+		private byte[] encode(DataField value) {
+			CloverBuffer buffer = CloverBuffer.allocate(32, false);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			ParquetTypes.writeValue(value, column, buffer);
+			buffer.flip();
+			if (column.type == ParquetFileMetadata.BYTE_ARRAY) {
+				buffer.getInt(); // statistics are stored without length
+			}
+			byte[] result = new byte[buffer.remaining()];
+			buffer.get(result);
+			return result;
+		}
+	}
+
+	private static int compareUnsigned(byte[] array, int offset, int length, byte[] value) {
+		int commonLength = Math.min(length, value.length);
+		for (int i = 0; i < commonLength; i++) {
+			int diff = (array[offset + i] & 0xFF) - (value[i] & 0xFF);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return length - value.length;
+	}
+
+	private static byte[] copyOf(byte[] array, int offset, int length) {
+		byte[] result = new byte[length];
+		System.arraycopy(array, offset, result, 0, length);
+		return result;
+	}
+
+}
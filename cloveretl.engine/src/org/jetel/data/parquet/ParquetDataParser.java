@@ -0,0 +1,700 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetel.data.BooleanDataField;
+import org.jetel.data.DataField;
+import org.jetel.data.DataFieldFactory;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.parser.AbstractParser;
+import org.jetel.data.parser.CloverDataRangeFilter;
+import org.jetel.exception.BadDataFormatException;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.exception.IParserExceptionHandler;
+import org.jetel.exception.JetelException;
+import org.jetel.exception.PolicyType;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataRecordMetadata;
+
+/**
+ * Parser of Parquet files. Only the top-level primitive columns matching the (not autofilled)
+ * fields of the metadata by name or label are read, the other columns are not touched.
+ * Row groups, which cannot contain records matching the {@link CloverDataRangeFilter} according to
+ * min/max statistics of the column chunks, are skipped.
+ *
+ * Supported are data pages v1 and v2 in PLAIN and dictionary encoding, uncompressed or compressed by SNAPPY or GZIP.
+ * The source must be a local file or a seekable channel, since the footer is at the end of the file.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ParquetDataParser extends AbstractParser {
+
+	private static final Log logger = LogFactory.getLog(ParquetDataParser.class);
+
+	private static final String[] CODEC_NAMES = { "UNCOMPRESSED", "SNAPPY", "GZIP", "LZO", "BROTLI", "LZ4", "ZSTD" };
+
+	/** initial size of read page header */
+	private static final int PAGE_HEADER_SIZE = 256;
+
+	private final DataRecordMetadata metadata;
+	private CloverDataRangeFilter rangeFilter;
+	private IParserExceptionHandler exceptionHandler;
+
+	private SeekableByteChannel channel;
+	private ParquetFileMetadata fileMetadata;
+
+	/** positions of the read fields in the record and of their columns in the row groups */
+	private int[] fieldIndices;
+	private int[] columnIndices;
+	private ParquetFileMetadata.SchemaElement[] columns;
+	private int[] maxDefinitionLevels;
+	private ColumnReader[] columnReaders;
+
+	private int rowGroupIndex;
+	/** number of unread rows of the current row group */
+	private long rowsLeft;
+	private long skippedRowGroups;
+	private int recordCounter;
+
+	/**
+	 * @param metadata metadata of the read records
+	 */
+	public ParquetDataParser(DataRecordMetadata metadata) {
+		this.metadata = metadata;
+	}
+
+	/**
+	 * @param rangeFilter conditions of the read records, used also to skip row groups, can be null
+	 */
+	public void setRangeFilter(CloverDataRangeFilter rangeFilter) {
+		this.rangeFilter = rangeFilter;
+	}
+
+	/**
+	 * @return number of row groups skipped by the range filter in the current source
+	 */
+	public long getSkippedRowGroups() {
+		return skippedRowGroups;
+	}
+
+	@Override
+	public void init() throws ComponentNotReadyException {
+		if (metadata == null) {
+			throw new ComponentNotReadyException("Metadata are null");
+		}
+	}
+
+	@Override
+	public void setDataSource(Object inputDataSource) throws IOException, ComponentNotReadyException {
+		if (releaseDataSource) {
+			releaseDataSource();
+		}
+		if (inputDataSource instanceof File) {
+			channel = new FileInputStream((File) inputDataSource).getChannel();
+		} else if (inputDataSource instanceof FileInputStream) {
+			channel = ((FileInputStream) inputDataSource).getChannel();
+		} else if (inputDataSource instanceof SeekableByteChannel) {
+			channel = (SeekableByteChannel) inputDataSource;
+		} else {
+			throw new ComponentNotReadyException("Parquet file must be a local file, unsupported data source type: " + inputDataSource.getClass().getName());
+		}
+		try {
+			fileMetadata = readFooter();
+			resolveColumns();
+		} catch (IOException | ComponentNotReadyException e) {
+			releaseDataSource();
+			throw e;
+		}
+		rowGroupIndex = 0;
+		rowsLeft = 0;
+		skippedRowGroups = 0;
+		recordCounter = 0;
+	}
+
+	private ParquetFileMetadata readFooter() throws IOException {
+		long size = channel.size();
+		if (size < 12) {
+			throw new IOException("Not a Parquet file - the file is too short");
+		}
+		ByteBuffer tail = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(tail, size - 8);
+		byte[] magic = Arrays.copyOfRange(tail.array(), 4, 8);
+		if (!Arrays.equals(magic, ParquetFileMetadata.MAGIC)) {
+			throw new IOException("Not a Parquet file - invalid magic bytes at the end of the file");
+		}
+		int footerLength = tail.getInt(0);
+		if (footerLength <= 0 || footerLength > size - 12) {
+			throw new IOException("Corrupted Parquet file - invalid footer length " + footerLength);
+		}
+		ByteBuffer footer = ByteBuffer.allocate(footerLength);
+		readFully(footer, size - 8 - footerLength);
+		footer.flip();
+		return ParquetFileMetadata.deserialize(footer);
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		channel.position(position);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("Unexpected end of Parquet file");
+			}
+		}
+	}
+
+	/**
+	 * Maps the fields of the metadata to the columns of the file.
+	 */
+	private void resolveColumns() throws ComponentNotReadyException {
+		List<ParquetFileMetadata.SchemaElement> leaves = new ArrayList<ParquetFileMetadata.SchemaElement>();
+		List<Integer> definitionLevels = new ArrayList<Integer>();
+		List<Boolean> flat = new ArrayList<Boolean>();
+		List<ParquetFileMetadata.SchemaElement> schema = fileMetadata.schema;
+		if (schema.isEmpty()) {
+			throw new ComponentNotReadyException("Parquet file has no schema");
+		}
+		int next = 1;
+		for (int i = 0; i < schema.get(0).numChildren && next < schema.size(); i++) {
+			next = collectLeaves(schema, next, 1, 0, false, leaves, definitionLevels, flat);
+		}
+		for (ParquetFileMetadata.RowGroup rowGroup : fileMetadata.rowGroups) {
+			if (rowGroup.columns.size() != leaves.size()) {
+				throw new ComponentNotReadyException("Corrupted Parquet file - number of column chunks does not match the schema");
+			}
+		}
+
+		List<Integer> readFields = new ArrayList<Integer>();
+		List<Integer> readColumns = new ArrayList<Integer>();
+		for (int i = 0; i < metadata.getNumFields(); i++) {
+			DataFieldMetadata field = metadata.getField(i);
+			if (field.isAutoFilled()) {
+				continue;
+			}
+			int column = findColumn(leaves, field);
+			if (column < 0) {
+				throw new ComponentNotReadyException("Field '" + field.getName() + "' not found in the Parquet file");
+			}
+			if (!flat.get(column)) {
+				throw new ComponentNotReadyException("Field '" + field.getName() + "' is mapped to a nested or repeated Parquet column, which is not supported");
+			}
+			ParquetTypes.checkCompatibility(leaves.get(column), field);
+			readFields.add(i);
+			readColumns.add(column);
+		}
+
+		fieldIndices = new int[readFields.size()];
+		columnIndices = new int[readFields.size()];
+		columns = new ParquetFileMetadata.SchemaElement[readFields.size()];
+		maxDefinitionLevels = new int[readFields.size()];
+		columnReaders = new ColumnReader[readFields.size()];
+		for (int i = 0; i < fieldIndices.length; i++) {
+			fieldIndices[i] = readFields.get(i);
+			columnIndices[i] = readColumns.get(i);
+			columns[i] = leaves.get(columnIndices[i]);
+			maxDefinitionLevels[i] = definitionLevels.get(columnIndices[i]);
+		}
+
+		// unsupported compression is reported before the first record is read
+		for (ParquetFileMetadata.RowGroup rowGroup : fileMetadata.rowGroups) {
+			for (int i = 0; i < columnIndices.length; i++) {
+				int codec = rowGroup.columns.get(columnIndices[i]).codec;
+				if (!isSupportedCodec(codec)) {
+					throw new ComponentNotReadyException("Field '" + metadata.getField(fieldIndices[i]).getName() + "' is mapped to Parquet column '"
+							+ columns[i].name + "' compressed by unsupported codec " + getCodecName(codec) + ", supported are UNCOMPRESSED, SNAPPY and GZIP");
+				}
+			}
+		}
+	}
+
+	private static boolean isSupportedCodec(int codec) {
+		return codec == ParquetFileMetadata.UNCOMPRESSED || codec == ParquetFileMetadata.SNAPPY || codec == ParquetFileMetadata.GZIP;
+	}
+
+	private static String getCodecName(int codec) {
+		return (codec >= 0 && codec < CODEC_NAMES.length) ? CODEC_NAMES[codec] : String.valueOf(codec);
+	}
+
+	private static int collectLeaves(List<ParquetFileMetadata.SchemaElement> schema, int index, int depth, int definitionLevel, boolean repeated,
+			List<ParquetFileMetadata.SchemaElement> leaves, List<Integer> definitionLevels, List<Boolean> flat) {
+		ParquetFileMetadata.SchemaElement element = schema.get(index);
+		if (element.repetition != ParquetFileMetadata.REQUIRED) {
+			definitionLevel++;
+		}
+		repeated |= element.repetition == ParquetFileMetadata.REPEATED;
+		if (!element.isGroup()) {
+			leaves.add(element);
+			definitionLevels.add(definitionLevel);
+			flat.add(depth == 1 && !repeated);
+			return index + 1;
+		}
+		int next = index + 1;
+		for (int i = 0; i < element.numChildren && next < schema.size(); i++) {
+			next = collectLeaves(schema, next, depth + 1, definitionLevel, repeated, leaves, definitionLevels, flat);
+		}
+		return next;
+	}
+
+	private static int findColumn(List<ParquetFileMetadata.SchemaElement> leaves, DataFieldMetadata field) {
+		int byLabel = -1;
+		for (int i = 0; i < leaves.size(); i++) {
+			String name = leaves.get(i).name;
+			if (name.equals(field.getName())) {
+				return i;
+			}
+			if (byLabel < 0 && name.equals(field.getLabelOrName())) {
+				byLabel = i;
+			}
+		}
+		return byLabel;
+	}
+
+	/**
+	 * Moves to the next row group, which may contain matching records.
+	 *
+	 * @return false if there is no other row group
+	 */
+	private boolean nextRowGroup() throws IOException {
+		while (rowGroupIndex < fileMetadata.rowGroups.size()) {
+			ParquetFileMetadata.RowGroup rowGroup = fileMetadata.rowGroups.get(rowGroupIndex++);
+			if (rowGroup.numRows <= 0) {
+				continue;
+			}
+			if (rangeFilter != null && !mayMatch(rowGroup)) {
+				skippedRowGroups++;
+				continue;
+			}
+			for (int i = 0; i < columnReaders.length; i++) {
+				columnReaders[i] = new ColumnReader(i, rowGroup.columns.get(columnIndices[i]));
+			}
+			rowsLeft = rowGroup.numRows;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return false if the statistics of the row group prove that no record can match the range filter
+	 */
+	private boolean mayMatch(ParquetFileMetadata.RowGroup rowGroup) {
+		for (int i = 0; i < fieldIndices.length; i++) {
+			DataFieldMetadata field = metadata.getField(fieldIndices[i]);
+			if (!rangeFilter.hasCondition(field.getName())) {
+				continue;
+			}
+			ParquetFileMetadata.ColumnChunk chunk = rowGroup.columns.get(columnIndices[i]);
+			if (chunk.minValue != null) {
+				if (!ParquetTypes.hasComparableStatistics(columns[i], field.getDataType())) {
+					continue;
+				}
+				DataField min = DataFieldFactory.createDataField(field, true);
+				DataField max = DataFieldFactory.createDataField(field, true);
+				try {
+					ParquetTypes.readStatisticsValue(chunk.minValue, columns[i], min);
+					ParquetTypes.readStatisticsValue(chunk.maxValue, columns[i], max);
+				} catch (IOException | RuntimeException e) {
+					logger.debug("Invalid statistics of Parquet column " + columns[i].name, e);
+					continue;
+				}
+				if (!min.isNull() && !max.isNull() && !rangeFilter.mayMatch(field.getName(), min, max)) {
+					return false;
+				}
+			} else if (chunk.nullCount >= 0 && chunk.nullCount == chunk.numValues) {
+				if (!rangeFilter.mayMatch(field.getName(), null, null)) {
+					return false; // only null values
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public DataRecord getNext() throws JetelException {
+		return getNext(DataRecordFactory.newRecord(metadata));
+	}
+
+	@Override
+	public DataRecord getNext(DataRecord record) throws JetelException {
+		while (true) {
+			DataRecord result = parseNext(record);
+			if (exceptionHandler != null) { //use handler only if configured
+				while (exceptionHandler.isExceptionThrowed()) {
+					exceptionHandler.handleException();
+					result = parseNext(record);
+				}
+			}
+			if (result == null || rangeFilter == null || rangeFilter.matches(result)) {
+				return result;
+			}
+		}
+	}
+
+	private DataRecord parseNext(DataRecord record) throws JetelException {
+		try {
+			if (rowsLeft == 0 && !nextRowGroup()) {
+				return null;
+			}
+			rowsLeft--;
+			recordCounter++;
+			for (int i = 0; i < columnReaders.length; i++) {
+				try {
+					columnReaders[i].read(record.getField(fieldIndices[i]));
+				} catch (BadDataFormatException bdfe) {
+					bdfe.setRecordNumber(recordCounter);
+					if (exceptionHandler != null) { //use handler only if configured
+						exceptionHandler.populateHandler(bdfe.getMessage(), record, recordCounter, fieldIndices[i], null, bdfe);
+					} else {
+						throw bdfe;
+					}
+				}
+			}
+			return record;
+		} catch (IOException e) {
+			throw new JetelException("Failed to read Parquet file", e);
+		}
+	}
+
+	@Override
+	public int skip(int nRec) throws JetelException {
+		DataRecord record = null;
+		int skipped = 0;
+		while (skipped < nRec) {
+			if (rangeFilter == null && rowsLeft > 0 && rowsLeft <= nRec - skipped) {
+				// the rest of the row group is not decoded at all
+				skipped += rowsLeft;
+				recordCounter += rowsLeft;
+				rowsLeft = 0;
+				continue;
+			}
+			if (rangeFilter == null && rowsLeft == 0) {
+				try {
+					if (!nextRowGroup()) {
+						break;
+					}
+				} catch (IOException e) {
+					throw new JetelException("Failed to read Parquet file", e);
+				}
+				continue;
+			}
+			if (record == null) {
+				record = DataRecordFactory.newRecord(metadata);
+			}
+			if (getNext(record) == null) {
+				break;
+			}
+			skipped++;
+		}
+		return skipped;
+	}
+
+	/**
+	 * Reader of values of one column chunk.
+	 */
+	private class ColumnReader {
+		private final ParquetFileMetadata.SchemaElement column;
+		private final DataFieldMetadata field;
+		private final int maxDefinitionLevel;
+		private final int codec;
+
+		private long position;
+		private final long end;
+
+		private DataField[] dictionary;
+
+		private int pageValuesLeft;
+		private ParquetRle.Decoder definitionLevels;
+		/** dictionary indices, null for PLAIN encoding */
+		private ParquetRle.Decoder dictionaryIndices;
+		private ByteBuffer values;
+		/** index of the next bit-packed boolean value */
+		private int bitIndex;
+
+		private ColumnReader(int index, ParquetFileMetadata.ColumnChunk chunk) throws IOException {
+			this.column = columns[index];
+			this.field = metadata.getField(fieldIndices[index]);
+			this.maxDefinitionLevel = maxDefinitionLevels[index];
+			this.codec = chunk.codec;
+			if (chunk.filePath != null) {
+				throw new IOException("Column chunks stored in other files are not supported, column " + column.name);
+			}
+			this.position = chunk.getStartOffset();
+			this.end = position + chunk.totalCompressedSize;
+		}
+
+		private void read(DataField target) throws IOException {
+			while (pageValuesLeft == 0) {
+				readPage();
+			}
+			pageValuesLeft--;
+			if (maxDefinitionLevel > 0 && definitionLevels.next() < maxDefinitionLevel) {
+				target.setNull(true);
+			} else if (dictionaryIndices != null) {
+				int index = dictionaryIndices.next();
+				if (index >= dictionary.length) {
+					throw new IOException("Corrupted Parquet data - invalid dictionary index in column " + column.name);
+				}
+				target.setValue(dictionary[index]);
+			} else if (column.type == ParquetFileMetadata.BOOLEAN) {
+				int byteIndex = values.position() + bitIndex / 8;
+				if (byteIndex >= values.limit()) {
+					throw new IOException("Corrupted Parquet data - unexpected end of page in column " + column.name);
+				}
+				((BooleanDataField) target).setValue((values.get(byteIndex) & (1 << (bitIndex % 8))) != 0);
+				bitIndex++;
+			} else {
+				ParquetTypes.readValue(values, column, -1, target);
+			}
+		}
+
+		private void readPage() throws IOException {
+			if (position >= end) {
+				throw new IOException("Corrupted Parquet data - unexpected end of column chunk " + column.name);
+			}
+			ParquetFileMetadata.PageHeader header = readPageHeader();
+			if (header.compressedSize < 0 || header.uncompressedSize < 0 || header.compressedSize > end - position) {
+				throw new IOException("Corrupted Parquet data - invalid page size in column " + column.name);
+			}
+			ByteBuffer pageData = ByteBuffer.allocate(header.compressedSize);
+			readFully(pageData, position);
+			position += header.compressedSize;
+			byte[] data = pageData.array();
+
+			ByteBuffer levels = null;
+			byte[] valueData;
+			int valueOffset;
+			switch (header.type) {
+			case ParquetFileMetadata.DICTIONARY_PAGE: {
+				ByteBuffer buffer = ByteBuffer.wrap(decompress(data, 0, data.length, header.uncompressedSize)).order(ByteOrder.LITTLE_ENDIAN);
+				dictionary = new DataField[header.numValues];
+				for (int i = 0; i < dictionary.length; i++) {
+					dictionary[i] = DataFieldFactory.createDataField(field, true);
+					ParquetTypes.readValue(buffer, column, -1, dictionary[i]);
+				}
+				return;
+			}
+			case ParquetFileMetadata.DATA_PAGE: {
+				valueData = decompress(data, 0, data.length, header.uncompressedSize);
+				valueOffset = 0;
+				if (maxDefinitionLevel > 0) {
+					ByteBuffer buffer = ByteBuffer.wrap(valueData).order(ByteOrder.LITTLE_ENDIAN);
+					int length = (valueData.length >= 4) ? buffer.getInt() : -1;
+					if (length < 0 || length > valueData.length - 4) {
+						throw new IOException("Corrupted Parquet data - invalid length of definition levels in column " + column.name);
+					}
+					levels = ByteBuffer.wrap(valueData, 4, length);
+					valueOffset = 4 + length;
+				}
+				break;
+			}
+			case ParquetFileMetadata.DATA_PAGE_V2: {
+				int levelsLength = header.repetitionLevelsLength + header.definitionLevelsLength;
+				if (header.repetitionLevelsLength < 0 || header.definitionLevelsLength < 0 || levelsLength > data.length) {
+					throw new IOException("Corrupted Parquet data - invalid length of levels in column " + column.name);
+				}
+				levels = ByteBuffer.wrap(data, header.repetitionLevelsLength, header.definitionLevelsLength);
+				if (header.compressed) {
+					valueData = decompress(data, levelsLength, data.length - levelsLength, header.uncompressedSize - levelsLength);
+					valueOffset = 0;
+				} else {
+					valueData = data;
+					valueOffset = levelsLength;
+				}
+				break;
+			}
+			default:
+				return; // index pages are ignored
+			}
+
+			definitionLevels = (maxDefinitionLevel > 0) ? new ParquetRle.Decoder(levels, 32 - Integer.numberOfLeadingZeros(maxDefinitionLevel)) : null;
+			values = ByteBuffer.wrap(valueData, valueOffset, valueData.length - valueOffset).order(ByteOrder.LITTLE_ENDIAN);
+			bitIndex = 0;
+			switch (header.encoding) {
+			case ParquetFileMetadata.PLAIN:
+				dictionaryIndices = null;
+				break;
+			case ParquetFileMetadata.PLAIN_DICTIONARY:
+			case ParquetFileMetadata.RLE_DICTIONARY:
+				if (dictionary == null) {
+					throw new IOException("Corrupted Parquet data - missing dictionary page in column " + column.name);
+				}
+				int bitWidth = values.hasRemaining() ? values.get() & 0xFF : 0;
+				dictionaryIndices = new ParquetRle.Decoder(values, bitWidth);
+				break;
+			default:
+				throw new IOException("Unsupported Parquet encoding " + header.encoding + " in column " + column.name);
+			}
+			pageValuesLeft = header.numValues;
+		}
+
+		/**
+		 * Reads the page header at the current position and moves the position behind it.
+		 */
+		private ParquetFileMetadata.PageHeader readPageHeader() throws IOException {
+			long available = end - position;
+			int size = (int) Math.min(available, PAGE_HEADER_SIZE);
+			while (true) {
+				ByteBuffer buffer = ByteBuffer.allocate(size);
+				readFully(buffer, position);
+				buffer.flip();
+				try {
+					ParquetFileMetadata.PageHeader header = ParquetFileMetadata.PageHeader.read(new ThriftCompactInput(buffer));
+					position += buffer.position();
+					return header;
+				} catch (IOException e) {
+					if (size >= available) {
+						throw e;
+					}
+					// the header contains big statistics
+					size = (int) Math.min(available, size * 4L);
+				}
+			}
+		}
+
+		private byte[] decompress(byte[] data, int offset, int length, int uncompressedSize) throws IOException {
+			switch (codec) {
+			case ParquetFileMetadata.UNCOMPRESSED:
+				return (offset == 0 && length == data.length) ? data : Arrays.copyOfRange(data, offset, offset + length);
+			case ParquetFileMetadata.SNAPPY:
+				try {
+					return ParquetSnappy.decompress(data, offset, length, uncompressedSize);
+				} catch (IOException e) {
+					throw new IOException(e.getMessage() + " in column " + column.name, e);
+				}
+			case ParquetFileMetadata.GZIP:
+				byte[] result = new byte[uncompressedSize];
+				try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+					int read = 0;
+					while (read < result.length) {
+						int count = in.read(result, read, result.length - read);
+						if (count < 0) {
+							throw new EOFException("Corrupted Parquet data - unexpected end of compressed page in column " + column.name);
+						}
+						read += count;
+					}
+				}
+				return result;
+			default:
+				throw new IOException("Unsupported Parquet compression codec " + getCodecName(codec) + " of column " + column.name);
+			}
+		}
+	}
+
+	private void doReleaseDataSource() throws IOException {
+		if (channel != null) {
+			if (skippedRowGroups > 0 && logger.isDebugEnabled()) {
+				logger.debug("Skipped " + skippedRowGroups + " row groups by range filter " + rangeFilter);
+			}
+			channel.close();
+			channel = null;
+		}
+	}
+
+	@Override
+	protected void releaseDataSource() {
+		try {
+			doReleaseDataSource();
+		} catch (IOException ioe) {
+			logger.warn("Failed to release data source", ioe);
+		}
+	}
+
+	@Override
+	public void close() {
+		releaseDataSource();
+	}
+
+	@Override
+	public void setExceptionHandler(IParserExceptionHandler handler) {
+		this.exceptionHandler = handler;
+	}
+
+	@Override
+	public IParserExceptionHandler getExceptionHandler() {
+		return exceptionHandler;
+	}
+
+	@Override
+	public PolicyType getPolicyType() {
+		if (exceptionHandler != null) {
+			return exceptionHandler.getType();
+		}
+		return null;
+	}
+
+	@Override
+	public void reset() {
+		close();
+	}
+
+	@Override
+	public Object getPosition() {
+		return null;
+	}
+
+	@Override
+	public void movePosition(Object position) {
+	}
+
+	@Override
+	public void preExecute() throws ComponentNotReadyException {
+		reset();
+	}
+
+	@Override
+	public void postExecute() throws ComponentNotReadyException {
+		if (releaseDataSource) {
+			releaseDataSource();
+		}
+	}
+
+	@Override
+	public void free() {
+		close();
+	}
+
+	@Override
+	public boolean nextL3Source() {
+		return false;
+	}
+
+	@Override
+	public DataSourceType getPreferredDataSourceType() {
+		// the footer is at the end of the file
+		return DataSourceType.FILE;
+	}
+
+}
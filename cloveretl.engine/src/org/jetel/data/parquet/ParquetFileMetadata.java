@@ -0,0 +1,480 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Footer of a Parquet file (FileMetaData structure of the Parquet format) and page headers.
+ * Only the parts used by {@link ParquetDataParser} and {@link ParquetDataFormatter} are kept,
+ * other fields are skipped when reading.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+class ParquetFileMetadata {
+
+	/** magic bytes at the beginning and at the end of the file */
+	static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+	// physical types
+	static final int BOOLEAN = 0;
+	static final int INT32 = 1;
+	static final int INT64 = 2;
+	static final int INT96 = 3;
+	static final int FLOAT = 4;
+	static final int DOUBLE = 5;
+	static final int BYTE_ARRAY = 6;
+	static final int FIXED_LEN_BYTE_ARRAY = 7;
+
+	// repetition types
+	static final int REQUIRED = 0;
+	static final int OPTIONAL = 1;
+	static final int REPEATED = 2;
+
+	// converted types
+	static final int NO_CONVERTED_TYPE = -1;
+	static final int UTF8 = 0;
+	static final int ENUM = 4;
+	static final int DECIMAL = 5;
+	static final int DATE = 6;
+	static final int TIMESTAMP_MILLIS = 9;
+	static final int TIMESTAMP_MICROS = 10;
+	static final int JSON = 19;
+
+	// encodings
+	static final int PLAIN = 0;
+	static final int PLAIN_DICTIONARY = 2;
+	static final int RLE = 3;
+	static final int RLE_DICTIONARY = 8;
+
+	// compression codecs
+	static final int UNCOMPRESSED = 0;
+	static final int SNAPPY = 1;
+	static final int GZIP = 2;
+
+	// page types
+	static final int DATA_PAGE = 0;
+	static final int DICTIONARY_PAGE = 2;
+	static final int DATA_PAGE_V2 = 3;
+
+	/**
+	 * Element of the schema - a group or a primitive column.
+	 */
+	static class SchemaElement {
+		String name;
+		int type = -1;
+		int typeLength;
+		int repetition = REQUIRED;
+		int numChildren;
+		int convertedType = NO_CONVERTED_TYPE;
+		int scale;
+		int precision;
+
+		boolean isGroup() {
+			return numChildren > 0 || type < 0;
+		}
+
+		void write(ThriftCompactOutput out) {
+			if (type >= 0) {
+				out.writeI32(1, type);
+			}
+			if (type == FIXED_LEN_BYTE_ARRAY) {
+				out.writeI32(2, typeLength);
+			}
+			if (type >= 0) {
+				out.writeI32(3, repetition);
+			}
+			out.writeString(4, name);
+			if (type < 0) {
+				out.writeI32(5, numChildren);
+			}
+			if (convertedType != NO_CONVERTED_TYPE) {
+				out.writeI32(6, convertedType);
+			}
+			if (convertedType == DECIMAL) {
+				out.writeI32(7, scale);
+				out.writeI32(8, precision);
+			}
+		}
+
+		static SchemaElement read(ThriftCompactInput in) throws IOException {
+			SchemaElement result = new SchemaElement();
+			int fieldType;
+			while ((fieldType = in.readFieldHeader()) != ThriftCompactOutput.TYPE_STOP) {
+				switch (in.getFieldId()) {
+				case 1: result.type = in.readI32(); break;
+				case 2: result.typeLength = in.readI32(); break;
+				case 3: result.repetition = in.readI32(); break;
+				case 4: result.name = in.readString(); break;
+				case 5: result.numChildren = in.readI32(); break;
+				case 6: result.convertedType = in.readI32(); break;
+				case 7: result.scale = in.readI32(); break;
+				case 8: result.precision = in.readI32(); break;
+				default: in.skip(fieldType);
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Column chunk of a row group with its statistics.
+	 */
+	static class ColumnChunk {
+		/** dot separated path of the column in the schema */
+		String path;
+		int type;
+		int codec = UNCOMPRESSED;
+		List<Integer> encodings = new ArrayList<Integer>();
+		long numValues;
+		long totalUncompressedSize;
+		long totalCompressedSize;
+		long dataPageOffset;
+		long dictionaryPageOffset = -1;
+		/** the chunk is stored in another file, not supported */
+		String filePath;
+		/** minimum and maximum value in PLAIN encoding, null if not available */
+		byte[] minValue;
+		byte[] maxValue;
+		/** -1 if not known */
+		long nullCount = -1;
+
+		/**
+		 * @return file offset of the first page of the chunk
+		 */
+		long getStartOffset() {
+			return (dictionaryPageOffset > 0 && dictionaryPageOffset < dataPageOffset) ? dictionaryPageOffset : dataPageOffset;
+		}
+
+		void write(ThriftCompactOutput out) {
+			out.writeI64(2, dataPageOffset); // file_offset
+			out.writeStructBegin(3);
+			out.writeI32(1, type);
+			out.writeListBegin(2, ThriftCompactOutput.TYPE_I32, encodings.size());
+			for (int encoding : encodings) {
+				out.writeListI32(encoding);
+			}
+			String[] pathElements = path.split("\\.");
+			out.writeListBegin(3, ThriftCompactOutput.TYPE_BINARY, pathElements.length);
+			for (String element : pathElements) {
+				out.writeListString(element);
+			}
+			out.writeI32(4, codec);
+			out.writeI64(5, numValues);
+			out.writeI64(6, totalUncompressedSize);
+			out.writeI64(7, totalCompressedSize);
+			out.writeI64(9, dataPageOffset);
+			if (minValue != null || nullCount >= 0) {
+				out.writeStructBegin(12);
+				if (nullCount >= 0) {
+					out.writeI64(3, nullCount);
+				}
+				if (minValue != null) {
+					out.writeBinary(5, maxValue);
+					out.writeBinary(6, minValue);
+				}
+				out.writeStructEnd();
+			}
+			out.writeStructEnd();
+		}
+
+		static ColumnChunk read(ThriftCompactInput in) throws IOException {
+			ColumnChunk result = new ColumnChunk();
+			int fieldType;
+			while ((fieldType = in.readFieldHeader()) != ThriftCompactOutput.TYPE_STOP) {
+				switch (in.getFieldId()) {
+				case 1:
+					result.filePath = in.readString();
+					break;
+				case 3:
+					in.readStructBegin();
+					result.readColumnMetadata(in);
+					in.readStructEnd();
+					break;
+				default:
+					in.skip(fieldType);
+				}
+			}
+			return result;
+		}
+
+		private void readColumnMetadata(ThriftCompactInput in) throws IOException {
+			int fieldType;
+			while ((fieldType = in.readFieldHeader()) != ThriftCompactOutput.TYPE_STOP) {
+				switch (in.getFieldId()) {
+				case 1: type = in.readI32(); break;
+				case 2: {
+					int size = in.readListHeader();
+					for (int i = 0; i < size; i++) {
+						encodings.add(in.readI32());
+					}
+					break;
+				}
+				case 3: {
+					int size = in.readListHeader();
+					StringBuilder sb = new StringBuilder();
+					for (int i = 0; i < size; i++) {
+						if (i > 0) {
+							sb.append('.');
+						}
+						sb.append(in.readString());
+					}
+					path = sb.toString();
+					break;
+				}
+				case 4: codec = in.readI32(); break;
+				case 5: numValues = in.readI64(); break;
+				case 6: totalUncompressedSize = in.readI64(); break;
+				case 7: totalCompressedSize = in.readI64(); break;
+				case 9: dataPageOffset = in.readI64(); break;
+				case 11: dictionaryPageOffset = in.readI64(); break;
+				case 12:
+					in.readStructBegin();
+					readStatistics(in);
+					in.readStructEnd();
+					break;
+				default: in.skip(fieldType);
+				}
+			}
+		}
+
+		private void readStatistics(ThriftCompactInput in) throws IOException {
+			// deprecated min and max are sorted as signed values, which is correct only for numeric types
+			byte[] legacyMin = null;
+			byte[] legacyMax = null;
+			int fieldType;
+			while ((fieldType = in.readFieldHeader()) != ThriftCompactOutput.TYPE_STOP) {
+				switch (in.getFieldId()) {
+				case 1: legacyMax = in.readBinary(); break;
+				case 2: legacyMin = in.readBinary(); break;
+				case 3: nullCount = in.readI64(); break;
+				case 5: maxValue = in.readBinary(); break;
+				case 6: minValue = in.readBinary(); break;
+				default: in.skip(fieldType);
+				}
+			}
+			if ((minValue == null || maxValue == null) && type != BYTE_ARRAY && type != FIXED_LEN_BYTE_ARRAY) {
+				minValue = legacyMin;
+				maxValue = legacyMax;
+			}
+			if (minValue == null || maxValue == null) {
+				minValue = null;
+				maxValue = null;
+			}
+		}
+	}
+
+	/**
+	 * Row group - horizontal partition of the data.
+	 */
+	static class RowGroup {
+		List<ColumnChunk> columns = new ArrayList<ColumnChunk>();
+		long totalByteSize;
+		long numRows;
+
+		void write(ThriftCompactOutput out) {
+			out.writeListBegin(1, ThriftCompactOutput.TYPE_STRUCT, columns.size());
+			for (ColumnChunk column : columns) {
+				out.writeListStructBegin();
+				column.write(out);
+				out.writeStructEnd();
+			}
+			out.writeI64(2, totalByteSize);
+			out.writeI64(3, numRows);
+		}
+
+		static RowGroup read(ThriftCompactInput in) throws IOException {
+			RowGroup result = new RowGroup();
+			int fieldType;
+			while ((fieldType = in.readFieldHeader()) != ThriftCompactOutput.TYPE_STOP) {
+				switch (in.getFieldId()) {
+				case 1: {
+					int size = in.readListHeader();
+					for (int i = 0; i < size; i++) {
+						in.readStructBegin();
+						result.columns.add(ColumnChunk.read(in));
+						in.readStructEnd();
+					}
+					break;
+				}
+				case 2: result.totalByteSize = in.readI64(); break;
+				case 3: result.numRows = in.readI64(); break;
+				default: in.skip(fieldType);
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Header of a data or dictionary page.
+	 */
+	static class PageHeader {
+		int type;
+		int uncompressedSize;
+		int compressedSize;
+		int numValues;
+		int encoding;
+		/** only in DATA_PAGE_V2, the levels are not compressed */
+		int definitionLevelsLength;
+		int repetitionLevelsLength;
+		boolean compressed = true;
+
+		/**
+		 * Writes header of DATA_PAGE with RLE encoded definition levels.
+		 */
+		void write(ThriftCompactOutput out) {
+			out.writeI32(1, type);
+			out.writeI32(2, uncompressedSize);
+			out.writeI32(3, compressedSize);
+			out.writeStructBegin(5);
+			out.writeI32(1, numValues);
+			out.writeI32(2, encoding);
+			out.writeI32(3, RLE);
+			out.writeI32(4, RLE);
+			out.writeStructEnd();
+			out.writeStop();
+		}
+
+		static PageHeader read(ThriftCompactInput in) throws IOException {
+			PageHeader result = new PageHeader();
+			int fieldType;
+			while ((fieldType = in.readFieldHeader()) != ThriftCompactOutput.TYPE_STOP) {
+				switch (in.getFieldId()) {
+				case 1: result.type = in.readI32(); break;
+				case 2: result.uncompressedSize = in.readI32(); break;
+				case 3: result.compressedSize = in.readI32(); break;
+				case 5:
+				case 7:
+				case 8:
+					in.readStructBegin();
+					result.readPageHeader(in, in.getFieldId());
+					in.readStructEnd();
+					break;
+				default: in.skip(fieldType);
+				}
+			}
+			return result;
+		}
+
+		private void readPageHeader(ThriftCompactInput in, int headerId) throws IOException {
+			int fieldType;
+			while ((fieldType = in.readFieldHeader()) != ThriftCompactOutput.TYPE_STOP) {
+				int id = in.getFieldId();
+				if (id == 1) {
+					numValues = in.readI32();
+				} else if (headerId == 8) { // DataPageHeaderV2
+					switch (id) {
+					case 4: encoding = in.readI32(); break;
+					case 5: definitionLevelsLength = in.readI32(); break;
+					case 6: repetitionLevelsLength = in.readI32(); break;
+					case 7: compressed = in.readBool(fieldType); break;
+					default: in.skip(fieldType);
+					}
+				} else if (id == 2) {
+					encoding = in.readI32();
+				} else {
+					in.skip(fieldType);
+				}
+			}
+		}
+	}
+
+	List<SchemaElement> schema = new ArrayList<SchemaElement>();
+	long numRows;
+	List<RowGroup> rowGroups = new ArrayList<RowGroup>();
+	String createdBy;
+
+	byte[] serialize() {
+		ThriftCompactOutput out = new ThriftCompactOutput();
+		out.writeI32(1, 1); // version
+		out.writeListBegin(2, ThriftCompactOutput.TYPE_STRUCT, schema.size());
+		for (SchemaElement element : schema) {
+			out.writeListStructBegin();
+			element.write(out);
+			out.writeStructEnd();
+		}
+		out.writeI64(3, numRows);
+		out.writeListBegin(4, ThriftCompactOutput.TYPE_STRUCT, rowGroups.size());
+		for (RowGroup rowGroup : rowGroups) {
+			out.writeListStructBegin();
+			rowGroup.write(out);
+			out.writeStructEnd();
+		}
+		if (createdBy != null) {
+			out.writeString(6, createdBy);
+		}
+		// min_value and max_value of the statistics are defined only together with the column orders
+		int columnCount = schema.isEmpty() ? 0 : schema.size() - 1;
+		out.writeListBegin(7, ThriftCompactOutput.TYPE_STRUCT, columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			out.writeListStructBegin();
+			out.writeStructBegin(1); // TYPE_ORDER
+			out.writeStructEnd();
+			out.writeStructEnd();
+		}
+		out.writeStop();
+		return out.toByteArray();
+	}
+
+	static ParquetFileMetadata deserialize(ByteBuffer data) throws IOException {
+		ThriftCompactInput in = new ThriftCompactInput(data);
+		ParquetFileMetadata result = new ParquetFileMetadata();
+		int fieldType;
+		while ((fieldType = in.readFieldHeader()) != ThriftCompactOutput.TYPE_STOP) {
+			switch (in.getFieldId()) {
+			case 2: {
+				int size = in.readListHeader();
+				for (int i = 0; i < size; i++) {
+					in.readStructBegin();
+					result.schema.add(SchemaElement.read(in));
+					in.readStructEnd();
+				}
+				break;
+			}
+			case 3:
+				result.numRows = in.readI64();
+				break;
+			case 4: {
+				int size = in.readListHeader();
+				for (int i = 0; i < size; i++) {
+					in.readStructBegin();
+					result.rowGroups.add(RowGroup.read(in));
+					in.readStructEnd();
+				}
+				break;
+			}
+			case 6:
+				result.createdBy = in.readString();
+				break;
+			default:
+				in.skip(fieldType);
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * RLE/bit-packing hybrid encoding of Parquet, used for definition levels and dictionary indices.
+ * The encoder writes only RLE runs of 0/1 values, the decoder supports both kinds of runs and any bit width.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+class ParquetRle {
+
+	private ParquetRle() {
+	}
+
+	/**
+	 * Encodes values with bit width 1.
+	 *
+	 * @param values 0 or 1 values
+	 * @param count number of the values
+	 * @param out
+	 */
+	static void encode(byte[] values, int count, ByteArrayOutputStream out) {
+		int i = 0;
+		while (i < count) {
+			byte value = values[i];
+			int runStart = i;
+			while (i < count && values[i] == value) {
+				i++;
+			}
+			writeVarint(out, (i - runStart) << 1);
+			out.write(value);
+		}
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	/**
+	 * Decoder of values of the given bit width.
+	 */
+	static class Decoder {
+		private final ByteBuffer in;
+		private final int bitWidth;
+		private final int byteWidth;
+		private final long mask;
+
+		private int runRemaining;
+		private int runValue;
+
+		private int packedRemaining;
+		private long bitBuffer;
+		private int bitCount;
+
+		/**
+		 * @param in encoded data, read from the current position
+		 * @param bitWidth
+		 */
+		Decoder(ByteBuffer in, int bitWidth) throws IOException {
+			if (bitWidth < 0 || bitWidth > 32) {
+				throw new IOException("Corrupted Parquet data - invalid bit width " + bitWidth);
+			}
+			this.in = in;
+			this.bitWidth = bitWidth;
+			this.byteWidth = (bitWidth + 7) / 8;
+			this.mask = (1L << bitWidth) - 1;
+		}
+
+		int next() throws IOException {
+			try {
+				if (runRemaining == 0 && packedRemaining == 0) {
+					readHeader();
+				}
+				if (runRemaining > 0) {
+					runRemaining--;
+					return runValue;
+				}
+				packedRemaining--;
+				while (bitCount < bitWidth) {
+					bitBuffer |= (long) (in.get() & 0xFF) << bitCount;
+					bitCount += 8;
+				}
+				int result = (int) (bitBuffer & mask);
+				bitBuffer >>>= bitWidth;
+				bitCount -= bitWidth;
+				return result;
+			} catch (BufferUnderflowException e) {
+				throw new IOException("Corrupted Parquet data - unexpected end of encoded values", e);
+			}
+		}
+
+		private void readHeader() throws IOException {
+			int header = readVarint();
+			if ((header & 1) == 0) {
+				runRemaining = header >>> 1;
+				runValue = 0;
+				for (int i = 0; i < byteWidth; i++) {
+					runValue |= (in.get() & 0xFF) << (8 * i);
+				}
+			} else {
+				packedRemaining = (header >>> 1) * 8;
+				bitBuffer = 0;
+				bitCount = 0;
+			}
+			if (runRemaining == 0 && packedRemaining == 0) {
+				throw new IOException("Corrupted Parquet data - empty run of encoded values");
+			}
+		}
+
+		private int readVarint() throws IOException {
+			int result = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				byte b = in.get();
+				result |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return result;
+				}
+			}
+			throw new IOException("Corrupted Parquet data - invalid varint");
+		}
+	}
+
+}
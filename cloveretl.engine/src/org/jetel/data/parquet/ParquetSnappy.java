@@ -0,0 +1,146 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import java.io.IOException;
+
+/**
+ * Decoder of the Snappy block format (raw Snappy without the framing format), as used by the SNAPPY
+ * codec of Parquet pages. The block starts by the uncompressed length as a varint, followed by literals
+ * and back-references (copies) to the already decompressed data.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+class ParquetSnappy {
+
+	private static final int LITERAL = 0;
+	private static final int COPY_1_BYTE_OFFSET = 1;
+	private static final int COPY_2_BYTE_OFFSET = 2;
+
+	private ParquetSnappy() {
+	}
+
+	/**
+	 * Decompresses the Snappy block.
+	 *
+	 * @param data
+	 * @param offset start of the block
+	 * @param length length of the block
+	 * @param uncompressedSize expected size of the decompressed data
+	 * @return decompressed data
+	 * @throws IOException if the block is corrupted or its uncompressed length differs from the expected size
+	 */
+	static byte[] decompress(byte[] data, int offset, int length, int uncompressedSize) throws IOException {
+		int end = offset + length;
+		int in = offset;
+
+		// uncompressed length
+		long declaredSize = 0;
+		int shift = 0;
+		while (true) {
+			if (in >= end || shift > 28) {
+				throw new IOException("Corrupted Snappy data - invalid uncompressed length");
+			}
+			int b = data[in++];
+			declaredSize |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				break;
+			}
+			shift += 7;
+		}
+		if (declaredSize != uncompressedSize) {
+			throw new IOException("Corrupted Snappy data - uncompressed length " + declaredSize + " differs from the expected " + uncompressedSize);
+		}
+
+		byte[] result = new byte[uncompressedSize];
+		int out = 0;
+		while (in < end) {
+			int tag = data[in++] & 0xFF;
+			int elementLength;
+			if ((tag & 0x03) == LITERAL) {
+				elementLength = tag >>> 2;
+				if (elementLength >= 60) {
+					// the length - 1 is stored in the following 1 to 4 bytes
+					int bytes = elementLength - 59;
+					if (in + bytes > end) {
+						throw new IOException("Corrupted Snappy data - unexpected end of literal length");
+					}
+					elementLength = 0;
+					for (int i = 0; i < bytes; i++) {
+						elementLength |= (data[in++] & 0xFF) << (8 * i);
+					}
+					if (elementLength < 0 || elementLength == Integer.MAX_VALUE) {
+						throw new IOException("Corrupted Snappy data - invalid literal length");
+					}
+				}
+				elementLength++;
+				if (elementLength > end - in || elementLength > result.length - out) {
+					throw new IOException("Corrupted Snappy data - literal exceeds the block");
+				}
+				System.arraycopy(data, in, result, out, elementLength);
+				in += elementLength;
+				out += elementLength;
+			} else {
+				int copyOffset;
+				if ((tag & 0x03) == COPY_1_BYTE_OFFSET) {
+					if (in >= end) {
+						throw new IOException("Corrupted Snappy data - unexpected end of copy");
+					}
+					elementLength = ((tag >>> 2) & 0x07) + 4;
+					copyOffset = ((tag & 0xE0) << 3) | (data[in++] & 0xFF);
+				} else if ((tag & 0x03) == COPY_2_BYTE_OFFSET) {
+					if (in + 2 > end) {
+						throw new IOException("Corrupted Snappy data - unexpected end of copy");
+					}
+					elementLength = (tag >>> 2) + 1;
+					copyOffset = (data[in] & 0xFF) | ((data[in + 1] & 0xFF) << 8);
+					in += 2;
+				} else {
+					if (in + 4 > end) {
+						throw new IOException("Corrupted Snappy data - unexpected end of copy");
+					}
+					elementLength = (tag >>> 2) + 1;
+					copyOffset = (data[in] & 0xFF) | ((data[in + 1] & 0xFF) << 8) | ((data[in + 2] & 0xFF) << 16) | ((data[in + 3] & 0xFF) << 24);
+					in += 4;
+				}
+				if (copyOffset <= 0 || copyOffset > out || elementLength > result.length - out) {
+					throw new IOException("Corrupted Snappy data - invalid copy offset " + copyOffset + " or length " + elementLength);
+				}
+				if (copyOffset >= elementLength) {
+					System.arraycopy(result, out - copyOffset, result, out, elementLength);
+					out += elementLength;
+				} else {
+					// overlapping copy repeats the last copyOffset bytes
+					for (int i = 0; i < elementLength; i++) {
+						result[out] = result[out - copyOffset];
+						out++;
+					}
+				}
+			}
+		}
+		if (out != result.length) {
+			throw new IOException("Corrupted Snappy data - decompressed " + out + " bytes instead of " + result.length);
+		}
+		return result;
+	}
+
+}
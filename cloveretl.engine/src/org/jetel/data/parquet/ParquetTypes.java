@@ -0,0 +1,345 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.jetel.data.BooleanDataField;
+import org.jetel.data.ByteDataField;
+import org.jetel.data.DataField;
+import org.jetel.data.DateDataField;
+import org.jetel.data.primitive.Numeric;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.metadata.DataFieldContainerType;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.util.bytes.CloverBuffer;
+
+/**
+ * Mapping of clover data types to Parquet types and PLAIN encoding of the values.
+ *
+ * <table border="1">
+ * <tr><th>Clover type</th><th>Written as</th><th>Read from</th></tr>
+ * <tr><td>string</td><td>BYTE_ARRAY (UTF8)</td><td>BYTE_ARRAY, FIXED_LEN_BYTE_ARRAY</td></tr>
+ * <tr><td>date</td><td>INT64 (TIMESTAMP_MILLIS)</td><td>INT32 (DATE), INT64 (TIMESTAMP_MILLIS, TIMESTAMP_MICROS), INT96</td></tr>
+ * <tr><td>number, integer, long</td><td>DOUBLE, INT32, INT64</td><td>INT32, INT64, FLOAT, DOUBLE</td></tr>
+ * <tr><td>decimal</td><td>INT32, INT64 or BYTE_ARRAY (DECIMAL)</td><td>any numeric type or DECIMAL</td></tr>
+ * <tr><td>byte, cbyte</td><td>BYTE_ARRAY</td><td>BYTE_ARRAY, FIXED_LEN_BYTE_ARRAY</td></tr>
+ * <tr><td>boolean</td><td>BOOLEAN</td><td>BOOLEAN</td></tr>
+ * </table>
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+class ParquetTypes {
+
+	private static final long MILLIS_PER_DAY = 86400000L;
+
+	/** julian day of 1970-01-01 */
+	private static final long JULIAN_EPOCH_DAY = 2440588L;
+
+	private ParquetTypes() {
+	}
+
+	/**
+	 * @param field clover field
+	 * @return schema element of the column written for the field
+	 * @throws ComponentNotReadyException if the field cannot be written
+	 */
+	static ParquetFileMetadata.SchemaElement toSchemaElement(DataFieldMetadata field) throws ComponentNotReadyException {
+		if (field.getContainerType() != DataFieldContainerType.SINGLE) {
+			throw new ComponentNotReadyException("Field '" + field.getName() + "' is a list or a map, which is not supported by Parquet formatter");
+		}
+		ParquetFileMetadata.SchemaElement result = new ParquetFileMetadata.SchemaElement();
+		result.name = field.getName();
+		result.repetition = field.isNullable() ? ParquetFileMetadata.OPTIONAL : ParquetFileMetadata.REQUIRED;
+		switch (field.getDataType()) {
+		case STRING:
+			result.type = ParquetFileMetadata.BYTE_ARRAY;
+			result.convertedType = ParquetFileMetadata.UTF8;
+			break;
+		case DATE:
+			result.type = ParquetFileMetadata.INT64;
+			result.convertedType = ParquetFileMetadata.TIMESTAMP_MILLIS;
+			break;
+		case NUMBER:
+			result.type = ParquetFileMetadata.DOUBLE;
+			break;
+		case INTEGER:
+			result.type = ParquetFileMetadata.INT32;
+			break;
+		case LONG:
+			result.type = ParquetFileMetadata.INT64;
+			break;
+		case DECIMAL:
+			result.precision = field.getFieldProperties().getIntProperty(DataFieldMetadata.LENGTH_ATTR);
+			result.scale = field.getFieldProperties().getIntProperty(DataFieldMetadata.SCALE_ATTR);
+			result.convertedType = ParquetFileMetadata.DECIMAL;
+			if (result.precision <= 9) {
+				result.type = ParquetFileMetadata.INT32;
+			} else if (result.precision <= 18) {
+				result.type = ParquetFileMetadata.INT64;
+			} else {
+				result.type = ParquetFileMetadata.BYTE_ARRAY;
+			}
+			break;
+		case BYTE:
+		case CBYTE:
+			result.type = ParquetFileMetadata.BYTE_ARRAY;
+			break;
+		case BOOLEAN:
+			result.type = ParquetFileMetadata.BOOLEAN;
+			break;
+		default:
+			throw new ComponentNotReadyException("Field '" + field.getName() + "' of type " + field.getDataType().getName() + " is not supported by Parquet formatter");
+		}
+		return result;
+	}
+
+	/**
+	 * Checks that values of the column can be read into the field.
+	 *
+	 * @param column
+	 * @param field
+	 * @throws ComponentNotReadyException if the types are not compatible
+	 */
+	static void checkCompatibility(ParquetFileMetadata.SchemaElement column, DataFieldMetadata field) throws ComponentNotReadyException {
+		if (field.getContainerType() != DataFieldContainerType.SINGLE || !isCompatible(column, field.getDataType())) {
+			throw new ComponentNotReadyException("Field '" + field.getName() + "' of type " + field.getDataType().getName()
+					+ " is not compatible with Parquet column '" + column.name + "' of type " + typeName(column));
+		}
+	}
+
+	private static boolean isCompatible(ParquetFileMetadata.SchemaElement column, DataFieldType type) {
+		switch (type) {
+		case STRING:
+		case BYTE:
+		case CBYTE:
+			return isBinary(column) && column.convertedType != ParquetFileMetadata.DECIMAL;
+		case DATE:
+			return (column.type == ParquetFileMetadata.INT32 && column.convertedType == ParquetFileMetadata.DATE)
+					|| (column.type == ParquetFileMetadata.INT64 && (column.convertedType == ParquetFileMetadata.TIMESTAMP_MILLIS
+							|| column.convertedType == ParquetFileMetadata.TIMESTAMP_MICROS))
+					|| column.type == ParquetFileMetadata.INT96;
+		case NUMBER:
+		case INTEGER:
+		case LONG:
+		case DECIMAL:
+			return column.type == ParquetFileMetadata.INT32 || column.type == ParquetFileMetadata.INT64
+					|| column.type == ParquetFileMetadata.FLOAT || column.type == ParquetFileMetadata.DOUBLE
+					|| (isBinary(column) && column.convertedType == ParquetFileMetadata.DECIMAL);
+		case BOOLEAN:
+			return column.type == ParquetFileMetadata.BOOLEAN;
+		default:
+			return false;
+		}
+	}
+
+	static boolean isBinary(ParquetFileMetadata.SchemaElement column) {
+		return column.type == ParquetFileMetadata.BYTE_ARRAY || column.type == ParquetFileMetadata.FIXED_LEN_BYTE_ARRAY;
+	}
+
+	/**
+	 * @param column
+	 * @return true if min/max statistics of the column are ordered in the same way as clover values
+	 */
+	static boolean hasComparableStatistics(ParquetFileMetadata.SchemaElement column, DataFieldType type) {
+		if (column.type == ParquetFileMetadata.INT96 || type == DataFieldType.BYTE || type == DataFieldType.CBYTE) {
+			return false;
+		}
+		// binary decimals are ordered as unsigned bytes, not as numbers
+		return !(isBinary(column) && column.convertedType == ParquetFileMetadata.DECIMAL);
+	}
+
+	private static String typeName(ParquetFileMetadata.SchemaElement column) {
+		String[] names = { "BOOLEAN", "INT32", "INT64", "INT96", "FLOAT", "DOUBLE", "BYTE_ARRAY", "FIXED_LEN_BYTE_ARRAY" };
+		return (column.type >= 0 && column.type < names.length) ? names[column.type] : "group";
+	}
+
+	/**
+	 * Writes the non-null value in PLAIN encoding, except for boolean values which are bit-packed by the caller.
+	 *
+	 * @param field written field
+	 * @param column column of the field
+	 * @param out little-endian buffer
+	 */
+	static void writeValue(DataField field, ParquetFileMetadata.SchemaElement column, CloverBuffer out) {
+		switch (field.getMetadata().getDataType()) {
+		case STRING:
+			writeBinary(field.toString().getBytes(StandardCharsets.UTF_8), out);
+			break;
+		case DATE:
+			out.putLong(((DateDataField) field).getTime());
+			break;
+		case NUMBER:
+			out.putDouble(((Numeric) field).getDouble());
+			break;
+		case INTEGER:
+			out.putInt(((Numeric) field).getInt());
+			break;
+		case LONG:
+			out.putLong(((Numeric) field).getLong());
+			break;
+		case DECIMAL:
+			BigInteger unscaled = ((Numeric) field).getBigDecimal().setScale(column.scale, RoundingMode.HALF_UP).unscaledValue();
+			if (column.type == ParquetFileMetadata.INT32) {
+				out.putInt(unscaled.intValue());
+			} else if (column.type == ParquetFileMetadata.INT64) {
+				out.putLong(unscaled.longValue());
+			} else {
+				writeBinary(unscaled.toByteArray(), out);
+			}
+			break;
+		case BYTE:
+		case CBYTE:
+			writeBinary(((ByteDataField) field).getByteArray(), out);
+			break;
+		case BOOLEAN:
+			out.put((byte) (((BooleanDataField) field).getBoolean() ? 1 : 0));
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported field type " + field.getMetadata().getDataType());
+		}
+	}
+
+	private static void writeBinary(byte[] value, CloverBuffer out) {
+		out.putInt(value.length);
+		out.put(value);
+	}
+
+	/**
+	 * Reads one value in PLAIN encoding into the field. Boolean values are expected in one byte
+	 * as in statistics, bit-packed data pages are decoded by the caller.
+	 *
+	 * @param in little-endian buffer with heap array
+	 * @param column column of the value
+	 * @param binaryLength length of a BYTE_ARRAY value or -1 if the length is stored before the value
+	 * @param field target field
+	 * @throws IOException if the data are corrupted
+	 */
+	static void readValue(ByteBuffer in, ParquetFileMetadata.SchemaElement column, int binaryLength, DataField field) throws IOException {
+		try {
+			switch (column.type) {
+			case ParquetFileMetadata.BOOLEAN:
+				((BooleanDataField) field).setValue(in.get() != 0);
+				break;
+			case ParquetFileMetadata.INT32:
+				setInt(in.getInt(), column, field);
+				break;
+			case ParquetFileMetadata.INT64:
+				setLong(in.getLong(), column, field);
+				break;
+			case ParquetFileMetadata.INT96:
+				long nanos = in.getLong();
+				long julianDay = in.getInt() & 0xFFFFFFFFL;
+				((DateDataField) field).setValue((julianDay - JULIAN_EPOCH_DAY) * MILLIS_PER_DAY + nanos / 1000000L);
+				break;
+			case ParquetFileMetadata.FLOAT:
+				((Numeric) field).setValue((double) in.getFloat());
+				break;
+			case ParquetFileMetadata.DOUBLE:
+				((Numeric) field).setValue(in.getDouble());
+				break;
+			case ParquetFileMetadata.BYTE_ARRAY:
+			case ParquetFileMetadata.FIXED_LEN_BYTE_ARRAY:
+				int length;
+				if (column.type == ParquetFileMetadata.FIXED_LEN_BYTE_ARRAY) {
+					length = column.typeLength;
+				} else if (binaryLength >= 0) {
+					length = binaryLength;
+				} else {
+					length = in.getInt();
+				}
+				if (length < 0 || length > in.remaining()) {
+					throw new IOException("Corrupted Parquet data - invalid length of value in column " + column.name);
+				}
+				int offset = in.arrayOffset() + in.position();
+				in.position(in.position() + length); // the value is skipped even if it cannot be set
+				setBinary(in.array(), offset, length, column, field);
+				break;
+			default:
+				throw new IOException("Unsupported Parquet type " + column.type + " of column " + column.name);
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Corrupted Parquet data - unexpected end of page in column " + column.name, e);
+		}
+	}
+
+	/**
+	 * Reads a value of min/max statistics.
+	 *
+	 * @param value PLAIN encoded value without length
+	 * @param column
+	 * @param field target field
+	 * @throws IOException
+	 */
+	static void readStatisticsValue(byte[] value, ParquetFileMetadata.SchemaElement column, DataField field) throws IOException {
+		ByteBuffer in = ByteBuffer.wrap(value).order(ByteOrder.LITTLE_ENDIAN);
+		if (column.type == ParquetFileMetadata.FIXED_LEN_BYTE_ARRAY && value.length != column.typeLength) {
+			throw new IOException("Invalid statistics of Parquet column " + column.name);
+		}
+		readValue(in, column, value.length, field);
+	}
+
+	private static void setInt(int value, ParquetFileMetadata.SchemaElement column, DataField field) {
+		if (column.convertedType == ParquetFileMetadata.DATE && field instanceof DateDataField) {
+			((DateDataField) field).setValue(value * MILLIS_PER_DAY);
+		} else if (column.convertedType == ParquetFileMetadata.DECIMAL) {
+			((Numeric) field).setValue(BigDecimal.valueOf(value, column.scale));
+		} else {
+			((Numeric) field).setValue(value);
+		}
+	}
+
+	private static void setLong(long value, ParquetFileMetadata.SchemaElement column, DataField field) {
+		if (field instanceof DateDataField) {
+			if (column.convertedType == ParquetFileMetadata.TIMESTAMP_MICROS) {
+				value = (value >= 0) ? value / 1000L : -((999L - value) / 1000L); // floor
+			}
+			((DateDataField) field).setValue(value);
+		} else if (column.convertedType == ParquetFileMetadata.DECIMAL) {
+			((Numeric) field).setValue(BigDecimal.valueOf(value, column.scale));
+		} else {
+			((Numeric) field).setValue(value);
+		}
+	}
+
+	private static void setBinary(byte[] data, int offset, int length, ParquetFileMetadata.SchemaElement column, DataField field) {
+		if (column.convertedType == ParquetFileMetadata.DECIMAL) {
+			byte[] unscaled = new byte[length];
+			System.arraycopy(data, offset, unscaled, 0, length);
+			BigInteger value = (length > 0) ? new BigInteger(unscaled) : BigInteger.ZERO;
+			((Numeric) field).setValue(new BigDecimal(value, column.scale));
+		} else if (field instanceof ByteDataField) {
+			((ByteDataField) field).setValue(data, offset, length);
+		} else {
+			field.setValue(new String(data, offset, length, StandardCharsets.UTF_8));
+		}
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_BINARY;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_BOOLEAN_FALSE;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_BOOLEAN_TRUE;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_BYTE;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_DOUBLE;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_I16;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_I32;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_I64;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_LIST;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_MAP;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_SET;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_STOP;
+import static org.jetel.data.parquet.ThriftCompactOutput.TYPE_STRUCT;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * Reader of structures in Thrift compact protocol, counterpart of {@link ThriftCompactOutput}.
+ * Unknown fields can be skipped by {@link #skip(int)}.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+class ThriftCompactInput {
+
+	private final ByteBuffer in;
+
+	private int lastFieldId;
+	private final ArrayDeque<Integer> lastFieldIds = new ArrayDeque<Integer>();
+
+	/** id of the field read by the last {@link #readFieldHeader()} */
+	private int fieldId;
+
+	/** element type of the list read by the last {@link #readListHeader()} */
+	private int elementType;
+
+	/**
+	 * @param in data, read from the current position
+	 */
+	public ThriftCompactInput(ByteBuffer in) {
+		this.in = in;
+	}
+
+	/**
+	 * Reads header of the next field of the current structure.
+	 *
+	 * @return type of the field, {@link ThriftCompactOutput#TYPE_STOP} at the end of the structure
+	 */
+	public int readFieldHeader() throws IOException {
+		int header = readByte() & 0xFF;
+		int type = header & 0x0F;
+		if (type == TYPE_STOP) {
+			return TYPE_STOP;
+		}
+		int delta = header >>> 4;
+		fieldId = (delta != 0) ? lastFieldId + delta : (int) unzigzag(readVarint());
+		lastFieldId = fieldId;
+		return type;
+	}
+
+	public int getFieldId() {
+		return fieldId;
+	}
+
+	public int getElementType() {
+		return elementType;
+	}
+
+	public void readStructBegin() {
+		lastFieldIds.push(lastFieldId);
+		lastFieldId = 0;
+	}
+
+	public void readStructEnd() {
+		lastFieldId = lastFieldIds.pop();
+	}
+
+	/**
+	 * @return number of elements of the list
+	 */
+	public int readListHeader() throws IOException {
+		int header = readByte() & 0xFF;
+		elementType = header & 0x0F;
+		int size = header >>> 4;
+		return (size == 15) ? (int) readVarint() : size;
+	}
+
+	public int readI32() throws IOException {
+		return (int) unzigzag(readVarint());
+	}
+
+	public long readI64() throws IOException {
+		return unzigzag(readVarint());
+	}
+
+	/**
+	 * @param type type of the field header
+	 * @return value of a boolean field
+	 */
+	public boolean readBool(int type) {
+		return type == TYPE_BOOLEAN_TRUE;
+	}
+
+	public byte[] readBinary() throws IOException {
+		int length = (int) readVarint();
+		if (length < 0 || length > in.remaining()) {
+			throw new IOException("Corrupted Parquet metadata");
+		}
+		byte[] result = new byte[length];
+		in.get(result);
+		return result;
+	}
+
+	public String readString() throws IOException {
+		return new String(readBinary(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Skips value of the given type.
+	 */
+	public void skip(int type) throws IOException {
+		skip(type, false);
+	}
+
+	private void skip(int type, boolean element) throws IOException {
+		switch (type) {
+		case TYPE_BOOLEAN_TRUE:
+		case TYPE_BOOLEAN_FALSE:
+			if (element) {
+				readByte(); // booleans in collections are stored in a byte
+			}
+			break;
+		case TYPE_BYTE:
+			readByte();
+			break;
+		case TYPE_I16:
+		case TYPE_I32:
+		case TYPE_I64:
+			readVarint();
+			break;
+		case TYPE_DOUBLE:
+			skipBytes(8);
+			break;
+		case TYPE_BINARY:
+			skipBytes((int) readVarint());
+			break;
+		case TYPE_LIST:
+		case TYPE_SET: {
+			int size = readListHeader();
+			int listElementType = elementType;
+			for (int i = 0; i < size; i++) {
+				skip(listElementType, true);
+			}
+			break;
+		}
+		case TYPE_MAP: {
+			int size = (int) readVarint();
+			if (size > 0) {
+				int types = readByte() & 0xFF;
+				for (int i = 0; i < size; i++) {
+					skip(types >>> 4, true);
+					skip(types & 0x0F, true);
+				}
+			}
+			break;
+		}
+		case TYPE_STRUCT:
+			readStructBegin();
+			int fieldType;
+			while ((fieldType = readFieldHeader()) != TYPE_STOP) {
+				skip(fieldType, false);
+			}
+			readStructEnd();
+			break;
+		default:
+			throw new IOException("Corrupted Parquet metadata - unknown Thrift type " + type);
+		}
+	}
+
+	private byte readByte() throws IOException {
+		try {
+			return in.get();
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Unexpected end of Parquet metadata", e);
+		}
+	}
+
+	private void skipBytes(int count) throws IOException {
+		if (count < 0 || count > in.remaining()) {
+			throw new IOException("Unexpected end of Parquet metadata");
+		}
+		in.position(in.position() + count);
+	}
+
+	private long readVarint() throws IOException {
+		long result = 0;
+		int shift = 0;
+		while (true) {
+			byte b = readByte();
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+			shift += 7;
+			if (shift > 63) {
+				throw new IOException("Corrupted Parquet metadata - invalid varint");
+			}
+		}
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * Writer of structures in Thrift compact protocol, which is used for the footer
+ * and page headers of Parquet files. Only the subset needed by Parquet is implemented.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+class ThriftCompactOutput {
+
+	static final int TYPE_STOP = 0;
+	static final int TYPE_BOOLEAN_TRUE = 1;
+	static final int TYPE_BOOLEAN_FALSE = 2;
+	static final int TYPE_BYTE = 3;
+	static final int TYPE_I16 = 4;
+	static final int TYPE_I32 = 5;
+	static final int TYPE_I64 = 6;
+	static final int TYPE_DOUBLE = 7;
+	static final int TYPE_BINARY = 8;
+	static final int TYPE_LIST = 9;
+	static final int TYPE_SET = 10;
+	static final int TYPE_MAP = 11;
+	static final int TYPE_STRUCT = 12;
+
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+
+	/** id of the last written field of the current structure */
+	private int lastFieldId;
+	private final ArrayDeque<Integer> lastFieldIds = new ArrayDeque<Integer>();
+
+	private void writeFieldHeader(int fieldId, int type) {
+		int delta = fieldId - lastFieldId;
+		if (delta > 0 && delta <= 15) {
+			out.write((delta << 4) | type);
+		} else {
+			out.write(type);
+			writeVarint(zigzag(fieldId));
+		}
+		lastFieldId = fieldId;
+	}
+
+	private void writeVarint(long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	public void writeI32(int fieldId, int value) {
+		writeFieldHeader(fieldId, TYPE_I32);
+		writeVarint(zigzag(value));
+	}
+
+	public void writeI64(int fieldId, long value) {
+		writeFieldHeader(fieldId, TYPE_I64);
+		writeVarint(zigzag(value));
+	}
+
+	public void writeBool(int fieldId, boolean value) {
+		writeFieldHeader(fieldId, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+	}
+
+	public void writeBinary(int fieldId, byte[] value) {
+		writeFieldHeader(fieldId, TYPE_BINARY);
+		writeBinaryValue(value);
+	}
+
+	public void writeString(int fieldId, String value) {
+		writeBinary(fieldId, value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void writeBinaryValue(byte[] value) {
+		writeVarint(value.length);
+		out.write(value, 0, value.length);
+	}
+
+	/**
+	 * Starts a nested structure, must be closed by {@link #writeStructEnd()}.
+	 */
+	public void writeStructBegin(int fieldId) {
+		writeFieldHeader(fieldId, TYPE_STRUCT);
+		beginStruct();
+	}
+
+	private void beginStruct() {
+		lastFieldIds.push(lastFieldId);
+		lastFieldId = 0;
+	}
+
+	public void writeStructEnd() {
+		out.write(TYPE_STOP);
+		lastFieldId = lastFieldIds.pop();
+	}
+
+	/**
+	 * Writes header of a list, the elements are written by the <code>writeListXXX</code> methods.
+	 */
+	public void writeListBegin(int fieldId, int elementType, int size) {
+		writeFieldHeader(fieldId, TYPE_LIST);
+		if (size < 15) {
+			out.write((size << 4) | elementType);
+		} else {
+			out.write(0xF0 | elementType);
+			writeVarint(size);
+		}
+	}
+
+	public void writeListI32(int value) {
+		writeVarint(zigzag(value));
+	}
+
+	public void writeListString(String value) {
+		writeBinaryValue(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Starts a structure element of a list, must be closed by {@link #writeStructEnd()}.
+	 */
+	public void writeListStructBegin() {
+		beginStruct();
+	}
+
+	/**
+	 * Ends the top level structure.
+	 */
+	public void writeStop() {
+		out.write(TYPE_STOP);
+	}
+
+	public int size() {
+		return out.size();
+	}
+
+	public byte[] toByteArray() {
+		return out.toByteArray();
+	}
+
+	public void reset() {
+		out.reset();
+		lastFieldId = 0;
+		lastFieldIds.clear();
+	}
+
+}
@@ -26,7 +26,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,6 +41,7 @@ import org.jetel.data.Defaults;
 import org.jetel.data.Token;
 import org.jetel.data.formatter.CloverDataFormatter;
 import org.jetel.data.formatter.CloverDataFormatter.DataCompressAlgorithm;
+import org.jetel.data.formatter.CloverDataZoneMap;
 import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.exception.IParserExceptionHandler;
 import org.jetel.exception.JetelException;
@@ -109,6 +112,12 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
 	 */
 	private boolean isJobflow;
 
+	/** filter of read records, data blocks are skipped according to the zone map stored in the file */
+	private CloverDataRangeFilter rangeFilter;
+
+	/** local files are read via memory mapping */
+	private boolean memoryMapped = Defaults.CLOVER_DATA_MEMORY_MAPPED;
+
     public CloverDataParser(DataRecordMetadata metadata){
     	this.metadata = metadata;
     	this.compress = DataCompressAlgorithm.NONE;
@@ -125,6 +134,34 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
 		return inStream;
 	}
 
+	/**
+	 * Sets filter of the read records. If the data source is seekable and the file contains
+	 * zone map of the filtered fields, data blocks which cannot contain matching records are skipped.
+	 * Direct reading is not available with a filter.
+	 * 
+	 * @param rangeFilter
+	 */
+	public void setRangeFilter(CloverDataRangeFilter rangeFilter) {
+		this.rangeFilter = rangeFilter;
+	}
+
+	/**
+	 * Sets reading of local files via memory mapping, used for uncompressed and LZ4 compressed files.
+	 * The default is {@link Defaults#CLOVER_DATA_MEMORY_MAPPED}.
+	 * 
+	 * @param memoryMapped
+	 */
+	public void setMemoryMapped(boolean memoryMapped) {
+		this.memoryMapped = memoryMapped;
+	}
+
+	/**
+	 * @return number of data blocks skipped by the range filter in the current data source
+	 */
+	public long getSkippedBlocks() {
+		return (input != null) ? input.getSkippedBlocks() : 0;
+	}
+
 
 	/* (non-Javadoc)
 	 * @see org.jetel.data.parser.Parser#getNext()
@@ -143,7 +180,7 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
 		if (nRec == 0) {
 			return 0;
 		}
-		if (version.raw) {
+		if (version.raw && rangeFilter == null) {
 			CloverBuffer buffer = CloverBuffer.allocate(Defaults.Record.RECORD_INITIAL_SIZE, Defaults.Record.RECORD_LIMIT_SIZE);
 			for (int skipped = 0; skipped < nRec; skipped++) {
 				if (getNextDirect(buffer)!=1) {
@@ -175,6 +212,9 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
 
 	private void doReleaseDataSource() throws IOException {
 		if (inStream != null) {
+			if (input != null && input.getSkippedBlocks() > 0 && logger.isDebugEnabled()) {
+				logger.debug("Skipped " + input.getSkippedBlocks() + " data blocks by range filter " + rangeFilter);
+			}
 			inStream.close();
 			inStream = null; // setDataSource() tests inStream for null
 		}
@@ -198,6 +238,7 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
     @Override
 	public void setDataSource(Object in) throws ComponentNotReadyException {
     	String inData=null;
+    	SeekableByteChannel channel = null;
     	if (releaseDataSource) {
     		// doReleaseDataSource() should set the previous stream to null
     		releaseDataSource();
@@ -207,9 +248,18 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
         	inStream = (InputStream) in;
         }else if (in instanceof ReadableByteChannel){
         	inStream = Channels.newInputStream((ReadableByteChannel)in);
+        	if (in instanceof SeekableByteChannel) {
+        		channel = (SeekableByteChannel) in;
+        	}
         }else if (in instanceof File){
         	try {
-				inStream = new FileInputStream((File)in);
+        		if (rangeFilter != null || memoryMapped) {
+        			// seekable channel is needed to read the zone map or to map the file
+        			channel = new FileInputStream((File)in).getChannel();
+        			inStream = Channels.newInputStream(channel);
+        		} else {
+        			inStream = new FileInputStream((File)in);
+        		}
 			} catch (IOException e) {
 				throw new ComponentNotReadyException(e);
 			}
@@ -240,22 +290,64 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
         isJobflow = ContextProvider.getRuntimeContext() != null
         		&& ContextProvider.getRuntimeContext().getJobType().isJobflow();
         
-        switch(compress){
-        case NONE:
-        	this.input= new CloverDataStream.Input(inStream);
-        	break;
-        case LZ4:
-        	this.input= new CloverDataStream.Input(inStream, new CloverDataStream.DecompressorLZ4());
-        	break;
-        case GZIP:
-        	this.input= new CloverDataStream.Input(inStream, new CloverDataStream.DecompressorGZIP());
-        	break;
-        	default:
-        		throw new RuntimeException("Unsupported compression algorithm: "+compress);
+        boolean mapped = memoryMapped && compress != DataCompressAlgorithm.GZIP && channel instanceof FileChannel;
+        if ((rangeFilter != null || mapped) && channel != null) {
+        	this.input = new CloverDataStream.Input(channel, compress == DataCompressAlgorithm.GZIP ? new CloverDataStream.DecompressorGZIP() : new CloverDataStream.DecompressorLZ4());
+        	if (rangeFilter != null) {
+        		initBlockFilter();
+        	}
+        	if (mapped) {
+        		try {
+        			input.setMemoryMapped(true);
+        		} catch (IOException e) {
+        			throw new ComponentNotReadyException("Failed to map CloverData file", e);
+        		}
+        	}
+        } else {
+	        switch(compress){
+	        case NONE:
+	        	this.input= new CloverDataStream.Input(inStream);
+	        	break;
+	        case LZ4:
+	        	this.input= new CloverDataStream.Input(inStream, new CloverDataStream.DecompressorLZ4());
+	        	break;
+	        case GZIP:
+	        	this.input= new CloverDataStream.Input(inStream, new CloverDataStream.DecompressorGZIP());
+	        	break;
+	        	default:
+	        		throw new RuntimeException("Unsupported compression algorithm: "+compress);
+	        }
+        }
+        if (compress != DataCompressAlgorithm.NONE && !mapped) {
+        	input.setDecompressionThreads(Defaults.CLOVER_DATA_DECOMPRESSION_THREADS > 0
+        			? Defaults.CLOVER_DATA_DECOMPRESSION_THREADS : Runtime.getRuntime().availableProcessors());
         }
         
     }
 
+    /**
+     * Reads the zone map from the INDEX block and sets the block filter accordingly.
+     */
+    private void initBlockFilter() throws ComponentNotReadyException {
+    	final CloverDataZoneMap zoneMap;
+    	try {
+    		input.readIndexData();
+    		byte[] indexExtension = input.getIndexExtension();
+    		if (indexExtension == null) {
+    			return; // no zone map, only the records are filtered
+    		}
+    		zoneMap = CloverDataZoneMap.deserialize(indexExtension, version.metadata);
+    	} catch (IOException e) {
+    		throw new ComponentNotReadyException("Failed to read zone map of CloverData file", e);
+    	}
+    	input.setBlockFilter(new CloverDataStream.BlockFilter() {
+			@Override
+			public boolean accept(int block) {
+				return rangeFilter.mayMatch(zoneMap, block);
+			}
+		});
+    }
+
     public static FileConfig checkCompatibilityHeader(ReadableByteChannel recordFile, DataRecordMetadata metadata) throws ComponentNotReadyException {
     	return checkCompatibilityHeader(Channels.newInputStream(recordFile),metadata);
     }
@@ -397,6 +489,18 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
 	 */
 	@Override
 	public DataRecord getNext(DataRecord record) throws JetelException {
+		if (rangeFilter != null) {
+			do {
+				if (readNext(record) == null) {
+					return null;
+				}
+			} while (!rangeFilter.matches(record));
+			return record;
+		}
+		return readNext(record);
+	}
+
+	private DataRecord readNext(DataRecord record) throws JetelException {
 		final int size;
 		try {
 			size=ByteBufferUtils.decodeLength(input);
@@ -436,7 +540,7 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
 	 */
 	@Override
 	public int getNextDirect(CloverBuffer targetBuffer) throws JetelException {
-		if (!version.raw) return -1;
+		if (!version.raw || rangeFilter != null) return -1;
 		final int size;
 		try {
 			size=ByteBufferUtils.decodeLength(input);
@@ -539,7 +643,8 @@ public class CloverDataParser extends AbstractParser implements ICloverDataParse
 
 	@Override
 	public DataSourceType getPreferredDataSourceType() {
-		return DataSourceType.STREAM;
+		// blocks can be skipped only in a seekable file, only local files can be mapped
+		return (rangeFilter != null || memoryMapped) ? DataSourceType.FILE : DataSourceType.STREAM;
 	}
 	
 	
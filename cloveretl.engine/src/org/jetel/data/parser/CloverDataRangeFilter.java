@@ -0,0 +1,302 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetel.data.DataField;
+import org.jetel.data.DataFieldFactory;
+import org.jetel.data.DataRecord;
+import org.jetel.data.formatter.CloverDataZoneMap;
+import org.jetel.exception.BadDataFormatException;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.metadata.DataFieldContainerType;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.string.StringUtils;
+
+/**
+ * Conjunction of simple comparisons of record fields with constants, e.g.
+ * <code>$date>=2024-01-01;$date<2024-02-01;$status==OK</code>. Supported operators are
+ * <code>=</code> (or <code>==</code>), <code>&lt;</code>, <code>&lt;=</code>, <code>&gt;</code> and <code>&gt;=</code>,
+ * the constants are parsed in the format of the field, optionally in quotes.
+ * A null value never matches.
+ *
+ * Used by {@link CloverDataParser} to filter the records and to skip whole data blocks
+ * according to the {@link CloverDataZoneMap} stored in the file. {@link org.jetel.data.parquet.ParquetDataParser}
+ * uses it in the same way with the column statistics of row groups.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class CloverDataRangeFilter {
+
+	public static final String CONDITION_DELIMITER = ";";
+
+	private enum Operator {
+		EQ("="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+		private final String symbol;
+
+		private Operator(String symbol) {
+			this.symbol = symbol;
+		}
+	}
+
+	private static class Condition {
+		private final String fieldName;
+		private final Operator operator;
+		private final DataField value;
+
+		private Condition(String fieldName, Operator operator, DataField value) {
+			this.fieldName = fieldName;
+			this.operator = operator;
+			this.value = value;
+		}
+
+		private boolean matches(DataField field) {
+			if (field.isNull()) {
+				return false;
+			}
+			int result = field.compareTo(value);
+			switch (operator) {
+			case EQ:
+				return result == 0;
+			case LT:
+				return result < 0;
+			case LE:
+				return result <= 0;
+			case GT:
+				return result > 0;
+			case GE:
+				return result >= 0;
+			default:
+				throw new IllegalStateException("Unknown operator " + operator);
+			}
+		}
+
+		/**
+		 * @return false if no value from the interval [min, max] can match the condition
+		 */
+		private boolean mayMatch(DataField min, DataField max) {
+			switch (operator) {
+			case EQ:
+				return min.compareTo(value) <= 0 && max.compareTo(value) >= 0;
+			case LT:
+				return min.compareTo(value) < 0;
+			case LE:
+				return min.compareTo(value) <= 0;
+			case GT:
+				return max.compareTo(value) > 0;
+			case GE:
+				return max.compareTo(value) >= 0;
+			default:
+				throw new IllegalStateException("Unknown operator " + operator);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "$" + fieldName + operator.symbol + value;
+		}
+	}
+
+	private final List<Condition> conditions = new ArrayList<Condition>();
+
+	/** the zone map and positions of the conditions' fields in it */
+	private CloverDataZoneMap zoneMap;
+	private int[] zoneMapIndices;
+
+	/**
+	 * @param expression conditions delimited by {@value #CONDITION_DELIMITER}
+	 * @param metadata metadata of the read records
+	 * @throws ComponentNotReadyException if the expression is not valid
+	 */
+	public CloverDataRangeFilter(String expression, DataRecordMetadata metadata) throws ComponentNotReadyException {
+		for (String condition : expression.split(CONDITION_DELIMITER)) {
+			if (!StringUtils.isEmpty(condition.trim())) {
+				conditions.add(parseCondition(condition.trim(), metadata));
+			}
+		}
+		if (conditions.isEmpty()) {
+			throw new ComponentNotReadyException("Empty range filter");
+		}
+	}
+
+	private static Condition parseCondition(String condition, DataRecordMetadata metadata) throws ComponentNotReadyException {
+		int operatorStart = -1;
+		for (int i = 0; i < condition.length(); i++) {
+			char c = condition.charAt(i);
+			if (c == '=' || c == '<' || c == '>') {
+				operatorStart = i;
+				break;
+			}
+		}
+		if (operatorStart <= 0) {
+			throw new ComponentNotReadyException("Invalid range filter condition '" + condition + "'");
+		}
+		int operatorEnd = operatorStart + 1;
+		if (operatorEnd < condition.length() && condition.charAt(operatorEnd) == '=') {
+			operatorEnd++;
+		}
+		Operator operator;
+		switch (condition.substring(operatorStart, operatorEnd)) {
+		case "=":
+		case "==":
+			operator = Operator.EQ;
+			break;
+		case "<":
+			operator = Operator.LT;
+			break;
+		case "<=":
+			operator = Operator.LE;
+			break;
+		case ">":
+			operator = Operator.GT;
+			break;
+		case ">=":
+			operator = Operator.GE;
+			break;
+		default:
+			throw new ComponentNotReadyException("Invalid operator in range filter condition '" + condition + "'");
+		}
+
+		String fieldName = condition.substring(0, operatorStart).trim();
+		if (fieldName.startsWith("$")) {
+			fieldName = fieldName.substring(1);
+		}
+		DataFieldMetadata fieldMetadata = metadata.getField(fieldName);
+		if (fieldMetadata == null) {
+			throw new ComponentNotReadyException("Range filter field '" + fieldName + "' does not exist in metadata " + metadata.getName());
+		}
+		if (fieldMetadata.getContainerType() != DataFieldContainerType.SINGLE) {
+			throw new ComponentNotReadyException("Range filter field '" + fieldName + "' cannot be a list or a map");
+		}
+
+		String valueString = StringUtils.unquote(condition.substring(operatorEnd).trim());
+		DataField value = DataFieldFactory.createDataField(fieldMetadata, true);
+		try {
+			value.fromString(valueString);
+		} catch (BadDataFormatException e) {
+			throw new ComponentNotReadyException("Invalid value in range filter condition '" + condition + "'", e);
+		}
+		if (value.isNull()) {
+			throw new ComponentNotReadyException("Missing value in range filter condition '" + condition + "'");
+		}
+		return new Condition(fieldName, operator, value);
+	}
+
+	/**
+	 * @param record
+	 * @return true if the record matches all the conditions
+	 */
+	public boolean matches(DataRecord record) {
+		for (Condition condition : conditions) {
+			if (!condition.matches(record.getField(condition.fieldName))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param zoneMap statistics of data blocks
+	 * @param block ordinal number of a data block
+	 * @return false if no record starting in the block can match the conditions
+	 */
+	public boolean mayMatch(CloverDataZoneMap zoneMap, int block) {
+		if (zoneMap != this.zoneMap) {
+			this.zoneMap = zoneMap;
+			zoneMapIndices = new int[conditions.size()];
+			for (int i = 0; i < zoneMapIndices.length; i++) {
+				zoneMapIndices[i] = zoneMap.getFieldIndex(conditions.get(i).fieldName);
+			}
+		}
+		CloverDataZoneMap.BlockStatistics statistics = zoneMap.getBlock(block);
+		if (statistics == null) {
+			return true; // unknown block
+		}
+		if (statistics.getRecordCount() == 0) {
+			return false;
+		}
+		for (int i = 0; i < zoneMapIndices.length; i++) {
+			int index = zoneMapIndices[i];
+			if (index < 0) {
+				continue; // no statistics for the field
+			}
+			DataField min = statistics.getMinValue(index);
+			if (min == null) {
+				return false; // only null values
+			}
+			if (!conditions.get(i).mayMatch(min, statistics.getMaxValue(index))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param fieldName
+	 * @return true if a condition tests the field
+	 */
+	public boolean hasCondition(String fieldName) {
+		for (Condition condition : conditions) {
+			if (condition.fieldName.equals(fieldName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param fieldName
+	 * @param min minimum value of the field in a part of the data or null if all values are null
+	 * @param max maximum value of the field in the part of the data
+	 * @return false if no record of the part can match the conditions of the field
+	 */
+	public boolean mayMatch(String fieldName, DataField min, DataField max) {
+		for (Condition condition : conditions) {
+			if (condition.fieldName.equals(fieldName)) {
+				if (min == null) {
+					return false; // only null values
+				}
+				if (!condition.mayMatch(min, max)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		for (Condition condition : conditions) {
+			if (result.length() > 0) {
+				result.append(CONDITION_DELIMITER);
+			}
+			result.append(condition);
+		}
+		return result.toString();
+	}
+
+}
@@ -103,6 +103,9 @@ public class DecimalFactory {
 	public static Decimal getDecimal(int precision, int scale) {
         if(precision <= BOUNDS_FOR_DECIMAL_IMPLEMENTATION && Math.abs(scale) <= BOUNDS_FOR_DECIMAL_IMPLEMENTATION) {
             return new IntegerDecimal(precision, scale);
+        }
+        if(precision <= Int128Decimal.MAX_PRECISION && scale >= 0 && scale <= Int128Decimal.MAX_PRECISION) {
+            return new Int128Decimal(precision, scale);
         }
 		return new HugeDecimal(null, precision, scale, true);
 	}
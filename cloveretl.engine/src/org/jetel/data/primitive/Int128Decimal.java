@@ -0,0 +1,1135 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.primitive;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.text.ParseException;
+
+import org.jetel.ctl.TransformLangExecutor;
+import org.jetel.data.DecimalDataField;
+import org.jetel.data.IntegerDataField;
+import org.jetel.data.LongDataField;
+import org.jetel.data.NumericDataField;
+import org.jetel.exception.BadDataFormatException;
+import org.jetel.util.bytes.ByteBufferUtils;
+import org.jetel.util.bytes.CloverBuffer;
+import org.jetel.util.formatter.NumericFormatter;
+import org.jetel.util.formatter.NumericFormatterFactory;
+
+/**
+ * Clover internal decimal value representation.
+ * Implements Decimal interface and stores unscaled value as 128-bit two's complement
+ * integer in two longs, which is enough for precision up to 38 digits.
+ *
+ * Addition, subtraction, multiplication, division by an integer, comparison, parsing and formatting
+ * in plain format and serialization do not allocate any objects. All these operations check
+ * 128-bit overflow and throw {@link Decimal.OutOfPrecisionException} instead of silent wrap around.
+ * Other operations (division by decimal, modulo, operations with double) are computed by BigDecimal.
+ *
+ * Serialized form is the same as the form of {@link HugeDecimal}, so both implementations
+ * can read data written by the other one.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ * @see org.jetel.data.primitive.Decimal
+ */
+public final class Int128Decimal implements Decimal {
+
+	private static final long serialVersionUID = -3460187374802398512L;
+
+	/**
+	 * Maximal supported precision, 10^38 is the greatest power of ten less than 2^127.
+	 */
+	public static final int MAX_PRECISION = 38;
+
+	private static final long LIMB_MASK = 0xFFFFFFFFL;
+
+	private static final long[] INT_TENPOWERS = {
+		1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000
+	};
+
+	private static final long[] LONG_TENPOWERS = {
+		1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+		10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+		1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L
+	};
+
+	/** Powers of ten exactly representable by double. */
+	private static final double[] DOUBLE_TENPOWERS = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/** High and low words of 10^i, i = 0..MAX_PRECISION */
+	private static final long[] TENPOWERS_HI = new long[MAX_PRECISION + 1];
+	private static final long[] TENPOWERS_LO = new long[MAX_PRECISION + 1];
+
+	static {
+		for (int i = 0; i <= MAX_PRECISION; i++) {
+			BigInteger power = BigInteger.TEN.pow(i);
+			TENPOWERS_HI[i] = power.shiftRight(64).longValue();
+			TENPOWERS_LO[i] = power.longValue();
+		}
+	}
+
+	private long hi;
+	private long lo;
+	private final int precision;
+	private final int scale;
+	private boolean nan;
+
+	/**
+	 * Working space for multiplication, rescaling and formatting - 32-bit limbs, least significant first.
+	 */
+	private transient long[] limbs;
+
+	/**
+	 * Constructor. New decimal is represented by two long values and on the start of his existence is not a number.
+	 * @param precision at most {@link #MAX_PRECISION}
+	 * @param scale from 0 to {@link #MAX_PRECISION}
+	 */
+	public Int128Decimal(int precision, int scale) {
+		this(0, 0, precision, scale, true);
+	}
+
+	/**
+	 * Private constructor called for example from createCopy() method.
+	 */
+	private Int128Decimal(long hi, long lo, int precision, int scale, boolean nan) {
+		if (precision < 0 || precision > MAX_PRECISION || scale < 0 || scale > MAX_PRECISION) {
+			throw new IllegalArgumentException("Unsupported precision and scale [" + precision + "," + scale + "] of 128-bit decimal.");
+		}
+		this.hi = hi;
+		this.lo = lo;
+		this.precision = precision;
+		this.scale = scale;
+		this.nan = nan;
+	}
+
+	@Override
+	public int getPrecision() {
+		return precision;
+	}
+
+	@Override
+	public int getScale() {
+		return scale;
+	}
+
+	@Override
+	public Decimal createCopy() {
+		return new Int128Decimal(hi, lo, precision, scale, nan);
+	}
+
+	public void setValue(Decimal decimal) {
+		if (decimal == null || decimal.isNaN()) {
+			setNaN(true);
+			return;
+		}
+		boolean rescaled;
+		if (decimal instanceof Int128Decimal) {
+			final Int128Decimal dec = (Int128Decimal) decimal;
+			rescaled = setUnscaled(dec.hi, dec.lo, dec.scale);
+		} else if (decimal instanceof IntegerDecimal) {
+			final IntegerDecimal dec = (IntegerDecimal) decimal;
+			final long value = dec.getUnscaledValue();
+			rescaled = setUnscaled(value >> 63, value, dec.getScale());
+		} else {
+			setValue(decimal.getBigDecimal());
+			return;
+		}
+		setNaN(false);
+		if (!rescaled || !satisfyPrecision()) {
+			setNaN(true);
+			throw new OutOfPrecisionException("Number is out of available precision [" + precision + "," + scale + "], value: " + decimal.getBigDecimal());
+		}
+	}
+
+	@Override
+	public void setValue(double _value) {
+		if (Double.isNaN(_value)) {
+			setNaN(true);
+			return;
+		}
+		BigInteger bi = BigDecimal.valueOf(_value).setScale(scale, BigDecimal.ROUND_DOWN).unscaledValue();
+		if (HugeDecimal.precision(bi) > precision) {
+			setNaN(true);
+			throw new OutOfPrecisionException("Number is out of available precision [" + precision + "," + scale + "], value: " + _value);
+		}
+		setUnscaled(bi);
+		setNaN(false);
+	}
+
+	@Override
+	public void setValue(int _value) {
+		if (_value == Integer.MIN_VALUE) {
+			setNaN(true);
+			return;
+		}
+		setValueChecked(_value);
+	}
+
+	@Override
+	public void setValue(long _value) {
+		if (_value == Long.MIN_VALUE) {
+			setNaN(true);
+			return;
+		}
+		setValueChecked(_value);
+	}
+
+	private void setValueChecked(long _value) {
+		boolean rescaled = setUnscaled(_value >> 63, _value, 0);
+		setNaN(false);
+		if (!rescaled || !satisfyPrecision()) {
+			setNaN(true);
+			throw new OutOfPrecisionException("Number is out of available precision [" + precision + "," + scale + "], value: " + _value);
+		}
+	}
+
+	@Override
+	public void setValue(Numeric _value) {
+		if (_value == null || _value.isNull()) {
+			setNaN(true);
+			return;
+		}
+		if (_value instanceof CloverInteger) {
+			setValue(_value.getInt());
+		} else if (_value instanceof CloverLong) {
+			setValue(_value.getLong());
+		} else if (_value instanceof Decimal) {
+			setValue((Decimal) _value);
+		} else {
+			setValue(_value.getBigDecimal());
+		}
+	}
+
+	@Override
+	public void setValue(BigDecimal _value) {
+		if (_value == null) {
+			setNaN(true);
+			return;
+		}
+		BigInteger bi = _value.setScale(scale, BigDecimal.ROUND_DOWN).unscaledValue();
+		if (HugeDecimal.precision(bi) > precision) {
+			throw new OutOfPrecisionException("Too many digits before decimal dot, must be " + (precision - scale) + " at most (" + _value + "); specified precision [" + precision + "," + scale + "]");
+		}
+		setUnscaled(bi);
+		setNaN(false);
+	}
+
+	@Override
+	public void setValue(Number value) {
+		if (value instanceof Long) {
+			setValue(((Long) value).longValue());
+		} else if (value instanceof Integer) {
+			setValue(((Integer) value).intValue());
+		} else if (value instanceof BigDecimal) {
+			setValue((BigDecimal) value);
+		} else if (value instanceof Double) {
+			setValue(((Double) value).doubleValue());
+		} else if (value instanceof Numeric) {
+			setValue((Numeric) value);
+		} else {
+			setValue(value.doubleValue());
+		}
+	}
+
+	@Override
+	public double getDouble() {
+		if (isNaN()) {
+			return Double.NaN;
+		}
+		// both operands are exact doubles, so the single division is correctly rounded
+		if (fitsLong() && lo > -(1L << 53) && lo < (1L << 53) && scale < DOUBLE_TENPOWERS.length) {
+			return lo / DOUBLE_TENPOWERS[scale];
+		}
+		return getBigDecimal().doubleValue();
+	}
+
+	@Override
+	public int getInt() {
+		if (isNaN()) {
+			return Integer.MIN_VALUE;
+		}
+		return (int) integerPart();
+	}
+
+	@Override
+	public long getLong() {
+		if (isNaN()) {
+			return Long.MIN_VALUE;
+		}
+		return integerPart();
+	}
+
+	@Override
+	public BigDecimal getBigDecimal() {
+		if (isNaN()) {
+			return null;
+		}
+		if (fitsLong()) {
+			return BigDecimal.valueOf(lo, scale);
+		}
+		return new BigDecimal(toBigInteger(), scale);
+	}
+
+	@Override
+	public BigDecimal getBigDecimalOutput() {
+		if (isNaN()) {
+			return null;
+		}
+		if (!satisfyPrecision()) return null;
+		return getBigDecimal();
+	}
+
+	@Override
+	public Decimal getDecimal() {
+		return createCopy();
+	}
+
+	@Override
+	public Decimal getDecimal(int precision, int scale) {
+		return DecimalFactory.getDecimal(this, precision, scale);
+	}
+
+	@Override
+	public Numeric duplicateNumeric() {
+		return createCopy();
+	}
+
+	@Override
+	public void setNaN(boolean isNaN) {
+		nan = isNaN;
+	}
+
+	@Override
+	public boolean isNaN() {
+		return nan;
+	}
+
+	@Override
+	public boolean isNull() {
+		return nan;
+	}
+
+	@Override
+	public void setNull() {
+		setNaN(true);
+	}
+
+	@Override
+	public void add(Numeric a) {
+		if (isNull()) return;
+		if (a.isNull()) {
+			setNaN(true);
+			return;
+		}
+		if (a instanceof IntegerDataField || a instanceof CloverInteger) {
+			addUnscaled(a.getInt(), 0, false);
+		} else if (a instanceof LongDataField || a instanceof CloverLong) {
+			addUnscaled(a.getLong(), 0, false);
+		} else if (a instanceof NumericDataField || a instanceof CloverDouble) {
+			setValue(getBigDecimal().add(BigDecimal.valueOf(a.getDouble())));
+		} else if (a instanceof DecimalDataField || a instanceof Decimal) {
+			Decimal d = (a instanceof Decimal) ? (Decimal) a : a.getDecimal();
+			if (d instanceof Int128Decimal && ((Int128Decimal) d).scale <= scale) {
+				addUnscaled(((Int128Decimal) d).hi, ((Int128Decimal) d).lo, ((Int128Decimal) d).scale, false);
+			} else if (d instanceof IntegerDecimal && d.getScale() <= scale) {
+				addUnscaled(((IntegerDecimal) d).getUnscaledValue(), d.getScale(), false);
+			} else {
+				setValue(getBigDecimal().add(d.getBigDecimal()));
+			}
+		} else {
+			throw new RuntimeException("Unsupported class of parameter 'add' operation (" + a.getClass().getName() + ").");
+		}
+	}
+
+	@Override
+	public void sub(Numeric a) {
+		if (isNull()) return;
+		if (a.isNull()) {
+			setNaN(true);
+			return;
+		}
+		if (a instanceof IntegerDataField || a instanceof CloverInteger) {
+			addUnscaled(a.getInt(), 0, true);
+		} else if (a instanceof LongDataField || a instanceof CloverLong) {
+			addUnscaled(a.getLong(), 0, true);
+		} else if (a instanceof NumericDataField || a instanceof CloverDouble) {
+			setValue(getBigDecimal().subtract(BigDecimal.valueOf(a.getDouble())));
+		} else if (a instanceof DecimalDataField || a instanceof Decimal) {
+			Decimal d = (a instanceof Decimal) ? (Decimal) a : a.getDecimal();
+			if (d instanceof Int128Decimal && ((Int128Decimal) d).scale <= scale) {
+				addUnscaled(((Int128Decimal) d).hi, ((Int128Decimal) d).lo, ((Int128Decimal) d).scale, true);
+			} else if (d instanceof IntegerDecimal && d.getScale() <= scale) {
+				addUnscaled(((IntegerDecimal) d).getUnscaledValue(), d.getScale(), true);
+			} else {
+				setValue(getBigDecimal().subtract(d.getBigDecimal()));
+			}
+		} else {
+			throw new RuntimeException("Unsupported class of parameter 'sub' operation (" + a.getClass().getName() + ").");
+		}
+	}
+
+	@Override
+	public void mul(Numeric a) {
+		if (isNull()) return;
+		if (a.isNull()) {
+			setNaN(true);
+			return;
+		}
+		if (a instanceof IntegerDataField || a instanceof CloverInteger) {
+			long value = a.getInt();
+			mulUnscaled(value >> 63, value, 0);
+		} else if (a instanceof LongDataField || a instanceof CloverLong) {
+			long value = a.getLong();
+			mulUnscaled(value >> 63, value, 0);
+		} else if (a instanceof NumericDataField || a instanceof CloverDouble) {
+			setValue(getBigDecimal().multiply(BigDecimal.valueOf(a.getDouble())));
+		} else if (a instanceof DecimalDataField || a instanceof Decimal) {
+			Decimal d = (a instanceof Decimal) ? (Decimal) a : a.getDecimal();
+			if (d instanceof Int128Decimal) {
+				mulUnscaled(((Int128Decimal) d).hi, ((Int128Decimal) d).lo, ((Int128Decimal) d).scale);
+			} else if (d instanceof IntegerDecimal) {
+				long value = ((IntegerDecimal) d).getUnscaledValue();
+				mulUnscaled(value >> 63, value, d.getScale());
+			} else {
+				setValue(getBigDecimal().multiply(d.getBigDecimal()));
+			}
+		} else {
+			throw new RuntimeException("Unsupported class of parameter 'mul' operation (" + a.getClass().getName() + ").");
+		}
+	}
+
+	@Override
+	public void div(Numeric a) {
+		if (isNull()) return;
+		if (a.isNull()) {
+			setNaN(true);
+			return;
+		}
+		if (a instanceof IntegerDataField || a instanceof CloverInteger) {
+			divInteger(a.getInt());
+		} else if (a instanceof LongDataField || a instanceof CloverLong) {
+			long value = a.getLong();
+			if (value > Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+				divInteger(value);
+			} else {
+				setValue(getBigDecimal().divide(BigDecimal.valueOf(value), scale, RoundingMode.HALF_UP));
+			}
+		} else if (a instanceof NumericDataField || a instanceof CloverDouble) {
+			setValue(getBigDecimal().divide(BigDecimal.valueOf(a.getDouble()), scale, RoundingMode.HALF_UP));
+		} else if (a instanceof DecimalDataField || a instanceof Decimal) {
+			Decimal d = (a instanceof Decimal) ? (Decimal) a : a.getDecimal();
+			setValue(getBigDecimal().divide(d.getBigDecimal(), scale, RoundingMode.HALF_UP));
+		} else {
+			throw new RuntimeException("Unsupported class of parameter 'div' operation (" + a.getClass().getName() + ").");
+		}
+	}
+
+	@Override
+	public void abs() {
+		if (isNull()) return;
+		if (hi < 0) {
+			neg();
+		}
+	}
+
+	@Override
+	public void mod(Numeric a) {
+		if (isNull()) return;
+		if (a.isNull()) {
+			setNaN(true);
+			return;
+		}
+		if (a instanceof IntegerDataField || a instanceof CloverInteger) {
+			setValue(getBigDecimal().remainder(BigDecimal.valueOf(a.getInt())));
+		} else if (a instanceof LongDataField || a instanceof CloverLong) {
+			setValue(getBigDecimal().remainder(BigDecimal.valueOf(a.getLong())));
+		} else if (a instanceof NumericDataField || a instanceof CloverDouble) {
+			setValue(getBigDecimal().remainder(BigDecimal.valueOf(a.getDouble())));
+		} else if (a instanceof DecimalDataField || a instanceof Decimal) {
+			Decimal d = (a instanceof Decimal) ? (Decimal) a : a.getDecimal();
+			setValue(getBigDecimal().remainder(d.getBigDecimal()));
+		} else {
+			throw new RuntimeException("Unsupported class of parameter 'mod' operation (" + a.getClass().getName() + ").");
+		}
+	}
+
+	@Override
+	public void neg() {
+		if (isNull()) return;
+		if (hi == Long.MIN_VALUE && lo == 0) {
+			throw overflow("neg");
+		}
+		hi = lo == 0 ? -hi : ~hi;
+		lo = -lo;
+	}
+
+	/**
+	 * Adds (or subtracts) the given long value with the given scale.
+	 */
+	private void addUnscaled(long value, int valueScale, boolean subtract) {
+		addUnscaled(value >> 63, value, valueScale, subtract);
+	}
+
+	/**
+	 * Adds (or subtracts) the given 128-bit value with the given scale, which is not greater than scale of this decimal.
+	 * The value of this decimal is not changed on overflow.
+	 */
+	private void addUnscaled(long bh, long bl, int valueScale, boolean subtract) {
+		final long ah = hi;
+		final long al = lo;
+		if (valueScale != scale) {
+			boolean rescaled = setUnscaled(bh, bl, valueScale);
+			bh = hi;
+			bl = lo;
+			hi = ah;
+			lo = al;
+			if (!rescaled) {
+				throw overflow(subtract ? "sub" : "add");
+			}
+		}
+		long rh, rl;
+		boolean overflow;
+		if (subtract) {
+			rl = al - bl;
+			rh = ah - bh - (lessUnsigned(al, bl) ? 1 : 0);
+			overflow = ((ah ^ bh) & (ah ^ rh)) < 0;
+		} else {
+			rl = al + bl;
+			rh = ah + bh + (lessUnsigned(rl, al) ? 1 : 0);
+			overflow = ((ah ^ rh) & (bh ^ rh)) < 0;
+		}
+		if (overflow) {
+			throw overflow(subtract ? "sub" : "add");
+		}
+		hi = rh;
+		lo = rl;
+	}
+
+	/**
+	 * Multiplies this decimal by the given 128-bit value with the given scale.
+	 * The 256-bit product is truncated to scale of this decimal.
+	 */
+	private void mulUnscaled(long bh, long bl, int valueScale) {
+		final long[] w = limbs();
+		final boolean negative = (hi < 0) != (bh < 0);
+		loadMagnitude(hi, lo, w, 8);
+		loadMagnitude(bh, bl, w, 12);
+		for (int k = 0; k < 8; k++) {
+			w[k] = 0;
+		}
+		for (int i = 0; i < 4; i++) {
+			final long ai = w[8 + i];
+			if (ai == 0) {
+				continue;
+			}
+			long carry = 0;
+			for (int j = 0; j < 4; j++) {
+				// fits into unsigned long: (2^32-1)^2 + 2 * (2^32-1) = 2^64-1
+				long t = ai * w[12 + j] + w[i + j] + carry;
+				w[i + j] = t & LIMB_MASK;
+				carry = t >>> 32;
+			}
+			w[i + 4] = carry;
+		}
+		if (valueScale > 0) {
+			scaleDown(w, 0, 8, valueScale);
+		} else if (valueScale < 0 && !scaleUp(w, 0, 8, -valueScale)) {
+			throw overflow("mul");
+		}
+		if (!store(w, 0, 8, negative)) {
+			throw overflow("mul");
+		}
+	}
+
+	/**
+	 * Divides this decimal by the given integer, the result is rounded half up like in {@link HugeDecimal}.
+	 */
+	private void divInteger(long divisor) {
+		if (divisor == 0) {
+			throw new ArithmeticException("Division by zero");
+		}
+		final long[] w = limbs();
+		final boolean negative = (hi < 0) != (divisor < 0);
+		final long d = Math.abs(divisor);
+		loadMagnitude(hi, lo, w, 0);
+		long remainder = divide(w, 0, 4, d);
+		if (remainder >= d - remainder) {
+			increment(w, 0, 4);
+		}
+		store(w, 0, 4, negative);
+	}
+
+	@Override
+	public void serialize(CloverBuffer byteBuffer) {
+		try {
+			if (isNaN()) {
+				byteBuffer.put((byte) 0);
+				return;
+			}
+			int length = byteLength();
+			ByteBufferUtils.encodeLength(byteBuffer, length);
+			putUnscaled(byteBuffer, length);
+			byteBuffer.putInt(scale);
+		} catch (BufferOverflowException e) {
+			throw new RuntimeException("The size of data buffer is only " + byteBuffer.maximumCapacity() + ". Set appropriate parameter in defaultProperties file.", e);
+		}
+	}
+
+	@Override
+	public void deserialize(CloverBuffer byteBuffer) {
+		int size = ByteBufferUtils.decodeLength(byteBuffer);
+		if (size == 0) {
+			setNaN(true);
+			return;
+		}
+		if (size > 16) {
+			// not written by this implementation
+			byte[] unscaledVal = new byte[size];
+			byteBuffer.get(unscaledVal);
+			setValue(new BigDecimal(new BigInteger(unscaledVal), byteBuffer.getInt()));
+			return;
+		}
+		long h = byteBuffer.get();
+		long l = h;
+		h >>= 63;
+		for (int i = 1; i < size; i++) {
+			h = (h << 8) | (l >>> 56);
+			l = (l << 8) | (byteBuffer.get() & 0xFF);
+		}
+		int valueScale = byteBuffer.getInt();
+		if (valueScale == scale) {
+			hi = h;
+			lo = l;
+			setNaN(false);
+		} else {
+			setValue(new BigDecimal(toBigInteger(h, l), valueScale));
+		}
+	}
+
+	@Override
+	public int getSizeSerialized() {
+		if (isNaN()) {
+			return 1;
+		}
+		return 1 + byteLength() + 4; //size of serialized form(1) + unscaled value + scale(4)
+	}
+
+	@Override
+	public String toString(NumericFormatter numericFormatter) {
+		if (numericFormatter == NumericFormatterFactory.getPlainFormatterInstance() && !isNaN() && satisfyPrecision()) {
+			String result = toPlainString();
+			if (result != null) {
+				return result;
+			}
+		}
+		BigDecimal bd = getBigDecimalOutput();
+		return numericFormatter.formatBigDecimal(bd);
+	}
+
+	@Override
+	public String toString() {
+		return toString(NumericFormatterFactory.getPlainFormatterInstance());
+	}
+
+	@Override
+	public void toByteBuffer(CloverBuffer dataBuffer, CharsetEncoder encoder, NumericFormatter numericFormatter) throws CharacterCodingException {
+		try {
+			dataBuffer.put(encoder.encode(CharBuffer.wrap(toString(numericFormatter))));
+		} catch (BufferOverflowException e) {
+			throw new RuntimeException("The size of data buffer is only " + dataBuffer.maximumCapacity() + ". Set appropriate parameter in defaultProperties file.", e);
+		}
+	}
+
+	@Override
+	public void toByteBuffer(CloverBuffer dataBuffer) {
+		if (!isNaN()) {
+			try {
+				putUnscaled(dataBuffer, byteLength());
+				dataBuffer.putInt(scale);
+			} catch (BufferOverflowException e) {
+				throw new RuntimeException("The size of data buffer is only " + dataBuffer.maximumCapacity() + ". Set appropriate parameter in defaultProperties file.", e);
+			}
+		}
+	}
+
+	@Override
+	public void fromString(CharSequence seq, NumericFormatter numericFormatter) {
+		if (seq == null || seq.length() == 0) {
+			setNaN(true);
+			return;
+		}
+		if (numericFormatter == NumericFormatterFactory.getPlainFormatterInstance() && parsePlain(seq)) {
+			return;
+		}
+		try {
+			setValue(numericFormatter.parseBigDecimal(seq));
+		} catch (ParseException e) {
+			throw new BadDataFormatException("Int128Decimal cannot represent '" + seq + "' value.", e);
+		}
+	}
+
+	public void fromCharBuffer(CharBuffer buffer, NumericFormatter numericFormatter) {
+		fromString(buffer, numericFormatter);
+	}
+
+	@Override
+	public int compareTo(Numeric value) {
+		if (isNull()) {
+			return -1;
+		} else if (value == null || value.isNull()) {
+			return 1;
+		} else {
+			return compareTo((Object) value.getDecimal());
+		}
+	}
+
+	@Override
+	public int compareTo(Object obj) {
+		if (obj == null) return 1;
+		if (isNaN()) return -1;
+
+		if (obj instanceof BigDecimal) {
+			return getBigDecimal().compareTo((BigDecimal) obj);
+		} else if (obj instanceof Decimal) {
+			if (obj instanceof Int128Decimal && ((Int128Decimal) obj).scale == scale) {
+				if (((Int128Decimal) obj).isNaN()) {
+					return 1;
+				}
+				return compare(hi, lo, ((Int128Decimal) obj).hi, ((Int128Decimal) obj).lo);
+			}
+			return getBigDecimal().compareTo(((Decimal) obj).getBigDecimal());
+		} else if (obj instanceof Integer) {
+			return compareTo(((Integer) obj).longValue());
+		} else if (obj instanceof Long) {
+			return compareTo(((Long) obj).longValue());
+		} else if (obj instanceof Double) {
+			return getBigDecimal().compareTo(BigDecimal.valueOf((Double) obj));
+		} else if (obj instanceof IntegerDataField) {
+			return compareTo((long) ((IntegerDataField) obj).getInt());
+		} else if (obj instanceof LongDataField) {
+			return compareTo(((LongDataField) obj).getLong());
+		} else if (obj instanceof NumericDataField) {
+			return getBigDecimal().compareTo(BigDecimal.valueOf(((NumericDataField) obj).getDouble()));
+		} else if (obj instanceof DecimalDataField) {
+			return compareTo(((DecimalDataField) obj).getValue());
+		} else throw new ClassCastException("Can't compare this DecimalDataField and " + obj.getClass().getName());
+	}
+
+	private int compareTo(long value) {
+		final long[] w = limbs();
+		loadMagnitude(value >> 63, value, w, 0);
+		if (!scaleUp(w, 0, 4, scale) || w[3] > Integer.MAX_VALUE) {
+			// the value is out of range of this implementation
+			return value < 0 ? 1 : -1;
+		}
+		long h = (w[3] << 32) | w[2];
+		long l = (w[1] << 32) | w[0];
+		if (value < 0) {
+			h = l == 0 ? -h : ~h;
+			l = -l;
+		}
+		return compare(hi, lo, h, l);
+	}
+
+	/**
+	 * Check if stored value is in dimension defined by precision.
+	 * @return true if value is shorter than precision; false else
+	 */
+	public boolean satisfyPrecision() {
+		if (isNaN()) return true;
+		long h = hi;
+		long l = lo;
+		if (h < 0) {
+			h = l == 0 ? -h : ~h;
+			l = -l;
+			if (h < 0) {
+				return false;
+			}
+		}
+		return compare(h, l, TENPOWERS_HI[precision], TENPOWERS_LO[precision]) < 0;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj instanceof Numeric)
+			return compareTo((Numeric) obj) == 0;
+		else return false;
+	}
+
+	@Override
+	public int hashCode() {
+		if (isNaN()) return Integer.MIN_VALUE;
+		// values in range of long have the same hash code as in IntegerDecimal
+		long value = fitsLong() ? lo : lo ^ hi;
+		return (int) (value ^ value >> 32);
+	}
+
+	/**
+	 * Returns low 64 bits of integral part, like BigDecimal.longValue().
+	 */
+	private long integerPart() {
+		if (fitsLong()) {
+			return scale < LONG_TENPOWERS.length ? lo / LONG_TENPOWERS[scale] : 0;
+		}
+		final long[] w = limbs();
+		loadMagnitude(hi, lo, w, 0);
+		scaleDown(w, 0, 4, scale);
+		long l = (w[1] << 32) | w[0];
+		return hi < 0 ? -l : l;
+	}
+
+	private boolean fitsLong() {
+		return hi == lo >> 63;
+	}
+
+	/**
+	 * Sets unscaled value from the given 128-bit value with the given scale, the value is truncated
+	 * if it has greater scale. NaN flag is not changed.
+	 * @return false if the value does not fit into 128 bits, the value of this decimal is undefined in that case
+	 */
+	private boolean setUnscaled(long h, long l, int valueScale) {
+		final int shift = scale - valueScale;
+		if (shift == 0) {
+			hi = h;
+			lo = l;
+			return true;
+		}
+		final long[] w = limbs();
+		loadMagnitude(h, l, w, 0);
+		if (shift > 0) {
+			if (!scaleUp(w, 0, 4, shift)) {
+				return false;
+			}
+		} else {
+			scaleDown(w, 0, 4, -shift);
+		}
+		return store(w, 0, 4, h < 0);
+	}
+
+	private void setUnscaled(BigInteger value) {
+		hi = value.shiftRight(64).longValue();
+		lo = value.longValue();
+	}
+
+	private BigInteger toBigInteger() {
+		return toBigInteger(hi, lo);
+	}
+
+	private static BigInteger toBigInteger(long h, long l) {
+		byte[] bytes = new byte[16];
+		for (int i = 0; i < 8; i++) {
+			bytes[i] = (byte) (h >>> (56 - 8 * i));
+			bytes[8 + i] = (byte) (l >>> (56 - 8 * i));
+		}
+		return new BigInteger(bytes);
+	}
+
+	/**
+	 * @return number of bytes of the minimal two's complement representation, the same as BigInteger.toByteArray()
+	 */
+	private int byteLength() {
+		long h = hi;
+		long l = lo;
+		if (h < 0) {
+			h = ~h;
+			l = ~l;
+		}
+		int bitLength = h != 0 ? 128 - Long.numberOfLeadingZeros(h) : 64 - Long.numberOfLeadingZeros(l);
+		return bitLength / 8 + 1;
+	}
+
+	private void putUnscaled(CloverBuffer buffer, int length) {
+		for (int i = length - 1; i >= 0; i--) {
+			buffer.put((byte) (i >= 8 ? hi >>> ((i - 8) << 3) : lo >>> (i << 3)));
+		}
+	}
+
+	/**
+	 * Formats the value in the same way as BigDecimal.toString() without creating any intermediate object.
+	 * @return string representation or null if BigDecimal would use exponential notation
+	 */
+	private String toPlainString() {
+		final long[] w = limbs();
+		loadMagnitude(hi, lo, w, 0);
+		final char[] digits = new char[45];
+		int pos = digits.length;
+		do {
+			long chunk = divide(w, 0, 4, INT_TENPOWERS[9]);
+			for (int k = 0; k < 9; k++) {
+				digits[--pos] = (char) ('0' + chunk % 10);
+				chunk /= 10;
+			}
+		} while (!isZero(w, 0, 4));
+		while (pos < digits.length - 1 && digits[pos] == '0') {
+			pos++;
+		}
+		final int count = digits.length - pos;
+		if (count - 1 - scale < -6) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder(count + scale + 3);
+		if (hi < 0) {
+			sb.append('-');
+		}
+		if (scale == 0) {
+			sb.append(digits, pos, count);
+		} else if (count > scale) {
+			sb.append(digits, pos, count - scale).append('.').append(digits, pos + count - scale, scale);
+		} else {
+			sb.append("0.");
+			for (int i = count; i < scale; i++) {
+				sb.append('0');
+			}
+			sb.append(digits, pos, count);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Parses plain decimal number ([+-]digits[.digits]) without creating BigDecimal.
+	 * Digits beyond scale are truncated, as with the plain formatter.
+	 * @return false if the sequence has to be parsed by the formatter
+	 * (other syntax, too many significant digits or value out of precision)
+	 */
+	private boolean parsePlain(CharSequence seq) {
+		final int length = seq.length();
+		int i = 0;
+		boolean negative = false;
+		char c = seq.charAt(0);
+		if (c == '-' || c == '+') {
+			negative = (c == '-');
+			i++;
+		}
+		final long[] w = limbs();
+		for (int k = 0; k < 4; k++) {
+			w[k] = 0;
+		}
+		boolean seenDigit = false;
+		boolean seenDot = false;
+		int significantDigits = 0;
+		int fractionDigits = 0;
+		long chunk = 0;
+		int chunkLength = 0;
+		for (; i < length; i++) {
+			c = seq.charAt(i);
+			if (c >= '0' && c <= '9') {
+				seenDigit = true;
+				if (c != '0' || significantDigits > 0) {
+					significantDigits++;
+				}
+				if (seenDot) {
+					if (fractionDigits == scale) {
+						continue;
+					}
+					fractionDigits++;
+				}
+				chunk = chunk * 10 + (c - '0');
+				if (++chunkLength == 9) {
+					if (!append(w, chunk, chunkLength)) {
+						return false;
+					}
+					chunk = 0;
+					chunkLength = 0;
+				}
+			} else if (c == '.' && !seenDot) {
+				seenDot = true;
+			} else {
+				return false;
+			}
+		}
+		if (!seenDigit || significantDigits > TransformLangExecutor.MAX_PRECISION.getPrecision()) {
+			return false;
+		}
+		if (!append(w, chunk, chunkLength) || !scaleUp(w, 0, 4, scale - fractionDigits)) {
+			return false;
+		}
+		long h = (w[3] << 32) | w[2];
+		long l = (w[1] << 32) | w[0];
+		if (h < 0 || compare(h, l, TENPOWERS_HI[precision], TENPOWERS_LO[precision]) >= 0) {
+			return false;
+		}
+		store(w, 0, 4, negative);
+		setNaN(false);
+		return true;
+	}
+
+	private static boolean append(long[] w, long chunk, int chunkLength) {
+		if (chunkLength == 0) {
+			return true;
+		}
+		if (multiply(w, 0, 4, INT_TENPOWERS[chunkLength]) != 0) {
+			return false;
+		}
+		long carry = chunk;
+		for (int k = 0; k < 4 && carry != 0; k++) {
+			long t = w[k] + carry;
+			w[k] = t & LIMB_MASK;
+			carry = t >>> 32;
+		}
+		return carry == 0;
+	}
+
+	private OutOfPrecisionException overflow(String operation) {
+		return new OutOfPrecisionException("Result of '" + operation + "' operation is out of available precision [" + precision + "," + scale + "]");
+	}
+
+	private long[] limbs() {
+		if (limbs == null) {
+			limbs = new long[16];
+		}
+		return limbs;
+	}
+
+	/**
+	 * Stores absolute value of the given 128-bit value into four 32-bit limbs.
+	 */
+	private static void loadMagnitude(long h, long l, long[] w, int offset) {
+		if (h < 0) {
+			h = l == 0 ? -h : ~h;
+			l = -l;
+		}
+		w[offset] = l & LIMB_MASK;
+		w[offset + 1] = l >>> 32;
+		w[offset + 2] = h & LIMB_MASK;
+		w[offset + 3] = h >>> 32;
+	}
+
+	/**
+	 * Sets value of this decimal from magnitude in the given limbs.
+	 * @return false if the magnitude does not fit into 127 bits, the value is not changed in that case
+	 */
+	private boolean store(long[] w, int offset, int length, boolean negative) {
+		for (int k = 4; k < length; k++) {
+			if (w[offset + k] != 0) {
+				return false;
+			}
+		}
+		if (w[offset + 3] > Integer.MAX_VALUE) {
+			return false;
+		}
+		long h = (w[offset + 3] << 32) | w[offset + 2];
+		long l = (w[offset + 1] << 32) | w[offset];
+		if (negative) {
+			h = l == 0 ? -h : ~h;
+			l = -l;
+		}
+		hi = h;
+		lo = l;
+		return true;
+	}
+
+	/**
+	 * Multiplies the limbs by 10^digits.
+	 * @return false on overflow
+	 */
+	private static boolean scaleUp(long[] w, int offset, int length, int digits) {
+		while (digits > 0) {
+			int step = Math.min(digits, 9);
+			if (multiply(w, offset, length, INT_TENPOWERS[step]) != 0) {
+				return false;
+			}
+			digits -= step;
+		}
+		return true;
+	}
+
+	/**
+	 * Divides the limbs by 10^digits, the result is truncated.
+	 */
+	private static void scaleDown(long[] w, int offset, int length, int digits) {
+		while (digits > 0 && !isZero(w, offset, length)) {
+			int step = Math.min(digits, 9);
+			divide(w, offset, length, INT_TENPOWERS[step]);
+			digits -= step;
+		}
+	}
+
+	/**
+	 * Multiplies the limbs by the given unsigned 32-bit multiplier.
+	 * @return carry out of the most significant limb
+	 */
+	private static long multiply(long[] w, int offset, int length, long multiplier) {
+		long carry = 0;
+		for (int k = offset; k < offset + length; k++) {
+			long t = w[k] * multiplier + carry;
+			w[k] = t & LIMB_MASK;
+			carry = t >>> 32;
+		}
+		return carry;
+	}
+
+	/**
+	 * Divides the limbs by the given divisor less than 2^31.
+	 * @return remainder
+	 */
+	private static long divide(long[] w, int offset, int length, long divisor) {
+		long remainder = 0;
+		for (int k = offset + length - 1; k >= offset; k--) {
+			long current = (remainder << 32) | w[k];
+			w[k] = current / divisor;
+			remainder = current % divisor;
+		}
+		return remainder;
+	}
+
+	private static void increment(long[] w, int offset, int length) {
+		for (int k = offset; k < offset + length; k++) {
+			w[k] = (w[k] + 1) & LIMB_MASK;
+			if (w[k] != 0) {
+				return;
+			}
+		}
+	}
+
+	private static boolean isZero(long[] w, int offset, int length) {
+		for (int k = offset; k < offset + length; k++) {
+			if (w[k] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean lessUnsigned(long a, long b) {
+		return (a ^ Long.MIN_VALUE) < (b ^ Long.MIN_VALUE);
+	}
+
+	private static int compare(long ah, long al, long bh, long bl) {
+		if (ah != bh) {
+			return ah < bh ? -1 : 1;
+		}
+		if (al == bl) {
+			return 0;
+		}
+		return lessUnsigned(al, bl) ? -1 : 1;
+	}
+
+}
@@ -111,6 +111,13 @@ public final class IntegerDecimal implements Decimal {
         return new IntegerDecimal(value, precision, scale, nan);
     }
 
+    /**
+     * @return unscaled value, used by other implementations to avoid conversion through BigDecimal
+     */
+    long getUnscaledValue() {
+        return value;
+    }
+
     public void setValue(Decimal decimal) {
         if(decimal == null || decimal.isNaN()) {
             setNaN(true);
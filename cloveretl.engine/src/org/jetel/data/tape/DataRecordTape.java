@@ -25,6 +25,7 @@ import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,9 +35,12 @@ import org.jetel.data.DataRecord;
 import org.jetel.data.Defaults;
 import org.jetel.exception.JetelRuntimeException;
 import org.jetel.graph.ContextProvider;
+import org.jetel.graph.Node;
+import org.jetel.graph.TransformationGraph;
 import org.jetel.graph.runtime.IAuthorityProxy;
 import org.jetel.util.bytes.ByteBufferUtils;
 import org.jetel.util.bytes.CloverBuffer;
+import org.jetel.util.stream.LZ4BlockChannel;
 
 
 /**
@@ -69,6 +73,11 @@ public class DataRecordTape implements Closeable {
 
     private RandomAccessFile tmpRandomAccessFile;
     private FileChannel tmpFileChannel;
+    // channel used for reading and writing of data, LZ4 compressing for spill files if enabled
+    private SeekableByteChannel dataChannel;
+    // compressed bytes already reported to the component
+    private long reportedRawBytes;
+    private long reportedStoredBytes;
 	private File tmpFile;
 	private String tmpFileName;
 
@@ -170,11 +179,43 @@ public class DataRecordTape implements Closeable {
 		// we want the temp file be deleted on exit
         tmpRandomAccessFile = new RandomAccessFile(tmpFile, TMP_FILE_MODE);
         tmpFileChannel = tmpRandomAccessFile.getChannel();
+        // only anonymous temporary files are compressed, named files can be read by others
+        if (tmpFileName == null && isSpillCompression()) {
+        	dataChannel = new LZ4BlockChannel(tmpFileChannel);
+        } else {
+        	dataChannel = tmpFileChannel;
+        }
+        reportedRawBytes = reportedStoredBytes = 0;
        	currentDataChunkIndex=-1;
 		currentDataChunk=null;
 	}
 
 
+	private static boolean isSpillCompression() {
+		TransformationGraph graph = ContextProvider.getGraph();
+		return graph != null ? graph.getRuntimeContext().isSpillCompression() : Defaults.Graph.SPILL_COMPRESSION;
+	}
+
+	/**
+	 * Reports bytes written to the compressed temporary file since the last report
+	 * to the current component, see {@link Node#addSpilledBytes(long, long)}.
+	 */
+	private void reportSpilledBytes() {
+		if (dataChannel instanceof LZ4BlockChannel) {
+			LZ4BlockChannel channel = (LZ4BlockChannel) dataChannel;
+			long rawBytes = channel.getRawBytes();
+			long storedBytes = channel.getStoredBytes();
+			if (rawBytes > reportedRawBytes) {
+				Node node = ContextProvider.getNode();
+				if (node != null) {
+					node.addSpilledBytes(rawBytes - reportedRawBytes, storedBytes - reportedStoredBytes);
+				}
+				reportedRawBytes = rawBytes;
+				reportedStoredBytes = storedBytes;
+			}
+		}
+	}
+
 	/**
 	 *  Closes buffer, removes temporary file (is exists)
 	 *
@@ -195,6 +236,20 @@ public class DataRecordTape implements Closeable {
         }
 	}
 
+	/**
+	 * Closes the tape and releases its memory buffer, the tape cannot be opened again.
+	 * 
+	 * @throws IOException
+	 * @see #close()
+	 */
+	public void free() throws IOException {
+		try {
+			close();
+		} finally {
+			dataBuffer.free();
+		}
+	}
+
 	/**
 	 * This special file closing tries to be sure the temporary file is really closed.
 	 */
@@ -215,13 +270,14 @@ public class DataRecordTape implements Closeable {
 	public void flush(boolean force) throws IOException, InterruptedException {
 		try {
 		    dataBuffer.flip();
-		    tmpFileChannel.write(dataBuffer.buf());
+		    dataChannel.write(dataBuffer.buf());
 		    dataBuffer.clear();
 		    //currentDataChunk.flushBuffer();
 		    if (force){
 		        tmpFileChannel.force(true);
 		    }
 		    updatedAfterFlush = false;
+		    reportSpilledBytes();
 		} catch (ClosedChannelException e) {
 			throw new InterruptedException();
 		}
@@ -252,7 +308,7 @@ public class DataRecordTape implements Closeable {
 	    	if (doFlush) {
 	    		flush(true);
 	    	}
-	    	tmpFileChannel.position(0);
+	    	dataChannel.position(0);
 	    	
 		    currentDataChunkIndex=0;
 		    currentDataChunk = dataChunks.get(0);
@@ -301,9 +357,9 @@ public class DataRecordTape implements Closeable {
 	 */
 	public void clear() throws IOException {
 		dataChunks.clear();
-		if( tmpFileChannel.isOpen() ){
-			tmpFileChannel.truncate(0);
-			tmpFileChannel.position(0);
+		if( dataChannel.isOpen() ){
+			dataChannel.truncate(0);
+			dataChannel.position(0);
 		}
 		currentDataChunkIndex=-1;
 		currentDataChunk=null;
@@ -319,7 +375,7 @@ public class DataRecordTape implements Closeable {
 	public void addDataChunk() throws InterruptedException, IOException {
 	    if (currentDataChunk==null){
             // add new data chunk
-            DataChunk chunk=new DataChunk(tmpFileChannel,dataBuffer);
+            DataChunk chunk=new DataChunk(dataChannel,dataBuffer);
             dataChunks.add(chunk);
             currentDataChunkIndex=0;
             currentDataChunk=chunk;
@@ -327,9 +383,9 @@ public class DataRecordTape implements Closeable {
 	    	try {
 	            // set file position to the end of file
 	        	flush(true);
-	            tmpFileChannel.position(tmpFileChannel.size());
+	            dataChannel.position(dataChannel.size());
 	            // add new data chunk
-	            DataChunk chunk=new DataChunk(tmpFileChannel,dataBuffer);
+	            DataChunk chunk=new DataChunk(dataChannel,dataBuffer);
 	            dataChunks.add(chunk);
 	            currentDataChunkIndex++;
 	            currentDataChunk=chunk;
@@ -605,7 +661,7 @@ public class DataRecordTape implements Closeable {
         // this is the maximum size, can be between 1 & 4 bytes
 	    private final static int LEN_SIZE_SPECIFIER = 5;
 	    CloverBuffer dataBuffer;
-	    FileChannel tmpFileChannel;
+	    SeekableByteChannel tmpFileChannel;
 	    long offsetStart;
 	    long length;
 	    int recordsRead;
@@ -613,7 +669,7 @@ public class DataRecordTape implements Closeable {
 	    boolean canRead;
         int recordSize;
 	    
-	    private DataChunk(FileChannel channel,CloverBuffer buffer) throws InterruptedException, IOException{
+	    private DataChunk(SeekableByteChannel channel,CloverBuffer buffer) throws InterruptedException, IOException{
 	        tmpFileChannel=channel;
 	        canRead=false;
 	        dataBuffer=buffer;
@@ -62,6 +62,23 @@ public class TapeCarousel {
         }
     }
 
+    /**
+     * Appends new opened tape at the end of carousel and makes it the current tape.
+     * 
+     * @return the new tape
+     * @throws IOException
+     */
+    public DataRecordTape addTape() throws IOException{
+        DataRecordTape[] newTapeArray = new DataRecordTape[tapeArray.length + 1];
+        System.arraycopy(tapeArray, 0, newTapeArray, 0, tapeArray.length);
+        DataRecordTape tape = new DataRecordTape();
+        tape.open(tapeArray.length);
+        newTapeArray[tapeArray.length] = tape;
+        tapeArray = newTapeArray;
+        currTape = tapeArray.length - 1;
+        return tape;
+    }
+
     public void flush() throws InterruptedException{
         for (int i=0;i<tapeArray.length;i++){
             try{
@@ -75,7 +92,7 @@ public class TapeCarousel {
     public void free() throws InterruptedException{
         for (int i=0;i<tapeArray.length;i++){
            try{
-               tapeArray[i].close();
+               tapeArray[i].free();
            }catch(IOException ex){
                logger.warn("IOException when closing tape in carousel.", ex);
            }
@@ -170,7 +170,7 @@ public class DBFDataFormatter extends AbstractFormatter {
 				case DBFTypes.DBF_TYPE_DATE:
 					DateDataField d_field = (DateDataField) field;
 					if (d_field != null && !d_field.isNull()) {
-						encoder.encode(CharBuffer.wrap(dateFormatter.format(d_field.getDate())), dataBuffer, true);
+						encoder.encode(CharBuffer.wrap(dateFormatter.format(d_field.getTime())), dataBuffer, true);
 					}
 					break;
 				case DBFTypes.DBF_TYPE_CHARACTER:
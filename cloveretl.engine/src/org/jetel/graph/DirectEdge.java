@@ -383,7 +383,12 @@ public class DirectEdge extends EdgeBase {
 
     @Override
     public void free() {
-        //do nothing
+    	// return direct memory to the pool, if any
+    	if (readBuffer != null) {
+    		readBuffer.free();
+    		writeBuffer.free();
+    		tmpDataRecord.free();
+    	}
     }
     
 	@Override
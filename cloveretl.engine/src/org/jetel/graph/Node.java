@@ -31,13 +31,16 @@ import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.TreeMap;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.log4j.MDC;
 import org.jetel.component.ComponentDescription;
 import org.jetel.component.ComponentDescriptionImpl;
+import org.jetel.ctl.CTLProfiler;
 import org.jetel.data.DataRecord;
 import org.jetel.enums.EnabledEnum;
 import org.jetel.exception.ComponentNotReadyException;
@@ -88,6 +91,18 @@ public abstract class Node extends GraphElement implements Runnable, CloverWorke
      * It is component's responsibility to register all inner threads via addChildThread() method.
      */
     protected List<Thread> childThreads; // is guarded by nodeThreadMonitor
+    
+    /**
+     * Profilers of interpreted CTL transformations of this component, empty unless CTL profiling is enabled.
+     */
+    private final List<CTLProfiler> ctlProfilers = new CopyOnWriteArrayList<CTLProfiler>();
+    
+    /**
+     * Bytes written by this component to compressed spill files and bytes saved by the compression.
+     */
+    private final AtomicLong spilledBytes = new AtomicLong();
+    private final AtomicLong spillBytesSaved = new AtomicLong();
+    
     private EnabledEnum enabled = EnabledEnum.DEFAULT_VALUE;
     protected int passThroughInputPort;
     protected int passThroughOutputPort;
@@ -515,6 +530,14 @@ public abstract class Node extends GraphElement implements Runnable, CloverWorke
     	
     	//list of child threads is wiped out for each graph execution
         childThreads = new ArrayList<Thread>();
+        
+        spilledBytes.set(0);
+        spillBytesSaved.set(0);
+
+        //CTL profiles are published per graph execution, profilers registered in init() are reused
+        for (CTLProfiler profiler : ctlProfilers) {
+        	profiler.reset();
+        }
 
         //this is necessary only for vanilla engine graph execution
         //cluster related settings can be used only in cluster environment
@@ -1572,6 +1595,49 @@ public abstract class Node extends GraphElement implements Runnable, CloverWorke
     	}
     }
 
+    /**
+     * The given profiler of a CTL transformation is registered for this component.
+     * Profiles of all registered profilers are published in tracking of the component.
+     * @param profiler
+     */
+    public void registerCTLProfiler(CTLProfiler profiler) {
+    	if (!ctlProfilers.contains(profiler)) {
+    		ctlProfilers.add(profiler);
+    	}
+    }
+    
+    /**
+     * @return profilers of CTL transformations registered for this component
+     */
+    public List<CTLProfiler> getCTLProfilers() {
+    	return ctlProfilers;
+    }
+
+    /**
+     * Registers data written by this component to a compressed temporary file - tapes of sorting
+     * or buffers of edges.
+     * @param rawBytes number of bytes before compression
+     * @param storedBytes number of bytes written to the file
+     */
+    public void addSpilledBytes(long rawBytes, long storedBytes) {
+    	spilledBytes.addAndGet(rawBytes);
+    	spillBytesSaved.addAndGet(rawBytes - storedBytes);
+    }
+
+    /**
+     * @return number of bytes written by this component to compressed temporary files, before compression
+     */
+    public long getSpilledBytes() {
+    	return spilledBytes.get();
+    }
+
+    /**
+     * @return number of bytes saved by compression of temporary files written by this component
+     */
+    public long getSpillBytesSaved() {
+    	return spillBytesSaved.get();
+    }
+
 
     /* (non-Javadoc)
      * @see org.jetel.graph.GraphElement#reset()
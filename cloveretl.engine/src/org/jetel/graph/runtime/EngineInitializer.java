@@ -38,6 +38,8 @@ import org.jetel.plugin.PluginLocation;
 import org.jetel.plugin.PluginRepositoryLocation;
 import org.jetel.plugin.Plugins;
 import org.jetel.util.LogUtils;
+import org.jetel.util.bytes.CloverBuffer;
+import org.jetel.util.bytes.PooledCloverBufferAllocator;
 import org.jetel.util.string.StringUtils;
 
 /**
@@ -178,6 +180,11 @@ public class EngineInitializer {
         	Defaults.init(sDefaultPropertiesFile);
         }
 
+        //recycling of direct memory buffers
+        if (Defaults.DIRECT_MEMORY_POOL_SIZE > 0 && !(CloverBuffer.getAllocator() instanceof PooledCloverBufferAllocator)) {
+        	CloverBuffer.setAllocator(new PooledCloverBufferAllocator(Defaults.DIRECT_MEMORY_POOL_SIZE));
+        }
+
         //file manager initialisation
         FileManager.init();
 
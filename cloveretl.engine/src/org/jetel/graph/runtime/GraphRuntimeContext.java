@@ -88,6 +88,8 @@ public class GraphRuntimeContext implements Serializable {
 	private String timeZone;
 	private String locale;
 	private boolean ctlDebug;
+	private boolean ctlProfiling;
+	private boolean spillCompression;
 	private volatile boolean ctlBreakpointsEnabled = true;
 	private volatile boolean suspendThreads = false;
 	private final Set<Breakpoint> ctlBreakpoints = new CopyOnWriteArraySet<>();
@@ -197,6 +199,7 @@ public class GraphRuntimeContext implements Serializable {
 		embeddedRun = DEFAULT_EMBEDDED_RUN;
 		runtimeClassPath = new URL[0];
 		compileClassPath = new URL[0];
+		spillCompression = Defaults.Graph.SPILL_COMPRESSION;
 		dictionaryContent = new DictionaryValuesContainer();
 		clusterNodeId = null;
 		jobType = JobType.DEFAULT;
@@ -259,6 +262,8 @@ public class GraphRuntimeContext implements Serializable {
 		ret.classLoaderCaching = isClassLoaderCaching();
 		ret.calculateNoMetadata = isCalculateNoMetadata();
 		ret.ctlDebug = isCtlDebug();
+		ret.ctlProfiling = isCtlProfiling();
+		ret.spillCompression = isSpillCompression();
 		ret.ctlBreakpointsEnabled = isCtlBreakpointsEnabled();
 		ret.ctlBreakpoints.addAll(ctlBreakpoints);
 
@@ -1054,6 +1059,32 @@ public class GraphRuntimeContext implements Serializable {
 		this.ctlDebug = ctlDebug;
 	}
 
+	public boolean isCtlProfiling() {
+		return ctlProfiling;
+	}
+
+	/**
+	 * Interpreted CTL transformations measure invocation counts and times of their functions and lines.
+	 * The profile is available in {@link org.jetel.graph.runtime.jmx.NodeTracking#getCTLProfile()}
+	 * and it is logged at the end of the run. Profiling is ignored in CTL debug mode.
+	 */
+	public void setCtlProfiling(boolean ctlProfiling) {
+		this.ctlProfiling = ctlProfiling;
+	}
+
+	public boolean isSpillCompression() {
+		return spillCompression;
+	}
+
+	/**
+	 * Temporary files of external sorting, phase edges and buffered edges are compressed by LZ4.
+	 * Default value is {@link Defaults.Graph#SPILL_COMPRESSION}.
+	 * @see org.jetel.graph.runtime.jmx.NodeTracking#getSpillBytesSaved()
+	 */
+	public void setSpillCompression(boolean spillCompression) {
+		this.spillCompression = spillCompression;
+	}
+
 	public boolean isSuspendThreads() {
 		return suspendThreads;
 	}
@@ -21,10 +21,17 @@ package org.jetel.graph.runtime;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
+import org.jetel.graph.runtime.jmx.CTLProfileEntry;
 import org.jetel.graph.runtime.jmx.NodeTracking;
+import org.jetel.graph.runtime.jmx.PhaseTracking;
 import org.jetel.graph.runtime.jmx.PortTracking;
 import org.jetel.util.string.StringUtils;
 
@@ -42,6 +49,9 @@ public class GraphTrackingLogger extends TrackingLogger {
     private static final int[] ARG_SIZES_WITH_CPU = { -6, -4, 27, 15, 11, 8, 8 };
     private static final int[] ARG_SIZES_WITHOUT_CPU = { 37, 15, 11, 8, 8 };
     private static final MemoryMXBean memMXB = ManagementFactory.getMemoryMXBean();
+    private static final int[] ARG_SIZES_CTL_PROFILE = { -8, -37, 12, 12, 10 };
+    /** maximum number of the most expensive lines logged for each component */
+    private static final int CTL_PROFILE_LINES = 20;
 
     GraphTrackingLogger(WatchDog watchDog) {
     	super(watchDog);
@@ -133,4 +143,76 @@ public class GraphTrackingLogger extends TrackingLogger {
         logger.info("---------------------------------** End of Log **--------------------------------");
     }
 
+	@Override
+	protected void graphFinished() {
+		super.graphFinished();
+		printCTLProfile();
+	}
+
+	/**
+	 * Outputs profile of interpreted CTL transformations, if CTL profiling was enabled.
+	 * Functions and the most expensive lines are sorted by their total time.
+	 */
+	private void printCTLProfile() {
+		boolean headerPrinted = false;
+		for (PhaseTracking phaseDetail : getGraphTracking().getPhaseTracking()) {
+			if (phaseDetail == null) {
+				continue;
+			}
+			for (NodeTracking nodeDetail : phaseDetail.getNodeTracking()) {
+				CTLProfileEntry[] profile = nodeDetail.getCTLProfile();
+				if (profile.length == 0) {
+					continue;
+				}
+				if (!headerPrinted) {
+					headerPrinted = true;
+					logger.info("--------------------------** Profile of CTL transformations **-------------------------");
+					logger.info("Kind    Function/Line                           #Calls    Time(ms)  Avg(us)");
+				}
+				logger.info("Node " + nodeDetail.getNodeName() + " [" + nodeDetail.getNodeID() + "]");
+				List<CTLProfileEntry> functions = new ArrayList<CTLProfileEntry>();
+				List<CTLProfileEntry> lines = new ArrayList<CTLProfileEntry>();
+				for (CTLProfileEntry entry : profile) {
+					(entry.getKind() == CTLProfileEntry.Kind.FUNCTION ? functions : lines).add(entry);
+				}
+				CTLProfileEntry[] sortedFunctions = sortByTime(functions);
+				CTLProfileEntry[] sortedLines = sortByTime(lines);
+				for (CTLProfileEntry entry : sortedFunctions) {
+					printCTLProfileEntry(entry);
+				}
+				for (int i = 0; i < sortedLines.length && i < CTL_PROFILE_LINES; i++) {
+					printCTLProfileEntry(sortedLines[i]);
+				}
+				if (sortedLines.length > CTL_PROFILE_LINES) {
+					logger.info("        ... " + (sortedLines.length - CTL_PROFILE_LINES) + " more lines");
+				}
+			}
+		}
+		if (headerPrinted) {
+			logger.info("------------------------------** End of Profile **-----------------------------------");
+		}
+	}
+
+	private static CTLProfileEntry[] sortByTime(List<CTLProfileEntry> entries) {
+		CTLProfileEntry[] result = entries.toArray(new CTLProfileEntry[entries.size()]);
+		Arrays.sort(result, new Comparator<CTLProfileEntry>() {
+			@Override
+			public int compare(CTLProfileEntry o1, CTLProfileEntry o2) {
+				return Long.compare(o2.getTotalTime(), o1.getTotalTime());
+			}
+		});
+		return result;
+	}
+
+	private static void printCTLProfileEntry(CTLProfileEntry entry) {
+		long averageTime = entry.getInvocationCount() > 0 ? entry.getTotalTime() / entry.getInvocationCount() : 0;
+		Object[] entryInfo = {
+				entry.getKind() == CTLProfileEntry.Kind.FUNCTION ? "func" : "line",
+				entry.getKind() == CTLProfileEntry.Kind.FUNCTION ? entry.getName() + "()" : entry.getName(),
+				Long.toString(entry.getInvocationCount()),
+				Long.toString(TimeUnit.NANOSECONDS.toMillis(entry.getTotalTime())),
+				Long.toString(TimeUnit.NANOSECONDS.toMicros(averageTime))};
+		logger.info(StringUtils.formatString(entryInfo, ARG_SIZES_CTL_PROFILE));
+	}
+
 }
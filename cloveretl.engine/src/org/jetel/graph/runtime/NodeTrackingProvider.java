@@ -22,10 +22,12 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import org.jetel.ctl.CTLProfiler;
 import org.jetel.graph.InputPort;
 import org.jetel.graph.Node;
 import org.jetel.graph.OutputPort;
 import org.jetel.graph.Result;
+import org.jetel.graph.runtime.jmx.CTLProfileEntry;
 import org.jetel.graph.runtime.jmx.CloverJMX;
 import org.jetel.graph.runtime.jmx.NodeTracking;
 import org.jetel.graph.runtime.jmx.NodeTrackingImpl;
@@ -60,6 +62,9 @@ public class NodeTrackingProvider {
 	protected float peakUsageCPU;
 	protected float usageUser;
 	protected float peakUsageUser;
+	protected CTLProfileEntry[] ctlProfile = new CTLProfileEntry[0];
+	protected long spilledBytes;
+	protected long spillBytesSaved;
 	
 	private InputPortTrackingProvider[] inputPortsDetails;
 	private OutputPortTrackingProvider[] outputPortsDetails;
@@ -134,6 +139,18 @@ public class NodeTrackingProvider {
 	public String getNodeName() {
 		return nodeName;
 	}
+
+	public CTLProfileEntry[] getCTLProfile() {
+		return ctlProfile;
+	}
+
+	public long getSpilledBytes() {
+		return spilledBytes;
+	}
+
+	public long getSpillBytesSaved() {
+		return spillBytesSaved;
+	}
 	
 	public PhaseTrackingProvider getParentPhaseTracking() {
 		return parentPhaseDetail;
@@ -197,6 +214,15 @@ public class NodeTrackingProvider {
 		//peakUsageUser
 		peakUsageUser = Math.max(peakUsageUser, usageUser);
 
+		//profile of CTL transformations
+		if (!node.getCTLProfilers().isEmpty()) {
+			ctlProfile = CTLProfiler.merge(node.getCTLProfilers());
+		}
+
+		//compression of spill files
+		spilledBytes = node.getSpilledBytes();
+		spillBytesSaved = node.getSpillBytesSaved();
+
 		//gather input ports related data
 		for(InputPortTrackingProvider inputPortDetail: inputPortsDetails) {
 			inputPortDetail.gatherTrackingDetails();
@@ -264,6 +264,13 @@ public class WatchDog implements Callable<Result>, CloverPost {
 	           	//pre-execute initialization of graph
 	           	try {
 	           		graph.preExecute();
+	           		if (!graph.firstRun()) {
+	           			//repeated execution of an already used graph instance - pre-execute has reset the dictionary
+	           			DictionaryValuesContainer dictContainer = runtimeContext.getDictionaryContent();
+	           			for (String key : dictContainer.getKeys()) {
+	           				graph.getDictionary().setValue(key, dictContainer.getValue(key));
+	           			}
+	           		}
 	           	} catch (Exception e) {
 	    			setCauseException(e);
 	    			if (e instanceof ComponentNotReadyException) {
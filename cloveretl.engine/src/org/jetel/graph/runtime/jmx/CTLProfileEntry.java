@@ -0,0 +1,94 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.graph.runtime.jmx;
+
+import java.io.Serializable;
+
+/**
+ * Immutable snapshot of profiling information about a single CTL function
+ * or a single line of CTL code executed by a component.
+ *
+ * @see NodeTracking#getCTLProfile()
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class CTLProfileEntry implements Serializable {
+
+	private static final long serialVersionUID = -3212570245936402158L;
+
+	public enum Kind {
+		/** CTL function declared in the code or a built-in function */
+		FUNCTION,
+		/** statement on a line of CTL code */
+		LINE
+	}
+
+	private final Kind kind;
+
+	private final String name;
+
+	private final long invocationCount;
+
+	private final long totalTime;
+
+	public CTLProfileEntry(Kind kind, String name, long invocationCount, long totalTime) {
+		this.kind = kind;
+		this.name = name;
+		this.invocationCount = invocationCount;
+		this.totalTime = totalTime;
+	}
+
+	/**
+	 * @return whether this entry describes a function or a line of code
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return name of the function, or the line of code in form "line 12" or "import.ctl:12"
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return number of invocations of the function or the statements on the line
+	 */
+	public long getInvocationCount() {
+		return invocationCount;
+	}
+
+	/**
+	 * @return cumulative time in nanoseconds, including time spent in nested calls
+	 * @see TrackingUtils#convertTime(long, java.util.concurrent.TimeUnit, java.util.concurrent.TimeUnit)
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	@Override
+	public String toString() {
+		return kind + " " + name + ": " + invocationCount + " invocations, " + totalTime + " ns";
+	}
+
+}
@@ -114,4 +114,20 @@ public interface NodeTracking extends Serializable {
 	 */
 	OutputPortTracking getOutputPortTracking(int portNumber);
 	
+	/**
+	 * Profile of interpreted CTL transformations of the node, it is not part of tracking metadata.
+	 * @return per-function and per-line invocation counts and times, empty array if CTL profiling is disabled
+	 */
+	CTLProfileEntry[] getCTLProfile();
+	
+	/**
+	 * @return number of bytes written by the node to compressed spill files (sort tapes, buffered edges), before compression
+	 */
+	long getSpilledBytes();
+	
+	/**
+	 * @return number of bytes saved by compression of spill files written by the node
+	 */
+	long getSpillBytesSaved();
+	
 }
@@ -53,6 +53,10 @@ public class NodeTrackingImpl implements NodeTracking {
 	
 	private InputPortTracking[] inputPorts;
 	private OutputPortTracking[] outputPorts;
+	
+	private CTLProfileEntry[] ctlProfile = new CTLProfileEntry[0];
+	private long spilledBytes;
+	private long spillBytesSaved;
 
 	public NodeTrackingImpl(PhaseTracking parentPhaseTracking) {
 		this.parentPhaseTracking = parentPhaseTracking;
@@ -71,8 +75,10 @@ public class NodeTrackingImpl implements NodeTracking {
 		this.usageCPU = nodeTracking.getUsageCPU();
 		this.peakUsageCPU = nodeTracking.getPeakUsageCPU();
 		this.usageUser = nodeTracking.getUsageUser();
-		this.peakUsageUser = nodeTracking.getPeakUsageUser();
-		
+		this.peakUsageUser = nodeTracking.getPeakUsageUser();
+		this.ctlProfile = nodeTracking.getCTLProfile();
+		this.spilledBytes = nodeTracking.getSpilledBytes();
+		this.spillBytesSaved = nodeTracking.getSpillBytesSaved();
 		
 		this.inputPorts = new InputPortTracking[nodeTracking.getInputPortTracking().length];
 		int i = 0;
@@ -201,6 +207,21 @@ public class NodeTrackingImpl implements NodeTracking {
 		return nodeName;
 	}
 	
+	@Override
+	public CTLProfileEntry[] getCTLProfile() {
+		return ctlProfile;
+	}
+	
+	@Override
+	public long getSpilledBytes() {
+		return spilledBytes;
+	}
+	
+	@Override
+	public long getSpillBytesSaved() {
+		return spillBytesSaved;
+	}
+	
 	@Override
 	public boolean hasPorts() {
 		return getInputPortTracking().length > 0 || getOutputPortTracking().length > 0;
@@ -263,4 +284,16 @@ public class NodeTrackingImpl implements NodeTracking {
 	public void setPeakUsageUser(float peakUsageUser) {
 		this.peakUsageUser = peakUsageUser;
 	}
+
+	public void setCTLProfile(CTLProfileEntry[] ctlProfile) {
+		this.ctlProfile = ctlProfile;
+	}
+
+	public void setSpilledBytes(long spilledBytes) {
+		this.spilledBytes = spilledBytes;
+	}
+
+	public void setSpillBytesSaved(long spillBytesSaved) {
+		this.spillBytesSaved = spillBytesSaved;
+	}
 }
@@ -19,11 +19,16 @@
 package org.jetel.plugin;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.jetel.exception.JetelException;
+import org.jetel.exception.JetelRuntimeException;
+import org.jetel.util.XmlUtils;
 import org.jetel.util.string.StringUtils;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
@@ -43,14 +48,62 @@ public class Extension {
 
     private final PluginDescriptor plugin;
     
-    /** Complete XML of extension point. */
-    private final Element xmlElement;
+    /** Complete XML of extension point. */
+    private Element xmlElement;
+    
+    /** Serialized XML of extension point, parsed on first request. Used for extensions loaded from {@link PluginRegistryIndex}. */
+    private String xmlSource;
+    
+    /** Name of the first element nested in the extension definition. */
+    private String contentElementName;
+    
+    /** Attributes of the first element nested in the extension definition. */
+    private Map<String, String> contentAttributes;
     
     public Extension(String pointId, Element xmlElement, PluginDescriptor plugin) {
         this.pointId = pointId;
         this.parameters = new HashMap<String, ExtensionParameter>();
-        this.plugin = plugin;
+        this.plugin = plugin;
         this.xmlElement = xmlElement;
+        initContent();
+    }
+    
+    /**
+     * Creates extension with lazy parsed XML definition. The content element and its attributes
+     * are known in advance, so the XML needs to be parsed only if the complete definition is requested.
+     * @param pointId extension point id
+     * @param xmlSource serialized XML of extension point
+     * @param contentElementName name of the first element nested in the extension definition, can be null
+     * @param contentAttributes attributes of the first nested element
+     * @param plugin owner of this extension
+     */
+    Extension(String pointId, String xmlSource, String contentElementName, Map<String, String> contentAttributes, PluginDescriptor plugin) {
+        this.pointId = pointId;
+        this.parameters = new HashMap<String, ExtensionParameter>();
+        this.plugin = plugin;
+        this.xmlSource = xmlSource;
+        this.contentElementName = contentElementName;
+        this.contentAttributes = contentAttributes;
+    }
+    
+    private void initContent() {
+        contentAttributes = new LinkedHashMap<String, String>();
+        if (xmlElement == null) {
+        	return;
+        }
+    	NodeList childNodes = xmlElement.getChildNodes();
+    	for (int j = 0; j < childNodes.getLength(); j++) {
+    		if (childNodes.item(j) instanceof Element) {
+    			Element content = (Element) childNodes.item(j);
+    			contentElementName = content.getNodeName();
+	        	NamedNodeMap attributes = content.getAttributes();
+	        	for (int i = 0; i < attributes.getLength(); i++) {
+	        		Node attribute = attributes.item(i);
+	        		contentAttributes.put(attribute.getNodeName(), attribute.getNodeValue());
+	        	}
+	        	break;
+    		}
+    	}
     }
 
     public void addParameter(String key, ExtensionParameter parameter) {
@@ -116,9 +169,41 @@ public class Extension {
     /**
      * @return complete XML of extension point
      */
-    public Element getXMLDefinition() {
+    public synchronized Element getXMLDefinition() {
+    	if (xmlElement == null && xmlSource != null) {
+    		try {
+				xmlElement = XmlUtils.createDocumentFromString(xmlSource).getDocumentElement();
+			} catch (JetelException e) {
+				throw new JetelRuntimeException("Invalid definition of extension '" + pointId + "' in plugin " + (plugin != null ? plugin.getId() : null) + ".", e);
+			}
+    		xmlSource = null;
+    	}
     	return xmlElement;
     }
+    
+    /**
+     * @return name of the first element nested in the extension definition, for example 'ETLComponent'
+     * for 'component' extension point; null if the definition has no nested element
+     */
+    public String getContentElementName() {
+    	return contentElementName;
+    }
+    
+    /**
+     * Attributes of the first element nested in the extension definition are available
+     * without parsing of the complete XML definition.
+     * @return attribute of the first element nested in the extension definition or null
+     */
+    public String getContentAttribute(String name) {
+    	return contentAttributes.get(name);
+    }
+    
+    /**
+     * @return all attributes of the first element nested in the extension definition
+     */
+    public Map<String, String> getContentAttributes() {
+    	return Collections.unmodifiableMap(contentAttributes);
+    }
     
     @Override
 	public String toString() {
@@ -132,25 +217,13 @@ public class Extension {
         
         //this complicated code just print out important attributes of the root XML element of this extension description
         //this is used for 'component' extension point, where 'paramters' are not used at all
-        if (parameters.isEmpty() && xmlElement.hasChildNodes()) {
-        	NodeList childNodes = xmlElement.getChildNodes();
-        	for (int j = 0; j < childNodes.getLength(); j++) {
-        		if (childNodes.item(j) instanceof Element) {
-		        	NamedNodeMap attributes = childNodes.item(j).getAttributes();
-		        	if (attributes != null) {
-			        	for (int i = 0; i < attributes.getLength(); i++) {
-			        		Node attribute = attributes.item(i);
-			        		String attrName = attribute.getNodeName();
-			        		if (isPrintedAttribute(attrName)) {
-				        		String attrValue = attribute.getNodeValue();
-				        		ret.append(attrName + " = " + attrValue + "; ");
-			        		}
-			        	}
-		        	}
-		        	break;
+        if (parameters.isEmpty()) {
+        	for (Entry<String, String> attribute : contentAttributes.entrySet()) {
+        		if (isPrintedAttribute(attribute.getKey())) {
+        			ret.append(attribute.getKey() + " = " + attribute.getValue() + "; ");
         		}
         	}
-        }
+        }
         ret.append("}");
         return ret.toString();
     }
@@ -360,6 +360,13 @@ public class PluginDescriptor {
         return ret;
     }
 
+    /**
+     * Adds already created extension, used by {@link PluginRegistryIndex}.
+     */
+    void addExtension(Extension extension) {
+        extensions.add(extension);
+    }
+
     public List<Extension> getExtensions(String pointId) {
         List<Extension> ret = new ArrayList<Extension>();
         for(Extension extension : extensions) {
@@ -382,6 +389,14 @@ public class PluginDescriptor {
         nativeLibraries.add(nativeLibrary);
     }
 
+    List<String> getLibraries() {
+        return libraries;
+    }
+
+    List<String> getNativeLibraries() {
+        return nativeLibraries;
+    }
+
     public void addPrerequisites(String pluginId, String pluginVersion, String match) {
         prerequisites.add(new PluginPrerequisite(pluginId, pluginVersion, match));
     }
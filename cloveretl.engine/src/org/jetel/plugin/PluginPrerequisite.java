@@ -45,4 +45,12 @@ class PluginPrerequisite {
     public void setPluginId(String pluginId) {
         this.pluginId = pluginId;
     }
+
+    public String getPluginVersion() {
+        return pluginVersion;
+    }
+
+    public String getMatch() {
+        return match;
+    }
 }
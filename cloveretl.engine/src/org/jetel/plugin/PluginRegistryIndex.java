@@ -0,0 +1,450 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetel.data.Defaults;
+import org.jetel.util.JetelVersion;
+import org.jetel.util.string.StringUtils;
+
+/**
+ * Precompiled index of the plugin registry.
+ *
+ * Parsing of all plugin manifests is a significant part of engine startup. The index contains
+ * complete content of all {@link PluginDescriptor}s - plugin attributes, prerequisites, libraries
+ * and all extensions with their parameters (component types, CTL function libraries, class names, ...).
+ * The whole index is loaded by single read. XML definitions of extensions are kept serialized
+ * and parsed only on demand, see {@link Extension#getXMLDefinition()}.
+ *
+ * The index is valid only for identical list of plugin locations, identical engine version
+ * and unchanged timestamps of plugin directories and plugin manifests. Stale or corrupted
+ * index is ignored and regenerated from the plugin manifests.
+ *
+ * The index determines class paths of plugins, so it is loaded only if it is owned by the current user
+ * and neither the index nor its directory is writable by other users.
+ *
+ * The index is disabled by default, see {@link Defaults#PLUGIN_REGISTRY_INDEX}.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class PluginRegistryIndex {
+
+	private static final Log logger = LogFactory.getLog(PluginRegistryIndex.class);
+
+	/** Value of {@link Defaults#PLUGIN_REGISTRY_INDEX} which disables the index. */
+	public static final String DISABLED = "none";
+
+	/** Value of {@link Defaults#PLUGIN_REGISTRY_INDEX} which keeps the index in the user home directory. */
+	public static final String USER_HOME = "user";
+
+	private static final String PLUGIN_MANIFEST_FILE_NAME = "plugin.xml";
+
+	/** Default directory of the index, relative to the user home directory. */
+	private static final String DEFAULT_INDEX_DIRECTORY = ".cloveretl" + File.separator + "plugin-registry";
+
+	/** "CLPI" */
+	private static final int MAGIC = 0x434C5049;
+
+	/** Has to be incremented with each change of the index layout. */
+	static final int FORMAT_VERSION = 1;
+
+	private final File indexFile;
+
+	public PluginRegistryIndex(File indexFile) {
+		this.indexFile = indexFile;
+	}
+
+	/**
+	 * @param pluginLocations locations of all plugins
+	 * @return index configured by {@link Defaults#PLUGIN_REGISTRY_INDEX} or null if the index is disabled
+	 */
+	public static PluginRegistryIndex getInstance(PluginLocation[] pluginLocations) {
+		String location = Defaults.PLUGIN_REGISTRY_INDEX;
+		if (location == null || StringUtils.isEmpty(location.trim()) || DISABLED.equalsIgnoreCase(location.trim())) {
+			return null;
+		}
+		if (USER_HOME.equalsIgnoreCase(location.trim())) {
+			//the per-user directory can be shared by several engine installations
+			StringBuilder key = new StringBuilder();
+			for (PluginLocation pluginLocation : pluginLocations) {
+				key.append(';').append(pluginLocation.getLocation());
+			}
+			String fileName = "plugins-" + Integer.toHexString(key.toString().hashCode()) + ".idx";
+			File directory = new File(System.getProperty("user.home"), DEFAULT_INDEX_DIRECTORY);
+			return new PluginRegistryIndex(new File(directory, fileName));
+		}
+		return new PluginRegistryIndex(new File(location.trim()));
+	}
+
+	public File getIndexFile() {
+		return indexFile;
+	}
+
+	/**
+	 * Loads plugin descriptors from the index.
+	 * @param pluginLocations locations of all plugins
+	 * @return plugin descriptor for each plugin location (null for a skipped location)
+	 * or null if the index is not available or is not valid for the given plugin locations
+	 */
+	public PluginDescriptor[] load(PluginLocation[] pluginLocations) {
+		if (!indexFile.isFile()) {
+			return null;
+		}
+		long[] stamp = createStamp(pluginLocations);
+		if (stamp == null) {
+			return null;
+		}
+		if (!isTrusted(indexFile)) {
+			logger.warn("Plugin registry index '" + indexFile + "' ignored, it is not owned by the current user or it is writable by other users.");
+			return null;
+		}
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(indexFile.toPath())));
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !JetelVersion.getVersion().equals(readString(in))) {
+				logger.debug("Plugin registry index '" + indexFile + "' has incompatible version.");
+				return null;
+			}
+			if (in.readInt() != pluginLocations.length) {
+				return null;
+			}
+			for (int i = 0; i < pluginLocations.length; i++) {
+				if (!pluginLocations[i].getLocation().toString().equals(readString(in))
+						|| in.readLong() != stamp[3 * i] || in.readLong() != stamp[3 * i + 1] || in.readLong() != stamp[3 * i + 2]) {
+					logger.debug("Plugin registry index '" + indexFile + "' is out of date.");
+					return null;
+				}
+			}
+			PluginDescriptor[] result = new PluginDescriptor[pluginLocations.length];
+			for (int i = 0; i < pluginLocations.length; i++) {
+				if (in.readBoolean()) {
+					result[i] = readDescriptor(in, pluginLocations[i].getClassloader());
+				}
+			}
+			return result;
+		} catch (IOException e) {
+			logger.debug("Plugin registry index '" + indexFile + "' is not readable.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the plugin descriptors into the index. Failures are only logged, the index is just an optimization.
+	 * @param pluginLocations locations of all plugins
+	 * @param pluginDescriptors plugin descriptor for each plugin location, null for a skipped location
+	 */
+	public void store(PluginLocation[] pluginLocations, PluginDescriptor[] pluginDescriptors) {
+		long[] stamp = createStamp(pluginLocations);
+		if (stamp == null) {
+			return;
+		}
+		File tempFile = null;
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(buffer);
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			writeString(out, JetelVersion.getVersion());
+			out.writeInt(pluginLocations.length);
+			for (int i = 0; i < pluginLocations.length; i++) {
+				writeString(out, pluginLocations[i].getLocation().toString());
+				out.writeLong(stamp[3 * i]);
+				out.writeLong(stamp[3 * i + 1]);
+				out.writeLong(stamp[3 * i + 2]);
+			}
+			for (PluginDescriptor pluginDescriptor : pluginDescriptors) {
+				out.writeBoolean(pluginDescriptor != null);
+				if (pluginDescriptor != null) {
+					writeDescriptor(out, pluginDescriptor);
+				}
+			}
+			out.close();
+
+			//the index is replaced atomically, other engine instances can read it concurrently
+			Path directory = indexFile.getAbsoluteFile().getParentFile().toPath();
+			if (!Files.isDirectory(directory)) {
+				if (directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+					Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+				} else {
+					Files.createDirectories(directory);
+				}
+			}
+			//the temporary file is readable and writable only by the owner
+			tempFile = Files.createTempFile(directory, indexFile.getName(), ".tmp").toFile();
+			Files.write(tempFile.toPath(), buffer.toByteArray());
+			try {
+				Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			tempFile = null;
+			logger.debug("Plugin registry index '" + indexFile + "' updated.");
+		} catch (IOException e) {
+			logger.debug("Plugin registry index '" + indexFile + "' cannot be stored.", e);
+		} finally {
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * The content of the index is trusted, so it has to be protected against other users
+	 * in the same way as the engine installation itself.
+	 * @return true if the file is owned by the current user and (on POSIX file systems)
+	 * neither the file nor its directory is writable by group or others
+	 */
+	static boolean isTrusted(File file) {
+		try {
+			Path path = file.getAbsoluteFile().toPath();
+			UserPrincipal currentUser = path.getFileSystem().getUserPrincipalLookupService()
+					.lookupPrincipalByName(System.getProperty("user.name"));
+			if (!currentUser.equals(Files.getOwner(path))) {
+				return false;
+			}
+			if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+				for (Path checked : new Path[] { path, path.getParent() }) {
+					Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(checked);
+					if (permissions.contains(PosixFilePermission.GROUP_WRITE) || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+						return false;
+					}
+				}
+			}
+			return true;
+		} catch (IOException | UnsupportedOperationException e) {
+			logger.debug("Owner of plugin registry index '" + file + "' cannot be checked.", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Only plugins in local directories can be validated by timestamps.
+	 * @return last modification time of plugin directory, last modification time and length
+	 * of plugin manifest for each plugin location; null if a plugin location is not local directory
+	 */
+	private static long[] createStamp(PluginLocation[] pluginLocations) {
+		long[] stamp = new long[3 * pluginLocations.length];
+		for (int i = 0; i < pluginLocations.length; i++) {
+			URL location = pluginLocations[i].getLocation();
+			if (!"file".equals(location.getProtocol())) {
+				return null;
+			}
+			File directory;
+			try {
+				directory = new File(location.toURI());
+			} catch (URISyntaxException | IllegalArgumentException e) {
+				return null;
+			}
+			File manifest = new File(directory, PLUGIN_MANIFEST_FILE_NAME);
+			stamp[3 * i] = directory.lastModified();
+			stamp[3 * i + 1] = manifest.lastModified();
+			stamp[3 * i + 2] = manifest.length();
+		}
+		return stamp;
+	}
+
+	private static void writeDescriptor(DataOutputStream out, PluginDescriptor plugin) throws IOException {
+		writeString(out, plugin.getManifest().toString());
+		writeString(out, plugin.getId());
+		writeString(out, plugin.getVersion());
+		writeString(out, plugin.getProviderName());
+		writeString(out, plugin.getPluginClassName());
+		out.writeBoolean(plugin.isGreedyClassLoader());
+		out.writeBoolean(plugin.isLazyActivated());
+		String[] excludedPackages = plugin.getExcludedPackages();
+		out.writeInt(excludedPackages != null ? excludedPackages.length : -1);
+		if (excludedPackages != null) {
+			for (String excludedPackage : excludedPackages) {
+				writeString(out, excludedPackage);
+			}
+		}
+		out.writeInt(plugin.getPrerequisites().size());
+		for (PluginPrerequisite prerequisite : plugin.getPrerequisites()) {
+			writeString(out, prerequisite.getPluginId());
+			writeString(out, prerequisite.getPluginVersion());
+			writeString(out, prerequisite.getMatch());
+		}
+		writeStrings(out, plugin.getLibraries());
+		writeStrings(out, plugin.getNativeLibraries());
+		out.writeInt(plugin.getExtensions().size());
+		for (Extension extension : plugin.getExtensions()) {
+			writeString(out, extension.getPointId());
+			writeString(out, extension.getContentElementName());
+			Map<String, String> contentAttributes = extension.getContentAttributes();
+			out.writeInt(contentAttributes.size());
+			for (Entry<String, String> attribute : contentAttributes.entrySet()) {
+				writeString(out, attribute.getKey());
+				writeString(out, attribute.getValue());
+			}
+			Map<String, ExtensionParameter> parameters = extension.getParameters();
+			out.writeInt(parameters.size());
+			for (Entry<String, ExtensionParameter> parameter : parameters.entrySet()) {
+				writeString(out, parameter.getKey());
+				writeStrings(out, parameter.getValue().getValues());
+			}
+			writeString(out, serialize(extension));
+		}
+	}
+
+	private static PluginDescriptor readDescriptor(DataInputStream in, ClassLoader parentClassLoader) throws IOException {
+		URL manifest;
+		try {
+			manifest = new URL(readString(in));
+		} catch (MalformedURLException e) {
+			throw new IOException(e);
+		}
+		PluginDescriptor plugin = new PluginDescriptor(manifest, parentClassLoader);
+		plugin.setId(readString(in));
+		plugin.setVersion(readString(in));
+		plugin.setProviderName(readString(in));
+		plugin.setPluginClassName(readString(in));
+		plugin.setGreedyClassLoader(in.readBoolean());
+		plugin.setLazyActivated(in.readBoolean());
+		int excludedPackagesCount = in.readInt();
+		if (excludedPackagesCount >= 0) {
+			String[] excludedPackages = new String[excludedPackagesCount];
+			for (int i = 0; i < excludedPackagesCount; i++) {
+				excludedPackages[i] = readString(in);
+			}
+			plugin.setExcludedPackages(excludedPackages);
+		}
+		int prerequisitesCount = in.readInt();
+		for (int i = 0; i < prerequisitesCount; i++) {
+			plugin.addPrerequisites(readString(in), readString(in), readString(in));
+		}
+		for (String library : readStrings(in)) {
+			plugin.addLibrary(library);
+		}
+		for (String nativeLibrary : readStrings(in)) {
+			plugin.addNativeLibrary(nativeLibrary);
+		}
+		int extensionsCount = in.readInt();
+		for (int i = 0; i < extensionsCount; i++) {
+			String pointId = readString(in);
+			String contentElementName = readString(in);
+			int attributesCount = in.readInt();
+			Map<String, String> contentAttributes = new LinkedHashMap<String, String>();
+			for (int j = 0; j < attributesCount; j++) {
+				contentAttributes.put(readString(in), readString(in));
+			}
+			int parametersCount = in.readInt();
+			Map<String, ExtensionParameter> parameters = new LinkedHashMap<String, ExtensionParameter>();
+			for (int j = 0; j < parametersCount; j++) {
+				String key = readString(in);
+				ExtensionParameter parameter = new ExtensionParameter();
+				for (String value : readStrings(in)) {
+					parameter.addValue(value);
+				}
+				parameters.put(key, parameter);
+			}
+			Extension extension = new Extension(pointId, readString(in), contentElementName, contentAttributes, plugin);
+			for (Entry<String, ExtensionParameter> parameter : parameters.entrySet()) {
+				extension.addParameter(parameter.getKey(), parameter.getValue());
+			}
+			plugin.addExtension(extension);
+		}
+		return plugin;
+	}
+
+	private static String serialize(Extension extension) throws IOException {
+		try {
+			Transformer transformer = TransformerFactory.newInstance().newTransformer();
+			transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+			StringWriter writer = new StringWriter();
+			transformer.transform(new DOMSource(extension.getXMLDefinition()), new StreamResult(writer));
+			return writer.toString();
+		} catch (TransformerException e) {
+			throw new IOException("Extension " + extension.getPointId() + " cannot be serialized.", e);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		if (length > in.available()) {
+			throw new IOException("Unexpected end of plugin registry index.");
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values) {
+			writeString(out, value);
+		}
+	}
+
+	private static List<String> readStrings(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		List<String> values = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			values.add(readString(in));
+		}
+		return values;
+	}
+
+}
@@ -219,30 +219,27 @@ public class Plugins {
     }
 
     private static void loadPluginDescription() {
-    	//iterates over all plugin repositories
-        for (PluginLocation pluginLocation : pluginLocations) {
-        	
-    		URL pluginManifestUrl;
-    		try {
-    			//find a plugin manifest "plugin.xml"
-    			pluginManifestUrl = FileUtils.getFileURL(pluginLocation.getLocation(), PLUGIN_MANIFEST_FILE_NAME);
-			} catch (MalformedURLException e) {
-				logger.error("Plugin '" + pluginLocation.getLocation() + "' is not available (skipped).", e);
-				continue;
-			}
-    		PluginDescriptor pluginDescriptor = new PluginDescriptor(pluginManifestUrl, pluginLocation.getClassloader());
-    		try {
-    			pluginDescriptor.init();
-    		} catch (ComponentNotReadyException e) {
-    			if (e.getCause() instanceof FileNotFoundException) {
-    				logger.warn("Plugin manifest '" + pluginManifestUrl + "' is not available (skipped).");
-    			} else {
-        			//manifest is not parsable
-    				logger.warn("Plugin manifest '" + pluginManifestUrl + "' is not parsable (skipped).", e);
-    			}
-    			continue;
+    	//precompiled index of plugin manifests is preferred
+    	PluginRegistryIndex index = PluginRegistryIndex.getInstance(pluginLocations);
+    	PluginDescriptor[] descriptors = null;
+    	if (index != null) {
+    		descriptors = index.load(pluginLocations);
+    	}
+    	if (descriptors == null) {
+    		descriptors = parsePluginManifests();
+    		if (index != null) {
+    			index.store(pluginLocations, descriptors);
     		}
-    		//stores prepared plugin descriptor
+    	} else {
+    		logger.debug("Plugin descriptors loaded from registry index '" + index.getIndexFile() + "'.");
+    	}
+    	
+        for (PluginDescriptor pluginDescriptor : descriptors) {
+        	if (pluginDescriptor == null) {
+        		continue;
+        	}
+    		URL pluginManifestUrl = pluginDescriptor.getManifest();
+    		//stores prepared plugin descriptor
     		if (!pluginDescriptors.containsKey(pluginDescriptor.getId())) {
         		pluginDescriptors.put(pluginDescriptor.getId(), pluginDescriptor);
     		} else {
@@ -274,6 +271,41 @@ public class Plugins {
         }
     }
 
+    /**
+     * Parses manifests of all plugins.
+     * @return plugin descriptor for each plugin location, null for skipped plugins
+     */
+    private static PluginDescriptor[] parsePluginManifests() {
+    	PluginDescriptor[] descriptors = new PluginDescriptor[pluginLocations.length];
+    	//iterates over all plugin repositories
+    	for (int i = 0; i < pluginLocations.length; i++) {
+    		PluginLocation pluginLocation = pluginLocations[i];
+        	
+    		URL pluginManifestUrl;
+    		try {
+    			//find a plugin manifest "plugin.xml"
+    			pluginManifestUrl = FileUtils.getFileURL(pluginLocation.getLocation(), PLUGIN_MANIFEST_FILE_NAME);
+			} catch (MalformedURLException e) {
+				logger.error("Plugin '" + pluginLocation.getLocation() + "' is not available (skipped).", e);
+				continue;
+			}
+    		PluginDescriptor pluginDescriptor = new PluginDescriptor(pluginManifestUrl, pluginLocation.getClassloader());
+    		try {
+    			pluginDescriptor.init();
+    		} catch (ComponentNotReadyException e) {
+    			if (e.getCause() instanceof FileNotFoundException) {
+    				logger.warn("Plugin manifest '" + pluginManifestUrl + "' is not available (skipped).");
+    			} else {
+        			//manifest is not parsable
+    				logger.warn("Plugin manifest '" + pluginManifestUrl + "' is not parsable (skipped).", e);
+    			}
+    			continue;
+    		}
+    		descriptors[i] = pluginDescriptor;
+    	}
+    	return descriptors;
+    }
+
     public static List<ClassLoader> getClassLoaders(ClassLoader exclude) {
         List<ClassLoader> ret = new ArrayList<ClassLoader>();
         
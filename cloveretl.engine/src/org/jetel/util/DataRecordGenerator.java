@@ -190,14 +190,14 @@ public class DataRecordGenerator extends AbstractParser {
 					if (!StringUtils.isBlank(randomRanges[randomIndex][MIN])) {
 						tmpField = record.getField(i).duplicate();
 						((DateDataField) tmpField).fromString(randomRanges[randomIndex][MIN]);
-						specialValue[i][MIN] = ((DateDataField) tmpField).getDate().getTime();
+						specialValue[i][MIN] = ((DateDataField) tmpField).getTime();
 					} else {
 						specialValue[i][MIN] = Long.MIN_VALUE;
 					}
 					if (!StringUtils.isBlank(randomRanges[randomIndex][MAX])) {
 						tmpField = record.getField(i).duplicate();
 						((DateDataField) tmpField).fromString(randomRanges[randomIndex][MAX]);
-						specialValue[i][MAX] = ((DateDataField) tmpField).getDate().getTime();
+						specialValue[i][MAX] = ((DateDataField) tmpField).getTime();
 					} else {
 						specialValue[i][MAX] = Long.MAX_VALUE;
 					}
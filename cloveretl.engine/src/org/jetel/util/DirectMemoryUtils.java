@@ -26,6 +26,8 @@ import javax.management.MBeanServer;
 import javax.management.ObjectName;
 
 import org.apache.log4j.Logger;
+import org.jetel.util.bytes.CloverBuffer;
+import org.jetel.util.bytes.PooledCloverBufferAllocator;
 
 /**
  * Methods return info about Direct memory. If works only on Oracle JDK 1.7 so far.
@@ -123,6 +125,30 @@ public class DirectMemoryUtils {
         }
     }
     
+    /**
+     * @return the pool of direct buffers or null if clover buffers are not pooled
+     * @see org.jetel.data.Defaults#DIRECT_MEMORY_POOL_SIZE
+     */
+    public static PooledCloverBufferAllocator getDirectMemoryPool() {
+    	return CloverBuffer.getAllocator() instanceof PooledCloverBufferAllocator ? (PooledCloverBufferAllocator) CloverBuffer.getAllocator() : null;
+    }
+
+    /**
+     * @return number of bytes of idle direct buffers in the pool, -1 if the pool is not used
+     */
+    public static long getPooledDirectMemory() {
+    	PooledCloverBufferAllocator pool = getDirectMemoryPool();
+    	return pool != null ? pool.getPooledBytes() : -1;
+    }
+
+    /**
+     * @return number of bytes of direct buffers allocated by the pool and not released yet, -1 if the pool is not used
+     */
+    public static long getPooledDirectMemoryUsage() {
+    	PooledCloverBufferAllocator pool = getDirectMemoryPool();
+    	return pool != null ? pool.getUsedBytes() : -1;
+    }
+
 	/**
 	 * Parses value from human readable string (size+units) 
 	 * and convert it to the value in bytes
@@ -31,6 +31,7 @@ import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jetel.data.DataRecord;
+import org.jetel.data.Defaults;
 import org.jetel.data.parser.Parser;
 import org.jetel.data.parser.Parser.DataSourceType;
 import org.jetel.exception.ComponentNotReadyException;
@@ -95,6 +96,7 @@ public class MultiFileReader {
 	private boolean initializeDataDependentSource;
 	private boolean isSourceOpen;
 	private PropertyRefResolver propertyRefResolve;
+	private int prefetchDepth = Defaults.DataParser.PREFETCH_DEPTH;
     
     /**
 	 * Sole ctor.
@@ -148,6 +150,7 @@ public class MultiFileReader {
     	channelIterator.setDictionary(dictionary);
     	channelIterator.setPropertyRefResolver(propertyRefResolve);
 		channelIterator.setPreferredDataSourceType(parser.getPreferredDataSourceType());
+		channelIterator.setPrefetchDepth(prefetchDepth);
     }
     
     /**
@@ -680,6 +683,28 @@ public class MultiFileReader {
     public void setPropertyRefResolver(PropertyRefResolver propertyRefResolve) {
     	this.propertyRefResolve = propertyRefResolve;
     }
+
+    /**
+     * Changes specification of input file(s), takes effect in the next {@link #preExecute()}.
+     * 
+     * @param fileURL
+     */
+    public void setFileURL(String fileURL) {
+    	this.fileURL = fileURL;
+    }
+    
+    /**
+     * Sets number of input files which are opened and buffered in the background
+     * while the current file is parsed. Useful for many small remote files,
+     * where opening of a file takes longer than its parsing. 0 disables prefetching.
+     * The files are still parsed one by one in the original order.
+     * 
+     * @param prefetchDepth
+     * @see Defaults.DataParser#PREFETCH_DEPTH
+     */
+    public void setPrefetchDepth(int prefetchDepth) {
+    	this.prefetchDepth = prefetchDepth;
+    }
     
     /**
      * Adds reference to listener for change in DataSource - invoked
@@ -22,14 +22,20 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.CharacterCodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.commons.logging.Log;
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
+import org.jetel.data.Defaults;
 import org.jetel.data.RecordKey;
 import org.jetel.data.formatter.Formatter;
 import org.jetel.data.formatter.provider.FormatterProvider;
@@ -68,6 +74,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 public class MultiFileWriter {
 	// Default capacity of HashMap
 	private final static int tableInitialSize = 512;
+	// Initial capacity of buffer of one partition
+	private final static int PARTITION_BUFFER_INITIAL_SIZE = 1024;
 
     private Formatter currentFormatter;				// for former constructor
     private FormatterProvider formatterGetter;		// creates new formatter
@@ -123,6 +131,23 @@ public class MultiFileWriter {
 	private boolean sortedInput = false;
 	private String lastKeyForSortedInput;
 	
+	/**
+	 * Maximal number of partition files open at once for unsorted input, 0 means no limit.
+	 * The least recently used files are closed and reopened in append mode when needed,
+	 * targets which do not support appending stay open (see {@link TargetFile#setReopenable(boolean)}).
+	 */
+	private int maxOpenFiles = 0;
+	/**
+	 * Size of memory for records buffered per partition before they are written, -1 means
+	 * {@link Defaults.DataFormatter#PARTITION_BUFFER_SIZE} if the number of open files is limited.
+	 */
+	private int partitionBufferSize = -1;
+	private Map<String, TargetFile> openTargets;				// open partition targets in access order
+	private Map<String, CloverBuffer> partitionBuffers;		// serialized records waiting for write
+	private int bufferedBytes;
+	private int bufferLimit;
+	private DataRecord flushRecord;
+	
     private boolean deserialized;
     private DataRecord record = null;
     
@@ -173,8 +198,9 @@ public class MultiFileWriter {
      */
 	public void reset() throws ComponentNotReadyException {
 		if (multiTarget != null){
-			multiTarget.clear();
+			multiTarget.clear();
 			currentTarget = null;
+			preparePartitionLimits();
 		} else if (currentTarget != null) { // CLO-7184
 			currentTarget.reset();
 		}
@@ -211,6 +237,7 @@ public class MultiFileWriter {
 				}
 				
 				multiTarget = new HashMap<Object, TargetFile>(tableInitialSize);
+				preparePartitionLimits();
 				
 			// prepare type of targets: single
 			} else if (createEmptyFiles) {
@@ -221,6 +248,27 @@ public class MultiFileWriter {
 		}
     }
 
+	/**
+	 * Prepares LRU of open targets and partition buffers for unsorted partitioned output.
+	 */
+	private void preparePartitionLimits() {
+		openTargets = null;
+		partitionBuffers = null;
+		bufferedBytes = 0;
+		if (sortedInput) {
+			return;
+		}
+		if (maxOpenFiles > 0) {
+			openTargets = new LinkedHashMap<String, TargetFile>(16, 0.75f, true);
+		}
+		bufferLimit = partitionBufferSize >= 0 ? partitionBufferSize : (maxOpenFiles > 0 ? Defaults.DataFormatter.PARTITION_BUFFER_SIZE : 0);
+		// buffered bytes may exceed the limit by one record before the buffers are flushed
+		bufferLimit = Math.min(bufferLimit, Integer.MAX_VALUE - Defaults.Record.RECORD_LIMIT_SIZE);
+		if (bufferLimit > 0) {
+			partitionBuffers = new HashMap<String, CloverBuffer>(tableInitialSize);
+		}
+	}
+
 	/**
 	 * @throws ComponentNotReadyException
 	 * @throws IOException
@@ -440,27 +488,124 @@ public class MultiFileWriter {
     	}
     }
     
-    private final void writeRecord2MultiTargetUnsortedInputCommon(DataRecord keyRecord) throws IOException, ComponentNotReadyException {
-    	String keyString = getKeyString(keyRecord);
+    private final void writeRecord2MultiTargetUnsortedInputCommon(String keyString) throws IOException, ComponentNotReadyException {
     	if ((currentTarget = multiTarget.get(keyString)) == null) {
     		currentTarget = createNewTarget();
     		currentTarget.setFileTag(useNumberFileTag ? numberFileTag++ : keyString);
+    		currentTarget.setReopenable(openTargets != null);
     		currentTarget.init();
     		multiTarget.put(keyString, currentTarget);
+    	}
+    	if (openTargets != null) {
+    		touchOpenTarget(keyString, currentTarget);
     	}
 		currentFormatter = currentTarget.getFormatter();
     }
 
     private final void writeRecord2MultiTargetUnsortedInput(DataRecord keyRecord, DataRecord record) throws IOException, ComponentNotReadyException {
-    	writeRecord2MultiTargetUnsortedInputCommon(keyRecord);
+    	String keyString = getKeyString(keyRecord);
+    	if (partitionBuffers != null) {
+    		CloverBuffer data = getPartitionBuffer(keyString);
+    		int position = data.position();
+    		record.serialize(data);
+    		recordBuffered(data.position() - position);
+    		return;
+    	}
+    	writeRecord2MultiTargetUnsortedInputCommon(keyString);
 		writeRecord2CurrentTarget(record);
     }
 
     private final void writeRecord2MultiTargetUnsortedInput(DataRecord keyRecord, CloverBuffer buffer) throws IOException, ComponentNotReadyException {
-    	writeRecord2MultiTargetUnsortedInputCommon(keyRecord);
+    	String keyString = getKeyString(keyRecord);
+    	if (partitionBuffers != null) {
+    		int length = buffer.remaining();
+    		getPartitionBuffer(keyString).put(buffer);
+    		buffer.rewind();
+    		recordBuffered(length);
+    		return;
+    	}
+    	writeRecord2MultiTargetUnsortedInputCommon(keyString);
 		writeRecord2CurrentTarget(buffer);
     }
 
+    /**
+     * Marks the target as the most recently used one and closes the least recently used
+     * targets if there are too many open targets.
+     */
+    private void touchOpenTarget(String keyString, TargetFile target) throws IOException {
+    	if (openTargets.put(keyString, target) == null) {
+    		Iterator<TargetFile> it = openTargets.values().iterator();
+    		while (openTargets.size() > maxOpenFiles) {
+    			TargetFile eldest = it.next();
+    			it.remove();
+    			// targets which cannot be reopened stay open
+    			eldest.release();
+    		}
+    	}
+    }
+
+    private CloverBuffer getPartitionBuffer(String keyString) throws IOException, ComponentNotReadyException {
+    	if (!multiTarget.containsKey(keyString)) {
+    		// the target is created by the first record to keep numbering of partition files
+    		writeRecord2MultiTargetUnsortedInputCommon(keyString);
+    	}
+    	CloverBuffer data = partitionBuffers.get(keyString);
+    	if (data == null) {
+    		// a single partition can take the whole memory for buffered records
+    		data = CloverBuffer.allocate(PARTITION_BUFFER_INITIAL_SIZE, bufferLimit + Defaults.Record.RECORD_LIMIT_SIZE);
+    		partitionBuffers.put(keyString, data);
+    	}
+    	return data;
+    }
+
+    private void recordBuffered(int bytes) throws IOException, ComponentNotReadyException {
+    	counter++;
+    	bufferedBytes += bytes;
+    	if (bufferedBytes >= bufferLimit) {
+    		flushPartitionBuffers(bufferLimit / 2);
+    	}
+    }
+
+    /**
+     * Writes buffered records of the largest partitions, so that the records are written in large
+     * sequential chunks, until at most the given number of bytes stays buffered.
+     * 
+     * @param remainingBytes
+     */
+    private void flushPartitionBuffers(int remainingBytes) throws IOException, ComponentNotReadyException {
+    	List<Entry<String, CloverBuffer>> entries = new ArrayList<Entry<String, CloverBuffer>>(partitionBuffers.entrySet());
+    	Collections.sort(entries, new Comparator<Entry<String, CloverBuffer>>() {
+			@Override
+			public int compare(Entry<String, CloverBuffer> o1, Entry<String, CloverBuffer> o2) {
+				return Integer.compare(o2.getValue().position(), o1.getValue().position());
+			}
+		});
+    	for (Entry<String, CloverBuffer> entry : entries) {
+    		if (bufferedBytes <= remainingBytes) {
+    			break;
+    		}
+    		partitionBuffers.remove(entry.getKey());
+    		flushPartitionBuffer(entry.getKey(), entry.getValue());
+    	}
+    }
+
+    private void flushPartitionBuffer(String keyString, CloverBuffer data) throws IOException, ComponentNotReadyException {
+    	writeRecord2MultiTargetUnsortedInputCommon(keyString);
+    	if (flushRecord == null) {
+    		flushRecord = DataRecordFactory.newRecord(metadata);
+    	}
+    	bufferedBytes -= data.position();
+    	data.flip();
+    	while (data.hasRemaining()) {
+    		checkAndSetNextOutput();
+    		flushRecord.deserialize(data);
+    		// the record has been counted when buffered
+    		int size = formatRecord(flushRecord);
+        	currentTarget.setBytes(currentTarget.getBytes() + size);
+        	currentTarget.setRecords(currentTarget.getRecords() + 1);
+    	}
+    }
+
     private final void writeRecord2MultiTargetSortedInputCommon(DataRecord keyRecord) throws IOException, ComponentNotReadyException {
     	String keyString = getKeyString(keyRecord);
     	if (lastKeyForSortedInput == null || !lastKeyForSortedInput.equals(keyString)) {
@@ -643,9 +788,19 @@ public class MultiFileWriter {
      * @throws IOException
      */
     private final void writeRecord2CurrentTarget(DataRecord record) throws IOException {
-    	try {
-    		int size = currentFormatter.write(record);
-    		incrementCounters(size);
+		incrementCounters(formatRecord(record));
+    }
+    
+    /**
+     * Writes data into formatter.
+     * 
+     * @param record
+     * @return number of written bytes
+     * @throws IOException
+     */
+    private int formatRecord(DataRecord record) throws IOException {
+    	try {
+    		return currentFormatter.write(record);
     	} catch (RuntimeException e) {
     		if (e.getCause() instanceof CharacterCodingException) {
     			throw new IOException("Converting exception in the record: " + counter + ". ", e);
@@ -669,7 +824,12 @@ public class MultiFileWriter {
 			}
     		reset = false;
     	}
-    	if (multiTarget != null && !sortedInput) {
+    	if (multiTarget != null && !sortedInput) {
+    		if (partitionBuffers != null) {
+    			// records not written by finish() are discarded
+    			partitionBuffers.clear();
+    			bufferedBytes = 0;
+    		}
         	for (Entry<Object, TargetFile> entry: multiTarget.entrySet()) {
         		entry.getValue().close();
         	}
@@ -694,6 +854,13 @@ public class MultiFileWriter {
     		reset = false;
     	}
     	if (multiTarget != null && !sortedInput) {
+    		if (partitionBuffers != null) {
+    			try {
+    				flushPartitionBuffers(0);
+    			} catch (ComponentNotReadyException e) {
+    				throw new IOException(e);
+    			}
+    		}
         	for (Entry<Object, TargetFile> entry: multiTarget.entrySet()) {
         		entry.getValue().finish();
         	}
@@ -894,7 +1061,29 @@ public class MultiFileWriter {
 	
 	public void setSortedInput(boolean sortedInput) {
 		this.sortedInput = sortedInput;
-	}
+	}
+
+	/**
+	 * Sets maximal number of partition files open at once, the least recently used files
+	 * are closed and reopened in append mode when needed. Records are buffered per partition,
+	 * see {@link #setPartitionBufferSize(int)}. Not used for sorted input.
+	 * 
+	 * @param maxOpenFiles 0 means no limit
+	 */
+	public void setMaxOpenFiles(int maxOpenFiles) {
+		this.maxOpenFiles = Math.max(maxOpenFiles, 0);
+	}
+
+	/**
+	 * Sets size of memory for records buffered per partition, the largest partitions are written
+	 * when the memory is exhausted. Not used for sorted input.
+	 * 
+	 * @param partitionBufferSize 0 disables buffering, -1 means {@link Defaults.DataFormatter#PARTITION_BUFFER_SIZE}
+	 * if the number of open files is limited
+	 */
+	public void setPartitionBufferSize(int partitionBufferSize) {
+		this.partitionBufferSize = partitionBufferSize;
+	}
 	
 	public void setCreateEmptyFiles(boolean createEmptyFiles) {
 		this.createEmptyFiles = createEmptyFiles;
@@ -0,0 +1,421 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetel.data.DataRecord;
+import org.jetel.data.Defaults;
+import org.jetel.exception.BadDataFormatException;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.exception.JetelException;
+import org.jetel.graph.ContextProvider;
+import org.jetel.graph.Node;
+import org.jetel.graph.runtime.CloverWorker;
+import org.jetel.util.file.FileUtils;
+import org.jetel.util.file.stream.Input;
+import org.jetel.util.file.stream.Wildcards;
+
+/**
+ * Reads multiple input files concurrently. The file URL is resolved to the list of files
+ * at the beginning of each phase and the files are distributed among worker threads, each worker
+ * reads whole files by its own {@link MultiFileReader} with its own parser. Records are passed
+ * to the component thread in batches and returned by {@link #getNext(DataRecord)} in the same way
+ * as by {@link MultiFileReader#getNext(DataRecord)}.
+ *
+ * If the file order is preserved, records of one file are returned together and the files
+ * are returned in the original order, i.e. the output is the same as of sequential reading.
+ * Otherwise batches of records are returned as soon as they are parsed.
+ *
+ * Each file is read as a separate source, so autofilled fields like source name or source row number
+ * are correct, but global counters are counted per file. Global skip and number of records and incremental
+ * reading are not supported, only file URLs without port and dictionary sources can be read in parallel,
+ * see {@link #isSupported(String)}.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ParallelMultiFileReader {
+
+	private static final Log logger = LogFactory.getLog(ParallelMultiFileReader.class);
+
+	/** number of records passed between threads at once */
+	private static final int BATCH_SIZE = 256;
+
+	/** number of batches parsed in advance per worker */
+	private static final int BATCHES_PER_WORKER = 4;
+
+	private static final String PORT = "port:";
+	private static final String DICT = "dict:";
+
+	/**
+	 * Creates readers and records for the worker threads.
+	 */
+	public interface ReaderFactory {
+
+		/**
+		 * @return new reader with its own parser, already initialized by {@link MultiFileReader#init(org.jetel.metadata.DataRecordMetadata)},
+		 * file URL of the reader is set for each file by {@link MultiFileReader#setFileURL(String)}
+		 */
+		public MultiFileReader createReader() throws ComponentNotReadyException;
+
+		/**
+		 * @return new record of the output metadata
+		 */
+		public DataRecord createRecord();
+	}
+
+	/**
+	 * Records parsed from one file.
+	 */
+	private static class Batch {
+		private final DataRecord[] records;
+		private final BadDataFormatException[] errors;
+		private String fileName;
+		private int size;
+		// last batch of the file
+		private boolean last;
+
+		Batch(ReaderFactory factory) {
+			records = new DataRecord[BATCH_SIZE];
+			errors = new BadDataFormatException[BATCH_SIZE];
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				records[i] = factory.createRecord();
+			}
+		}
+
+		boolean isFull() {
+			return size == records.length;
+		}
+
+		void clear() {
+			for (int i = 0; i < size; i++) {
+				errors[i] = null;
+			}
+			size = 0;
+			last = false;
+			fileName = null;
+		}
+	}
+
+	private final ReaderFactory factory;
+	private final URL contextURL;
+	private final String fileURL;
+	private final int parallelism;
+	private final boolean preserveFileOrder;
+
+	private List<String> files;
+	// queue per file if the order is preserved, a single shared queue otherwise
+	private List<BlockingQueue<Batch>> queues;
+	private final ConcurrentLinkedQueue<Batch> freeBatches = new ConcurrentLinkedQueue<Batch>();
+	private final AtomicInteger nextFile = new AtomicInteger();
+	private final List<Worker> workers = new ArrayList<Worker>();
+	private final AtomicInteger runningWorkers = new AtomicInteger();
+	private volatile Exception failure;
+	// a worker failed while reading a file, the file is never completed
+	private volatile boolean fileFailed;
+	private volatile boolean stopped;
+
+	private Batch currentBatch;
+	private int batchPosition;
+	// index of the file which is returned if the order is preserved
+	private int currentFile;
+	// number of files returned completely if the order is not preserved
+	private int finishedFiles;
+	private String sourceName;
+
+	/**
+	 * @param factory creates readers and records of the workers
+	 * @param contextURL context URL
+	 * @param fileURL specification of input files
+	 * @param parallelism number of files read concurrently
+	 * @param preserveFileOrder true if records of each file should be returned together in the order of the files
+	 */
+	public ParallelMultiFileReader(ReaderFactory factory, URL contextURL, String fileURL, int parallelism, boolean preserveFileOrder) {
+		this.factory = factory;
+		this.contextURL = contextURL;
+		this.fileURL = fileURL;
+		this.parallelism = Math.max(parallelism, 1);
+		this.preserveFileOrder = preserveFileOrder;
+	}
+
+	/**
+	 * @param fileURL specification of input files
+	 * @return true if the files can be read in parallel - the file URL does not contain
+	 * port, dictionary or standard input sources
+	 */
+	public static boolean isSupported(String fileURL) {
+		if (fileURL == null) {
+			return false;
+		}
+		for (String url : fileURL.split(Defaults.DEFAULT_PATH_SEPARATOR_REGEX)) {
+			url = url.trim();
+			if (url.startsWith(PORT) || url.startsWith(DICT) || url.equals(FileUtils.STD_CONSOLE)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Resolves the input files and starts the workers.
+	 */
+	public void preExecute() throws ComponentNotReadyException {
+		files = new ArrayList<String>();
+		try (DirectoryStream<Input> stream = Wildcards.newDirectoryStream(contextURL, fileURL)) {
+			for (Input input : stream) {
+				files.add(input.getAbsolutePath());
+			}
+		} catch (IOException | RuntimeException e) {
+			throw new ComponentNotReadyException("Failed to list input files " + fileURL, e);
+		}
+
+		queues = new ArrayList<BlockingQueue<Batch>>();
+		if (preserveFileOrder) {
+			for (int i = 0; i < files.size(); i++) {
+				queues.add(new ArrayBlockingQueue<Batch>(BATCHES_PER_WORKER));
+			}
+		} else {
+			queues.add(new ArrayBlockingQueue<Batch>(BATCHES_PER_WORKER * parallelism));
+		}
+		nextFile.set(0);
+		failure = null;
+		fileFailed = false;
+		stopped = false;
+		currentBatch = null;
+		currentFile = 0;
+		finishedFiles = 0;
+		sourceName = null;
+
+		Node node = ContextProvider.getNode();
+		int numWorkers = Math.min(parallelism, files.size());
+		runningWorkers.set(numWorkers);
+		for (int i = 0; i < numWorkers; i++) {
+			Worker worker = new Worker(node, "ParallelReader" + i);
+			workers.add(worker);
+			worker.startWorker();
+		}
+		logger.debug("Reading " + files.size() + " files by " + numWorkers + " threads");
+	}
+
+	/**
+	 * Returns next record in the same way as {@link MultiFileReader#getNext(DataRecord)}.
+	 * Data format errors of the workers are thrown in the place of the erroneous record.
+	 *
+	 * @param record record to be filled
+	 * @return the record or null if all files have been read
+	 */
+	public DataRecord getNext(DataRecord record) throws JetelException, InterruptedException {
+		while (true) {
+			if (currentBatch != null && batchPosition < currentBatch.size) {
+				int i = batchPosition++;
+				sourceName = currentBatch.fileName;
+				BadDataFormatException error = currentBatch.errors[i];
+				if (error != null) {
+					throw error;
+				}
+				record.copyFrom(currentBatch.records[i]);
+				return record;
+			}
+			if (currentBatch != null) {
+				currentBatch.clear();
+				freeBatches.offer(currentBatch);
+			}
+			currentBatch = nextBatch();
+			batchPosition = 0;
+			if (currentBatch == null) {
+				return null;
+			}
+		}
+	}
+
+	private Batch nextBatch() throws JetelException, InterruptedException {
+		BlockingQueue<Batch> queue;
+		if (preserveFileOrder) {
+			if (currentFile >= files.size()) {
+				checkFailure();
+				return null;
+			}
+			queue = queues.get(currentFile);
+		} else {
+			if (finishedFiles >= files.size()) {
+				checkFailure();
+				return null;
+			}
+			queue = queues.get(0);
+		}
+		Batch batch;
+		while ((batch = queue.poll(100, TimeUnit.MILLISECONDS)) == null) {
+			if (fileFailed || runningWorkers.get() == 0) {
+				checkFailure();
+			}
+		}
+		if (batch.last) {
+			if (preserveFileOrder) {
+				currentFile++;
+			} else {
+				finishedFiles++;
+			}
+		}
+		return batch;
+	}
+
+	/**
+	 * Throws the failure of a worker. A worker which failed before it took any file, e.g. its reader
+	 * could not be created, does not make any file incomplete, so its failure is thrown
+	 * after the other workers have read all the files.
+	 */
+	private void checkFailure() throws JetelException {
+		Exception e = failure;
+		if (e != null) {
+			throw new JetelException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return name of the file of the last returned record
+	 */
+	public String getSourceName() {
+		return sourceName;
+	}
+
+	/**
+	 * Stops the workers and waits for them.
+	 */
+	public void postExecute() {
+		stopped = true;
+		for (Worker worker : workers) {
+			Thread thread = worker.getThread();
+			if (thread != null) {
+				thread.interrupt();
+			}
+		}
+		for (Worker worker : workers) {
+			Thread thread = worker.getThread();
+			if (thread != null) {
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		workers.clear();
+		queues = null;
+		currentBatch = null;
+		freeBatches.clear();
+	}
+
+	private Batch newBatch(String fileName) {
+		Batch batch = freeBatches.poll();
+		if (batch == null) {
+			batch = new Batch(factory);
+		}
+		batch.fileName = fileName;
+		return batch;
+	}
+
+	private class Worker extends CloverWorker {
+
+		Worker(Node node, String name) {
+			super(node, name);
+		}
+
+		@Override
+		public void work() throws Exception, InterruptedException {
+			MultiFileReader reader = null;
+			try {
+				reader = factory.createReader();
+				int index;
+				while (!stopped && (index = nextFile.getAndIncrement()) < files.size()) {
+					readFile(reader, index);
+				}
+			} catch (InterruptedException e) {
+				// stopped
+			} catch (Exception e) {
+				if (failure == null) {
+					failure = e;
+				}
+			} finally {
+				runningWorkers.decrementAndGet();
+				if (reader != null) {
+					try {
+						reader.free();
+					} catch (IOException e) {
+						logger.warn("Failed to release parallel reader", e);
+					}
+				}
+			}
+		}
+
+		private void readFile(MultiFileReader reader, int index) throws Exception {
+			String fileName = files.get(index);
+			BlockingQueue<Batch> queue = queues.get(preserveFileOrder ? index : 0);
+			Batch batch = newBatch(fileName);
+			reader.setFileURL(fileName);
+			try {
+				reader.preExecute();
+				try {
+					while (!stopped) {
+						try {
+							if (reader.getNext(batch.records[batch.size]) == null) {
+								break;
+							}
+						} catch (BadDataFormatException e) {
+							batch.errors[batch.size] = e;
+							if (e.isFatal()) {
+								batch.size++;
+								break;
+							}
+						}
+						batch.size++;
+						if (batch.isFull()) {
+							queue.put(batch);
+							batch = newBatch(fileName);
+						}
+					}
+				} finally {
+					reader.postExecute();
+				}
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				fileFailed = true;
+				throw new JetelException("Error when parsing source: " + fileName, e);
+			}
+			batch.last = true;
+			queue.put(batch);
+		}
+	}
+
+}
@@ -28,12 +28,21 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.DirectoryStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -45,6 +54,7 @@ import org.jetel.data.parser.Parser.DataSourceType;
 import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.exception.JetelException;
 import org.jetel.graph.ContextProvider;
+import org.jetel.graph.ContextProvider.Context;
 import org.jetel.graph.InputPort;
 import org.jetel.graph.Node;
 import org.jetel.graph.TransformationGraph;
@@ -121,6 +131,12 @@ public class ReadableChannelIterator implements Closeable {
 	
 	private volatile boolean closed = false;
 
+	// number of files opened in advance
+	private int prefetchDepth = 0;
+	private ExecutorService prefetchExecutor;
+	// files taken from the fileIterator but not returned yet, in the original order
+	private final LinkedList<PrefetchedInput> prefetchQueue = new LinkedList<PrefetchedInput>();
+
 	/**
 	 * Constructor.
 	 * 
@@ -185,6 +201,7 @@ public class ReadableChannelIterator implements Closeable {
 	@Override
 	public void close() throws IOException {
 		closed = true;
+		discardPrefetchedInputs();
 		FileUtils.closeAll(directoryStream, dictionaryReadingIterator, portReadingIterator);
 	}
 	
@@ -332,7 +349,7 @@ public class ReadableChannelIterator implements Closeable {
 	 * TODO to make hasData method for the InputPort that waits for new data if the edge is empty. Is it good solution???
 	 */
 	public boolean hasNext() {
-		return dictionaryReadingIterator.hasNext() || fileIterator.hasNext() || (bInputPort && portReadingIterator.hasNext());
+		return dictionaryReadingIterator.hasNext() || !prefetchQueue.isEmpty() || fileIterator.hasNext() || (bInputPort && portReadingIterator.hasNext());
 	}
 
 	/**
@@ -366,6 +383,9 @@ public class ReadableChannelIterator implements Closeable {
 		}
 		
 		// read from urls
+		if (prefetchDepth > 0) {
+			return nextPrefetched();
+		}
 		if (fileIterator.hasNext()) {
 			currentFile = fileIterator.next();
 			currentFileName = currentFile.getAbsolutePath();
@@ -394,6 +414,83 @@ public class ReadableChannelIterator implements Closeable {
 		return null;
 	}
 	
+	/**
+	 * Returns the next source from urls. The following {@link #prefetchDepth} files
+	 * are being opened in the background meanwhile.
+	 */
+	private Object nextPrefetched() throws JetelException {
+		fillPrefetchQueue();
+		if (prefetchQueue.isEmpty()) {
+			return null;
+		}
+		PrefetchedInput prefetched = prefetchQueue.removeFirst();
+		currentFile = prefetched.file;
+		currentFileName = currentFile.getAbsolutePath();
+		currentPortProtocolPosition++;
+		
+		// read from dictionary
+		if (prefetched.source == null) {
+			dictionaryReadingIterator.init(currentFileName);
+			return next();
+		}
+		currentFileName = prefetched.fileName;
+		// start opening of the next file before waiting for the current one
+		fillPrefetchQueue();
+		
+		try {
+			return prefetched.source.get();
+		} catch (ExecutionException e) {
+			throw new JetelException("File is unreachable: " + currentFileName, e.getCause());
+		} catch (InterruptedException e) {
+			prefetched.discard();
+			throw new JetelException("Opening of input file interrupted: " + currentFileName, e);
+		}
+	}
+	
+	/**
+	 * Takes files from the file iterator until {@link #prefetchDepth} files are being opened.
+	 */
+	private void fillPrefetchQueue() {
+		if (prefetchExecutor == null) {
+			final String name = "Prefetch of input files " + (ContextProvider.getComponentId() != null ? ContextProvider.getComponentId() : "");
+			prefetchExecutor = Executors.newFixedThreadPool(prefetchDepth, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, name);
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		while (prefetchQueue.size() < prefetchDepth && fileIterator.hasNext()) {
+			Input file = fileIterator.next();
+			String fileName = file.getAbsolutePath();
+			PrefetchedInput prefetched;
+			if (fileName.indexOf(DICT) == 0) {
+				// dictionary entries are read when they are reached
+				prefetched = new PrefetchedInput(file, fileName);
+			} else {
+				prefetched = new PrefetchedInput(file, unificateFileName(contextURL, fileName));
+				prefetched.source = prefetchExecutor.submit(prefetched);
+			}
+			prefetchQueue.add(prefetched);
+		}
+	}
+	
+	/**
+	 * Closes the files opened in advance and stops the background threads.
+	 */
+	private void discardPrefetchedInputs() {
+		for (PrefetchedInput prefetched : prefetchQueue) {
+			prefetched.discard();
+		}
+		prefetchQueue.clear();
+		if (prefetchExecutor != null) {
+			prefetchExecutor.shutdownNow();
+			prefetchExecutor = null;
+		}
+	}
+	
 	/**
 	 * @return first ReadableByteChannel in the queue of sources (the other types are skipped)
 	 * @throws JetelException
@@ -575,4 +672,132 @@ public class ReadableChannelIterator implements Closeable {
 		this.preferredDataSourceType = preferredDataSourceType;
 	}
 
+	/**
+	 * Sets number of input files which are opened in the background
+	 * while the current file is read, 0 disables prefetching.
+	 * Files from dictionary and from input port are never prefetched.
+	 * 
+	 * @param prefetchDepth
+	 */
+	public void setPrefetchDepth(int prefetchDepth) {
+		this.prefetchDepth = Math.max(prefetchDepth, 0);
+	}
+
+	/**
+	 * Input file which is opened in the background. 
+	 */
+	private class PrefetchedInput implements Callable<Object> {
+		
+		private final Input file;
+		private final String fileName;
+		// null for dictionary entries
+		private Future<Object> source;
+		
+		private final Node node = ContextProvider.getNode();
+		private final TransformationGraph graph = ContextProvider.getGraph();
+		
+		private Object opened;
+		private boolean discarded;
+		
+		PrefetchedInput(Input file, String fileName) {
+			this.file = file;
+			this.fileName = fileName;
+		}
+
+		@Override
+		public Object call() throws Exception {
+			Context context = node != null ? ContextProvider.registerNode(node) : ContextProvider.registerGraph(graph);
+			try {
+				defaultLogger.debug("Opening input file " + fileName);
+				Object input = file.getPreferredInput(preferredDataSourceType);
+				if (input == null) {
+					input = file.getPreferredInput(DataSourceType.CHANNEL);
+				}
+				// seekable channels are local, parsers may depend on their positioning
+				if (input instanceof ReadableByteChannel && !(input instanceof SeekableByteChannel)) {
+					input = new ReadAheadChannel((ReadableByteChannel) input, Defaults.DataParser.PREFETCH_BUFFER_SIZE);
+				}
+				synchronized (this) {
+					if (discarded) {
+						close(input);
+					} else {
+						opened = input;
+					}
+				}
+				return input;
+			} finally {
+				ContextProvider.unregister(context);
+			}
+		}
+		
+		/**
+		 * Cancels opening of the file or closes the opened file.
+		 */
+		synchronized void discard() {
+			discarded = true;
+			if (source != null) {
+				source.cancel(true);
+			}
+			if (opened != null) {
+				close(opened);
+				opened = null;
+			}
+		}
+		
+		private void close(Object input) {
+			if (input instanceof Closeable) {
+				try {
+					((Closeable) input).close();
+				} catch (IOException e) {
+					defaultLogger.warn("Failed to close prefetched input file " + fileName, e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Channel with the first bytes read in advance.
+	 */
+	private static class ReadAheadChannel implements ReadableByteChannel {
+		
+		private final ReadableByteChannel channel;
+		private final ByteBuffer buffer;
+		private boolean eof;
+		
+		ReadAheadChannel(ReadableByteChannel channel, int size) throws IOException {
+			this.channel = channel;
+			this.buffer = ByteBuffer.allocate(Math.max(size, 1));
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) {
+					eof = true;
+					break;
+				}
+			}
+			buffer.flip();
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			if (buffer.hasRemaining()) {
+				int count = Math.min(buffer.remaining(), dst.remaining());
+				int limit = buffer.limit();
+				buffer.limit(buffer.position() + count);
+				dst.put(buffer);
+				buffer.limit(limit);
+				return count;
+			}
+			return eof ? -1 : channel.read(dst);
+		}
+
+		@Override
+		public boolean isOpen() {
+			return channel.isOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+
 }
@@ -21,8 +21,11 @@ package org.jetel.util;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.text.DecimalFormat;
@@ -51,6 +54,7 @@ import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.util.bytes.RestrictedByteArrayOutputStream;
 import org.jetel.util.file.FileUtils;
 import org.jetel.util.file.FileUtils.PortURL;
+import org.jetel.util.file.SandboxUrlUtils;
 
 
 /**
@@ -67,6 +71,7 @@ public class TargetFile {
 	private static final String EMPTY_STRING="";
 	private static final String PARAM_DELIMITER = ":";
 	private static final String DICT_PROTOCOL = "dict:";
+	private static final String SFTP_PROTOCOL = "sftp";
 
 	private DecimalFormat format;					// it is used if the file tag is a number
 
@@ -112,6 +117,8 @@ public class TargetFile {
 
 	private boolean storeRawData = true;
 	private boolean objectDictionaryInitialized = false;
+	
+	private boolean reopenable;						// output file can be closed by release() and reopened for append
 
     /**
      * Constructors.
@@ -630,13 +637,18 @@ public class TargetFile {
 			// If steps for FILE and URI failed, try to open a stream based on the fName
 			if (preferredTargetType == DataTargetType.CHANNEL || exceptionThrown) {
 				try {
-					OutputStream os = FileUtils.getOutputStream(contextURL, fName, appendData, compressLevel);
-					byteChannel = Channels.newChannel(os);
-
-					if (useChannel) {
+					if (reopenable && useChannel && isAppendSupported(contextURL, fName)) {
+						byteChannel = new ReopenableChannel(contextURL, fName, appendData, compressLevel);
 						setDataTarget(byteChannel);
 					} else {
-						setDataTarget(new Object[] { contextURL, fName, os });
+						OutputStream os = FileUtils.getOutputStream(contextURL, fName, appendData, compressLevel);
+						byteChannel = Channels.newChannel(os);
+	
+						if (useChannel) {
+							setDataTarget(byteChannel);
+						} else {
+							setDataTarget(new Object[] { contextURL, fName, os });
+						}
 					}
 				} catch (Throwable t) {
 					if (exceptionThrown) {
@@ -747,4 +759,111 @@ public class TargetFile {
 		this.mkDir = mkDir;
 	}
 
+	/**
+	 * Output files of the target can be closed by {@link #release()} and reopened in append mode
+	 * by the next write. Applied only to local files, sandboxes and SFTP, other targets stay open.
+	 * Not applied to formatters preferring files or URIs either.
+	 * 
+	 * @param reopenable
+	 */
+	public void setReopenable(boolean reopenable) {
+		this.reopenable = reopenable;
+	}
+
+	/**
+	 * Flushes the formatter and closes the current output file to release the file handle.
+	 * The file is reopened in append mode as soon as the formatter writes to it again.
+	 * 
+	 * @return true if the output file has been closed, false if the output cannot be reopened
+	 * or it is not open at the moment
+	 * @throws IOException
+	 * @see #setReopenable(boolean)
+	 */
+	public boolean release() throws IOException {
+		if (!(byteChannel instanceof ReopenableChannel) || !((ReopenableChannel) byteChannel).isFileOpen()) {
+			return false;
+		}
+		formatter.flush();
+		((ReopenableChannel) byteChannel).release();
+		return true;
+	}
+
+	/**
+	 * Checks whether the output file is really appended when it is opened with appendData = true.
+	 * Archives, S3, WebDAV and FTP overwrite the file, so they cannot be reopened.
+	 * 
+	 * @param contextURL
+	 * @param fileName
+	 * @return true for local files, sandboxes and SFTP
+	 */
+	static boolean isAppendSupported(URL contextURL, String fileName) {
+		if (FileUtils.isArchive(fileName)) {
+			return false;
+		}
+		try {
+			String protocol = FileUtils.getFileURL(contextURL, fileName).getProtocol();
+			return FileUtils.FILE_PROTOCOL.equals(protocol) || SandboxUrlUtils.SANDBOX_PROTOCOL.equals(protocol)
+					|| SFTP_PROTOCOL.equals(protocol);
+		} catch (MalformedURLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Output channel of a file which can be closed temporarily, the file is reopened in append mode
+	 * by the next write. The channel is closed for the formatter only by {@link #close()}.
+	 */
+	private static class ReopenableChannel implements WritableByteChannel {
+		private final URL contextURL;
+		private final String fileName;
+		private final int compressLevel;
+		private WritableByteChannel channel;
+		private boolean closed;
+
+		ReopenableChannel(URL contextURL, String fileName, boolean appendData, int compressLevel) throws IOException {
+			this.contextURL = contextURL;
+			this.fileName = fileName;
+			this.compressLevel = compressLevel;
+			open(appendData);
+		}
+
+		private void open(boolean appendData) throws IOException {
+			channel = Channels.newChannel(FileUtils.getOutputStream(contextURL, fileName, appendData, compressLevel));
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			if (closed) {
+				throw new ClosedChannelException();
+			}
+			if (channel == null) {
+				open(true);
+			}
+			return channel.write(src);
+		}
+
+		boolean isFileOpen() {
+			return channel != null;
+		}
+
+		void release() throws IOException {
+			if (channel != null) {
+				WritableByteChannel c = channel;
+				channel = null;
+				c.close();
+			}
+		}
+
+		@Override
+		public boolean isOpen() {
+			return !closed;
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			release();
+		}
+	}
+
 }
@@ -607,6 +607,14 @@ public abstract class CloverBuffer {
      */
     public abstract CloverBuffer skip(int size);
 
+    /**
+     * Releases the underlying memory of this buffer, the buffer must not be used afterwards.
+     * Memory of a buffer allocated by {@link PooledCloverBufferAllocator} is returned to the pool
+     * for reuse, otherwise this method does nothing and the memory is released by garbage collector.
+     */
+    public void free() {
+    }
+
     /**
      * Request to prepare a new byte buffer.
      */
@@ -55,6 +55,9 @@ public class DynamicCloverBuffer extends CloverBuffer {
     /** Tells if a buffer has been created from an existing buffer */
     private final boolean derived;
 
+    /** Tells if a view of this buffer has been created, memory shared with a view is never released explicitly */
+    private boolean shared;
+
     /** A flag set to true if the buffer can extend automatically */
     private boolean autoExpand = true;
 
@@ -127,6 +130,7 @@ public class DynamicCloverBuffer extends CloverBuffer {
         this.recapacityAllowed = false;
         this.derived = true;
         this.minimumCapacity = parent.minimumCapacity;
+        parent.shared = true;
     }
 
 	@Override
@@ -140,7 +144,29 @@ public class DynamicCloverBuffer extends CloverBuffer {
      * @param newBuf The buffer to store within this CloverBuffer
      */
     private void buf(ByteBuffer buf) {
+        ByteBuffer oldBuf = this.buf;
         this.buf = buf;
+        if (oldBuf != buf && !derived && !shared) {
+        	releaseByteBuffer(oldBuf);
+        }
+    }
+
+    /**
+     * Releases the inner buffer, it is not used by this clover buffer anymore.
+     * It is called for the old inner buffer after reallocation and for the current
+     * inner buffer by {@link #free()}, never for the memory shared with a derived buffer.
+     * Default implementation does nothing.
+     * 
+     * @param buf released inner buffer
+     */
+    protected void releaseByteBuffer(ByteBuffer buf) {
+    }
+
+    @Override
+    public void free() {
+    	if (!derived && !shared) {
+    		releaseByteBuffer(buf);
+    	}
     }
 
     /**
@@ -0,0 +1,275 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.bytes;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetel.data.Defaults;
+
+/**
+ * Buffer allocator for {@link DynamicCloverBuffer} which recycles direct memory.<br>
+ * Direct inner buffers are allocated in size classes - capacities are rounded up to a power of two
+ * from 4 kB to 64 MB. A buffer released by {@link CloverBuffer#free()} or replaced by a bigger one
+ * on expansion is returned to the pool of its size class and reused by the next allocation
+ * of the same size class, by any component and any graph run in the JVM. Idle buffers are kept
+ * up to the given limit, the rest is left to garbage collector.
+ *
+ * Heap buffers, wrapped buffers and direct buffers bigger than the largest size class
+ * are not pooled. Memory of a buffer with a derived view (duplicate, slice, read only buffer)
+ * is never returned to the pool, since the view can still be in use.
+ *
+ * The pool is used if {@link Defaults#DIRECT_MEMORY_POOL_SIZE} is positive,
+ * usage statistics are available also via {@link org.jetel.util.DirectMemoryUtils}.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ *
+ * @see DynamicCloverBufferAllocator
+ * @see CloverBuffer#setAllocator(CloverBufferAllocator)
+ */
+public class PooledCloverBufferAllocator implements CloverBufferAllocator {
+
+	/** the smallest size class - 4 kB */
+	private static final int MIN_SIZE_CLASS = 12;
+
+	/** the largest size class - 64 MB */
+	private static final int MAX_SIZE_CLASS = 26;
+
+	/** maximum number of idle bytes kept in the pool */
+	private final long maxPooledBytes;
+
+	/** idle buffers indexed by size class, guarded by this */
+	private final List<ArrayDeque<ByteBuffer>> freeBuffers;
+
+	/** number of idle bytes in the pool, guarded by this */
+	private long pooledBytes;
+
+	/** direct memory held by buffers allocated by this allocator and not released yet */
+	private final AtomicLong usedBytes = new AtomicLong();
+
+	private final AtomicLong allocationCount = new AtomicLong();
+
+	private final AtomicLong reuseCount = new AtomicLong();
+
+	/**
+	 * @param maxPooledBytes maximum number of idle bytes kept in the pool
+	 */
+	public PooledCloverBufferAllocator(long maxPooledBytes) {
+		this.maxPooledBytes = maxPooledBytes;
+		freeBuffers = new ArrayList<ArrayDeque<ByteBuffer>>(MAX_SIZE_CLASS + 1);
+		for (int i = 0; i <= MAX_SIZE_CLASS; i++) {
+			freeBuffers.add(new ArrayDeque<ByteBuffer>());
+		}
+	}
+
+	@Override
+	public CloverBuffer allocate(int capacity, boolean direct) {
+		return allocate(capacity, Integer.MAX_VALUE, direct);
+	}
+
+	@Override
+	public CloverBuffer allocate(int capacity, int maximumCapacity, boolean direct) {
+		if (direct && Defaults.USE_DIRECT_MEMORY) {
+			return new PooledCloverBuffer(acquire(capacity, maximumCapacity), maximumCapacity);
+		} else {
+			return new DynamicCloverBuffer(CloverBuffer.allocateByteBuffer(capacity, direct), maximumCapacity);
+		}
+	}
+
+	@Override
+	public CloverBuffer wrap(ByteBuffer innerBuffer) {
+		return new DynamicCloverBuffer(innerBuffer);
+	}
+
+	@Override
+	public CloverBuffer wrap(ByteBuffer innerBuffer, int maximumCapacity) {
+		return new DynamicCloverBuffer(innerBuffer, maximumCapacity);
+	}
+
+	/**
+	 * Returns a direct buffer of at least the requested capacity, recycled one if possible.
+	 * If direct memory is exhausted, the pool is emptied and the allocation is repeated,
+	 * heap buffer is returned if it fails again.
+	 */
+	private ByteBuffer acquire(int capacity, int maximumCapacity) {
+		int sizeClass = sizeClass(capacity);
+		ByteBuffer result;
+		if (sizeClass < 0 || (1 << sizeClass) > maximumCapacity) {
+			result = CloverBuffer.allocateByteBuffer(capacity, true);
+		} else {
+			result = poll(sizeClass);
+			if (result != null) {
+				reuseCount.incrementAndGet();
+				result.clear();
+				result.order(ByteOrder.BIG_ENDIAN);
+			} else {
+				result = allocateDirect(1 << sizeClass);
+			}
+		}
+		if (result.isDirect()) {
+			usedBytes.addAndGet(result.capacity());
+		}
+		return result;
+	}
+
+	private ByteBuffer allocateDirect(int capacity) {
+		allocationCount.incrementAndGet();
+		try {
+			return ByteBuffer.allocateDirect(capacity);
+		} catch (OutOfMemoryError e) {
+			clear();
+			try {
+				return ByteBuffer.allocateDirect(capacity);
+			} catch (OutOfMemoryError e1) {
+				return ByteBuffer.allocate(capacity);
+			}
+		}
+	}
+
+	private synchronized ByteBuffer poll(int sizeClass) {
+		ByteBuffer result = freeBuffers.get(sizeClass).pollLast();
+		if (result != null) {
+			pooledBytes -= result.capacity();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the buffer to the pool if it belongs to a size class and the pool is not full.
+	 */
+	private void release(ByteBuffer buffer) {
+		if (!buffer.isDirect()) {
+			return;
+		}
+		int capacity = buffer.capacity();
+		usedBytes.addAndGet(-capacity);
+		if (Integer.bitCount(capacity) != 1) {
+			return;
+		}
+		int sizeClass = Integer.numberOfTrailingZeros(capacity);
+		if (sizeClass < MIN_SIZE_CLASS || sizeClass > MAX_SIZE_CLASS) {
+			return;
+		}
+		synchronized (this) {
+			if (pooledBytes + capacity <= maxPooledBytes) {
+				freeBuffers.get(sizeClass).addLast(buffer);
+				pooledBytes += capacity;
+			}
+		}
+	}
+
+	/**
+	 * @return index of the smallest size class for the given capacity or -1 if the capacity is too big to be pooled
+	 */
+	private static int sizeClass(int capacity) {
+		if (capacity <= (1 << MIN_SIZE_CLASS)) {
+			return MIN_SIZE_CLASS;
+		}
+		int sizeClass = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+		return sizeClass <= MAX_SIZE_CLASS ? sizeClass : -1;
+	}
+
+	/**
+	 * Drops all idle buffers, the memory is released by garbage collector.
+	 */
+	public synchronized void clear() {
+		for (ArrayDeque<ByteBuffer> buffers : freeBuffers) {
+			buffers.clear();
+		}
+		pooledBytes = 0;
+	}
+
+	/**
+	 * @return maximum number of idle bytes kept in the pool
+	 */
+	public long getMaxPooledBytes() {
+		return maxPooledBytes;
+	}
+
+	/**
+	 * @return number of bytes of idle direct buffers ready for reuse
+	 */
+	public synchronized long getPooledBytes() {
+		return pooledBytes;
+	}
+
+	/**
+	 * @return number of bytes of direct buffers allocated by this allocator and not released yet,
+	 * buffers which are not freed explicitly are counted until the end of JVM
+	 */
+	public long getUsedBytes() {
+		return usedBytes.get();
+	}
+
+	/**
+	 * @return number of new direct buffers allocated for the pool
+	 */
+	public long getAllocationCount() {
+		return allocationCount.get();
+	}
+
+	/**
+	 * @return number of allocations satisfied by a recycled buffer
+	 */
+	public long getReuseCount() {
+		return reuseCount.get();
+	}
+
+	/**
+	 * Clover buffer which returns its inner buffers to the pool.
+	 */
+	private class PooledCloverBuffer extends DynamicCloverBuffer {
+
+		private boolean freed;
+
+		PooledCloverBuffer(ByteBuffer buf, int maximumCapacity) {
+			super(buf, maximumCapacity);
+		}
+
+		@Override
+		protected ByteBuffer reallocateByteBuffer(int requestedCapacity, boolean direct) {
+			if (!direct || requestedCapacity > maximumCapacity()) {
+				// heap buffer or the limit exceeded, which is reported by the parent
+				return super.reallocateByteBuffer(requestedCapacity, direct);
+			}
+			return acquire(requestedCapacity, maximumCapacity());
+		}
+
+		@Override
+		protected void releaseByteBuffer(ByteBuffer buf) {
+			release(buf);
+		}
+
+		@Override
+		public void free() {
+			if (!freed) {
+				freed = true;
+				super.free();
+			}
+		}
+	}
+
+}
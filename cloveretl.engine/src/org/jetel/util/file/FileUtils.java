@@ -98,6 +98,7 @@ import org.jetel.util.protocols.sandbox.SandboxStreamHandler;
 import org.jetel.util.protocols.sftp.SFTPConnection;
 import org.jetel.util.protocols.sftp.SFTPStreamHandler;
 import org.jetel.util.protocols.webdav.WebdavOutputStream;
+import org.jetel.util.stream.ParallelGZIPOutputStream;
 import org.jetel.util.stream.StreamUtils;
 import org.jetel.util.stream.TZipOutputStream;
 import org.jetel.util.string.StringUtils;
@@ -1598,6 +1599,10 @@ public class FileUtils {
 			if (appendData) {
 				throw new IOException("Appending to remote archives is not supported");
 			}
+			int threads = Defaults.GZIP_OUTPUT_THREADS > 0 ? Defaults.GZIP_OUTPUT_THREADS : Runtime.getRuntime().availableProcessors();
+			if (threads > 1) {
+				return new ParallelGZIPOutputStream(os, compressLevel, threads, Defaults.GZIP_OUTPUT_BLOCK_SIZE);
+			}
             GZIPOutputStream gzos = new GZIPOutputStream(os, Defaults.DEFAULT_INTERNAL_IO_BUFFER_SIZE);
             return gzos;
         } 
@@ -44,6 +44,15 @@ public interface DateFormatter {
 	 */
 	public String format(Date value);
 
+	/**
+	 * Formats the given date value.
+	 *
+	 * @param millis a date value in milliseconds since January 1, 1970, 00:00:00 GMT
+	 *
+	 * @return a string representation of the date value
+	 */
+	public String format(long millis);
+
 	/**
 	 * Parses the string containing a date value.
 	 *
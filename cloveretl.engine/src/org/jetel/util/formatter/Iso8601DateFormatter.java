@@ -68,6 +68,11 @@ class Iso8601DateFormatter extends AbstractDateFormatter {
 		return printer.print(value.getTime());
 	}
 
+	@Override
+	public String format(long millis) {
+		return printer.print(millis);
+	}
+
 	@Override
 	public Date parseDate(String value) {
 		return new Date(parser.parseMillis(value));
@@ -41,6 +41,8 @@ class JavaDateFormatter extends AbstractDateFormatter {
 	/** classic Java date format */
 	private final DateFormat dateFormat;
 	private ParsePosition position = new ParsePosition(0);
+	/** reusable date for {@link #format(long)} */
+	private final Date formattedDate = new Date(0);
 	
 	public JavaDateFormatter() {
 		this(null);
@@ -79,6 +81,13 @@ class JavaDateFormatter extends AbstractDateFormatter {
 		return dateFormat.format(value);
 	}
 
+	@Override
+	public String format(long millis) {
+		// the formatter is not thread-safe anyway, so the date instance can be reused
+		formattedDate.setTime(millis);
+		return dateFormat.format(formattedDate);
+	}
+
 	@Override
 	public Date parseDate(String value) {
 		position.setIndex(0);
@@ -73,6 +73,11 @@ class JodaDateFormatter extends AbstractDateFormatter {
 		return dateTimeFormatter.print(value.getTime());
 	}
 
+	@Override
+	public String format(long millis) {
+		return dateTimeFormatter.print(millis);
+	}
+
 	@Override
 	public Date parseDate(String value) {
 		return new Date(parseMillis(value));
@@ -29,6 +29,7 @@ import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.jetel.data.Defaults;
 import org.jetel.util.file.WcardPattern;
 
 import com.amazonaws.AmazonClientException;
@@ -179,6 +180,11 @@ public class S3InputStream extends InputStream {
 				file = file.substring(1);
 			}
 			
+			if (Defaults.S3.READ_AHEAD) {
+				is = S3PrefetchingReader.create(service, new String[] {bucket, file}).newInputStream();
+				return;
+			}
+			
 			S3Object getobject;
 			
 			try {
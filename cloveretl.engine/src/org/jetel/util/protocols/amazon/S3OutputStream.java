@@ -18,24 +18,61 @@
  */
 package org.jetel.util.protocols.amazon;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.log4j.Logger;
+import org.jetel.data.Defaults;
 import org.jetel.exception.TempFileCreationException;
 import org.jetel.graph.ContextProvider;
 import org.jetel.graph.runtime.IAuthorityProxy;
+import org.jetel.util.ExceptionUtils;
 
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.internal.Constants;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerConfiguration;
 
+/**
+ * {@link OutputStream} writing to an Amazon S3 object.
+ * 
+ * In the streaming mode (see {@link Defaults.S3#STREAMING_UPLOAD}), the data is split
+ * into parts of {@link Defaults.S3#UPLOAD_PART_SIZE} bytes, which are uploaded
+ * in parallel using multipart upload while the data is still being written.
+ * At most {@link Defaults.S3#UPLOAD_MAX_PARTS_IN_FLIGHT} parts are uploaded
+ * at the same time, writing blocks until one of the part buffers is free again.
+ * The multipart upload is completed when the stream is closed and aborted
+ * if any part fails. Objects smaller than one part are uploaded using a single request.
+ * 
+ * Otherwise, the data is written to a temp file which is uploaded when the stream is closed.
+ */
 public class S3OutputStream extends OutputStream {
 	
 	// on creation: create outputstream writing to a file
@@ -45,54 +82,118 @@ public class S3OutputStream extends OutputStream {
 	// check if not uploaded yet
 	// if not, upload
 	
+	private static final Logger log = Logger.getLogger(S3OutputStream.class);
+	
 	private static final long MULTIPART_UPLOAD_THRESHOLD = 5 * Constants.GB;
 	
+	/** S3 limit of the part size, except for the last part */
+	private static final int MIN_PART_SIZE = 5 * Constants.MB;
+	
+	/** upper bound of the part size, the part size is doubled after every {@link #PART_SIZE_GROWTH_STEP} parts */
+	private static final int MAX_PART_SIZE = 1024 * Constants.MB;
+	
+	private static final int PART_SIZE_GROWTH_STEP = 1000;
+	
+	/** S3 limit of the number of parts */
+	private static final int MAX_PARTS = 10000;
+	
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r);
+			t.setName("S3 part upload " + t.getId());
+			t.setDaemon(true);
+			return t;
+		}
+		
+	};
+	
 	private boolean uploaded;
 	private File tempFile;
 	private OutputStream os;
 	private URL url;
 	private TransferManager transferManager;
 	
+	/** streaming mode, null if the temp file is used */
+	private MultipartUpload multipartUpload;
+	
 	public S3OutputStream(URL url) throws FileNotFoundException, IOException {
 		this.uploaded = false;
+		this.url = url;
+		if (Defaults.S3.STREAMING_UPLOAD) {
+			String[] location = getLocation(url);
+			AmazonS3Client service = createService(url);
+			this.multipartUpload = new MultipartUpload(service, location[0], location[1], Defaults.S3.UPLOAD_PART_SIZE, Defaults.S3.UPLOAD_MAX_PARTS_IN_FLIGHT, true);
+			return;
+		}
 		try {
 			tempFile = IAuthorityProxy.getAuthorityProxy(ContextProvider.getGraph()).newTempFile("cloveretl-amazons3-buffer", -1);
 		} catch (TempFileCreationException e) {
 			throw new IOException(e);
 		}
 		this.os = new FileOutputStream(tempFile);
-		this.url = url;
+	}
+	
+	/**
+	 * Creates a stream uploading the data in the streaming mode
+	 * using the given service. The service is not shut down on close.
+	 * 
+	 * @param service - S3 service
+	 * @param bucket - target bucket
+	 * @param key - target key
+	 * @param partSize - initial size of uploaded parts
+	 * @param maxPartsInFlight - maximum number of parts uploaded in parallel
+	 */
+	public S3OutputStream(AmazonS3 service, String bucket, String key, int partSize, int maxPartsInFlight) {
+		this.uploaded = false;
+		this.multipartUpload = new MultipartUpload(service, bucket, key, partSize, maxPartsInFlight, false);
+	}
+	
+	private static String[] getLocation(URL url) {
+		if (!S3InputStream.isS3File(url)) {
+			throw new IllegalArgumentException("Not an Amazon S3 host");
+		}
+		String path = url.getFile();
+		if (path.startsWith("/")) {
+			path = path.substring(1);
+		}
+		return new String[] {S3InputStream.getBucket(url), path};
+	}
+	
+	private static AmazonS3Client createService(URL url) {
+		String accessKey = S3InputStream.getAccessKey(url);
+		String secretKey = S3InputStream.getSecretKey(url);
+		
+		AWSCredentials credentials = new BasicAWSCredentials(accessKey, secretKey);
+		return new AmazonS3Client(credentials);
 	}
 	
 	private void upload() throws IOException {
 		if (uploaded) {
 			return;
 		}
+		if (multipartUpload != null) {
+			uploaded = true;
+			multipartUpload.complete();
+			return;
+		}
 		try {
 			uploaded = true;
 			os.close();
 			os = null;
 			
-			if (!S3InputStream.isS3File(url)) {
-				throw new IllegalArgumentException("Not an Amazon S3 host");
-			}
-			
-			String accessKey = S3InputStream.getAccessKey(url);
-			String secretKey = S3InputStream.getSecretKey(url);
-			String path = url.getFile();
-			if (path.startsWith("/")) {
-				path = path.substring(1);
-			}
+			String[] location = getLocation(url);
+			String path = location[1];
 			
-			AWSCredentials credentials = new BasicAWSCredentials(accessKey, secretKey);
-			AmazonS3Client service = new AmazonS3Client(credentials);
+			AmazonS3Client service = createService(url);
 			transferManager = new TransferManager(service);
 			TransferManagerConfiguration config = new TransferManagerConfiguration();
 			config.setMultipartUploadThreshold(MULTIPART_UPLOAD_THRESHOLD);
 			config.setMinimumUploadPartSize(MULTIPART_UPLOAD_THRESHOLD);
 			transferManager.setConfiguration(config);
 			
-			String bucket = S3InputStream.getBucket(url);
+			String bucket = location[0];
 	
 			// CLO-4724:
 			S3Utils.uploadFile(transferManager, tempFile, bucket, path);
@@ -107,7 +208,11 @@ public class S3OutputStream extends OutputStream {
 	
 	@Override
 	public void write(int b) throws IOException {
-		os.write(b);
+		if (multipartUpload != null) {
+			multipartUpload.write(b);
+		} else {
+			os.write(b);
+		}
 	}
 	
 	@Override
@@ -117,21 +222,241 @@ public class S3OutputStream extends OutputStream {
 	
 	@Override
 	public void flush() throws IOException {
-		os.flush();
+		if (multipartUpload == null) {
+			os.flush();
+		}
 	}
 	
 	@Override
 	public void write(byte[] b) throws IOException {
-		os.write(b);
+		write(b, 0, b.length);
 	}
 	
 	@Override
 	public void write(byte[] b, int off, int len) throws IOException {
-		os.write(b, off, len);
+		if (multipartUpload != null) {
+			multipartUpload.write(b, off, len);
+		} else {
+			os.write(b, off, len);
+		}
 	}
 
 	@Override
 	protected void finalize() throws Throwable {
 		upload();
 	}
+	
+	/**
+	 * Multipart upload of the data written so far.
+	 * 
+	 * Part buffers are recycled, the number of allocated buffers
+	 * is limited by the number of parts in flight plus the part being written.
+	 */
+	private static class MultipartUpload {
+		
+		private final AmazonS3 service;
+		private final String bucket;
+		private final String key;
+		private final int initialPartSize;
+		private final boolean shutdownService;
+		
+		/** permits for part buffers, one of them is held by the writer */
+		private final Semaphore freeBuffers;
+		private final Queue<byte[]> bufferPool = new ConcurrentLinkedQueue<byte[]>();
+		private final List<PartETag> partETags = Collections.synchronizedList(new ArrayList<PartETag>());
+		private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		private final int maxPartsInFlight;
+		private ExecutorService executor;
+		
+		private String uploadId;
+		private int partNumber = 0;
+		private byte[] buffer;
+		private int count = 0;
+		private boolean aborted = false;
+		
+		MultipartUpload(AmazonS3 service, String bucket, String key, int partSize, int maxPartsInFlight, boolean shutdownService) {
+			this.service = service;
+			this.bucket = bucket;
+			this.key = key;
+			this.initialPartSize = Math.min(Math.max(partSize, MIN_PART_SIZE), MAX_PART_SIZE);
+			this.maxPartsInFlight = Math.max(maxPartsInFlight, 1);
+			this.shutdownService = shutdownService;
+			this.freeBuffers = new Semaphore(this.maxPartsInFlight + 1);
+		}
+		
+		/**
+		 * @return size of the next part
+		 */
+		private int getPartSize() {
+			long size = (long) initialPartSize << Math.min(partNumber / PART_SIZE_GROWTH_STEP, 30);
+			return (int) Math.min(size, MAX_PART_SIZE);
+		}
+		
+		void write(int b) throws IOException {
+			if (buffer == null || count == buffer.length) {
+				nextBuffer();
+			}
+			buffer[count++] = (byte) b;
+		}
+		
+		void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				if (buffer == null || count == buffer.length) {
+					nextBuffer();
+				}
+				int n = Math.min(len, buffer.length - count);
+				System.arraycopy(b, off, buffer, count, n);
+				count += n;
+				off += n;
+				len -= n;
+			}
+		}
+		
+		/**
+		 * Submits the full buffer and waits for a free one.
+		 */
+		private void nextBuffer() throws IOException {
+			checkFailure();
+			if (buffer != null) {
+				submitPart();
+			}
+			int partSize = getPartSize();
+			// the permit for the next buffer
+			try {
+				while (!freeBuffers.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+					checkFailure();
+				}
+			} catch (InterruptedException e) {
+				abort();
+				throw ExceptionUtils.getIOException(e);
+			}
+			buffer = bufferPool.poll();
+			if (buffer == null || buffer.length != partSize) {
+				buffer = new byte[partSize];
+			}
+			count = 0;
+		}
+		
+		/**
+		 * Submits the current buffer as the next part, passes its permit to the upload task.
+		 */
+		private void submitPart() throws IOException {
+			if (partNumber >= MAX_PARTS) {
+				abort();
+				throw new IOException("Maximum number of parts exceeded, increase S3.UPLOAD_PART_SIZE: " + bucket + "/" + key);
+			}
+			try {
+				if (uploadId == null) {
+					uploadId = service.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key, S3Utils.createUploadMetadata())).getUploadId();
+					executor = Executors.newFixedThreadPool(maxPartsInFlight, THREAD_FACTORY);
+				}
+			} catch (Exception e) {
+				abort();
+				throw S3Utils.getIOException(e);
+			}
+			final byte[] data = buffer;
+			final UploadPartRequest request = new UploadPartRequest()
+				.withBucketName(bucket)
+				.withKey(key)
+				.withUploadId(uploadId)
+				.withPartNumber(++partNumber)
+				.withInputStream(new ByteArrayInputStream(data, 0, count))
+				.withPartSize(count);
+			buffer = null;
+			count = 0;
+			executor.execute(new Runnable() {
+				
+				@Override
+				public void run() {
+					try {
+						if (failure.get() == null) {
+							partETags.add(service.uploadPart(request).getPartETag());
+						}
+					} catch (Throwable t) {
+						failure.compareAndSet(null, t);
+					} finally {
+						bufferPool.offer(data);
+						freeBuffers.release();
+					}
+				}
+			});
+		}
+		
+		private void checkFailure() throws IOException {
+			Throwable t = failure.get();
+			if (t != null) {
+				abort();
+				throw S3Utils.getIOException(t);
+			}
+		}
+		
+		/**
+		 * Uploads the remaining data and completes the upload.
+		 */
+		void complete() throws IOException {
+			try {
+				checkFailure();
+				if (uploadId == null) {
+					// small object, single request
+					ObjectMetadata metadata = S3Utils.createUploadMetadata();
+					metadata.setContentLength(count);
+					byte[] data = (buffer != null) ? buffer : new byte[0];
+					service.putObject(new PutObjectRequest(bucket, key, new ByteArrayInputStream(data, 0, count), metadata));
+				} else {
+					if (count > 0) {
+						submitPart();
+					}
+					executor.shutdown();
+					while (!executor.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+						checkFailure();
+					}
+					checkFailure();
+					List<PartETag> parts = new ArrayList<PartETag>(partETags);
+					Collections.sort(parts, PART_NUMBER_COMPARATOR);
+					service.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, parts));
+				}
+			} catch (InterruptedException e) {
+				abort();
+				throw ExceptionUtils.getIOException(e);
+			} catch (IOException e) {
+				throw e;
+			} catch (Exception e) {
+				abort();
+				throw S3Utils.getIOException(e);
+			} finally {
+				buffer = null;
+				bufferPool.clear();
+				if (shutdownService) {
+					service.shutdown();
+				}
+			}
+		}
+		
+		private void abort() {
+			if (aborted) {
+				return;
+			}
+			aborted = true;
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+			if (uploadId != null) {
+				try {
+					service.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+				} catch (Exception e) {
+					log.warn("Failed to abort multipart upload: " + bucket + "/" + key, e);
+				}
+			}
+		}
+		
+	}
+	
+	private static final Comparator<PartETag> PART_NUMBER_COMPARATOR = new Comparator<PartETag>() {
+
+		@Override
+		public int compare(PartETag o1, PartETag o2) {
+			return Integer.compare(o1.getPartNumber(), o2.getPartNumber());
+		}
+		
+	};
 }
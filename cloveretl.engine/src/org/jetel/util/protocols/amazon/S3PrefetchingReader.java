@@ -0,0 +1,360 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.protocols.amazon;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.jetel.data.Defaults;
+import org.jetel.util.ExceptionUtils;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+
+/**
+ * Reads an S3 object using concurrent ranged GET requests.
+ * 
+ * The object is split into chunks of a fixed size. When a position is read,
+ * the chunk containing the position and the following chunks up to the read-ahead
+ * depth are requested in parallel, so that a sequential reader is not limited
+ * by the throughput of a single connection. Chunks outside of the window
+ * are dropped on seek, their buffers are reused. Thus, at most <code>depth</code>
+ * chunk buffers are held by one reader.
+ * 
+ * @see Defaults.S3#READ_AHEAD
+ * 
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+final class S3PrefetchingReader implements Closeable {
+	
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r);
+			t.setName("S3 read-ahead " + t.getId());
+			t.setDaemon(true);
+			return t;
+		}
+		
+	};
+	
+	private final AmazonS3 service;
+	private final String bucket;
+	private final String key;
+	private final long size;
+	private final String eTag;
+	private final int chunkSize;
+	private final int depth;
+	
+	private final ExecutorService executor;
+	
+	/** requested chunks by their index */
+	private final Map<Long, Future<Chunk>> chunks = new HashMap<Long, Future<Chunk>>();
+	
+	/** the last returned chunk, the read-ahead window does not move while it is read */
+	private Chunk currentChunk;
+	private long currentIndex = -1;
+	
+	private final Queue<byte[]> bufferPool = new ConcurrentLinkedQueue<byte[]>();
+	
+	private boolean closed = false;
+	
+	/**
+	 * @param service - S3 service
+	 * @param bucket - bucket name
+	 * @param key - object key
+	 * @param size - size of the object
+	 * @param eTag - ETag of the object, all chunks are read from this version of the object; can be null
+	 * @param chunkSize - size of one ranged GET request
+	 * @param depth - maximum number of chunks requested in parallel
+	 */
+	S3PrefetchingReader(AmazonS3 service, String bucket, String key, long size, String eTag, int chunkSize, int depth) {
+		this.service = service;
+		this.bucket = bucket;
+		this.key = key;
+		this.size = size;
+		this.eTag = eTag;
+		this.chunkSize = Math.max(chunkSize, 1);
+		this.depth = Math.max(depth, 1);
+		this.executor = Executors.newFixedThreadPool(this.depth, THREAD_FACTORY);
+	}
+	
+	/**
+	 * Creates a reader of the object identified by the path, see {@link S3Utils#getPath(java.net.URI)}.
+	 * Reads the size and the ETag of the object.
+	 */
+	static S3PrefetchingReader create(AmazonS3 service, String[] path) throws IOException {
+		if (path.length < 2) {
+			throw new IOException(path[0].isEmpty() ? "Cannot read from the root directory" : "Cannot read from bucket root directory");
+		}
+		ObjectMetadata metadata;
+		try {
+			metadata = service.getObjectMetadata(path[0], path[1]);
+		} catch (Exception e) {
+			throw S3Utils.getIOException(e);
+		}
+		return new S3PrefetchingReader(service, path[0], path[1], metadata.getInstanceLength(), metadata.getETag(),
+				Defaults.S3.READ_CHUNK_SIZE, Defaults.S3.READ_AHEAD_CHUNKS);
+	}
+	
+	long size() {
+		return size;
+	}
+	
+	/**
+	 * Reads at most <code>len</code> bytes starting at the given position.
+	 * 
+	 * @return number of bytes read, -1 if the position is at the end of the object
+	 */
+	synchronized int read(long position, byte[] b, int off, int len) throws IOException {
+		if (position >= size) {
+			return -1;
+		}
+		if (len == 0) {
+			return 0;
+		}
+		Chunk chunk = getChunk(position);
+		int offset = (int) (position - chunk.start);
+		int count = Math.min(len, chunk.length - offset);
+		System.arraycopy(chunk.data, offset, b, off, count);
+		return count;
+	}
+	
+	/**
+	 * Reads bytes starting at the given position into the buffer.
+	 * 
+	 * @return number of bytes read, -1 if the position is at the end of the object
+	 */
+	synchronized int read(long position, ByteBuffer dst) throws IOException {
+		if (position >= size) {
+			return -1;
+		}
+		if (!dst.hasRemaining()) {
+			return 0;
+		}
+		Chunk chunk = getChunk(position);
+		int offset = (int) (position - chunk.start);
+		int count = Math.min(dst.remaining(), chunk.length - offset);
+		dst.put(chunk.data, offset, count);
+		return count;
+	}
+	
+	/**
+	 * Moves the read-ahead window to the given position
+	 * and waits for the chunk containing the position.
+	 */
+	private Chunk getChunk(long position) throws IOException {
+		if (closed) {
+			throw new IOException("The reader is closed");
+		}
+		long index = position / chunkSize;
+		if (index == currentIndex) {
+			return currentChunk;
+		}
+		currentChunk = null;
+		currentIndex = -1;
+		for (Iterator<Map.Entry<Long, Future<Chunk>>> it = chunks.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<Long, Future<Chunk>> entry = it.next();
+			long i = entry.getKey();
+			if ((i < index) || (i >= index + depth)) {
+				release(entry.getValue());
+				it.remove();
+			}
+		}
+		long lastIndex = (size - 1) / chunkSize;
+		for (long i = index; (i < index + depth) && (i <= lastIndex); i++) {
+			if (!chunks.containsKey(i)) {
+				chunks.put(i, executor.submit(new ChunkRequest(i)));
+			}
+		}
+		try {
+			currentChunk = chunks.get(index).get();
+			currentIndex = index;
+			return currentChunk;
+		} catch (ExecutionException e) {
+			throw S3Utils.getIOException(e.getCause());
+		} catch (InterruptedException e) {
+			throw ExceptionUtils.getIOException(e);
+		}
+	}
+	
+	/**
+	 * Cancels the request or returns the buffer of a completed chunk to the pool.
+	 */
+	private void release(Future<Chunk> future) {
+		if (future.isDone()) {
+			try {
+				bufferPool.offer(future.get().data);
+			} catch (Exception e) {
+				// failed or cancelled request
+			}
+		} else {
+			future.cancel(true);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		for (Future<Chunk> future: chunks.values()) {
+			future.cancel(true);
+		}
+		chunks.clear();
+		currentChunk = null;
+		currentIndex = -1;
+		executor.shutdownNow();
+		bufferPool.clear();
+	}
+	
+	/**
+	 * Returns a stream that reads the object sequentially from the beginning.
+	 * Closing the stream closes the reader.
+	 */
+	InputStream newInputStream() {
+		return new InputStream() {
+			
+			private long position = 0;
+			
+			private final byte[] singleByte = new byte[1];
+
+			@Override
+			public int read() throws IOException {
+				return (read(singleByte, 0, 1) > 0) ? (singleByte[0] & 0xFF) : -1;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int count = S3PrefetchingReader.this.read(position, b, off, len);
+				if (count > 0) {
+					position += count;
+				}
+				return count;
+			}
+
+			@Override
+			public long skip(long n) throws IOException {
+				if (n <= 0) {
+					return 0;
+				}
+				long skipped = Math.min(n, Math.max(size - position, 0));
+				position += skipped;
+				return skipped;
+			}
+
+			@Override
+			public void close() throws IOException {
+				S3PrefetchingReader.this.close();
+			}
+			
+		};
+	}
+	
+	private static class Chunk {
+		private final long start;
+		private final byte[] data;
+		private final int length;
+		
+		public Chunk(long start, byte[] data, int length) {
+			this.start = start;
+			this.data = data;
+			this.length = length;
+		}
+	}
+	
+	/**
+	 * Ranged GET of one chunk.
+	 */
+	private class ChunkRequest implements Callable<Chunk> {
+		
+		private final long index;
+
+		public ChunkRequest(long index) {
+			this.index = index;
+		}
+
+		@Override
+		public Chunk call() throws Exception {
+			long start = index * chunkSize;
+			int length = (int) Math.min(chunkSize, size - start);
+			byte[] data = bufferPool.poll();
+			if (data == null) {
+				data = new byte[chunkSize];
+			}
+			GetObjectRequest request = new GetObjectRequest(bucket, key).withRange(start, start + length - 1);
+			if (eTag != null) {
+				request.withMatchingETagConstraint(eTag);
+			}
+			S3Object object = service.getObject(request);
+			// null is returned if the ETag constraint is not met
+			if (object == null || (eTag != null && object.getObjectMetadata().getETag() != null
+					&& !eTag.equals(object.getObjectMetadata().getETag()))) {
+				if (object != null && object.getObjectContent() != null) {
+					object.getObjectContent().abort();
+				}
+				bufferPool.offer(data);
+				throw new IOException("Object " + bucket + "/" + key + " was modified while it was being read");
+			}
+			S3ObjectInputStream is = S3Utils.getObjectInputStream(object);
+			boolean complete = false;
+			try {
+				int count = 0;
+				while (count < length) {
+					int n = is.read(data, count, length - count);
+					if (n < 0) {
+						throw new EOFException("Unexpected end of object " + bucket + "/" + key + " at position " + (start + count));
+					}
+					count += n;
+				}
+				complete = true;
+			} finally {
+				if (!complete) {
+					is.abort(); // prevent the stream from reading remaining data
+				}
+				is.close();
+			}
+			return new Chunk(start, data, length);
+		}
+		
+	}
+
+}
@@ -33,6 +33,7 @@ import org.jetel.component.fileoperation.pool.Authority;
 import org.jetel.component.fileoperation.pool.ConnectionPool;
 import org.jetel.component.fileoperation.pool.PooledS3Connection;
 import org.jetel.component.fileoperation.pool.S3Authority;
+import org.jetel.data.Defaults;
 import org.jetel.util.file.FileUtils;
 
 import com.amazonaws.services.s3.model.ObjectMetadata;
@@ -62,6 +63,12 @@ public class S3SeekableByteChannel implements SeekableByteChannel {
 
 	private boolean eof = false;
 	
+	/**
+	 * Reads the object using parallel ranged requests,
+	 * null if read-ahead is disabled.
+	 */
+	private S3PrefetchingReader reader;
+	
 	
 	/**
 	 * 
@@ -81,6 +88,12 @@ public class S3SeekableByteChannel implements SeekableByteChannel {
 		
 		ObjectMetadata metadata = PrimitiveS3OperationHandler.getObjectMetadata(uri, connection.getService());
 		this.size = metadata.getInstanceLength();
+		
+		if (Defaults.S3.READ_AHEAD) {
+			String[] path = S3Utils.getPath(uri.normalize());
+			this.reader = new S3PrefetchingReader(connection.getService(), path[0], path[1], size, metadata.getETag(),
+					Defaults.S3.READ_CHUNK_SIZE, Defaults.S3.READ_AHEAD_CHUNKS);
+		}
 	}
 
 	private void openChannel(long position) throws IOException {
@@ -117,6 +130,9 @@ public class S3SeekableByteChannel implements SeekableByteChannel {
 	@Override
 	public void close() throws IOException {
 		try {
+			if (reader != null) {
+				reader.close();
+			}
 			closeChannel();
 		} finally {
 			open = false;
@@ -127,13 +143,21 @@ public class S3SeekableByteChannel implements SeekableByteChannel {
 	@Override
 	public int read(ByteBuffer dst) throws IOException {
 		checkOpen();
+		int count;
+		if (reader != null) {
+			count = reader.read(position, dst);
+			if (count > 0) {
+				position += count;
+			}
+			return count;
+		}
 		if (eof) {
 			return -1;
 		}
 		if (channel == null) {
 			openChannel(position);
 		}
-		int count = channel.read(dst);
+		count = channel.read(dst);
 		if (count > 0) { // -1 indicates EOF
 			position += count;
 		}
@@ -161,6 +185,11 @@ public class S3SeekableByteChannel implements SeekableByteChannel {
 			throw new IllegalArgumentException("The position can't be negative");
 		}
 		checkOpen();
+		if (reader != null) {
+			// the read-ahead window is moved by the next read
+			this.position = newPosition;
+			return this;
+		}
 		closeChannel();
 		if (newPosition >= size) {
 			eof = true;
@@ -35,6 +35,7 @@ import org.apache.http.HttpStatus;
 import org.apache.log4j.Logger;
 import org.jetel.component.fileoperation.URIUtils;
 import org.jetel.component.fileoperation.pool.PooledS3Connection;
+import org.jetel.data.Defaults;
 import org.jetel.util.ExceptionUtils;
 
 import com.amazonaws.AmazonClientException;
@@ -190,6 +191,16 @@ public class S3Utils {
 		metadata.setSSEAlgorithm(ObjectMetadata.AES_256_SERVER_SIDE_ENCRYPTION);
 		return metadata;
 	}
+	
+	/**
+	 * Creates new {@link ObjectMetadata} for uploaded objects,
+	 * sets SSE algorithm only if configured.
+	 * 
+	 * @return new {@link ObjectMetadata}
+	 */
+	static ObjectMetadata createUploadMetadata() {
+		return isSSE() ? createPutObjectMetadata() : new ObjectMetadata();
+	}
 
 	public static ListObjectsRequest listObjectRequest(String bucketName, String prefix, String delimiter) {
 		return new ListObjectsRequest(bucketName, prefix, null, delimiter, Integer.MAX_VALUE);
@@ -311,6 +322,9 @@ public class S3Utils {
 	 * <p><b>The stream takes ownership of the connection!</b>
 	 * The connection is released when the stream is closed.</p>
 	 * 
+	 * <p>If {@link Defaults.S3#READ_AHEAD} is enabled,
+	 * the object is read using parallel ranged requests.</p>
+	 * 
 	 * 
 	 * @param uri
 	 * @param connection
@@ -319,7 +333,12 @@ public class S3Utils {
 	 */
 	public static InputStream getInputStream(URI uri, final PooledS3Connection connection) throws IOException {
 		try {
-			InputStream is = S3Utils.getObjectInputStream(uri, connection.getService(), 0);
+			InputStream is;
+			if (Defaults.S3.READ_AHEAD) {
+				is = S3PrefetchingReader.create(connection.getService(), getPath(uri.normalize())).newInputStream();
+			} else {
+				is = S3Utils.getObjectInputStream(uri, connection.getService(), 0);
+			}
 			is = new FilterInputStream(is) {
 				@Override
 				public void close() throws IOException {
@@ -22,14 +22,26 @@ import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.zip.Checksum;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
@@ -83,11 +95,27 @@ public class CloverDataStream {
 		
 		abstract int compress(byte[] source, int sourceOffset, int length, byte[] target, int targetOffset);
 		abstract int maxCompressedLength(int sourceLength);
+		/** @return compressor of the same kind for another thread */
+		abstract Compressor newInstance();
 		
 	}
 
 	static abstract class Decompressor {
 		abstract int decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int rawDataLength);
+		/** @return decompressor of the same kind for another thread */
+		abstract Decompressor newInstance();
+
+		/**
+		 * Decompresses data from a buffer which is not backed by an array, e.g. a memory mapped file.
+		 * The data are copied to an array by default.
+		 */
+		int decompress(ByteBuffer source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int rawDataLength) {
+			byte[] array = new byte[sourceLength];
+			ByteBuffer data = source.duplicate();
+			data.position(sourceOffset);
+			data.get(array);
+			return decompress(array, 0, sourceLength, target, targetOffset, rawDataLength);
+		}
 	}
 
 	
@@ -116,6 +144,11 @@ public class CloverDataStream {
 		final int maxCompressedLength(int sourceLength){
 			return compressor.maxCompressedLength(sourceLength);
 		}
+
+		@Override
+		Compressor newInstance() {
+			return new CompressorLZ4(compressor); // LZ4 compressors are thread safe
+		}
 	}
 	
 	public static class DecompressorLZ4 extends Decompressor{
@@ -130,6 +163,16 @@ public class CloverDataStream {
 		final int decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int rawDataLength) {
 			return decompressor.decompress(source, sourceOffset, target,  targetOffset, rawDataLength);
 		}
+
+		@Override
+		final int decompress(ByteBuffer source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int rawDataLength) {
+			return decompressor.decompress(source, sourceOffset, ByteBuffer.wrap(target), targetOffset, rawDataLength);
+		}
+
+		@Override
+		Decompressor newInstance() {
+			return new DecompressorLZ4();
+		}
 		
 	}
 	
@@ -158,6 +201,11 @@ public class CloverDataStream {
 			return sourceLength +
 			          ((sourceLength + 7) >> 3) + ((sourceLength + 63) >> 6) + 5;
 		}
+
+		@Override
+		Compressor newInstance() {
+			return new CompressorGZIP();
+		}
 	}
 	
 	public static class DecompressorGZIP extends Decompressor {
@@ -184,8 +232,58 @@ public class CloverDataStream {
 			}
 			return size;
 		}
+
+		@Override
+		Decompressor newInstance() {
+			return new DecompressorGZIP();
+		}
 		
 	}
+
+	/**
+	 * Data block passed between the reading or writing thread and the threads (de)compressing the data.
+	 */
+	private static final class DataBlock {
+		byte[] data;
+		int length;
+		byte[] compressedData;
+		int compressedLength;
+		boolean compressed;
+		int firstRecordPosition;
+	}
+
+	private static ExecutorService createExecutor(int threads, final String name) {
+		return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r);
+				t.setName(name + " " + t.getId());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	private static DataBlock getBlock(Future<DataBlock> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException("Interrupted while waiting for data block");
+		} catch (ExecutionException e) {
+			throw new IOException("Data block processing failed", e.getCause());
+		}
+	}
+
+	/**
+	 * @return an array from the pool if it is big enough, a new one otherwise
+	 */
+	private static byte[] takeArray(ArrayDeque<byte[]> freeArrays, int size) {
+		byte[] result = freeArrays.pollLast();
+		if (result == null || result.length < size) {
+			result = new byte[findNearestPow2(size)];
+		}
+		return result;
+	}
 	
 	
 	/**
@@ -212,6 +310,13 @@ public class CloverDataStream {
 			+ 4; // position of the first record in block
 
 	private final static int LONG_SIZE_BYTES = 8;
+
+	/**
+	 * Marks additional data stored at the end of the INDEX block after the block positions,
+	 * the data are followed by their length (int) and this value.
+	 */
+	static final long INDEX_EXTENSION_MAGIC = 0x434c56494e444558L; // "CLVINDEX"
+	static final int INDEX_EXTENSION_TRAILER_LENGTH = 4 + LONG_SIZE_BYTES;
 	
 	static final int DEFAULT_BLOCK_INDEX_SIZE = 128;
 	static final ByteOrder BUFFER_BYTE_ORDER = ByteOrder.BIG_ENDIAN;
@@ -248,6 +353,21 @@ public class CloverDataStream {
 
 	}
 
+	/**
+	 * @param index content of the INDEX block
+	 * @param size size of the content
+	 * @return size of the block positions, i.e. without the index extension
+	 */
+	static int getIndexSize(ByteBuffer index, int size) {
+		if (size >= INDEX_EXTENSION_TRAILER_LENGTH && index.getLong(size - LONG_SIZE_BYTES) == INDEX_EXTENSION_MAGIC) {
+			int extensionSize = index.getInt(size - INDEX_EXTENSION_TRAILER_LENGTH);
+			if (extensionSize >= 0 && extensionSize <= size - INDEX_EXTENSION_TRAILER_LENGTH) {
+				return size - INDEX_EXTENSION_TRAILER_LENGTH - extensionSize;
+			}
+		}
+		return size;
+	}
+
 	public static final class Output extends FilterOutputStream {
 
 		/**
@@ -265,6 +385,7 @@ public class CloverDataStream {
 		private final CloverBuffer buffer;
 		private final CloverBuffer compressedBuffer;
 		private long[] blocksIndex;
+		private byte[] indexExtension;
 
 		private boolean syncFlush;
 		private boolean finished;
@@ -272,8 +393,19 @@ public class CloverDataStream {
 		private long position;
 		private int firstRecordPosition;
 		private int testRound;
+		/** number of data blocks written */
+		private int blockCount;
 		
 		private SeekableOutputStream seekableOut;
+
+		/** compresses the blocks if more compression threads are used */
+		private ExecutorService executor;
+		private ThreadLocal<Compressor> workerCompressor;
+		private int maxPendingBlocks;
+		/** blocks being compressed, in the order of the data */
+		private final LinkedList<Future<DataBlock>> pendingBlocks = new LinkedList<Future<DataBlock>>();
+		private final ArrayDeque<byte[]> freeArrays = new ArrayDeque<byte[]>();
+		private final ArrayDeque<byte[]> freeCompressedArrays = new ArrayDeque<byte[]>();
 		
 
 		/**
@@ -366,6 +498,72 @@ public class CloverDataStream {
 			this.syncFlush = syncFlush;
 		}
 
+		/**
+		 * Sets number of threads compressing the data blocks. If greater than 1, filled blocks
+		 * are compressed by a pool of threads and written in the original order by the writing thread,
+		 * which also maintains the block index. At most twice as many blocks as threads are pending.
+		 * Has no effect if compression is not used.
+		 * 
+		 * @param threads
+		 */
+		public void setCompressionThreads(int threads) {
+			if (threads > 1 && executor == null) {
+				executor = createExecutor(threads, "CloverData compression");
+				maxPendingBlocks = 2 * threads;
+				workerCompressor = new ThreadLocal<Compressor>() {
+					@Override
+					protected Compressor initialValue() {
+						return compressor.newInstance();
+					}
+				};
+			}
+		}
+
+		/**
+		 * @return number of data blocks written so far, i.e. the ordinal number of the currently buffered block
+		 */
+		public int getBlockCount() {
+			return blockCount;
+		}
+
+		/**
+		 * @return number of bytes buffered for the current block
+		 */
+		public int getBufferedBytes() {
+			return buffer.position();
+		}
+
+		/**
+		 * @return number of bytes which can be written to the current block
+		 */
+		public int getBufferRemaining() {
+			return buffer.remaining();
+		}
+
+		public boolean isFinished() {
+			return finished;
+		}
+
+		/**
+		 * Sets additional data stored in the INDEX block written by {@link #finish()},
+		 * see {@link Input#getIndexExtension()}.
+		 * 
+		 * @param indexExtension
+		 */
+		public void setIndexExtension(byte[] indexExtension) {
+			this.indexExtension = indexExtension;
+		}
+
+		/**
+		 * Writes the buffered data as a data block, the next written byte starts a new block.
+		 * 
+		 * @throws IOException
+		 */
+		public void flushBlock() throws IOException {
+			ensureNotFinished();
+			flushBufferedData();
+		}
+
 		private final void ensureNotFinished() {
 			if (finished) {
 				throw new IllegalStateException("This stream is already closed");
@@ -435,12 +633,24 @@ public class CloverDataStream {
 		@Override
 		public void close() throws IOException {
 			if (out != null) {
-				finish();
+				try {
+					finish();
+				} finally {
+					shutdownExecutor();
+				}
 				out.close();
 				out = null;
 			}
 		}
 
+		private void shutdownExecutor() {
+			if (executor != null) {
+				executor.shutdownNow();
+				executor = null;
+				pendingBlocks.clear();
+			}
+		}
+
 		private int flushCommon(boolean checkCompressRatio) throws IOException {
 			buffer.flip();
 
@@ -481,25 +691,95 @@ public class CloverDataStream {
 		private void flushBufferedData() throws IOException {
 			if (buffer.position() == 0)
 				return;
-			// store index of new block which will be added (but only if it contains beginning of record
-			if (firstRecordPosition >= 0)
-				storeBlockIndex();
-
-			if (seekableOut != null) {
-				seekableOut.truncate(position);
+			if (executor != null && compress) {
+				submitBlock();
+			} else {
+				writePendingBlocks(); // the compression may have been switched off
+				// store index of new block which will be added (but only if it contains beginning of record
+				if (firstRecordPosition >= 0)
+					storeBlockIndex();
+	
+				if (seekableOut != null) {
+					seekableOut.truncate(position);
+				}
+	
+				position += flushCommon(true);
 			}
-
-			position += flushCommon(true);
+			blockCount++;
 
 			buffer.clear();
 			firstRecordPosition = -1; // reset
 		}
 
 
+		/**
+		 * Passes copy of the buffered data to the compression threads.
+		 */
+		private void submitBlock() throws IOException {
+			final DataBlock block = new DataBlock();
+			block.length = buffer.position();
+			block.data = takeArray(freeArrays, buffer.capacity());
+			System.arraycopy(buffer.array(), 0, block.data, 0, block.length);
+			block.compressedData = takeArray(freeCompressedArrays, compressor.maxCompressedLength(buffer.capacity()));
+			block.firstRecordPosition = firstRecordPosition;
+			pendingBlocks.add(executor.submit(new Callable<DataBlock>() {
+				@Override
+				public DataBlock call() {
+					block.compressedLength = workerCompressor.get().compress(block.data, 0, block.length, block.compressedData, 0);
+					return block;
+				}
+			}));
+			while (pendingBlocks.size() > maxPendingBlocks) {
+				writeBlock(pendingBlocks.removeFirst());
+			}
+		}
+
+		/**
+		 * Writes the compressed block, the block index is updated here as the position
+		 * of the block is known only after the previous blocks are compressed.
+		 */
+		private void writeBlock(Future<DataBlock> future) throws IOException {
+			DataBlock block = getBlock(future);
+			if (block.compressedLength == -1) {
+				throw new IOException("Error when compressing datablock.");
+			}
+			if (block.firstRecordPosition >= 0) {
+				storeBlockIndex();
+			}
+			if (seekableOut != null) {
+				seekableOut.truncate(position);
+			}
+			if (((double) block.compressedLength) / block.length > MIN_COMPRESS_RATIO) {
+				if ((testRound++) > NO_TEST_ROUNDS) {
+					compress = false; // we are forcing switch off of compression
+				}
+			}
+			if (block.compressedLength < block.length) {
+				fillBlockHeader(compressedBuffer, DataBlockType.COMPRESSED, block.compressedLength, block.length, 0, block.firstRecordPosition);
+				out.write(compressedBuffer.array(), 0, CLOVER_BLOCK_HEADER_LENGTH);
+				out.write(block.compressedData, 0, block.compressedLength);
+				position += CLOVER_BLOCK_HEADER_LENGTH + block.compressedLength;
+			} else {
+				fillBlockHeader(compressedBuffer, DataBlockType.RAW_DATA, block.length, block.length, 0, block.firstRecordPosition);
+				out.write(compressedBuffer.array(), 0, CLOVER_BLOCK_HEADER_LENGTH);
+				out.write(block.data, 0, block.length);
+				position += CLOVER_BLOCK_HEADER_LENGTH + block.length;
+			}
+			freeArrays.add(block.data);
+			freeCompressedArrays.add(block.compressedData);
+		}
+
+		private void writePendingBlocks() throws IOException {
+			while (!pendingBlocks.isEmpty()) {
+				writeBlock(pendingBlocks.removeFirst());
+			}
+		}
+
 		private void softFlush() throws IOException {
 			if (buffer.position() == 0) {
 				return;
 			}
+			writePendingBlocks();
 			seekableOut.truncate(position);
 
 			int bufferLimit = buffer.limit();
@@ -537,6 +817,7 @@ public class CloverDataStream {
 					flushBufferedData();
 				}
 			}
+			writePendingBlocks();
 			out.flush();
 		}
 
@@ -548,6 +829,7 @@ public class CloverDataStream {
 			if (!finished) {
 				writeIndexData(); // this also marks the end of data
 				finished = true;
+				shutdownExecutor();
 			}
 			out.flush();
 		}
@@ -562,24 +844,36 @@ public class CloverDataStream {
 		public void writeIndexData() throws IOException {
 			ensureNotFinished();
 			flushBufferedData();
+			writePendingBlocks();
+			CloverBuffer index = buffer;
+			if (indexExtension != null) {
+				// the extension may not fit into the block buffer
+				index = CloverBuffer.wrap(new byte[blocksIndex.length * LONG_SIZE_BYTES + indexExtension.length + INDEX_EXTENSION_TRAILER_LENGTH]);
+				index.order(BUFFER_BYTE_ORDER);
+			}
 			try {
 				for (long value : blocksIndex) {
 					if (value > 0) {
-						buffer.putLong(value);
+						index.putLong(value);
 					}
 				}
+				if (indexExtension != null) {
+					index.put(indexExtension);
+					index.putInt(indexExtension.length);
+					index.putLong(INDEX_EXTENSION_MAGIC);
+				}
 			} catch (BufferOverflowException ex) {
 				throw new IOException("Can't store index data - internal buffer too small");
 			}
-			buffer.flip();
-			final int size = buffer.remaining();
+			index.flip();
+			final int size = index.remaining();
 			checksum.reset();
-			checksum.update(buffer.array(), 0, size);
+			checksum.update(index.array(), 0, size);
 			final int check = (int) checksum.getValue();
 			fillBlockHeader(compressedBuffer, DataBlockType.INDEX,size+CLOVER_BLOCK_HEADER_LENGTH, size+CLOVER_BLOCK_HEADER_LENGTH, check, 0);
-			position += CLOVER_BLOCK_HEADER_LENGTH + buffer.remaining();
+			position += CLOVER_BLOCK_HEADER_LENGTH + index.remaining();
 			out.write(compressedBuffer.array(), 0, CLOVER_BLOCK_HEADER_LENGTH);
-			out.write(buffer.array(), 0, buffer.remaining());
+			out.write(index.array(), 0, index.remaining());
 
 			// write the header at the end again so it can be easily read from back
 			// the size this time does not contain the block HEADER length
@@ -647,11 +941,13 @@ public class CloverDataStream {
 					throw new IOException("Invalid checksum when reading index data !!! Possibly corrupted data file.");
 				}
 				// we got correct checksum, so populate our index data
-				int storedindexsize = size / 8;
+				// the index extension is dropped, it describes only the original data
+				int indexSize = getIndexSize(buffer, size);
+				int storedindexsize = indexSize / 8;
 				if (blocksIndex.length < storedindexsize) {
 					blocksIndex = new long[findNearestPow2(size)];
 				}
-				buffer.limit(size);
+				buffer.limit(indexSize);
 				int index = 0;
 				while (buffer.hasRemaining() && (index < blocksIndex.length)) {
 					blocksIndex[index++] = buffer.getLong();
@@ -683,24 +979,73 @@ public class CloverDataStream {
 
 	}
 
+	/**
+	 * Decides which data blocks are read by {@link Input}.
+	 */
+	public interface BlockFilter {
+
+		/**
+		 * @param block ordinal number of a data block which starts with a record
+		 * @return false if the records starting in the block are not needed, the block and its continuation
+		 * blocks are skipped without decompression
+		 */
+		public boolean accept(int block);
+	}
+
 	public final static class Input extends FilterInputStream {
 
 		static final int DEFAULT_SEED = 0x9747b28c;
 
+		/** size of the regions of memory mapped file */
+		static final int MAPPED_REGION_SIZE = 1 << 26; // 64 MB
+
 		private final Decompressor decompressor;
 		private final Checksum checksum;
 		private CloverBuffer buffer;
 		private CloverBuffer compressedBuffer;
 		private long[] blocksIndex;
+		private byte[] indexExtension;
 
 		private long position;
 		private int firstRecordPosition;
 		private boolean hasIndex;
 		
 		private boolean eof = false;
+
+		/** ordinal number of the next data block */
+		private int blockCount;
+		private BlockFilter blockFilter;
+		private long skippedBlocks;
 		
 		private SeekableByteChannel seekableChannel;
 
+		/** header of the next data block */
+		private final CloverBuffer headerBuffer;
+		private final DataBlock nextBlock = new DataBlock();
+
+		/** decompresses the blocks read ahead if more decompression threads are used */
+		private ExecutorService executor;
+		private ThreadLocal<Decompressor> workerDecompressor;
+		private int maxPendingBlocks;
+		/** blocks read ahead, in the order of the data */
+		private final LinkedList<Future<DataBlock>> pendingBlocks = new LinkedList<Future<DataBlock>>();
+		/** true if all data blocks has been read ahead */
+		private boolean dataEnd;
+		/** the block being read from {@link #buffer} if read ahead */
+		private DataBlock currentBlock;
+		private final ArrayDeque<byte[]> freeArrays = new ArrayDeque<byte[]>();
+
+		/** the file is read via memory mapping if not null */
+		private FileChannel mappedChannel;
+		/** currently mapped region of the file */
+		private MappedByteBuffer mappedBuffer;
+		/** file position of the beginning of {@link #mappedBuffer} */
+		private long mappedStart;
+		/** file position of the next data block */
+		private long mappedPosition;
+		/** decompressed data if the file is memory mapped, the raw blocks are read from the mapped region directly */
+		private CloverBuffer blockBuffer;
+
 		/**
 		 * Create a new {@link OutputStream} with configurable block size. Large blocks require more memory at
 		 * compression and decompression time but should improve the compression ratio.
@@ -722,6 +1067,8 @@ public class CloverDataStream {
 			this.buffer = CloverBuffer.wrap(new byte[CLOVER_BLOCK_HEADER_LENGTH]);
 			this.buffer.order(BUFFER_BYTE_ORDER);
 			this.buffer.flip(); // set to empty (no data)
+			this.headerBuffer = CloverBuffer.wrap(new byte[CLOVER_BLOCK_HEADER_LENGTH]);
+			this.headerBuffer.order(BUFFER_BYTE_ORDER);
 		}
 
 		/**
@@ -751,6 +1098,75 @@ public class CloverDataStream {
 			this.position = position;
 		}
 
+		/**
+		 * Sets number of threads decompressing the data blocks. If greater than 1, the following blocks
+		 * are read ahead by the reading thread and decompressed by a pool of threads, at most twice
+		 * as many blocks as threads.
+		 * 
+		 * @param threads
+		 */
+		public void setDecompressionThreads(int threads) {
+			if (threads > 1 && executor == null) {
+				executor = createExecutor(threads, "CloverData decompression");
+				maxPendingBlocks = 2 * threads;
+				workerDecompressor = new ThreadLocal<Decompressor>() {
+					@Override
+					protected Decompressor initialValue() {
+						return decompressor.newInstance();
+					}
+				};
+			}
+		}
+
+		/**
+		 * Sets reading of the data blocks directly from memory mapped regions of the file.
+		 * Uncompressed blocks are then not copied at all, compressed ones are decompressed
+		 * directly from the mapped region. The blocks are not read ahead by decompression threads.
+		 * Can be used only if the input has been created from a {@link FileChannel},
+		 * reading starts at the current position of the channel.
+		 * 
+		 * @param memoryMapped
+		 * @return <code>true</code> if the memory mapping is used
+		 * @throws IOException
+		 */
+		public boolean setMemoryMapped(boolean memoryMapped) throws IOException {
+			mappedBuffer = null;
+			if (memoryMapped && seekableChannel instanceof FileChannel) {
+				mappedChannel = (FileChannel) seekableChannel;
+				mappedPosition = mappedChannel.position();
+			} else {
+				mappedChannel = null;
+			}
+			return mappedChannel != null;
+		}
+
+		/**
+		 * Sets filter of data blocks. It can be used only if the data blocks are aligned with records,
+		 * i.e. each record starts at the beginning of a block or in the same block as the previous record
+		 * and a block never starts in the middle of a record unless the whole block belongs to the record.
+		 * 
+		 * @param blockFilter
+		 */
+		public void setBlockFilter(BlockFilter blockFilter) {
+			this.blockFilter = blockFilter;
+		}
+
+		/**
+		 * @return number of data blocks skipped because of the block filter
+		 */
+		public long getSkippedBlocks() {
+			return skippedBlocks;
+		}
+
+		/**
+		 * @return additional data stored in the INDEX block, available after {@link #readIndexData()};
+		 * <code>null</code> if there are no such data
+		 * @see Output#setIndexExtension(byte[])
+		 */
+		public byte[] getIndexExtension() {
+			return indexExtension;
+		}
+
 		@Override
 		public int read() throws IOException {
 			if (!buffer.hasRemaining()) {
@@ -795,20 +1211,27 @@ public class CloverDataStream {
 
 		public int read(ByteBuffer inbuffer) throws IOException {
 			final int pos=inbuffer.position();
+			// the block may be a memory mapped region without array
 			while (buffer.remaining() < inbuffer.remaining()) {
-				inbuffer.put(buffer.array(), buffer.position(), buffer.remaining());
+				inbuffer.put(buffer.buf());
 				if (!readDataBlock())
 					return -1;
 			}
 			final int savelimit = buffer.limit();
 			buffer.limit(buffer.position() + inbuffer.remaining());
-			inbuffer.put(buffer.array(), buffer.position(), buffer.remaining());
+			inbuffer.put(buffer.buf());
 			buffer.limit(savelimit);
 			return inbuffer.position()-pos;
 		}
 
 		@Override
 		public void close() throws IOException {
+			if (executor != null) {
+				executor.shutdownNow();
+				executor = null;
+				pendingBlocks.clear();
+			}
+			mappedBuffer = null;
 			if (in != null) {
 				in.close();
 				in = null;
@@ -827,44 +1250,29 @@ public class CloverDataStream {
 				// CLO-5188
 				return false;
 			}
-			buffer.clear();
-			// store index of new block which will be added (but only if it contains beginning of record
-			// firstRecordPosition
-			final int readin=StreamUtils.readBlocking(in, buffer.array(), 0, CLOVER_BLOCK_HEADER_LENGTH);
-			if (readin==-1) {
-				eof = true; // CLO-5188
-				return false;
+			if (mappedChannel != null) {
+				return readMappedDataBlock();
 			}
-			if (readin!= CLOVER_BLOCK_HEADER_LENGTH || !testBlockHeader(buffer)) {
-				throw new IOException("Missing block header. Probably corrupted data !");
+			if (executor != null) {
+				return readDataBlockAhead();
 			}
-			boolean compressed = false;
-			switch (DataBlockType.get(buffer.get(CLOVER_BLOCK_MAGIC_LENGTH))) {
-			case COMPRESSED:
-				compressed = true;
-				break;
-			case RAW_DATA:
-				break;
-			case INDEX:
+			if (!readBlockHeader(nextBlock)) {
 				eof = true;
 				// CLO-5188: mark the buffer as empty for reading
 				buffer.clear();
 				buffer.flip();
-				// return, no more data, the index block is always the last
 				return false;
 			}
-
-			int rawLength = buffer.position(CLOVER_BLOCK_MAGIC_LENGTH + 1).getInt();
-			int compressedLength = buffer.getInt(); 
-			int checksum = buffer.getInt(); // not used currently (only in index block)
-			firstRecordPosition = buffer.getInt();
+			final int rawLength = nextBlock.length;
+			final int compressedLength = nextBlock.compressedLength;
+			firstRecordPosition = nextBlock.firstRecordPosition;
 			
 			buffer.clear();
 			if (buffer.capacity() < rawLength) {
 				buffer = CloverBuffer.wrap(new byte[findNearestPow2(rawLength)]);
 				buffer.order(BUFFER_BYTE_ORDER);
 			}
-			if (compressed) {
+			if (nextBlock.compressed) {
 				if (compressedBuffer == null || compressedBuffer.capacity() < compressedLength) {
 					compressedBuffer = CloverBuffer.wrap(new byte[findNearestPow2(compressedLength)]);
 					compressedBuffer.order(BUFFER_BYTE_ORDER);
@@ -883,6 +1291,219 @@ public class CloverDataStream {
 			return true;
 		}
 
+		/**
+		 * Reads header of the next data block, blocks rejected by the block filter are skipped.
+		 * 
+		 * @param block filled with the header values
+		 * @return <code>false</code> if there are no more data blocks
+		 * @throws IOException
+		 */
+		private boolean readBlockHeader(DataBlock block) throws IOException {
+			boolean skipping = false;
+			while (true) {
+				headerBuffer.clear();
+				// store index of new block which will be added (but only if it contains beginning of record
+				// firstRecordPosition
+				final int readin=readBlocking(headerBuffer.array(), CLOVER_BLOCK_HEADER_LENGTH);
+				if (readin==-1) {
+					return false; // CLO-5188
+				}
+				if (readin!= CLOVER_BLOCK_HEADER_LENGTH || !testBlockHeader(headerBuffer)) {
+					throw new IOException("Missing block header. Probably corrupted data !");
+				}
+				block.compressed = false;
+				switch (DataBlockType.get(headerBuffer.get(CLOVER_BLOCK_MAGIC_LENGTH))) {
+				case COMPRESSED:
+					block.compressed = true;
+					break;
+				case RAW_DATA:
+					break;
+				case INDEX:
+					// no more data, the index block is always the last
+					return false;
+				}
+	
+				block.length = headerBuffer.position(CLOVER_BLOCK_MAGIC_LENGTH + 1).getInt();
+				block.compressedLength = headerBuffer.getInt(); 
+				int checksum = headerBuffer.getInt(); // not used currently (only in index block)
+				block.firstRecordPosition = headerBuffer.getInt();
+				int blockNumber = blockCount++;
+
+				if (blockFilter != null) {
+					if (block.firstRecordPosition == 0) {
+						skipping = !blockFilter.accept(blockNumber);
+					} else if (block.firstRecordPosition > 0) {
+						skipping = false; // not aligned, should not happen
+					}
+					// a block without record start continues the previous block
+				}
+				if (!skipping) {
+					return true;
+				}
+				skipFully(block.compressed ? block.compressedLength : block.length);
+				skippedBlocks++;
+			}
+		}
+
+		/**
+		 * Reads the following data blocks ahead and passes them to the decompression threads,
+		 * then takes the first pending block.
+		 */
+		private boolean readDataBlockAhead() throws IOException {
+			while (!dataEnd && pendingBlocks.size() < maxPendingBlocks) {
+				final DataBlock block = new DataBlock();
+				if (!readBlockHeader(block)) {
+					dataEnd = true;
+					break;
+				}
+				block.data = takeArray(freeArrays, block.length);
+				if (block.compressed) {
+					block.compressedData = takeArray(freeArrays, block.compressedLength);
+					if (StreamUtils.readBlocking(in, block.compressedData, 0, block.compressedLength) != block.compressedLength) {
+						throw new IOException("Unexpected end of file");
+					}
+				} else if (StreamUtils.readBlocking(in, block.data, 0, block.length) != block.length) {
+					throw new IOException("Unexpected end of file");
+				}
+				pendingBlocks.add(executor.submit(new Callable<DataBlock>() {
+					@Override
+					public DataBlock call() throws IOException {
+						if (block.compressed && workerDecompressor.get().decompress(block.compressedData, 0, block.compressedLength, block.data, 0, block.length) < 0) {
+							throw new IOException("Error when decompressing datablock.");
+						}
+						return block;
+					}
+				}));
+			}
+			if (currentBlock != null) {
+				// the previous block has been read
+				freeArrays.add(currentBlock.data);
+				currentBlock = null;
+			}
+			if (pendingBlocks.isEmpty()) {
+				eof = true;
+				// CLO-5188: mark the buffer as empty for reading
+				buffer.clear();
+				buffer.flip();
+				return false;
+			}
+			currentBlock = getBlock(pendingBlocks.removeFirst());
+			if (currentBlock.compressedData != null) {
+				freeArrays.add(currentBlock.compressedData);
+				currentBlock.compressedData = null;
+			}
+			firstRecordPosition = currentBlock.firstRecordPosition;
+			buffer = CloverBuffer.wrap(currentBlock.data);
+			buffer.order(BUFFER_BYTE_ORDER);
+			buffer.limit(currentBlock.length);
+			return true;
+		}
+
+		/**
+		 * Drops the blocks read ahead, used when the position in the underlying channel changes.
+		 */
+		private void discardReadAhead() {
+			for (Future<DataBlock> future : pendingBlocks) {
+				future.cancel(false);
+			}
+			pendingBlocks.clear();
+			currentBlock = null;
+			dataEnd = false;
+		}
+
+		/**
+		 * Reads the next data block from the memory mapped file. The buffer of an uncompressed block
+		 * is the mapped region itself.
+		 */
+		private boolean readMappedDataBlock() throws IOException {
+			if (!readBlockHeader(nextBlock)) {
+				eof = true;
+				// CLO-5188: mark the buffer as empty for reading
+				buffer.clear();
+				buffer.flip();
+				return false;
+			}
+			final int rawLength = nextBlock.length;
+			final int length = nextBlock.compressed ? nextBlock.compressedLength : rawLength;
+			firstRecordPosition = nextBlock.firstRecordPosition;
+			ByteBuffer data = map(mappedPosition, length);
+			mappedPosition += length;
+			if (nextBlock.compressed) {
+				if (blockBuffer == null || blockBuffer.capacity() < rawLength) {
+					blockBuffer = CloverBuffer.wrap(new byte[findNearestPow2(rawLength)]);
+					blockBuffer.order(BUFFER_BYTE_ORDER);
+				}
+				if (decompressor.decompress(data, data.position(), length, blockBuffer.array(), 0, rawLength) < 0) {
+					throw new IOException("Error when decompressing datablock.");
+				}
+				buffer = blockBuffer;
+				buffer.clear();
+				buffer.limit(rawLength);
+			} else {
+				buffer = CloverBuffer.wrap(data.slice());
+				buffer.order(BUFFER_BYTE_ORDER);
+			}
+			return true;
+		}
+
+		/**
+		 * Maps a region of the file containing the requested bytes unless they are in the current region.
+		 * 
+		 * @return the mapped region with position and limit set to the requested bytes
+		 */
+		private ByteBuffer map(long filePosition, int length) throws IOException {
+			if (mappedBuffer == null || filePosition < mappedStart || filePosition + length > mappedStart + mappedBuffer.capacity()) {
+				long size = Math.min(mappedChannel.size() - filePosition, Math.max(MAPPED_REGION_SIZE, length));
+				if (size < length) {
+					throw new IOException("Unexpected end of file");
+				}
+				mappedBuffer = mappedChannel.map(MapMode.READ_ONLY, filePosition, size);
+				mappedStart = filePosition;
+			}
+			int offset = (int) (filePosition - mappedStart);
+			mappedBuffer.limit(offset + length).position(offset);
+			return mappedBuffer;
+		}
+
+		/**
+		 * Reads bytes from the underlying stream or from the memory mapped file.
+		 * 
+		 * @return number of read bytes, -1 at the end of file
+		 */
+		private int readBlocking(byte[] b, int length) throws IOException {
+			if (mappedChannel == null) {
+				return StreamUtils.readBlocking(in, b, 0, length);
+			}
+			long available = mappedChannel.size() - mappedPosition;
+			if (available <= 0) {
+				return -1;
+			}
+			int count = (int) Math.min(length, available);
+			map(mappedPosition, count).get(b, 0, count);
+			mappedPosition += count;
+			return count;
+		}
+
+		private void skipFully(long length) throws IOException {
+			if (mappedChannel != null) {
+				if (mappedPosition + length > mappedChannel.size()) {
+					throw new IOException("Unexpected end of file");
+				}
+				mappedPosition += length;
+				return;
+			}
+			while (length > 0) {
+				long skipped = in.skip(length);
+				if (skipped <= 0) {
+					if (in.read() < 0) {
+						throw new IOException("Unexpected end of file");
+					}
+					skipped = 1;
+				}
+				length -= skipped;
+			}
+		}
+
 		private final long findNearestBlockIndex(long startAt) {
 			int pos = Arrays.binarySearch(blocksIndex, startAt);
 			if (pos < 0) {
@@ -906,8 +1527,8 @@ public class CloverDataStream {
 			buffer.flip();
 			// test that it is our Index block
 			if (testBlockHeader(buffer, DataBlockType.INDEX)) {
-				int size = buffer.getInt(CLOVER_BLOCK_HEADER_LENGTH + 1);
-				int check = buffer.getInt(CLOVER_BLOCK_HEADER_LENGTH + 9);
+				int size = buffer.getInt(CLOVER_BLOCK_MAGIC_LENGTH + 1);
+				int check = buffer.getInt(CLOVER_BLOCK_MAGIC_LENGTH + 9);
 				// reallocate bytebuffer
 				buffer = ByteBuffer.wrap(new byte[CLOVER_BLOCK_HEADER_LENGTH + size]);
 				seekableChannel.position(seekableChannel.size() - CLOVER_BLOCK_HEADER_LENGTH - size);
@@ -922,9 +1543,13 @@ public class CloverDataStream {
 					throw new IOException("Invalid checksum when reading index data !!! Possibly corrupted data file.");
 				}
 				// we got correct checksum, so populate our index data
-				int storedindexsize = size / LONG_SIZE_BYTES;
+				int indexSize = getIndexSize(buffer, size);
+				if (indexSize < size) {
+					indexExtension = Arrays.copyOfRange(buffer.array(), indexSize, size - INDEX_EXTENSION_TRAILER_LENGTH);
+				}
+				int storedindexsize = indexSize / LONG_SIZE_BYTES;
 				blocksIndex = new long[storedindexsize];
-				buffer.limit(size);
+				buffer.limit(indexSize);
 				int index = 0;
 				while (buffer.hasRemaining() && (index < blocksIndex.length)) {
 					blocksIndex[index++] = buffer.getLong();
@@ -946,7 +1571,14 @@ public class CloverDataStream {
 			long blockPosition = findNearestBlockIndex(position);
 			if (blockPosition==-1) return -1;
 			
-			seekableChannel.position(blockPosition);
+			if (mappedChannel != null) {
+				mappedPosition = blockPosition;
+			} else {
+				seekableChannel.position(blockPosition);
+			}
+			if (executor != null) {
+				discardReadAhead();
+			}
 			if(!readDataBlock()) throw new IOException("Unable to seek.");
 			if (firstRecordPosition>=0){
 				buffer.position(firstRecordPosition);
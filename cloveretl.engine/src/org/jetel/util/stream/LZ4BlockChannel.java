@@ -0,0 +1,221 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Channel which stores each written buffer as one LZ4 compressed block into the underlying channel
+ * and transparently decompresses the blocks when reading. Intended for temporary spill files
+ * which are written and read by the same process.
+ *
+ * Each block consists of a header with raw and stored length (two ints) followed by the stored data.
+ * A block which does not compress well is stored raw, stored length is equal to raw length in that case.
+ *
+ * Positions are positions in the underlying channel, so {@link #position(long)} may be called only
+ * with a position of a block start, e.g. a value returned by {@link #position()} right after a write,
+ * by {@link #size()} or 0.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class LZ4BlockChannel implements SeekableByteChannel {
+
+	private static final int HEADER_SIZE = 8;
+
+	private final SeekableByteChannel channel;
+
+	private final LZ4BlockCompressor compressor = new LZ4BlockCompressor();
+
+	private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+	/** stored block for writing and reading */
+	private ByteBuffer block = ByteBuffer.allocate(0);
+
+	/** decompressed data of the block being read */
+	private ByteBuffer readBuffer = ByteBuffer.allocate(0);
+
+	/** number of raw bytes written */
+	private long rawBytes;
+
+	/** number of bytes written to the underlying channel */
+	private long storedBytes;
+
+	/**
+	 * @param channel the underlying channel
+	 */
+	public LZ4BlockChannel(SeekableByteChannel channel) {
+		this.channel = channel;
+		readBuffer.flip();
+	}
+
+	@Override
+	public int write(ByteBuffer src) throws IOException {
+		final int length = src.remaining();
+		if (length == 0) {
+			return 0;
+		}
+		discardReadBuffer();
+		if (block.capacity() < HEADER_SIZE + length) {
+			block = ByteBuffer.allocate(HEADER_SIZE + length);
+		}
+		block.clear();
+		block.position(HEADER_SIZE);
+		// compressed data larger than raw data are not stored
+		block.limit(HEADER_SIZE + length);
+		int storedLength = compressor.compress(src, block);
+		if (storedLength < 0) {
+			block.put(src);
+			storedLength = length;
+		}
+		block.putInt(0, length);
+		block.putInt(4, storedLength);
+		block.flip();
+		while (block.hasRemaining()) {
+			channel.write(block);
+		}
+		rawBytes += length;
+		storedBytes += HEADER_SIZE + storedLength;
+		return length;
+	}
+
+	@Override
+	public int read(ByteBuffer dst) throws IOException {
+		int count = 0;
+		while (dst.hasRemaining()) {
+			if (!readBuffer.hasRemaining() && !readBlock()) {
+				break;
+			}
+			final int length = Math.min(dst.remaining(), readBuffer.remaining());
+			final int oldLimit = readBuffer.limit();
+			readBuffer.limit(readBuffer.position() + length);
+			dst.put(readBuffer);
+			readBuffer.limit(oldLimit);
+			count += length;
+		}
+		return count == 0 && dst.hasRemaining() ? -1 : count;
+	}
+
+	/**
+	 * Reads and decompresses next block into the read buffer.
+	 * @return false if there is no next block
+	 */
+	private boolean readBlock() throws IOException {
+		header.clear();
+		if (!readFully(header)) {
+			return false;
+		}
+		header.flip();
+		final int rawLength = header.getInt();
+		final int storedLength = header.getInt();
+		if (block.capacity() < storedLength) {
+			block = ByteBuffer.allocate(storedLength);
+		}
+		block.clear();
+		block.limit(storedLength);
+		if (!readFully(block)) {
+			throw new IOException("Unexpected end of compressed block.");
+		}
+		block.flip();
+		if (readBuffer.capacity() < rawLength) {
+			readBuffer = ByteBuffer.allocate(rawLength);
+		}
+		readBuffer.clear();
+		if (storedLength == rawLength) {
+			readBuffer.put(block);
+		} else {
+			compressor.decompress(block, storedLength, readBuffer, rawLength);
+		}
+		readBuffer.flip();
+		return true;
+	}
+
+	/**
+	 * @return false if the end of channel is reached before any byte is read
+	 */
+	private boolean readFully(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				if (buffer.position() == 0) {
+					return false;
+				}
+				throw new IOException("Unexpected end of compressed block.");
+			}
+		}
+		return true;
+	}
+
+	private void discardReadBuffer() {
+		readBuffer.clear();
+		readBuffer.flip();
+	}
+
+	@Override
+	public long position() throws IOException {
+		return channel.position();
+	}
+
+	@Override
+	public LZ4BlockChannel position(long newPosition) throws IOException {
+		discardReadBuffer();
+		channel.position(newPosition);
+		return this;
+	}
+
+	@Override
+	public long size() throws IOException {
+		return channel.size();
+	}
+
+	@Override
+	public LZ4BlockChannel truncate(long size) throws IOException {
+		discardReadBuffer();
+		channel.truncate(size);
+		return this;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return channel.isOpen();
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * @return number of bytes written to this channel
+	 */
+	public long getRawBytes() {
+		return rawBytes;
+	}
+
+	/**
+	 * @return number of bytes written to the underlying channel, including block headers
+	 */
+	public long getStoredBytes() {
+		return storedBytes;
+	}
+
+}
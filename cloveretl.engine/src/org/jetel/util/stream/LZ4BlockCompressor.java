@@ -0,0 +1,98 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.nio.ByteBuffer;
+
+import org.jetel.util.stream.CloverDataStream.CompressorLZ4;
+import org.jetel.util.stream.CloverDataStream.DecompressorLZ4;
+
+/**
+ * LZ4 compression of whole blocks of data held in byte buffers, heap or direct.
+ * Uses the same compressor as {@link CloverDataStream} and the same threshold
+ * {@link CloverDataStream#MIN_COMPRESS_RATIO} - blocks which do not compress well
+ * are reported as not compressible and should be stored as they are.
+ *
+ * Instances are not thread-safe, internal arrays are reused between calls.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class LZ4BlockCompressor {
+
+	private final CompressorLZ4 compressor = new CompressorLZ4();
+	private final DecompressorLZ4 decompressor = new DecompressorLZ4();
+
+	private byte[] sourceArray = new byte[0];
+	private byte[] targetArray = new byte[0];
+
+	/**
+	 * Compresses remaining bytes of the source buffer and puts the compressed bytes into the target buffer.
+	 * Position of both buffers is moved only if the data are compressed.
+	 *
+	 * @param source buffer with data to compress
+	 * @param target buffer for compressed data
+	 * @return length of compressed data or -1 if the data are not worth compressing
+	 * or the compressed data do not fit into the target buffer
+	 */
+	public int compress(ByteBuffer source, ByteBuffer target) {
+		final int length = source.remaining();
+		if (length == 0) {
+			return -1;
+		}
+		if (sourceArray.length < length) {
+			sourceArray = new byte[length];
+		}
+		final int maxLength = compressor.maxCompressedLength(length);
+		if (targetArray.length < maxLength) {
+			targetArray = new byte[maxLength];
+		}
+		source.duplicate().get(sourceArray, 0, length);
+		final int compressedLength = compressor.compress(sourceArray, 0, length, targetArray, 0);
+		if (compressedLength > length * CloverDataStream.MIN_COMPRESS_RATIO || compressedLength > target.remaining()) {
+			return -1;
+		}
+		target.put(targetArray, 0, compressedLength);
+		source.position(source.limit());
+		return compressedLength;
+	}
+
+	/**
+	 * Decompresses a block created by {@link #compress(ByteBuffer, ByteBuffer)}.
+	 *
+	 * @param source buffer positioned at the compressed data
+	 * @param compressedLength length of compressed data
+	 * @param target buffer for decompressed data, must have enough space for them
+	 * @param rawLength length of decompressed data
+	 */
+	public void decompress(ByteBuffer source, int compressedLength, ByteBuffer target, int rawLength) {
+		if (sourceArray.length < compressedLength) {
+			sourceArray = new byte[compressedLength];
+		}
+		if (targetArray.length < rawLength) {
+			targetArray = new byte[rawLength];
+		}
+		source.get(sourceArray, 0, compressedLength);
+		decompressor.decompress(sourceArray, 0, compressedLength, targetArray, 0, rawLength);
+		target.put(targetArray, 0, rawLength);
+	}
+
+}
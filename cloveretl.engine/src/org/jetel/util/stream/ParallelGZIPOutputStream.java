@@ -0,0 +1,252 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output stream which compresses blocks of the data on a pool of threads.<br>
+ * Each block is compressed by its own {@link Deflater} primed with the last 32 kB of the previous
+ * block as the dictionary and ends with a sync flush, so the compressed blocks can be simply concatenated
+ * into a single deflate stream. The last block is finished. The result is a standard gzip file
+ * (single member), readable by {@link java.util.zip.GZIPInputStream} or gunzip.
+ *
+ * The checksum is computed on the writing thread. At most twice as many blocks as threads are
+ * compressed or waiting for write at once.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ParallelGZIPOutputStream extends OutputStream {
+
+	private static final int DICTIONARY_SIZE = 32768;
+
+	private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r);
+			t.setName("Gzip compression " + t.getId());
+			t.setDaemon(true);
+			return t;
+		}
+	};
+
+	private final OutputStream out;
+	private final int level;
+	private final int blockSize;
+	private final int maxPendingBlocks;
+	private final ExecutorService executor;
+
+	/** compressed blocks in the order of the data */
+	private final LinkedList<Future<byte[]>> pendingBlocks = new LinkedList<Future<byte[]>>();
+
+	private final CRC32 crc = new CRC32();
+	private long totalIn;
+
+	private byte[] block;
+	private int blockLength;
+
+	/** previous block used as dictionary of the next block */
+	private byte[] previousBlock;
+	private int previousBlockLength;
+
+	private boolean closed;
+
+	/**
+	 * @param out the underlying stream
+	 * @param level compression level, {@link Deflater#DEFAULT_COMPRESSION} or 0-9
+	 * @param threads number of compressing threads
+	 * @param blockSize size of uncompressed blocks
+	 * @throws IOException if the gzip header cannot be written
+	 */
+	public ParallelGZIPOutputStream(OutputStream out, int level, int threads, int blockSize) throws IOException {
+		this.out = out;
+		this.level = level;
+		this.blockSize = Math.max(blockSize, DICTIONARY_SIZE);
+		threads = Math.max(threads, 1);
+		this.maxPendingBlocks = 2 * threads;
+		this.executor = Executors.newFixedThreadPool(threads, THREAD_FACTORY);
+		this.block = new byte[this.blockSize];
+		try {
+			out.write(HEADER);
+		} catch (IOException e) {
+			executor.shutdownNow();
+			throw e;
+		}
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		block[blockLength++] = (byte) b;
+		if (blockLength == block.length) {
+			submitBlock(false);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		while (len > 0) {
+			int count = Math.min(len, block.length - blockLength);
+			System.arraycopy(b, off, block, blockLength, count);
+			blockLength += count;
+			off += count;
+			len -= count;
+			if (blockLength == block.length) {
+				submitBlock(false);
+			}
+		}
+	}
+
+	/**
+	 * Compresses buffered data and writes all compressed blocks to the underlying stream.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		if (blockLength > 0) {
+			submitBlock(false);
+		}
+		while (!pendingBlocks.isEmpty()) {
+			writeBlock(pendingBlocks.removeFirst());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Writes the last block and the gzip trailer and closes the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			submitBlock(true);
+			while (!pendingBlocks.isEmpty()) {
+				writeBlock(pendingBlocks.removeFirst());
+			}
+			byte[] trailer = new byte[8];
+			writeInt(trailer, 0, (int) crc.getValue());
+			writeInt(trailer, 4, (int) totalIn);
+			out.write(trailer);
+		} finally {
+			executor.shutdownNow();
+			out.close();
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+	private void submitBlock(final boolean last) throws IOException {
+		final byte[] data = block;
+		final int length = blockLength;
+		final byte[] dictionary = previousBlock;
+		final int dictionaryLength = previousBlockLength;
+		crc.update(data, 0, length);
+		totalIn += length;
+
+		pendingBlocks.add(executor.submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() {
+				return compress(data, length, dictionary, dictionaryLength, last);
+			}
+		}));
+
+		// the submitted array is not modified any more, it is used as the dictionary of the next block
+		previousBlock = data;
+		previousBlockLength = length;
+		block = new byte[blockSize];
+		blockLength = 0;
+
+		while (pendingBlocks.size() > maxPendingBlocks) {
+			writeBlock(pendingBlocks.removeFirst());
+		}
+	}
+
+	private byte[] compress(byte[] data, int length, byte[] dictionary, int dictionaryLength, boolean last) {
+		Deflater deflater = new Deflater(level, true);
+		try {
+			if (dictionary != null && dictionaryLength > 0) {
+				int dictionarySize = Math.min(dictionaryLength, DICTIONARY_SIZE);
+				// copied, setDictionary() with an offset produces corrupted output on some JDKs
+				deflater.setDictionary(Arrays.copyOfRange(dictionary, dictionaryLength - dictionarySize, dictionaryLength));
+			}
+			deflater.setInput(data, 0, length);
+			if (last) {
+				deflater.finish();
+			}
+			byte[] result = new byte[length + (length >> 3) + 64];
+			int resultLength = 0;
+			while (true) {
+				resultLength += deflater.deflate(result, resultLength, result.length - resultLength, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+				if (last ? deflater.finished() : resultLength < result.length) {
+					break;
+				}
+				if (resultLength == result.length) {
+					result = Arrays.copyOf(result, 2 * result.length);
+				}
+			}
+			return Arrays.copyOf(result, resultLength);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private void writeBlock(Future<byte[]> pendingBlock) throws IOException {
+		try {
+			out.write(pendingBlock.get());
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException("Interrupted while waiting for compressed data");
+		} catch (ExecutionException e) {
+			throw new IOException("Compression failed", e.getCause());
+		}
+	}
+
+	private static void writeInt(byte[] b, int offset, int value) {
+		b[offset] = (byte) value;
+		b[offset + 1] = (byte) (value >> 8);
+		b[offset + 2] = (byte) (value >> 16);
+		b[offset + 3] = (byte) (value >> 24);
+	}
+
+}
@@ -0,0 +1,428 @@
+#!/usr/bin/env python3
+"""
+Generates the Parquet fixtures used by ParquetDataParserTest.
+
+The files are encoded byte by byte according to the Parquet format specification
+(parquet.thrift, Encodings.md) and the Thrift compact protocol, independently of the
+CloverETL Parquet codec. They use the layout of files written by parquet-cpp (pyarrow):
+dictionary pages, RLE/bit-packed hybrid definition levels and dictionary indices,
+OPTIONAL columns, data pages v2, GZIP and SNAPPY compression, FIXED_LEN_BYTE_ARRAY decimals,
+statistics with both deprecated and new min/max fields and footer fields which
+are ignored by the reader (key-value metadata, column orders, logical types,
+encoding stats, page statistics).
+
+The expected values are computed by the same formulas in ParquetDataParserTest.
+
+Usage: python3 generate_fixtures.py (writes the files into the directory of the script)
+"""
+
+import gzip
+import io
+import os
+import struct
+
+# Thrift compact protocol types
+T_TRUE, T_FALSE, T_BYTE, T_I16, T_I32, T_I64, T_DOUBLE, T_BINARY, T_LIST, T_SET, T_MAP, T_STRUCT = range(1, 13)
+
+# parquet.thrift enums
+BOOLEAN, INT32, INT64, INT96, FLOAT, DOUBLE, BYTE_ARRAY, FIXED_LEN_BYTE_ARRAY = range(8)
+REQUIRED, OPTIONAL, REPEATED = range(3)
+CT_UTF8, CT_DECIMAL, CT_DATE, CT_TIMESTAMP_MICROS = 0, 5, 6, 10
+PLAIN, PLAIN_DICTIONARY, RLE, RLE_DICTIONARY = 0, 2, 3, 8
+UNCOMPRESSED, SNAPPY, GZIP = 0, 1, 2
+DATA_PAGE, DICTIONARY_PAGE, DATA_PAGE_V2 = 0, 2, 3
+
+CREATED_BY = "parquet-format fixture encoder (CloverETL test data)"
+
+
+def varint(value):
+    out = bytearray()
+    while value & ~0x7F:
+        out.append((value & 0x7F) | 0x80)
+        value >>= 7
+    out.append(value)
+    return bytes(out)
+
+
+def zigzag(value):
+    return (value << 1) ^ (value >> 63)
+
+
+class Struct(object):
+    """Thrift structure, fields are tuples (id, type, value) in the order of the ids."""
+
+    def __init__(self, *fields):
+        self.fields = [f for f in fields if f is not None]
+
+
+class List(object):
+
+    def __init__(self, element_type, items):
+        self.element_type = element_type
+        self.items = items
+
+
+def encode_value(thrift_type, value):
+    if thrift_type in (T_I16, T_I32, T_I64):
+        return varint(zigzag(value))
+    if thrift_type == T_BINARY:
+        if isinstance(value, str):
+            value = value.encode("utf-8")
+        return varint(len(value)) + value
+    if thrift_type == T_STRUCT:
+        return encode_struct(value)
+    if thrift_type == T_LIST:
+        size = len(value.items)
+        header = bytes([(size << 4) | value.element_type]) if size < 15 else bytes([0xF0 | value.element_type]) + varint(size)
+        return header + b"".join(encode_value(value.element_type, item) for item in value.items)
+    raise ValueError(thrift_type)
+
+
+def encode_struct(value):
+    out = bytearray()
+    last = 0
+    for field_id, thrift_type, field_value in value.fields:
+        if thrift_type in (T_TRUE, T_FALSE):
+            thrift_type = T_TRUE if field_value else T_FALSE
+        delta = field_id - last
+        if 0 < delta <= 15:
+            out.append((delta << 4) | thrift_type)
+        else:
+            out.append(thrift_type)
+            out += varint(zigzag(field_id))
+        last = field_id
+        if thrift_type not in (T_TRUE, T_FALSE):
+            out += encode_value(thrift_type, field_value)
+    out.append(0)
+    return bytes(out)
+
+
+def hybrid(values, bit_width):
+    """RLE/bit-packed hybrid encoding - blocks of 8 values with a single value are merged into RLE runs,
+    the other blocks into bit-packed runs, the last block is padded by zeros."""
+    byte_width = (bit_width + 7) // 8
+    blocks = [values[i:i + 8] for i in range(0, len(values), 8)]
+    out = bytearray()
+    i = 0
+    while i < len(blocks):
+        block = blocks[i]
+        if len(set(block)) == 1:
+            count = 0
+            value = block[0]
+            while i < len(blocks) and set(blocks[i]) == {value}:
+                count += len(blocks[i])
+                i += 1
+            out += varint(count << 1)
+            out += value.to_bytes(byte_width, "little")
+        else:
+            packed = []
+            while i < len(blocks) and len(set(blocks[i])) > 1:
+                packed.append(blocks[i] + [0] * (8 - len(blocks[i])))
+                i += 1
+            out += varint((len(packed) << 1) | 1)
+            bits = 0
+            bit_count = 0
+            for group in packed:
+                for v in group:
+                    bits |= v << bit_count
+                    bit_count += bit_width
+            out += bits.to_bytes(len(packed) * bit_width, "little")
+    return bytes(out)
+
+
+def plain(physical_type, value, type_length=0):
+    if physical_type == BOOLEAN:
+        return bytes([1 if value else 0])
+    if physical_type == INT32:
+        return struct.pack("<i", value)
+    if physical_type == INT64:
+        return struct.pack("<q", value)
+    if physical_type == DOUBLE:
+        return struct.pack("<d", value)
+    if physical_type == BYTE_ARRAY:
+        data = value.encode("utf-8")
+        return struct.pack("<i", len(data)) + data
+    if physical_type == FIXED_LEN_BYTE_ARRAY:
+        return value.to_bytes(type_length, "big", signed=True)
+    raise ValueError(physical_type)
+
+
+def plain_values(physical_type, values, type_length=0):
+    if physical_type == BOOLEAN:
+        bits = 0
+        for i, v in enumerate(values):
+            if v:
+                bits |= 1 << i
+        return bits.to_bytes((len(values) + 7) // 8, "little")
+    return b"".join(plain(physical_type, v, type_length) for v in values)
+
+
+def stats_value(physical_type, value, type_length=0):
+    data = plain(physical_type, value, type_length)
+    return data[4:] if physical_type == BYTE_ARRAY else data
+
+
+class Column(object):
+
+    def __init__(self, name, physical_type, repetition, values, converted_type=None, dictionary=False,
+                 type_length=0, scale=0, precision=0, logical_type=None, sort_key=None):
+        self.name = name
+        self.physical_type = physical_type
+        self.repetition = repetition
+        self.values = values
+        self.converted_type = converted_type
+        self.dictionary = dictionary
+        self.type_length = type_length
+        self.scale = scale
+        self.precision = precision
+        self.logical_type = logical_type
+        self.sort_key = sort_key or (lambda v: v)
+
+    def schema_element(self):
+        return Struct(
+            (1, T_I32, self.physical_type),
+            (2, T_I32, self.type_length) if self.physical_type == FIXED_LEN_BYTE_ARRAY else None,
+            (3, T_I32, self.repetition),
+            (4, T_BINARY, self.name),
+            (6, T_I32, self.converted_type) if self.converted_type is not None else None,
+            (7, T_I32, self.scale) if self.converted_type == CT_DECIMAL else None,
+            (8, T_I32, self.precision) if self.converted_type == CT_DECIMAL else None,
+            (10, T_STRUCT, self.logical_type) if self.logical_type is not None else None)
+
+
+def snappy_literal(data):
+    size = len(data) - 1
+    if size < 60:
+        return bytes([size << 2]) + data
+    length_bytes = (size.bit_length() + 7) // 8
+    return bytes([(59 + length_bytes) << 2]) + size.to_bytes(length_bytes, "little") + data
+
+
+def snappy_copy(offset, length):
+    """Copies with 1 byte offset where possible, 2 byte offset otherwise, 4 byte offset for offsets over 64 KiB."""
+    if 4 <= length <= 11 and offset < 2048:
+        return bytes([((offset >> 8) << 5) | ((length - 4) << 2) | 1, offset & 0xFF])
+    if offset < 65536:
+        return bytes([((length - 1) << 2) | 2]) + offset.to_bytes(2, "little")
+    return bytes([((length - 1) << 2) | 3]) + offset.to_bytes(4, "little")
+
+
+def snappy(data):
+    """Snappy block format (format_description.txt of Snappy) - greedy matching of 4 byte sequences,
+    copies up to 64 bytes, overlapping copies for runs."""
+    out = bytearray(varint(len(data)))
+    last = {}
+    literal_start = 0
+    i = 0
+    while i + 4 <= len(data):
+        key = data[i:i + 4]
+        candidate = last.get(key)
+        last[key] = i
+        if candidate is None:
+            i += 1
+            continue
+        length = 4
+        while i + length < len(data) and length < 64 and data[candidate + length] == data[i + length]:
+            length += 1
+        if literal_start < i:
+            out += snappy_literal(data[literal_start:i])
+        out += snappy_copy(i - candidate, length)
+        i += length
+        literal_start = i
+    if literal_start < len(data):
+        out += snappy_literal(data[literal_start:])
+    return bytes(out)
+
+
+def compress(codec, data):
+    if codec == UNCOMPRESSED:
+        return data
+    if codec == SNAPPY:
+        return snappy(data)
+    out = io.BytesIO()
+    with gzip.GzipFile(fileobj=out, mode="wb", mtime=0) as f:
+        f.write(data)
+    return out.getvalue()
+
+
+def write_chunk(out, column, rows, codec, page_version, page_rows, uncompressed_pages=()):
+    """Writes the column chunk of the given rows, returns ColumnChunk structure."""
+    values = [column.values(i) for i in rows]
+    non_null = [v for v in values if v is not None]
+    chunk_start = out.tell()
+    uncompressed_total = 0
+    dictionary_offset = None
+    encodings = set()
+    page_encodings = []
+
+    dictionary = []
+    if column.dictionary:
+        for v in non_null:
+            if v not in dictionary:
+                dictionary.append(v)
+        data = plain_values(column.physical_type, dictionary, column.type_length)
+        compressed = compress(codec, data)
+        dictionary_encoding = PLAIN_DICTIONARY if page_version == 1 else PLAIN
+        header = encode_struct(Struct(
+            (1, T_I32, DICTIONARY_PAGE),
+            (2, T_I32, len(data)),
+            (3, T_I32, len(compressed)),
+            (7, T_STRUCT, Struct((1, T_I32, len(dictionary)), (2, T_I32, dictionary_encoding), (3, T_FALSE, False)))))
+        dictionary_offset = out.tell()
+        out.write(header + compressed)
+        uncompressed_total += len(header) + len(data)
+        encodings.add(dictionary_encoding)
+        page_encodings.append((DICTIONARY_PAGE, dictionary_encoding))
+    data_offset = out.tell()
+
+    max_level = 1 if column.repetition == OPTIONAL else 0
+    for page_index, start in enumerate(range(0, len(values), page_rows)):
+        page_values = values[start:start + page_rows]
+        page_non_null = [v for v in page_values if v is not None]
+        levels = hybrid([0 if v is None else 1 for v in page_values], 1) if max_level else b""
+        if column.dictionary:
+            bit_width = max(1, (len(dictionary) - 1).bit_length())
+            encoded = bytes([bit_width]) + hybrid([dictionary.index(v) for v in page_non_null], bit_width)
+            encoding = PLAIN_DICTIONARY if page_version == 1 else RLE_DICTIONARY
+        else:
+            encoded = plain_values(column.physical_type, page_non_null, column.type_length)
+            encoding = PLAIN
+        encodings.add(encoding)
+        page_encodings.append((DATA_PAGE if page_version == 1 else DATA_PAGE_V2, encoding))
+        page_stats = None
+        if page_non_null and column.physical_type != BOOLEAN:
+            page_stats = Struct(
+                (3, T_I64, len(page_values) - len(page_non_null)),
+                (5, T_BINARY, stats_value(column.physical_type, max(page_non_null, key=column.sort_key), column.type_length)),
+                (6, T_BINARY, stats_value(column.physical_type, min(page_non_null, key=column.sort_key), column.type_length)))
+        if page_version == 1:
+            data = (struct.pack("<i", len(levels)) + levels if max_level else b"") + encoded
+            compressed = compress(codec, data)
+            header = encode_struct(Struct(
+                (1, T_I32, DATA_PAGE),
+                (2, T_I32, len(data)),
+                (3, T_I32, len(compressed)),
+                (5, T_STRUCT, Struct((1, T_I32, len(page_values)), (2, T_I32, encoding), (3, T_I32, RLE), (4, T_I32, RLE),
+                                     (5, T_STRUCT, page_stats) if page_stats is not None else None))))
+            out.write(header + compressed)
+            uncompressed_total += len(header) + len(data)
+        else:
+            is_compressed = page_index not in uncompressed_pages
+            compressed = compress(codec, encoded) if is_compressed else encoded
+            header = encode_struct(Struct(
+                (1, T_I32, DATA_PAGE_V2),
+                (2, T_I32, len(levels) + len(encoded)),
+                (3, T_I32, len(levels) + len(compressed)),
+                (8, T_STRUCT, Struct((1, T_I32, len(page_values)), (2, T_I32, len(page_values) - len(page_non_null)),
+                                     (3, T_I32, len(page_values)), (4, T_I32, encoding), (5, T_I32, len(levels)),
+                                     (6, T_I32, 0), (7, T_TRUE, is_compressed),
+                                     (8, T_STRUCT, page_stats) if page_stats is not None else None))))
+            out.write(header + levels + compressed)
+            uncompressed_total += len(header) + len(levels) + len(encoded)
+    if max_level:
+        encodings.add(RLE)
+
+    statistics = Struct((3, T_I64, len(values) - len(non_null)))
+    if non_null and column.physical_type != BOOLEAN:
+        min_value = stats_value(column.physical_type, min(non_null, key=column.sort_key), column.type_length)
+        max_value = stats_value(column.physical_type, max(non_null, key=column.sort_key), column.type_length)
+        fields = []
+        if column.physical_type not in (BYTE_ARRAY, FIXED_LEN_BYTE_ARRAY):
+            # deprecated signed min/max, written by old writers for numeric columns
+            fields += [(1, T_BINARY, max_value), (2, T_BINARY, min_value)]
+        fields += [(3, T_I64, len(values) - len(non_null)), (5, T_BINARY, max_value), (6, T_BINARY, min_value),
+                   (7, T_TRUE, True), (8, T_TRUE, True)]
+        statistics = Struct(*fields)
+
+    meta = Struct(
+        (1, T_I32, column.physical_type),
+        (2, T_LIST, List(T_I32, sorted(encodings))),
+        (3, T_LIST, List(T_BINARY, [column.name])),
+        (4, T_I32, codec),
+        (5, T_I64, len(values)),
+        (6, T_I64, uncompressed_total),
+        (7, T_I64, out.tell() - chunk_start),
+        (9, T_I64, data_offset),
+        (11, T_I64, dictionary_offset) if dictionary_offset is not None else None,
+        (12, T_STRUCT, statistics),
+        (13, T_LIST, List(T_STRUCT, [Struct((1, T_I32, t), (2, T_I32, e), (3, T_I32, 1)) for t, e in page_encodings])))
+    return Struct((2, T_I64, chunk_start), (3, T_STRUCT, meta)), uncompressed_total
+
+
+def write_file(path, columns, row_groups, codec, page_version, page_rows, version, uncompressed_pages=()):
+    out = io.BytesIO()
+    out.write(b"PAR1")
+    groups = []
+    for rows in row_groups:
+        chunks = []
+        total = 0
+        for column in columns:
+            chunk, size = write_chunk(out, column, rows, codec, page_version, page_rows, uncompressed_pages)
+            chunks.append(chunk)
+            total += size
+        groups.append(Struct((1, T_LIST, List(T_STRUCT, chunks)), (2, T_I64, total), (3, T_I64, len(rows))))
+    schema = [Struct((4, T_BINARY, "schema"), (5, T_I32, len(columns)))] + [c.schema_element() for c in columns]
+    footer = encode_struct(Struct(
+        (1, T_I32, version),
+        (2, T_LIST, List(T_STRUCT, schema)),
+        (3, T_I64, sum(len(rows) for rows in row_groups)),
+        (4, T_LIST, List(T_STRUCT, groups)),
+        (5, T_LIST, List(T_STRUCT, [Struct((1, T_BINARY, "fixture"), (2, T_BINARY, os.path.basename(path)))])),
+        (6, T_BINARY, CREATED_BY),
+        (7, T_LIST, List(T_STRUCT, [Struct((1, T_STRUCT, Struct())) for _ in columns]))))
+    out.write(footer + struct.pack("<i", len(footer)) + b"PAR1")
+    with open(path, "wb") as f:
+        f.write(out.getvalue())
+
+
+CITIES = ["Praha", "Brno", "Ostrava", "Plzeň", "Liberec"]
+
+
+def dictionary_v1(directory):
+    """Two row groups of 100 rows, data pages v1 of 60 rows, uncompressed."""
+    columns = [
+        Column("id", INT32, REQUIRED, lambda i: i),
+        Column("city", BYTE_ARRAY, OPTIONAL, lambda i: None if i % 4 == 3 else CITIES[i % 5], CT_UTF8, dictionary=True,
+               logical_type=Struct((1, T_STRUCT, Struct())), sort_key=lambda v: v.encode("utf-8")),
+        Column("amount", INT64, OPTIONAL, lambda i: None if i % 6 == 5 else (i % 10) * 1000, dictionary=True),
+        Column("score", DOUBLE, OPTIONAL, lambda i: None if i % 5 == 2 else i * 0.5),
+        Column("flag", BOOLEAN, REQUIRED, lambda i: i % 3 == 0),
+    ]
+    write_file(os.path.join(directory, "dictionary_v1.parquet"), columns, [range(0, 100), range(100, 200)],
+               UNCOMPRESSED, 1, 60, 1)
+
+
+def gzip_v2(directory):
+    """One row group of 150 rows, data pages v2 of 64 rows compressed by GZIP, the second page of each
+    column is stored uncompressed."""
+    columns = [
+        Column("id", INT64, REQUIRED, lambda i: i),
+        Column("name", BYTE_ARRAY, OPTIONAL, lambda i: None if i % 7 == 0 else "name %d" % (i % 11), CT_UTF8,
+               dictionary=True, sort_key=lambda v: v.encode("utf-8")),
+        Column("day", INT32, OPTIONAL, lambda i: None if i % 9 == 4 else 18000 + i, CT_DATE),
+        Column("price", FIXED_LEN_BYTE_ARRAY, OPTIONAL, lambda i: None if i % 10 == 0 else i * 137 - 5000, CT_DECIMAL,
+               type_length=5, scale=2, precision=10),
+        Column("ts", INT64, REQUIRED, lambda i: 1600000000000000 + i * 1234567, CT_TIMESTAMP_MICROS),
+    ]
+    write_file(os.path.join(directory, "gzip_v2.parquet"), columns, [range(0, 150)], GZIP, 2, 64, 2,
+               uncompressed_pages=(1,))
+
+
+def snappy_v1(directory):
+    """One row group of 300 rows, data pages v1 of 100 rows compressed by SNAPPY, long repeated strings
+    and runs of equal values for literals with extra length bytes and overlapping copies."""
+    columns = [
+        Column("id", INT32, REQUIRED, lambda i: i),
+        Column("text", BYTE_ARRAY, OPTIONAL, lambda i: None if i % 8 == 7 else ("text %d " % (i % 13)) * (i % 30), CT_UTF8),
+        Column("amount", INT64, REQUIRED, lambda i: (i // 50) * 1000),
+        Column("name", BYTE_ARRAY, OPTIONAL, lambda i: None if i % 5 == 1 else CITIES[i % 5], CT_UTF8, dictionary=True,
+               sort_key=lambda v: v.encode("utf-8")),
+    ]
+    write_file(os.path.join(directory, "snappy_v1.parquet"), columns, [range(0, 300)], SNAPPY, 1, 100, 1)
+
+
+if __name__ == "__main__":
+    directory = os.path.dirname(os.path.abspath(__file__))
+    dictionary_v1(directory)
+    gzip_v2(directory)
+    snappy_v1(directory)
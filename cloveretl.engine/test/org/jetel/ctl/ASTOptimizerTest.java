@@ -0,0 +1,145 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.ctl;
+
+import java.math.BigDecimal;
+
+import org.jetel.ctl.ASTnode.CLVFFunctionCall;
+import org.jetel.ctl.ASTnode.CLVFIfStatement;
+import org.jetel.ctl.ASTnode.CLVFLiteral;
+import org.jetel.ctl.ASTnode.CLVFVariableDeclaration;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ASTOptimizerTest extends CloverTestCase {
+
+	private static final String CODE =
+			"integer i = 2 * 3 + 1;\n" +
+			"string s = upperCase(\"ab\" + \"c\");\n" +
+			"decimal d = 1.5D * 2;\n" +
+			"boolean b = 1 < 2 && i > 0;\n" +
+			"integer branch;\n" +
+			"if (1 > 2) { branch = 1; } else { integer local = 2; branch = local; }\n" +
+			"integer ternary = false ? i : 10;\n" +
+			"integer zero = 0;\n" +
+			"if (false) { zero = 1 / 0; }\n";
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+	}
+
+	public void testOptimizedTree() {
+		TLCompiler compiler = compile(CODE);
+		int changes = new ASTOptimizer(compiler.parser, null, null).optimize(compiler.getStart());
+		assertTrue(changes > 0);
+
+		final int[] counts = new int[3];
+		compiler.getStart().jjtAccept(new NavigatingVisitor() {
+			@Override
+			public Object visit(CLVFIfStatement node, Object data) {
+				counts[0]++;
+				assertEquals(Boolean.TRUE, ((CLVFLiteral) node.jjtGetChild(0)).getValue());
+				assertEquals(2, node.jjtGetNumChildren());
+				return super.visit(node, data);
+			}
+
+			@Override
+			public Object visit(CLVFFunctionCall node, Object data) {
+				counts[1]++;
+				return super.visit(node, data);
+			}
+
+			@Override
+			public Object visit(CLVFVariableDeclaration node, Object data) {
+				if (node.jjtGetNumChildren() > 1 && node.jjtGetChild(1) instanceof CLVFLiteral) {
+					counts[2]++;
+				}
+				return super.visit(node, data);
+			}
+		}, null);
+		// the second if statement was removed
+		assertEquals(1, counts[0]);
+		assertEquals(0, counts[1]);
+		// i, s, d, ternary, zero, local
+		assertEquals(6, counts[2]);
+
+		// nothing more to optimize
+		assertEquals(0, new ASTOptimizer(compiler.parser, null, null).optimize(compiler.getStart()));
+	}
+
+	public void testSameResults() {
+		TransformLangExecutor plain = execute(CODE, false);
+		TransformLangExecutor optimized = execute(CODE, true);
+		for (TransformLangExecutor executor : new TransformLangExecutor[] { plain, optimized }) {
+			assertEquals(7, executor.getVariableValue("i"));
+			assertEquals("ABC", executor.getVariableValue("s"));
+			assertEquals(0, new BigDecimal("3").compareTo((BigDecimal) executor.getVariableValue("d")));
+			assertEquals(Boolean.TRUE, executor.getVariableValue("b"));
+			assertEquals(2, executor.getVariableValue("branch"));
+			assertEquals(10, executor.getVariableValue("ternary"));
+			assertEquals(0, executor.getVariableValue("zero"));
+		}
+	}
+
+	public void testRuntimeErrorPreserved() {
+		TLCompiler compiler = compile("integer x = 1 / 0;");
+		assertEquals(0, new ASTOptimizer(compiler.parser, null, null).optimize(compiler.getStart()));
+	}
+
+	public void testNullLeftOperandPreserved() {
+		final String[] codes = { "boolean n = null; boolean r = n && true;", "boolean n = null; boolean r = n || false;" };
+		for (String code : codes) {
+			TLCompiler compiler = compile(code);
+			assertEquals(code, 0, new ASTOptimizer(compiler.parser, null, null).optimize(compiler.getStart()));
+			for (boolean optimize : new boolean[] { false, true }) {
+				try {
+					execute(code, optimize);
+					fail(code + " must fail on the null operand");
+				} catch (RuntimeException e) {
+					// expected
+				}
+			}
+		}
+	}
+
+	private TLCompiler compile(String code) {
+		TLCompiler compiler = new TLCompiler();
+		compiler.validate(code);
+		assertEquals(compiler.getDiagnosticMessages().toString(), 0, compiler.errorCount());
+		return compiler;
+	}
+
+	private TransformLangExecutor execute(String code, boolean optimize) {
+		TLCompiler compiler = compile(code);
+		compiler.setOptimize(optimize);
+		TransformLangExecutor executor = (TransformLangExecutor) compiler.getCompiledCode();
+		executor.keepGlobalScope();
+		executor.init();
+		executor.execute();
+		return executor;
+	}
+
+}
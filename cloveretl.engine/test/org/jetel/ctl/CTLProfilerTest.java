@@ -0,0 +1,134 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.ctl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetel.ctl.ASTnode.CLVFFunctionDeclaration;
+import org.jetel.data.DataRecord;
+import org.jetel.graph.runtime.jmx.CTLProfileEntry;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class CTLProfilerTest extends CloverTestCase {
+
+	private static final String CODE =
+			"function integer square(integer i) {\n" +
+			"	return i * i;\n" +
+			"}\n" +
+			"function integer transform() {\n" +
+			"	integer sum = 0;\n" +
+			"	for (integer i = 0; i < 10; i++) {\n" +
+			"		sum = sum + square(i);\n" +
+			"	}\n" +
+			"	string s = upperCase(\"abc\" + sum);\n" +
+			"	return sum;\n" +
+			"}\n";
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+	}
+
+	public void testProfile() {
+		TLCompiler compiler = new TLCompiler();
+		compiler.validate(CODE);
+		assertEquals(compiler.getDiagnosticMessages().toString(), 0, compiler.errorCount());
+		TransformLangExecutor executor = (TransformLangExecutor) compiler.getCompiledCode();
+		CTLProfiler profiler = new CTLProfiler();
+		executor.setProfiler(profiler);
+		executor.keepGlobalScope();
+		executor.init();
+		executor.execute();
+
+		CLVFFunctionDeclaration transform = executor.getFunction("transform");
+		for (int i = 0; i < 3; i++) {
+			assertEquals(285, executor.executeFunction(transform, new Object[0], new DataRecord[0], new DataRecord[0]));
+		}
+
+		Map<String, CTLProfileEntry> entries = new HashMap<String, CTLProfileEntry>();
+		for (CTLProfileEntry entry : profiler.getProfile()) {
+			assertTrue(entry.getTotalTime() >= 0);
+			entries.put(entry.getKind() + " " + entry.getName(), entry);
+		}
+		assertEquals(entries.keySet().toString(), 3, count(entries, CTLProfileEntry.Kind.FUNCTION));
+		assertEquals(3, entries.get("FUNCTION transform").getInvocationCount());
+		assertEquals(30, entries.get("FUNCTION square").getInvocationCount());
+		assertEquals(3, entries.get("FUNCTION upperCase").getInvocationCount());
+		// body of square()
+		assertEquals(30, entries.get("LINE line 2").getInvocationCount());
+		// body of the loop
+		assertEquals(30, entries.get("LINE line 7").getInvocationCount());
+		assertEquals(3, entries.get("LINE line 9").getInvocationCount());
+		assertTrue(entries.get("FUNCTION transform").getTotalTime() >= entries.get("FUNCTION square").getTotalTime());
+	}
+
+	public void testMerge() {
+		CTLProfiler first = new CTLProfiler();
+		CTLProfiler second = new CTLProfiler();
+		first.functionFinished("transform", System.nanoTime());
+		second.functionFinished("transform", System.nanoTime());
+		second.functionFinished("transform", System.nanoTime());
+		second.functionFinished("init", System.nanoTime());
+
+		CTLProfileEntry[] merged = CTLProfiler.merge(Arrays.asList(first, second));
+		assertEquals(2, merged.length);
+		assertEquals("transform", merged[0].getName());
+		assertEquals(3, merged[0].getInvocationCount());
+		assertEquals("init", merged[1].getName());
+		assertEquals(1, merged[1].getInvocationCount());
+	}
+
+	public void testReset() {
+		CTLProfiler profiler = new CTLProfiler();
+		profiler.functionFinished("transform", System.nanoTime());
+		profiler.functionFinished("transform", System.nanoTime());
+		assertEquals(1, profiler.getProfile().length);
+		profiler.reset();
+		assertEquals(0, profiler.getProfile().length);
+		profiler.functionFinished("transform", System.nanoTime());
+		assertEquals(1, profiler.getProfile()[0].getInvocationCount());
+	}
+
+	public void testDisabled() {
+		TLCompiler compiler = new TLCompiler();
+		compiler.validate("integer i = length(\"abc\");");
+		TransformLangExecutor executor = (TransformLangExecutor) compiler.getCompiledCode();
+		assertNull(executor.getProfiler());
+	}
+
+	private static int count(Map<String, CTLProfileEntry> entries, CTLProfileEntry.Kind kind) {
+		int result = 0;
+		for (CTLProfileEntry entry : entries.values()) {
+			if (entry.getKind() == kind) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+}
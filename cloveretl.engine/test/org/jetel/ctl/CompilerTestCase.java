@@ -10217,6 +10217,28 @@ public abstract class CompilerTestCase extends CloverTestCase {
 		}
 	}
 	
+	public void test_datelib_dateDiff_time_units() {
+		// partial units are truncated towards zero in both directions
+		long before = new DateTime(2013, 3, 30, 22, 0, 0, 0).getMillis();
+		long after = before + 3 * 3600000L + 59 * 60000L + 59999L;
+		doCompile("long hours; long minutes; long seconds; long negativeHours; long negativeSeconds;\n"
+				+ "function integer transform() {\n"
+				+ "	date before = long2date(" + before + "L);\n"
+				+ "	date after = long2date(" + after + "L);\n"
+				+ "	hours = dateDiff(after, before, hour);\n"
+				+ "	minutes = dateDiff(after, before, minute);\n"
+				+ "	seconds = dateDiff(after, before, second);\n"
+				+ "	negativeHours = dateDiff(before, after, hour);\n"
+				+ "	negativeSeconds = dateDiff(before, after, second);\n"
+				+ "	return 0;\n"
+				+ "}", "test_datelib_dateDiff_time_units");
+		check("hours", 3L);
+		check("minutes", 239L);
+		check("seconds", 14399L);
+		check("negativeHours", -3L);
+		check("negativeSeconds", -14399L);
+	}
+	
 	public void test_datelib_dateAdd() {
 		doCompile("test_datelib_dateAdd");
 		check("datum", new Date(BORN_MILLISEC_VALUE + 100));
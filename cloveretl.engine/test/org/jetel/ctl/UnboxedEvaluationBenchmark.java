@@ -0,0 +1,138 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.ctl;
+
+import org.jetel.component.CTLRecordTransform;
+import org.jetel.ctl.ASTnode.CLVFFunctionDeclaration;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.graph.runtime.EngineInitializer;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+
+/**
+ * Measures the interpreted transform() function of an arithmetic-heavy Reformat
+ * with the stack-based and with the unboxed evaluation of numeric expressions.
+ * Not a part of the unit test suite, run it as a Java application:
+ *
+ * <pre>
+ * java org.jetel.ctl.UnboxedEvaluationBenchmark [records] [rounds]
+ * </pre>
+ *
+ * The plugins directory is given by the <code>cloveretl.plugins</code> system property,
+ * the parent directory by default.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class UnboxedEvaluationBenchmark {
+
+	private static final String TRANSFORM =
+			"function integer transform() {\n" +
+			"	$out.0.i = ($in.0.i * 3 + 7) % 1000 - $in.0.i / 2;\n" +
+			"	$out.0.l = $in.0.l * 31 + $in.0.i - ($in.0.l % 97) * 2;\n" +
+			"	$out.0.n = ($in.0.n * 1.5 + $in.0.i) / ($in.0.l + 1) - -$in.0.n;\n" +
+			"	$out.0.b = $in.0.i * 2 > $in.0.l - 5 || $in.0.n * 2.0 <= 10.0;\n" +
+			"	return 0;\n" +
+			"}\n";
+
+	private final DataRecordMetadata metadata;
+
+	private UnboxedEvaluationBenchmark() {
+		metadata = new DataRecordMetadata("numbers");
+		metadata.addField(new DataFieldMetadata("i", DataFieldType.INTEGER, "|"));
+		metadata.addField(new DataFieldMetadata("l", DataFieldType.LONG, "|"));
+		metadata.addField(new DataFieldMetadata("n", DataFieldType.NUMBER, "|"));
+		metadata.addField(new DataFieldMetadata("b", DataFieldType.BOOLEAN, "|"));
+	}
+
+	public static void main(String[] args) {
+		int records = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+		int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+		EngineInitializer.initEngine(System.getProperty("cloveretl.plugins", ".."), null, null);
+		EngineInitializer.forceActivateAllPlugins();
+
+		UnboxedEvaluationBenchmark benchmark = new UnboxedEvaluationBenchmark();
+		Transformation boxed = benchmark.new Transformation(false);
+		Transformation unboxed = benchmark.new Transformation(true);
+
+		// warm up
+		run(boxed, records / 4);
+		run(unboxed, records / 4);
+
+		long boxedBest = Long.MAX_VALUE;
+		long unboxedBest = Long.MAX_VALUE;
+		for (int round = 1; round <= rounds; round++) {
+			long boxedDuration = run(boxed, records);
+			long unboxedDuration = run(unboxed, records);
+			System.out.println("Round " + round + ": stack-based " + boxedDuration + " ms, unboxed " + unboxedDuration + " ms");
+			boxedBest = Math.min(boxedBest, boxedDuration);
+			unboxedBest = Math.min(unboxedBest, unboxedDuration);
+		}
+		System.out.println("Best of " + rounds + " rounds, " + records + " records: stack-based " + boxedBest
+				+ " ms, unboxed " + unboxedBest + " ms, speedup " + String.format("%.2f", (double) boxedBest / unboxedBest));
+	}
+
+	private static long run(Transformation transformation, int records) {
+		long start = System.nanoTime();
+		for (int i = 0; i < records; i++) {
+			transformation.input.getField("i").setValue(i);
+			transformation.input.getField("l").setValue(i * 1000003L);
+			transformation.input.getField("n").setValue(i / 7.0);
+			transformation.execute();
+		}
+		return (System.nanoTime() - start) / 1000000;
+	}
+
+	/**
+	 * Interpreted transform() function with its own input and output record.
+	 */
+	private class Transformation {
+
+		final DataRecord input = DataRecordFactory.newRecord(metadata);
+		final DataRecord output = DataRecordFactory.newRecord(metadata);
+		final TransformLangExecutor executor;
+		final CLVFFunctionDeclaration transform;
+
+		Transformation(boolean unboxedEvaluation) {
+			TLCompiler compiler = new TLCompiler(null, new DataRecordMetadata[] { metadata }, new DataRecordMetadata[] { metadata });
+			compiler.compile(TRANSFORM, CTLRecordTransform.class, "UnboxedEvaluationBenchmark");
+			if (compiler.errorCount() > 0) {
+				throw new IllegalStateException(compiler.getDiagnosticMessages().toString());
+			}
+			executor = (TransformLangExecutor) compiler.getCompiledCode();
+			executor.unboxedEvaluation = unboxedEvaluation;
+			executor.keepGlobalScope();
+			executor.init();
+			executor.execute();
+			executor.setInputRecords(new DataRecord[] { input });
+			executor.setOutputRecords(new DataRecord[] { output });
+			transform = executor.getFunction("transform");
+		}
+
+		void execute() {
+			executor.executeFunction(transform, new Object[0]);
+		}
+	}
+
+}
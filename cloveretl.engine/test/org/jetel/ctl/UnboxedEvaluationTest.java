@@ -0,0 +1,188 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.ctl;
+
+import org.jetel.component.CTLRecordTransform;
+import org.jetel.ctl.ASTnode.CLVFFunctionDeclaration;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Compares unboxed evaluation of numeric expressions in {@link TransformLangExecutor}
+ * with the stack-based evaluation on an arithmetic-heavy transformation of a Reformat.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class UnboxedEvaluationTest extends CloverTestCase {
+
+	private static final String TRANSFORM =
+			"function integer transform() {\n" +
+			"	$out.0.i = ($in.0.i * 3 + 7) % 1000 - $in.0.i / 2;\n" +
+			"	$out.0.l = $in.0.l * 31 + $in.0.i - ($in.0.l % 97) * 2;\n" +
+			"	$out.0.n = ($in.0.n * 1.5 + $in.0.i) / ($in.0.l + 1) - -$in.0.n;\n" +
+			"	$out.0.b = $in.0.i * 2 > $in.0.l - 5 || $in.0.n * 2.0 <= 10.0;\n" +
+			"	return 0;\n" +
+			"}\n";
+
+	private DataRecordMetadata metadata;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		metadata = new DataRecordMetadata("numbers");
+		metadata.addField(new DataFieldMetadata("i", DataFieldType.INTEGER, "|"));
+		metadata.addField(new DataFieldMetadata("l", DataFieldType.LONG, "|"));
+		metadata.addField(new DataFieldMetadata("n", DataFieldType.NUMBER, "|"));
+		metadata.addField(new DataFieldMetadata("b", DataFieldType.BOOLEAN, "|"));
+	}
+
+	public void testSameResults() {
+		Transformation unboxed = new Transformation(TRANSFORM, true);
+		Transformation boxed = new Transformation(TRANSFORM, false);
+		for (int i = -1000; i < 1000; i++) {
+			setInput(unboxed.input, i);
+			setInput(boxed.input, i);
+			unboxed.execute();
+			boxed.execute();
+			assertEquals(boxed.output.toString(), unboxed.output.toString());
+		}
+	}
+
+	public void testSameErrors() {
+		String code =
+				"function integer transform() {\n" +
+				"	$out.0.i = 1 + $in.0.i * 2;\n" +
+				"	$out.0.l = 10 + 100 / ($in.0.i - 1);\n" +
+				"	return 0;\n" +
+				"}\n";
+		Transformation unboxed = new Transformation(code, true);
+		Transformation boxed = new Transformation(code, false);
+
+		// null operand
+		unboxed.input.getField("i").setNull(true);
+		boxed.input.getField("i").setNull(true);
+		assertNotNull(getErrorPosition(boxed));
+		assertEquals(getErrorPosition(boxed), getErrorPosition(unboxed));
+
+		// division by zero
+		unboxed.input.getField("i").setValue(1);
+		boxed.input.getField("i").setValue(1);
+		assertNotNull(getErrorPosition(boxed));
+		assertEquals(getErrorPosition(boxed), getErrorPosition(unboxed));
+	}
+
+	public void testComparisonWithNull() {
+		String code = "boolean b = 1 + 1 == null; boolean c = 2 * 3 > 5; integer i = -(2 * 3);";
+		for (boolean unboxedEvaluation : new boolean[] { true, false }) {
+			TLCompiler compiler = new TLCompiler();
+			compiler.setOptimize(false);
+			compiler.validate(code);
+			assertEquals(0, compiler.errorCount());
+			TransformLangExecutor executor = (TransformLangExecutor) compiler.getCompiledCode();
+			executor.unboxedEvaluation = unboxedEvaluation;
+			executor.keepGlobalScope();
+			executor.init();
+			executor.execute();
+			assertEquals(Boolean.FALSE, executor.getVariableValue("b"));
+			assertEquals(Boolean.TRUE, executor.getVariableValue("c"));
+			assertEquals(-6, executor.getVariableValue("i"));
+		}
+	}
+
+	/**
+	 * Overflows and extreme values have to be handled by unboxed evaluation in the same way.
+	 */
+	public void testSameResultsExtremeValues() {
+		Transformation unboxed = new Transformation(TRANSFORM, true);
+		Transformation boxed = new Transformation(TRANSFORM, false);
+		int[] integers = { Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1, 46341, -46341 };
+		long[] longs = { Long.MAX_VALUE, Long.MIN_VALUE + 1, Long.MAX_VALUE / 31, 0 };
+		double[] numbers = { Double.MAX_VALUE, -Double.MIN_VALUE, 1e-300, -0.0 };
+		for (int i : integers) {
+			for (long l : longs) {
+				for (double n : numbers) {
+					setInput(unboxed.input, i, l, n);
+					setInput(boxed.input, i, l, n);
+					String boxedError = getErrorPosition(boxed);
+					assertEquals(boxedError, getErrorPosition(unboxed));
+					if (boxedError == null) {
+						assertEquals(boxed.output.toString(), unboxed.output.toString());
+					}
+				}
+			}
+		}
+	}
+
+	private static void setInput(DataRecord record, int i) {
+		setInput(record, i, i * 1000003L, i / 7.0);
+	}
+
+	private static void setInput(DataRecord record, int i, long l, double n) {
+		record.getField("i").setValue(i);
+		record.getField("l").setValue(l);
+		record.getField("n").setValue(n);
+	}
+
+	private static String getErrorPosition(Transformation transformation) {
+		try {
+			transformation.execute();
+			return null;
+		} catch (TransformLangExecutorRuntimeException e) {
+			return e.getNode().getLine() + ":" + e.getNode().getColumn();
+		}
+	}
+
+	/**
+	 * Interpreted transform() function with its own input and output record.
+	 */
+	private class Transformation {
+
+		final DataRecord input = DataRecordFactory.newRecord(metadata);
+		final DataRecord output = DataRecordFactory.newRecord(metadata);
+		final TransformLangExecutor executor;
+		final CLVFFunctionDeclaration transform;
+
+		Transformation(String code, boolean unboxedEvaluation) {
+			TLCompiler compiler = new TLCompiler(null, new DataRecordMetadata[] { metadata }, new DataRecordMetadata[] { metadata });
+			compiler.compile(code, CTLRecordTransform.class, "UnboxedEvaluationTest");
+			assertEquals(compiler.getDiagnosticMessages().toString(), 0, compiler.errorCount());
+			executor = (TransformLangExecutor) compiler.getCompiledCode();
+			executor.unboxedEvaluation = unboxedEvaluation;
+			executor.keepGlobalScope();
+			executor.init();
+			executor.execute();
+			executor.setInputRecords(new DataRecord[] { input });
+			executor.setOutputRecords(new DataRecord[] { output });
+			transform = executor.getFunction("transform");
+		}
+
+		void execute() {
+			executor.executeFunction(transform, new Object[0]);
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.ctl.extensions;
+
+import java.util.Calendar;
+import java.util.regex.Pattern;
+
+import org.jetel.data.Defaults;
+import org.jetel.test.CloverTestCase;
+import org.jetel.util.formatter.DateFormatter;
+import org.jetel.util.formatter.NumericFormatter;
+
+/**
+ * Tests LRU caching of values created for non-literal CTL function arguments.
+ * 
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class TLCacheTest extends CloverTestCase {
+	
+	private TLFunctionCallContext createContext(int paramCount) {
+		TLFunctionCallContext context = new TLFunctionCallContext(null);
+		context.setTransformationContext(new TLTransformationContext());
+		context.initVoidLterals(paramCount);
+		return context;
+	}
+
+	public void testRegexpCache() {
+		TLFunctionCallContext context = createContext(2);
+		TLRegexpCache cache = new TLRegexpCache(context, 1);
+		String[] patterns = { "a+", "b+", "[0-9]+" };
+		Pattern[] compiled = new Pattern[patterns.length];
+		for (int i = 0; i < 30; i++) {
+			int index = i % patterns.length;
+			Pattern pattern = cache.getCachedPattern(context, patterns[index]);
+			assertEquals(patterns[index], pattern.pattern());
+			if (compiled[index] == null) {
+				compiled[index] = pattern;
+			} else {
+				assertSame(compiled[index], pattern);
+			}
+			assertSame(pattern, cache.getCachedMatcher(context, patterns[index]).pattern());
+		}
+		assertEquals(3, cache.getMissCount());
+		assertEquals(57, cache.getHitCount());
+		assertEquals(3, cache.getEntryCount());
+	}
+	
+	public void testEviction() {
+		TLFunctionCallContext context = createContext(2);
+		TLRegexpCache cache = new TLRegexpCache(context, 1);
+		int size = Defaults.CTL.DYNAMIC_ARGUMENT_CACHE_SIZE;
+		for (int i = 0; i <= size; i++) {
+			cache.getCachedPattern(context, "a{" + i + "}");
+		}
+		assertEquals(size, cache.getEntryCount());
+		assertEquals(size + 1, cache.getMissCount());
+		// the most recent entries are kept, the eldest one has been evicted
+		cache.getCachedPattern(context, "a{1}");
+		assertEquals(size + 1, cache.getMissCount());
+		cache.getCachedPattern(context, "a{0}");
+		assertEquals(size + 2, cache.getMissCount());
+	}
+	
+	public void testDateFormatCache() {
+		TLFunctionCallContext context = createContext(4);
+		TLDateFormatLocaleCache cache = new TLDateFormatLocaleCache(context, 1, 2, 3);
+		String[][] arguments = { { "dd.MM.yyyy", "cs.CZ" }, { "MM/dd/yyyy", "en.US" }, { "dd.MM.yyyy", "de.DE" } };
+		DateFormatter[] formatters = new DateFormatter[arguments.length];
+		for (int i = 0; i < 30; i++) {
+			int index = i % arguments.length;
+			DateFormatter formatter = cache.getCachedLocaleFormatter(context, arguments[index][0], arguments[index][1], "UTC", 1, 2, 3);
+			assertEquals(arguments[index][0], formatter.getPattern());
+			if (formatters[index] == null) {
+				formatters[index] = formatter;
+			} else {
+				assertSame(formatters[index], formatter);
+			}
+		}
+		assertNotSame(formatters[0], formatters[2]);
+		assertEquals(3, cache.getMissCount());
+		assertEquals(27, cache.getHitCount());
+	}
+	
+	public void testNumericFormatCache() {
+		TLFunctionCallContext context = createContext(3);
+		TLNumericFormatLocaleCache cache = new TLNumericFormatLocaleCache(context, false);
+		cache.createCachedLocaleFormat(context, 1, 2);
+		NumericFormatter first = cache.getCachedLocaleFormat(context, "#.00", "en", 1, 2);
+		NumericFormatter second = cache.getCachedLocaleFormat(context, "#,##0", "de", 1, 2);
+		assertSame(first, cache.getCachedLocaleFormat(context, "#.00", "en", 1, 2));
+		assertSame(second, cache.getCachedLocaleFormat(context, "#,##0", "de", 1, 2));
+		assertNotSame(first, cache.getCachedLocaleFormat(context, "#.00", "de", 1, 2));
+		assertEquals(3, cache.getMissCount());
+		assertEquals(2, cache.getHitCount());
+		
+		cache.setIsDecimal(true);
+		assertEquals(0, cache.getEntryCount());
+	}
+	
+	public void testCalendarCache() {
+		TLFunctionCallContext context = createContext(2);
+		TLCalendarCache cache = TLCalendarCache.withTimeZone(context, 1);
+		Calendar prague = cache.getCachedCalendarWithTimeZone(context, "Europe/Prague", 1);
+		Calendar utc = cache.getCachedCalendarWithTimeZone(context, "UTC", 1);
+		assertEquals("Europe/Prague", prague.getTimeZone().getID());
+		assertEquals("UTC", utc.getTimeZone().getID());
+		assertSame(prague, cache.getCachedCalendarWithTimeZone(context, "Europe/Prague", 1));
+		assertSame(utc, cache.getCachedCalendarWithTimeZone(context, "UTC", 1));
+		assertEquals(2, cache.getMissCount());
+		assertEquals(2, cache.getHitCount());
+	}
+
+}
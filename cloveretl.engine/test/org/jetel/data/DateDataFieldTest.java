@@ -34,6 +34,7 @@ import org.jetel.metadata.DataFieldFormatType;
 import org.jetel.metadata.DataFieldMetadata;
 import org.jetel.metadata.DataFieldType;
 import org.jetel.test.CloverTestCase;
+import org.jetel.util.HashCodeUtil;
 import org.jetel.util.bytes.CloverBuffer;
 
 /**
@@ -314,6 +315,40 @@ public void test_1_DateDataField() {
 		assertEquals("",aDateDataField1.toString());
 	}
 	
+	public void test_primitiveValue() {
+		Calendar calendar = new GregorianCalendar(2003,4,10);
+		Date trialTime1 = calendar.getTime();
+		aDateDataField1.setValue(trialTime1);
+		assertEquals(trialTime1.getTime(), aDateDataField1.getTime());
+		assertEquals(HashCodeUtil.hash((Object) trialTime1), aDateDataField1.hashCode());
+
+		// the returned date is not affected by later changes of the field
+		Date value = aDateDataField1.getValue();
+		assertNotSame(value, aDateDataField1.getValue());
+		aDateDataField1.setValue(1000L);
+		assertEquals(trialTime1, value);
+		assertEquals(1000L, aDateDataField1.getValue().getTime());
+		assertNotSame(aDateDataField1.getDate(), aDateDataField1.getDate());
+		value.setTime(5000L);
+		assertEquals(1000L, aDateDataField1.getTime());
+
+		// the duplicate is independent
+		Date duplicate = aDateDataField1.getValueDuplicate();
+		aDateDataField1.setValue(2000L);
+		assertEquals(1000L, duplicate.getTime());
+
+		DateDataField copy = (DateDataField) aDateDataField1.duplicate();
+		assertEquals(2000L, copy.getTime());
+		copy.setValue(3000L);
+		assertEquals(2000L, aDateDataField1.getTime());
+		assertTrue(copy.compareTo(aDateDataField1) > 0);
+		assertTrue(aDateDataField1.compareTo(copy) < 0);
+
+		aDateDataField1.setValue(copy);
+		assertEquals(copy, aDateDataField1);
+		assertEquals(copy.hashCode(), aDateDataField1.hashCode());
+	}
+
 	public void testFromStringNullValue() {
 		DataFieldMetadata fieldMetadata = new DataFieldMetadata("field", DataFieldType.DATE, ";");
 		DateDataField field = new DateDataField(fieldMetadata);
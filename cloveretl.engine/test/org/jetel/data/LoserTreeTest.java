@@ -0,0 +1,147 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class LoserTreeTest extends CloverTestCase {
+
+	private DataRecordMetadata metadata;
+	private RecordKey key;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		metadata = new DataRecordMetadata("test");
+		metadata.addField(new DataFieldMetadata("key", DataFieldType.INTEGER, ";"));
+		metadata.addField(new DataFieldMetadata("source", DataFieldType.INTEGER, ";"));
+		key = new RecordKey(new String[] { "key" }, metadata);
+		key.init();
+	}
+
+	public void testMerge() {
+		Random random = new Random(42);
+		for (int numSources = 1; numSources <= 17; numSources++) {
+			List<List<DataRecord>> sources = new ArrayList<List<DataRecord>>();
+			int total = 0;
+			for (int i = 0; i < numSources; i++) {
+				List<DataRecord> source = new ArrayList<DataRecord>();
+				// some sources are empty, keys repeat across sources
+				int size = random.nextInt(4) == 0 ? 0 : random.nextInt(50);
+				int value = 0;
+				for (int j = 0; j < size; j++) {
+					value += random.nextInt(3);
+					source.add(newRecord(value, i));
+				}
+				sources.add(source);
+				total += size;
+			}
+
+			LoserTree tree = new LoserTree(numSources, key);
+			int[] positions = new int[numSources];
+			for (int i = 0; i < numSources; i++) {
+				tree.set(i, next(sources.get(i), positions, i));
+			}
+			tree.build();
+
+			int count = 0;
+			int previousKey = Integer.MIN_VALUE;
+			int previousSource = -1;
+			int winner;
+			while ((winner = tree.getWinner()) != -1) {
+				DataRecord record = tree.getWinnerRecord();
+				int recordKey = (Integer) record.getField(0).getValue();
+				int recordSource = (Integer) record.getField(1).getValue();
+				assertEquals(winner, recordSource);
+				assertTrue(recordKey >= previousKey);
+				if (recordKey == previousKey) {
+					// equal keys are ordered by source
+					assertTrue(recordSource >= previousSource);
+				}
+				previousKey = recordKey;
+				previousSource = recordSource;
+				count++;
+				tree.replaceWinner(next(sources.get(winner), positions, winner));
+			}
+			assertEquals(total, count);
+			assertTrue(tree.isEmpty());
+		}
+	}
+
+	public void testExternalSort() throws Exception {
+		Random random = new Random(7);
+		List<Integer> values = new ArrayList<Integer>();
+		// small internal buffer and many chunks force several merge passes
+		ExternalSortDataRecord sorter = new ExternalSortDataRecord(metadata, new String[] { "key" }, new boolean[] { true }, 32, 2);
+		for (int i = 0; i < 20000; i++) {
+			int value = random.nextInt(1000);
+			values.add(value);
+			sorter.put(newRecord(value, i));
+		}
+		sorter.sort();
+		Collections.sort(values);
+
+		DataRecord record;
+		int i = 0;
+		while ((record = sorter.get()) != null) {
+			assertEquals(values.get(i++), record.getField(0).getValue());
+		}
+		assertEquals(values.size(), i);
+		sorter.postExecute();
+		sorter.free();
+	}
+
+	public void testNumberOfTapes() throws Exception {
+		// explicit number of tapes is the limit, even above the configured maximum
+		assertEquals(3, new ExternalSortDataRecord(metadata, new String[] { "key" }, new boolean[] { true }, 32, 3).getMaxNumberOfTapes());
+		int max = Defaults.ExternalSortDataRecord.MAX_NUMBER_OF_TAPES + 10;
+		assertEquals(max, new ExternalSortDataRecord(metadata, new String[] { "key" }, new boolean[] { true }, 32, max).getMaxNumberOfTapes());
+		int auto = new ExternalSortDataRecord(metadata, new String[] { "key" }, new boolean[] { true }, 32,
+				ExternalSortDataRecord.AUTO_NUMBER_OF_TAPES).getMaxNumberOfTapes();
+		assertTrue(auto >= 2);
+		assertTrue(auto <= Math.max(Defaults.ExternalSortDataRecord.MAX_NUMBER_OF_TAPES, 2));
+	}
+
+	private static DataRecord next(List<DataRecord> source, int[] positions, int index) {
+		return positions[index] < source.size() ? source.get(positions[index]++) : null;
+	}
+
+	private DataRecord newRecord(int keyValue, int source) {
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		record.getField(0).setValue(keyValue);
+		record.getField(1).setValue(source);
+		return record;
+	}
+
+}
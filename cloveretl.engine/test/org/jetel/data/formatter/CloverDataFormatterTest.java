@@ -30,8 +30,10 @@ import java.nio.channels.SeekableByteChannel;
 
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
+import org.jetel.data.Defaults;
 import org.jetel.data.parser.CloverDataParser;
 import org.jetel.data.parser.CloverDataParser.FileConfig;
+import org.jetel.data.parser.CloverDataRangeFilter;
 import org.jetel.metadata.DataFieldMetadata;
 import org.jetel.metadata.DataFieldType;
 import org.jetel.metadata.DataRecordMetadata;
@@ -145,6 +147,125 @@ public class CloverDataFormatterTest extends CloverTestCase {
 		
 	}
 
+	@Test
+	public void testZoneMap() throws Exception {
+		DataRecordMetadata metadata = new DataRecordMetadata("testRecord", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, "|"));
+		metadata.addField(new DataFieldMetadata("payload", DataFieldType.STRING, "|"));
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		CloverBuffer buffer = CloverBuffer.allocate(256);
+		StringBuilder payload = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			payload.append((char) ('a' + i % 26));
+		}
+		int recordCount = 20000; // several data blocks
+
+		File tmpFile = null;
+		try {
+			tmpFile = File.createTempFile("CloverDataFormatterTest", ".tmp");
+			try (CloverDataFormatter formatter = new CloverDataFormatter()) {
+				formatter.setZoneMapFields(new String[] { "id" });
+				formatter.init(metadata);
+				formatter.setDataTarget(tmpFile);
+				for (int i = 0; i < recordCount; i++) {
+					record.getField(0).setValue(i);
+					record.getField(1).setValue(payload);
+					buffer.clear();
+					record.serialize(buffer);
+					buffer.flip();
+					formatter.writeDirect(buffer);
+				}
+			}
+
+			// only the blocks with the matching records are read
+			CloverDataParser parser = new CloverDataParser(metadata);
+			parser.setRangeFilter(new CloverDataRangeFilter("$id>=5000;$id<5100", metadata));
+			parser.init();
+			try {
+				parser.setDataSource(tmpFile);
+				int expected = 5000;
+				while (parser.getNext(record) != null) {
+					assertEquals(expected++, record.getField(0).getValue());
+				}
+				assertEquals(5100, expected);
+				assertTrue(parser.getSkippedBlocks() > 0);
+			} finally {
+				parser.close();
+			}
+
+			// the file is readable without the filter
+			parser = new CloverDataParser(metadata);
+			parser.init();
+			int counter = 0;
+			try (InputStream is = new FileInputStream(tmpFile)) {
+				parser.setDataSource(is);
+				while (parser.getNextDirect(buffer) > 0) {
+					record.deserialize(buffer);
+					assertEquals(counter++, record.getField(0).getValue());
+				}
+			} finally {
+				parser.close();
+			}
+			assertEquals(recordCount, counter);
+		} finally {
+			org.apache.commons.io.FileUtils.deleteQuietly(tmpFile);
+		}
+	}
+
+	@Test
+	public void testParallelCompression() throws Exception {
+		DataRecordMetadata metadata = new DataRecordMetadata("testRecord", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, "|"));
+		metadata.addField(new DataFieldMetadata("payload", DataFieldType.STRING, "|"));
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		CloverBuffer buffer = CloverBuffer.allocate(256);
+		int recordCount = 20000; // several data blocks
+
+		int compressionThreads = Defaults.CLOVER_DATA_COMPRESSION_THREADS;
+		int decompressionThreads = Defaults.CLOVER_DATA_DECOMPRESSION_THREADS;
+		File tmpFile = null;
+		try {
+			Defaults.CLOVER_DATA_COMPRESSION_THREADS = 4;
+			Defaults.CLOVER_DATA_DECOMPRESSION_THREADS = 4;
+			for (int compressLevel : new int[] { 1, 9 }) {
+				tmpFile = File.createTempFile("CloverDataFormatterTest", ".tmp");
+				try (CloverDataFormatter formatter = new CloverDataFormatter()) {
+					formatter.setCompressLevel(compressLevel);
+					formatter.init(metadata);
+					formatter.setDataTarget(tmpFile);
+					for (int i = 0; i < recordCount; i++) {
+						record.getField(0).setValue(i);
+						record.getField(1).setValue("value " + (i % 100));
+						buffer.clear();
+						record.serialize(buffer);
+						buffer.flip();
+						formatter.writeDirect(buffer);
+					}
+				}
+	
+				CloverDataParser parser = new CloverDataParser(metadata);
+				parser.init();
+				int counter = 0;
+				try (InputStream is = new FileInputStream(tmpFile)) {
+					parser.setDataSource(is);
+					while (parser.getNext(record) != null) {
+						assertEquals(counter, record.getField(0).getValue());
+						assertEquals("value " + (counter % 100), record.getField(1).toString());
+						counter++;
+					}
+				} finally {
+					parser.close();
+				}
+				assertEquals(recordCount, counter);
+				org.apache.commons.io.FileUtils.deleteQuietly(tmpFile);
+			}
+		} finally {
+			Defaults.CLOVER_DATA_COMPRESSION_THREADS = compressionThreads;
+			Defaults.CLOVER_DATA_DECOMPRESSION_THREADS = decompressionThreads;
+			org.apache.commons.io.FileUtils.deleteQuietly(tmpFile);
+		}
+	}
+
 	/**
 	 * {@link #read(ByteBuffer)} always reads at most one byte.
 	 * 
@@ -0,0 +1,313 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Checks the footer written by {@link ParquetDataFormatter} against the field ids and types
+ * of parquet.thrift. The footer is decoded by a generic Thrift compact protocol decoder,
+ * not by {@link ParquetFileMetadata}.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ParquetDataFormatterTest extends CloverTestCase {
+
+	private static final int RECORD_COUNT = 1000;
+
+	private File tmpFile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		tmpFile = File.createTempFile("ParquetDataFormatterTest", ".parquet");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		tmpFile.delete();
+		super.tearDown();
+	}
+
+	private static String name(int i) {
+		// unsigned byte order of UTF-8 puts "ž" after "z", signed order would put it first
+		return (i % 2 == 0 ? "z" : "ž") + (i % 10);
+	}
+
+	public void testFooter() throws Exception {
+		DataRecordMetadata metadata = new DataRecordMetadata("record", DataRecordParsingType.DELIMITED);
+		DataFieldMetadata id = new DataFieldMetadata("id", DataFieldType.INTEGER, "|");
+		id.setNullable(false);
+		metadata.addField(id);
+		metadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "|"));
+		metadata.addField(new DataFieldMetadata("ratio", DataFieldType.NUMBER, "\n"));
+
+		ParquetDataFormatter formatter = new ParquetDataFormatter();
+		formatter.init(metadata);
+		formatter.setDataTarget(tmpFile);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		for (int i = 0; i < RECORD_COUNT; i++) {
+			record.getField("id").setValue(i - 100);
+			record.getField("name").setValue(name(i));
+			record.getField("ratio").setValue(i * 0.25);
+			if (i % 4 == 1) {
+				record.getField("ratio").setNull(true);
+			}
+			formatter.write(record);
+		}
+		formatter.close();
+
+		byte[] file = Files.readAllBytes(tmpFile.toPath());
+		assertEquals("PAR1", new String(file, 0, 4, StandardCharsets.US_ASCII));
+		assertEquals("PAR1", new String(file, file.length - 4, 4, StandardCharsets.US_ASCII));
+		int footerLength = ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+		ByteBuffer footerData = ByteBuffer.wrap(file, file.length - 8 - footerLength, footerLength);
+		Map<Integer, Object> footer = new ThriftDecoder(footerData).readStruct();
+		assertFalse(footerData.hasRemaining());
+
+		// FileMetaData
+		assertEquals(Integer.valueOf(1), footer.get(1)); // version
+		List<Object> schema = list(footer, 2);
+		assertEquals(4, schema.size());
+		Map<Integer, Object> root = struct(schema.get(0));
+		assertEquals("record", string(root, 4));
+		assertEquals(Integer.valueOf(3), root.get(5)); // num_children
+		assertFalse(root.containsKey(1));
+		assertSchemaElement(schema.get(1), "id", ParquetFileMetadata.INT32, ParquetFileMetadata.REQUIRED, null);
+		assertSchemaElement(schema.get(2), "name", ParquetFileMetadata.BYTE_ARRAY, ParquetFileMetadata.OPTIONAL, ParquetFileMetadata.UTF8);
+		assertSchemaElement(schema.get(3), "ratio", ParquetFileMetadata.DOUBLE, ParquetFileMetadata.OPTIONAL, null);
+		assertEquals(Long.valueOf(RECORD_COUNT), footer.get(3)); // num_rows
+		assertTrue(footer.get(6) instanceof byte[]); // created_by
+
+		// column_orders - TypeDefinedOrder for each column, required for min_value and max_value
+		List<Object> columnOrders = list(footer, 7);
+		assertEquals(3, columnOrders.size());
+		for (Object columnOrder : columnOrders) {
+			Map<Integer, Object> order = struct(columnOrder);
+			assertEquals(1, order.size());
+			assertTrue(struct(order.get(1)).isEmpty());
+		}
+
+		// RowGroup
+		List<Object> rowGroups = list(footer, 4);
+		assertEquals(1, rowGroups.size());
+		Map<Integer, Object> rowGroup = struct(rowGroups.get(0));
+		assertEquals(Long.valueOf(RECORD_COUNT), rowGroup.get(3)); // num_rows
+		assertTrue(rowGroup.get(2) instanceof Long); // total_byte_size
+		List<Object> columns = list(rowGroup, 1);
+		assertEquals(3, columns.size());
+
+		Map<Integer, Object> idStatistics = assertColumnChunk(file, columns.get(0), "id", ParquetFileMetadata.INT32, 0);
+		assertTrue(Arrays.equals(le(-100), bytes(idStatistics, 6)));
+		assertTrue(Arrays.equals(le(RECORD_COUNT - 101), bytes(idStatistics, 5)));
+
+		Map<Integer, Object> nameStatistics = assertColumnChunk(file, columns.get(1), "name", ParquetFileMetadata.BYTE_ARRAY, 0);
+		// values without length, compared as unsigned bytes
+		assertEquals("z0", new String(bytes(nameStatistics, 6), StandardCharsets.UTF_8));
+		assertEquals("ž9", new String(bytes(nameStatistics, 5), StandardCharsets.UTF_8));
+
+		Map<Integer, Object> ratioStatistics = assertColumnChunk(file, columns.get(2), "ratio", ParquetFileMetadata.DOUBLE, RECORD_COUNT / 4);
+		assertEquals(0.0, ByteBuffer.wrap(bytes(ratioStatistics, 6)).order(ByteOrder.LITTLE_ENDIAN).getDouble(), 0.0);
+		assertEquals((RECORD_COUNT - 1) * 0.25, ByteBuffer.wrap(bytes(ratioStatistics, 5)).order(ByteOrder.LITTLE_ENDIAN).getDouble(), 0.0);
+	}
+
+	private static void assertSchemaElement(Object element, String name, int type, int repetition, Integer convertedType) {
+		Map<Integer, Object> schemaElement = struct(element);
+		assertEquals(name, string(schemaElement, 4));
+		assertEquals(Integer.valueOf(type), schemaElement.get(1));
+		assertEquals(Integer.valueOf(repetition), schemaElement.get(3));
+		assertEquals(convertedType, schemaElement.get(6));
+		assertFalse(schemaElement.containsKey(5)); // num_children
+	}
+
+	/**
+	 * Checks ColumnChunk, its ColumnMetaData and the header of the first data page.
+	 *
+	 * @return the Statistics structure
+	 */
+	private static Map<Integer, Object> assertColumnChunk(byte[] file, Object columnChunk, String name, int type, long nullCount) {
+		Map<Integer, Object> chunk = struct(columnChunk);
+		assertFalse(chunk.containsKey(1)); // file_path
+		assertTrue(chunk.get(2) instanceof Long); // file_offset
+
+		Map<Integer, Object> meta = struct(chunk.get(3));
+		assertEquals(Integer.valueOf(type), meta.get(1));
+		List<Object> encodings = list(meta, 2);
+		assertTrue(encodings.contains(ParquetFileMetadata.PLAIN));
+		List<Object> path = list(meta, 3);
+		assertEquals(1, path.size());
+		assertEquals(name, new String((byte[]) path.get(0), StandardCharsets.UTF_8));
+		assertEquals(Integer.valueOf(ParquetFileMetadata.UNCOMPRESSED), meta.get(4)); // codec
+		assertEquals(Long.valueOf(RECORD_COUNT), meta.get(5)); // num_values
+		assertTrue(meta.get(6) instanceof Long); // total_uncompressed_size
+		long compressedSize = (Long) meta.get(7);
+		long dataPageOffset = (Long) meta.get(9);
+		assertTrue(dataPageOffset >= 4 && dataPageOffset + compressedSize <= file.length - 8);
+
+		// PageHeader at data_page_offset
+		Map<Integer, Object> pageHeader = new ThriftDecoder(ByteBuffer.wrap(file, (int) dataPageOffset, (int) compressedSize)).readStruct();
+		assertEquals(Integer.valueOf(ParquetFileMetadata.DATA_PAGE), pageHeader.get(1));
+		assertTrue(pageHeader.get(2) instanceof Integer); // uncompressed_page_size
+		assertTrue(pageHeader.get(3) instanceof Integer); // compressed_page_size
+		Map<Integer, Object> dataPageHeader = struct(pageHeader.get(5));
+		assertEquals(Integer.valueOf(RECORD_COUNT), dataPageHeader.get(1)); // num_values
+		assertEquals(Integer.valueOf(ParquetFileMetadata.PLAIN), dataPageHeader.get(2));
+		assertEquals(Integer.valueOf(ParquetFileMetadata.RLE), dataPageHeader.get(3)); // definition_level_encoding
+		assertEquals(Integer.valueOf(ParquetFileMetadata.RLE), dataPageHeader.get(4)); // repetition_level_encoding
+
+		// Statistics: 1 max and 2 min are deprecated, 3 null_count, 4 distinct_count, 5 max_value, 6 min_value
+		Map<Integer, Object> statistics = struct(meta.get(12));
+		assertEquals(Long.valueOf(nullCount), statistics.get(3));
+		assertFalse(statistics.containsKey(1));
+		assertFalse(statistics.containsKey(2));
+		assertTrue(statistics.containsKey(5));
+		assertTrue(statistics.containsKey(6));
+		return statistics;
+	}
+
+	private static byte[] le(int value) {
+		return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Integer, Object> struct(Object value) {
+		assertTrue(String.valueOf(value), value instanceof Map);
+		return (Map<Integer, Object>) value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> list(Map<Integer, Object> struct, int fieldId) {
+		Object value = struct.get(fieldId);
+		assertTrue("field " + fieldId + ": " + value, value instanceof List);
+		return (List<Object>) value;
+	}
+
+	private static byte[] bytes(Map<Integer, Object> struct, int fieldId) {
+		Object value = struct.get(fieldId);
+		assertTrue("field " + fieldId + ": " + value, value instanceof byte[]);
+		return (byte[]) value;
+	}
+
+	private static String string(Map<Integer, Object> struct, int fieldId) {
+		return new String(bytes(struct, fieldId), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Decodes Thrift compact protocol into maps of field ids, i32 values are returned as Integer,
+	 * i64 as Long, binary as byte[], lists as List and structures as Map.
+	 */
+	private static class ThriftDecoder {
+
+		private final ByteBuffer in;
+
+		ThriftDecoder(ByteBuffer in) {
+			this.in = in;
+		}
+
+		Map<Integer, Object> readStruct() {
+			Map<Integer, Object> result = new HashMap<Integer, Object>();
+			int lastFieldId = 0;
+			while (true) {
+				int header = in.get() & 0xFF;
+				int type = header & 0x0F;
+				if (type == 0) {
+					return result;
+				}
+				int delta = header >>> 4;
+				int fieldId = (delta != 0) ? lastFieldId + delta : (int) unzigzag(readVarint());
+				lastFieldId = fieldId;
+				if (type == 1 || type == 2) {
+					result.put(fieldId, type == 1);
+				} else {
+					result.put(fieldId, readValue(type));
+				}
+			}
+		}
+
+		private Object readValue(int type) {
+			switch (type) {
+			case 3:
+				return in.get();
+			case 4:
+				return (short) unzigzag(readVarint());
+			case 5:
+				return (int) unzigzag(readVarint());
+			case 6:
+				return unzigzag(readVarint());
+			case 7:
+				return in.order(ByteOrder.LITTLE_ENDIAN).getDouble();
+			case 8:
+				byte[] value = new byte[(int) readVarint()];
+				in.get(value);
+				return value;
+			case 9:
+				int header = in.get() & 0xFF;
+				int size = header >>> 4;
+				if (size == 15) {
+					size = (int) readVarint();
+				}
+				List<Object> list = new ArrayList<Object>();
+				for (int i = 0; i < size; i++) {
+					list.add((header & 0x0F) == 1 ? in.get() == 1 : readValue(header & 0x0F));
+				}
+				return list;
+			case 12:
+				return readStruct();
+			default:
+				throw new IllegalStateException("Unexpected Thrift type " + type);
+			}
+		}
+
+		private long readVarint() {
+			long result = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = in.get();
+				result |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return result;
+				}
+			}
+		}
+
+		private static long unzigzag(long value) {
+			return (value >>> 1) ^ -(value & 1);
+		}
+	}
+
+}
@@ -0,0 +1,406 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parquet;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.jetel.data.BooleanDataField;
+import org.jetel.data.ByteDataField;
+import org.jetel.data.DataField;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.DateDataField;
+import org.jetel.data.parser.CloverDataRangeFilter;
+import org.jetel.data.primitive.Numeric;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ParquetDataParserTest extends CloverTestCase {
+
+	private static final int RECORD_COUNT = 3000;
+
+	/**
+	 * Files encoded according to the Parquet specification independently of {@link ParquetDataFormatter},
+	 * see generate_fixtures.py in the directory.
+	 */
+	private static final String FIXTURES_DIR = "test-data/parquet/"; // path relative to cloveretl.engine project dir
+
+	private static final String[] CITIES = { "Praha", "Brno", "Ostrava", "Plze\u0148", "Liberec" };
+
+	private File tmpFile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		tmpFile = File.createTempFile("ParquetDataParserTest", ".parquet");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		tmpFile.delete();
+		super.tearDown();
+	}
+
+	private static DataRecordMetadata createMetadata() {
+		DataRecordMetadata metadata = new DataRecordMetadata("metadata", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, "|"));
+		metadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "|"));
+		metadata.addField(new DataFieldMetadata("created", DataFieldType.DATE, "|"));
+		metadata.addField(new DataFieldMetadata("ratio", DataFieldType.NUMBER, "|"));
+		metadata.addField(new DataFieldMetadata("total", DataFieldType.LONG, "|"));
+		DataFieldMetadata price = new DataFieldMetadata("price", DataFieldType.DECIMAL, "|");
+		price.setProperty(DataFieldMetadata.LENGTH_ATTR, "8");
+		price.setProperty(DataFieldMetadata.SCALE_ATTR, "2");
+		metadata.addField(price);
+		DataFieldMetadata amount = new DataFieldMetadata("amount", DataFieldType.DECIMAL, "|");
+		amount.setProperty(DataFieldMetadata.LENGTH_ATTR, "25");
+		amount.setProperty(DataFieldMetadata.SCALE_ATTR, "3");
+		metadata.addField(amount);
+		metadata.addField(new DataFieldMetadata("data", DataFieldType.BYTE, "|"));
+		metadata.addField(new DataFieldMetadata("valid", DataFieldType.BOOLEAN, "\n"));
+		return metadata;
+	}
+
+	/**
+	 * Fills the record with values derived from the record number, the fields except id are sometimes null.
+	 */
+	private static void fillRecord(DataRecord record, int i) {
+		record.getField("id").setValue(i);
+		record.getField("name").setValue("name ž" + i);
+		((DateDataField) record.getField("created")).setValue(1600000000000L + i * 1000L);
+		record.getField("ratio").setValue(i / 3.0);
+		record.getField("total").setValue(i * 10000000000L);
+		((Numeric) record.getField("price")).setValue(BigDecimal.valueOf(i * 7 - 5000, 2));
+		((Numeric) record.getField("amount")).setValue(new BigDecimal("1234567890123.125").multiply(BigDecimal.valueOf(i - 1500)));
+		((ByteDataField) record.getField("data")).setValue(new byte[] { (byte) i, (byte) (i >> 8), -1 });
+		((BooleanDataField) record.getField("valid")).setValue(i % 3 == 0);
+		for (int field = 1; field < record.getNumFields(); field++) {
+			if ((i + field) % 7 == 0) {
+				record.getField(field).setNull(true);
+			}
+		}
+	}
+
+	private void writeFile(DataRecordMetadata metadata, ParquetDataFormatter.Compression compression, long rowGroupSize) throws Exception {
+		ParquetDataFormatter formatter = new ParquetDataFormatter();
+		formatter.setCompression(compression);
+		formatter.setRowGroupSize(rowGroupSize);
+		formatter.init(metadata);
+		formatter.setDataTarget(tmpFile);
+		formatter.writeHeader();
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		for (int i = 0; i < RECORD_COUNT; i++) {
+			fillRecord(record, i);
+			formatter.write(record);
+		}
+		formatter.finish();
+		formatter.close();
+	}
+
+	private ParquetDataParser createParser(DataRecordMetadata metadata) throws Exception {
+		ParquetDataParser parser = new ParquetDataParser(metadata);
+		parser.init();
+		return parser;
+	}
+
+	private static void assertFieldEquals(DataField expected, DataField actual) {
+		assertEquals(expected.getMetadata().getName(), expected.isNull(), actual.isNull());
+		if (!expected.isNull()) {
+			if (expected instanceof ByteDataField) {
+				assertTrue(expected.getMetadata().getName(), Arrays.equals((byte[]) expected.getValue(), (byte[]) actual.getValue()));
+			} else {
+				assertEquals(expected.getMetadata().getName(), expected.getValue(), actual.getValue());
+			}
+		}
+	}
+
+	public void testRoundTrip() throws Exception {
+		DataRecordMetadata metadata = createMetadata();
+		DataRecord expected = DataRecordFactory.newRecord(metadata);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		for (ParquetDataFormatter.Compression compression : ParquetDataFormatter.Compression.values()) {
+			for (long rowGroupSize : new long[] { 4096, ParquetDataFormatter.DEFAULT_ROW_GROUP_SIZE }) {
+				writeFile(metadata, compression, rowGroupSize);
+				ParquetDataParser parser = createParser(metadata);
+				try {
+					parser.setDataSource(tmpFile);
+					for (int i = 0; i < RECORD_COUNT; i++) {
+						assertNotNull(parser.getNext(record));
+						fillRecord(expected, i);
+						for (int field = 0; field < metadata.getNumFields(); field++) {
+							assertFieldEquals(expected.getField(field), record.getField(field));
+						}
+					}
+					assertNull(parser.getNext(record));
+				} finally {
+					parser.close();
+				}
+			}
+		}
+	}
+
+	public void testProjection() throws Exception {
+		writeFile(createMetadata(), ParquetDataFormatter.Compression.GZIP, 4096);
+
+		DataRecordMetadata metadata = new DataRecordMetadata("projection", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("valid", DataFieldType.BOOLEAN, "|"));
+		DataFieldMetadata identifier = new DataFieldMetadata("identifier", DataFieldType.LONG, "\n");
+		identifier.setLabel("id");
+		metadata.addField(identifier);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		ParquetDataParser parser = createParser(metadata);
+		try {
+			parser.setDataSource(tmpFile);
+			for (int i = 0; i < RECORD_COUNT; i++) {
+				assertNotNull(parser.getNext(record));
+				assertEquals(Long.valueOf(i), record.getField("identifier").getValue());
+				assertEquals((i + 8) % 7 == 0, record.getField("valid").isNull());
+			}
+			assertNull(parser.getNext(record));
+		} finally {
+			parser.close();
+		}
+
+		metadata.addField(new DataFieldMetadata("missing", DataFieldType.STRING, "\n"));
+		parser = createParser(metadata);
+		try {
+			parser.setDataSource(tmpFile);
+			fail("Missing column not detected");
+		} catch (ComponentNotReadyException e) {
+			// expected
+		} finally {
+			parser.close();
+		}
+	}
+
+	public void testRangeFilter() throws Exception {
+		DataRecordMetadata metadata = createMetadata();
+		writeFile(metadata, ParquetDataFormatter.Compression.NONE, 4096);
+
+		ParquetDataParser parser = createParser(metadata);
+		parser.setRangeFilter(new CloverDataRangeFilter("$id>=1000;$id<1100", metadata));
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		try {
+			parser.setDataSource(tmpFile);
+			for (int i = 1000; i < 1100; i++) {
+				assertNotNull(parser.getNext(record));
+				assertEquals(i, record.getField("id").getValue());
+			}
+			assertNull(parser.getNext(record));
+			assertTrue(parser.getSkippedRowGroups() > 0);
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * Data pages v1 with dictionary encoded and OPTIONAL columns, bit-packed definition levels
+	 * and dictionary indices, two row groups.
+	 */
+	public void testDictionaryEncodedFixture() throws Exception {
+		DataRecordMetadata metadata = new DataRecordMetadata("fixture", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, "|"));
+		metadata.addField(new DataFieldMetadata("city", DataFieldType.STRING, "|"));
+		metadata.addField(new DataFieldMetadata("amount", DataFieldType.LONG, "|"));
+		metadata.addField(new DataFieldMetadata("score", DataFieldType.NUMBER, "|"));
+		metadata.addField(new DataFieldMetadata("flag", DataFieldType.BOOLEAN, "\n"));
+		File file = new File(FIXTURES_DIR + "dictionary_v1.parquet");
+
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		ParquetDataParser parser = createParser(metadata);
+		try {
+			parser.setDataSource(file);
+			for (int i = 0; i < 200; i++) {
+				assertNotNull(parser.getNext(record));
+				assertEquals(i, record.getField("id").getValue());
+				assertNullableEquals(i % 4 == 3 ? null : CITIES[i % 5], record.getField("city"));
+				assertNullableEquals(i % 6 == 5 ? null : Long.valueOf((i % 10) * 1000), record.getField("amount"));
+				assertNullableEquals(i % 5 == 2 ? null : Double.valueOf(i * 0.5), record.getField("score"));
+				assertEquals(i % 3 == 0, record.getField("flag").getValue());
+			}
+			assertNull(parser.getNext(record));
+		} finally {
+			parser.close();
+		}
+
+		// the first row group is skipped according to its statistics
+		parser = createParser(metadata);
+		parser.setRangeFilter(new CloverDataRangeFilter("$id>=150", metadata));
+		try {
+			parser.setDataSource(file);
+			for (int i = 150; i < 200; i++) {
+				assertNotNull(parser.getNext(record));
+				assertEquals(i, record.getField("id").getValue());
+			}
+			assertNull(parser.getNext(record));
+			assertEquals(1, parser.getSkippedRowGroups());
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * GZIP compressed data pages v2 with uncompressed definition levels, one page stored uncompressed,
+	 * dictionary encoded strings, DATE, TIMESTAMP_MICROS and FIXED_LEN_BYTE_ARRAY decimal columns.
+	 */
+	public void testGzipDataPageV2Fixture() throws Exception {
+		DataRecordMetadata metadata = new DataRecordMetadata("fixture", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.LONG, "|"));
+		metadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "|"));
+		metadata.addField(new DataFieldMetadata("day", DataFieldType.DATE, "|"));
+		DataFieldMetadata price = new DataFieldMetadata("price", DataFieldType.DECIMAL, "|");
+		price.setProperty(DataFieldMetadata.LENGTH_ATTR, "10");
+		price.setProperty(DataFieldMetadata.SCALE_ATTR, "2");
+		metadata.addField(price);
+		metadata.addField(new DataFieldMetadata("ts", DataFieldType.DATE, "\n"));
+
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		ParquetDataParser parser = createParser(metadata);
+		try {
+			parser.setDataSource(new File(FIXTURES_DIR + "gzip_v2.parquet"));
+			for (int i = 0; i < 150; i++) {
+				assertNotNull(parser.getNext(record));
+				assertEquals(Long.valueOf(i), record.getField("id").getValue());
+				assertNullableEquals(i % 7 == 0 ? null : "name " + (i % 11), record.getField("name"));
+				DateDataField day = (DateDataField) record.getField("day");
+				assertEquals(i % 9 == 4, day.isNull());
+				if (!day.isNull()) {
+					assertEquals((18000L + i) * 86400000L, day.getTime());
+				}
+				Numeric amount = (Numeric) record.getField("price");
+				assertEquals(i % 10 == 0, record.getField("price").isNull());
+				if (i % 10 != 0) {
+					assertEquals(0, BigDecimal.valueOf(i * 137 - 5000, 2).compareTo(amount.getBigDecimal()));
+				}
+				assertEquals((1600000000000000L + i * 1234567L) / 1000, ((DateDataField) record.getField("ts")).getTime());
+			}
+			assertNull(parser.getNext(record));
+		} finally {
+			parser.close();
+		}
+	}
+
+	/**
+	 * SNAPPY compressed data pages v1 with long literals, overlapping copies and a dictionary page.
+	 */
+	public void testSnappyDataPageV1Fixture() throws Exception {
+		DataRecordMetadata metadata = new DataRecordMetadata("fixture", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, "|"));
+		metadata.addField(new DataFieldMetadata("text", DataFieldType.STRING, "|"));
+		metadata.addField(new DataFieldMetadata("amount", DataFieldType.LONG, "|"));
+		metadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "\n"));
+
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		ParquetDataParser parser = createParser(metadata);
+		try {
+			parser.setDataSource(new File(FIXTURES_DIR + "snappy_v1.parquet"));
+			for (int i = 0; i < 300; i++) {
+				assertNotNull(parser.getNext(record));
+				assertEquals(i, record.getField("id").getValue());
+				StringBuilder text = new StringBuilder();
+				for (int j = 0; j < i % 30; j++) {
+					text.append("text ").append(i % 13).append(' ');
+				}
+				assertNullableEquals(i % 8 == 7 ? null : text.toString(), record.getField("text"));
+				assertEquals(Long.valueOf((i / 50) * 1000L), record.getField("amount").getValue());
+				assertNullableEquals(i % 5 == 1 ? null : CITIES[i % 5], record.getField("name"));
+			}
+			assertNull(parser.getNext(record));
+		} finally {
+			parser.close();
+		}
+	}
+
+	public void testSnappyBlock() throws Exception {
+		// literal "abc", overlapping copy with 1 byte offset, literal "d", copy with 2 and 4 byte offsets
+		byte[] block = { 17, 0x08, 'a', 'b', 'c', 0x09, 3, 0x00, 'd', 0x0E, 4, 0, 0x0B, 4, 0, 0, 0 };
+		assertEquals("abcabcabcdabcdabc", new String(ParquetSnappy.decompress(block, 0, block.length, 17), "US-ASCII"));
+		// the block in the middle of an array
+		byte[] shifted = new byte[block.length + 4];
+		System.arraycopy(block, 0, shifted, 2, block.length);
+		assertEquals("abcabcabcdabcdabc", new String(ParquetSnappy.decompress(shifted, 2, block.length, 17), "US-ASCII"));
+
+		// literal with the length in one extra byte
+		byte[] literal = new byte[100];
+		Arrays.fill(literal, (byte) 'x');
+		byte[] longBlock = new byte[literal.length + 3];
+		longBlock[0] = 100;
+		longBlock[1] = (byte) (60 << 2);
+		longBlock[2] = 99;
+		System.arraycopy(literal, 0, longBlock, 3, literal.length);
+		assertTrue(Arrays.equals(literal, ParquetSnappy.decompress(longBlock, 0, longBlock.length, 100)));
+
+		assertCorruptedSnappy(block, 16); // wrong uncompressed length
+		assertCorruptedSnappy(Arrays.copyOf(block, block.length - 1), 17); // truncated copy
+		assertCorruptedSnappy(new byte[] { 8, 0x00, 'a', 0x0D, 2 }, 8); // copy offset before the start
+		assertCorruptedSnappy(new byte[] { 3, 0x08, 'a', 'b' }, 3); // truncated literal
+		assertCorruptedSnappy(new byte[] { 2, 0x00, 'a', 0x01, 1 }, 2); // copy exceeds the uncompressed length
+	}
+
+	private static void assertCorruptedSnappy(byte[] block, int uncompressedSize) {
+		try {
+			ParquetSnappy.decompress(block, 0, block.length, uncompressedSize);
+			fail("Corrupted Snappy block was decompressed");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Corrupted Snappy data"));
+		}
+	}
+
+	private static void assertNullableEquals(Object expected, DataField actual) {
+		assertEquals(actual.getMetadata().getName(), expected == null, actual.isNull());
+		if (expected != null) {
+			assertEquals(expected, expected instanceof String ? actual.toString() : actual.getValue());
+		}
+	}
+
+	public void testSkip() throws Exception {
+		DataRecordMetadata metadata = createMetadata();
+		writeFile(metadata, ParquetDataFormatter.Compression.NONE, 4096);
+
+		ParquetDataParser parser = createParser(metadata);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		try {
+			parser.setDataSource(tmpFile);
+			assertEquals(10, parser.skip(10));
+			assertNotNull(parser.getNext(record));
+			assertEquals(10, record.getField("id").getValue());
+			assertEquals(2000, parser.skip(2000));
+			assertNotNull(parser.getNext(record));
+			assertEquals(2011, record.getField("id").getValue());
+			assertEquals(RECORD_COUNT - 2012, parser.skip(RECORD_COUNT));
+			assertNull(parser.getNext(record));
+		} finally {
+			parser.close();
+		}
+	}
+
+}
@@ -19,8 +19,11 @@
 package org.jetel.data.parser;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Objects;
 
 import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.jetel.data.DataRecord;
@@ -168,5 +171,31 @@ public class CloverDataParserTest extends CloverDataParser35Test {
 		version = testParse(is);
 		assertFalse(version.raw); // may change in the future
 	}
+
+	public void testMemoryMapped() throws Exception {
+		DataRecordMetadata metadata = getMetadata();
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		for (int compressLevel : new int[] {0, 1, 2}) {
+			File tmpFile = File.createTempFile("CloverDataParserTest", ".tmp");
+			try {
+				Files.write(tmpFile.toPath(), getBytes(compressLevel));
+				CloverDataParser parser = new CloverDataParser(metadata);
+				parser.setMemoryMapped(true);
+				parser.init();
+				try {
+					parser.setDataSource(tmpFile);
+					assertNotNull(parser.getNext(record));
+					assertEquals("test1", Objects.toString(record.getField(0).getValue(), null));
+					assertNotNull(parser.getNext(record));
+					assertEquals("test2", Objects.toString(record.getField(0).getValue(), null));
+					assertNull(parser.getNext(record));
+				} finally {
+					parser.close();
+				}
+			} finally {
+				tmpFile.delete();
+			}
+		}
+	}
 	
 }
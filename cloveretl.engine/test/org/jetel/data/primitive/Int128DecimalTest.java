@@ -0,0 +1,199 @@
+package org.jetel.data.primitive;
+
+import java.math.BigDecimal;
+
+import org.jetel.data.primitive.Decimal.OutOfPrecisionException;
+import org.jetel.test.CloverTestCase;
+import org.jetel.util.bytes.CloverBuffer;
+import org.jetel.util.formatter.NumericFormatterFactory;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class Int128DecimalTest extends CloverTestCase {
+
+	private static final String MAX_38 = "99999999999999999999999999999999.999999";
+
+	private Decimal create(String value, int precision, int scale) {
+		Decimal d = DecimalFactory.getDecimal(precision, scale);
+		d.setValue(new BigDecimal(value));
+		return d;
+	}
+
+	public void testFactory() {
+		assertTrue(DecimalFactory.getDecimal(18, 2) instanceof IntegerDecimal);
+		assertTrue(DecimalFactory.getDecimal(19, 2) instanceof Int128Decimal);
+		assertTrue(DecimalFactory.getDecimal(38, 38) instanceof Int128Decimal);
+		assertTrue(DecimalFactory.getDecimal(39, 2) instanceof HugeDecimal);
+		assertTrue(DecimalFactory.getDecimal(30, -2) instanceof HugeDecimal);
+	}
+
+	public void testSetAndGet() {
+		Decimal d = create(MAX_38, 38, 6);
+		assertEquals(new BigDecimal(MAX_38), d.getBigDecimal());
+		assertEquals(MAX_38, d.toString());
+
+		d = create("-12345678901234567890.129", 30, 2);
+		assertEquals(new BigDecimal("-12345678901234567890.12"), d.getBigDecimal());
+		assertEquals(-12345678901234567890.12, d.getDouble());
+		assertEquals(new BigDecimal("-12345678901234567890").longValue(), d.getLong());
+
+		d.setValue(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, d.getLong());
+		d.setValue(-15);
+		assertEquals(-15, d.getInt());
+		assertEquals("-15.00", d.toString());
+
+		try {
+			create("1" + MAX_38, 38, 6);
+			fail();
+		} catch (OutOfPrecisionException e) {
+			// expected
+		}
+	}
+
+	public void testToString() {
+		assertEquals("0.00", create("0", 20, 2).toString());
+		assertEquals("0.000001", create("0.000001", 38, 6).toString());
+		// the same notation as BigDecimal.toString()
+		assertEquals("1E-7", create("0.0000001", 38, 7).toString());
+		assertEquals("1E-30", create("0.000000000000000000000000000001", 38, 30).toString());
+		assertEquals("-0.05", create("-0.05", 20, 2).toString());
+		Decimal d = DecimalFactory.getDecimal(20, 2);
+		assertEquals("NaN", d.toString());
+	}
+
+	public void testFromString() {
+		Decimal d = DecimalFactory.getDecimal(30, 4);
+		d.fromString("-123456789012345678901.123456", NumericFormatterFactory.getPlainFormatterInstance());
+		assertEquals(new BigDecimal("-123456789012345678901.1234"), d.getBigDecimal());
+		d.fromString("+.5", NumericFormatterFactory.getPlainFormatterInstance());
+		assertEquals(new BigDecimal("0.5000"), d.getBigDecimal());
+		d.fromString("1.5E3", NumericFormatterFactory.getPlainFormatterInstance());
+		assertEquals(new BigDecimal("1500.0000"), d.getBigDecimal());
+		d.fromString("", NumericFormatterFactory.getPlainFormatterInstance());
+		assertTrue(d.isNaN());
+		try {
+			d.fromString("12345678901234567890123456789", NumericFormatterFactory.getPlainFormatterInstance());
+			fail();
+		} catch (OutOfPrecisionException e) {
+			// expected
+		}
+	}
+
+	public void testArithmetic() {
+		Decimal sum = create("0", 38, 2);
+		Decimal item = create("123456789012345678901234.56", 30, 2);
+		for (int i = 0; i < 1000; i++) {
+			sum.add(item);
+		}
+		assertEquals(new BigDecimal("123456789012345678901234560.00"), sum.getBigDecimal());
+		sum.sub(create("0.01", 20, 2));
+		assertEquals(new BigDecimal("123456789012345678901234559.99"), sum.getBigDecimal());
+		sum.add(DecimalFactory.getDecimal(5, 10, 0));
+		assertEquals(new BigDecimal("123456789012345678901234564.99"), sum.getBigDecimal());
+
+		Decimal d = create("12345678901234.5678", 30, 4);
+		d.mul(create("-3.25", 10, 2));
+		assertEquals(new BigDecimal("-40123456428012.3453"), d.getBigDecimal());
+		d.mul(new CloverLong(100000000000L));
+		assertEquals(new BigDecimal("-4012345642801234530000000.0000"), d.getBigDecimal());
+		d.div(new CloverInteger(3));
+		assertEquals(new BigDecimal("-1337448547600411510000000.0000"), d.getBigDecimal());
+
+		d = create("10.0001", 30, 4);
+		d.div(new CloverInteger(3));
+		assertEquals(new BigDecimal("3.3334"), d.getBigDecimal());
+		d.div(create("0.7", 10, 1));
+		assertEquals(new BigDecimal("4.7620"), d.getBigDecimal());
+		d.mod(new CloverInteger(2));
+		assertEquals(new BigDecimal("0.7620"), d.getBigDecimal());
+		d.neg();
+		assertEquals(new BigDecimal("-0.7620"), d.getBigDecimal());
+		d.abs();
+		assertEquals(new BigDecimal("0.7620"), d.getBigDecimal());
+	}
+
+	public void testOverflow() {
+		Decimal d = create("99999999999999999999999999999999999999", 38, 0);
+		Decimal copy = d.createCopy();
+		try {
+			d.add(copy);
+			fail();
+		} catch (OutOfPrecisionException e) {
+			// expected
+		}
+		assertEquals(copy, d);
+		try {
+			d.mul(new CloverInteger(10));
+			fail();
+		} catch (OutOfPrecisionException e) {
+			// expected
+		}
+		assertEquals(copy, d);
+		// result fits into 128 bits, but not into precision
+		d.add(new CloverInteger(1));
+		assertNull(d.getBigDecimalOutput());
+	}
+
+	public void testCompare() {
+		Decimal d = create("12345678901234567890.12", 30, 2);
+		assertEquals(0, d.compareTo(create("12345678901234567890.12", 25, 2)));
+		assertEquals(0, d.compareTo(create("12345678901234567890.1200", 25, 4)));
+		assertEquals(1, d.compareTo(Long.valueOf(Long.MAX_VALUE)));
+		assertEquals(-1, create("-1.5", 20, 2).compareTo(Long.valueOf(-1)));
+		assertEquals(1, create("1.5", 38, 30).compareTo(Long.valueOf(1)));
+		assertEquals(-1, create("1.5", 38, 30).compareTo(Long.valueOf(Long.MAX_VALUE)));
+		assertEquals(d, create("12345678901234567890.12", 30, 2));
+		assertEquals(d.hashCode(), create("12345678901234567890.12", 30, 2).hashCode());
+		assertEquals(create("-3.5", 20, 2).hashCode(), create("-3.5", 10, 2).hashCode());
+	}
+
+	public void testSerialization() {
+		Decimal[] values = {
+				create(MAX_38, 38, 6),
+				create("-" + MAX_38, 38, 6),
+				create("0", 20, 2),
+				create("-1", 20, 2),
+				DecimalFactory.getDecimal(20, 2)
+		};
+		CloverBuffer buffer = CloverBuffer.allocate(1000);
+		for (Decimal value : values) {
+			int position = buffer.position();
+			value.serialize(buffer);
+			assertEquals(value.getSizeSerialized(), buffer.position() - position);
+		}
+		buffer.flip();
+		for (Decimal value : values) {
+			Decimal copy = DecimalFactory.getDecimal(value.getPrecision(), value.getScale());
+			copy.deserialize(buffer);
+			assertEquals(value.isNaN(), copy.isNaN());
+			if (!value.isNaN()) {
+				assertEquals(value.getBigDecimal(), copy.getBigDecimal());
+			}
+		}
+	}
+
+	public void testHugeDecimalCompatibility() {
+		CloverBuffer buffer = CloverBuffer.allocate(1000);
+		Decimal huge = new HugeDecimal(new BigDecimal("-1234567890123456789012.345"), 30, 3, false);
+		huge.serialize(buffer);
+		// not normalized value with different scale
+		new HugeDecimal(new BigDecimal("1.23456"), 30, 3, false).serialize(buffer);
+		create("-1234567890123456789012.345", 30, 3).serialize(buffer);
+		buffer.flip();
+
+		Decimal d = DecimalFactory.getDecimal(30, 3);
+		d.deserialize(buffer);
+		assertEquals(new BigDecimal("-1234567890123456789012.345"), d.getBigDecimal());
+		d.deserialize(buffer);
+		assertEquals(new BigDecimal("1.234"), d.getBigDecimal());
+		Decimal h = new HugeDecimal(null, 30, 3, true);
+		h.deserialize(buffer);
+		assertEquals(huge, h);
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.plugin;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetel.exception.ComponentNotReadyException;
+
+/**
+ * Measures loading of plugin descriptors of all plugins in the plugins directory
+ * by parsing of their manifests and from a {@link PluginRegistryIndex}.
+ * Not a part of the unit test suite, run it as a Java application:
+ *
+ * <pre>
+ * java org.jetel.plugin.PluginRegistryIndexBenchmark [parse|index|both] [rounds]
+ * </pre>
+ *
+ * The first round of a fresh JVM corresponds to the engine startup, the modes
+ * <code>parse</code> and <code>index</code> measure it for one of the ways only.
+ * The plugins directory is given by the <code>cloveretl.plugins</code> system property,
+ * the parent directory by default.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class PluginRegistryIndexBenchmark {
+
+	private static final String MANIFEST = "plugin.xml";
+
+	public static void main(String[] args) throws Exception {
+		String mode = (args.length > 0) ? args[0] : "both";
+		boolean parse = !mode.equals("index");
+		boolean index = !mode.equals("parse");
+
+		PluginLocation[] locations = getPluginLocations(new File(System.getProperty("cloveretl.plugins", "..")));
+		if (mode.equals("store")) {
+			new PluginRegistryIndex(new File(args[1])).store(locations, parse(locations));
+			return;
+		}
+		int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+		// the index is trusted only in a directory not writable by other users
+		File indexDir = Files.createTempDirectory("plugin-registry").toFile();
+		indexDir.deleteOnExit();
+		File indexFile = new File(indexDir, "plugins.idx");
+		indexFile.deleteOnExit();
+		PluginRegistryIndex registryIndex = new PluginRegistryIndex(indexFile);
+		if (index) {
+			// the index is created in a separate JVM, the first parsing would be measured otherwise
+			Process process = new ProcessBuilder(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+					"-cp", System.getProperty("java.class.path"), "-Dcloveretl.plugins=" + System.getProperty("cloveretl.plugins", ".."),
+					PluginRegistryIndexBenchmark.class.getName(), "store", indexFile.getAbsolutePath()).inheritIO().start();
+			if (process.waitFor() != 0) {
+				throw new IllegalStateException("Registry index has not been created");
+			}
+		}
+
+		long parseBest = Long.MAX_VALUE;
+		long indexBest = Long.MAX_VALUE;
+		for (int round = 1; round <= rounds; round++) {
+			StringBuilder sb = new StringBuilder("Round " + round + ":");
+			if (index) {
+				long start = System.nanoTime();
+				if (registryIndex.load(locations) == null) {
+					throw new IllegalStateException("Registry index is not valid");
+				}
+				long duration = (System.nanoTime() - start) / 1000;
+				sb.append(" index ").append(duration).append(" us");
+				indexBest = Math.min(indexBest, duration);
+			}
+			if (parse) {
+				long start = System.nanoTime();
+				parse(locations);
+				long duration = (System.nanoTime() - start) / 1000;
+				sb.append(" parse ").append(duration).append(" us");
+				parseBest = Math.min(parseBest, duration);
+			}
+			System.out.println(sb);
+		}
+		System.out.println("Best of " + rounds + " rounds, " + locations.length + " plugins:"
+				+ (index ? " index " + indexBest + " us" : "") + (parse ? " parse " + parseBest + " us" : ""));
+	}
+
+	private static PluginLocation[] getPluginLocations(File pluginsDir) throws Exception {
+		List<PluginLocation> locations = new ArrayList<PluginLocation>();
+		File[] dirs = pluginsDir.listFiles();
+		if (dirs != null) {
+			for (File dir : dirs) {
+				if (new File(dir, MANIFEST).isFile()) {
+					locations.add(new PluginLocation(dir.toURI().toURL()));
+				}
+			}
+		}
+		return locations.toArray(new PluginLocation[locations.size()]);
+	}
+
+	private static PluginDescriptor[] parse(PluginLocation[] locations) throws Exception {
+		PluginDescriptor[] result = new PluginDescriptor[locations.length];
+		for (int i = 0; i < locations.length; i++) {
+			PluginDescriptor plugin = new PluginDescriptor(new URL(locations[i].getLocation(), MANIFEST), null);
+			try {
+				plugin.init();
+				result[i] = plugin;
+			} catch (ComponentNotReadyException e) {
+				// skipped plugin
+			}
+		}
+		return result;
+	}
+
+}
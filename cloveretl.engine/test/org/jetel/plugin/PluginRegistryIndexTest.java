@@ -0,0 +1,283 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.plugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetel.component.ComponentDescription;
+import org.jetel.component.ComponentDescriptionImpl;
+import org.jetel.data.Defaults;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class PluginRegistryIndexTest extends CloverTestCase {
+
+	private static final String MANIFEST =
+			"<plugin id=\"org.test.plugin\" version=\"1.2.3\" provider-name=\"Javlin\" class=\"org.test.Activator\" greedyClassLoader=\"true\" excludedPackages=\"java.;javax.\">"
+			+ "<runtime><library path=\"lib/test.jar\"/><nativelibrary path=\"native\"/></runtime>"
+			+ "<requires><import plugin-id=\"org.jetel.engine\" plugin-version=\"1.0\" match=\"greaterOrEqual\"/></requires>"
+			+ "<extension point-id=\"component\">"
+			+ "<ETLComponent type=\"TEST_COMPONENT\" className=\"org.test.TestComponent\" name=\"Test &amp; component\" passThrough=\"true\">"
+			+ "<inputPorts><singlePort name=\"0\" required=\"true\"/></inputPorts>"
+			+ "</ETLComponent>"
+			+ "</extension>"
+			+ "<extension point-id=\"ctlfunction\">"
+			+ "<parameter id=\"libraryName\" value=\"test\"/>"
+			+ "<parameter id=\"className\" value=\"org.test.TestLib\"/>"
+			+ "<parameter id=\"function\"><value>f1</value><value>f2</value></parameter>"
+			+ "</extension>"
+			+ "</plugin>";
+
+	private File tempDir;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		tempDir = Files.createTempDirectory("pluginIndex").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		deleteRecursive(tempDir);
+	}
+
+	public void testStoreAndLoad() throws Exception {
+		PluginLocation[] locations = { createPlugin("p1", MANIFEST), createPlugin("p2", "<invalid") };
+		PluginDescriptor[] parsed = parse(locations);
+		assertNull(parsed[1]);
+
+		PluginRegistryIndex index = new PluginRegistryIndex(new File(tempDir, "plugins.idx"));
+		assertNull(index.load(locations));
+		index.store(locations, parsed);
+		PluginDescriptor[] loaded = index.load(locations);
+		assertNotNull(loaded);
+		assertEquals(2, loaded.length);
+		assertNull(loaded[1]);
+
+		PluginDescriptor plugin = loaded[0];
+		assertEquals(parsed[0].getManifest(), plugin.getManifest());
+		assertEquals("org.test.plugin", plugin.getId());
+		assertEquals("1.2.3", plugin.getVersion());
+		assertEquals("Javlin", plugin.getProviderName());
+		assertEquals("org.test.Activator", plugin.getPluginClassName());
+		assertTrue(plugin.isGreedyClassLoader());
+		assertTrue(plugin.isLazyActivated());
+		assertEquals(2, plugin.getExcludedPackages().length);
+		assertEquals("javax.", plugin.getExcludedPackages()[1]);
+		assertEquals("org.jetel.engine", plugin.getPrerequisites().get(0).getPluginId());
+		assertEquals("greaterOrEqual", plugin.getPrerequisites().get(0).getMatch());
+		assertEquals(parsed[0].getLibraries(), plugin.getLibraries());
+		assertEquals(parsed[0].getNativeLibraries(), plugin.getNativeLibraries());
+
+		Extension ctlExtension = plugin.getExtensions("ctlfunction").get(0);
+		assertEquals("org.test.TestLib", ctlExtension.getParameter("className").getString());
+		assertEquals(2, ctlExtension.getParameter("function").getValues().size());
+		assertEquals("f2", ctlExtension.getParameter("function").getValues().get(1));
+
+		Extension componentExtension = plugin.getExtensions("component").get(0);
+		assertEquals("ETLComponent", componentExtension.getContentElementName());
+		assertEquals("Test & component", componentExtension.getContentAttribute("name"));
+		ComponentDescription description = new ComponentDescriptionImpl(componentExtension);
+		assertEquals("TEST_COMPONENT", description.getType());
+		assertEquals("org.test.TestComponent", description.getClassName());
+		assertTrue(description.hasDescription());
+		// the complete XML definition is parsed on demand
+		assertTrue(description.isPassThrough());
+		assertEquals("Test & component", description.getDescription().getName());
+		assertEquals(1, description.getDescription().getInputPorts().getSinglePorts().size());
+	}
+
+	public void testValidation() throws Exception {
+		PluginLocation[] locations = { createPlugin("p1", MANIFEST) };
+		PluginRegistryIndex index = new PluginRegistryIndex(new File(tempDir, "plugins.idx"));
+		index.store(locations, parse(locations));
+		assertNotNull(index.load(locations));
+
+		// different list of plugins
+		PluginLocation[] otherLocations = { locations[0], createPlugin("p2", MANIFEST) };
+		assertNull(index.load(otherLocations));
+
+		// modified manifest
+		File manifest = new File(tempDir, "p1/plugin.xml");
+		assertTrue(manifest.setLastModified(manifest.lastModified() - 10000));
+		assertNull(index.load(locations));
+		index.store(locations, parse(locations));
+		assertNotNull(index.load(locations));
+
+		// corrupted index
+		try (FileOutputStream out = new FileOutputStream(index.getIndexFile())) {
+			out.write(new byte[] { 0x43, 0x4C, 0x50, 0x49, 0, 0, 0, 1, 0x7F });
+		}
+		assertNull(index.load(locations));
+	}
+
+	public void testUntrustedIndex() throws Exception {
+		PluginLocation[] locations = { createPlugin("p1", MANIFEST) };
+		PluginRegistryIndex index = new PluginRegistryIndex(new File(tempDir, "plugins.idx"));
+		index.store(locations, parse(locations));
+		assertTrue(PluginRegistryIndex.isTrusted(index.getIndexFile()));
+		assertNotNull(index.load(locations));
+		if (!tempDir.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			return;
+		}
+		Path indexPath = index.getIndexFile().toPath();
+		Set<PosixFilePermission> filePermissions = Files.getPosixFilePermissions(indexPath);
+		assertFalse(filePermissions.contains(PosixFilePermission.GROUP_WRITE));
+		assertFalse(filePermissions.contains(PosixFilePermission.OTHERS_WRITE));
+
+		// index writable by others
+		Set<PosixFilePermission> permissions = EnumSet.copyOf(filePermissions);
+		permissions.add(PosixFilePermission.OTHERS_WRITE);
+		Files.setPosixFilePermissions(indexPath, permissions);
+		assertNull(index.load(locations));
+		Files.setPosixFilePermissions(indexPath, filePermissions);
+		assertNotNull(index.load(locations));
+
+		// directory of the index writable by group
+		Path dirPath = tempDir.toPath();
+		Set<PosixFilePermission> dirPermissions = Files.getPosixFilePermissions(dirPath);
+		permissions = EnumSet.copyOf(dirPermissions);
+		permissions.add(PosixFilePermission.GROUP_WRITE);
+		Files.setPosixFilePermissions(dirPath, permissions);
+		assertNull(index.load(locations));
+		Files.setPosixFilePermissions(dirPath, dirPermissions);
+	}
+
+	public void testStoreCreatesPrivateDirectory() throws Exception {
+		PluginLocation[] locations = { createPlugin("p1", MANIFEST) };
+		File indexDir = new File(tempDir, "index/plugin-registry");
+		PluginRegistryIndex index = new PluginRegistryIndex(new File(indexDir, "plugins.idx"));
+		index.store(locations, parse(locations));
+		assertNotNull(index.load(locations));
+		if (indexDir.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(indexDir.toPath())));
+		}
+	}
+
+	public void testConfiguredLocation() throws Exception {
+		PluginLocation[] locations = { createPlugin("p1", MANIFEST) };
+		String original = Defaults.PLUGIN_REGISTRY_INDEX;
+		try {
+			// disabled unless configured, no file is created outside of the installation
+			Defaults.PLUGIN_REGISTRY_INDEX = PluginRegistryIndex.DISABLED;
+			assertNull(PluginRegistryIndex.getInstance(locations));
+			Defaults.PLUGIN_REGISTRY_INDEX = " ";
+			assertNull(PluginRegistryIndex.getInstance(locations));
+
+			Defaults.PLUGIN_REGISTRY_INDEX = PluginRegistryIndex.USER_HOME;
+			File userIndex = PluginRegistryIndex.getInstance(locations).getIndexFile();
+			assertEquals(new File(System.getProperty("user.home"), ".cloveretl" + File.separator + "plugin-registry"), userIndex.getParentFile());
+
+			File indexFile = new File(tempDir, "plugins.idx");
+			Defaults.PLUGIN_REGISTRY_INDEX = indexFile.getPath();
+			assertEquals(indexFile, PluginRegistryIndex.getInstance(locations).getIndexFile());
+		} finally {
+			Defaults.PLUGIN_REGISTRY_INDEX = original;
+		}
+	}
+
+	/**
+	 * The index of all engine plugins gives the same descriptors as parsing of their manifests.
+	 */
+	public void testEnginePlugins() throws Exception {
+		List<PluginLocation> locationList = new ArrayList<PluginLocation>();
+		for (PluginDescriptor plugin : Plugins.getPluginDescriptors().values()) {
+			locationList.add(new PluginLocation(new URL(plugin.getManifest(), ".")));
+		}
+		PluginLocation[] locations = locationList.toArray(new PluginLocation[locationList.size()]);
+		PluginDescriptor[] parsed = parse(locations);
+		PluginRegistryIndex index = new PluginRegistryIndex(new File(tempDir, "plugins.idx"));
+		index.store(locations, parsed);
+
+		PluginDescriptor[] loaded = index.load(locations);
+		assertNotNull(loaded);
+		assertEquals(parsed.length, loaded.length);
+		for (int i = 0; i < parsed.length; i++) {
+			if (parsed[i] == null) {
+				assertNull(loaded[i]);
+				continue;
+			}
+			assertEquals(parsed[i].getId(), loaded[i].getId());
+			assertEquals(parsed[i].getVersion(), loaded[i].getVersion());
+			assertEquals(parsed[i].getPluginClassName(), loaded[i].getPluginClassName());
+			assertEquals(parsed[i].getLibraries(), loaded[i].getLibraries());
+			assertEquals(parsed[i].getPrerequisites().size(), loaded[i].getPrerequisites().size());
+			List<Extension> parsedExtensions = parsed[i].getExtensions();
+			List<Extension> loadedExtensions = loaded[i].getExtensions();
+			assertEquals(parsed[i].getId(), parsedExtensions.size(), loadedExtensions.size());
+			for (int j = 0; j < parsedExtensions.size(); j++) {
+				assertEquals(parsedExtensions.get(j).getPointId(), loadedExtensions.get(j).getPointId());
+				assertEquals(parsedExtensions.get(j).getParameters().keySet(), loadedExtensions.get(j).getParameters().keySet());
+			}
+		}
+	}
+
+	private PluginDescriptor[] parse(PluginLocation[] locations) throws IOException {
+		PluginDescriptor[] result = new PluginDescriptor[locations.length];
+		for (int i = 0; i < locations.length; i++) {
+			PluginDescriptor plugin = new PluginDescriptor(new URL(locations[i].getLocation(), "plugin.xml"), null);
+			try {
+				plugin.init();
+				result[i] = plugin;
+			} catch (ComponentNotReadyException e) {
+				// skipped plugin
+			}
+		}
+		return result;
+	}
+
+	private PluginLocation createPlugin(String name, String manifest) throws IOException {
+		File pluginDir = new File(tempDir, name);
+		assertTrue(pluginDir.mkdir());
+		try (FileOutputStream out = new FileOutputStream(new File(pluginDir, "plugin.xml"))) {
+			out.write(manifest.getBytes(StandardCharsets.UTF_8));
+		}
+		return new PluginLocation(pluginDir.toURI().toURL());
+	}
+
+	private static void deleteRecursive(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				deleteRecursive(child);
+			}
+		}
+		file.delete();
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.Defaults;
+import org.jetel.data.formatter.provider.DataFormatterProvider;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class MultiFileWriterTest extends CloverTestCase {
+
+	private static final int PARTITIONS = 7;
+	private static final int RECORDS = 1000;
+
+	private DataRecordMetadata metadata;
+	private File dir;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		metadata = new DataRecordMetadata("test");
+		metadata.addField(new DataFieldMetadata("key", DataFieldType.INTEGER, ";"));
+		metadata.addField(new DataFieldMetadata("value", DataFieldType.STRING, "\n"));
+		dir = Files.createTempDirectory("partitions").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		deleteDir(dir);
+		super.tearDown();
+	}
+
+	public void testMaxOpenFiles() throws Exception {
+		File expected = write("expected", 0, 0);
+		assertEquals(PARTITIONS, expected.list().length);
+		assertSameFiles(expected, write("lru", 2, 0));
+	}
+
+	public void testPartitionBuffer() throws Exception {
+		File expected = write("expected", 0, 0);
+		assertSameFiles(expected, write("buffered", 0, 300));
+		assertSameFiles(expected, write("lruBuffered", 2, 300));
+	}
+
+	/**
+	 * Memory for buffered records of a single partition is not limited by the record size limit.
+	 */
+	public void testPartitionBufferOverRecordLimit() throws Exception {
+		int recordLimitSize = Defaults.Record.RECORD_LIMIT_SIZE;
+		Defaults.Record.RECORD_LIMIT_SIZE = Defaults.Record.RECORD_INITIAL_SIZE;
+		try {
+			int records = 20000;
+			File expected = write("expected", 0, 0, records);
+			assertSameFiles(expected, write("buffered", 0, 16 * Defaults.Record.RECORD_LIMIT_SIZE, records));
+		} finally {
+			Defaults.Record.RECORD_LIMIT_SIZE = recordLimitSize;
+		}
+	}
+
+	public void testAppendSupported() throws Exception {
+		URL contextURL = dir.toURI().toURL();
+		assertTrue(TargetFile.isAppendSupported(contextURL, "part.txt"));
+		assertTrue(TargetFile.isAppendSupported(contextURL, "file:/tmp/part.txt"));
+		assertTrue(TargetFile.isAppendSupported(contextURL, "sandbox://data/part.txt"));
+		assertTrue(TargetFile.isAppendSupported(contextURL, "sftp://user@host/part.txt"));
+		assertFalse(TargetFile.isAppendSupported(contextURL, "ftp://user@host/part.txt"));
+		assertFalse(TargetFile.isAppendSupported(contextURL, "s3://bucket/part.txt"));
+		assertFalse(TargetFile.isAppendSupported(contextURL, "http://host/webdav/part.txt"));
+		assertFalse(TargetFile.isAppendSupported(contextURL, "zip:(parts.zip)#part.txt"));
+		assertFalse(TargetFile.isAppendSupported(contextURL, "gzip:(part.txt.gz)"));
+	}
+
+	private File write(String name, int maxOpenFiles, int partitionBufferSize) throws Exception {
+		return write(name, maxOpenFiles, partitionBufferSize, RECORDS);
+	}
+
+	private File write(String name, int maxOpenFiles, int partitionBufferSize, int records) throws Exception {
+		File target = new File(dir, name);
+		assertTrue(target.mkdir());
+
+		DataFormatterProvider formatterProvider = new DataFormatterProvider();
+		formatterProvider.setHeader("header\n");
+		MultiFileWriter writer = new MultiFileWriter(formatterProvider, target.toURI().toURL(), "part_##.txt");
+		writer.setPartitionKeyNames(new String[] { "key" });
+		writer.setMaxOpenFiles(maxOpenFiles);
+		writer.setPartitionBufferSize(partitionBufferSize);
+		writer.init(metadata);
+
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		for (int i = 0; i < records; i++) {
+			record.getField(0).setValue((i * 31) % PARTITIONS);
+			record.getField(1).setValue("record number " + i);
+			writer.write(record);
+		}
+		writer.finish();
+		writer.close();
+		return target;
+	}
+
+	private static void assertSameFiles(File expected, File actual) throws Exception {
+		String[] names = expected.list();
+		Arrays.sort(names);
+		String[] actualNames = actual.list();
+		Arrays.sort(actualNames);
+		assertTrue(Arrays.equals(names, actualNames));
+		for (String name : names) {
+			assertEquals(name, new String(Files.readAllBytes(new File(expected, name).toPath()), "UTF-8"),
+					new String(Files.readAllBytes(new File(actual, name).toPath()), "UTF-8"));
+		}
+	}
+
+	private static void deleteDir(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				deleteDir(child);
+			}
+		}
+		file.delete();
+	}
+
+}
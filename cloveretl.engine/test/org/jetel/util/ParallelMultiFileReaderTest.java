@@ -0,0 +1,290 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetel.component.HelloWorldComponent;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.parser.TextParser;
+import org.jetel.data.parser.TextParserConfiguration;
+import org.jetel.data.parser.TextParserFactory;
+import org.jetel.exception.BadDataFormatException;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.exception.JetelException;
+import org.jetel.exception.ParserExceptionHandlerFactory;
+import org.jetel.exception.PolicyType;
+import org.jetel.graph.ContextProvider;
+import org.jetel.graph.ContextProvider.Context;
+import org.jetel.graph.Node;
+import org.jetel.graph.Phase;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ParallelMultiFileReaderTest extends CloverTestCase {
+
+	private static final int FILES = 5;
+
+	private static final int LINES = 3000;
+
+	private static final int PARALLELISM = 3;
+
+	private File dir;
+
+	private URL contextURL;
+
+	private DataRecordMetadata metadata;
+
+	private Node node;
+
+	private Context context;
+
+	private ParallelMultiFileReader reader;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		metadata = new DataRecordMetadata("test", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("file", DataFieldType.STRING, ";"));
+		metadata.addField(new DataFieldMetadata("line", DataFieldType.INTEGER, "\n"));
+
+		dir = Files.createTempDirectory("parallel").toFile();
+		contextURL = dir.toURI().toURL();
+		for (int i = 0; i < FILES; i++) {
+			writeFile(i, -1);
+		}
+
+		// the workers are child threads of a running component
+		TransformationGraph graph = new TransformationGraph();
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+		node = new HelloWorldComponent("READER");
+		phase.addNode(node);
+		node.init();
+		node.preExecute();
+		context = ContextProvider.registerNode(node);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (reader != null) {
+			reader.postExecute();
+		}
+		ContextProvider.unregister(context);
+		deleteDir(dir);
+		super.tearDown();
+	}
+
+	/**
+	 * Writes lines "f&lt;file&gt;;&lt;line&gt;", the line with the given index has an invalid number.
+	 */
+	private void writeFile(int file, int invalidLine) throws Exception {
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(dir, "file" + file + ".txt")), "UTF-8")) {
+			for (int line = 0; line < LINES; line++) {
+				writer.write("f" + file + ";" + (line == invalidLine ? "abc" : String.valueOf(line)) + "\n");
+			}
+		}
+	}
+
+	private ParallelMultiFileReader startReader(TestReaderFactory factory, boolean preserveFileOrder) throws Exception {
+		reader = new ParallelMultiFileReader(factory, contextURL, "*.txt", PARALLELISM, preserveFileOrder);
+		reader.preExecute();
+		return reader;
+	}
+
+	public void testPreserveFileOrder() throws Exception {
+		startReader(new TestReaderFactory(-1), true);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		for (int file = 0; file < FILES; file++) {
+			for (int line = 0; line < LINES; line++) {
+				assertNotNull(reader.getNext(record));
+				assertEquals("f" + file, record.getField("file").getValue().toString());
+				assertEquals(line, record.getField("line").getValue());
+				assertTrue(reader.getSourceName(), reader.getSourceName().endsWith("file" + file + ".txt"));
+			}
+		}
+		assertNull(reader.getNext(record));
+	}
+
+	public void testUnordered() throws Exception {
+		startReader(new TestReaderFactory(-1), false);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		Map<String, Integer> lastLines = new HashMap<String, Integer>();
+		int count = 0;
+		while (reader.getNext(record) != null) {
+			String file = record.getField("file").getValue().toString();
+			int line = (Integer) record.getField("line").getValue();
+			Integer last = lastLines.get(file);
+			// records of one file are returned in their order
+			assertEquals(last == null ? 0 : last + 1, line);
+			lastLines.put(file, line);
+			count++;
+		}
+		assertEquals(FILES * LINES, count);
+		assertEquals(FILES, lastLines.size());
+		for (Integer last : lastLines.values()) {
+			assertEquals(LINES - 1, last.intValue());
+		}
+	}
+
+	public void testParseErrorInMiddleFile() throws Exception {
+		writeFile(2, 500);
+		startReader(new TestReaderFactory(-1), true);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		int count = 0;
+		boolean failed = false;
+		while (true) {
+			try {
+				if (reader.getNext(record) == null) {
+					break;
+				}
+			} catch (BadDataFormatException e) {
+				assertFalse(failed);
+				// the error is thrown in the place of the invalid record
+				assertEquals(2 * LINES + 500, count);
+				assertTrue(reader.getSourceName(), reader.getSourceName().endsWith("file2.txt"));
+				failed = true;
+				count++;
+				continue;
+			}
+			assertEquals(count / LINES, Integer.parseInt(record.getField("file").getValue().toString().substring(1)));
+			assertEquals(count % LINES, record.getField("line").getValue());
+			count++;
+		}
+		assertTrue(failed);
+		assertEquals(FILES * LINES, count);
+	}
+
+	public void testWorkerFailure() throws Exception {
+		// the first worker fails before it takes any file, the others read all the files
+		TestReaderFactory factory = new TestReaderFactory(0);
+		startReader(factory, true);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		int count = 0;
+		try {
+			while (reader.getNext(record) != null) {
+				count++;
+			}
+			fail("Failure of the worker has not been reported");
+		} catch (JetelException e) {
+			assertTrue(e.getCause() instanceof ComponentNotReadyException);
+		}
+		assertEquals(FILES * LINES, count);
+		assertEquals(PARALLELISM, factory.createdReaders.get());
+	}
+
+	public void testEarlyPostExecute() throws Exception {
+		startReader(new TestReaderFactory(-1), true);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		for (int i = 0; i < 10; i++) {
+			assertNotNull(reader.getNext(record));
+		}
+		List<Thread> threads = getWorkerThreads();
+		for (int i = 0; i < 100 && threads.size() < PARALLELISM; i++) {
+			Thread.sleep(50);
+			threads = getWorkerThreads();
+		}
+		assertEquals(PARALLELISM, threads.size());
+
+		// workers blocked by the full queues are stopped
+		reader.postExecute();
+		reader = null;
+		for (Thread thread : threads) {
+			assertFalse(thread.getName(), thread.isAlive());
+		}
+	}
+
+	private static List<Thread> getWorkerThreads() {
+		Thread[] threads = new Thread[Thread.activeCount() * 2 + 10];
+		int count = Thread.enumerate(threads);
+		List<Thread> result = new ArrayList<Thread>();
+		for (int i = 0; i < count; i++) {
+			if (threads[i].getName().startsWith("READER: ParallelReader")) {
+				result.add(threads[i]);
+			}
+		}
+		return result;
+	}
+
+	private static void deleteDir(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				deleteDir(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * Creates text readers, the reader with the given index cannot be created.
+	 */
+	private class TestReaderFactory implements ParallelMultiFileReader.ReaderFactory {
+
+		private final int failingReader;
+
+		private final AtomicInteger createdReaders = new AtomicInteger();
+
+		TestReaderFactory(int failingReader) {
+			this.failingReader = failingReader;
+		}
+
+		@Override
+		public MultiFileReader createReader() throws ComponentNotReadyException {
+			if (createdReaders.getAndIncrement() == failingReader) {
+				throw new ComponentNotReadyException("Reader cannot be created");
+			}
+			TextParserConfiguration cfg = new TextParserConfiguration(metadata);
+			cfg.setPolicyType(PolicyType.CONTROLLED);
+			TextParser parser = TextParserFactory.getParser(cfg);
+			parser.setExceptionHandler(ParserExceptionHandlerFactory.getHandler(PolicyType.CONTROLLED));
+			MultiFileReader reader = new MultiFileReader(parser, contextURL, null);
+			reader.init(metadata);
+			return reader;
+		}
+
+		@Override
+		public DataRecord createRecord() {
+			return DataRecordFactory.newRecord(metadata);
+		}
+	}
+
+}
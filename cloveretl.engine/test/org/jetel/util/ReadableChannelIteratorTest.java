@@ -24,6 +24,10 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
@@ -119,6 +123,43 @@ public class ReadableChannelIteratorTest extends CloverTestCase {
 		}
 	}
 
+	public void testPrefetch() throws Exception {
+		File dir = Files.createTempDirectory("prefetch").toFile();
+		try {
+			StringBuilder fileURL = new StringBuilder();
+			for (int i = 0; i < 7; i++) {
+				File file = new File(dir, "file" + i + ".txt");
+				Files.write(file.toPath(), ("content " + i).getBytes(StandardCharsets.UTF_8));
+				if (i > 0) {
+					fileURL.append(';');
+				}
+				fileURL.append(file.getAbsolutePath());
+			}
+			ReadableChannelIterator sourceIterator = new ReadableChannelIterator(null, FileUtils.getFileURL("."), fileURL.toString());
+			sourceIterator.setPrefetchDepth(3);
+			sourceIterator.init();
+			try {
+				for (int i = 0; i < 7; i++) {
+					assertTrue(sourceIterator.hasNext());
+					ReadableByteChannel channel = sourceIterator.nextChannel();
+					assertEquals(new File(dir, "file" + i + ".txt").getCanonicalPath(), sourceIterator.getCurrentFileName());
+					ByteBuffer buffer = ByteBuffer.allocate(100);
+					while (channel.read(buffer) >= 0) {
+						// read all
+					}
+					channel.close();
+					assertEquals("content " + i, new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+				}
+				assertFalse(sourceIterator.hasNext());
+				assertNull(sourceIterator.next());
+			} finally {
+				sourceIterator.free();
+			}
+		} finally {
+			FileUtils.deleteRecursively(dir);
+		}
+	}
+
 	private URI getCanonicalFileURI(String prefix, String path) throws URISyntaxException, IOException {
 		return new URI(prefix + new File(path).getCanonicalPath().replace('\\', '/'));
 	}
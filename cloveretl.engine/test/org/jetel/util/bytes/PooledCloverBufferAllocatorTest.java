@@ -0,0 +1,126 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.bytes;
+
+import java.nio.ByteBuffer;
+
+import org.jetel.data.Defaults;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class PooledCloverBufferAllocatorTest extends CloverTestCase {
+
+	private boolean useDirectMemory;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		useDirectMemory = Defaults.USE_DIRECT_MEMORY;
+		Defaults.USE_DIRECT_MEMORY = true;
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		Defaults.USE_DIRECT_MEMORY = useDirectMemory;
+		super.tearDown();
+	}
+
+	public void testReuse() {
+		PooledCloverBufferAllocator allocator = new PooledCloverBufferAllocator(1 << 20);
+		CloverBuffer buffer = allocator.allocate(5000, true);
+		assertTrue(buffer.isDirect());
+		assertEquals(8192, buffer.capacity());
+		assertEquals(8192, allocator.getUsedBytes());
+		ByteBuffer inner = buffer.buf();
+		buffer.putInt(10);
+		buffer.free();
+		buffer.free();
+		assertEquals(0, allocator.getUsedBytes());
+		assertEquals(8192, allocator.getPooledBytes());
+
+		buffer = allocator.allocate(6000, 100000, true);
+		assertSame(inner, buffer.buf());
+		assertEquals(0, buffer.position());
+		assertEquals(8192, buffer.limit());
+		assertEquals(1, allocator.getReuseCount());
+		assertEquals(1, allocator.getAllocationCount());
+		assertEquals(0, allocator.getPooledBytes());
+	}
+
+	public void testExpand() {
+		PooledCloverBufferAllocator allocator = new PooledCloverBufferAllocator(1 << 20);
+		CloverBuffer buffer = allocator.allocate(4096, true);
+		ByteBuffer inner = buffer.buf();
+		for (int i = 0; i < 3000; i++) {
+			buffer.putInt(i);
+		}
+		assertNotSame(inner, buffer.buf());
+		assertEquals(16384, buffer.capacity());
+		assertEquals(16384, allocator.getUsedBytes());
+		assertEquals(4096 + 8192, allocator.getPooledBytes());
+		buffer.flip();
+		for (int i = 0; i < 3000; i++) {
+			assertEquals(i, buffer.getInt());
+		}
+	}
+
+	public void testLimits() {
+		PooledCloverBufferAllocator allocator = new PooledCloverBufferAllocator(10000);
+		CloverBuffer first = allocator.allocate(8192, true);
+		CloverBuffer second = allocator.allocate(8192, true);
+		first.free();
+		second.free();
+		assertEquals(8192, allocator.getPooledBytes());
+
+		// the size class exceeds the maximum capacity
+		CloverBuffer exact = allocator.allocate(5000, 6000, true);
+		assertEquals(5000, exact.capacity());
+		exact.free();
+		assertEquals(8192, allocator.getPooledBytes());
+
+		allocator.clear();
+		assertEquals(0, allocator.getPooledBytes());
+	}
+
+	public void testSharedNotReleased() {
+		PooledCloverBufferAllocator allocator = new PooledCloverBufferAllocator(1 << 20);
+		CloverBuffer buffer = allocator.allocate(4096, true);
+		CloverBuffer slice = buffer.slice();
+		slice.free();
+		buffer.free();
+		assertEquals(0, allocator.getPooledBytes());
+	}
+
+	public void testHeap() {
+		PooledCloverBufferAllocator allocator = new PooledCloverBufferAllocator(1 << 20);
+		CloverBuffer buffer = allocator.allocate(5000, false);
+		assertFalse(buffer.isDirect());
+		assertEquals(5000, buffer.capacity());
+		buffer.free();
+		assertEquals(0, allocator.getPooledBytes());
+		assertEquals(0, allocator.getUsedBytes());
+	}
+
+}
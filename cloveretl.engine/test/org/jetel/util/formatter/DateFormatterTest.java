@@ -134,6 +134,20 @@ public class DateFormatterTest extends CloverTestCase {
 		assertEquals(expected, result);
 	}
 	
+	public void testFormatMillis() throws Exception {
+		Date date = getTime(28,05,2013, 5,34,12, "GMT-6");
+		
+		formatter = DateFormatterFactory.getFormatter("dd.MM.yyyy HH:mm:ss Z", (Locale) null, "GMT+4");
+		assertEquals("28.05.2013 15:34:12 +0400", formatter.format(date.getTime()));
+		assertEquals(formatter.format(date), formatter.format(date.getTime()));
+
+		formatter = DateFormatterFactory.getFormatter("joda:dd.MM.yyyy HH:mm:ss Z", (Locale) null, "joda:+04:00");
+		assertEquals("28.05.2013 15:34:12 +0400", formatter.format(date.getTime()));
+
+		formatter = DateFormatterFactory.getFormatter("iso-8601:dateTime", (Locale) null, "joda:UTC");
+		assertEquals(formatter.format(date), formatter.format(date.getTime()));
+	}
+	
 	private Date getTime(int day, int month, int year, int hour, int minute, int second, String timeZone) {
 		calendar.setTimeZone(TimeZone.getTimeZone(timeZone));
 		calendar.set(year, month-1, day, hour, minute, second);
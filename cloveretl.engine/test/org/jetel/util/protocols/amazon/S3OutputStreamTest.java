@@ -0,0 +1,222 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.protocols.amazon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetel.test.CloverTestCase;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+/**
+ * Tests streaming upload of {@link S3OutputStream} against an in-memory S3 stand-in.
+ * 
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class S3OutputStreamTest extends CloverTestCase {
+	
+	private static final int PART_SIZE = 5 * 1024 * 1024;
+	
+	private static final int PARTS_IN_FLIGHT = 3;
+	
+	public void testSmallObject() throws IOException {
+		LocalS3 s3 = new LocalS3();
+		byte[] data = createData(1000);
+		try (S3OutputStream os = new S3OutputStream(s3.getService(), "bucket", "small.txt", PART_SIZE, PARTS_IN_FLIGHT)) {
+			os.write(data);
+		}
+		assertTrue(Arrays.equals(data, s3.objects.get("bucket/small.txt")));
+		assertEquals(0, s3.uploadedParts.get());
+		
+		try (S3OutputStream os = new S3OutputStream(s3.getService(), "bucket", "empty.txt", PART_SIZE, PARTS_IN_FLIGHT)) {
+			// empty object
+		}
+		assertEquals(0, s3.objects.get("bucket/empty.txt").length);
+	}
+	
+	public void testMultipartUpload() throws IOException {
+		LocalS3 s3 = new LocalS3();
+		byte[] data = createData(4 * PART_SIZE + 12345);
+		try (S3OutputStream os = new S3OutputStream(s3.getService(), "bucket", "large.txt", PART_SIZE, PARTS_IN_FLIGHT)) {
+			os.write(data, 0, 10);
+			for (int i = 10; i < 100; i++) {
+				os.write(data[i]);
+			}
+			for (int i = 100; i < data.length; i += 100000) {
+				os.write(data, i, Math.min(100000, data.length - i));
+			}
+		}
+		assertTrue(Arrays.equals(data, s3.objects.get("bucket/large.txt")));
+		assertEquals(5, s3.uploadedParts.get());
+		assertTrue(s3.maxInFlight.get() <= PARTS_IN_FLIGHT);
+		assertEquals(0, s3.aborted.get());
+		
+		// exact multiple of the part size
+		data = createData(2 * PART_SIZE);
+		try (S3OutputStream os = new S3OutputStream(s3.getService(), "bucket", "exact.txt", PART_SIZE, PARTS_IN_FLIGHT)) {
+			os.write(data);
+		}
+		assertTrue(Arrays.equals(data, s3.objects.get("bucket/exact.txt")));
+	}
+	
+	public void testFailedPart() throws IOException {
+		LocalS3 s3 = new LocalS3();
+		s3.failingPart = 2;
+		byte[] data = createData(PART_SIZE);
+		S3OutputStream os = new S3OutputStream(s3.getService(), "bucket", "failed.txt", PART_SIZE, PARTS_IN_FLIGHT);
+		try {
+			for (int i = 0; i < 10; i++) {
+				os.write(data);
+			}
+			os.close();
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+		assertEquals(1, s3.aborted.get());
+		assertFalse(s3.objects.containsKey("bucket/failed.txt"));
+	}
+	
+	private static byte[] createData(int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+	
+	/**
+	 * Minimal in-memory implementation of the S3 requests used by {@link S3OutputStream}.
+	 */
+	private static class LocalS3 implements InvocationHandler {
+		
+		private final Map<String, byte[]> objects = new TreeMap<String, byte[]>();
+		private final Map<Integer, byte[]> parts = new TreeMap<Integer, byte[]>();
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicInteger maxInFlight = new AtomicInteger();
+		private final AtomicInteger uploadedParts = new AtomicInteger();
+		private final AtomicInteger aborted = new AtomicInteger();
+		private volatile int failingPart = -1;
+		
+		public AmazonS3 getService() {
+			return (AmazonS3) Proxy.newProxyInstance(AmazonS3.class.getClassLoader(), new Class<?>[] {AmazonS3.class}, this);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("putObject")) {
+				PutObjectRequest request = (PutObjectRequest) args[0];
+				synchronized (this) {
+					objects.put(request.getBucketName() + "/" + request.getKey(), read(request.getInputStream()));
+				}
+				return new PutObjectResult();
+			} else if (name.equals("initiateMultipartUpload")) {
+				InitiateMultipartUploadRequest request = (InitiateMultipartUploadRequest) args[0];
+				InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+				result.setBucketName(request.getBucketName());
+				result.setKey(request.getKey());
+				result.setUploadId("upload-" + request.getKey());
+				return result;
+			} else if (name.equals("uploadPart")) {
+				UploadPartRequest request = (UploadPartRequest) args[0];
+				maxInFlight.set(Math.max(maxInFlight.get(), inFlight.incrementAndGet()));
+				try {
+					Thread.sleep(20);
+					if (request.getPartNumber() == failingPart) {
+						throw new AmazonServiceException("Part upload failed");
+					}
+					byte[] data = read(request.getInputStream());
+					assertEquals(request.getPartSize(), data.length);
+					synchronized (this) {
+						parts.put(request.getPartNumber(), data);
+					}
+					uploadedParts.incrementAndGet();
+					UploadPartResult result = new UploadPartResult();
+					result.setPartNumber(request.getPartNumber());
+					result.setETag("etag" + request.getPartNumber());
+					return result;
+				} finally {
+					inFlight.decrementAndGet();
+				}
+			} else if (name.equals("completeMultipartUpload")) {
+				CompleteMultipartUploadRequest request = (CompleteMultipartUploadRequest) args[0];
+				ByteArrayOutputStream object = new ByteArrayOutputStream();
+				int partNumber = 0;
+				synchronized (this) {
+					for (PartETag part : request.getPartETags()) {
+						assertEquals(++partNumber, part.getPartNumber());
+						byte[] data = parts.get(part.getPartNumber());
+						if (part.getPartNumber() < request.getPartETags().size()) {
+							assertTrue(data.length >= PART_SIZE);
+						}
+						object.write(data);
+					}
+					assertEquals(parts.size(), partNumber);
+					objects.put(request.getBucketName() + "/" + request.getKey(), object.toByteArray());
+					parts.clear();
+				}
+				return new CompleteMultipartUploadResult();
+			} else if (name.equals("abortMultipartUpload")) {
+				AbortMultipartUploadRequest request = (AbortMultipartUploadRequest) args[0];
+				assertEquals("upload-" + request.getKey(), request.getUploadId());
+				aborted.incrementAndGet();
+				synchronized (this) {
+					parts.clear();
+				}
+				return null;
+			}
+			throw new UnsupportedOperationException(name);
+		}
+		
+		private static byte[] read(InputStream is) throws IOException {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = is.read(buffer)) >= 0) {
+				out.write(buffer, 0, n);
+			}
+			return out.toByteArray();
+		}
+		
+	}
+
+}
@@ -0,0 +1,198 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.protocols.amazon;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetel.test.CloverTestCase;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+
+/**
+ * Tests {@link S3PrefetchingReader} against an in-memory S3 stand-in.
+ * 
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class S3PrefetchingReaderTest extends CloverTestCase {
+	
+	private static final int CHUNK_SIZE = 1000;
+	
+	private static final int DEPTH = 3;
+	
+	private byte[] data;
+	
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		data = new byte[10 * CHUNK_SIZE + 123];
+		new Random(0).nextBytes(data);
+	}
+	
+	public void testSequentialRead() throws IOException {
+		LocalS3 s3 = new LocalS3(data);
+		S3PrefetchingReader reader = new S3PrefetchingReader(s3.getService(), "bucket", "key", data.length, LocalS3.ETAG, CHUNK_SIZE, DEPTH);
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (InputStream is = reader.newInputStream()) {
+			assertEquals(data[0] & 0xFF, is.read());
+			result.write(data[0]);
+			byte[] buffer = new byte[700];
+			int count;
+			while ((count = is.read(buffer)) >= 0) {
+				result.write(buffer, 0, count);
+			}
+		}
+		assertTrue(Arrays.equals(data, result.toByteArray()));
+		assertEquals(11, s3.requests.get());
+		assertTrue(s3.maxInFlight.get() > 1);
+		assertTrue(s3.maxInFlight.get() <= DEPTH);
+	}
+	
+	public void testSingleByteRead() throws IOException {
+		LocalS3 s3 = new LocalS3(data);
+		S3PrefetchingReader reader = new S3PrefetchingReader(s3.getService(), "bucket", "key", data.length, LocalS3.ETAG, CHUNK_SIZE, DEPTH);
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (InputStream is = reader.newInputStream()) {
+			int b;
+			while ((b = is.read()) >= 0) {
+				result.write(b);
+			}
+		}
+		assertTrue(Arrays.equals(data, result.toByteArray()));
+		assertEquals(11, s3.requests.get());
+	}
+	
+	public void testRandomAccess() throws IOException {
+		LocalS3 s3 = new LocalS3(data);
+		try (S3PrefetchingReader reader = new S3PrefetchingReader(s3.getService(), "bucket", "key", data.length, LocalS3.ETAG, CHUNK_SIZE, DEPTH)) {
+			Random random = new Random(1);
+			for (int i = 0; i < 100; i++) {
+				int position = random.nextInt(data.length);
+				ByteBuffer buffer = ByteBuffer.allocate(random.nextInt(2 * CHUNK_SIZE) + 1);
+				int count = reader.read(position, buffer);
+				assertTrue(count > 0);
+				assertTrue(Arrays.equals(Arrays.copyOfRange(data, position, position + count), Arrays.copyOf(buffer.array(), count)));
+			}
+			assertEquals(-1, reader.read(data.length, ByteBuffer.allocate(10)));
+			assertTrue(s3.maxInFlight.get() <= DEPTH);
+		}
+	}
+	
+	public void testFailedRequest() throws IOException {
+		LocalS3 s3 = new LocalS3(data);
+		s3.failingStart = 2 * CHUNK_SIZE;
+		try (S3PrefetchingReader reader = new S3PrefetchingReader(s3.getService(), "bucket", "key", data.length, LocalS3.ETAG, CHUNK_SIZE, DEPTH)) {
+			assertEquals(CHUNK_SIZE, reader.read(0, new byte[2 * CHUNK_SIZE], 0, 2 * CHUNK_SIZE));
+			assertEquals(CHUNK_SIZE, reader.read(CHUNK_SIZE, new byte[2 * CHUNK_SIZE], 0, 2 * CHUNK_SIZE));
+			try {
+				reader.read(2 * CHUNK_SIZE, new byte[10], 0, 10);
+				fail();
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+	
+	public void testModifiedObject() throws IOException {
+		LocalS3 s3 = new LocalS3(data);
+		try (S3PrefetchingReader reader = new S3PrefetchingReader(s3.getService(), "bucket", "key", data.length, LocalS3.ETAG, CHUNK_SIZE, DEPTH)) {
+			assertEquals(CHUNK_SIZE, reader.read(0, new byte[CHUNK_SIZE], 0, CHUNK_SIZE));
+			// the object is overwritten, chunks of the new version must not be mixed with the old ones
+			s3.eTag = "\"modified\"";
+			try {
+				reader.read(8 * CHUNK_SIZE, new byte[10], 0, 10);
+				fail("Modification of the object not detected");
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+	
+	/**
+	 * Minimal in-memory implementation of ranged GET requests.
+	 */
+	private static class LocalS3 implements InvocationHandler {
+		
+		private static final String ETAG = "\"0123456789abcdef\"";
+		
+		private final byte[] content;
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicInteger maxInFlight = new AtomicInteger();
+		private final AtomicInteger requests = new AtomicInteger();
+		private volatile long failingStart = -1;
+		private volatile String eTag = ETAG;
+		
+		public LocalS3(byte[] content) {
+			this.content = content;
+		}
+
+		public AmazonS3 getService() {
+			return (AmazonS3) Proxy.newProxyInstance(AmazonS3.class.getClassLoader(), new Class<?>[] {AmazonS3.class}, this);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getName().equals("getObject") && (args[0] instanceof GetObjectRequest)) {
+				GetObjectRequest request = (GetObjectRequest) args[0];
+				long[] range = request.getRange();
+				requests.incrementAndGet();
+				int current = inFlight.incrementAndGet();
+				synchronized (this) {
+					maxInFlight.set(Math.max(maxInFlight.get(), current));
+				}
+				try {
+					Thread.sleep(10);
+					if (range[0] == failingStart) {
+						throw new AmazonServiceException("Request failed");
+					}
+					List<String> matchingETags = request.getMatchingETagConstraints();
+					if (!matchingETags.isEmpty() && !matchingETags.contains(eTag)) {
+						return null; // precondition failed
+					}
+					S3Object object = new S3Object();
+					object.getObjectMetadata().setHeader(Headers.ETAG, eTag);
+					object.setObjectContent(new ByteArrayInputStream(content, (int) range[0], (int) (range[1] - range[0] + 1)));
+					return object;
+				} finally {
+					inFlight.decrementAndGet();
+				}
+			}
+			throw new UnsupportedOperationException(method.getName());
+		}
+		
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.Defaults;
+import org.jetel.data.tape.DataRecordTape;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class LZ4BlockChannelTest extends CloverTestCase {
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		file = File.createTempFile("lz4block", ".tmp");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		file.delete();
+		super.tearDown();
+	}
+
+	public void testWriteRead() throws Exception {
+		Random random = new Random(3);
+		byte[] compressible = new byte[100000];
+		for (int i = 0; i < compressible.length; i++) {
+			compressible[i] = (byte) ('a' + (i / 100) % 5);
+		}
+		byte[] incompressible = new byte[30000];
+		random.nextBytes(incompressible);
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+				LZ4BlockChannel channel = new LZ4BlockChannel(raf.getChannel())) {
+			channel.write(ByteBuffer.wrap(compressible));
+			long secondBlock = channel.position();
+			ByteBuffer direct = ByteBuffer.allocateDirect(incompressible.length);
+			direct.put(incompressible).flip();
+			channel.write(direct);
+			channel.write(ByteBuffer.wrap(compressible, 0, 1000));
+
+			assertEquals(compressible.length + incompressible.length + 1000, channel.getRawBytes());
+			assertEquals(channel.size(), channel.getStoredBytes());
+			assertTrue(channel.getStoredBytes() < channel.getRawBytes());
+
+			// read everything by small pieces
+			channel.position(0);
+			ByteBuffer all = ByteBuffer.allocate((int) channel.getRawBytes());
+			ByteBuffer piece = ByteBuffer.allocateDirect(777);
+			while (channel.read(piece) > 0) {
+				piece.flip();
+				all.put(piece);
+				piece.clear();
+			}
+			assertFalse(all.hasRemaining());
+			all.flip();
+			assertEquals(ByteBuffer.wrap(compressible), slice(all, compressible.length));
+			assertEquals(ByteBuffer.wrap(incompressible), slice(all, incompressible.length));
+			assertEquals(ByteBuffer.wrap(compressible, 0, 1000), slice(all, 1000));
+
+			// read from a block start
+			channel.position(secondBlock);
+			ByteBuffer second = ByteBuffer.allocate(incompressible.length);
+			channel.read(second);
+			second.flip();
+			assertEquals(ByteBuffer.wrap(incompressible), second);
+
+			channel.truncate(0);
+			channel.position(0);
+			assertEquals(-1, channel.read(ByteBuffer.allocate(10)));
+		}
+	}
+
+	public void testCompressedTape() throws Exception {
+		DataRecordMetadata metadata = new DataRecordMetadata("test");
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		metadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, ";"));
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+
+		boolean spillCompression = Defaults.Graph.SPILL_COMPRESSION;
+		Defaults.Graph.SPILL_COMPRESSION = true;
+		DataRecordTape tape = new DataRecordTape();
+		try {
+			tape.open();
+			for (int chunk = 0; chunk < 3; chunk++) {
+				tape.addDataChunk();
+				for (int i = 0; i < 10000 * (chunk + 1); i++) {
+					record.getField(0).setValue(i);
+					record.getField(1).setValue("name of the record number " + i % 10);
+					tape.put(record);
+				}
+			}
+			tape.flush(false);
+
+			for (int chunk = 2; chunk >= 0; chunk--) {
+				tape.setDataChunk(chunk);
+				int i = 0;
+				while (tape.get(record)) {
+					assertEquals(i, record.getField(0).getValue());
+					assertEquals("name of the record number " + i % 10, record.getField(1).getValue().toString());
+					i++;
+				}
+				assertEquals(10000 * (chunk + 1), i);
+			}
+		} finally {
+			Defaults.Graph.SPILL_COMPRESSION = spillCompression;
+			tape.close();
+		}
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int length) {
+		ByteBuffer result = buffer.slice();
+		result.limit(length);
+		buffer.position(buffer.position() + length);
+		return result;
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+public class ParallelGZIPOutputStreamTest extends CloverTestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+	}
+
+	public void testRoundTrip() throws Exception {
+		Random random = new Random(5);
+		byte[] data = new byte[1000000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (i % 7 == 0) ? (byte) random.nextInt(256) : (byte) ('a' + (i / 13) % 20);
+		}
+
+		for (int threads : new int[] { 1, 4 }) {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+			try (ParallelGZIPOutputStream os = new ParallelGZIPOutputStream(compressed, Deflater.DEFAULT_COMPRESSION, threads, 65536)) {
+				int offset = 0;
+				while (offset < data.length) {
+					int length = Math.min(random.nextInt(50000) + 1, data.length - offset);
+					if (length % 10 == 0) {
+						os.write(data[offset]);
+						length = 1;
+					} else {
+						os.write(data, offset, length);
+					}
+					offset += length;
+					if (random.nextInt(20) == 0) {
+						os.flush();
+					}
+				}
+			}
+			assertTrue(compressed.size() < data.length / 2);
+			assertTrue(Arrays.equals(data, gunzip(compressed.toByteArray())));
+		}
+	}
+
+	public void testEmpty() throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		new ParallelGZIPOutputStream(compressed, 9, 2, 65536).close();
+		assertEquals(0, gunzip(compressed.toByteArray()).length);
+	}
+
+	private static byte[] gunzip(byte[] compressed) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (GZIPInputStream is = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			byte[] buffer = new byte[8192];
+			int count;
+			while ((count = is.read(buffer)) > 0) {
+				result.write(buffer, 0, count);
+			}
+		}
+		return result.toByteArray();
+	}
+
+}
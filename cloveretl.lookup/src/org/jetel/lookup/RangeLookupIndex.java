@@ -0,0 +1,188 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.lookup;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import org.jetel.data.DataField;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DateDataField;
+import org.jetel.data.primitive.Numeric;
+import org.jetel.metadata.DataFieldContainerType;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+
+/**
+ * Immutable snapshot of records of {@link RangeLookupTable}, shared read-only by all lookups.
+ *
+ * Records are kept in an array in the order given by {@link IntervalRecordComparator},
+ * so the first candidate for a key can be found by binary search, without locking
+ * and without creating subset views.
+ *
+ * If the first interval is defined by integer, long, number or date fields, its bounds are
+ * also stored as primitive longs sorted by interval start, together with prefix maxima
+ * of interval ends. Records whose first interval contains a key are then found by binary
+ * search over primitive bounds and a backward scan, which stops as soon as no preceding
+ * interval can reach the key. This works for overlapping intervals as well.
+ *
+ * @author Javlin, a.s. (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created 19.10.2026
+ */
+final class RangeLookupIndex {
+
+	/** all records of the lookup table in the order of {@link IntervalRecordComparator} */
+	final DataRecord[] records;
+
+	/** starts of the first interval in ascending order, null if the primitive index is not available */
+	final long[] starts;
+
+	/** ends of the first interval, in the order of {@link #starts} */
+	final long[] ends;
+
+	/** maxEnds[i] is maximum of ends[0..i] */
+	final long[] maxEnds;
+
+	/** positions in {@link #records}, in the order of {@link #starts} */
+	final int[] positions;
+
+	/**
+	 * @param sortedRecords records sorted by {@link IntervalRecordComparator}
+	 * @param startField start field of the first interval
+	 * @param endField end field of the first interval
+	 */
+	RangeLookupIndex(Collection<DataRecord> sortedRecords, DataFieldMetadata startField, DataFieldMetadata endField) {
+		this.records = sortedRecords.toArray(new DataRecord[sortedRecords.size()]);
+
+		if (!isIndexable(startField) || startField.getDataType() != endField.getDataType() || !isIndexable(endField)) {
+			starts = ends = maxEnds = null;
+			positions = null;
+			return;
+		}
+		int startIndex = startField.getNumber();
+		int endIndex = endField.getNumber();
+		final long[] recordStarts = new long[records.length];
+		long[] recordEnds = new long[records.length];
+		Integer[] order = new Integer[records.length];
+		for (int i = 0; i < records.length; i++) {
+			DataField start = records[i].getField(startIndex);
+			DataField end = records[i].getField(endIndex);
+			// null bounds are "infinities"
+			recordStarts[i] = start.isNull() ? Long.MIN_VALUE : toLong(start);
+			recordEnds[i] = end.isNull() ? Long.MAX_VALUE : toLong(end);
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Long.compare(recordStarts[o1], recordStarts[o2]);
+			}
+		});
+		starts = new long[records.length];
+		ends = new long[records.length];
+		maxEnds = new long[records.length];
+		positions = new int[records.length];
+		long maxEnd = Long.MIN_VALUE;
+		for (int i = 0; i < records.length; i++) {
+			int position = order[i];
+			positions[i] = position;
+			starts[i] = recordStarts[position];
+			ends[i] = recordEnds[position];
+			maxEnd = Math.max(maxEnd, ends[i]);
+			maxEnds[i] = maxEnd;
+		}
+	}
+
+	/**
+	 * @return true if bounds of the first interval are available as primitive values
+	 */
+	boolean isPrimitive() {
+		return starts != null;
+	}
+
+	/**
+	 * @return number of intervals with start less or equal to the given key
+	 */
+	int upperBound(long key) {
+		int low = 0;
+		int high = starts.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] <= key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Equivalent of SortedSet.tailSet(key) over {@link #records}.
+	 * @return position of the first record which is not less than the given key record
+	 */
+	int lowerBound(DataRecord keyRecord, Comparator<DataRecord> comparator) {
+		int low = 0;
+		int high = records.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (comparator.compare(records[mid], keyRecord) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static boolean isIndexable(DataFieldMetadata field) {
+		if (field.getContainerType() != null && field.getContainerType() != DataFieldContainerType.SINGLE) {
+			return false;
+		}
+		switch (field.getDataType()) {
+		case INTEGER:
+		case LONG:
+		case NUMBER:
+		case DATE:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Converts non-null value of an indexable field to long with the same ordering as
+	 * {@link DataField#compareTo(Object)}.
+	 */
+	static long toLong(DataField field) {
+		if (field.getMetadata().getDataType() == DataFieldType.DATE) {
+			return ((DateDataField) field).getTime();
+		} else if (field.getMetadata().getDataType() == DataFieldType.NUMBER) {
+			// the same ordering as Double.compare(), negative values have reversed order of bits
+			long bits = Double.doubleToLongBits(((Numeric) field).getDouble());
+			return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+		} else {
+			return ((Numeric) field).getLong();
+		}
+	}
+
+}
@@ -31,6 +31,7 @@ import java.util.NoSuchElementException;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import org.jetel.data.DataField;
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
 import org.jetel.data.Defaults;
@@ -106,6 +107,8 @@ public class RangeLookupTable extends GraphElement implements LookupTable {
     protected String metadataId;
 	protected Parser dataParser;
 	protected SortedSet<DataRecord> sortedDataRecordSet;//set of intervals
+	// immutable snapshot of sortedDataRecordSet used by lookups, null if it has to be rebuilt
+	private volatile RangeLookupIndex index;
 	protected RecordKey startKey;
 	protected String[] startFields;
 	protected int[] startField;
@@ -329,12 +332,18 @@ public class RangeLookupTable extends GraphElement implements LookupTable {
 				}
 			}
 		}
+		synchronized (sortedDataRecordSet) {
+			index = createIndex();
+		}
 	}
 	
 	@Override
 	public void postExecute() throws ComponentNotReadyException {
 		super.postExecute();
-		sortedDataRecordSet.clear();
+		synchronized (sortedDataRecordSet) {
+			sortedDataRecordSet.clear();
+			index = null;
+		}
 	}
 
 	@Override
@@ -344,7 +353,10 @@ public class RangeLookupTable extends GraphElement implements LookupTable {
 	
 	@Override
 	public synchronized void clear() {
-		sortedDataRecordSet.clear();
+		synchronized (sortedDataRecordSet) {
+			sortedDataRecordSet.clear();
+			index = null;
+		}
 	}
 
     @Override
@@ -376,7 +388,10 @@ public class RangeLookupTable extends GraphElement implements LookupTable {
             throw new NotInitializedException(this);
         }
 
-		sortedDataRecordSet.add(dataRecord.duplicate());
+		synchronized (sortedDataRecordSet) {
+			sortedDataRecordSet.add(dataRecord.duplicate());
+			index = null;
+		}
 
 		return true;
 	}
@@ -387,7 +402,10 @@ public class RangeLookupTable extends GraphElement implements LookupTable {
             throw new NotInitializedException(this);
         }
 
-	    return sortedDataRecordSet.remove(dataRecord);
+		synchronized (sortedDataRecordSet) {
+			index = null;
+			return sortedDataRecordSet.remove(dataRecord);
+		}
 	}
 
 	@Override
@@ -395,6 +413,27 @@ public class RangeLookupTable extends GraphElement implements LookupTable {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Returns immutable snapshot of the table content. The snapshot is created in preExecute()
+	 * and re-created only after modification of the table, so lookups do not need any locking.
+	 */
+	RangeLookupIndex getIndex() {
+		RangeLookupIndex result = index;
+		if (result == null) {
+			synchronized (sortedDataRecordSet) {
+				result = index;
+				if (result == null) {
+					result = index = createIndex();
+				}
+			}
+		}
+		return result;
+	}
+
+	private RangeLookupIndex createIndex() {
+		return new RangeLookupIndex(sortedDataRecordSet, metadata.getField(startField[0]), metadata.getField(endField[0]));
+	}
+
 	@Override
 	public Iterator<DataRecord> iterator() {
         if (!isInitialized()) {
@@ -669,7 +708,6 @@ public class RangeLookupTable extends GraphElement implements LookupTable {
 
 class RangeLookup implements Lookup{
 	
-	private SortedSet<DataRecord> sortedDataRecordSet;
 	private RangeLookupTable lookupTable;
 	private DataRecord tmpRecord;
 	private int[] startField;
@@ -677,15 +715,17 @@ class RangeLookup implements Lookup{
 	private RecordKey key;
 	private DataRecord inRecord;
 	private int[] keyFields;
-	private SortedSet<DataRecord> subTable;
-	private Iterator<DataRecord> subTableIterator;
-	private DataRecord next;
+	private IntervalRecordComparator comparator;
 	private RuleBasedCollator[] collators;
 	private boolean useCollator = false;
-	private int[] comparison;
-	private int numFound;
 	private boolean[] startInclude;
 	private boolean[] endInclude;
+	// records of the table snapshot used by the last seek
+	private DataRecord[] records;
+	// positions of found records in the records array, in the order of the comparator
+	private int[] found = new int[16];
+	private int numFound;
+	private int current;
 
 	RangeLookup(RangeLookupTable lookup, RecordKey key, DataRecord record){
 		this.lookupTable = lookup;
@@ -700,137 +740,130 @@ class RangeLookup implements Lookup{
 	    		break;
 	    	}
 	    }
-	    this.sortedDataRecordSet = lookupTable.sortedDataRecordSet;
+	    // comparator keeps state of last comparison, so each lookup needs its own instance
+	    comparator = new IntervalRecordComparator(lookupTable.getMetadata(), startField, endField, lookupTable.getCollator());
 		this.key = key;
 		this.inRecord = record;
 		this.keyFields = key.getKeyFields();
 	}
 
-	@Override
+	@Override
 	public RecordKey getKey() {
 		return key;
 	}
 
-	@Override
+	@Override
 	public LookupTable getLookupTable() {
 		return lookupTable;
 	}
 	
-	@Override
-	public synchronized int getNumFound() {
-		int alreadyFound = numFound;
-		while (getNext() != null) {};
-		int tmp = numFound;
-		subTableIterator = subTable.iterator();
-		for (int i=0;i<alreadyFound;i++){
-			getNext();
-		}
-		return tmp;
+	@Override
+	public int getNumFound() {
+		return numFound;
 	}
 
-	@Override
+	@Override
 	public void seek() {
 		if (inRecord == null) throw new IllegalStateException("No key data for performing lookup");
 		for (int i = 0; i < startField.length; i++){
 			tmpRecord.getField(startField[i]).setValue(inRecord.getField(keyFields[i]));
 			tmpRecord.getField(endField[i]).setValue(inRecord.getField(keyFields[i]));
 		}
-		synchronized (sortedDataRecordSet) {
-			subTable = sortedDataRecordSet.tailSet(tmpRecord);
-			subTableIterator = subTable.iterator();
-		}
+		RangeLookupIndex index = lookupTable.getIndex();
+		records = index.records;
 		numFound = 0;
-		next = getNext();
+		current = 0;
+		DataField keyField = tmpRecord.getField(startField[0]);
+		if (index.isPrimitive() && !keyField.isNull()) {
+			// candidates start before the key; scanning stops when no preceding interval reaches the key
+			long keyValue = RangeLookupIndex.toLong(keyField);
+			for (int i = index.upperBound(keyValue) - 1; i >= 0 && index.maxEnds[i] >= keyValue; i--) {
+				if (index.ends[i] >= keyValue && contains(records[index.positions[i]])) {
+					addFound(index.positions[i]);
+				}
+			}
+			Arrays.sort(found, 0, numFound);
+		} else {
+			for (int i = index.lowerBound(tmpRecord, comparator); i < records.length; i++) {
+				if (contains(records[i])) {
+					addFound(i);
+				}
+			}
+		}
 	}
 
-	@Override
+	@Override
 	public void seek(DataRecord keyRecord) {
 		inRecord = keyRecord;
 		seek();
 	}
 
-	private DataRecord getNext(){
-		if (subTableIterator == null) {
-			return null;
-		}
-		boolean[] ok = new boolean[startField.length];
-		Arrays.fill(ok, false);
-		boolean allOK = false;
-		DataRecord result = null;
-		nextCandidate: while (!(allOK = checkAll(ok)) && subTableIterator.hasNext()){
-			Arrays.fill(ok, false);
-			result = subTableIterator.next();
-			for (int i = 0; i < startField.length; i++) {
-				comparison = compare(tmpRecord, result, i);
-				if ((comparison[0] < 0 || (comparison[0] == 0 && !startInclude[i])) || (comparison[1] > 0 || (comparison[1] == 0 && !endInclude[i]))) {
-					//if value is not in interval try next
-					continue nextCandidate;
-				} else {
-					ok[i] = true;
-				}
-			}
-		};
-		if (!allOK) {
-			return null;
+	private void addFound(int position) {
+		if (numFound == found.length) {
+			found = Arrays.copyOf(found, 2 * numFound);
 		}
-		numFound++;
-		return result;
+		found[numFound++] = position;
+	}
+
+	/**
+	 * @return true if all intervals of the lookup record contain the key
+	 */
+	private boolean contains(DataRecord lookupRecord) {
+		for (int i = 0; i < startField.length; i++) {
+			int startComp = compareStart(tmpRecord, lookupRecord, i);
+			if (startComp < 0 || (startComp == 0 && !startInclude[i])) {
+				return false;
+			}
+			int endComp = compareEnd(tmpRecord, lookupRecord, i);
+			if (endComp > 0 || (endComp == 0 && !endInclude[i])) {
+				return false;
+			}
+		}
+		return true;
 	}
-	
-	private boolean checkAll(boolean[] value) {
-		for (boolean b : value) {
-			if (!b) return false;
-		}
-		return true;
-	}
 	
-	@Override
+	@Override
 	public boolean hasNext() {
-		return next != null;
+		return current < numFound;
 	}
 
-	@Override
+	@Override
 	public DataRecord next() {
-		if (next == null) {
+		if (current >= numFound) {
 			throw new NoSuchElementException();
 		}
-		DataRecord tmp = next.duplicate();
-		next = getNext();
-		return tmp;
+		return records[found[current++]].duplicate();
 	}
 
-	private int[] compare(DataRecord keyRecord, DataRecord lookupRecord, int keyFieldNo) {
-		int startComp = 0, endComp = 0;
+	private int compareStart(DataRecord keyRecord, DataRecord lookupRecord, int keyFieldNo) {
 		//if start field of lookup record is null, start field of key record is always greater
 		if (lookupRecord.getField(startField[keyFieldNo]).isNull()) {
-			startComp = 1;
+			return 1;
 		}
+		if (useCollator && collators[startField[keyFieldNo]] != null && lookupRecord.getField(startField[keyFieldNo]).getMetadata().getType() == DataFieldMetadata.STRING_FIELD){
+			return ((StringDataField)keyRecord.getField(startField[keyFieldNo])).compareTo(
+					lookupRecord.getField(startField[keyFieldNo]), collators[startField[keyFieldNo]]);
+		}else{
+			return keyRecord.getField(startField[keyFieldNo]).compareTo(
+					lookupRecord.getField(startField[keyFieldNo]));
+		}
+	}
+
+	private int compareEnd(DataRecord keyRecord, DataRecord lookupRecord, int keyFieldNo) {
 		//if end field of lookup record is null, end field of key record is always smaller
 		if (lookupRecord.getField(endField[keyFieldNo]).isNull()){
-			endComp = -1;
-		}
-		if (startComp != 1) {//lookup record's start field is not null
-			if (useCollator && collators[startField[keyFieldNo]] != null && lookupRecord.getField(startField[keyFieldNo]).getMetadata().getType() == DataFieldMetadata.STRING_FIELD){
-				startComp = ((StringDataField)keyRecord.getField(startField[keyFieldNo])).compareTo(
-						lookupRecord.getField(startField[keyFieldNo]), collators[startField[keyFieldNo]]);
-			}else{
-				startComp = keyRecord.getField(startField[keyFieldNo]).compareTo(
-						lookupRecord.getField(startField[keyFieldNo]));
-			}
+			return -1;
 		}
-		if (endComp != -1) {//lookup record's end field is not null
-			if (useCollator && collators[endField[keyFieldNo]] != null && lookupRecord.getField(endField[keyFieldNo]).getMetadata().getType() == DataFieldMetadata.STRING_FIELD){
-				endComp = ((StringDataField)keyRecord.getField(startField[keyFieldNo])).compareTo(
-						lookupRecord.getField(endField[keyFieldNo]), collators[endField[keyFieldNo]]);
-			}else{
-				endComp = keyRecord.getField(endField[keyFieldNo]).compareTo(
-						lookupRecord.getField(endField[keyFieldNo]));
-			}
+		if (useCollator && collators[endField[keyFieldNo]] != null && lookupRecord.getField(endField[keyFieldNo]).getMetadata().getType() == DataFieldMetadata.STRING_FIELD){
+			return ((StringDataField)keyRecord.getField(startField[keyFieldNo])).compareTo(
+					lookupRecord.getField(endField[keyFieldNo]), collators[endField[keyFieldNo]]);
+		}else{
+			return keyRecord.getField(endField[keyFieldNo]).compareTo(
+					lookupRecord.getField(endField[keyFieldNo]));
 		}
-		return new int[]{startComp, endComp};
 	}
 
-	@Override
+	@Override
 	public void remove() {
 		throw new UnsupportedOperationException("Method not supported!");
 	}
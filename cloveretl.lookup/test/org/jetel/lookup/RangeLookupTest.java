@@ -714,6 +714,80 @@ public class RangeLookupTest extends CloverTestCase {
 		lookup.postExecute();
 	}
 
+	public void test_overlappingIntervals() throws ComponentNotReadyException {
+		lookupMetadata = new DataRecordMetadata("lookupTest", DataRecordMetadata.DELIMITED_RECORD);
+		lookupMetadata.addField(new DataFieldMetadata("name", DataFieldMetadata.STRING_FIELD, ";"));
+		lookupMetadata.addField(new DataFieldMetadata("start", DataFieldMetadata.NUMERIC_FIELD, ";"));
+		lookupMetadata.addField(new DataFieldMetadata("end", DataFieldMetadata.NUMERIC_FIELD, ";"));
+		lookupMetadata.addField(new DataFieldMetadata("start1", DataFieldMetadata.INTEGER_FIELD, ";"));
+		lookupMetadata.addField(new DataFieldMetadata("end1", DataFieldMetadata.INTEGER_FIELD, ";"));
+		lookup = (RangeLookupTable) LookupTableFactory.createLookupTable(null, "rangeLookup", new Object[] { "RangeLookup", lookupMetadata, new String[] { "start", "start1" }, new String[] { "end", "end1" }, null }, new Class[] { String.class, DataRecordMetadata.class, String[].class, String[].class, Parser.class });
+		lookup.init();
+		lookup.preExecute();
+		record = DataRecordFactory.newRecord(lookupMetadata);
+		for (int i = 0; i < 1000; i++) {
+			double start = random.nextInt(2000) - 1000 + random.nextInt(4) * 0.25;
+			record.getField("name").setValue("interval " + i);
+			record.getField("start").setValue(random.nextInt(50) == 0 ? null : start);
+			record.getField("end").setValue(random.nextInt(50) == 0 ? null : start + random.nextInt(random.nextBoolean() ? 10 : 500));
+			int start1 = random.nextInt(100);
+			record.getField("start1").setValue(start1);
+			record.getField("end1").setValue(start1 + random.nextInt(50));
+			lookup.put(record);
+		}
+
+		metadata = new DataRecordMetadata("in", DataRecordMetadata.DELIMITED_RECORD);
+		metadata.addField(new DataFieldMetadata("value", DataFieldMetadata.NUMERIC_FIELD, ";"));
+		metadata.addField(new DataFieldMetadata("value1", DataFieldMetadata.INTEGER_FIELD, ";"));
+		record = DataRecordFactory.newRecord(metadata);
+		RecordKey key = new RecordKey(new int[] { 0, 1 }, metadata);
+		lookupResult = lookup.createLookup(key, record);
+
+		for (int i = 0; i < 500; i++) {
+			double value = random.nextInt(2400) - 1200 + random.nextInt(4) * 0.25;
+			int value1 = random.nextInt(160) - 5;
+			record.getField(0).setValue(value);
+			record.getField(1).setValue(value1);
+			lookupResult.seek();
+
+			// expected records in the order of the lookup table
+			int expected = 0;
+			for (Iterator<DataRecord> iter = lookup.iterator(); iter.hasNext();) {
+				DataRecord interval = iter.next();
+				Double start = (Double) interval.getField("start").getValue();
+				Double end = (Double) interval.getField("end").getValue();
+				if ((start == null || start <= value) && (end == null || value < end)
+						&& (Integer) interval.getField("start1").getValue() <= value1 && value1 < (Integer) interval.getField("end1").getValue()) {
+					assertTrue(lookupResult.hasNext());
+					assertEquals(interval.getField("name").toString(), lookupResult.next().getField("name").toString());
+					expected++;
+				}
+			}
+			assertFalse(lookupResult.hasNext());
+			assertEquals(expected, lookupResult.getNumFound());
+		}
+
+		// the table is modified after the lookup has been used
+		record.getField(0).setValue(5000.5);
+		record.getField(1).setValue(10);
+		lookupResult.seek();
+		assertEquals(0, lookupResult.getNumFound());
+		DataRecord interval = DataRecordFactory.newRecord(lookupMetadata);
+		interval.getField("name").setValue("added");
+		interval.getField("start").setValue(5000.0);
+		interval.getField("end").setValue(null);
+		interval.getField("start1").setValue(0);
+		interval.getField("end1").setValue(20);
+		lookup.put(interval);
+		lookupResult.seek();
+		assertEquals(1, lookupResult.getNumFound());
+		assertEquals("added", lookupResult.next().getField("name").toString());
+		lookup.remove(interval);
+		lookupResult.seek();
+		assertEquals(0, lookupResult.getNumFound());
+		lookup.postExecute();
+	}
+
 	private boolean checkOrder(DataRecord previous, DataRecord following) {
 		int startComparison;
 		int endComparison;